@@ -9,10 +9,13 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
- * DTO para historial completo de transacciones del cliente
+ * DTO para historial de transacciones del cliente.
+ * Las listas traen la primera página (las más recientes); las siguientes se piden a
+ * /clientes/{id}/cotizaciones, /apartados y /ventas con el cursor correspondiente.
  *
  * @author Kevin
  * @version 1.0.0
@@ -31,10 +34,16 @@ public class ClienteHistorialResponse {
     private List<ApartadoResponse> apartados;
     private List<VentaResponse> ventas;
 
+    // Cursores de la página siguiente de cada lista (null si no hay más)
+    private String siguienteCursorCotizaciones;
+    private String siguienteCursorApartados;
+    private String siguienteCursorVentas;
+
     // Estadísticas
     private Integer totalCotizaciones;
     private Integer totalApartados;
     private Integer totalVentas;
+    private LocalDateTime ultimaActividad;
 
     // Montos totales
     private BigDecimal montoTotalCotizaciones;
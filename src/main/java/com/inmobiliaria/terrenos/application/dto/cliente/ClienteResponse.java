@@ -58,6 +58,7 @@ public class ClienteResponse {
     private Integer totalCotizaciones;
     private Integer totalApartados;
     private Integer totalVentas;
+    private LocalDateTime ultimaActividad;
 
     // Auditoría
     private LocalDateTime createdAt;
@@ -0,0 +1,38 @@
+package com.inmobiliaria.terrenos.application.dto.cliente;
+
+import com.inmobiliaria.terrenos.domain.enums.EstadoCliente;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO de un resultado del autocompletado de clientes, ordenado por relevancia
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClienteSugerenciaResponse {
+
+    private Long id;
+    private String nombre;
+    private String apellido;
+    private String nombreCompleto;
+    private String email;
+    private String telefono;
+    private String rfc;
+    private EstadoCliente estadoCliente;
+
+    /**
+     * 0 = el nombre empieza con el texto; 1 = alguna palabra del nombre, el email, el teléfono
+     * o el RFC empiezan con el texto; 2 = lo contienen; 3 = coincidencia aproximada
+     */
+    private Integer rango;
+
+    /** Similitud de trigramas con el nombre completo (0 a 1), desempata dentro del rango */
+    private Double similitud;
+}
@@ -0,0 +1,48 @@
+package com.inmobiliaria.terrenos.application.dto.cliente;
+
+import com.inmobiliaria.terrenos.domain.enums.EstadoDuplicadoCliente;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO de una sugerencia de clientes duplicados. El cliente es el registro más antiguo del par
+ * y el que se sugiere conservar al fusionar.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DuplicadoClienteResponse {
+
+    private Long id;
+
+    private Long clienteId;
+    private String clienteNombreCompleto;
+    private String clienteEmail;
+    private String clienteTelefono;
+    private String clienteRfc;
+
+    private Long duplicadoId;
+    private String duplicadoNombreCompleto;
+    private String duplicadoEmail;
+    private String duplicadoTelefono;
+    private String duplicadoRfc;
+
+    /** Similitud del par entre 0 y 1 */
+    private BigDecimal puntaje;
+
+    /** Datos que coinciden: NOMBRE, TELEFONO, EMAIL y/o RFC */
+    private List<String> coincidencias;
+
+    private EstadoDuplicadoCliente estado;
+    private LocalDateTime detectadoAt;
+}
@@ -0,0 +1,23 @@
+package com.inmobiliaria.terrenos.application.dto.cliente;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para fusionar un cliente duplicado en el cliente que se conserva
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FusionClientesRequest {
+
+    @NotNull(message = "El cliente duplicado es obligatorio")
+    private Long duplicadoId;
+}
@@ -0,0 +1,29 @@
+package com.inmobiliaria.terrenos.application.dto.cliente;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con el resultado de fusionar dos clientes: el cliente conservado y cuántos registros
+ * del duplicado pasaron a él
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FusionClientesResponse {
+
+    private ClienteResponse cliente;
+    private Long duplicadoId;
+
+    private int cotizacionesReasignadas;
+    private int apartadosReasignados;
+    private int ventasReasignadas;
+    private int planesPagoReasignados;
+    private int pagosReasignados;
+}
@@ -0,0 +1,29 @@
+package com.inmobiliaria.terrenos.application.dto.cliente;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página del historial de un cliente (cotizaciones, apartados o ventas), de la más reciente
+ * a la más antigua. Para la página siguiente se repite la consulta con cursor = siguienteCursor.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaHistorialResponse<T> {
+
+    private List<T> elementos;
+
+    /** Null en la última página */
+    private String siguienteCursor;
+
+    private boolean hayMas;
+}
@@ -0,0 +1,63 @@
+package com.inmobiliaria.terrenos.application.dto.cliente;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO con el resultado de la importación de clientes desde CSV/XLSX.
+ * Las filas con errores no se importan; el resto sí (salvo en modo soloValidar).
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoImportacionClientesResponse {
+
+    private boolean soloValidar;
+
+    private boolean actualizarExistentes;
+
+    // Totales
+    private Integer filasLeidas;    // sin encabezado ni filas vacías
+    private Integer validas;
+    private Integer insertados;     // 0 en modo soloValidar
+    private Integer actualizados;   // solo con actualizarExistentes
+    private Integer conErrores;
+
+    /** Primeros errores por fila (ver erroresTruncados) */
+    private List<ErrorFila> errores;
+
+    private boolean erroresTruncados;
+
+    /**
+     * Id del reporte CSV con todas las filas con errores (GET /api/v1/clientes/importar/reportes/{id});
+     * null si no hubo errores
+     */
+    private String reporteErroresId;
+
+    private Long tiempoMs;
+
+    /**
+     * Error de una fila del archivo
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ErrorFila {
+
+        /** Número de fila en el archivo (la fila 1 es el encabezado) */
+        private Long fila;
+
+        private String email;
+
+        private List<String> mensajes;
+    }
+}
@@ -46,6 +46,13 @@ public class CreateCotizacionRequest {
     @DecimalMax(value = "100.0", message = "El porcentaje de descuento no puede exceder 100")
     private BigDecimal porcentajeDescuento;
 
+    /**
+     * Código de descuento del cliente. Si se indica, precio base, descuento y precio final
+     * se calculan con el motor de precios en lugar de tomarse del request
+     */
+    @Size(max = 50, message = "El código de descuento no puede exceder 50 caracteres")
+    private String codigoDescuento;
+
     @NotNull(message = "El precio final es obligatorio")
     @DecimalMin(value = "0.0", inclusive = false, message = "El precio final debe ser mayor a 0")
     private BigDecimal precioFinal;
@@ -0,0 +1,73 @@
+package com.inmobiliaria.terrenos.application.dto.descuento;
+
+import com.inmobiliaria.terrenos.domain.enums.TipoDescuento;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO para crear o actualizar un descuento
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DescuentoRequest {
+
+    /**
+     * Proyecto al que aplica; si es nulo aplica a todos los proyectos de la empresa
+     */
+    private Long proyectoId;
+
+    @NotBlank(message = "El nombre es obligatorio")
+    @Size(max = 255, message = "El nombre no puede exceder 255 caracteres")
+    private String nombre;
+
+    @Size(max = 1000, message = "La descripción no puede exceder 1000 caracteres")
+    private String descripcion;
+
+    /**
+     * Código que presenta el cliente; sin código el descuento se aplica automáticamente
+     */
+    @Size(max = 50, message = "El código no puede exceder 50 caracteres")
+    private String codigo;
+
+    @NotNull(message = "El tipo de descuento es obligatorio")
+    private TipoDescuento tipo;
+
+    /**
+     * PORCENTAJE: 5 = 5%; MONTO_FIJO: monto a descontar
+     */
+    @NotNull(message = "El valor es obligatorio")
+    @DecimalMin(value = "0.0", inclusive = false, message = "El valor debe ser mayor a 0")
+    private BigDecimal valor;
+
+    // Aplicabilidad (requieren proyecto)
+    @Size(max = 5000, message = "No se pueden indicar más de 5000 terrenos")
+    private List<Long> aplicaATerrenos;
+
+    @Size(max = 500, message = "No se pueden indicar más de 500 fases")
+    private List<Long> aplicaAFases;
+
+    @NotNull(message = "La fecha de inicio es obligatoria")
+    private LocalDate fechaInicio;
+
+    @NotNull(message = "La fecha de fin es obligatoria")
+    private LocalDate fechaFin;
+
+    @Min(value = 1, message = "Los usos máximos deben ser al menos 1")
+    private Integer usosMaximos;
+}
@@ -0,0 +1,45 @@
+package com.inmobiliaria.terrenos.application.dto.descuento;
+
+import com.inmobiliaria.terrenos.domain.enums.TipoDescuento;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO de respuesta de un descuento
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DescuentoResponse {
+
+    private Long id;
+    private Long tenantId;
+    private Long proyectoId;
+    private String nombre;
+    private String descripcion;
+    private String codigo;
+    private TipoDescuento tipo;
+    private BigDecimal valor;
+    private List<Long> aplicaATerrenos;
+    private List<Long> aplicaAFases;
+    private LocalDate fechaInicio;
+    private LocalDate fechaFin;
+    private Boolean activo;
+    private Integer usosMaximos;
+    private Integer usosActuales;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private String createdBy;
+    private String updatedBy;
+}
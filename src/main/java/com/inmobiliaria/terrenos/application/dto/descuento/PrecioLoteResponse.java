@@ -0,0 +1,44 @@
+package com.inmobiliaria.terrenos.application.dto.descuento;
+
+import com.inmobiliaria.terrenos.domain.enums.TipoDescuento;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO con el precio de lista de un lote y el descuento que le corresponde
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PrecioLoteResponse {
+
+    private Long terrenoId;
+    private Long proyectoId;
+    private Long faseId;
+    private String numeroLote;
+    private String manzana;
+
+    /** Precio final del lote antes de descuentos */
+    private BigDecimal precioLista;
+
+    // Descuento aplicado (nulos si no aplica ninguno)
+    private Long descuentoId;
+    private String descuentoNombre;
+    private String codigo;
+    private TipoDescuento tipoDescuento;
+
+    private BigDecimal montoDescuento;
+    private BigDecimal porcentajeDescuento;
+    private BigDecimal precioFinal;
+
+    /** Si se presentó un código: true si aplica al lote (aunque otro descuento haya sido mayor) */
+    private Boolean codigoAplicable;
+}
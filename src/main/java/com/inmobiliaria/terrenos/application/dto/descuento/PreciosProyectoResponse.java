@@ -0,0 +1,35 @@
+package com.inmobiliaria.terrenos.application.dto.descuento;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO con el precio con descuento de todos los lotes disponibles de un proyecto
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PreciosProyectoResponse {
+
+    private Long proyectoId;
+    private LocalDate fecha;
+    private String codigo;
+
+    private Integer lotes;
+    private Integer lotesConDescuento;
+    private BigDecimal totalLista;
+    private BigDecimal totalDescuentos;
+    private BigDecimal totalFinal;
+
+    private List<PrecioLoteResponse> precios;
+}
@@ -0,0 +1,28 @@
+package com.inmobiliaria.terrenos.application.dto.plano;
+
+import com.inmobiliaria.terrenos.domain.enums.EstadoTerreno;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO de un cambio de estado de lote enviado por el canal de disponibilidad del plano
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CambioEstadoLoteResponse {
+
+    private Long terrenoId;
+    private String numeroLote;
+    private EstadoTerreno estado;
+    private String colorHex;
+
+    // Versión del plano en la que ocurrió el cambio (ver plano-interactivo?since=)
+    private Long version;
+}
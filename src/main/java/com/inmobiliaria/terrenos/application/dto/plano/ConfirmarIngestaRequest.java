@@ -9,6 +9,9 @@ public class ConfirmarIngestaRequest {
     private Long proyectoId;
     private List<LoteIngesta> lotes;
 
+    /** true: los lotes que ya existen en el proyecto actualizan sus coordenadas; false: se omiten */
+    private boolean actualizarExistentes = true;
+
     @Data
     public static class LoteIngesta {
         private String numeroLote;
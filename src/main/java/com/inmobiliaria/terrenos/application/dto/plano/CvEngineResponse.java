@@ -10,6 +10,7 @@ public class CvEngineResponse {
     private int total_lotes_detectados;
     private double tiempo_procesamiento_ms;
     private List<CvLote> lotes;
+    private List<ConflictoLote> conflictos;     // Calculado en el backend (no lo envía el motor)
 
     @Data
     public static class CvLote {
@@ -19,5 +20,16 @@ public class CvEngineResponse {
         private double confianza_ocr;              // 0-100: Frontend marca en rojo si < 60%
         private List<Map<String, Integer>> poligono;
         private Map<String, Integer> coordenadas_centro;
+        private Double area_poligono;              // Área del polígono simplificado (px²)
+        private boolean con_conflicto;             // Frontend lo resalta antes de confirmar
+    }
+
+    @Data
+    public static class ConflictoLote {
+        private String tipo;                       // SOLAPAMIENTO | DUPLICADO | NUMERO_REPETIDO
+        private String lote_a;                     // id_temporal
+        private String lote_b;
+        private double area_solapada;
+        private double proporcion;                 // área solapada / área del lote menor
     }
 }
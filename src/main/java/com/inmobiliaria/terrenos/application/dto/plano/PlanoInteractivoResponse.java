@@ -1,5 +1,6 @@
 package com.inmobiliaria.terrenos.application.dto.plano;
 
+import com.inmobiliaria.terrenos.domain.enums.NivelDetallePlano;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -33,10 +34,20 @@ public class PlanoInteractivoResponse {
     private Integer anchoPlano;
     private Integer altoPlano;
 
+    // Versión del plano; con since, solo vienen los terrenos que cambiaron desde esa versión
+    private Long version;
+    private Long desdeVersion;
+    private Boolean parcial;
+    private List<Long> terrenosEliminados;
+
+    // Nivel de detalle de la geometría (null = coordenadas completas)
+    private NivelDetallePlano nivelDetalle;
+    private String formatoGeometria;
+
     // Terrenos con coordenadas
     private List<TerrenoVisualizacionResponse> terrenos;
 
-    // Estadísticas rápidas
+    // Estadísticas rápidas (en respuestas parciales sin cambios no se incluyen)
     private Integer totalTerrenos;
     private Integer terrenosDisponibles;
     private Integer terrenosApartados;
@@ -0,0 +1,29 @@
+package com.inmobiliaria.terrenos.application.dto.plano;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con el resumen de una ingesta masiva de lotes
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoIngestaResponse {
+
+    private Long proyectoId;
+
+    // Totales
+    private Integer recibidos;
+    private Integer insertados;
+    private Integer actualizados;
+    private Integer omitidos;       // duplicados en la solicitud o existentes sin actualizar
+
+    private Long tiempoMs;
+}
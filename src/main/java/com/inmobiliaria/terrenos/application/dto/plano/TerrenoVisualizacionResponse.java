@@ -1,5 +1,6 @@
 package com.inmobiliaria.terrenos.application.dto.plano;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.inmobiliaria.terrenos.domain.enums.EstadoTerreno;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -29,8 +30,11 @@ public class TerrenoVisualizacionResponse {
     private EstadoTerreno estado;
     private String colorHex; // Color según estado: #4CAF50 (verde), #FFC107 (amarillo), #F44336 (rojo)
 
-    // Coordenadas en el plano
+    // Coordenadas en el plano: completas, o codificadas por nivel de detalle cuando se pide un zoom
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private CoordenadasPlano coordenadas;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String geometria;
 
     // Datos del terreno
     private BigDecimal area;
@@ -0,0 +1,69 @@
+package com.inmobiliaria.terrenos.application.dto.precio;
+
+import com.inmobiliaria.terrenos.domain.enums.TipoReglaPrecio;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO para simular o crear una regla de reajuste de precio.
+ * Los filtros de alcance son opcionales y se combinan con AND.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReglaPrecioRequest {
+
+    @NotNull(message = "El proyecto es obligatorio")
+    private Long proyectoId;
+
+    @NotBlank(message = "El nombre es obligatorio")
+    @Size(max = 150, message = "El nombre no puede exceder 150 caracteres")
+    private String nombre;
+
+    @NotNull(message = "El tipo de reajuste es obligatorio")
+    private TipoReglaPrecio tipo;
+
+    /**
+     * PORCENTAJE: 8 = +8%; AJUSTE_FIJO: monto a sumar al precio base; MULTIPLICADOR: nuevo multiplicador
+     */
+    @NotNull(message = "El valor es obligatorio")
+    private BigDecimal valor;
+
+    // Alcance
+    private Long faseId;
+
+    @Size(max = 50, message = "La manzana no puede exceder 50 caracteres")
+    private String manzana;
+
+    @DecimalMin(value = "0.0", message = "El área mínima no puede ser negativa")
+    private BigDecimal areaMin;
+
+    private BigDecimal areaMax;
+
+    /**
+     * Objeto JSON que deben contener las características del lote, ej. {"esquina": true}
+     */
+    @Size(max = 1000, message = "El filtro de características no puede exceder 1000 caracteres")
+    private String caracteristicas;
+
+    @Size(max = 1000, message = "El motivo no puede exceder 1000 caracteres")
+    private String motivo;
+
+    /**
+     * Fecha en la que se aplica; si es nula se aplica de inmediato
+     */
+    private LocalDateTime fechaProgramada;
+}
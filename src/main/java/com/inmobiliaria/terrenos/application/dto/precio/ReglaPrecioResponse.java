@@ -0,0 +1,45 @@
+package com.inmobiliaria.terrenos.application.dto.precio;
+
+import com.inmobiliaria.terrenos.domain.enums.EstadoReglaPrecio;
+import com.inmobiliaria.terrenos.domain.enums.TipoReglaPrecio;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO de respuesta para reglas de reajuste de precio
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReglaPrecioResponse {
+
+    private Long id;
+    private Long proyectoId;
+    private String nombre;
+    private TipoReglaPrecio tipo;
+    private BigDecimal valor;
+    private Long faseId;
+    private String manzana;
+    private BigDecimal areaMin;
+    private BigDecimal areaMax;
+    private String caracteristicas;
+    private String motivo;
+    private EstadoReglaPrecio estado;
+    private LocalDateTime fechaProgramada;
+    private LocalDateTime fechaAplicacion;
+    private Integer lotesAfectados;
+    private BigDecimal totalAnterior;
+    private BigDecimal totalNuevo;
+    private String error;
+    private String createdBy;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,54 @@
+package com.inmobiliaria.terrenos.application.dto.precio;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * DTO con el impacto de una regla de reajuste sin aplicarla
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimulacionReajusteResponse {
+
+    private Long proyectoId;
+
+    // Impacto agregado sobre los lotes disponibles y reservados del alcance
+    private Integer lotes;
+    private BigDecimal totalAnterior;
+    private BigDecimal totalNuevo;
+    private BigDecimal diferencia;
+    private BigDecimal variacionPorcentual;
+    private BigDecimal precioMinimoNuevo;
+    private BigDecimal precioMaximoNuevo;
+
+    /** Lotes cuyo precio base quedaría en cero o negativo: la regla no se puede aplicar */
+    private Integer lotesPrecioInvalido;
+
+    /** Primeros lotes por número de lote */
+    private List<LoteReajustado> muestra;
+
+    /**
+     * Precio anterior y nuevo de un lote
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LoteReajustado {
+        private Long terrenoId;
+        private String numeroLote;
+        private String manzana;
+        private BigDecimal precioAnterior;
+        private BigDecimal precioNuevo;
+    }
+}
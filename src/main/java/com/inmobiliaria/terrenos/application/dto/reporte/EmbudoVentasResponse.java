@@ -0,0 +1,89 @@
+package com.inmobiliaria.terrenos.application.dto.reporte;
+
+import com.inmobiliaria.terrenos.domain.enums.AgrupacionEmbudo;
+import com.inmobiliaria.terrenos.domain.enums.MetricaEmbudo;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO del embudo de ventas (cotización → apartado → venta) de un periodo.
+ *
+ * Las conversiones se cuentan sobre la cohorte del periodo: de las cotizaciones creadas en el
+ * periodo, cuántas terminaron en apartado o venta (aunque haya sido después). Los tiempos entre
+ * etapas son de las conversiones ocurridas en el periodo.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmbudoVentasResponse {
+
+    private LocalDate desde;
+    private LocalDate hasta;
+    private AgrupacionEmbudo agrupacion;
+
+    private Etapas totales;
+
+    /** Desglose según agrupacion (vacío con TOTAL) */
+    private List<Etapas> grupos;
+
+    /**
+     * Conteos, tasas y tiempos de un grupo
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Etapas {
+
+        // Grupo (null cuando no se agrupa por el campo; usuarioId null = sin agente)
+        private Long proyectoId;
+        private String proyectoNombre;
+        private Long usuarioId;
+        private String usuarioNombre;
+
+        private Long cotizaciones;
+        private Long cotizacionesApartadas;
+        private Long cotizacionesVendidas;
+        private Long apartados;
+        private Long apartadosVendidos;
+        private Long apartadosVencidos;
+        private Long apartadosCancelados;
+        private Long ventas;
+        private Long ventasCanceladas;
+        private BigDecimal montoVentas;     // neto de ventas canceladas
+
+        // Porcentajes
+        private BigDecimal tasaCotizacionApartado;
+        private BigDecimal tasaApartadoVenta;
+        private BigDecimal tasaCotizacionVenta;
+        private BigDecimal tasaCancelacionVentas;
+
+        private List<TiempoEtapa> tiempos;
+    }
+
+    /**
+     * Días entre dos etapas del embudo
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TiempoEtapa {
+
+        private MetricaEmbudo transicion;
+        private Long conversiones;
+        private Integer medianaDias;
+        private Integer p90Dias;
+        private BigDecimal promedioDias;
+    }
+}
@@ -0,0 +1,50 @@
+package com.inmobiliaria.terrenos.application.dto.reporte;
+
+import com.inmobiliaria.terrenos.domain.enums.FormatoExportacion;
+import com.inmobiliaria.terrenos.domain.enums.TipoExportacion;
+import com.inmobiliaria.terrenos.domain.enums.TipoTrabajoReporte;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * DTO para solicitar un reporte en segundo plano
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SolicitudReporteRequest {
+
+    @NotNull(message = "El tipo de reporte es obligatorio")
+    private TipoTrabajoReporte tipo;
+
+    /** Datos a exportar (obligatorio si tipo es EXPORTACION) */
+    private TipoExportacion tipoExportacion;
+
+    /** CSV por defecto */
+    private FormatoExportacion formato;
+
+    // Filtros de la exportación
+    private LocalDate desde;
+    private LocalDate hasta;
+    private Long proyectoId;
+
+    /**
+     * Autoridades que permiten solicitar y ver el reporte: las de la exportación directa de
+     * esos datos, o las de reportes para las estadísticas
+     */
+    public String[] autoridades() {
+        if (tipo == TipoTrabajoReporte.EXPORTACION && tipoExportacion != null) {
+            return tipoExportacion.getAutoridades();
+        }
+        return new String[]{"REPORTE_VER", "ADMIN"};
+    }
+}
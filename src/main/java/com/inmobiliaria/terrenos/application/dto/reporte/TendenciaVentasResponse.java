@@ -0,0 +1,73 @@
+package com.inmobiliaria.terrenos.application.dto.reporte;
+
+import com.inmobiliaria.terrenos.domain.enums.GranularidadTendencia;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO de tendencias de ventas: una serie por periodo (día, semana o mes) para gráficas.
+ * Los periodos sin movimientos vienen en cero.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TendenciaVentasResponse {
+
+    private GranularidadTendencia granularidad;
+    private LocalDate desde;
+    private LocalDate hasta;
+    private Long proyectoId;
+
+    /** Suma de todos los periodos */
+    private Periodo totales;
+    private List<Periodo> periodos;
+
+    /** Serie de cada proyecto (solo si se pidió el desglose) */
+    private List<SerieProyecto> proyectos;
+
+    /**
+     * Valores de un periodo
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Periodo {
+
+        /** Primer día del periodo (null en totales) */
+        private LocalDate periodo;
+
+        private Long ventas;                // netas de ventas canceladas
+        private BigDecimal montoVentas;
+        private BigDecimal comisiones;
+        private Long pagos;
+        private BigDecimal montoPagos;
+        private Long apartados;             // apartados nuevos
+        private BigDecimal montoApartados;
+    }
+
+    /**
+     * Serie de un proyecto
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SerieProyecto {
+
+        private Long proyectoId;
+        private String proyectoNombre;
+        private Periodo totales;
+        private List<Periodo> periodos;
+    }
+}
@@ -0,0 +1,44 @@
+package com.inmobiliaria.terrenos.application.dto.reporte;
+
+import com.inmobiliaria.terrenos.domain.enums.EstadoTrabajoReporte;
+import com.inmobiliaria.terrenos.domain.enums.TipoExportacion;
+import com.inmobiliaria.terrenos.domain.enums.TipoTrabajoReporte;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO de un trabajo de reporte: su estado y, al completarse, el archivo para descargar
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrabajoReporteResponse {
+
+    private String id;
+    private TipoTrabajoReporte tipo;
+    private TipoExportacion tipoExportacion;
+    private EstadoTrabajoReporte estado;
+
+    /** true si la solicitud era idéntica a una reciente y se devolvió ese trabajo */
+    private Boolean reutilizado;
+
+    private LocalDateTime creadoAt;
+    private LocalDateTime iniciadoAt;
+    private LocalDateTime terminadoAt;
+
+    /** Después de esta fecha el archivo se elimina */
+    private LocalDateTime venceAt;
+
+    private String nombreArchivo;
+    private Long filas;
+    private Long tamanioBytes;
+    private String error;
+}
@@ -0,0 +1,72 @@
+package com.inmobiliaria.terrenos.application.dto.terreno;
+
+import com.inmobiliaria.terrenos.domain.enums.EstadoTerreno;
+import com.inmobiliaria.terrenos.domain.enums.OrdenTerreno;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Filtros, orden y página de la búsqueda de terrenos.
+ * Todos los filtros son opcionales y se combinan con AND.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BusquedaTerrenosRequest {
+
+    private Long proyectoId;
+
+    private Long faseId;
+
+    @Size(max = 50, message = "La manzana no puede exceder 50 caracteres")
+    private String manzana;
+
+    @DecimalMin(value = "0.0", message = "El área mínima no puede ser negativa")
+    private BigDecimal areaMin;
+
+    private BigDecimal areaMax;
+
+    @DecimalMin(value = "0.0", message = "El precio mínimo no puede ser negativo")
+    private BigDecimal precioMin;
+
+    private BigDecimal precioMax;
+
+    private List<EstadoTerreno> estado;
+
+    /**
+     * Objeto JSON que deben contener las características del lote, ej. {"esquina": true}
+     */
+    @Size(max = 1000, message = "El filtro de características no puede exceder 1000 caracteres")
+    private String caracteristicas;
+
+    @Builder.Default
+    private OrdenTerreno orden = OrdenTerreno.NUMERO_LOTE;
+
+    @Builder.Default
+    private Sort.Direction direccion = Sort.Direction.ASC;
+
+    /**
+     * Cursor devuelto en siguienteCursor de la página anterior
+     */
+    @Size(max = 500, message = "Cursor inválido")
+    private String cursor;
+
+    @Min(value = 1, message = "El límite debe ser al menos 1")
+    @Max(value = 200, message = "El límite no puede exceder 200")
+    @Builder.Default
+    private Integer limite = 50;
+}
@@ -0,0 +1,29 @@
+package com.inmobiliaria.terrenos.application.dto.terreno;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página de resultados de la búsqueda de terrenos.
+ * Para la página siguiente se repite la búsqueda con cursor = siguienteCursor.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaTerrenosResponse {
+
+    private List<TerrenoResponse> terrenos;
+
+    /** Null en la última página */
+    private String siguienteCursor;
+
+    private boolean hayMas;
+}
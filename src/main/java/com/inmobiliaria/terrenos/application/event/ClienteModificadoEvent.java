@@ -0,0 +1,35 @@
+package com.inmobiliaria.terrenos.application.event;
+
+import com.inmobiliaria.terrenos.domain.entity.Cliente;
+import com.inmobiliaria.terrenos.domain.enums.EstadoCliente;
+
+/**
+ * Evento publicado cuando se crea, edita o elimina un cliente.
+ *
+ * Lleva los campos que muestra el autocompletado para que el índice de búsqueda en memoria
+ * del tenant se actualice tras el commit sin volver a leer el cliente. Si eliminado es true
+ * solo importan tenantId y clienteId.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+public record ClienteModificadoEvent(Long tenantId,
+                                     Long clienteId,
+                                     String nombre,
+                                     String apellido,
+                                     String email,
+                                     String telefono,
+                                     String rfc,
+                                     EstadoCliente estadoCliente,
+                                     boolean eliminado) {
+
+    public static ClienteModificadoEvent guardado(Cliente cliente) {
+        return new ClienteModificadoEvent(cliente.getTenantId(), cliente.getId(), cliente.getNombre(),
+                cliente.getApellido(), cliente.getEmail(), cliente.getTelefono(), cliente.getRfc(),
+                cliente.getEstadoCliente(), Boolean.TRUE.equals(cliente.getDeleted()));
+    }
+
+    public static ClienteModificadoEvent eliminado(Long tenantId, Long clienteId) {
+        return new ClienteModificadoEvent(tenantId, clienteId, null, null, null, null, null, null, true);
+    }
+}
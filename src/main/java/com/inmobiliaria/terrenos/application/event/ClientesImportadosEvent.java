@@ -0,0 +1,14 @@
+package com.inmobiliaria.terrenos.application.event;
+
+/**
+ * Evento publicado al terminar una importación masiva de clientes.
+ *
+ * Una importación puede dar de alta decenas de miles de clientes: en lugar de un
+ * {@link ClienteModificadoEvent} por cliente, el índice de búsqueda del tenant se descarta
+ * tras el commit y se reconstruye en la siguiente búsqueda.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+public record ClientesImportadosEvent(Long tenantId, int insertados, int actualizados) {
+}
@@ -0,0 +1,14 @@
+package com.inmobiliaria.terrenos.application.event;
+
+/**
+ * Evento publicado cuando cambia la geometría de los lotes de un proyecto
+ * (alta, baja, edición de coordenadas o ingesta del plano).
+ *
+ * Los consumidores lo reciben tras el commit para invalidar estructuras derivadas
+ * de las coordenadas, como el índice espacial del plano.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+public record CoordenadasLotesModificadasEvent(Long tenantId, Long proyectoId) {
+}
@@ -0,0 +1,13 @@
+package com.inmobiliaria.terrenos.application.event;
+
+/**
+ * Evento publicado cuando se crea, edita o desactiva un descuento de la empresa.
+ *
+ * Los consumidores lo reciben tras el commit para descartar el índice de descuentos
+ * en memoria del tenant.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+public record DescuentosModificadosEvent(Long tenantId) {
+}
@@ -0,0 +1,21 @@
+package com.inmobiliaria.terrenos.application.event;
+
+import com.inmobiliaria.terrenos.domain.enums.EstadoTerreno;
+
+/**
+ * Evento publicado cuando un lote cambia de estado (apartado, venta, cancelación o cambio manual).
+ *
+ * Se entrega tras el commit a las pantallas suscritas al canal de disponibilidad del proyecto.
+ * planoVersion es la versión del plano en la que quedó registrado el cambio.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+public record EstadoLoteCambiadoEvent(Long tenantId,
+                                      Long proyectoId,
+                                      Long terrenoId,
+                                      String numeroLote,
+                                      EstadoTerreno estadoAnterior,
+                                      EstadoTerreno estadoNuevo,
+                                      long planoVersion) {
+}
@@ -2,6 +2,7 @@ package com.inmobiliaria.terrenos.application.service;
 
 import com.inmobiliaria.terrenos.application.dto.apartado.ApartadoResponse;
 import com.inmobiliaria.terrenos.application.dto.apartado.CreateApartadoRequest;
+import com.inmobiliaria.terrenos.application.event.EstadoLoteCambiadoEvent;
 import com.inmobiliaria.terrenos.domain.entity.Apartado;
 import com.inmobiliaria.terrenos.domain.entity.Proyecto;
 import com.inmobiliaria.terrenos.domain.entity.Terreno;
@@ -16,6 +17,7 @@ import com.inmobiliaria.terrenos.shared.exception.BusinessException;
 import com.inmobiliaria.terrenos.shared.exception.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -38,6 +40,10 @@ public class ApartadoService {
     private final TerrenoRepository terrenoRepository;
     private final ProyectoRepository proyectoRepository;
     private final ApartadoMapper apartadoMapper;
+    private final PlanoVersionService planoVersionService;
+    private final EmbudoVentasService embudoVentasService;
+    private final TendenciaVentasService tendenciaVentasService;
+    private final ApplicationEventPublisher eventPublisher;
 
     private Long getTenantId() {
         Long tenantId = TenantContext.getTenantId();
@@ -105,15 +111,22 @@ public class ApartadoService {
         apartado.setFechaApartado(LocalDate.now());
         apartado.setFechaVencimiento(LocalDate.now().plusDays(request.getDuracionDias()));
         apartado.setEstado(EstadoApartado.ACTIVO);
+        apartado.setUsuarioId(embudoVentasService.resolverAgente(tenantId));
 
         // Cambiar estado del terreno a APARTADO
+        EstadoTerreno estadoAnterior = terreno.getEstado();
         terreno.setEstado(EstadoTerreno.APARTADO);
+        long planoVersion = planoVersionService.registrarCambioLote(terreno);
         terrenoRepository.save(terreno);
+        eventPublisher.publishEvent(new EstadoLoteCambiadoEvent(tenantId, terreno.getProyectoId(), terreno.getId(),
+                terreno.getNumeroLote(), estadoAnterior, EstadoTerreno.APARTADO, planoVersion));
 
         // Actualizar contadores del proyecto
         actualizarContadoresProyecto(terreno.getProyectoId());
 
         Apartado apartadoGuardado = apartadoRepository.save(apartado);
+        embudoVentasService.registrarApartado(apartadoGuardado, terreno.getProyectoId());
+        tendenciaVentasService.registrarApartado(apartadoGuardado, terreno.getProyectoId());
         log.info("Apartado creado con id: {}", apartadoGuardado.getId());
 
         return apartadoMapper.toResponse(apartadoGuardado);
@@ -142,13 +155,19 @@ public class ApartadoService {
         Terreno terreno = terrenoRepository.findById(apartado.getTerrenoId()).orElse(null);
         if (terreno != null && terreno.getEstado() == EstadoTerreno.APARTADO) {
             terreno.setEstado(EstadoTerreno.DISPONIBLE);
+            long planoVersion = planoVersionService.registrarCambioLote(terreno);
             terrenoRepository.save(terreno);
+            eventPublisher.publishEvent(new EstadoLoteCambiadoEvent(tenantId, terreno.getProyectoId(), terreno.getId(),
+                    terreno.getNumeroLote(), EstadoTerreno.APARTADO, EstadoTerreno.DISPONIBLE, planoVersion));
 
             // Actualizar contadores del proyecto
             actualizarContadoresProyecto(terreno.getProyectoId());
         }
 
         Apartado apartadoActualizado = apartadoRepository.save(apartado);
+        if (terreno != null) {
+            embudoVentasService.registrarCancelacionApartado(apartadoActualizado, terreno.getProyectoId());
+        }
         log.info("Apartado {} cancelado exitosamente", id);
 
         return apartadoMapper.toResponse(apartadoActualizado);
@@ -46,6 +46,7 @@ public class ArchivoService {
     private final ProyectoRepository proyectoRepository;
     private final TerrenoRepository terrenoRepository;
     private final ArchivoMapper archivoMapper;
+    private final PlanoVersionService planoVersionService;
     private final FileStorageProperties fileStorageProperties;
 
     private Path fileStorageLocation;
@@ -141,6 +142,9 @@ public class ArchivoService {
         archivo.setTenantId(tenantId);
 
         Archivo archivoGuardado = archivoRepository.save(archivo);
+        if (esImagenDePlano(archivoGuardado)) {
+            planoVersionService.registrarCambioEstructura(tenantId, proyectoId);
+        }
         log.info("Archivo guardado con id: {} (versión {})", archivoGuardado.getId(), version);
 
         return archivoMapper.toResponse(archivoGuardado);
@@ -173,27 +177,15 @@ public class ArchivoService {
     }
 
     /**
-     * Lista archivos
+     * Lista archivos; los filtros indicados se combinan
      */
     @Transactional(readOnly = true)
     public List<ArchivoResponse> listarArchivos(Long proyectoId, Long terrenoId, TipoArchivo tipo) {
         Long tenantId = getTenantId();
         log.debug("Listando archivos para tenant: {}", tenantId);
 
-        List<Archivo> archivos;
-        if (proyectoId != null && tipo != null) {
-            archivos = archivoRepository.findByProyectoYTipo(tenantId, proyectoId, tipo);
-        } else if (proyectoId != null) {
-            archivos = archivoRepository.findByTenantIdAndProyectoIdAndDeletedFalseOrderByVersionDesc(tenantId, proyectoId);
-        } else if (terrenoId != null) {
-            archivos = archivoRepository.findByTenantIdAndTerrenoIdAndDeletedFalseOrderByVersionDesc(tenantId, terrenoId);
-        } else if (tipo != null) {
-            archivos = archivoRepository.findByTenantIdAndTipoAndDeletedFalseOrderByCreatedAtDesc(tenantId, tipo);
-        } else {
-            archivos = archivoRepository.findByTenantIdAndDeletedFalse(tenantId);
-        }
-
-        return archivoMapper.toResponseList(archivos);
+        return archivoMapper.listadoToResponseList(
+                archivoRepository.findListado(tenantId, proyectoId, terrenoId, tipo));
     }
 
     /**
@@ -234,10 +226,21 @@ public class ArchivoService {
         archivo.setDeleted(true);
         archivo.setEsActivo(false);
         archivoRepository.save(archivo);
+        if (esImagenDePlano(archivo)) {
+            planoVersionService.registrarCambioEstructura(tenantId, archivo.getProyectoId());
+        }
 
         log.info("Archivo {} eliminado exitosamente", id);
     }
 
+    /**
+     * Indica si el archivo puede ser el fondo del plano interactivo del proyecto
+     */
+    private boolean esImagenDePlano(Archivo archivo) {
+        return archivo.getProyectoId() != null
+                && (archivo.getTipo() == TipoArchivo.PLANO_PROYECTO || archivo.getTipo() == TipoArchivo.IMAGEN_PROYECTO);
+    }
+
     /**
      * Valida el archivo
      */
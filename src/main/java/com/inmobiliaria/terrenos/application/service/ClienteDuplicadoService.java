@@ -0,0 +1,237 @@
+package com.inmobiliaria.terrenos.application.service;
+
+import com.inmobiliaria.terrenos.application.dto.cliente.DuplicadoClienteResponse;
+import com.inmobiliaria.terrenos.application.dto.cliente.FusionClientesResponse;
+import com.inmobiliaria.terrenos.application.event.ClienteModificadoEvent;
+import com.inmobiliaria.terrenos.domain.entity.Cliente;
+import com.inmobiliaria.terrenos.domain.enums.TipoAccionAudit;
+import com.inmobiliaria.terrenos.domain.repository.ClienteRepository;
+import com.inmobiliaria.terrenos.infrastructure.busqueda.DetectorDuplicados;
+import com.inmobiliaria.terrenos.infrastructure.persistence.ClienteDuplicadoRepository;
+import com.inmobiliaria.terrenos.infrastructure.security.SecurityUtils;
+import com.inmobiliaria.terrenos.infrastructure.tenant.TenantContext;
+import com.inmobiliaria.terrenos.interfaces.mapper.ClienteMapper;
+import com.inmobiliaria.terrenos.shared.exception.BusinessException;
+import com.inmobiliaria.terrenos.shared.exception.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Servicio de detección y fusión de clientes duplicados.
+ *
+ * La detección (DetectorDuplicados) corre por tenant en segundo plano y deja sugerencias
+ * pendientes de revisión; nunca fusiona por su cuenta. La fusión la decide un usuario: el
+ * cliente conservado recibe las cotizaciones, apartados, ventas, planes de pago y pagos del
+ * duplicado, completa con sus datos los campos que tenga vacíos, y el duplicado queda
+ * eliminado con referencia al cliente en que se fusionó.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ClienteDuplicadoService {
+
+    private static final int LIMITE_SUGERENCIAS = 50;
+    private static final int LIMITE_MAXIMO_SUGERENCIAS = 200;
+
+    private final ClienteRepository clienteRepository;
+    private final ClienteDuplicadoRepository clienteDuplicadoRepository;
+    private final ClienteMapper clienteMapper;
+    private final AuditService auditService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Resultado de una detección
+     *
+     * @param sugerencias pares sobre el umbral (nuevos o ya registrados)
+     * @param obsoletas   pendientes anteriores que ya no se detectaron y se eliminaron
+     */
+    public record ResultadoDeteccion(int clientes, int bloques, int bloquesOmitidos, long comparaciones,
+                                     int sugerencias, int obsoletas) {
+    }
+
+    /**
+     * Obtiene el tenant_id del contexto actual
+     */
+    private Long getTenantId() {
+        Long tenantId = TenantContext.getTenantId();
+        if (tenantId == null) {
+            throw new BusinessException("No se encontró tenant_id en el contexto", HttpStatus.UNAUTHORIZED);
+        }
+        return tenantId;
+    }
+
+    /**
+     * Detecta los clientes duplicados de un tenant y actualiza sus sugerencias pendientes.
+     * Lee, compara y escribe en una sola transacción: la lectura usa cursor y las sugerencias
+     * de la ejecución anterior se reemplazan a la vez.
+     *
+     * @param umbral    puntaje mínimo de un par para sugerirlo (0 a 1)
+     * @param maxBloque bloques más grandes no se comparan
+     */
+    @Transactional
+    public ResultadoDeteccion detectar(Long tenantId, double umbral, int maxBloque) {
+        LocalDateTime detectado = LocalDateTime.now();
+
+        List<DetectorDuplicados.Ficha> fichas = clienteDuplicadoRepository.fichas(tenantId);
+        DetectorDuplicados.Resultado resultado = DetectorDuplicados.detectar(fichas, umbral, maxBloque);
+
+        clienteDuplicadoRepository.guardarSugerencias(tenantId, resultado.pares(), detectado);
+        int obsoletas = clienteDuplicadoRepository.eliminarObsoletas(tenantId, detectado);
+
+        return new ResultadoDeteccion(fichas.size(), resultado.bloques(), resultado.bloquesOmitidos(),
+                resultado.comparaciones(), resultado.pares().size(), obsoletas);
+    }
+
+    /**
+     * Sugerencias pendientes del tenant, de la más a la menos probable
+     *
+     * @param limite nulo = LIMITE_SUGERENCIAS
+     */
+    @Transactional(readOnly = true)
+    public List<DuplicadoClienteResponse> listarSugerencias(Integer limite) {
+        int resultados = limite != null ? limite : LIMITE_SUGERENCIAS;
+        if (resultados < 1 || resultados > LIMITE_MAXIMO_SUGERENCIAS) {
+            throw new BusinessException("El límite debe estar entre 1 y " + LIMITE_MAXIMO_SUGERENCIAS,
+                    HttpStatus.BAD_REQUEST);
+        }
+        return clienteDuplicadoRepository.pendientes(getTenantId(), resultados);
+    }
+
+    /**
+     * Marca una sugerencia como falsa coincidencia; las detecciones siguientes no la reabren
+     */
+    @Transactional
+    public void descartarSugerencia(Long sugerenciaId) {
+        Long tenantId = getTenantId();
+        String usuario = SecurityUtils.getCurrentUsername().orElse("SYSTEM");
+
+        if (!clienteDuplicadoRepository.descartar(tenantId, sugerenciaId, usuario, LocalDateTime.now())) {
+            throw new ResourceNotFoundException("Sugerencia pendiente no encontrada con id: " + sugerenciaId);
+        }
+        log.info("Sugerencia de duplicado {} descartada por {}", sugerenciaId, usuario);
+    }
+
+    /**
+     * Fusiona el cliente duplicadoId en clienteId
+     */
+    @Transactional
+    public FusionClientesResponse fusionar(Long clienteId, Long duplicadoId) {
+        Long tenantId = getTenantId();
+        String usuario = SecurityUtils.getCurrentUsername().orElse("SYSTEM");
+        log.info("Fusionando cliente {} en {} para tenant: {}", duplicadoId, clienteId, tenantId);
+
+        if (clienteId.equals(duplicadoId)) {
+            throw new BusinessException("Un cliente no se puede fusionar consigo mismo", HttpStatus.BAD_REQUEST);
+        }
+
+        // Ambos clientes se bloquean en orden de id: dos fusiones cruzadas (A en B y B en A) no se
+        // interbloquean, y la segunda encuentra eliminado al cliente que la primera fusionó
+        boolean clientePrimero = clienteId < duplicadoId;
+        Cliente primero = bloquearParaFusion(clientePrimero ? clienteId : duplicadoId, tenantId);
+        Cliente segundo = bloquearParaFusion(clientePrimero ? duplicadoId : clienteId, tenantId);
+        Cliente cliente = clientePrimero ? primero : segundo;
+        Cliente duplicado = clientePrimero ? segundo : primero;
+
+        LocalDateTime ahora = LocalDateTime.now();
+        ClienteDuplicadoRepository.Reasignacion reasignacion =
+                clienteDuplicadoRepository.reasignar(tenantId, duplicadoId, clienteId, usuario, ahora);
+
+        // El email es único por tenant: el duplicado lo libera antes de pasarlo al conservado
+        boolean transferirEmail = cliente.getEmail() == null && duplicado.getEmail() != null;
+        String email = duplicado.getEmail();
+        duplicado.setDeleted(true);
+        duplicado.setFusionadoEnId(clienteId);
+        duplicado.setUpdatedBy(usuario);
+        if (transferirEmail) {
+            duplicado.setEmail(null);
+        }
+        clienteRepository.saveAndFlush(duplicado);
+
+        if (transferirEmail) {
+            cliente.setEmail(email);
+        }
+        completarDatos(cliente, duplicado);
+        cliente.setUpdatedBy(usuario);
+        Cliente conservado = clienteRepository.save(cliente);
+
+        clienteDuplicadoRepository.registrarFusion(tenantId, clienteId, duplicadoId, usuario, ahora);
+
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("clienteId", clienteId);
+        metadata.put("duplicadoId", duplicadoId);
+        metadata.put("duplicadoNombre", duplicado.getNombreCompleto());
+        metadata.put("cotizaciones", reasignacion.cotizaciones());
+        metadata.put("apartados", reasignacion.apartados());
+        metadata.put("ventas", reasignacion.ventas());
+        metadata.put("planesPago", reasignacion.planesPago());
+        metadata.put("pagos", reasignacion.pagos());
+        auditService.registrarAccionSimple(TipoAccionAudit.CLIENTS_MERGED,
+                "Cliente " + duplicadoId + " fusionado en " + clienteId, metadata);
+
+        // El índice de búsqueda del tenant quita al duplicado y actualiza al conservado
+        eventPublisher.publishEvent(ClienteModificadoEvent.eliminado(tenantId, duplicadoId));
+        eventPublisher.publishEvent(ClienteModificadoEvent.guardado(conservado));
+
+        log.info("Cliente {} fusionado en {}: {}", duplicadoId, clienteId, reasignacion);
+        return FusionClientesResponse.builder()
+                .cliente(clienteMapper.toResponse(conservado))
+                .duplicadoId(duplicadoId)
+                .cotizacionesReasignadas(reasignacion.cotizaciones())
+                .apartadosReasignados(reasignacion.apartados())
+                .ventasReasignadas(reasignacion.ventas())
+                .planesPagoReasignados(reasignacion.planesPago())
+                .pagosReasignados(reasignacion.pagos())
+                .build();
+    }
+
+    private Cliente bloquearParaFusion(Long id, Long tenantId) {
+        return clienteRepository.findByIdParaFusionar(id, tenantId)
+                .orElseThrow(() -> new ResourceNotFoundException("Cliente no encontrado con id: " + id));
+    }
+
+    /**
+     * Copia al cliente conservado los datos que solo tiene el duplicado. La dirección se toma
+     * completa para no mezclar la de ambos.
+     */
+    private void completarDatos(Cliente cliente, Cliente duplicado) {
+        if (cliente.getTelefonoSecundario() == null && !duplicado.getTelefono().equals(cliente.getTelefono())) {
+            cliente.setTelefonoSecundario(duplicado.getTelefono());
+        }
+        if (cliente.getRfc() == null) {
+            cliente.setRfc(duplicado.getRfc());
+        }
+        if (cliente.getCurp() == null) {
+            cliente.setCurp(duplicado.getCurp());
+        }
+        if (cliente.getFechaNacimiento() == null) {
+            cliente.setFechaNacimiento(duplicado.getFechaNacimiento());
+        }
+        if (cliente.getOrigen() == null) {
+            cliente.setOrigen(duplicado.getOrigen());
+        }
+        if (cliente.getDireccion() == null && duplicado.getDireccion() != null) {
+            cliente.setDireccion(duplicado.getDireccion());
+            cliente.setCiudad(duplicado.getCiudad());
+            cliente.setEstado(duplicado.getEstado());
+            cliente.setCodigoPostal(duplicado.getCodigoPostal());
+            cliente.setPais(duplicado.getPais());
+        }
+        if (duplicado.getNotas() != null && !duplicado.getNotas().isBlank()) {
+            cliente.setNotas(cliente.getNotas() == null || cliente.getNotas().isBlank()
+                    ? duplicado.getNotas()
+                    : cliente.getNotas() + "\n\n" + duplicado.getNotas());
+        }
+    }
+}
@@ -0,0 +1,585 @@
+package com.inmobiliaria.terrenos.application.service;
+
+import com.inmobiliaria.terrenos.application.dto.cliente.CreateClienteRequest;
+import com.inmobiliaria.terrenos.application.dto.cliente.ResultadoImportacionClientesResponse;
+import com.inmobiliaria.terrenos.application.event.ClientesImportadosEvent;
+import com.inmobiliaria.terrenos.domain.enums.EstadoCliente;
+import com.inmobiliaria.terrenos.domain.enums.OrigenCliente;
+import com.inmobiliaria.terrenos.domain.repository.ClienteRepository;
+import com.inmobiliaria.terrenos.infrastructure.importacion.EscritorCsv;
+import com.inmobiliaria.terrenos.infrastructure.importacion.LectorCsv;
+import com.inmobiliaria.terrenos.infrastructure.importacion.LectorTabla;
+import com.inmobiliaria.terrenos.infrastructure.importacion.LectorXlsx;
+import com.inmobiliaria.terrenos.infrastructure.importacion.ReportesImportacion;
+import com.inmobiliaria.terrenos.infrastructure.persistence.ClienteBatchWriter;
+import com.inmobiliaria.terrenos.infrastructure.security.SecurityUtils;
+import com.inmobiliaria.terrenos.infrastructure.tenant.TenantContext;
+import com.inmobiliaria.terrenos.shared.exception.BusinessException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Servicio de importación masiva de clientes desde CSV o XLSX (listas de prospectos).
+ *
+ * Reemplaza una llamada a ClienteService.crearCliente por fila (dos consultas de unicidad y
+ * un INSERT) por un solo recorrido del archivo, igual que TerrenoImportacionService:
+ * - El archivo se lee en streaming y se procesa en bloques de {@link ClienteBatchWriter#BATCH_SIZE}
+ *   filas; las filas de cada bloque se validan en paralelo con las anotaciones de
+ *   CreateClienteRequest (las mismas reglas que el alta por API)
+ * - Los emails y RFC existentes del tenant se cargan una sola vez en mapas en memoria y la
+ *   unicidad se revisa contra ellos y contra los ya vistos en el archivo
+ * - Los clientes nuevos se insertan por JDBC batch; con actualizarExistentes, las filas cuyo
+ *   email o RFC ya existe actualizan a ese cliente (los campos vacíos conservan su valor)
+ *
+ * Las filas con errores se omiten. La respuesta trae los primeros {@link #MAX_ERRORES_REPORTADOS};
+ * el reporte completo (las filas originales con sus errores) se escribe a un CSV descargable
+ * mientras se importa, para corregirlo y volver a importarlo.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ClienteImportacionService {
+
+    private final ClienteRepository clienteRepository;
+    private final ClienteBatchWriter clienteBatchWriter;
+    private final ReportesImportacion reportesImportacion;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+
+    public static final int MAX_FILAS = 50_000;
+    static final int MAX_ERRORES_REPORTADOS = 1_000;
+
+    private static final List<DateTimeFormatter> FORMATOS_FECHA = List.of(
+            DateTimeFormatter.ISO_LOCAL_DATE, DateTimeFormatter.ofPattern("d/M/yyyy"));
+    // COMPRADOR lo asigna una venta
+    private static final Set<EstadoCliente> ESTADOS_IMPORTABLES =
+            Set.of(EstadoCliente.PROSPECTO, EstadoCliente.INTERESADO, EstadoCliente.INACTIVO);
+
+    /**
+     * Columnas reconocidas en el encabezado. Se comparan sin acentos, mayúsculas ni separadores:
+     * "Teléfono", "telefono" y "TELEFONO" son la misma columna.
+     */
+    @Getter
+    enum Columna {
+        NOMBRE(true, "nombre", "nombres"),
+        APELLIDO(true, "apellido", "apellidos"),
+        EMAIL(false, "email", "correo", "correo_electronico", "e_mail"),
+        TELEFONO(true, "telefono", "celular", "tel", "movil"),
+        TELEFONO_SECUNDARIO(false, "telefono_secundario", "telefono_2", "otro_telefono"),
+        DIRECCION(false, "direccion", "domicilio"),
+        CIUDAD(false, "ciudad", "municipio"),
+        ESTADO(false, "estado", "entidad"),
+        CODIGO_POSTAL(false, "codigo_postal", "cp"),
+        PAIS(false, "pais"),
+        RFC(false, "rfc"),
+        CURP(false, "curp"),
+        FECHA_NACIMIENTO(false, "fecha_nacimiento", "fecha_de_nacimiento"),
+        ORIGEN(false, "origen", "fuente"),
+        ESTADO_CLIENTE(false, "estado_cliente", "etapa"),
+        NOTAS(false, "notas", "comentarios", "observaciones");
+
+        private final boolean obligatoria;
+        private final Set<String> nombres;
+
+        Columna(boolean obligatoria, String... nombres) {
+            this.obligatoria = obligatoria;
+            this.nombres = Set.of(nombres);
+        }
+    }
+
+    /**
+     * Resultado de validar una fila: el cliente a importar o los errores encontrados
+     */
+    record FilaValidada(LectorTabla.Fila fila, String email, ClienteBatchWriter.ClienteImportado cliente,
+                        List<String> errores) {
+    }
+
+    /**
+     * Estado acumulado entre bloques
+     */
+    private final class Progreso {
+        private final Long tenantId;
+        private final Map<String, Long> emails;     // email en minúsculas -> id (negativo si está eliminado)
+        private final Map<String, Long> rfcs;       // RFC -> id de cliente activo
+        private final Map<String, Long> filasEmail = new HashMap<>();   // -> fila del archivo que lo usa
+        private final Map<String, Long> filasRfc = new HashMap<>();
+        private final Map<Long, Long> filasCliente = new HashMap<>();   // cliente actualizado -> fila
+        private final List<ResultadoImportacionClientesResponse.ErrorFila> errores = new ArrayList<>();
+        private List<String> encabezado;
+        private char delimitador = ',';
+        private ReportesImportacion.Reporte reporte;
+        private EscritorCsv escritor;
+        private int filasLeidas;
+        private int validas;
+        private int insertados;
+        private int actualizados;
+        private int conErrores;
+
+        private Progreso(Long tenantId, Map<String, Long> emails, Map<String, Long> rfcs) {
+            this.tenantId = tenantId;
+            this.emails = emails;
+            this.rfcs = rfcs;
+        }
+
+        private void registrarError(LectorTabla.Fila fila, String email, List<String> mensajes) {
+            conErrores++;
+            if (errores.size() < MAX_ERRORES_REPORTADOS) {
+                errores.add(ResultadoImportacionClientesResponse.ErrorFila.builder()
+                        .fila(fila.numero())
+                        .email(email)
+                        .mensajes(mensajes)
+                        .build());
+            }
+            try {
+                if (escritor == null) {
+                    reporte = reportesImportacion.nuevo(tenantId);
+                    escritor = new EscritorCsv(Files.newBufferedWriter(reporte.archivo(), StandardCharsets.UTF_8),
+                            delimitador);
+                    List<String> columnas = new ArrayList<>(encabezado.size() + 2);
+                    columnas.add("fila");
+                    columnas.addAll(encabezado);
+                    columnas.add("errores");
+                    escritor.escribirFila(columnas);
+                }
+                List<String> celdas = new ArrayList<>(encabezado.size() + 2);
+                celdas.add(String.valueOf(fila.numero()));
+                for (int i = 0; i < encabezado.size(); i++) {
+                    celdas.add(fila.celda(i));
+                }
+                celdas.add(String.join(" | ", mensajes));
+                escritor.escribirFila(celdas);
+            } catch (IOException e) {
+                throw new BusinessException("No se pudo escribir el reporte de errores: " + e.getMessage(),
+                        HttpStatus.INTERNAL_SERVER_ERROR);
+            }
+        }
+    }
+
+    private Long getTenantId() {
+        Long tenantId = TenantContext.getTenantId();
+        if (tenantId == null) {
+            throw new BusinessException("No se encontró tenant_id en el contexto", HttpStatus.UNAUTHORIZED);
+        }
+        return tenantId;
+    }
+
+    /**
+     * Importa los clientes del archivo.
+     *
+     * @param soloValidar          si es true se valida el archivo completo sin escribir nada
+     * @param actualizarExistentes si es true, una fila con el email o RFC de un cliente existente
+     *                             lo actualiza; si es false se reporta como duplicada
+     */
+    @Transactional
+    public ResultadoImportacionClientesResponse importar(MultipartFile archivo, boolean soloValidar,
+                                                         boolean actualizarExistentes) {
+        long inicio = System.currentTimeMillis();
+        Long tenantId = getTenantId();
+        String extension = validarArchivo(archivo);
+
+        // Email y RFC de los clientes existentes: una sola consulta
+        List<Object[]> existentes = clienteRepository.findIdEmailYRfc(tenantId);
+        Map<String, Long> emails = new HashMap<>(existentes.size() * 2);
+        Map<String, Long> rfcs = new HashMap<>(existentes.size() * 2);
+        for (Object[] fila : existentes) {
+            Long id = (Long) fila[0];
+            boolean eliminado = Boolean.TRUE.equals(fila[3]);
+            if (fila[1] != null) {
+                emails.putIfAbsent(((String) fila[1]).trim().toLowerCase(Locale.ROOT), eliminado ? -id : id);
+            }
+            if (fila[2] != null && !eliminado) {
+                rfcs.putIfAbsent(((String) fila[2]).trim().toUpperCase(Locale.ROOT), id);
+            }
+        }
+
+        Progreso progreso = new Progreso(tenantId, emails, rfcs);
+        String usuario = SecurityUtils.getCurrentUsername().orElse("SYSTEM");
+
+        Path temporal = null;
+        boolean completada = false;
+        try {
+            LectorTabla lector;
+            if ("xlsx".equals(extension)) {
+                // El ZIP necesita acceso aleatorio: se copia a un temporal en streaming
+                temporal = Files.createTempFile("importacion-clientes-", ".xlsx");
+                try (InputStream entrada = archivo.getInputStream()) {
+                    Files.copy(entrada, temporal, StandardCopyOption.REPLACE_EXISTING);
+                }
+                lector = new LectorXlsx(temporal);
+            } else {
+                LectorCsv lectorCsv = new LectorCsv(archivo.getInputStream());
+                // El reporte usa el mismo delimitador para abrirse igual que el original
+                progreso.delimitador = lectorCsv.getDelimitador();
+                lector = lectorCsv;
+            }
+
+            try (lector) {
+                LectorTabla.Fila encabezado = lector.siguienteFila();
+                if (encabezado == null) {
+                    throw new BusinessException("El archivo está vacío", HttpStatus.BAD_REQUEST);
+                }
+                Map<Columna, Integer> columnas = mapearEncabezado(encabezado);
+                progreso.encabezado = encabezado.celdas();
+
+                List<LectorTabla.Fila> bloque = new ArrayList<>(ClienteBatchWriter.BATCH_SIZE);
+                LectorTabla.Fila fila;
+                while ((fila = lector.siguienteFila()) != null) {
+                    if (fila.vacia()) {
+                        continue;
+                    }
+                    if (++progreso.filasLeidas > MAX_FILAS) {
+                        throw new BusinessException("El archivo supera el máximo de " + MAX_FILAS + " filas",
+                                HttpStatus.BAD_REQUEST);
+                    }
+                    bloque.add(fila);
+                    if (bloque.size() == ClienteBatchWriter.BATCH_SIZE) {
+                        procesarBloque(bloque, columnas, progreso, usuario, soloValidar, actualizarExistentes);
+                        bloque.clear();
+                    }
+                }
+                procesarBloque(bloque, columnas, progreso, usuario, soloValidar, actualizarExistentes);
+            }
+            completada = true;
+        } catch (IOException e) {
+            throw new BusinessException("No se pudo leer el archivo: " + e.getMessage(), HttpStatus.BAD_REQUEST);
+        } finally {
+            eliminarTemporal(temporal);
+            cerrarReporte(progreso, completada);
+        }
+
+        if (progreso.insertados > 0 || progreso.actualizados > 0) {
+            eventPublisher.publishEvent(new ClientesImportadosEvent(tenantId, progreso.insertados, progreso.actualizados));
+        }
+
+        long tiempoMs = System.currentTimeMillis() - inicio;
+        log.info("[Tenant {}] Importación de clientes{}: {} filas, {} válidas, {} insertados, {} actualizados, " +
+                        "{} con errores en {} ms",
+                tenantId, soloValidar ? " (solo validar)" : "", progreso.filasLeidas, progreso.validas,
+                progreso.insertados, progreso.actualizados, progreso.conErrores, tiempoMs);
+
+        return ResultadoImportacionClientesResponse.builder()
+                .soloValidar(soloValidar)
+                .actualizarExistentes(actualizarExistentes)
+                .filasLeidas(progreso.filasLeidas)
+                .validas(progreso.validas)
+                .insertados(progreso.insertados)
+                .actualizados(progreso.actualizados)
+                .conErrores(progreso.conErrores)
+                .errores(progreso.errores)
+                .erroresTruncados(progreso.conErrores > progreso.errores.size())
+                .reporteErroresId(progreso.reporte != null ? progreso.reporte.id() : null)
+                .tiempoMs(tiempoMs)
+                .build();
+    }
+
+    /**
+     * Archivo del reporte de errores de una importación del tenant actual
+     */
+    public Path obtenerReporteErrores(String reporteId) {
+        return reportesImportacion.obtener(getTenantId(), reporteId);
+    }
+
+    /**
+     * Valida el bloque en paralelo y luego, en orden de fila, revisa la unicidad contra los
+     * clientes existentes y las filas anteriores, e inserta o actualiza los válidos. De dos filas
+     * con el mismo email o RFC se reporta la segunda.
+     */
+    private void procesarBloque(List<LectorTabla.Fila> bloque, Map<Columna, Integer> columnas, Progreso progreso,
+                                String usuario, boolean soloValidar, boolean actualizarExistentes) {
+        if (bloque.isEmpty()) {
+            return;
+        }
+        List<FilaValidada> validadas = bloque.parallelStream()
+                .map(fila -> validarFila(fila, columnas))
+                .toList();
+
+        List<ClienteBatchWriter.ClienteImportado> nuevos = new ArrayList<>(validadas.size());
+        List<ClienteBatchWriter.ClienteImportado> existentes = new ArrayList<>();
+        for (FilaValidada validada : validadas) {
+            if (!validada.errores().isEmpty()) {
+                progreso.registrarError(validada.fila(), validada.email(), validada.errores());
+                continue;
+            }
+            ClienteBatchWriter.ClienteImportado cliente = validada.cliente();
+            long numero = validada.fila().numero();
+            String email = cliente.email() != null ? cliente.email().toLowerCase(Locale.ROOT) : null;
+            String rfc = cliente.rfc();
+
+            List<String> errores = new ArrayList<>(2);
+            Long idEmail = null;
+            Long idRfc = null;
+            if (email != null) {
+                Long filaPrevia = progreso.filasEmail.get(email);
+                if (filaPrevia != null) {
+                    errores.add("Email repetido en el archivo (fila " + filaPrevia + ")");
+                }
+                idEmail = progreso.emails.get(email);
+            }
+            if (rfc != null) {
+                Long filaPrevia = progreso.filasRfc.get(rfc);
+                if (filaPrevia != null) {
+                    errores.add("RFC repetido en el archivo (fila " + filaPrevia + ")");
+                }
+                idRfc = progreso.rfcs.get(rfc);
+            }
+            Long existente = idEmail != null ? idEmail : idRfc;
+            if (errores.isEmpty() && existente != null) {
+                errores.addAll(validarExistente(progreso, numero, cliente, idEmail, idRfc, actualizarExistentes));
+            }
+            if (!errores.isEmpty()) {
+                progreso.registrarError(validada.fila(), validada.email(), errores);
+                continue;
+            }
+
+            if (email != null) {
+                progreso.filasEmail.put(email, numero);
+            }
+            if (rfc != null) {
+                progreso.filasRfc.put(rfc, numero);
+            }
+            if (existente == null) {
+                nuevos.add(cliente);
+            } else {
+                progreso.filasCliente.put(existente, numero);
+                existentes.add(cliente.conId(existente));
+            }
+        }
+
+        progreso.validas += nuevos.size() + existentes.size();
+        if (soloValidar) {
+            return;
+        }
+        progreso.insertados += clienteBatchWriter.insertar(progreso.tenantId, usuario, nuevos);
+        progreso.actualizados += clienteBatchWriter.actualizar(progreso.tenantId, usuario, existentes);
+    }
+
+    /**
+     * Reglas para una fila cuyo email o RFC ya pertenece a un cliente
+     */
+    private static List<String> validarExistente(Progreso progreso, long numero, ClienteBatchWriter.ClienteImportado cliente,
+                                                 Long idEmail, Long idRfc, boolean actualizarExistentes) {
+        if (idEmail != null && idEmail < 0) {
+            // El email sigue siendo único para los clientes eliminados
+            return List.of("El email " + cliente.email() + " pertenece a un cliente eliminado");
+        }
+        if (idEmail != null && idRfc != null && !idEmail.equals(idRfc)) {
+            return List.of("El email y el RFC pertenecen a clientes distintos (" + idEmail + " y " + idRfc + ")");
+        }
+        if (!actualizarExistentes) {
+            return List.of(idEmail != null
+                    ? "Ya existe un cliente con el email: " + cliente.email()
+                    : "Ya existe un cliente con el RFC: " + cliente.rfc());
+        }
+        Long filaPrevia = progreso.filasCliente.get(idEmail != null ? idEmail : idRfc);
+        if (filaPrevia != null) {
+            return List.of("El cliente ya se actualizó con la fila " + filaPrevia);
+        }
+        return List.of();
+    }
+
+    /**
+     * Valida una fila sin estado compartido (se ejecuta en paralelo). Las celdas se convierten
+     * a un CreateClienteRequest y se validan con las mismas anotaciones que el alta por API;
+     * se reporta un error por campo.
+     */
+    FilaValidada validarFila(LectorTabla.Fila fila, Map<Columna, Integer> columnas) {
+        List<String> errores = new ArrayList<>();
+
+        String email = texto(fila, columnas, Columna.EMAIL);
+        String rfc = texto(fila, columnas, Columna.RFC);
+        String curp = texto(fila, columnas, Columna.CURP);
+        CreateClienteRequest request = CreateClienteRequest.builder()
+                .nombre(texto(fila, columnas, Columna.NOMBRE))
+                .apellido(texto(fila, columnas, Columna.APELLIDO))
+                .email(email)
+                .telefono(texto(fila, columnas, Columna.TELEFONO))
+                .telefonoSecundario(texto(fila, columnas, Columna.TELEFONO_SECUNDARIO))
+                .direccion(texto(fila, columnas, Columna.DIRECCION))
+                .ciudad(texto(fila, columnas, Columna.CIUDAD))
+                .estado(texto(fila, columnas, Columna.ESTADO))
+                .codigoPostal(texto(fila, columnas, Columna.CODIGO_POSTAL))
+                .pais(texto(fila, columnas, Columna.PAIS))
+                .rfc(rfc != null ? rfc.toUpperCase(Locale.ROOT) : null)
+                .curp(curp != null ? curp.toUpperCase(Locale.ROOT) : null)
+                .fechaNacimiento(fecha(texto(fila, columnas, Columna.FECHA_NACIMIENTO), errores))
+                .origen(origen(texto(fila, columnas, Columna.ORIGEN), errores))
+                .estadoCliente(estadoCliente(texto(fila, columnas, Columna.ESTADO_CLIENTE), errores))
+                .notas(texto(fila, columnas, Columna.NOTAS))
+                .build();
+
+        Map<String, String> errorPorCampo = new TreeMap<>();
+        for (ConstraintViolation<CreateClienteRequest> violacion : validator.validate(request)) {
+            errorPorCampo.merge(violacion.getPropertyPath().toString(), violacion.getMessage(),
+                    (a, b) -> a.compareTo(b) <= 0 ? a : b);
+        }
+        errores.addAll(errorPorCampo.values());
+
+        if (!errores.isEmpty()) {
+            return new FilaValidada(fila, email, null, errores);
+        }
+        return new FilaValidada(fila, email, new ClienteBatchWriter.ClienteImportado(null, request.getNombre(),
+                request.getApellido(), request.getEmail(), request.getTelefono(), request.getTelefonoSecundario(),
+                request.getDireccion(), request.getCiudad(), request.getEstado(), request.getCodigoPostal(),
+                request.getPais(), request.getRfc(), request.getCurp(), request.getFechaNacimiento(),
+                request.getOrigen(), request.getEstadoCliente(), request.getNotas()), List.of());
+    }
+
+    /**
+     * Posición de cada columna reconocida; falla si falta alguna obligatoria
+     */
+    static Map<Columna, Integer> mapearEncabezado(LectorTabla.Fila encabezado) {
+        Map<Columna, Integer> columnas = new EnumMap<>(Columna.class);
+        for (int i = 0; i < encabezado.celdas().size(); i++) {
+            String nombre = TerrenoImportacionService.normalizarEncabezado(encabezado.celda(i));
+            for (Columna columna : Columna.values()) {
+                if (columna.getNombres().contains(nombre)) {
+                    columnas.putIfAbsent(columna, i);
+                }
+            }
+        }
+
+        List<String> faltantes = new ArrayList<>();
+        for (Columna columna : Columna.values()) {
+            if (columna.isObligatoria() && !columnas.containsKey(columna)) {
+                faltantes.add(columna.name().toLowerCase(Locale.ROOT));
+            }
+        }
+        if (!faltantes.isEmpty()) {
+            throw new BusinessException("Faltan columnas obligatorias en el encabezado: " + String.join(", ", faltantes),
+                    HttpStatus.BAD_REQUEST);
+        }
+        return columnas;
+    }
+
+    private static String texto(LectorTabla.Fila fila, Map<Columna, Integer> columnas, Columna columna) {
+        Integer indice = columnas.get(columna);
+        String valor = indice != null ? fila.celda(indice) : null;
+        return StringUtils.hasText(valor) ? valor.trim() : null;
+    }
+
+    /**
+     * AAAA-MM-DD o DD/MM/AAAA (que sea pasada lo valida @Past)
+     */
+    private static LocalDate fecha(String valor, List<String> errores) {
+        if (valor == null) {
+            return null;
+        }
+        for (DateTimeFormatter formato : FORMATOS_FECHA) {
+            try {
+                return LocalDate.parse(valor, formato);
+            } catch (DateTimeParseException e) {
+                // Se intenta el siguiente formato
+            }
+        }
+        errores.add("Fecha de nacimiento inválida: " + valor + ". Use AAAA-MM-DD o DD/MM/AAAA");
+        return null;
+    }
+
+    private static OrigenCliente origen(String valor, List<String> errores) {
+        if (valor == null) {
+            return null;
+        }
+        try {
+            return OrigenCliente.valueOf(TerrenoImportacionService.normalizarEncabezado(valor).toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            errores.add("Origen inválido: " + valor);
+            return null;
+        }
+    }
+
+    /**
+     * Los clientes se importan como prospectos, interesados o inactivos: COMPRADOR lo asigna una venta
+     */
+    private static EstadoCliente estadoCliente(String valor, List<String> errores) {
+        if (valor == null) {
+            return null;
+        }
+        try {
+            EstadoCliente estado = EstadoCliente.valueOf(
+                    TerrenoImportacionService.normalizarEncabezado(valor).toUpperCase(Locale.ROOT));
+            if (ESTADOS_IMPORTABLES.contains(estado)) {
+                return estado;
+            }
+        } catch (IllegalArgumentException e) {
+            // Se reporta abajo
+        }
+        errores.add("Estado de cliente inválido: " + valor + ". Use PROSPECTO, INTERESADO o INACTIVO");
+        return null;
+    }
+
+    /**
+     * Valida que el archivo no esté vacío y sea CSV o XLSX; devuelve la extensión
+     */
+    private String validarArchivo(MultipartFile archivo) {
+        if (archivo == null || archivo.isEmpty()) {
+            throw new BusinessException("El archivo está vacío", HttpStatus.BAD_REQUEST);
+        }
+        String nombre = StringUtils.cleanPath(archivo.getOriginalFilename() != null ? archivo.getOriginalFilename() : "");
+        String extension = nombre.contains(".")
+                ? nombre.substring(nombre.lastIndexOf(".") + 1).toLowerCase(Locale.ROOT)
+                : "";
+        if (!List.of("csv", "xlsx").contains(extension)) {
+            throw new BusinessException("Formato no soportado: " + extension + ". Use CSV o XLSX.", HttpStatus.BAD_REQUEST);
+        }
+        return extension;
+    }
+
+    /**
+     * Cierra el reporte de errores; si la importación falló se elimina (se hace rollback de todo)
+     */
+    private static void cerrarReporte(Progreso progreso, boolean completada) {
+        if (progreso.escritor == null) {
+            return;
+        }
+        try {
+            progreso.escritor.close();
+        } catch (IOException e) {
+            log.warn("No se pudo cerrar el reporte de errores {}: {}", progreso.reporte.id(), e.getMessage());
+        }
+        if (!completada) {
+            eliminarTemporal(progreso.reporte.archivo());
+            progreso.reporte = null;
+        }
+    }
+
+    private static void eliminarTemporal(Path temporal) {
+        if (temporal == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(temporal);
+        } catch (IOException e) {
+            log.warn("No se pudo eliminar el archivo temporal {}: {}", temporal, e.getMessage());
+        }
+    }
+}
@@ -3,35 +3,41 @@ package com.inmobiliaria.terrenos.application.service;
 import com.inmobiliaria.terrenos.application.dto.apartado.ApartadoResponse;
 import com.inmobiliaria.terrenos.application.dto.cliente.ClienteHistorialResponse;
 import com.inmobiliaria.terrenos.application.dto.cliente.ClienteResponse;
+import com.inmobiliaria.terrenos.application.dto.cliente.ClienteSugerenciaResponse;
 import com.inmobiliaria.terrenos.application.dto.cliente.CreateClienteRequest;
+import com.inmobiliaria.terrenos.application.dto.cliente.PaginaHistorialResponse;
 import com.inmobiliaria.terrenos.application.dto.cliente.UpdateClienteRequest;
 import com.inmobiliaria.terrenos.application.dto.cotizacion.CotizacionResponse;
 import com.inmobiliaria.terrenos.application.dto.venta.VentaResponse;
-import com.inmobiliaria.terrenos.domain.entity.Apartado;
+import com.inmobiliaria.terrenos.application.event.ClienteModificadoEvent;
 import com.inmobiliaria.terrenos.domain.entity.Cliente;
-import com.inmobiliaria.terrenos.domain.entity.Cotizacion;
-import com.inmobiliaria.terrenos.domain.entity.Venta;
 import com.inmobiliaria.terrenos.domain.enums.EstadoCliente;
-import com.inmobiliaria.terrenos.domain.repository.ApartadoRepository;
 import com.inmobiliaria.terrenos.domain.repository.ClienteRepository;
-import com.inmobiliaria.terrenos.domain.repository.CotizacionRepository;
-import com.inmobiliaria.terrenos.domain.repository.VentaRepository;
+import com.inmobiliaria.terrenos.domain.repository.proyeccion.ClienteListado;
+import com.inmobiliaria.terrenos.infrastructure.busqueda.IndiceClientes;
+import com.inmobiliaria.terrenos.infrastructure.busqueda.IndiceClientesCache;
+import com.inmobiliaria.terrenos.infrastructure.persistence.ClienteBusquedaRepository;
+import com.inmobiliaria.terrenos.infrastructure.persistence.ClienteHistorialRepository;
 import com.inmobiliaria.terrenos.infrastructure.tenant.TenantContext;
-import com.inmobiliaria.terrenos.interfaces.mapper.ApartadoMapper;
 import com.inmobiliaria.terrenos.interfaces.mapper.ClienteMapper;
-import com.inmobiliaria.terrenos.interfaces.mapper.CotizacionMapper;
-import com.inmobiliaria.terrenos.interfaces.mapper.VentaMapper;
 import com.inmobiliaria.terrenos.shared.exception.BusinessException;
 import com.inmobiliaria.terrenos.shared.exception.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Servicio de gestión de clientes
@@ -44,14 +50,16 @@ import java.util.List;
 @Slf4j
 public class ClienteService {
 
+    private static final int LIMITE_AUTOCOMPLETADO = 10;
+    private static final int LIMITE_HISTORIAL = 20;
+    private static final int LIMITE_MAXIMO_HISTORIAL = 100;
+
     private final ClienteRepository clienteRepository;
-    private final CotizacionRepository cotizacionRepository;
-    private final ApartadoRepository apartadoRepository;
-    private final VentaRepository ventaRepository;
+    private final ClienteHistorialRepository clienteHistorialRepository;
+    private final ClienteBusquedaRepository clienteBusquedaRepository;
+    private final IndiceClientesCache indiceClientesCache;
     private final ClienteMapper clienteMapper;
-    private final CotizacionMapper cotizacionMapper;
-    private final ApartadoMapper apartadoMapper;
-    private final VentaMapper ventaMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Obtiene el tenant_id del contexto actual
@@ -72,8 +80,7 @@ public class ClienteService {
         Long tenantId = getTenantId();
         log.debug("Listando clientes para tenant: {}", tenantId);
 
-        List<Cliente> clientes = clienteRepository.findByTenantIdAndDeletedFalse(tenantId);
-        return clienteMapper.toResponseList(clientes);
+        return clienteMapper.listadoToResponseList(clienteRepository.findListado(tenantId));
     }
 
     /**
@@ -84,20 +91,53 @@ public class ClienteService {
         Long tenantId = getTenantId();
         log.debug("Listando clientes con estado {} para tenant: {}", estado, tenantId);
 
-        List<Cliente> clientes = clienteRepository.findByTenantIdAndEstadoClienteAndDeletedFalse(tenantId, estado);
-        return clienteMapper.toResponseList(clientes);
+        return clienteMapper.listadoToResponseList(clienteRepository.findListadoPorEstado(tenantId, estado));
     }
 
     /**
-     * Busca clientes por nombre (búsqueda parcial)
+     * Busca clientes por nombre, email, teléfono o RFC (búsqueda parcial, sin acentos).
+     * Devuelve los más relevantes, hasta ClienteBusquedaRepository.LIMITE_MAXIMO.
      */
     @Transactional(readOnly = true)
     public List<ClienteResponse> buscarClientesPorNombre(String nombre) {
         Long tenantId = getTenantId();
         log.debug("Buscando clientes con nombre '{}' para tenant: {}", nombre, tenantId);
 
-        List<Cliente> clientes = clienteRepository.buscarPorNombre(tenantId, nombre);
-        return clienteMapper.toResponseList(clientes);
+        List<Long> ids = clienteBusquedaRepository.buscarIds(tenantId, nombre, ClienteBusquedaRepository.LIMITE_MAXIMO);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        // Se conserva el orden de relevancia de la búsqueda
+        Map<Long, Integer> posiciones = ids.stream()
+                .collect(Collectors.toMap(Function.identity(), ids::indexOf));
+        List<ClienteListado> clientes = clienteRepository.findListadoPorIds(tenantId, ids).stream()
+                .sorted(Comparator.comparing(cliente -> posiciones.get(cliente.id())))
+                .toList();
+        return clienteMapper.listadoToResponseList(clientes);
+    }
+
+    /**
+     * Autocompletado de clientes: resultados ligeros ordenados por relevancia.
+     * Responde desde el índice en memoria del tenant si está habilitado y listo; si no, con SQL.
+     *
+     * @param limite número de resultados; nulo = LIMITE_AUTOCOMPLETADO
+     */
+    @Transactional(readOnly = true)
+    public List<ClienteSugerenciaResponse> autocompletarClientes(String texto, Integer limite) {
+        Long tenantId = getTenantId();
+        int resultados = limite != null ? limite : LIMITE_AUTOCOMPLETADO;
+        if (resultados < 1 || resultados > ClienteBusquedaRepository.LIMITE_MAXIMO) {
+            throw new BusinessException("El límite debe estar entre 1 y " + ClienteBusquedaRepository.LIMITE_MAXIMO,
+                    HttpStatus.BAD_REQUEST);
+        }
+        log.debug("Autocompletando clientes con '{}' para tenant: {}", texto, tenantId);
+
+        Optional<IndiceClientes> indice = indiceClientesCache.obtenerSiListo(tenantId);
+        if (indice.isPresent()) {
+            return indice.get().buscar(texto, resultados);
+        }
+        return clienteBusquedaRepository.buscar(tenantId, texto, resultados);
     }
 
     /**
@@ -108,12 +148,11 @@ public class ClienteService {
         Long tenantId = getTenantId();
         log.debug("Listando clientes activos para tenant: {}", tenantId);
 
-        List<Cliente> clientes = clienteRepository.findClientesActivos(tenantId);
-        return clienteMapper.toResponseList(clientes);
+        return clienteMapper.listadoToResponseList(clienteRepository.findListadoActivos(tenantId));
     }
 
     /**
-     * Obtiene un cliente por ID
+     * Obtiene un cliente por ID con sus estadísticas (una consulta de agregados)
      */
     @Transactional(readOnly = true)
     public ClienteResponse obtenerCliente(Long id) {
@@ -126,9 +165,11 @@ public class ClienteService {
         ClienteResponse response = clienteMapper.toResponse(cliente);
 
         // Agregar estadísticas
-        response.setTotalCotizaciones(cotizacionRepository.countByClienteId(id).intValue());
-        response.setTotalApartados(apartadoRepository.countByClienteId(id).intValue());
-        response.setTotalVentas(ventaRepository.countByClienteId(id).intValue());
+        ClienteHistorialRepository.Resumen resumen = clienteHistorialRepository.resumen(tenantId, id, LocalDate.now());
+        response.setTotalCotizaciones(Math.toIntExact(resumen.totalCotizaciones()));
+        response.setTotalApartados(Math.toIntExact(resumen.totalApartados()));
+        response.setTotalVentas(Math.toIntExact(resumen.totalVentas()));
+        response.setUltimaActividad(resumen.ultimaActividad());
 
         return response;
     }
@@ -167,6 +208,7 @@ public class ClienteService {
 
         Cliente savedCliente = clienteRepository.save(cliente);
         log.info("Cliente creado exitosamente con id: {}", savedCliente.getId());
+        eventPublisher.publishEvent(ClienteModificadoEvent.guardado(savedCliente));
 
         return clienteMapper.toResponse(savedCliente);
     }
@@ -193,6 +235,7 @@ public class ClienteService {
 
         Cliente updatedCliente = clienteRepository.save(cliente);
         log.info("Cliente {} actualizado exitosamente", id);
+        eventPublisher.publishEvent(ClienteModificadoEvent.guardado(updatedCliente));
 
         return clienteMapper.toResponse(updatedCliente);
     }
@@ -209,13 +252,12 @@ public class ClienteService {
                 .orElseThrow(() -> new ResourceNotFoundException("Cliente no encontrado con id: " + id));
 
         // Verificar que no tenga transacciones activas
-        long cotizacionesVigentes = cotizacionRepository.countByClienteIdAndFechaVigenciaAfter(id, java.time.LocalDate.now());
-        if (cotizacionesVigentes > 0) {
+        ClienteHistorialRepository.Resumen resumen = clienteHistorialRepository.resumen(tenantId, id, LocalDate.now());
+        if (resumen.cotizacionesVigentes() > 0) {
             throw new BusinessException("No se puede eliminar el cliente porque tiene cotizaciones vigentes");
         }
 
-        long apartadosVigentes = apartadoRepository.countByClienteIdAndEstadoVigente(id);
-        if (apartadosVigentes > 0) {
+        if (resumen.apartadosActivos() > 0) {
             throw new BusinessException("No se puede eliminar el cliente porque tiene apartados vigentes");
         }
 
@@ -223,10 +265,12 @@ public class ClienteService {
         clienteRepository.save(cliente);
 
         log.info("Cliente {} eliminado exitosamente", id);
+        eventPublisher.publishEvent(ClienteModificadoEvent.eliminado(tenantId, id));
     }
 
     /**
-     * Obtiene el historial completo de transacciones de un cliente
+     * Obtiene el historial de un cliente: estadísticas de todas sus transacciones (una consulta
+     * de agregados) y la primera página de cotizaciones, apartados y ventas
      */
     @Transactional(readOnly = true)
     public ClienteHistorialResponse obtenerHistorialCliente(Long id) {
@@ -236,48 +280,97 @@ public class ClienteService {
         Cliente cliente = clienteRepository.findByIdAndTenantIdAndDeletedFalse(id, tenantId)
                 .orElseThrow(() -> new ResourceNotFoundException("Cliente no encontrado con id: " + id));
 
-        // Obtener transacciones
-        List<Cotizacion> cotizaciones = cotizacionRepository.findByClienteIdOrderByCreatedAtDesc(id);
-        List<Apartado> apartados = apartadoRepository.findByClienteIdOrderByCreatedAtDesc(id);
-        List<Venta> ventas = ventaRepository.findByClienteIdOrderByCreatedAtDesc(id);
-
-        // Mapear a DTOs
-        List<CotizacionResponse> cotizacionesResponse = cotizacionMapper.toResponseList(cotizaciones);
-        List<ApartadoResponse> apartadosResponse = apartadoMapper.toResponseList(apartados);
-        List<VentaResponse> ventasResponse = ventaMapper.toResponseList(ventas);
-
-        // Calcular montos
-        BigDecimal montoTotalCotizaciones = cotizaciones.stream()
-                .map(Cotizacion::getPrecioFinal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal montoTotalApartados = apartados.stream()
-                .map(Apartado::getMontoApartado)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal montoTotalVentas = ventas.stream()
-                .map(Venta::getMontoFinal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        ClienteHistorialRepository.Resumen resumen = clienteHistorialRepository.resumen(tenantId, id, LocalDate.now());
+        PaginaHistorialResponse<CotizacionResponse> cotizaciones =
+                clienteHistorialRepository.cotizaciones(tenantId, id, null, LIMITE_HISTORIAL);
+        PaginaHistorialResponse<ApartadoResponse> apartados =
+                clienteHistorialRepository.apartados(tenantId, id, null, LIMITE_HISTORIAL);
+        PaginaHistorialResponse<VentaResponse> ventas =
+                clienteHistorialRepository.ventas(tenantId, id, null, LIMITE_HISTORIAL);
 
         // Calcular tasa de conversión
         BigDecimal tasaConversion = BigDecimal.ZERO;
-        if (!cotizaciones.isEmpty()) {
-            tasaConversion = BigDecimal.valueOf(ventas.size() * 100.0 / cotizaciones.size())
+        if (resumen.totalCotizaciones() > 0) {
+            tasaConversion = BigDecimal.valueOf(resumen.totalVentas() * 100.0 / resumen.totalCotizaciones())
                     .setScale(2, RoundingMode.HALF_UP);
         }
 
         return ClienteHistorialResponse.builder()
                 .cliente(clienteMapper.toResponse(cliente))
-                .cotizaciones(cotizacionesResponse)
-                .apartados(apartadosResponse)
-                .ventas(ventasResponse)
-                .totalCotizaciones(cotizaciones.size())
-                .totalApartados(apartados.size())
-                .totalVentas(ventas.size())
-                .montoTotalCotizaciones(montoTotalCotizaciones)
-                .montoTotalApartados(montoTotalApartados)
-                .montoTotalVentas(montoTotalVentas)
+                .cotizaciones(cotizaciones.getElementos())
+                .apartados(apartados.getElementos())
+                .ventas(ventas.getElementos())
+                .siguienteCursorCotizaciones(cotizaciones.getSiguienteCursor())
+                .siguienteCursorApartados(apartados.getSiguienteCursor())
+                .siguienteCursorVentas(ventas.getSiguienteCursor())
+                .totalCotizaciones(Math.toIntExact(resumen.totalCotizaciones()))
+                .totalApartados(Math.toIntExact(resumen.totalApartados()))
+                .totalVentas(Math.toIntExact(resumen.totalVentas()))
+                .ultimaActividad(resumen.ultimaActividad())
+                .montoTotalCotizaciones(resumen.montoTotalCotizaciones())
+                .montoTotalApartados(resumen.montoTotalApartados())
+                .montoTotalVentas(resumen.montoTotalVentas())
                 .tasaConversion(tasaConversion)
                 .build();
     }
+
+    /**
+     * Página de cotizaciones del cliente, de la más reciente a la más antigua
+     *
+     * @param cursor siguienteCursor de la página anterior; nulo = primera página
+     * @param limite nulo = LIMITE_HISTORIAL
+     */
+    @Transactional(readOnly = true)
+    public PaginaHistorialResponse<CotizacionResponse> listarCotizacionesCliente(Long id, String cursor, Integer limite) {
+        Long tenantId = getTenantId();
+        int resultados = validarLimiteHistorial(limite);
+        verificarCliente(id, tenantId);
+
+        return clienteHistorialRepository.cotizaciones(tenantId, id, cursor, resultados);
+    }
+
+    /**
+     * Página de apartados del cliente, del más reciente al más antiguo
+     *
+     * @param cursor siguienteCursor de la página anterior; nulo = primera página
+     * @param limite nulo = LIMITE_HISTORIAL
+     */
+    @Transactional(readOnly = true)
+    public PaginaHistorialResponse<ApartadoResponse> listarApartadosCliente(Long id, String cursor, Integer limite) {
+        Long tenantId = getTenantId();
+        int resultados = validarLimiteHistorial(limite);
+        verificarCliente(id, tenantId);
+
+        return clienteHistorialRepository.apartados(tenantId, id, cursor, resultados);
+    }
+
+    /**
+     * Página de ventas del cliente, de la más reciente a la más antigua
+     *
+     * @param cursor siguienteCursor de la página anterior; nulo = primera página
+     * @param limite nulo = LIMITE_HISTORIAL
+     */
+    @Transactional(readOnly = true)
+    public PaginaHistorialResponse<VentaResponse> listarVentasCliente(Long id, String cursor, Integer limite) {
+        Long tenantId = getTenantId();
+        int resultados = validarLimiteHistorial(limite);
+        verificarCliente(id, tenantId);
+
+        return clienteHistorialRepository.ventas(tenantId, id, cursor, resultados);
+    }
+
+    private int validarLimiteHistorial(Integer limite) {
+        int resultados = limite != null ? limite : LIMITE_HISTORIAL;
+        if (resultados < 1 || resultados > LIMITE_MAXIMO_HISTORIAL) {
+            throw new BusinessException("El límite debe estar entre 1 y " + LIMITE_MAXIMO_HISTORIAL,
+                    HttpStatus.BAD_REQUEST);
+        }
+        return resultados;
+    }
+
+    private void verificarCliente(Long id, Long tenantId) {
+        if (!clienteRepository.existsByIdAndTenantIdAndDeletedFalse(id, tenantId)) {
+            throw new ResourceNotFoundException("Cliente no encontrado con id: " + id);
+        }
+    }
 }
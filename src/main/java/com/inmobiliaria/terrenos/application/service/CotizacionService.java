@@ -1,20 +1,27 @@
 package com.inmobiliaria.terrenos.application.service;
 
 import com.inmobiliaria.terrenos.application.dto.cotizacion.CotizacionResponse;
+import com.inmobiliaria.terrenos.application.event.DescuentosModificadosEvent;
+import com.inmobiliaria.terrenos.application.dto.descuento.PrecioLoteResponse;
 import com.inmobiliaria.terrenos.application.dto.cotizacion.CreateCotizacionRequest;
 import com.inmobiliaria.terrenos.domain.entity.Cotizacion;
 import com.inmobiliaria.terrenos.domain.entity.Terreno;
 import com.inmobiliaria.terrenos.domain.repository.CotizacionRepository;
+import com.inmobiliaria.terrenos.domain.repository.DescuentoRepository;
 import com.inmobiliaria.terrenos.domain.repository.TerrenoRepository;
+import com.inmobiliaria.terrenos.infrastructure.persistence.ClienteBusquedaRepository;
+import com.inmobiliaria.terrenos.infrastructure.precio.DescuentosCache;
 import com.inmobiliaria.terrenos.infrastructure.tenant.TenantContext;
 import com.inmobiliaria.terrenos.interfaces.mapper.CotizacionMapper;
 import com.inmobiliaria.terrenos.shared.exception.BusinessException;
 import com.inmobiliaria.terrenos.shared.exception.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -33,6 +40,12 @@ public class CotizacionService {
     private final CotizacionRepository cotizacionRepository;
     private final TerrenoRepository terrenoRepository;
     private final CotizacionMapper cotizacionMapper;
+    private final PrecioLoteService precioLoteService;
+    private final ClienteBusquedaRepository clienteBusquedaRepository;
+    private final EmbudoVentasService embudoVentasService;
+    private final DescuentoRepository descuentoRepository;
+    private final DescuentosCache descuentosCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     private Long getTenantId() {
         Long tenantId = TenantContext.getTenantId();
@@ -46,23 +59,29 @@ public class CotizacionService {
     public List<CotizacionResponse> listarCotizaciones() {
         Long tenantId = getTenantId();
         log.debug("Listando cotizaciones para tenant: {}", tenantId);
-        return cotizacionMapper.toResponseList(cotizacionRepository.findByTenantIdAndDeletedFalse(tenantId));
+        return cotizacionMapper.listadoToResponseList(cotizacionRepository.findListado(tenantId));
     }
 
     @Transactional(readOnly = true)
     public List<CotizacionResponse> listarCotizacionesVigentes() {
         Long tenantId = getTenantId();
         log.debug("Listando cotizaciones vigentes para tenant: {}", tenantId);
-        return cotizacionMapper.toResponseList(
-                cotizacionRepository.findCotizacionesVigentes(tenantId, LocalDate.now()));
+        return cotizacionMapper.listadoToResponseList(
+                cotizacionRepository.findListadoVigentes(tenantId, LocalDate.now()));
     }
 
     @Transactional(readOnly = true)
     public List<CotizacionResponse> buscarPorCliente(String nombreCliente) {
         Long tenantId = getTenantId();
         log.debug("Buscando cotizaciones del cliente '{}' para tenant: {}", nombreCliente, tenantId);
+        // Cotizaciones de los clientes más relevantes para el texto
+        List<Long> clienteIds = clienteBusquedaRepository.buscarIds(tenantId, nombreCliente,
+                ClienteBusquedaRepository.LIMITE_MAXIMO);
+        if (clienteIds.isEmpty()) {
+            return List.of();
+        }
         return cotizacionMapper.toResponseList(
-                cotizacionRepository.findByClienteNombre(tenantId, nombreCliente));
+                cotizacionRepository.findByTenantIdAndClienteIdInAndDeletedFalseOrderByCreatedAtDesc(tenantId, clienteIds));
     }
 
     @Transactional(readOnly = true)
@@ -87,13 +106,47 @@ public class CotizacionService {
 
         Cotizacion cotizacion = cotizacionMapper.toEntity(request);
         cotizacion.setTenantId(tenantId);
+        cotizacion.setUsuarioId(embudoVentasService.resolverAgente(tenantId));
+
+        // Con código de descuento el precio lo calcula el motor de precios (se aplica el mejor
+        // descuento vigente, que puede ser uno automático mayor al del código)
+        if (StringUtils.hasText(request.getCodigoDescuento())) {
+            PrecioLoteResponse precio = precioLoteService.cotizar(tenantId, terreno, request.getCodigoDescuento());
+            if (!Boolean.TRUE.equals(precio.getCodigoAplicable())) {
+                throw new BusinessException("El código de descuento no es válido para este terreno",
+                        HttpStatus.BAD_REQUEST);
+            }
+            cotizacion.setPrecioBase(precio.getPrecioLista());
+            cotizacion.setDescuento(precio.getMontoDescuento());
+            cotizacion.setPorcentajeDescuento(precio.getPorcentajeDescuento());
+            cotizacion.setPrecioFinal(precio.getPrecioFinal());
+            if (precio.getDescuentoId() != null) {
+                consumirUsoDescuento(tenantId, precio.getDescuentoId());
+            }
+        }
 
         Cotizacion cotizacionGuardada = cotizacionRepository.save(cotizacion);
+        embudoVentasService.registrarCotizacion(cotizacionGuardada, terreno.getProyectoId());
         log.info("Cotización creada con id: {}", cotizacionGuardada.getId());
 
         return cotizacionMapper.toResponse(cotizacionGuardada);
     }
 
+    /**
+     * Consume un uso del descuento aplicado en la misma transacción que la cotización.
+     * El índice en memoria puede estar desactualizado; el UPDATE condicional es el que decide.
+     */
+    private void consumirUsoDescuento(Long tenantId, Long descuentoId) {
+        if (descuentoRepository.consumirUso(tenantId, descuentoId) == 0) {
+            // La BD ya refleja el límite: se descarta el índice para no volver a ofrecerlo
+            descuentosCache.invalidar(tenantId);
+            throw new BusinessException("El descuento ya alcanzó su máximo de usos o fue desactivado",
+                    HttpStatus.CONFLICT);
+        }
+        // El índice se descarta después del commit, con el contador ya actualizado
+        eventPublisher.publishEvent(new DescuentosModificadosEvent(tenantId));
+    }
+
     @Transactional
     public void eliminarCotizacion(Long id) {
         Long tenantId = getTenantId();
@@ -0,0 +1,205 @@
+package com.inmobiliaria.terrenos.application.service;
+
+import com.inmobiliaria.terrenos.application.dto.descuento.DescuentoRequest;
+import com.inmobiliaria.terrenos.application.dto.descuento.DescuentoResponse;
+import com.inmobiliaria.terrenos.application.event.DescuentosModificadosEvent;
+import com.inmobiliaria.terrenos.domain.entity.Descuento;
+import com.inmobiliaria.terrenos.domain.entity.Fase;
+import com.inmobiliaria.terrenos.domain.enums.TipoDescuento;
+import com.inmobiliaria.terrenos.domain.repository.DescuentoRepository;
+import com.inmobiliaria.terrenos.domain.repository.FaseRepository;
+import com.inmobiliaria.terrenos.domain.repository.ProyectoRepository;
+import com.inmobiliaria.terrenos.domain.repository.TerrenoRepository;
+import com.inmobiliaria.terrenos.infrastructure.security.SecurityUtils;
+import com.inmobiliaria.terrenos.infrastructure.tenant.TenantContext;
+import com.inmobiliaria.terrenos.interfaces.mapper.DescuentoMapper;
+import com.inmobiliaria.terrenos.shared.exception.BusinessException;
+import com.inmobiliaria.terrenos.shared.exception.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Servicio de gestión de descuentos.
+ *
+ * Cada alta, edición o desactivación publica {@link DescuentosModificadosEvent} para que el
+ * motor de precios (PrecioLoteService) descarte el índice en memoria de la empresa.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DescuentoService {
+
+    private static final BigDecimal PORCENTAJE_MAXIMO = BigDecimal.valueOf(100);
+
+    private final DescuentoRepository descuentoRepository;
+    private final ProyectoRepository proyectoRepository;
+    private final FaseRepository faseRepository;
+    private final TerrenoRepository terrenoRepository;
+    private final DescuentoMapper descuentoMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private Long getTenantId() {
+        Long tenantId = TenantContext.getTenantId();
+        if (tenantId == null) {
+            throw new BusinessException("No se encontró tenant_id en el contexto", HttpStatus.UNAUTHORIZED);
+        }
+        return tenantId;
+    }
+
+    @Transactional(readOnly = true)
+    public List<DescuentoResponse> listarDescuentos(Long proyectoId) {
+        Long tenantId = getTenantId();
+        log.debug("Listando descuentos para tenant: {} (proyecto: {})", tenantId, proyectoId);
+        List<Descuento> descuentos = proyectoId != null
+                ? descuentoRepository.findByTenantIdAndProyectoIdOrderByFechaInicioDesc(tenantId, proyectoId)
+                : descuentoRepository.findByTenantIdOrderByFechaInicioDesc(tenantId);
+        return descuentoMapper.toResponseList(descuentos);
+    }
+
+    @Transactional(readOnly = true)
+    public DescuentoResponse obtenerDescuento(Long id) {
+        return descuentoMapper.toResponse(buscar(id, getTenantId()));
+    }
+
+    @Transactional
+    public DescuentoResponse crearDescuento(DescuentoRequest request) {
+        Long tenantId = getTenantId();
+        log.info("Creando descuento '{}' para tenant: {}", request.getNombre(), tenantId);
+
+        validar(request, tenantId, null);
+
+        Descuento descuento = descuentoMapper.toEntity(request);
+        descuento.setTenantId(tenantId);
+        normalizar(descuento);
+        String usuario = SecurityUtils.getCurrentUsername().orElse("SYSTEM");
+        descuento.setCreatedBy(usuario);
+        descuento.setUpdatedBy(usuario);
+
+        Descuento guardado = descuentoRepository.save(descuento);
+        eventPublisher.publishEvent(new DescuentosModificadosEvent(tenantId));
+        log.info("Descuento creado con id: {}", guardado.getId());
+
+        return descuentoMapper.toResponse(guardado);
+    }
+
+    @Transactional
+    public DescuentoResponse actualizarDescuento(Long id, DescuentoRequest request) {
+        Long tenantId = getTenantId();
+        log.info("Actualizando descuento {} para tenant: {}", id, tenantId);
+
+        Descuento descuento = buscar(id, tenantId);
+        validar(request, tenantId, id);
+
+        descuentoMapper.updateEntityFromRequest(request, descuento);
+        normalizar(descuento);
+        descuento.setUpdatedBy(SecurityUtils.getCurrentUsername().orElse("SYSTEM"));
+
+        Descuento actualizado = descuentoRepository.save(descuento);
+        eventPublisher.publishEvent(new DescuentosModificadosEvent(tenantId));
+        log.info("Descuento {} actualizado exitosamente", id);
+
+        return descuentoMapper.toResponse(actualizado);
+    }
+
+    /**
+     * Los descuentos no se borran: las cotizaciones y ventas pueden referirlos
+     */
+    @Transactional
+    public void desactivarDescuento(Long id) {
+        Long tenantId = getTenantId();
+        log.info("Desactivando descuento {} para tenant: {}", id, tenantId);
+
+        Descuento descuento = buscar(id, tenantId);
+        descuento.setActivo(false);
+        descuento.setUpdatedBy(SecurityUtils.getCurrentUsername().orElse("SYSTEM"));
+        descuentoRepository.save(descuento);
+        eventPublisher.publishEvent(new DescuentosModificadosEvent(tenantId));
+        log.info("Descuento {} desactivado exitosamente", id);
+    }
+
+    // =========================================================================
+    // Métodos privados
+    // =========================================================================
+
+    private Descuento buscar(Long id, Long tenantId) {
+        return descuentoRepository.findByIdAndTenantId(id, tenantId)
+                .orElseThrow(() -> new ResourceNotFoundException("Descuento no encontrado con id: " + id));
+    }
+
+    private void validar(DescuentoRequest request, Long tenantId, Long excluirId) {
+        if (request.getFechaFin().isBefore(request.getFechaInicio())) {
+            throw new BusinessException("La fecha de fin no puede ser anterior a la de inicio", HttpStatus.BAD_REQUEST);
+        }
+        if (request.getTipo() == TipoDescuento.PORCENTAJE && request.getValor().compareTo(PORCENTAJE_MAXIMO) > 0) {
+            throw new BusinessException("El porcentaje de descuento no puede exceder 100", HttpStatus.BAD_REQUEST);
+        }
+        if (StringUtils.hasText(request.getCodigo())
+                && descuentoRepository.existsCodigoActivo(tenantId, request.getCodigo().trim(), excluirId)) {
+            throw new BusinessException("Ya existe un descuento activo con el código: " + request.getCodigo().trim(),
+                    HttpStatus.CONFLICT);
+        }
+
+        boolean conTerrenos = request.getAplicaATerrenos() != null && !request.getAplicaATerrenos().isEmpty();
+        boolean conFases = request.getAplicaAFases() != null && !request.getAplicaAFases().isEmpty();
+        if ((conTerrenos && request.getAplicaATerrenos().contains(null))
+                || (conFases && request.getAplicaAFases().contains(null))) {
+            throw new BusinessException("Las listas de terrenos y fases no pueden tener valores nulos",
+                    HttpStatus.BAD_REQUEST);
+        }
+        if (request.getProyectoId() == null) {
+            if (conTerrenos || conFases) {
+                throw new BusinessException("Para limitar el descuento a terrenos o fases se debe indicar el proyecto",
+                        HttpStatus.BAD_REQUEST);
+            }
+            return;
+        }
+
+        Long proyectoId = request.getProyectoId();
+        proyectoRepository.findByIdAndTenantIdAndDeletedFalse(proyectoId, tenantId)
+                .orElseThrow(() -> new ResourceNotFoundException("Proyecto no encontrado con id: " + proyectoId));
+
+        if (conFases) {
+            Set<Long> fasesProyecto = faseRepository.findByTenantIdAndProyectoIdAndDeletedFalse(tenantId, proyectoId)
+                    .stream().map(Fase::getId).collect(Collectors.toSet());
+            if (!fasesProyecto.containsAll(request.getAplicaAFases())) {
+                throw new BusinessException("Hay fases que no pertenecen al proyecto", HttpStatus.BAD_REQUEST);
+            }
+        }
+        if (conTerrenos) {
+            Set<Long> terrenos = Set.copyOf(request.getAplicaATerrenos());
+            int encontrados = terrenoRepository.findByTenantIdAndProyectoIdAndIdInAndDeletedFalseOrderByNumeroLoteAsc(
+                    tenantId, proyectoId, terrenos).size();
+            if (encontrados != terrenos.size()) {
+                throw new BusinessException("Hay terrenos que no pertenecen al proyecto", HttpStatus.BAD_REQUEST);
+            }
+        }
+    }
+
+    /**
+     * Código en mayúsculas sin espacios, listas vacías como null y sin ids repetidos
+     */
+    private void normalizar(Descuento descuento) {
+        descuento.setCodigo(StringUtils.hasText(descuento.getCodigo())
+                ? descuento.getCodigo().trim().toUpperCase(Locale.ROOT) : null);
+        descuento.setAplicaATerrenos(sinRepetidos(descuento.getAplicaATerrenos()));
+        descuento.setAplicaAFases(sinRepetidos(descuento.getAplicaAFases()));
+    }
+
+    private static List<Long> sinRepetidos(List<Long> ids) {
+        return ids == null || ids.isEmpty() ? null : ids.stream().distinct().toList();
+    }
+}
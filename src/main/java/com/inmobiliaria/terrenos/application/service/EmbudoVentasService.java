@@ -0,0 +1,477 @@
+package com.inmobiliaria.terrenos.application.service;
+
+import com.inmobiliaria.terrenos.application.dto.reporte.EmbudoVentasResponse;
+import com.inmobiliaria.terrenos.domain.entity.Apartado;
+import com.inmobiliaria.terrenos.domain.entity.Cotizacion;
+import com.inmobiliaria.terrenos.domain.entity.MovimientoEmbudo;
+import com.inmobiliaria.terrenos.domain.entity.Proyecto;
+import com.inmobiliaria.terrenos.domain.entity.Terreno;
+import com.inmobiliaria.terrenos.domain.entity.Usuario;
+import com.inmobiliaria.terrenos.domain.entity.Venta;
+import com.inmobiliaria.terrenos.domain.enums.AgrupacionEmbudo;
+import com.inmobiliaria.terrenos.domain.enums.EstadoVenta;
+import com.inmobiliaria.terrenos.domain.enums.MetricaEmbudo;
+import com.inmobiliaria.terrenos.domain.repository.CotizacionRepository;
+import com.inmobiliaria.terrenos.domain.repository.MovimientoEmbudoRepository;
+import com.inmobiliaria.terrenos.domain.repository.ProyectoRepository;
+import com.inmobiliaria.terrenos.domain.repository.TerrenoRepository;
+import com.inmobiliaria.terrenos.domain.repository.UsuarioRepository;
+import com.inmobiliaria.terrenos.infrastructure.persistence.EmbudoVentasRepository;
+import com.inmobiliaria.terrenos.infrastructure.security.SecurityUtils;
+import com.inmobiliaria.terrenos.infrastructure.tenant.TenantContext;
+import com.inmobiliaria.terrenos.shared.exception.BusinessException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Servicio del embudo de ventas: cotización → apartado → venta por cliente, lote, agente
+ * (usuarioId) y proyecto.
+ *
+ * Cotizaciones, apartados y ventas registran aquí sus cambios, en su propia transacción, como
+ * movimientos (deltas) del acumulado diario de su proyecto y agente; EmbudoVentasScheduler los
+ * consolida en embudo_ventas_diario y embudo_tiempos_diario. Los apartados vencidos los
+ * registra el propio SQL de VencimientoApartadosRepository.
+ *
+ * Reglas de atribución:
+ * - cada etapa cuenta en la fecha, proyecto y agente en que ocurrió
+ * - las conversiones (cotización apartada o vendida, apartado vendido, vencido o cancelado)
+ *   cuentan en la fecha y agente de la etapa de origen, así la tasa de un periodo es la de su
+ *   cohorte
+ * - los días entre etapas cuentan en la fecha de la etapa posterior, con el agente de origen
+ *
+ * La cotización de origen de un apartado o venta es la referenciada o, si no hay referencia,
+ * la más reciente del mismo lote (y cliente, si se conoce). Cada cotización convierte una sola
+ * vez por etapa (apartada_at / vendida_at).
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmbudoVentasService {
+
+    private static final int MAX_DIAS_CONSULTA = 1830;
+    private static final int DIAS_POR_DEFECTO = 30;
+
+    private final MovimientoEmbudoRepository movimientoEmbudoRepository;
+    private final EmbudoVentasRepository embudoVentasRepository;
+    private final CotizacionRepository cotizacionRepository;
+    private final TerrenoRepository terrenoRepository;
+    private final ProyectoRepository proyectoRepository;
+    private final UsuarioRepository usuarioRepository;
+
+    private Long getTenantId() {
+        Long tenantId = TenantContext.getTenantId();
+        if (tenantId == null) {
+            throw new BusinessException("No se encontró tenant_id en el contexto", HttpStatus.UNAUTHORIZED);
+        }
+        return tenantId;
+    }
+
+    // ==================== Registro de movimientos ====================
+
+    /**
+     * Id del usuario autenticado en la empresa (el agente de la operación); null en procesos
+     * del sistema
+     */
+    @Transactional(readOnly = true)
+    public Long resolverAgente(Long tenantId) {
+        return SecurityUtils.getCurrentUsername()
+                .flatMap(email -> usuarioRepository.findByEmailAndTenantId(email, tenantId))
+                .map(Usuario::getId)
+                .orElse(null);
+    }
+
+    @Transactional
+    public void registrarCotizacion(Cotizacion cotizacion, Long proyectoId) {
+        movimientoEmbudoRepository.save(movimiento(cotizacion.getTenantId(), fechaDe(cotizacion), proyectoId,
+                cotizacion.getUsuarioId(), MetricaEmbudo.COTIZACIONES));
+    }
+
+    /**
+     * Apartado nuevo; si viene de una cotización que no se había apartado, también su conversión
+     */
+    @Transactional
+    public void registrarApartado(Apartado apartado, Long proyectoId) {
+        Long tenantId = apartado.getTenantId();
+        LocalDate fecha = apartado.getFechaApartado() != null ? apartado.getFechaApartado() : LocalDate.now();
+        List<MovimientoEmbudo> movimientos = new ArrayList<>();
+        movimientos.add(movimiento(tenantId, fecha, proyectoId, apartado.getUsuarioId(), MetricaEmbudo.APARTADOS));
+
+        cotizacionOrigen(tenantId, apartado.getCotizacionId(), apartado.getTerrenoId(), apartado.getClienteId())
+                .filter(cotizacion -> cotizacion.getApartadaAt() == null)
+                .ifPresent(cotizacion -> {
+                    Long proyectoCotizacion = proyectoDe(cotizacion, apartado.getTerrenoId(), proyectoId);
+                    cotizacion.setApartadaAt(LocalDateTime.now());
+                    cotizacionRepository.save(cotizacion);
+                    movimientos.add(movimiento(tenantId, fechaDe(cotizacion), proyectoCotizacion,
+                            cotizacion.getUsuarioId(), MetricaEmbudo.COTIZACIONES_APARTADAS));
+                    movimientos.add(tiempo(tenantId, fecha, proyectoCotizacion, cotizacion.getUsuarioId(),
+                            MetricaEmbudo.TIEMPO_COTIZACION_APARTADO, fechaDe(cotizacion)));
+                });
+
+        movimientoEmbudoRepository.saveAll(movimientos);
+    }
+
+    @Transactional
+    public void registrarCancelacionApartado(Apartado apartado, Long proyectoId) {
+        movimientoEmbudoRepository.save(movimiento(apartado.getTenantId(), apartado.getFechaApartado(), proyectoId,
+                apartado.getUsuarioId(), MetricaEmbudo.APARTADOS_CANCELADOS));
+    }
+
+    /**
+     * Venta nueva con sus conversiones: la del apartado de origen (si lo hay) y la de la
+     * cotización de origen que no se había vendido
+     *
+     * @param apartado apartado convertido en la venta; null si no viene de un apartado
+     */
+    @Transactional
+    public void registrarVenta(Venta venta, Long proyectoId, Apartado apartado) {
+        Long tenantId = venta.getTenantId();
+        LocalDate fecha = venta.getFechaVenta() != null ? venta.getFechaVenta() : LocalDate.now();
+        List<MovimientoEmbudo> movimientos = new ArrayList<>();
+        MovimientoEmbudo registrada = movimiento(tenantId, fecha, proyectoId, venta.getUsuarioId(), MetricaEmbudo.VENTAS);
+        registrada.setMonto(montoDe(venta));
+        movimientos.add(registrada);
+
+        if (apartado != null) {
+            Long proyectoApartado = Objects.equals(apartado.getTerrenoId(), venta.getTerrenoId())
+                    ? proyectoId : proyectoDeTerreno(apartado.getTerrenoId(), proyectoId);
+            movimientos.add(movimiento(tenantId, apartado.getFechaApartado(), proyectoApartado,
+                    apartado.getUsuarioId(), MetricaEmbudo.APARTADOS_VENDIDOS));
+            movimientos.add(tiempo(tenantId, fecha, proyectoApartado, apartado.getUsuarioId(),
+                    MetricaEmbudo.TIEMPO_APARTADO_VENTA, apartado.getFechaApartado()));
+        }
+
+        Long cotizacionId = venta.getCotizacionId() != null ? venta.getCotizacionId()
+                : apartado != null ? apartado.getCotizacionId() : null;
+        Long clienteId = venta.getClienteId() != null ? venta.getClienteId()
+                : apartado != null ? apartado.getClienteId() : null;
+        cotizacionOrigen(tenantId, cotizacionId, venta.getTerrenoId(), clienteId)
+                .filter(cotizacion -> cotizacion.getVendidaAt() == null)
+                .ifPresent(cotizacion -> {
+                    Long proyectoCotizacion = proyectoDe(cotizacion, venta.getTerrenoId(), proyectoId);
+                    cotizacion.setVendidaAt(LocalDateTime.now());
+                    cotizacionRepository.save(cotizacion);
+                    movimientos.add(movimiento(tenantId, fechaDe(cotizacion), proyectoCotizacion,
+                            cotizacion.getUsuarioId(), MetricaEmbudo.COTIZACIONES_VENDIDAS));
+                    movimientos.add(tiempo(tenantId, fecha, proyectoCotizacion, cotizacion.getUsuarioId(),
+                            MetricaEmbudo.TIEMPO_COTIZACION_VENTA, fechaDe(cotizacion)));
+                });
+
+        movimientoEmbudoRepository.saveAll(movimientos);
+    }
+
+    /**
+     * Cambio de estado de una venta: pasar a CANCELADA o ANULADA resta su monto; regresar de
+     * ellas lo vuelve a sumar
+     */
+    @Transactional
+    public void registrarCambioEstadoVenta(Venta venta, EstadoVenta anterior) {
+        boolean estabaCancelada = esCancelada(anterior);
+        boolean cancelada = esCancelada(venta.getEstado());
+        if (estabaCancelada == cancelada) {
+            return;
+        }
+        Long proyectoId = proyectoDeTerreno(venta.getTerrenoId(), null);
+        if (proyectoId == null) {
+            return;
+        }
+        MovimientoEmbudo movimiento = movimiento(venta.getTenantId(), venta.getFechaVenta(), proyectoId,
+                venta.getUsuarioId(), MetricaEmbudo.VENTAS_CANCELADAS);
+        movimiento.setCantidad(cancelada ? 1 : -1);
+        movimiento.setMonto(cancelada ? montoDe(venta).negate() : montoDe(venta));
+        movimientoEmbudoRepository.save(movimiento);
+    }
+
+    // ==================== Consolidación ====================
+
+    /**
+     * Consolida un bloque de movimientos de todas las empresas
+     *
+     * @return movimientos consolidados; menos que limite indica que no quedan pendientes
+     */
+    @Transactional
+    public int consolidarBloque(int limite) {
+        EmbudoVentasRepository.Consolidacion consolidacion = embudoVentasRepository.consolidar(limite);
+        if (consolidacion.movimientos() > 0) {
+            log.debug("Embudo de ventas: {} movimientos consolidados en {} filas diarias y {} de tiempos",
+                    consolidacion.movimientos(), consolidacion.filasDiario(), consolidacion.filasTiempos());
+        }
+        return consolidacion.movimientos();
+    }
+
+    /**
+     * Vuelve a generar el embudo de la empresa desde sus cotizaciones, apartados y ventas.
+     * Pausa el registro de movimientos de todas las empresas mientras corre.
+     *
+     * @return movimientos generados
+     */
+    @Transactional
+    public int reconstruir() {
+        Long tenantId = getTenantId();
+        log.info("Reconstruyendo el embudo de ventas del tenant {}", tenantId);
+        int movimientos = embudoVentasRepository.reconstruir(tenantId);
+        log.info("Embudo de ventas del tenant {} reconstruido: {} movimientos por consolidar", tenantId, movimientos);
+        return movimientos;
+    }
+
+    // ==================== Consultas ====================
+
+    /**
+     * Embudo del periodo [desde, hasta] (por defecto, los últimos 30 días), opcionalmente
+     * filtrado por proyecto y agente y desglosado según agrupacion
+     */
+    @Transactional(readOnly = true)
+    public EmbudoVentasResponse obtenerEmbudo(LocalDate desde, LocalDate hasta, Long proyectoId, Long usuarioId,
+                                              AgrupacionEmbudo agrupacion) {
+        Long tenantId = getTenantId();
+        LocalDate fin = hasta != null ? hasta : LocalDate.now();
+        LocalDate inicio = desde != null ? desde : fin.minusDays(DIAS_POR_DEFECTO - 1);
+        AgrupacionEmbudo agrupar = agrupacion != null ? agrupacion : AgrupacionEmbudo.TOTAL;
+        if (inicio.isAfter(fin)) {
+            throw new BusinessException("La fecha inicial no puede ser posterior a la final", HttpStatus.BAD_REQUEST);
+        }
+        if (ChronoUnit.DAYS.between(inicio, fin) >= MAX_DIAS_CONSULTA) {
+            throw new BusinessException("El periodo no puede ser mayor a " + MAX_DIAS_CONSULTA + " días",
+                    HttpStatus.BAD_REQUEST);
+        }
+        log.debug("Embudo de ventas tenant {} de {} a {} por {}", tenantId, inicio, fin, agrupar);
+
+        List<EmbudoVentasRepository.FilaEmbudo> filas =
+                embudoVentasRepository.consultar(tenantId, inicio, fin, proyectoId, usuarioId, agrupar);
+        List<EmbudoVentasRepository.FilaTiempo> tiempos =
+                embudoVentasRepository.consultarTiempos(tenantId, inicio, fin, proyectoId, usuarioId, agrupar);
+
+        // Grupos con conteos o con tiempos; los totales son la suma de todos
+        Map<List<Long>, Acumulado> grupos = new LinkedHashMap<>();
+        Acumulado totales = new Acumulado(0L, 0L);
+        for (EmbudoVentasRepository.FilaEmbudo fila : filas) {
+            grupos.computeIfAbsent(List.of(fila.proyectoId(), fila.usuarioId()),
+                    k -> new Acumulado(fila.proyectoId(), fila.usuarioId())).sumar(fila);
+            totales.sumar(fila);
+        }
+        for (EmbudoVentasRepository.FilaTiempo tiempo : tiempos) {
+            grupos.computeIfAbsent(List.of(tiempo.proyectoId(), tiempo.usuarioId()),
+                    k -> new Acumulado(tiempo.proyectoId(), tiempo.usuarioId())).sumar(tiempo);
+            totales.sumar(tiempo);
+        }
+
+        List<EmbudoVentasResponse.Etapas> desglose = List.of();
+        if (agrupar != AgrupacionEmbudo.TOTAL) {
+            Map<Long, String> proyectos = agrupar.isPorProyecto() ? nombresProyectos(grupos.values()) : Map.of();
+            Map<Long, String> usuarios = agrupar.isPorUsuario() ? nombresUsuarios(grupos.values()) : Map.of();
+            desglose = grupos.values().stream()
+                    .map(grupo -> grupo.aEtapas(agrupar, proyectos, usuarios))
+                    .sorted(Comparator.comparing(EmbudoVentasResponse.Etapas::getCotizaciones).reversed()
+                            .thenComparing(EmbudoVentasResponse.Etapas::getVentas, Comparator.reverseOrder()))
+                    .toList();
+        }
+
+        return EmbudoVentasResponse.builder()
+                .desde(inicio)
+                .hasta(fin)
+                .agrupacion(agrupar)
+                .totales(totales.aEtapas(AgrupacionEmbudo.TOTAL, Map.of(), Map.of()))
+                .grupos(desglose)
+                .build();
+    }
+
+    // ==================== Auxiliares ====================
+
+    private Optional<Cotizacion> cotizacionOrigen(Long tenantId, Long cotizacionId, Long terrenoId, Long clienteId) {
+        if (cotizacionId != null) {
+            return cotizacionRepository.findByIdAndTenantIdAndDeletedFalse(cotizacionId, tenantId);
+        }
+        if (clienteId != null) {
+            return cotizacionRepository.findFirstByTenantIdAndTerrenoIdAndClienteIdAndDeletedFalseOrderByCreatedAtDescIdDesc(
+                    tenantId, terrenoId, clienteId);
+        }
+        return cotizacionRepository.findFirstByTenantIdAndTerrenoIdAndDeletedFalseOrderByCreatedAtDescIdDesc(
+                tenantId, terrenoId);
+    }
+
+    private Long proyectoDe(Cotizacion cotizacion, Long terrenoId, Long proyectoId) {
+        return Objects.equals(cotizacion.getTerrenoId(), terrenoId)
+                ? proyectoId : proyectoDeTerreno(cotizacion.getTerrenoId(), proyectoId);
+    }
+
+    private Long proyectoDeTerreno(Long terrenoId, Long porDefecto) {
+        return terrenoRepository.findById(terrenoId).map(Terreno::getProyectoId).orElse(porDefecto);
+    }
+
+    private static MovimientoEmbudo movimiento(Long tenantId, LocalDate fecha, Long proyectoId, Long usuarioId,
+                                               MetricaEmbudo metrica) {
+        return MovimientoEmbudo.builder()
+                .tenantId(tenantId)
+                .fecha(fecha != null ? fecha : LocalDate.now())
+                .proyectoId(proyectoId)
+                .usuarioId(usuarioId != null ? usuarioId : 0L)
+                .metrica(metrica)
+                .build();
+    }
+
+    private static MovimientoEmbudo tiempo(Long tenantId, LocalDate fecha, Long proyectoId, Long usuarioId,
+                                           MetricaEmbudo transicion, LocalDate inicio) {
+        MovimientoEmbudo movimiento = movimiento(tenantId, fecha, proyectoId, usuarioId, transicion);
+        movimiento.setDias(inicio != null ? (int) Math.max(ChronoUnit.DAYS.between(inicio, movimiento.getFecha()), 0) : 0);
+        return movimiento;
+    }
+
+    private static LocalDate fechaDe(Cotizacion cotizacion) {
+        return cotizacion.getCreatedAt() != null ? cotizacion.getCreatedAt().toLocalDate() : LocalDate.now();
+    }
+
+    private static BigDecimal montoDe(Venta venta) {
+        return venta.getMontoFinal() != null ? venta.getMontoFinal() : BigDecimal.ZERO;
+    }
+
+    private static boolean esCancelada(EstadoVenta estado) {
+        return estado == EstadoVenta.CANCELADA || estado == EstadoVenta.ANULADA;
+    }
+
+    private Map<Long, String> nombresProyectos(Collection<Acumulado> grupos) {
+        List<Long> ids = grupos.stream().map(Acumulado::getProyectoId).distinct().toList();
+        return proyectoRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Proyecto::getId, Proyecto::getNombre));
+    }
+
+    private Map<Long, String> nombresUsuarios(Collection<Acumulado> grupos) {
+        List<Long> ids = grupos.stream().map(Acumulado::getUsuarioId).filter(id -> id != 0L).distinct().toList();
+        return usuarioRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Usuario::getId, usuario -> usuario.getApellido() != null
+                        ? usuario.getNombre() + " " + usuario.getApellido() : usuario.getNombre()));
+    }
+
+    /**
+     * Conteos e histogramas sumados de un grupo
+     */
+    private static final class Acumulado {
+
+        private final long proyectoId;
+        private final long usuarioId;
+        private final Map<MetricaEmbudo, Long> conteos = new EnumMap<>(MetricaEmbudo.class);
+        private final Map<MetricaEmbudo, TreeMap<Integer, Long>> histogramas = new EnumMap<>(MetricaEmbudo.class);
+        private BigDecimal montoVentas = BigDecimal.ZERO;
+
+        Acumulado(long proyectoId, long usuarioId) {
+            this.proyectoId = proyectoId;
+            this.usuarioId = usuarioId;
+        }
+
+        long getProyectoId() {
+            return proyectoId;
+        }
+
+        long getUsuarioId() {
+            return usuarioId;
+        }
+
+        void sumar(EmbudoVentasRepository.FilaEmbudo fila) {
+            fila.conteos().forEach((metrica, cantidad) -> conteos.merge(metrica, cantidad, Long::sum));
+            montoVentas = montoVentas.add(fila.montoVentas());
+        }
+
+        void sumar(EmbudoVentasRepository.FilaTiempo tiempo) {
+            histogramas.computeIfAbsent(tiempo.transicion(), k -> new TreeMap<>())
+                    .merge(tiempo.dias(), tiempo.cantidad(), Long::sum);
+        }
+
+        long conteo(MetricaEmbudo metrica) {
+            return conteos.getOrDefault(metrica, 0L);
+        }
+
+        EmbudoVentasResponse.Etapas aEtapas(AgrupacionEmbudo agrupacion, Map<Long, String> proyectos,
+                                            Map<Long, String> usuarios) {
+            long cotizaciones = conteo(MetricaEmbudo.COTIZACIONES);
+            long apartados = conteo(MetricaEmbudo.APARTADOS);
+            long ventas = conteo(MetricaEmbudo.VENTAS);
+            Long usuario = agrupacion.isPorUsuario() && usuarioId != 0L ? usuarioId : null;
+
+            return EmbudoVentasResponse.Etapas.builder()
+                    .proyectoId(agrupacion.isPorProyecto() ? proyectoId : null)
+                    .proyectoNombre(agrupacion.isPorProyecto() ? proyectos.get(proyectoId) : null)
+                    .usuarioId(usuario)
+                    .usuarioNombre(usuario != null ? usuarios.get(usuario) : null)
+                    .cotizaciones(cotizaciones)
+                    .cotizacionesApartadas(conteo(MetricaEmbudo.COTIZACIONES_APARTADAS))
+                    .cotizacionesVendidas(conteo(MetricaEmbudo.COTIZACIONES_VENDIDAS))
+                    .apartados(apartados)
+                    .apartadosVendidos(conteo(MetricaEmbudo.APARTADOS_VENDIDOS))
+                    .apartadosVencidos(conteo(MetricaEmbudo.APARTADOS_VENCIDOS))
+                    .apartadosCancelados(conteo(MetricaEmbudo.APARTADOS_CANCELADOS))
+                    .ventas(ventas)
+                    .ventasCanceladas(conteo(MetricaEmbudo.VENTAS_CANCELADAS))
+                    .montoVentas(montoVentas)
+                    .tasaCotizacionApartado(porcentaje(conteo(MetricaEmbudo.COTIZACIONES_APARTADAS), cotizaciones))
+                    .tasaApartadoVenta(porcentaje(conteo(MetricaEmbudo.APARTADOS_VENDIDOS), apartados))
+                    .tasaCotizacionVenta(porcentaje(conteo(MetricaEmbudo.COTIZACIONES_VENDIDAS), cotizaciones))
+                    .tasaCancelacionVentas(porcentaje(conteo(MetricaEmbudo.VENTAS_CANCELADAS), ventas))
+                    .tiempos(histogramas.entrySet().stream()
+                            .map(entrada -> tiempoEtapa(entrada.getKey(), entrada.getValue()))
+                            .filter(Objects::nonNull)
+                            .toList())
+                    .build();
+        }
+
+        private static BigDecimal porcentaje(long parte, long total) {
+            return total > 0 ?
+                    BigDecimal.valueOf(parte * 100.0 / total).setScale(2, RoundingMode.HALF_UP) :
+                    BigDecimal.ZERO;
+        }
+
+        /**
+         * Mediana, percentil 90 (rango más cercano) y promedio de un histograma de días
+         */
+        private static EmbudoVentasResponse.TiempoEtapa tiempoEtapa(MetricaEmbudo transicion,
+                                                                    TreeMap<Integer, Long> histograma) {
+            long total = histograma.values().stream().mapToLong(Long::longValue).sum();
+            if (total <= 0) {
+                return null;
+            }
+            long sumaDias = histograma.entrySet().stream()
+                    .mapToLong(entrada -> (long) entrada.getKey() * entrada.getValue())
+                    .sum();
+            return EmbudoVentasResponse.TiempoEtapa.builder()
+                    .transicion(transicion)
+                    .conversiones(total)
+                    .medianaDias(percentil(histograma, total, 0.5))
+                    .p90Dias(percentil(histograma, total, 0.9))
+                    .promedioDias(BigDecimal.valueOf(sumaDias).divide(BigDecimal.valueOf(total), 1, RoundingMode.HALF_UP))
+                    .build();
+        }
+
+        private static Integer percentil(TreeMap<Integer, Long> histograma, long total, double p) {
+            long rango = Math.max((long) Math.ceil(p * total), 1);
+            long acumulado = 0;
+            for (Map.Entry<Integer, Long> entrada : histograma.entrySet()) {
+                acumulado += entrada.getValue();
+                if (acumulado >= rango) {
+                    return entrada.getKey();
+                }
+            }
+            return histograma.lastKey();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.inmobiliaria.terrenos.application.service;
+
+import com.inmobiliaria.terrenos.domain.enums.FormatoExportacion;
+import com.inmobiliaria.terrenos.domain.enums.TipoExportacion;
+import com.inmobiliaria.terrenos.infrastructure.importacion.EscritorCsv;
+import com.inmobiliaria.terrenos.infrastructure.importacion.EscritorTabla;
+import com.inmobiliaria.terrenos.infrastructure.importacion.EscritorXlsx;
+import com.inmobiliaria.terrenos.infrastructure.persistence.ExportacionRepository;
+import com.inmobiliaria.terrenos.infrastructure.tenant.TenantContext;
+import com.inmobiliaria.terrenos.shared.exception.BusinessException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Servicio de exportación de ventas, pagos, planes de pago, clientes y auditoría a CSV o XLSX.
+ *
+ * El archivo se escribe directamente en la respuesta mientras se leen las filas con un cursor
+ * JDBC ({@link ExportacionRepository}), así que una exportación de millones de filas usa la
+ * misma memoria que una de diez: no hay entidades administradas ni listas intermedias.
+ *
+ * Los filtros se validan antes de abrir el destino; una vez que empieza la descarga ya no se
+ * puede responder con un error.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExportacionService {
+
+    private final ExportacionRepository exportacionRepository;
+
+    /**
+     * Abre el flujo de salida del archivo (p. ej. la respuesta HTTP con sus encabezados)
+     */
+    @FunctionalInterface
+    public interface Destino {
+        OutputStream abrir(String nombreArchivo, FormatoExportacion formato) throws IOException;
+    }
+
+    /**
+     * Exporta las filas del tipo en el periodo indicado (fecha de venta, de pago, de inicio del
+     * plan, de vencimiento de la cuota, de alta del cliente o del registro de auditoría).
+     *
+     * @return número de filas exportadas, sin el encabezado
+     */
+    @Transactional(readOnly = true)
+    public long exportar(TipoExportacion tipo, FormatoExportacion formato, LocalDate desde, LocalDate hasta,
+                         Long proyectoId, Destino destino) throws IOException {
+        Long tenantId = getTenantId();
+        validar(tipo, desde, hasta, proyectoId);
+
+        String nombreArchivo = tipo.getDescripcion() + "-" + LocalDate.now() + "." + formato.getExtension();
+        long filas;
+        try (EscritorTabla escritor = abrirEscritor(formato, destino.abrir(nombreArchivo, formato), tipo.getDescripcion())) {
+            escritor.escribirFila(ExportacionRepository.encabezados(tipo));
+            filas = exportacionRepository.recorrer(tipo, tenantId, desde, hasta, proyectoId, escritor::escribirFila);
+        }
+        log.info("Exportación {} ({}) del tenant {}: {} filas", tipo, formato, tenantId, filas);
+        return filas;
+    }
+
+    /**
+     * Valida los filtros de una exportación (también antes de encolarla como trabajo)
+     */
+    public void validar(TipoExportacion tipo, LocalDate desde, LocalDate hasta, Long proyectoId) {
+        if (desde != null && hasta != null && desde.isAfter(hasta)) {
+            throw new BusinessException("La fecha inicial no puede ser posterior a la final", HttpStatus.BAD_REQUEST);
+        }
+        if (proyectoId != null && !ExportacionRepository.admiteProyecto(tipo)) {
+            throw new BusinessException("La exportación de " + tipo.getDescripcion() + " no se puede filtrar por proyecto",
+                    HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    private Long getTenantId() {
+        Long tenantId = TenantContext.getTenantId();
+        if (tenantId == null) {
+            throw new BusinessException("No se encontró tenant_id en el contexto", HttpStatus.UNAUTHORIZED);
+        }
+        return tenantId;
+    }
+
+    static EscritorTabla abrirEscritor(FormatoExportacion formato, OutputStream salida, String hoja)
+            throws IOException {
+        return switch (formato) {
+            case CSV -> new EscritorCsv(new OutputStreamWriter(salida, StandardCharsets.UTF_8), ',');
+            case XLSX -> new EscritorXlsx(salida, hoja);
+        };
+    }
+}
@@ -35,6 +35,7 @@ public class FaseService {
     private final ProyectoRepository proyectoRepository;
     private final TerrenoRepository terrenoRepository;
     private final FaseMapper faseMapper;
+    private final PlanoVersionService planoVersionService;
 
     private Long getTenantId() {
         Long tenantId = TenantContext.getTenantId();
@@ -154,6 +155,8 @@ public class FaseService {
 
         faseMapper.updateEntityFromRequest(request, fase);
         Fase faseActualizada = faseRepository.save(fase);
+        // El plano interactivo muestra el nombre de la fase de cada lote
+        planoVersionService.registrarCambioEstructura(tenantId, fase.getProyectoId());
         log.info("Fase {} actualizada exitosamente", id);
 
         return faseMapper.toResponse(faseActualizada);
@@ -179,6 +182,7 @@ public class FaseService {
 
         fase.setDeleted(true);
         faseRepository.save(fase);
+        planoVersionService.registrarCambioEstructura(tenantId, fase.getProyectoId());
         log.info("Fase {} eliminada exitosamente", id);
     }
 
@@ -42,6 +42,7 @@ public class PagoService {
     private final ClienteRepository clienteRepository;
     private final TerrenoRepository terrenoRepository;
     private final ProyectoRepository proyectoRepository;
+    private final TendenciaVentasService tendenciaVentasService;
 
     private final PlanPagoMapper planPagoMapper;
     private final AmortizacionMapper amortizacionMapper;
@@ -307,6 +308,7 @@ public class PagoService {
 
         // Guardar el pago
         Pago pagoGuardado = pagoRepository.save(pago);
+        tendenciaVentasService.registrarPago(pagoGuardado, planPago);
         log.info("Pago aplicado con ID: {}", pagoGuardado.getId());
 
         return convertirAPagoResponse(pagoGuardado);
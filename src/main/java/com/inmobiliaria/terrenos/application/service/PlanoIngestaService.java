@@ -3,28 +3,30 @@ package com.inmobiliaria.terrenos.application.service;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.inmobiliaria.terrenos.application.dto.plano.CvEngineResponse;
 import com.inmobiliaria.terrenos.application.dto.plano.ConfirmarIngestaRequest;
-import com.inmobiliaria.terrenos.domain.entity.Terreno;
+import com.inmobiliaria.terrenos.application.dto.plano.ResultadoIngestaResponse;
+import com.inmobiliaria.terrenos.application.event.CoordenadasLotesModificadasEvent;
+import com.inmobiliaria.terrenos.domain.enums.ModoAnalisisPlano;
+import com.inmobiliaria.terrenos.domain.repository.ProyectoRepository;
 import com.inmobiliaria.terrenos.domain.repository.TerrenoRepository;
+import com.inmobiliaria.terrenos.infrastructure.cv.CvAnalisisTeselado;
+import com.inmobiliaria.terrenos.infrastructure.cv.CvEngineClient;
+import com.inmobiliaria.terrenos.infrastructure.cv.CvEngineException;
+import com.inmobiliaria.terrenos.infrastructure.cv.CvResultadoCache;
+import com.inmobiliaria.terrenos.infrastructure.cv.GeometriaLotesProcessor;
 import com.inmobiliaria.terrenos.infrastructure.cv.PlanoStatusStore;
+import com.inmobiliaria.terrenos.infrastructure.geometry.NivelesDetalleGeometria;
+import com.inmobiliaria.terrenos.infrastructure.persistence.TerrenoBatchWriter;
+import com.inmobiliaria.terrenos.infrastructure.security.SecurityUtils;
 import com.inmobiliaria.terrenos.infrastructure.tenant.TenantContext;
 import com.inmobiliaria.terrenos.shared.exception.BusinessException;
+import com.inmobiliaria.terrenos.shared.exception.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.LinkedMultiValueMap;
-import org.springframework.util.MultiValueMap;
 import org.springframework.util.StringUtils;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.ResourceAccessException;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
@@ -33,18 +35,25 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.concurrent.Executor;
 
 /**
  * Servicio de ingesta de planos con análisis de Computer Vision.
  *
  * Responsabilidades (SRP):
  * - Guardar el archivo de forma segura
- * - Orquestar la comunicación con el CV Engine
- * - Persistir los lotes confirmados
+ * - Orquestar la comunicación con el CV Engine (con caché por hash de contenido)
+ * - Validar la geometría de los lotes detectados (solapes y duplicados) para la vista previa
+ * - Persistir los lotes confirmados (ingesta masiva deduplicada)
  * - Notificar en tiempo real al cliente (SSE)
  *
  * @author Kevin
@@ -56,15 +65,22 @@ import java.util.stream.Collectors;
 public class PlanoIngestaService {
 
     private final TerrenoRepository terrenoRepository;
-    private final RestTemplate restTemplate;          // Inyectado como Bean (DIP)
+    private final ProyectoRepository proyectoRepository;
+    private final TerrenoBatchWriter terrenoBatchWriter;  // INSERT/UPDATE por JDBC batch
+    private final CvEngineClient cvEngineClient;      // Cliente con pool, bulkhead y circuit breaker (DIP)
     private final PlanoStatusStore statusStore;
     private final ObjectMapper objectMapper;
-
-    @Value("${CV_ENGINE_URL:http://localhost:8000}")
-    private String cvEngineUrl;
+    private final CvResultadoCache resultadoCache;
+    private final Executor planoTaskExecutor;         // Hilos virtuales (ver AsyncConfig)
+    private final CvAnalisisTeselado analisisTeselado;
+    private final GeometriaLotesProcessor geometriaProcessor;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NivelesDetalleGeometria nivelesDetalle;
+    private final PlanoVersionService planoVersionService;
 
     private static final String BASE_UPLOAD_DIR = "uploads";
     private static final long MAX_FILE_SIZE_BYTES = 100L * 1024 * 1024; // 100 MB
+    private static final String SIN_NUMERO_LOTE = "S/N";
 
     /**
      * Recibe el nombre almacenado del archivo (ya guardado en disco por ArchivoService)
@@ -72,11 +88,19 @@ public class PlanoIngestaService {
      * El frontend llama a este método cuando usa el flujo de subida con ImageUploader.
      */
     public String iniciarAnalisisPorNombre(Long proyectoId, String nombreAlmacenado) {
+        return iniciarAnalisisPorNombre(proyectoId, nombreAlmacenado, ModoAnalisisPlano.AUTO);
+    }
+
+    /**
+     * Igual que {@link #iniciarAnalisisPorNombre(Long, String)} eligiendo el modo de análisis
+     * (completo o por teselas para planos de muy alta resolución).
+     */
+    public String iniciarAnalisisPorNombre(Long proyectoId, String nombreAlmacenado, ModoAnalisisPlano modo) {
         String tareaId = UUID.randomUUID().toString();
         // Construir ruta relativa dentro del volumen uploads
         String relativePath = "planos/proyecto_" + proyectoId + "/" + nombreAlmacenado;
         Long tenantId = TenantContext.getTenantId();
-        procesarPlanoAsync(tareaId, relativePath, tenantId);
+        planoTaskExecutor.execute(() -> procesarPlano(tareaId, relativePath, tenantId, modo));
         return tareaId;
     }
 
@@ -93,60 +117,44 @@ public class PlanoIngestaService {
         Path rutaArchivo = guardarArchivoSeguro(proyectoId, file);
         String relativePath = "planos/proyecto_" + proyectoId + "/" + rutaArchivo.getFileName();
 
-        // Lanza el análisis en el ThreadPool dedicado (no bloquea el hilo HTTP)
+        // Lanza el análisis en el executor dedicado (no bloquea el hilo HTTP)
         Long tenantId = TenantContext.getTenantId();
-        procesarPlanoAsync(tareaId, relativePath, tenantId);
+        planoTaskExecutor.execute(() -> procesarPlano(tareaId, relativePath, tenantId, ModoAnalisisPlano.AUTO));
 
         return tareaId;
     }
 
     /**
-     * Procesamiento asíncrono en el pool de hilos "planoTaskExecutor".
+     * Procesamiento en un hilo virtual de "planoTaskExecutor".
      * Notifica al cliente via SSE en cada etapa del proceso.
      */
-    @Async("planoTaskExecutor")
-    public void procesarPlanoAsync(String tareaId, String relativePath, Long tenantId) {
+    private void procesarPlano(String tareaId, String relativePath, Long tenantId, ModoAnalisisPlano modo) {
         log.info("[Tarea {}] Iniciando análisis de plano: {}", tareaId, relativePath);
         statusStore.notificar(tareaId, "progreso", "{\"paso\":\"Analizando imagen con IA...\",\"porcentaje\":10}");
 
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.MULTIPART_FORM_DATA);
-
-            MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
-            body.add("file_path", relativePath);
-
-            HttpEntity<MultiValueMap<String, Object>> request = new HttpEntity<>(body, headers);
-
-            statusStore.notificar(tareaId, "progreso", "{\"paso\":\"Detectando contornos de lotes...\",\"porcentaje\":40}");
+            CvEngineResponse resultado = analizarConCache(tareaId, relativePath, tenantId, modo);
 
-            ResponseEntity<CvEngineResponse> response = restTemplate.postForEntity(
-                    cvEngineUrl + "/api/cv/extract-lots", request, CvEngineResponse.class);
-
-            statusStore.notificar(tareaId, "progreso", "{\"paso\":\"Extrayendo texto con OCR...\",\"porcentaje\":80}");
-
-            CvEngineResponse resultado = response.getBody();
             if (resultado == null || resultado.getLotes() == null) {
                 statusStore.notificar(tareaId, "error", "{\"mensaje\":\"El motor CV no devolvió resultados\"}");
                 return;
             }
 
+            // Simplificación de polígonos y detección de solapes para la vista previa
+            statusStore.notificar(tareaId, "progreso", "{\"paso\":\"Validando geometría de lotes...\",\"porcentaje\":95}");
+            resultado = geometriaProcessor.procesar(resultado);
+
             String resultadoJson = objectMapper.writeValueAsString(resultado);
             statusStore.notificar(tareaId, "completado", resultadoJson);
 
-            log.info("[Tarea {}] Análisis completado. Lotes detectados: {}", tareaId, resultado.getTotal_lotes_detectados());
-
-        } catch (HttpClientErrorException e) {
-            // Error del CV Engine (imagen corrupta, formato no soportado)
-            String msg = String.format("{\"mensaje\":\"CV Engine rechazó el archivo: %s\"}",
-                    e.getResponseBodyAsString().replace("\"", "'"));
-            log.error("[Tarea {}] Error en CV Engine: {}", tareaId, e.getResponseBodyAsString());
-            statusStore.notificar(tareaId, "error", msg);
+            log.info("[Tarea {}] Análisis completado. Lotes detectados: {}, conflictos: {}", tareaId,
+                    resultado.getTotal_lotes_detectados(), resultado.getConflictos().size());
 
-        } catch (ResourceAccessException e) {
-            // CV Engine no disponible (timeout o contenedor caído)
-            log.error("[Tarea {}] CV Engine no disponible: {}", tareaId, e.getMessage());
-            statusStore.notificar(tareaId, "error", "{\"mensaje\":\"El servicio de análisis no está disponible. Verifique que el contenedor cv-engine esté activo.\"}");
+        } catch (CvEngineException e) {
+            // Archivo rechazado, motor caído (circuito abierto) o cupo del tenant agotado
+            log.error("[Tarea {}] Error en CV Engine ({}): {}", tareaId, e.getCode(), e.getMessage());
+            statusStore.notificar(tareaId, "error", String.format("{\"mensaje\":\"%s\",\"codigo\":\"%s\"}",
+                    e.getMessage().replace("\"", "'"), e.getCode()));
 
         } catch (Exception e) {
             log.error("[Tarea {}] Error inesperado: ", tareaId, e);
@@ -154,33 +162,169 @@ public class PlanoIngestaService {
         }
     }
 
+    /**
+     * Resuelve el análisis consultando primero la caché por hash de contenido.
+     * Si el plano ya fue analizado con la misma versión del motor, el resultado es inmediato;
+     * si hay otro análisis idéntico en curso, se comparte su resultado.
+     */
+    private CvEngineResponse analizarConCache(String tareaId, String relativePath, Long tenantId,
+                                              ModoAnalisisPlano modo) {
+        Path archivo = Paths.get(BASE_UPLOAD_DIR).resolve(relativePath);
+        boolean porTeselas = modo == ModoAnalisisPlano.TESELAS
+                || (modo == ModoAnalisisPlano.AUTO && analisisTeselado.requiereTeselas(archivo));
+        String variante = porTeselas ? analisisTeselado.variante() : null;
+
+        String contentHash;
+        try {
+            contentHash = resultadoCache.calcularHash(archivo);
+        } catch (IOException e) {
+            // Sin hash no hay llave de caché: se analiza directamente
+            log.warn("[Tarea {}] No se pudo calcular el hash de {}: {}", tareaId, relativePath, e.getMessage());
+            return invocarMotor(tareaId, relativePath, tenantId, porTeselas);
+        }
+
+        CvEngineResponse cacheado = resultadoCache.buscar(tenantId, contentHash, variante).orElse(null);
+        if (cacheado != null) {
+            log.info("[Tarea {}] Resultado recuperado de caché (hash {})", tareaId, contentHash);
+            statusStore.notificar(tareaId, "progreso", "{\"paso\":\"Resultado recuperado de análisis previo\",\"porcentaje\":90}");
+            cacheado.setArchivo_procesado(relativePath);
+            return cacheado;
+        }
+
+        return resultadoCache.obtenerOCalcular(tenantId, contentHash, variante,
+                () -> invocarMotor(tareaId, relativePath, tenantId, porTeselas));
+    }
+
+    /**
+     * Llamada real al CV Engine (OpenCV + Tesseract).
+     */
+    private CvEngineResponse invocarMotor(String tareaId, String relativePath, Long tenantId, boolean porTeselas) {
+        if (porTeselas) {
+            return invocarMotorPorTeselas(tareaId, relativePath, tenantId);
+        }
+        statusStore.notificar(tareaId, "progreso", "{\"paso\":\"Detectando contornos de lotes...\",\"porcentaje\":40}");
+
+        CvEngineResponse response = cvEngineClient.extraerLotes(tenantId, relativePath);
+
+        statusStore.notificar(tareaId, "progreso", "{\"paso\":\"Extrayendo texto con OCR...\",\"porcentaje\":80}");
+
+        return response;
+    }
+
+    /**
+     * Análisis por teselas en paralelo: el progreso avanza con cada tesela terminada.
+     */
+    private CvEngineResponse invocarMotorPorTeselas(String tareaId, String relativePath, Long tenantId) {
+        statusStore.notificar(tareaId, "progreso", "{\"paso\":\"Dividiendo plano en teselas...\",\"porcentaje\":20}");
+
+        return analisisTeselado.analizar(tenantId, Paths.get(BASE_UPLOAD_DIR), relativePath, (terminadas, total) ->
+                statusStore.notificar(tareaId, "progreso", String.format(
+                        "{\"paso\":\"Tesela %d de %d analizada\",\"porcentaje\":%d}",
+                        terminadas, total, 20 + (70 * terminadas / total))));
+    }
+
     // =========================================================================
     // Persistencia (SRP: método dedicado)
     // =========================================================================
 
+    /**
+     * Ingesta masiva y deduplicada de los lotes confirmados.
+     *
+     * - Los números de lote del proyecto se cargan una sola vez en un mapa en memoria
+     * - Lotes nuevos: INSERT por JDBC batch; existentes: se actualizan sus coordenadas
+     *   (o se omiten si actualizarExistentes = false); repetidos en la solicitud: se omiten
+     * - Los contadores del proyecto se recalculan una sola vez al final
+     */
     @Transactional
-    public void confirmarIngesta(ConfirmarIngestaRequest request) {
+    public ResultadoIngestaResponse confirmarIngesta(ConfirmarIngestaRequest request) {
+        long inicio = System.currentTimeMillis();
         Long tenantId = TenantContext.getTenantId();
         if (tenantId == null) {
             throw new BusinessException("No se encontró tenant_id en el contexto", HttpStatus.UNAUTHORIZED);
         }
 
-        final Long finalTenantId = tenantId;
-
-        List<Terreno> nuevosTerrenos = request.getLotes().stream()
-                .map(dto -> Terreno.builder()
-                        .tenantId(finalTenantId)
-                        .proyectoId(request.getProyectoId())
-                        .numeroLote(dto.getNumeroLote() != null ? dto.getNumeroLote() : "S/N")
-                        .area(dto.getArea() != null ? dto.getArea() : BigDecimal.ZERO)
-                        .precioBase(BigDecimal.ZERO)
-                        .coordenadasPlano(dto.getCoordenadasPlanoJson())
-                        .build())
-                .collect(Collectors.toList());
-
-        terrenoRepository.saveAll(nuevosTerrenos);
-        log.info("[Tenant {}] {} lotes ingresados para proyecto {}",
-                finalTenantId, nuevosTerrenos.size(), request.getProyectoId());
+        Long proyectoId = request.getProyectoId();
+        proyectoRepository.findByIdAndTenantIdAndDeletedFalse(proyectoId, tenantId)
+                .orElseThrow(() -> new ResourceNotFoundException("Proyecto no encontrado con id: " + proyectoId));
+
+        List<ConfirmarIngestaRequest.LoteIngesta> lotes =
+                request.getLotes() != null ? request.getLotes() : List.of();
+
+        // Número de lote (normalizado) -> id del terreno existente
+        List<Object[]> filas = terrenoRepository.findIdYNumeroLoteByProyecto(tenantId, proyectoId);
+        Map<String, Long> existentes = new HashMap<>(filas.size() * 2);
+        for (Object[] fila : filas) {
+            existentes.putIfAbsent(normalizarNumeroLote((String) fila[1]), (Long) fila[0]);
+        }
+
+        Set<String> vistos = new HashSet<>(lotes.size() * 2);
+        List<TerrenoBatchWriter.LoteNuevo> nuevos = new ArrayList<>();
+        List<TerrenoBatchWriter.CoordenadasLote> porActualizar = new ArrayList<>();
+        int omitidos = 0;
+
+        for (ConfirmarIngestaRequest.LoteIngesta dto : lotes) {
+            BigDecimal area = dto.getArea() != null ? dto.getArea() : BigDecimal.ZERO;
+
+            // Los lotes sin número no se pueden emparejar: siempre se insertan
+            if (!StringUtils.hasText(dto.getNumeroLote())) {
+                nuevos.add(new TerrenoBatchWriter.LoteNuevo(SIN_NUMERO_LOTE, area, dto.getCoordenadasPlanoJson(),
+                        nivelesDetalle.generar(dto.getCoordenadasPlanoJson())));
+                continue;
+            }
+
+            String numeroLote = dto.getNumeroLote().trim();
+            String llave = normalizarNumeroLote(numeroLote);
+            if (!vistos.add(llave)) {
+                omitidos++;
+                continue;
+            }
+
+            Long terrenoId = existentes.get(llave);
+            if (terrenoId == null) {
+                nuevos.add(new TerrenoBatchWriter.LoteNuevo(numeroLote, area, dto.getCoordenadasPlanoJson(),
+                        nivelesDetalle.generar(dto.getCoordenadasPlanoJson())));
+            } else if (request.isActualizarExistentes() && dto.getCoordenadasPlanoJson() != null) {
+                porActualizar.add(new TerrenoBatchWriter.CoordenadasLote(terrenoId, dto.getCoordenadasPlanoJson(),
+                        nivelesDetalle.generar(dto.getCoordenadasPlanoJson())));
+            } else {
+                omitidos++;
+            }
+        }
+
+        String usuario = SecurityUtils.getCurrentUsername().orElse("SYSTEM");
+        // Una sola versión del plano para toda la ingesta
+        long planoVersion = nuevos.isEmpty() && porActualizar.isEmpty()
+                ? 0L
+                : planoVersionService.registrarCambioLotes(tenantId, proyectoId);
+        int insertados = terrenoBatchWriter.insertar(tenantId, proyectoId, usuario, planoVersion, nuevos);
+        int actualizados = terrenoBatchWriter.actualizarCoordenadas(tenantId, usuario, planoVersion, porActualizar);
+
+        if (insertados > 0) {
+            proyectoRepository.recalcularContadores(tenantId, proyectoId);
+        }
+        if (insertados > 0 || actualizados > 0) {
+            eventPublisher.publishEvent(new CoordenadasLotesModificadasEvent(tenantId, proyectoId));
+        }
+
+        long tiempoMs = System.currentTimeMillis() - inicio;
+        log.info("[Tenant {}] Ingesta proyecto {}: {} recibidos, {} insertados, {} actualizados, {} omitidos en {} ms",
+                tenantId, proyectoId, lotes.size(), insertados, actualizados, omitidos, tiempoMs);
+
+        return ResultadoIngestaResponse.builder()
+                .proyectoId(proyectoId)
+                .recibidos(lotes.size())
+                .insertados(insertados)
+                .actualizados(actualizados)
+                .omitidos(omitidos)
+                .tiempoMs(tiempoMs)
+                .build();
+    }
+
+    /**
+     * Igual que la validación de TerrenoService: el número de lote es único sin distinguir mayúsculas
+     */
+    private static String normalizarNumeroLote(String numeroLote) {
+        return numeroLote == null ? "" : numeroLote.trim().toLowerCase(Locale.ROOT);
     }
 
     // =========================================================================
@@ -1,7 +1,5 @@
 package com.inmobiliaria.terrenos.application.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.inmobiliaria.terrenos.application.dto.plano.CoordenadasPlano;
 import com.inmobiliaria.terrenos.application.dto.plano.PlanoInteractivoResponse;
 import com.inmobiliaria.terrenos.application.dto.plano.TerrenoVisualizacionResponse;
@@ -10,11 +8,19 @@ import com.inmobiliaria.terrenos.domain.entity.Fase;
 import com.inmobiliaria.terrenos.domain.entity.Proyecto;
 import com.inmobiliaria.terrenos.domain.entity.Terreno;
 import com.inmobiliaria.terrenos.domain.enums.EstadoTerreno;
+import com.inmobiliaria.terrenos.domain.enums.NivelDetallePlano;
 import com.inmobiliaria.terrenos.domain.enums.TipoArchivo;
 import com.inmobiliaria.terrenos.domain.repository.ArchivoRepository;
 import com.inmobiliaria.terrenos.domain.repository.FaseRepository;
 import com.inmobiliaria.terrenos.domain.repository.ProyectoRepository;
 import com.inmobiliaria.terrenos.domain.repository.TerrenoRepository;
+import com.inmobiliaria.terrenos.infrastructure.cache.SingleFlightCache;
+import com.inmobiliaria.terrenos.infrastructure.geometry.CodificadorGeometria;
+import com.inmobiliaria.terrenos.infrastructure.geometry.IndiceLotes;
+import com.inmobiliaria.terrenos.infrastructure.geometry.IndiceLotesCache;
+import com.inmobiliaria.terrenos.infrastructure.geometry.NivelesDetalleGeometria;
+import com.inmobiliaria.terrenos.infrastructure.geometry.Poligono;
+import com.inmobiliaria.terrenos.infrastructure.realtime.CanalDisponibilidadLotes;
 import com.inmobiliaria.terrenos.infrastructure.tenant.TenantContext;
 import com.inmobiliaria.terrenos.shared.exception.BusinessException;
 import com.inmobiliaria.terrenos.shared.exception.ResourceNotFoundException;
@@ -23,12 +29,16 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.OptionalLong;
 
 /**
  * Servicio para gestión de planos interactivos
@@ -41,11 +51,20 @@ import java.util.stream.Collectors;
 @Slf4j
 public class PlanoService {
 
+    private static final Duration TTL_PLANO = Duration.ofMinutes(10);
+
     private final ProyectoRepository proyectoRepository;
     private final TerrenoRepository terrenoRepository;
     private final ArchivoRepository archivoRepository;
     private final FaseRepository faseRepository;
-    private final ObjectMapper objectMapper;
+    private final NivelesDetalleGeometria nivelesDetalle;
+    private final IndiceLotesCache indiceLotesCache;
+    private final PlanoVersionService planoVersionService;
+    private final CanalDisponibilidadLotes canalDisponibilidad;
+    private final SingleFlightCache singleFlight;
+
+    private record ParametrosPlano(Long proyectoId, NivelDetallePlano nivel, Long since) {
+    }
 
     private Long getTenantId() {
         Long tenantId = TenantContext.getTenantId();
@@ -56,12 +75,86 @@ public class PlanoService {
     }
 
     /**
-     * Obtiene el plano interactivo de un proyecto
+     * Obtiene el plano interactivo de un proyecto con las coordenadas completas
      */
-    @Transactional(readOnly = true)
     public PlanoInteractivoResponse obtenerPlanoInteractivo(Long proyectoId) {
+        return obtenerPlanoInteractivo(proyectoId, null);
+    }
+
+    /**
+     * Obtiene el plano interactivo de un proyecto.
+     * Con zoom, cada lote trae la geometría precalculada del nivel de detalle correspondiente
+     * (codificada, ver CodificadorGeometria) en lugar de las coordenadas completas.
+     */
+    public PlanoInteractivoResponse obtenerPlanoInteractivo(Long proyectoId, Integer zoom) {
+        return obtenerPlanoInteractivo(proyectoId, zoom, null);
+    }
+
+    /**
+     * Obtiene el plano interactivo de un proyecto, completo o solo con los cambios desde una versión.
+     *
+     * Las respuestas se comparten por (tenant, proyecto, nivel, since) y versión del plano
+     * (ver SingleFlightCache): las peticiones simultáneas de varias pantallas arman el plano una
+     * sola vez y, mientras la versión no cambie, se devuelve sin consultar terrenos ni fases.
+     * Con since se devuelven solo los terrenos modificados después de esa versión y los ids de los
+     * eliminados. Si desde since hubo un cambio de estructura (fases, imagen del plano, datos del
+     * proyecto) se devuelve el plano completo (parcial = false).
+     *
+     * Sin transacción propia: las versiones se leen cada una en una transacción corta y el plano
+     * se arma en la transacción de quien lo calcula, así las peticiones que esperan ese cálculo
+     * no ocupan conexiones del pool.
+     */
+    public PlanoInteractivoResponse obtenerPlanoInteractivo(Long proyectoId, Integer zoom, Long since) {
         Long tenantId = getTenantId();
-        log.info("Obteniendo plano interactivo del proyecto {} para tenant: {}", proyectoId, tenantId);
+        NivelDetallePlano nivel = zoom != null ? NivelDetallePlano.desdeZoom(zoom) : null;
+
+        // La versión se lee antes que los datos: si cambian mientras se arma la respuesta,
+        // la siguiente consulta verá una versión mayor y los volverá a enviar
+        long version = planoVersionService.obtenerVersion(tenantId, proyectoId);
+
+        if (since != null && since <= version
+                && since >= planoVersionService.obtenerVersionEstructura(tenantId, proyectoId)) {
+            return since == version
+                    ? PlanoInteractivoResponse.builder()
+                            .proyectoId(proyectoId)
+                            .version(version)
+                            .desdeVersion(since)
+                            .parcial(true)
+                            .nivelDetalle(nivel)
+                            .formatoGeometria(nivel != null ? CodificadorGeometria.FORMATO : null)
+                            .terrenos(List.of())
+                            .terrenosEliminados(List.of())
+                            .build()
+                    : singleFlight.obtener("plano-interactivo-cambios", tenantId,
+                            new ParametrosPlano(proyectoId, nivel, since), version, TTL_PLANO,
+                            () -> construirCambios(tenantId, proyectoId, nivel, version, since));
+        }
+
+        return singleFlight.obtener("plano-interactivo", tenantId,
+                new ParametrosPlano(proyectoId, nivel, null), version, TTL_PLANO,
+                () -> construirPlanoCompleto(tenantId, proyectoId, nivel, version));
+    }
+
+    /**
+     * Versión actual del plano de un proyecto (para validar ETag sin construir la respuesta)
+     */
+    @Transactional(readOnly = true)
+    public long obtenerVersionPlano(Long proyectoId) {
+        return planoVersionService.obtenerVersion(getTenantId(), proyectoId);
+    }
+
+    /**
+     * Abre el canal SSE de disponibilidad del proyecto (cambios de estado de lotes en tiempo real)
+     */
+    public SseEmitter suscribirDisponibilidad(Long proyectoId) {
+        Long tenantId = getTenantId();
+        long version = planoVersionService.obtenerVersion(tenantId, proyectoId);
+        return canalDisponibilidad.suscribir(tenantId, proyectoId, version);
+    }
+
+    private PlanoInteractivoResponse construirPlanoCompleto(Long tenantId, Long proyectoId,
+                                                            NivelDetallePlano nivel, long version) {
+        log.info("Obteniendo plano interactivo del proyecto {} (versión {}) para tenant: {}", proyectoId, version, tenantId);
 
         // Validar proyecto
         Proyecto proyecto = proyectoRepository.findByIdAndTenantIdAndDeletedFalse(proyectoId, tenantId)
@@ -88,36 +181,28 @@ public class PlanoService {
         // Obtener todos los terrenos del proyecto
         List<Terreno> terrenos = terrenoRepository
                 .findByTenantIdAndProyectoIdAndDeletedFalseOrderByNumeroLoteAsc(tenantId, proyectoId);
+        Map<Long, String> fasesMap = cargarFases(tenantId, proyectoId);
 
-        // Obtener fases para incluir nombres
-        Map<Long, String> fasesMap = new HashMap<>();
-        List<Fase> fases = faseRepository.findByTenantIdAndProyectoIdAndDeletedFalse(tenantId, proyectoId);
-        for (Fase fase : fases) {
-            fasesMap.put(fase.getId(), fase.getNombre());
+        // Mapear terrenos y calcular estadísticas en una sola pasada
+        List<TerrenoVisualizacionResponse> terrenosVisualizacion = new ArrayList<>(terrenos.size());
+        int conCoordenadas = 0;
+        int disponibles = 0;
+        int apartados = 0;
+        int vendidos = 0;
+        for (Terreno terreno : terrenos) {
+            terrenosVisualizacion.add(mapearTerrenoAVisualizacion(terreno, fasesMap, nivel));
+            if (terreno.getCoordenadasPlano() != null && !terreno.getCoordenadasPlano().isBlank()) {
+                conCoordenadas++;
+            }
+            if (terreno.getEstado() == EstadoTerreno.DISPONIBLE) {
+                disponibles++;
+            } else if (terreno.getEstado() == EstadoTerreno.APARTADO) {
+                apartados++;
+            } else if (terreno.getEstado() == EstadoTerreno.VENDIDO) {
+                vendidos++;
+            }
         }
 
-        // Mapear terrenos a visualización
-        List<TerrenoVisualizacionResponse> terrenosVisualizacion = terrenos.stream()
-                .map(terreno -> mapearTerrenoAVisualizacion(terreno, fasesMap))
-                .collect(Collectors.toList());
-
-        // Calcular estadísticas
-        long totalTerrenos = terrenos.size();
-        long terrenosConCoordenadas = terrenos.stream()
-                .filter(t -> t.getCoordenadasPlano() != null && !t.getCoordenadasPlano().isBlank())
-                .count();
-        long terrenosSinCoordenadas = totalTerrenos - terrenosConCoordenadas;
-
-        long terrenosDisponibles = terrenos.stream()
-                .filter(t -> t.getEstado() == EstadoTerreno.DISPONIBLE)
-                .count();
-        long terrenosApartados = terrenos.stream()
-                .filter(t -> t.getEstado() == EstadoTerreno.APARTADO)
-                .count();
-        long terrenosVendidos = terrenos.stream()
-                .filter(t -> t.getEstado() == EstadoTerreno.VENDIDO)
-                .count();
-
         // Construir respuesta
         return PlanoInteractivoResponse.builder()
                 .proyectoId(proyecto.getId())
@@ -125,27 +210,138 @@ public class PlanoService {
                 .planoArchivoId(plano != null ? plano.getId() : null)
                 .planoUrl(plano != null ? "/api/v1/archivos/" + plano.getId() + "/download" : null)
                 .planoNombre(plano != null ? plano.getNombreOriginal() : null)
+                .version(version)
+                .parcial(false)
+                .nivelDetalle(nivel)
+                .formatoGeometria(nivel != null ? CodificadorGeometria.FORMATO : null)
                 .terrenos(terrenosVisualizacion)
-                .totalTerrenos((int) totalTerrenos)
-                .terrenosDisponibles((int) terrenosDisponibles)
-                .terrenosApartados((int) terrenosApartados)
-                .terrenosVendidos((int) terrenosVendidos)
-                .terrenosConCoordenadas((int) terrenosConCoordenadas)
-                .terrenosSinCoordenadas((int) terrenosSinCoordenadas)
+                .totalTerrenos(terrenos.size())
+                .terrenosDisponibles(disponibles)
+                .terrenosApartados(apartados)
+                .terrenosVendidos(vendidos)
+                .terrenosConCoordenadas(conCoordenadas)
+                .terrenosSinCoordenadas(terrenos.size() - conCoordenadas)
                 .build();
     }
 
     /**
-     * Mapea un Terreno a TerrenoVisualizacionResponse
+     * Respuesta parcial: terrenos modificados y eliminados después de since.
+     * Las estadísticas salen de los contadores del proyecto.
+     */
+    private PlanoInteractivoResponse construirCambios(Long tenantId, Long proyectoId, NivelDetallePlano nivel,
+                                                      long version, long since) {
+        Proyecto proyecto = proyectoRepository.findByIdAndTenantIdAndDeletedFalse(proyectoId, tenantId)
+                .orElseThrow(() -> new ResourceNotFoundException("Proyecto no encontrado con id: " + proyectoId));
+
+        List<Terreno> modificados = terrenoRepository
+                .findByTenantIdAndProyectoIdAndPlanoVersionGreaterThanAndDeletedFalseOrderByNumeroLoteAsc(
+                        tenantId, proyectoId, since);
+        List<Long> eliminados = terrenoRepository.findIdsEliminadosDesdeVersion(tenantId, proyectoId, since);
+        Map<Long, String> fasesMap = modificados.isEmpty() ? Map.of() : cargarFases(tenantId, proyectoId);
+        log.debug("Cambios del plano del proyecto {} desde la versión {} hasta {}: {} modificados, {} eliminados",
+                proyectoId, since, version, modificados.size(), eliminados.size());
+
+        return PlanoInteractivoResponse.builder()
+                .proyectoId(proyecto.getId())
+                .proyectoNombre(proyecto.getNombre())
+                .version(version)
+                .desdeVersion(since)
+                .parcial(true)
+                .nivelDetalle(nivel)
+                .formatoGeometria(nivel != null ? CodificadorGeometria.FORMATO : null)
+                .terrenos(modificados.stream()
+                        .map(terreno -> mapearTerrenoAVisualizacion(terreno, fasesMap, nivel))
+                        .toList())
+                .terrenosEliminados(eliminados)
+                .totalTerrenos(proyecto.getTotalTerrenos())
+                .terrenosDisponibles(proyecto.getTerrenosDisponibles())
+                .terrenosApartados(proyecto.getTerrenosApartados())
+                .terrenosVendidos(proyecto.getTerrenosVendidos())
+                .build();
+    }
+
+    /**
+     * Obtiene el lote que está en el punto (x, y) del plano usando el índice espacial del proyecto
+     */
+    @Transactional(readOnly = true)
+    public Optional<TerrenoVisualizacionResponse> obtenerLoteEnPunto(Long proyectoId, double x, double y) {
+        Long tenantId = getTenantId();
+        validarProyecto(tenantId, proyectoId);
+
+        OptionalLong terrenoId = indiceLotesCache.obtener(tenantId, proyectoId).loteEn(x, y);
+        if (terrenoId.isEmpty()) {
+            return Optional.empty();
+        }
+        return cargarVisualizacion(tenantId, proyectoId, List.of(terrenoId.getAsLong())).stream().findFirst();
+    }
+
+    /**
+     * Obtiene los lotes cuyo polígono intersecta la ventana visible del plano.
+     * Permite cargar planos grandes por partes mientras el usuario se desplaza.
+     */
+    @Transactional(readOnly = true)
+    public List<TerrenoVisualizacionResponse> obtenerLotesEnVentana(Long proyectoId, double minX, double minY,
+                                                                    double maxX, double maxY) {
+        Long tenantId = getTenantId();
+        if (minX > maxX || minY > maxY) {
+            throw new BusinessException("La ventana es inválida: min debe ser menor o igual que max", HttpStatus.BAD_REQUEST);
+        }
+        validarProyecto(tenantId, proyectoId);
+
+        IndiceLotes indice = indiceLotesCache.obtener(tenantId, proyectoId);
+        long[] ids = indice.lotesEnVentana(minX, minY, maxX, maxY);
+        log.debug("Ventana [{}, {}, {}, {}] del proyecto {}: {} de {} lotes",
+                minX, minY, maxX, maxY, proyectoId, ids.length, indice.size());
+        if (ids.length == 0) {
+            return List.of();
+        }
+        return cargarVisualizacion(tenantId, proyectoId, Arrays.stream(ids).boxed().toList());
+    }
+
+    private void validarProyecto(Long tenantId, Long proyectoId) {
+        if (!proyectoRepository.existsByIdAndTenantIdAndDeletedFalse(proyectoId, tenantId)) {
+            throw new ResourceNotFoundException("Proyecto no encontrado con id: " + proyectoId);
+        }
+    }
+
+    /**
+     * Carga el estado actual de los terrenos indicados (el índice solo guarda geometría)
+     */
+    private List<TerrenoVisualizacionResponse> cargarVisualizacion(Long tenantId, Long proyectoId, List<Long> ids) {
+        Map<Long, String> fasesMap = cargarFases(tenantId, proyectoId);
+        return terrenoRepository
+                .findByTenantIdAndProyectoIdAndIdInAndDeletedFalseOrderByNumeroLoteAsc(tenantId, proyectoId, ids)
+                .stream()
+                .map(terreno -> mapearTerrenoAVisualizacion(terreno, fasesMap, null))
+                .toList();
+    }
+
+    /**
+     * Nombres de las fases del proyecto por id
+     */
+    private Map<Long, String> cargarFases(Long tenantId, Long proyectoId) {
+        Map<Long, String> fasesMap = new HashMap<>();
+        for (Fase fase : faseRepository.findByTenantIdAndProyectoIdAndDeletedFalse(tenantId, proyectoId)) {
+            fasesMap.put(fase.getId(), fase.getNombre());
+        }
+        return fasesMap;
+    }
+
+    /**
+     * Mapea un Terreno a TerrenoVisualizacionResponse (nivel null = coordenadas completas)
      */
-    private TerrenoVisualizacionResponse mapearTerrenoAVisualizacion(Terreno terreno, Map<Long, String> fasesMap) {
-        // Parsear coordenadas JSON a objeto
+    private TerrenoVisualizacionResponse mapearTerrenoAVisualizacion(Terreno terreno, Map<Long, String> fasesMap,
+                                                                     NivelDetallePlano nivel) {
         CoordenadasPlano coordenadas = null;
-        if (terreno.getCoordenadasPlano() != null && !terreno.getCoordenadasPlano().isBlank()) {
-            try {
-                coordenadas = objectMapper.readValue(terreno.getCoordenadasPlano(), CoordenadasPlano.class);
-            } catch (JsonProcessingException e) {
-                log.warn("Error al parsear coordenadas del terreno {}: {}", terreno.getId(), e.getMessage());
+        String geometria = null;
+        if (nivel == null) {
+            coordenadas = nivelesDetalle.leerCoordenadas(terreno.getCoordenadasPlano());
+        } else {
+            geometria = nivelesDetalle.nivel(terreno.getGeometriaLod(), nivel);
+            if (geometria == null && terreno.getCoordenadasPlano() != null) {
+                // Terrenos guardados antes de existir geometria_lod: se calcula al vuelo
+                Poligono poligono = nivelesDetalle.parsear(terreno.getCoordenadasPlano());
+                geometria = poligono != null ? NivelesDetalleGeometria.codificar(poligono, nivel) : null;
             }
         }
 
@@ -157,6 +353,7 @@ public class PlanoService {
                 .manzana(terreno.getManzana())
                 .estado(terreno.getEstado())
                 .coordenadas(coordenadas)
+                .geometria(geometria)
                 .area(terreno.getArea())
                 .precioFinal(terreno.getPrecioFinal())
                 .caracteristicas(terreno.getCaracteristicas())
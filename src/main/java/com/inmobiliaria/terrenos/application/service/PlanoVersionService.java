@@ -0,0 +1,78 @@
+package com.inmobiliaria.terrenos.application.service;
+
+import com.inmobiliaria.terrenos.domain.entity.Terreno;
+import com.inmobiliaria.terrenos.domain.repository.ProyectoRepository;
+import com.inmobiliaria.terrenos.shared.exception.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Versión del plano interactivo de cada proyecto.
+ *
+ * Cada cambio visible en el plano aumenta proyectos.plano_version dentro de la misma transacción
+ * que el cambio; los terrenos modificados guardan la versión en la que cambiaron, lo que permite
+ * responder "qué cambió desde la versión N". Los cambios de estructura (fases, imagen del plano,
+ * datos del proyecto) además actualizan plano_version_estructura: a partir de ellos ya no basta
+ * con enviar los lotes modificados y el visor debe recargar el plano completo.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PlanoVersionService {
+
+    private final ProyectoRepository proyectoRepository;
+
+    /**
+     * Registra el cambio de un terreno: aumenta la versión del plano y la asigna al terreno.
+     * Llamar antes de guardar el terreno.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long registrarCambioLote(Terreno terreno) {
+        long version = registrarCambioLotes(terreno.getTenantId(), terreno.getProyectoId());
+        terreno.setPlanoVersion(version);
+        return version;
+    }
+
+    /**
+     * Registra un cambio de varios terrenos del proyecto y devuelve la nueva versión,
+     * que el llamador debe asignar a los terrenos modificados
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long registrarCambioLotes(Long tenantId, Long proyectoId) {
+        proyectoRepository.incrementarVersionPlano(tenantId, proyectoId);
+        return obtenerVersion(tenantId, proyectoId);
+    }
+
+    /**
+     * Registra un cambio de estructura del plano (fases, imagen, datos del proyecto)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarCambioEstructura(Long tenantId, Long proyectoId) {
+        proyectoRepository.incrementarVersionPlanoEstructura(tenantId, proyectoId);
+        log.debug("Cambio de estructura del plano del proyecto {} (tenant {})", proyectoId, tenantId);
+    }
+
+    /**
+     * Versión actual del plano de un proyecto
+     */
+    @Transactional(readOnly = true)
+    public long obtenerVersion(Long tenantId, Long proyectoId) {
+        return proyectoRepository.findVersionPlano(tenantId, proyectoId)
+                .orElseThrow(() -> new ResourceNotFoundException("Proyecto no encontrado con id: " + proyectoId));
+    }
+
+    /**
+     * Versión del último cambio de estructura del plano de un proyecto
+     */
+    @Transactional(readOnly = true)
+    public long obtenerVersionEstructura(Long tenantId, Long proyectoId) {
+        return proyectoRepository.findVersionPlanoEstructura(tenantId, proyectoId)
+                .orElseThrow(() -> new ResourceNotFoundException("Proyecto no encontrado con id: " + proyectoId));
+    }
+}
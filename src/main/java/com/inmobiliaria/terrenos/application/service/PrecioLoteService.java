@@ -0,0 +1,149 @@
+package com.inmobiliaria.terrenos.application.service;
+
+import com.inmobiliaria.terrenos.application.dto.descuento.PrecioLoteResponse;
+import com.inmobiliaria.terrenos.application.dto.descuento.PreciosProyectoResponse;
+import com.inmobiliaria.terrenos.domain.entity.Terreno;
+import com.inmobiliaria.terrenos.domain.repository.ProyectoRepository;
+import com.inmobiliaria.terrenos.domain.repository.TerrenoRepository;
+import com.inmobiliaria.terrenos.domain.repository.proyeccion.TerrenoListado;
+import com.inmobiliaria.terrenos.infrastructure.precio.DescuentosCache;
+import com.inmobiliaria.terrenos.infrastructure.precio.IndiceDescuentos;
+import com.inmobiliaria.terrenos.infrastructure.tenant.TenantContext;
+import com.inmobiliaria.terrenos.shared.exception.BusinessException;
+import com.inmobiliaria.terrenos.shared.exception.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Motor de precios de lotes: precio de lista más el mejor descuento aplicable.
+ *
+ * Los descuentos de la empresa se evalúan contra un índice en memoria (DescuentosCache),
+ * así cotizar un lote o todo un proyecto no consulta la tabla de descuentos por lote.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PrecioLoteService {
+
+    private final TerrenoRepository terrenoRepository;
+    private final ProyectoRepository proyectoRepository;
+    private final DescuentosCache descuentosCache;
+
+    private Long getTenantId() {
+        Long tenantId = TenantContext.getTenantId();
+        if (tenantId == null) {
+            throw new BusinessException("No se encontró tenant_id en el contexto", HttpStatus.UNAUTHORIZED);
+        }
+        return tenantId;
+    }
+
+    /**
+     * Precio de un lote con el mejor descuento vigente hoy
+     *
+     * @param codigo código de descuento presentado por el cliente (opcional)
+     */
+    @Transactional(readOnly = true)
+    public PrecioLoteResponse cotizarLote(Long terrenoId, String codigo) {
+        Long tenantId = getTenantId();
+        Terreno terreno = terrenoRepository.findByIdAndTenantIdAndDeletedFalse(terrenoId, tenantId)
+                .orElseThrow(() -> new ResourceNotFoundException("Terreno no encontrado con id: " + terrenoId));
+
+        return cotizar(tenantId, terreno, codigo);
+    }
+
+    /**
+     * Precio de un lote ya cargado (usado también al crear cotizaciones)
+     */
+    public PrecioLoteResponse cotizar(Long tenantId, Terreno terreno, String codigo) {
+        return precio(descuentosCache.obtener(tenantId), terreno.getId(), terreno.getProyectoId(), terreno.getFaseId(),
+                terreno.getNumeroLote(), terreno.getManzana(), terreno.getPrecioFinal(), LocalDate.now(), codigo);
+    }
+
+    /**
+     * Precio con descuento de todos los lotes disponibles del proyecto
+     */
+    @Transactional(readOnly = true)
+    public PreciosProyectoResponse cotizarProyecto(Long proyectoId, String codigo) {
+        Long tenantId = getTenantId();
+        proyectoRepository.findByIdAndTenantIdAndDeletedFalse(proyectoId, tenantId)
+                .orElseThrow(() -> new ResourceNotFoundException("Proyecto no encontrado con id: " + proyectoId));
+
+        long inicio = System.nanoTime();
+        IndiceDescuentos indice = descuentosCache.obtener(tenantId);
+        LocalDate hoy = LocalDate.now();
+        List<TerrenoListado> lotes = terrenoRepository.findListadoDisponiblesPorProyecto(tenantId, proyectoId);
+
+        List<PrecioLoteResponse> precios = new ArrayList<>(lotes.size());
+        int conDescuento = 0;
+        BigDecimal totalLista = BigDecimal.ZERO;
+        BigDecimal totalFinal = BigDecimal.ZERO;
+        for (TerrenoListado lote : lotes) {
+            PrecioLoteResponse precio = precio(indice, lote.id(), lote.proyectoId(), lote.faseId(), lote.numeroLote(),
+                    lote.manzana(), lote.precioFinal(), hoy, codigo);
+            precios.add(precio);
+            if (precio.getDescuentoId() != null) {
+                conDescuento++;
+            }
+            if (precio.getPrecioLista() != null) {
+                totalLista = totalLista.add(precio.getPrecioLista());
+                totalFinal = totalFinal.add(precio.getPrecioFinal());
+            }
+        }
+        log.debug("[Tenant {}] Precios de {} lotes del proyecto {} calculados en {} µs ({} con descuento)",
+                tenantId, lotes.size(), proyectoId, (System.nanoTime() - inicio) / 1_000, conDescuento);
+
+        return PreciosProyectoResponse.builder()
+                .proyectoId(proyectoId)
+                .fecha(hoy)
+                .codigo(codigo)
+                .lotes(lotes.size())
+                .lotesConDescuento(conDescuento)
+                .totalLista(totalLista)
+                .totalDescuentos(totalLista.subtract(totalFinal))
+                .totalFinal(totalFinal)
+                .precios(precios)
+                .build();
+    }
+
+    private static PrecioLoteResponse precio(IndiceDescuentos indice, Long terrenoId, Long proyectoId, Long faseId,
+                                             String numeroLote, String manzana, BigDecimal precioLista,
+                                             LocalDate fecha, String codigo) {
+        PrecioLoteResponse.PrecioLoteResponseBuilder precio = PrecioLoteResponse.builder()
+                .terrenoId(terrenoId)
+                .proyectoId(proyectoId)
+                .faseId(faseId)
+                .numeroLote(numeroLote)
+                .manzana(manzana)
+                .precioLista(precioLista)
+                .montoDescuento(BigDecimal.ZERO)
+                .porcentajeDescuento(BigDecimal.ZERO)
+                .precioFinal(precioLista);
+        if (codigo != null && !codigo.isBlank()) {
+            precio.codigoAplicable(indice.aplicaCodigo(proyectoId, faseId, terrenoId, fecha, codigo));
+        }
+
+        IndiceDescuentos.DescuentoAplicado descuento =
+                indice.mejorDescuento(proyectoId, faseId, terrenoId, precioLista, fecha, codigo);
+        if (descuento != null) {
+            precio.descuentoId(descuento.descuentoId())
+                    .descuentoNombre(descuento.nombre())
+                    .codigo(descuento.codigo())
+                    .tipoDescuento(descuento.tipo())
+                    .montoDescuento(descuento.monto())
+                    .porcentajeDescuento(descuento.porcentaje())
+                    .precioFinal(descuento.precioFinal());
+        }
+        return precio.build();
+    }
+}
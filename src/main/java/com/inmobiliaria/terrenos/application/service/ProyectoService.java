@@ -31,6 +31,7 @@ public class ProyectoService {
 
     private final ProyectoRepository proyectoRepository;
     private final ProyectoMapper proyectoMapper;
+    private final PlanoVersionService planoVersionService;
 
     /**
      * Obtiene el tenant_id del contexto actual
@@ -138,6 +139,7 @@ public class ProyectoService {
 
         // Guardar cambios
         Proyecto proyectoActualizado = proyectoRepository.save(proyecto);
+        planoVersionService.registrarCambioEstructura(tenantId, id);
         log.info("Proyecto {} actualizado exitosamente", id);
 
         return proyectoMapper.toResponse(proyectoActualizado);
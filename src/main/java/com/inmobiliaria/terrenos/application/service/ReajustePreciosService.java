@@ -0,0 +1,280 @@
+package com.inmobiliaria.terrenos.application.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inmobiliaria.terrenos.application.dto.precio.ReglaPrecioRequest;
+import com.inmobiliaria.terrenos.application.dto.precio.ReglaPrecioResponse;
+import com.inmobiliaria.terrenos.application.dto.precio.SimulacionReajusteResponse;
+import com.inmobiliaria.terrenos.domain.entity.Fase;
+import com.inmobiliaria.terrenos.domain.entity.ReglaPrecio;
+import com.inmobiliaria.terrenos.domain.enums.EstadoReglaPrecio;
+import com.inmobiliaria.terrenos.domain.repository.FaseRepository;
+import com.inmobiliaria.terrenos.domain.repository.ProyectoRepository;
+import com.inmobiliaria.terrenos.domain.repository.ReglaPrecioRepository;
+import com.inmobiliaria.terrenos.infrastructure.persistence.ReajustePreciosRepository;
+import com.inmobiliaria.terrenos.infrastructure.persistence.TerrenoBusquedaRepository;
+import com.inmobiliaria.terrenos.infrastructure.security.SecurityUtils;
+import com.inmobiliaria.terrenos.infrastructure.tenant.TenantContext;
+import com.inmobiliaria.terrenos.interfaces.mapper.ReglaPrecioMapper;
+import com.inmobiliaria.terrenos.shared.exception.BusinessException;
+import com.inmobiliaria.terrenos.shared.exception.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Servicio de reajuste masivo de precios de lotes.
+ *
+ * Reemplaza actualizar cada terreno con actualizarTerreno (una carga de entidad y un
+ * recálculo en Java por lote) por reglas que se aplican con un UPDATE por conjuntos
+ * (ver ReajustePreciosRepository):
+ * - simular: impacto agregado y una muestra de lotes, sin modificar nada
+ * - crearRegla: aplica de inmediato o queda programada para fechaProgramada
+ *   (la aplica ReajustePreciosScheduler)
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReajustePreciosService {
+
+    private final ReglaPrecioRepository reglaPrecioRepository;
+    private final ReajustePreciosRepository reajustePreciosRepository;
+    private final ProyectoRepository proyectoRepository;
+    private final FaseRepository faseRepository;
+    private final PlanoVersionService planoVersionService;
+    private final ReglaPrecioMapper reglaPrecioMapper;
+    private final ObjectMapper objectMapper;
+
+    static final int TAMANIO_MUESTRA = 20;
+
+    private static final BigDecimal PORCENTAJE_MINIMO = new BigDecimal("-100");
+    private static final BigDecimal PORCENTAJE_MAXIMO = new BigDecimal("1000");
+    private static final BigDecimal MAX_MULTIPLICADOR = new BigDecimal("999.99");   // NUMERIC(5,2)
+    private static final BigDecimal MAX_AJUSTE = new BigDecimal("9999999999999.99"); // NUMERIC(15,2)
+
+    private Long getTenantId() {
+        Long tenantId = TenantContext.getTenantId();
+        if (tenantId == null) {
+            throw new BusinessException("No se encontró tenant_id en el contexto", HttpStatus.UNAUTHORIZED);
+        }
+        return tenantId;
+    }
+
+    /**
+     * Impacto de la regla sin aplicarla
+     */
+    @Transactional(readOnly = true)
+    public SimulacionReajusteResponse simular(ReglaPrecioRequest request) {
+        ReglaPrecio regla = construirRegla(request, getTenantId());
+
+        ReajustePreciosRepository.Impacto impacto = reajustePreciosRepository.simular(regla);
+        BigDecimal diferencia = impacto.totalNuevo().subtract(impacto.totalAnterior());
+        BigDecimal variacion = impacto.totalAnterior().signum() == 0
+                ? BigDecimal.ZERO
+                : diferencia.multiply(BigDecimal.valueOf(100)).divide(impacto.totalAnterior(), 2, RoundingMode.HALF_UP);
+
+        return SimulacionReajusteResponse.builder()
+                .proyectoId(regla.getProyectoId())
+                .lotes(impacto.lotes())
+                .totalAnterior(impacto.totalAnterior())
+                .totalNuevo(impacto.totalNuevo())
+                .diferencia(diferencia)
+                .variacionPorcentual(variacion)
+                .precioMinimoNuevo(impacto.precioMinimo())
+                .precioMaximoNuevo(impacto.precioMaximo())
+                .lotesPrecioInvalido(impacto.lotesPrecioInvalido())
+                .muestra(impacto.lotes() > 0 ? reajustePreciosRepository.muestra(regla, TAMANIO_MUESTRA) : List.of())
+                .build();
+    }
+
+    /**
+     * Crea la regla y la aplica de inmediato, o la programa si trae fechaProgramada
+     */
+    @Transactional
+    public ReglaPrecioResponse crearRegla(ReglaPrecioRequest request) {
+        Long tenantId = getTenantId();
+        ReglaPrecio regla = construirRegla(request, tenantId);
+        String usuario = SecurityUtils.getCurrentUsername().orElse("SYSTEM");
+        regla.setCreatedBy(usuario);
+        regla.setUpdatedBy(usuario);
+
+        if (regla.getFechaProgramada() != null) {
+            if (!regla.getFechaProgramada().isAfter(LocalDateTime.now())) {
+                throw new BusinessException("La fecha programada debe ser futura", HttpStatus.BAD_REQUEST);
+            }
+            regla.setEstado(EstadoReglaPrecio.PROGRAMADA);
+            ReglaPrecio guardada = reglaPrecioRepository.save(regla);
+            log.info("Regla de precio {} programada para {} (proyecto {}, tenant {})",
+                    guardada.getId(), guardada.getFechaProgramada(), guardada.getProyectoId(), tenantId);
+            return reglaPrecioMapper.toResponse(guardada);
+        }
+
+        // Se guarda primero para que la auditoría de cada lote referencie el id de la regla
+        regla.setEstado(EstadoReglaPrecio.APLICADA);
+        ReglaPrecio guardada = reglaPrecioRepository.save(regla);
+        aplicar(guardada, usuario);
+        return reglaPrecioMapper.toResponse(guardada);
+    }
+
+    /**
+     * Lista las reglas de un proyecto, las más recientes primero
+     */
+    @Transactional(readOnly = true)
+    public List<ReglaPrecioResponse> listarReglas(Long proyectoId) {
+        return reglaPrecioMapper.toResponseList(
+                reglaPrecioRepository.findByTenantIdAndProyectoIdOrderByCreatedAtDesc(getTenantId(), proyectoId));
+    }
+
+    /**
+     * Cancela una regla programada que aún no se aplicó
+     */
+    @Transactional
+    public ReglaPrecioResponse cancelarRegla(Long id) {
+        ReglaPrecio regla = reglaPrecioRepository.findByIdAndTenantId(id, getTenantId())
+                .orElseThrow(() -> new ResourceNotFoundException("Regla de precio no encontrada con id: " + id));
+        if (regla.getEstado() != EstadoReglaPrecio.PROGRAMADA) {
+            throw new BusinessException("Solo se pueden cancelar reglas programadas", HttpStatus.BAD_REQUEST);
+        }
+        regla.setEstado(EstadoReglaPrecio.CANCELADA);
+        regla.setUpdatedBy(SecurityUtils.getCurrentUsername().orElse("SYSTEM"));
+        return reglaPrecioMapper.toResponse(reglaPrecioRepository.save(regla));
+    }
+
+    // =========================================================================
+    // Ejecución programada (ReajustePreciosScheduler)
+    // =========================================================================
+
+    @Transactional(readOnly = true)
+    public List<Long> buscarProgramadasVencidas() {
+        return reglaPrecioRepository.findIdsProgramadasVencidas(EstadoReglaPrecio.PROGRAMADA, LocalDateTime.now());
+    }
+
+    /**
+     * Aplica una regla programada. La fila de la regla queda bloqueada durante la transacción:
+     * con varias instancias, solo una la aplica.
+     */
+    @Transactional
+    public void aplicarProgramada(Long reglaId) {
+        ReglaPrecio regla = reglaPrecioRepository.findByIdParaAplicar(reglaId).orElse(null);
+        if (regla == null || regla.getEstado() != EstadoReglaPrecio.PROGRAMADA) {
+            return;
+        }
+        regla.setEstado(EstadoReglaPrecio.APLICADA);
+        aplicar(regla, regla.getCreatedBy() != null ? regla.getCreatedBy() : "SYSTEM");
+    }
+
+    /**
+     * Registra el error de una regla programada que no se pudo aplicar (en otra transacción,
+     * porque la de la aplicación se revirtió)
+     */
+    @Transactional
+    public void marcarFallida(Long reglaId, String error) {
+        reglaPrecioRepository.findById(reglaId)
+                .filter(regla -> regla.getEstado() == EstadoReglaPrecio.PROGRAMADA)
+                .ifPresent(regla -> {
+                    regla.setEstado(EstadoReglaPrecio.FALLIDA);
+                    regla.setError(error);
+                    reglaPrecioRepository.save(regla);
+                });
+    }
+
+    // =========================================================================
+    // Métodos privados
+    // =========================================================================
+
+    /**
+     * Verifica que ningún lote quede con precio base no positivo, aplica el UPDATE y guarda
+     * el resultado en la regla. Una sola versión del plano para todos los lotes.
+     */
+    private void aplicar(ReglaPrecio regla, String usuario) {
+        ReajustePreciosRepository.Impacto impacto = reajustePreciosRepository.simular(regla);
+        if (impacto.lotesPrecioInvalido() > 0) {
+            throw new BusinessException("La regla dejaría " + impacto.lotesPrecioInvalido()
+                    + " lotes con precio base en cero o negativo", HttpStatus.BAD_REQUEST);
+        }
+
+        int lotes = 0;
+        BigDecimal totalAnterior = BigDecimal.ZERO;
+        BigDecimal totalNuevo = BigDecimal.ZERO;
+        if (impacto.lotes() > 0) {
+            long planoVersion = planoVersionService.registrarCambioLotes(regla.getTenantId(), regla.getProyectoId());
+            ReajustePreciosRepository.Aplicacion aplicacion = reajustePreciosRepository.aplicar(regla, planoVersion, usuario);
+            lotes = aplicacion.lotes();
+            totalAnterior = aplicacion.totalAnterior();
+            totalNuevo = aplicacion.totalNuevo();
+            log.info("[Tenant {}] Regla de precio {} aplicada en proyecto {}: {} lotes, {} cambios auditados, total {} -> {}",
+                    regla.getTenantId(), regla.getId(), regla.getProyectoId(), lotes, aplicacion.auditados(),
+                    totalAnterior, totalNuevo);
+        }
+
+        regla.setFechaAplicacion(LocalDateTime.now());
+        regla.setLotesAfectados(lotes);
+        regla.setTotalAnterior(totalAnterior);
+        regla.setTotalNuevo(totalNuevo);
+        regla.setUpdatedBy(usuario);
+        reglaPrecioRepository.save(regla);
+    }
+
+    /**
+     * Valida el request y lo convierte en una regla del tenant
+     */
+    private ReglaPrecio construirRegla(ReglaPrecioRequest request, Long tenantId) {
+        proyectoRepository.findByIdAndTenantIdAndDeletedFalse(request.getProyectoId(), tenantId)
+                .orElseThrow(() -> new ResourceNotFoundException("Proyecto no encontrado con id: " + request.getProyectoId()));
+
+        if (request.getFaseId() != null) {
+            Fase fase = faseRepository.findByIdAndTenantIdAndDeletedFalse(request.getFaseId(), tenantId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Fase no encontrada con id: " + request.getFaseId()));
+            if (!fase.getProyectoId().equals(request.getProyectoId())) {
+                throw new BusinessException("La fase no pertenece al proyecto", HttpStatus.BAD_REQUEST);
+            }
+        }
+        if (request.getAreaMin() != null && request.getAreaMax() != null
+                && request.getAreaMin().compareTo(request.getAreaMax()) > 0) {
+            throw new BusinessException("El área mínima no puede ser mayor que la máxima", HttpStatus.BAD_REQUEST);
+        }
+        validarValor(request);
+
+        ReglaPrecio regla = reglaPrecioMapper.toEntity(request);
+        regla.setTenantId(tenantId);
+        regla.setManzana(StringUtils.hasText(request.getManzana()) ? request.getManzana().trim() : null);
+        regla.setCaracteristicas(StringUtils.hasText(request.getCaracteristicas())
+                ? TerrenoBusquedaRepository.normalizarCaracteristicas(objectMapper, request.getCaracteristicas())
+                : null);
+        return regla;
+    }
+
+    private void validarValor(ReglaPrecioRequest request) {
+        BigDecimal valor = request.getValor();
+        switch (request.getTipo()) {
+            case PORCENTAJE -> {
+                if (valor.signum() == 0 || valor.compareTo(PORCENTAJE_MINIMO) <= 0 || valor.compareTo(PORCENTAJE_MAXIMO) > 0) {
+                    throw new BusinessException("El porcentaje debe ser distinto de 0, mayor a -100 y de hasta 1000",
+                            HttpStatus.BAD_REQUEST);
+                }
+            }
+            case AJUSTE_FIJO -> {
+                if (valor.signum() == 0 || valor.abs().compareTo(MAX_AJUSTE) > 0 || valor.stripTrailingZeros().scale() > 2) {
+                    throw new BusinessException("El ajuste fijo debe ser un monto distinto de 0 con hasta 2 decimales",
+                            HttpStatus.BAD_REQUEST);
+                }
+            }
+            case MULTIPLICADOR -> {
+                if (valor.signum() <= 0 || valor.compareTo(MAX_MULTIPLICADOR) > 0 || valor.stripTrailingZeros().scale() > 2) {
+                    throw new BusinessException("El multiplicador debe ser mayor a 0 y de hasta 999.99, con 2 decimales",
+                            HttpStatus.BAD_REQUEST);
+                }
+            }
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.inmobiliaria.terrenos.application.dto.reporte.ProyectoEstadisticasRes
 import com.inmobiliaria.terrenos.domain.entity.Proyecto;
 import com.inmobiliaria.terrenos.domain.enums.*;
 import com.inmobiliaria.terrenos.domain.repository.*;
+import com.inmobiliaria.terrenos.infrastructure.cache.SingleFlightCache;
 import com.inmobiliaria.terrenos.infrastructure.tenant.TenantContext;
 import com.inmobiliaria.terrenos.shared.exception.BusinessException;
 import com.inmobiliaria.terrenos.shared.exception.ResourceNotFoundException;
@@ -16,6 +17,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -30,11 +32,14 @@ import java.util.List;
 @Slf4j
 public class ReporteService {
 
+    private static final Duration TTL_DASHBOARD = Duration.ofSeconds(5);
+
     private final ProyectoRepository proyectoRepository;
     private final TerrenoRepository terrenoRepository;
     private final CotizacionRepository cotizacionRepository;
     private final ApartadoRepository apartadoRepository;
     private final VentaRepository ventaRepository;
+    private final SingleFlightCache singleFlight;
 
     private Long getTenantId() {
         Long tenantId = TenantContext.getTenantId();
@@ -45,11 +50,21 @@ public class ReporteService {
     }
 
     /**
-     * Obtiene las estadísticas del dashboard principal
+     * Obtiene las estadísticas del dashboard principal.
+     *
+     * Las peticiones simultáneas del mismo tenant comparten un solo cálculo. El resultado se
+     * reutiliza unos segundos mientras no cambien los lotes ni los proyectos; el TTL corto acota
+     * el retraso de los cambios que no mueven esa versión (cotizaciones, estado de ventas).
+     * La versión se lee en una transacción corta y el cálculo abre la suya (ver SingleFlightCache).
      */
-    @Transactional(readOnly = true)
     public DashboardResponse obtenerDashboard() {
         Long tenantId = getTenantId();
+        long version = proyectoRepository.findVersionDatosTenant(tenantId);
+        return singleFlight.obtener("dashboard", tenantId, "", version, TTL_DASHBOARD,
+                () -> calcularDashboard(tenantId));
+    }
+
+    private DashboardResponse calcularDashboard(Long tenantId) {
         log.debug("Generando dashboard para tenant: {}", tenantId);
 
         // Estadísticas de proyectos
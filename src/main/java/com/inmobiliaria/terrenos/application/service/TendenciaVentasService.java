@@ -0,0 +1,320 @@
+package com.inmobiliaria.terrenos.application.service;
+
+import com.inmobiliaria.terrenos.application.dto.reporte.TendenciaVentasResponse;
+import com.inmobiliaria.terrenos.domain.entity.Apartado;
+import com.inmobiliaria.terrenos.domain.entity.MovimientoTendencia;
+import com.inmobiliaria.terrenos.domain.entity.Pago;
+import com.inmobiliaria.terrenos.domain.entity.PlanPago;
+import com.inmobiliaria.terrenos.domain.entity.Proyecto;
+import com.inmobiliaria.terrenos.domain.entity.Terreno;
+import com.inmobiliaria.terrenos.domain.entity.Venta;
+import com.inmobiliaria.terrenos.domain.enums.EstadoVenta;
+import com.inmobiliaria.terrenos.domain.enums.GranularidadTendencia;
+import com.inmobiliaria.terrenos.domain.enums.MetricaTendencia;
+import com.inmobiliaria.terrenos.domain.repository.MovimientoTendenciaRepository;
+import com.inmobiliaria.terrenos.domain.repository.ProyectoRepository;
+import com.inmobiliaria.terrenos.domain.repository.TerrenoRepository;
+import com.inmobiliaria.terrenos.domain.repository.VentaRepository;
+import com.inmobiliaria.terrenos.infrastructure.persistence.TendenciaVentasRepository;
+import com.inmobiliaria.terrenos.infrastructure.tenant.TenantContext;
+import com.inmobiliaria.terrenos.shared.exception.BusinessException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Servicio de tendencias de ventas: ventas, comisiones, cobranza (pagos) y apartados nuevos
+ * por día, semana y mes de cada proyecto, para gráficas.
+ *
+ * Ventas, pagos y apartados registran aquí sus cambios, en su propia transacción, como
+ * movimientos (deltas); TendenciaVentasScheduler los consolida en tendencia_ventas, que tiene
+ * un renglón por granularidad, periodo y proyecto. Una serie mensual de 3 años se lee con un
+ * rango de la llave primaria, sin recorrer ventas ni pagos.
+ *
+ * - las ventas cuentan en su fecha de venta, netas de las canceladas o anuladas
+ * - los pagos cuentan en su fecha de pago, en el proyecto del lote vendido
+ * - los apartados cuentan al crearse, aunque después se cancelen o venzan
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TendenciaVentasService {
+
+    /** Suficiente para 3 años por día */
+    private static final int MAX_PERIODOS = 1100;
+
+    private final MovimientoTendenciaRepository movimientoTendenciaRepository;
+    private final TendenciaVentasRepository tendenciaVentasRepository;
+    private final VentaRepository ventaRepository;
+    private final TerrenoRepository terrenoRepository;
+    private final ProyectoRepository proyectoRepository;
+
+    private Long getTenantId() {
+        Long tenantId = TenantContext.getTenantId();
+        if (tenantId == null) {
+            throw new BusinessException("No se encontró tenant_id en el contexto", HttpStatus.UNAUTHORIZED);
+        }
+        return tenantId;
+    }
+
+    // ==================== Registro de movimientos ====================
+
+    @Transactional
+    public void registrarVenta(Venta venta, Long proyectoId) {
+        MovimientoTendencia movimiento = movimiento(venta.getTenantId(), venta.getFechaVenta(), proyectoId,
+                MetricaTendencia.VENTAS, montoDe(venta));
+        movimiento.setComision(comisionDe(venta));
+        movimientoTendenciaRepository.save(movimiento);
+    }
+
+    /**
+     * Cambio de estado de una venta: pasar a CANCELADA o ANULADA la resta; regresar de ellas la
+     * vuelve a sumar
+     */
+    @Transactional
+    public void registrarCambioEstadoVenta(Venta venta, EstadoVenta anterior) {
+        boolean estabaCancelada = esCancelada(anterior);
+        boolean cancelada = esCancelada(venta.getEstado());
+        if (estabaCancelada == cancelada) {
+            return;
+        }
+        Long proyectoId = proyectoDeTerreno(venta.getTerrenoId());
+        if (proyectoId == null) {
+            log.warn("Tendencias: no se encontró el proyecto del lote {} de la venta {}",
+                    venta.getTerrenoId(), venta.getId());
+            return;
+        }
+        MovimientoTendencia movimiento = movimiento(venta.getTenantId(), venta.getFechaVenta(), proyectoId,
+                MetricaTendencia.VENTAS, cancelada ? montoDe(venta).negate() : montoDe(venta));
+        movimiento.setCantidad(cancelada ? -1 : 1);
+        movimiento.setComision(cancelada ? comisionDe(venta).negate() : comisionDe(venta));
+        movimientoTendenciaRepository.save(movimiento);
+    }
+
+    /**
+     * Pago aplicado; cuenta en el proyecto del lote de la venta del plan de pago
+     */
+    @Transactional
+    public void registrarPago(Pago pago, PlanPago planPago) {
+        Long proyectoId = ventaRepository.findById(planPago.getVentaId())
+                .map(venta -> proyectoDeTerreno(venta.getTerrenoId()))
+                .orElse(null);
+        if (proyectoId == null) {
+            log.warn("Tendencias: no se encontró el proyecto de la venta {} del pago {}",
+                    planPago.getVentaId(), pago.getId());
+            return;
+        }
+        movimientoTendenciaRepository.save(movimiento(pago.getTenantId(), pago.getFechaPago(), proyectoId,
+                MetricaTendencia.PAGOS, pago.getMontoPagado()));
+    }
+
+    @Transactional
+    public void registrarApartado(Apartado apartado, Long proyectoId) {
+        movimientoTendenciaRepository.save(movimiento(apartado.getTenantId(), apartado.getFechaApartado(), proyectoId,
+                MetricaTendencia.APARTADOS, apartado.getMontoApartado()));
+    }
+
+    // ==================== Consolidación ====================
+
+    /**
+     * Consolida un bloque de movimientos de todas las empresas
+     *
+     * @return movimientos consolidados; menos que limite indica que no quedan pendientes
+     */
+    @Transactional
+    public int consolidarBloque(int limite) {
+        TendenciaVentasRepository.Consolidacion consolidacion = tendenciaVentasRepository.consolidar(limite);
+        if (consolidacion.movimientos() > 0) {
+            log.debug("Tendencias de ventas: {} movimientos consolidados en {} periodos",
+                    consolidacion.movimientos(), consolidacion.filas());
+        }
+        return consolidacion.movimientos();
+    }
+
+    /**
+     * Vuelve a generar las tendencias de la empresa desde sus ventas, pagos y apartados.
+     * Pausa el registro de movimientos de todas las empresas mientras corre.
+     *
+     * @return movimientos generados
+     */
+    @Transactional
+    public int reconstruir() {
+        Long tenantId = getTenantId();
+        log.info("Reconstruyendo las tendencias de ventas del tenant {}", tenantId);
+        int movimientos = tendenciaVentasRepository.reconstruir(tenantId);
+        log.info("Tendencias de ventas del tenant {} reconstruidas: {} movimientos por consolidar",
+                tenantId, movimientos);
+        return movimientos;
+    }
+
+    // ==================== Consultas ====================
+
+    /**
+     * Serie de los periodos que contienen a desde y hasta (por defecto, los últimos
+     * periodosPorDefecto de la granularidad hasta hoy), opcionalmente de un solo proyecto y
+     * con la serie de cada proyecto
+     */
+    @Transactional(readOnly = true)
+    public TendenciaVentasResponse obtenerTendencias(GranularidadTendencia granularidad, LocalDate desde,
+                                                     LocalDate hasta, Long proyectoId, boolean porProyecto) {
+        Long tenantId = getTenantId();
+        GranularidadTendencia g = granularidad != null ? granularidad : GranularidadTendencia.MES;
+        LocalDate ultimo = g.inicio(hasta != null ? hasta : LocalDate.now());
+        LocalDate primero = desde != null ? g.inicio(desde) : g.sumar(ultimo, 1 - g.getPeriodosPorDefecto());
+        if (primero.isAfter(ultimo)) {
+            throw new BusinessException("La fecha inicial no puede ser posterior a la final", HttpStatus.BAD_REQUEST);
+        }
+        if (g.periodos(primero, ultimo) > MAX_PERIODOS) {
+            throw new BusinessException("El periodo no puede tener más de " + MAX_PERIODOS + " puntos por " +
+                    g.name().toLowerCase(), HttpStatus.BAD_REQUEST);
+        }
+        log.debug("Tendencias de ventas tenant {} por {} de {} a {}", tenantId, g, primero, ultimo);
+
+        List<TendenciaVentasRepository.FilaTendencia> filas =
+                tendenciaVentasRepository.consultar(tenantId, g, primero, ultimo, proyectoId, porProyecto);
+
+        Map<LocalDate, Acumulado> total = new HashMap<>();
+        Map<Long, Map<LocalDate, Acumulado>> proyectos = new LinkedHashMap<>();
+        for (TendenciaVentasRepository.FilaTendencia fila : filas) {
+            total.computeIfAbsent(fila.periodo(), k -> new Acumulado()).sumar(fila);
+            if (porProyecto) {
+                proyectos.computeIfAbsent(fila.proyectoId(), k -> new HashMap<>())
+                        .computeIfAbsent(fila.periodo(), k -> new Acumulado()).sumar(fila);
+            }
+        }
+
+        List<TendenciaVentasResponse.SerieProyecto> series = null;
+        if (porProyecto) {
+            Map<Long, String> nombres = proyectoRepository.findAllById(proyectos.keySet()).stream()
+                    .collect(Collectors.toMap(Proyecto::getId, Proyecto::getNombre));
+            series = proyectos.entrySet().stream()
+                    .map(entrada -> {
+                        List<TendenciaVentasResponse.Periodo> periodos = serie(g, primero, ultimo, entrada.getValue());
+                        return TendenciaVentasResponse.SerieProyecto.builder()
+                                .proyectoId(entrada.getKey())
+                                .proyectoNombre(nombres.get(entrada.getKey()))
+                                .totales(totales(periodos))
+                                .periodos(periodos)
+                                .build();
+                    })
+                    .sorted(Comparator.comparing((TendenciaVentasResponse.SerieProyecto serie) ->
+                            serie.getTotales().getMontoVentas()).reversed())
+                    .toList();
+        }
+
+        List<TendenciaVentasResponse.Periodo> periodos = serie(g, primero, ultimo, total);
+        return TendenciaVentasResponse.builder()
+                .granularidad(g)
+                .desde(primero)
+                .hasta(g.fin(ultimo))
+                .proyectoId(proyectoId)
+                .totales(totales(periodos))
+                .periodos(periodos)
+                .proyectos(series)
+                .build();
+    }
+
+    // ==================== Auxiliares ====================
+
+    /**
+     * Un punto por periodo de primero a ultimo; los que no tienen datos van en cero
+     */
+    private static List<TendenciaVentasResponse.Periodo> serie(GranularidadTendencia granularidad, LocalDate primero,
+                                                               LocalDate ultimo, Map<LocalDate, Acumulado> valores) {
+        List<TendenciaVentasResponse.Periodo> periodos = new ArrayList<>();
+        for (LocalDate periodo = primero; !periodo.isAfter(ultimo); periodo = granularidad.sumar(periodo, 1)) {
+            periodos.add(valores.getOrDefault(periodo, new Acumulado()).aPeriodo(periodo));
+        }
+        return periodos;
+    }
+
+    private static TendenciaVentasResponse.Periodo totales(List<TendenciaVentasResponse.Periodo> periodos) {
+        return TendenciaVentasResponse.Periodo.builder()
+                .ventas(periodos.stream().mapToLong(TendenciaVentasResponse.Periodo::getVentas).sum())
+                .montoVentas(sumar(periodos, TendenciaVentasResponse.Periodo::getMontoVentas))
+                .comisiones(sumar(periodos, TendenciaVentasResponse.Periodo::getComisiones))
+                .pagos(periodos.stream().mapToLong(TendenciaVentasResponse.Periodo::getPagos).sum())
+                .montoPagos(sumar(periodos, TendenciaVentasResponse.Periodo::getMontoPagos))
+                .apartados(periodos.stream().mapToLong(TendenciaVentasResponse.Periodo::getApartados).sum())
+                .montoApartados(sumar(periodos, TendenciaVentasResponse.Periodo::getMontoApartados))
+                .build();
+    }
+
+    private static BigDecimal sumar(List<TendenciaVentasResponse.Periodo> periodos,
+                                    Function<TendenciaVentasResponse.Periodo, BigDecimal> valor) {
+        return periodos.stream().map(valor).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private Long proyectoDeTerreno(Long terrenoId) {
+        return terrenoId != null ? terrenoRepository.findById(terrenoId).map(Terreno::getProyectoId).orElse(null) : null;
+    }
+
+    private static MovimientoTendencia movimiento(Long tenantId, LocalDate fecha, Long proyectoId,
+                                                  MetricaTendencia metrica, BigDecimal monto) {
+        return MovimientoTendencia.builder()
+                .tenantId(tenantId)
+                .fecha(fecha != null ? fecha : LocalDate.now())
+                .proyectoId(proyectoId)
+                .metrica(metrica)
+                .monto(monto != null ? monto : BigDecimal.ZERO)
+                .build();
+    }
+
+    private static BigDecimal montoDe(Venta venta) {
+        return venta.getMontoFinal() != null ? venta.getMontoFinal() : BigDecimal.ZERO;
+    }
+
+    private static BigDecimal comisionDe(Venta venta) {
+        return venta.getMontoComision() != null ? venta.getMontoComision() : BigDecimal.ZERO;
+    }
+
+    private static boolean esCancelada(EstadoVenta estado) {
+        return estado == EstadoVenta.CANCELADA || estado == EstadoVenta.ANULADA;
+    }
+
+    /**
+     * Valores sumados de un periodo
+     */
+    private static final class Acumulado {
+
+        private final Map<MetricaTendencia, Long> cantidades = new EnumMap<>(MetricaTendencia.class);
+        private final Map<MetricaTendencia, BigDecimal> montos = new EnumMap<>(MetricaTendencia.class);
+        private BigDecimal comisiones = BigDecimal.ZERO;
+
+        void sumar(TendenciaVentasRepository.FilaTendencia fila) {
+            fila.cantidades().forEach((metrica, cantidad) -> cantidades.merge(metrica, cantidad, Long::sum));
+            fila.montos().forEach((metrica, monto) -> montos.merge(metrica, monto, BigDecimal::add));
+            comisiones = comisiones.add(fila.comisiones());
+        }
+
+        TendenciaVentasResponse.Periodo aPeriodo(LocalDate periodo) {
+            return TendenciaVentasResponse.Periodo.builder()
+                    .periodo(periodo)
+                    .ventas(cantidades.getOrDefault(MetricaTendencia.VENTAS, 0L))
+                    .montoVentas(montos.getOrDefault(MetricaTendencia.VENTAS, BigDecimal.ZERO))
+                    .comisiones(comisiones)
+                    .pagos(cantidades.getOrDefault(MetricaTendencia.PAGOS, 0L))
+                    .montoPagos(montos.getOrDefault(MetricaTendencia.PAGOS, BigDecimal.ZERO))
+                    .apartados(cantidades.getOrDefault(MetricaTendencia.APARTADOS, 0L))
+                    .montoApartados(montos.getOrDefault(MetricaTendencia.APARTADOS, BigDecimal.ZERO))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,521 @@
+package com.inmobiliaria.terrenos.application.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inmobiliaria.terrenos.application.dto.terreno.ResultadoImportacionResponse;
+import com.inmobiliaria.terrenos.domain.entity.Fase;
+import com.inmobiliaria.terrenos.domain.enums.EstadoTerreno;
+import com.inmobiliaria.terrenos.domain.repository.FaseRepository;
+import com.inmobiliaria.terrenos.domain.repository.ProyectoRepository;
+import com.inmobiliaria.terrenos.domain.repository.TerrenoRepository;
+import com.inmobiliaria.terrenos.infrastructure.importacion.LectorCsv;
+import com.inmobiliaria.terrenos.infrastructure.importacion.LectorTabla;
+import com.inmobiliaria.terrenos.infrastructure.importacion.LectorXlsx;
+import com.inmobiliaria.terrenos.infrastructure.persistence.TerrenoBatchWriter;
+import com.inmobiliaria.terrenos.infrastructure.security.SecurityUtils;
+import com.inmobiliaria.terrenos.infrastructure.tenant.TenantContext;
+import com.inmobiliaria.terrenos.shared.exception.BusinessException;
+import com.inmobiliaria.terrenos.shared.exception.ResourceNotFoundException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Servicio de importación masiva de lotes desde CSV o XLSX.
+ *
+ * Reemplaza cientos de llamadas a TerrenoService.crearTerreno (una consulta de unicidad,
+ * un INSERT y cuatro conteos por lote) por un solo recorrido del archivo:
+ * - El archivo se lee en streaming y se procesa en bloques de {@link TerrenoBatchWriter#BATCH_SIZE}
+ *   filas: la memoria no crece con el tamaño del archivo
+ * - Las filas de cada bloque se validan en paralelo (la validación no comparte estado)
+ * - La unicidad del número de lote se revisa contra un mapa en memoria con los lotes existentes
+ *   del proyecto, cargado una sola vez, y los ya vistos en el archivo
+ * - Los lotes válidos se insertan por JDBC batch; los contadores del proyecto se recalculan una
+ *   sola vez al final
+ *
+ * Las filas con errores se omiten y se reportan con su número de fila y los motivos.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TerrenoImportacionService {
+
+    private final ProyectoRepository proyectoRepository;
+    private final TerrenoRepository terrenoRepository;
+    private final FaseRepository faseRepository;
+    private final TerrenoBatchWriter terrenoBatchWriter;
+    private final PlanoVersionService planoVersionService;
+    private final ObjectMapper objectMapper;
+
+    public static final int MAX_FILAS = 50_000;
+    static final int MAX_ERRORES_REPORTADOS = 1_000;
+
+    private static final BigDecimal MAX_MEDIDA = new BigDecimal("99999999.99");            // NUMERIC(10,2)
+    private static final BigDecimal MAX_PRECIO = new BigDecimal("9999999999999.99");       // NUMERIC(15,2)
+    private static final BigDecimal MAX_MULTIPLICADOR = new BigDecimal("999.99");          // NUMERIC(5,2)
+    // Debe ser un valor del tipo estado_terreno: un valor que no exista revierte el lote completo
+    private static final Set<EstadoTerreno> ESTADOS_IMPORTABLES = Set.of(EstadoTerreno.DISPONIBLE);
+
+    /**
+     * Columnas reconocidas en el encabezado. Se comparan sin acentos, mayúsculas ni separadores:
+     * "Número de lote", "numero_lote" y "NUMERO LOTE" son la misma columna.
+     */
+    @Getter
+    enum Columna {
+        NUMERO_LOTE(true, "numero_lote", "numero_de_lote", "lote", "no_lote"),
+        MANZANA(false, "manzana", "mz"),
+        FASE(false, "fase", "etapa"),
+        AREA(true, "area", "superficie", "area_m2"),
+        FRENTE(false, "frente"),
+        FONDO(false, "fondo"),
+        PRECIO_BASE(true, "precio_base", "precio"),
+        PRECIO_AJUSTE(false, "precio_ajuste", "ajuste"),
+        PRECIO_MULTIPLICADOR(false, "precio_multiplicador", "multiplicador"),
+        PRECIO_FINAL(false, "precio_final"),
+        CARACTERISTICAS(false, "caracteristicas"),
+        OBSERVACIONES(false, "observaciones"),
+        ESTADO(false, "estado");
+
+        private final boolean obligatoria;
+        private final Set<String> nombres;
+
+        Columna(boolean obligatoria, String... nombres) {
+            this.obligatoria = obligatoria;
+            this.nombres = Set.of(nombres);
+        }
+    }
+
+    /**
+     * Resultado de validar una fila: el lote a insertar o los errores encontrados
+     */
+    record FilaValidada(long numero, String numeroLote, TerrenoBatchWriter.LoteImportado lote, List<String> errores) {
+    }
+
+    /**
+     * Estado acumulado entre bloques
+     */
+    private static final class Progreso {
+        private final Map<String, Long> numerosLote;   // normalizado -> fila que lo usa (0 = ya existía)
+        private final List<ResultadoImportacionResponse.ErrorFila> errores = new ArrayList<>();
+        private int filasLeidas;
+        private int validas;
+        private int insertados;
+        private int conErrores;
+        private long planoVersion;
+
+        private Progreso(Map<String, Long> numerosLote) {
+            this.numerosLote = numerosLote;
+        }
+
+        private void registrarError(long fila, String numeroLote, List<String> mensajes) {
+            conErrores++;
+            if (errores.size() < MAX_ERRORES_REPORTADOS) {
+                errores.add(ResultadoImportacionResponse.ErrorFila.builder()
+                        .fila(fila)
+                        .numeroLote(numeroLote)
+                        .mensajes(mensajes)
+                        .build());
+            }
+        }
+    }
+
+    private Long getTenantId() {
+        Long tenantId = TenantContext.getTenantId();
+        if (tenantId == null) {
+            throw new BusinessException("No se encontró tenant_id en el contexto", HttpStatus.UNAUTHORIZED);
+        }
+        return tenantId;
+    }
+
+    /**
+     * Importa los lotes del archivo al proyecto.
+     *
+     * @param soloValidar si es true se valida el archivo completo sin insertar nada
+     */
+    @Transactional
+    public ResultadoImportacionResponse importar(Long proyectoId, MultipartFile archivo, boolean soloValidar) {
+        long inicio = System.currentTimeMillis();
+        Long tenantId = getTenantId();
+        proyectoRepository.findByIdAndTenantIdAndDeletedFalse(proyectoId, tenantId)
+                .orElseThrow(() -> new ResourceNotFoundException("Proyecto no encontrado con id: " + proyectoId));
+        String extension = validarArchivo(archivo);
+
+        // Número de lote (normalizado) de los terrenos existentes: una sola consulta
+        List<Object[]> existentes = terrenoRepository.findIdYNumeroLoteByProyecto(tenantId, proyectoId);
+        Map<String, Long> numerosLote = new HashMap<>(existentes.size() * 2);
+        for (Object[] fila : existentes) {
+            numerosLote.put(normalizar((String) fila[1]), 0L);
+        }
+        Map<String, Long> fases = cargarFases(tenantId, proyectoId);
+
+        Progreso progreso = new Progreso(numerosLote);
+        String usuario = SecurityUtils.getCurrentUsername().orElse("SYSTEM");
+
+        Path temporal = null;
+        try {
+            LectorTabla lector;
+            if ("xlsx".equals(extension)) {
+                // El ZIP necesita acceso aleatorio: se copia a un temporal en streaming
+                temporal = Files.createTempFile("importacion-lotes-", ".xlsx");
+                try (InputStream entrada = archivo.getInputStream()) {
+                    Files.copy(entrada, temporal, StandardCopyOption.REPLACE_EXISTING);
+                }
+                lector = new LectorXlsx(temporal);
+            } else {
+                lector = new LectorCsv(archivo.getInputStream());
+            }
+
+            try (lector) {
+                LectorTabla.Fila encabezado = lector.siguienteFila();
+                if (encabezado == null) {
+                    throw new BusinessException("El archivo está vacío", HttpStatus.BAD_REQUEST);
+                }
+                Map<Columna, Integer> columnas = mapearEncabezado(encabezado);
+
+                List<LectorTabla.Fila> bloque = new ArrayList<>(TerrenoBatchWriter.BATCH_SIZE);
+                LectorTabla.Fila fila;
+                while ((fila = lector.siguienteFila()) != null) {
+                    if (fila.vacia()) {
+                        continue;
+                    }
+                    if (++progreso.filasLeidas > MAX_FILAS) {
+                        throw new BusinessException("El archivo supera el máximo de " + MAX_FILAS + " filas",
+                                HttpStatus.BAD_REQUEST);
+                    }
+                    bloque.add(fila);
+                    if (bloque.size() == TerrenoBatchWriter.BATCH_SIZE) {
+                        procesarBloque(bloque, columnas, fases, progreso, tenantId, proyectoId, usuario, soloValidar);
+                        bloque.clear();
+                    }
+                }
+                procesarBloque(bloque, columnas, fases, progreso, tenantId, proyectoId, usuario, soloValidar);
+            }
+        } catch (IOException e) {
+            throw new BusinessException("No se pudo leer el archivo: " + e.getMessage(), HttpStatus.BAD_REQUEST);
+        } finally {
+            eliminarTemporal(temporal);
+        }
+
+        if (progreso.insertados > 0) {
+            proyectoRepository.recalcularContadores(tenantId, proyectoId);
+        }
+
+        long tiempoMs = System.currentTimeMillis() - inicio;
+        log.info("[Tenant {}] Importación proyecto {}{}: {} filas, {} válidas, {} insertadas, {} con errores en {} ms",
+                tenantId, proyectoId, soloValidar ? " (solo validar)" : "", progreso.filasLeidas, progreso.validas,
+                progreso.insertados, progreso.conErrores, tiempoMs);
+
+        return ResultadoImportacionResponse.builder()
+                .proyectoId(proyectoId)
+                .soloValidar(soloValidar)
+                .filasLeidas(progreso.filasLeidas)
+                .validas(progreso.validas)
+                .insertados(progreso.insertados)
+                .conErrores(progreso.conErrores)
+                .errores(progreso.errores)
+                .erroresTruncados(progreso.conErrores > progreso.errores.size())
+                .tiempoMs(tiempoMs)
+                .build();
+    }
+
+    /**
+     * Valida el bloque en paralelo y luego, en orden de fila, revisa la unicidad e inserta
+     * los lotes válidos. El orden importa: de dos filas con el mismo número de lote se
+     * reporta la segunda.
+     */
+    private void procesarBloque(List<LectorTabla.Fila> bloque, Map<Columna, Integer> columnas, Map<String, Long> fases,
+                                Progreso progreso, Long tenantId, Long proyectoId, String usuario, boolean soloValidar) {
+        if (bloque.isEmpty()) {
+            return;
+        }
+        List<FilaValidada> validadas = bloque.parallelStream()
+                .map(fila -> validarFila(fila, columnas, fases))
+                .toList();
+
+        List<TerrenoBatchWriter.LoteImportado> lotes = new ArrayList<>(validadas.size());
+        for (FilaValidada validada : validadas) {
+            if (!validada.errores().isEmpty()) {
+                progreso.registrarError(validada.numero(), validada.numeroLote(), validada.errores());
+                continue;
+            }
+            Long filaPrevia = progreso.numerosLote.putIfAbsent(normalizar(validada.numeroLote()), validada.numero());
+            if (filaPrevia != null) {
+                progreso.registrarError(validada.numero(), validada.numeroLote(), List.of(filaPrevia == 0L
+                        ? "Ya existe un terreno con el número de lote " + validada.numeroLote() + " en este proyecto"
+                        : "Número de lote repetido en el archivo (fila " + filaPrevia + ")"));
+                continue;
+            }
+            lotes.add(validada.lote());
+        }
+
+        progreso.validas += lotes.size();
+        if (soloValidar || lotes.isEmpty()) {
+            return;
+        }
+        // Una sola versión del plano para toda la importación
+        if (progreso.planoVersion == 0L) {
+            progreso.planoVersion = planoVersionService.registrarCambioLotes(tenantId, proyectoId);
+        }
+        progreso.insertados += terrenoBatchWriter.insertarImportados(
+                tenantId, proyectoId, usuario, progreso.planoVersion, lotes);
+    }
+
+    /**
+     * Valida una fila sin estado compartido (se ejecuta en paralelo)
+     */
+    FilaValidada validarFila(LectorTabla.Fila fila, Map<Columna, Integer> columnas, Map<String, Long> fases) {
+        List<String> errores = new ArrayList<>();
+
+        String numeroLote = texto(fila, columnas, Columna.NUMERO_LOTE);
+        if (numeroLote == null) {
+            errores.add("El número de lote es obligatorio");
+        } else if (numeroLote.length() > 50) {
+            errores.add("El número de lote no puede exceder 50 caracteres");
+        }
+        String manzana = texto(fila, columnas, Columna.MANZANA);
+        if (manzana != null && manzana.length() > 50) {
+            errores.add("La manzana no puede exceder 50 caracteres");
+        }
+
+        Long faseId = null;
+        String fase = texto(fila, columnas, Columna.FASE);
+        if (fase != null) {
+            faseId = fases.get(normalizar(fase));
+            if (faseId == null) {
+                errores.add("La fase '" + fase + "' no existe en el proyecto");
+            }
+        }
+
+        BigDecimal area = decimal(fila, columnas, Columna.AREA, MAX_MEDIDA, false, errores);
+        BigDecimal frente = decimal(fila, columnas, Columna.FRENTE, MAX_MEDIDA, false, errores);
+        BigDecimal fondo = decimal(fila, columnas, Columna.FONDO, MAX_MEDIDA, false, errores);
+        BigDecimal precioBase = decimal(fila, columnas, Columna.PRECIO_BASE, MAX_PRECIO, false, errores);
+        BigDecimal precioAjuste = decimal(fila, columnas, Columna.PRECIO_AJUSTE, MAX_PRECIO, true, errores);
+        BigDecimal multiplicador = decimal(fila, columnas, Columna.PRECIO_MULTIPLICADOR, MAX_MULTIPLICADOR, true, errores);
+        BigDecimal precioFinal = decimal(fila, columnas, Columna.PRECIO_FINAL, MAX_PRECIO, false, errores);
+        if (area == null && texto(fila, columnas, Columna.AREA) == null) {
+            errores.add("El área es obligatoria");
+        }
+        if (precioBase == null && texto(fila, columnas, Columna.PRECIO_BASE) == null) {
+            errores.add("El precio base es obligatorio");
+        }
+
+        String caracteristicas = caracteristicas(texto(fila, columnas, Columna.CARACTERISTICAS), errores);
+        String observaciones = texto(fila, columnas, Columna.OBSERVACIONES);
+        if (observaciones != null && observaciones.length() > 1000) {
+            errores.add("Las observaciones no pueden exceder 1000 caracteres");
+        }
+        EstadoTerreno estado = estado(texto(fila, columnas, Columna.ESTADO), errores);
+
+        if (!errores.isEmpty()) {
+            return new FilaValidada(fila.numero(), numeroLote, null, errores);
+        }
+
+        // Mismo cálculo que TerrenoService.calcularPrecioFinal
+        BigDecimal ajuste = precioAjuste != null ? precioAjuste : BigDecimal.ZERO;
+        BigDecimal mult = multiplicador != null ? multiplicador : BigDecimal.ONE;
+        if (precioFinal == null) {
+            precioFinal = precioBase.add(ajuste).multiply(mult).setScale(2, RoundingMode.HALF_UP);
+            if (precioFinal.compareTo(MAX_PRECIO) > 0) {
+                return new FilaValidada(fila.numero(), numeroLote, null, List.of("El precio final calculado es demasiado grande"));
+            }
+        }
+
+        return new FilaValidada(fila.numero(), numeroLote, new TerrenoBatchWriter.LoteImportado(
+                numeroLote, manzana, faseId, area, frente, fondo, precioBase, ajuste, mult, precioFinal,
+                caracteristicas, observaciones, estado), List.of());
+    }
+
+    /**
+     * Posición de cada columna reconocida; falla si falta alguna obligatoria
+     */
+    static Map<Columna, Integer> mapearEncabezado(LectorTabla.Fila encabezado) {
+        Map<Columna, Integer> columnas = new EnumMap<>(Columna.class);
+        for (int i = 0; i < encabezado.celdas().size(); i++) {
+            String nombre = normalizarEncabezado(encabezado.celda(i));
+            for (Columna columna : Columna.values()) {
+                if (columna.getNombres().contains(nombre)) {
+                    columnas.putIfAbsent(columna, i);
+                }
+            }
+        }
+
+        List<String> faltantes = new ArrayList<>();
+        for (Columna columna : Columna.values()) {
+            if (columna.isObligatoria() && !columnas.containsKey(columna)) {
+                faltantes.add(columna.name().toLowerCase(Locale.ROOT));
+            }
+        }
+        if (!faltantes.isEmpty()) {
+            throw new BusinessException("Faltan columnas obligatorias en el encabezado: " + String.join(", ", faltantes),
+                    HttpStatus.BAD_REQUEST);
+        }
+        return columnas;
+    }
+
+    /**
+     * Fases del proyecto por nombre y por número (ej. "Fase 1" o "1")
+     */
+    private Map<String, Long> cargarFases(Long tenantId, Long proyectoId) {
+        Map<String, Long> fases = new HashMap<>();
+        for (Fase fase : faseRepository.findByTenantIdAndProyectoIdAndDeletedFalse(tenantId, proyectoId)) {
+            if (fase.getNombre() != null) {
+                fases.putIfAbsent(normalizar(fase.getNombre()), fase.getId());
+            }
+            if (fase.getNumeroFase() != null) {
+                fases.putIfAbsent(String.valueOf(fase.getNumeroFase()), fase.getId());
+            }
+        }
+        return fases;
+    }
+
+    private static String texto(LectorTabla.Fila fila, Map<Columna, Integer> columnas, Columna columna) {
+        Integer indice = columnas.get(columna);
+        String valor = indice != null ? fila.celda(indice) : null;
+        return StringUtils.hasText(valor) ? valor.trim() : null;
+    }
+
+    /**
+     * Número positivo (o mayor o igual a cero si permiteCero) con 2 decimales y dentro del máximo de la columna
+     */
+    private static BigDecimal decimal(LectorTabla.Fila fila, Map<Columna, Integer> columnas, Columna columna,
+                                      BigDecimal maximo, boolean permiteCero, List<String> errores) {
+        String valor = texto(fila, columnas, columna);
+        if (valor == null) {
+            return null;
+        }
+        String nombre = columna.name().toLowerCase(Locale.ROOT);
+        BigDecimal numero;
+        try {
+            numero = new BigDecimal(valor).setScale(2, RoundingMode.HALF_UP);
+        } catch (NumberFormatException | ArithmeticException e) {
+            errores.add("Valor numérico inválido en " + nombre + ": " + valor);
+            return null;
+        }
+        if (permiteCero ? numero.signum() < 0 : numero.signum() <= 0) {
+            errores.add("El valor de " + nombre + (permiteCero ? " no puede ser negativo" : " debe ser mayor a 0"));
+            return null;
+        }
+        if (numero.compareTo(maximo) > 0) {
+            errores.add("El valor de " + nombre + " excede el máximo permitido (" + maximo.toPlainString() + ")");
+            return null;
+        }
+        return numero;
+    }
+
+    /**
+     * Las características deben ser un objeto JSON; se guardan compactas
+     */
+    private String caracteristicas(String valor, List<String> errores) {
+        if (valor == null) {
+            return null;
+        }
+        if (valor.length() > 500) {
+            errores.add("Las características no pueden exceder 500 caracteres");
+            return null;
+        }
+        try {
+            JsonNode nodo = objectMapper.readTree(valor);
+            if (nodo != null && nodo.isObject()) {
+                return objectMapper.writeValueAsString(nodo);
+            }
+        } catch (JsonProcessingException e) {
+            // Se reporta abajo
+        }
+        errores.add("Las características deben ser un objeto JSON, ej. {\"esquina\": true}");
+        return null;
+    }
+
+    /**
+     * Los lotes nuevos solo pueden importarse disponibles: apartarlos o venderlos requiere un
+     * apartado o una venta, y RESERVADO no existe en el tipo estado_terreno de la base
+     */
+    private static EstadoTerreno estado(String valor, List<String> errores) {
+        if (valor == null) {
+            return EstadoTerreno.DISPONIBLE;
+        }
+        try {
+            EstadoTerreno estado = EstadoTerreno.valueOf(normalizarEncabezado(valor).toUpperCase(Locale.ROOT));
+            if (ESTADOS_IMPORTABLES.contains(estado)) {
+                return estado;
+            }
+        } catch (IllegalArgumentException e) {
+            // Se reporta abajo
+        }
+        errores.add("Estado inválido: " + valor + ". Use DISPONIBLE");
+        return null;
+    }
+
+    /**
+     * Igual que la validación de TerrenoService: el número de lote es único sin distinguir mayúsculas
+     */
+    private static String normalizar(String valor) {
+        return valor == null ? "" : valor.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * "Número de Lote" -> "numero_de_lote"
+     */
+    static String normalizarEncabezado(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        String sinAcentos = Normalizer.normalize(valor.trim(), Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return sinAcentos.toLowerCase(Locale.ROOT)
+                .replaceAll("[^a-z0-9]+", "_")
+                .replaceAll("^_|_$", "");
+    }
+
+    /**
+     * Valida que el archivo no esté vacío y sea CSV o XLSX; devuelve la extensión
+     */
+    private String validarArchivo(MultipartFile archivo) {
+        if (archivo == null || archivo.isEmpty()) {
+            throw new BusinessException("El archivo está vacío", HttpStatus.BAD_REQUEST);
+        }
+        String nombre = StringUtils.cleanPath(archivo.getOriginalFilename() != null ? archivo.getOriginalFilename() : "");
+        String extension = nombre.contains(".")
+                ? nombre.substring(nombre.lastIndexOf(".") + 1).toLowerCase(Locale.ROOT)
+                : "";
+        if (!List.of("csv", "xlsx").contains(extension)) {
+            throw new BusinessException("Formato no soportado: " + extension + ". Use CSV o XLSX.", HttpStatus.BAD_REQUEST);
+        }
+        return extension;
+    }
+
+    private static void eliminarTemporal(Path temporal) {
+        if (temporal == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(temporal);
+        } catch (IOException e) {
+            log.warn("No se pudo eliminar el archivo temporal {}: {}", temporal, e.getMessage());
+        }
+    }
+}
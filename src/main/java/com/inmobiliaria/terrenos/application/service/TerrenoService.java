@@ -1,25 +1,37 @@
 package com.inmobiliaria.terrenos.application.service;
 
+import com.inmobiliaria.terrenos.application.dto.terreno.BusquedaTerrenosRequest;
 import com.inmobiliaria.terrenos.application.dto.terreno.CreateTerrenoRequest;
+import com.inmobiliaria.terrenos.application.dto.terreno.PaginaTerrenosResponse;
 import com.inmobiliaria.terrenos.application.dto.terreno.TerrenoResponse;
 import com.inmobiliaria.terrenos.application.dto.terreno.UpdateTerrenoRequest;
+import com.inmobiliaria.terrenos.application.event.CoordenadasLotesModificadasEvent;
+import com.inmobiliaria.terrenos.application.event.EstadoLoteCambiadoEvent;
 import com.inmobiliaria.terrenos.domain.entity.Proyecto;
 import com.inmobiliaria.terrenos.domain.entity.Terreno;
 import com.inmobiliaria.terrenos.domain.enums.EstadoTerreno;
+import com.inmobiliaria.terrenos.domain.enums.OrdenTerreno;
 import com.inmobiliaria.terrenos.domain.repository.ProyectoRepository;
 import com.inmobiliaria.terrenos.domain.repository.TerrenoRepository;
+import com.inmobiliaria.terrenos.infrastructure.cache.SingleFlightCache;
+import com.inmobiliaria.terrenos.infrastructure.geometry.NivelesDetalleGeometria;
+import com.inmobiliaria.terrenos.infrastructure.persistence.TerrenoBusquedaRepository;
 import com.inmobiliaria.terrenos.infrastructure.tenant.TenantContext;
 import com.inmobiliaria.terrenos.interfaces.mapper.TerrenoMapper;
 import com.inmobiliaria.terrenos.shared.exception.BusinessException;
 import com.inmobiliaria.terrenos.shared.exception.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Servicio de gestión de terrenos
@@ -32,9 +44,16 @@ import java.util.List;
 @Slf4j
 public class TerrenoService {
 
+    private static final Duration TTL_DISPONIBLES = Duration.ofSeconds(30);
+
     private final TerrenoRepository terrenoRepository;
     private final ProyectoRepository proyectoRepository;
     private final TerrenoMapper terrenoMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NivelesDetalleGeometria nivelesDetalle;
+    private final PlanoVersionService planoVersionService;
+    private final SingleFlightCache singleFlight;
+    private final TerrenoBusquedaRepository terrenoBusquedaRepository;
 
     /**
      * Obtiene el tenant_id del contexto actual
@@ -55,8 +74,36 @@ public class TerrenoService {
         Long tenantId = getTenantId();
         log.debug("Listando terrenos para tenant: {}", tenantId);
 
-        List<Terreno> terrenos = terrenoRepository.findByTenantIdAndDeletedFalse(tenantId);
-        return terrenoMapper.toResponseList(terrenos);
+        return terrenoMapper.listadoToResponseList(terrenoRepository.findListado(tenantId));
+    }
+
+    /**
+     * Busca terrenos con filtros, orden y paginación por cursor
+     */
+    @Transactional(readOnly = true)
+    public PaginaTerrenosResponse buscarTerrenos(BusquedaTerrenosRequest filtros) {
+        Long tenantId = getTenantId();
+        log.debug("Buscando terrenos para tenant: {} con filtros: {}", tenantId, filtros);
+
+        validarRango(filtros.getAreaMin(), filtros.getAreaMax(), "área");
+        validarRango(filtros.getPrecioMin(), filtros.getPrecioMax(), "precio");
+        if (filtros.getOrden() == null) {
+            filtros.setOrden(OrdenTerreno.NUMERO_LOTE);
+        }
+        if (filtros.getDireccion() == null) {
+            filtros.setDireccion(Sort.Direction.ASC);
+        }
+        if (filtros.getLimite() == null) {
+            filtros.setLimite(50);
+        }
+
+        return terrenoBusquedaRepository.buscar(tenantId, filtros);
+    }
+
+    private void validarRango(BigDecimal minimo, BigDecimal maximo, String campo) {
+        if (minimo != null && maximo != null && minimo.compareTo(maximo) > 0) {
+            throw new BusinessException("El mínimo de " + campo + " no puede ser mayor al máximo", HttpStatus.BAD_REQUEST);
+        }
     }
 
     /**
@@ -71,8 +118,7 @@ public class TerrenoService {
         proyectoRepository.findByIdAndTenantIdAndDeletedFalse(proyectoId, tenantId)
                 .orElseThrow(() -> new ResourceNotFoundException("Proyecto no encontrado con id: " + proyectoId));
 
-        List<Terreno> terrenos = terrenoRepository.findByTenantIdAndProyectoIdAndDeletedFalseOrderByNumeroLoteAsc(tenantId, proyectoId);
-        return terrenoMapper.toResponseList(terrenos);
+        return terrenoMapper.listadoToResponseList(terrenoRepository.findListadoPorProyecto(tenantId, proyectoId));
     }
 
     /**
@@ -83,20 +129,30 @@ public class TerrenoService {
         Long tenantId = getTenantId();
         log.debug("Listando terrenos con estado {} para tenant: {}", estado, tenantId);
 
-        List<Terreno> terrenos = terrenoRepository.findByTenantIdAndEstadoAndDeletedFalse(tenantId, estado);
-        return terrenoMapper.toResponseList(terrenos);
+        return terrenoMapper.listadoToResponseList(terrenoRepository.findListadoPorEstado(tenantId, estado));
     }
 
     /**
-     * Lista terrenos disponibles de un proyecto
+     * Lista terrenos disponibles de un proyecto.
+     * Sin transacción propia para no retener una conexión mientras se espera la lectura compartida.
      */
-    @Transactional(readOnly = true)
     public List<TerrenoResponse> listarTerrenosDisponibles(Long proyectoId) {
         Long tenantId = getTenantId();
         log.debug("Listando terrenos disponibles del proyecto {} para tenant: {}", proyectoId, tenantId);
 
-        List<Terreno> terrenos = terrenoRepository.findTerrenosDisponiblesPorProyecto(tenantId, proyectoId);
-        return terrenoMapper.toResponseList(terrenos);
+        // Todo cambio de estado de un lote incrementa la versión del plano: mientras no cambie,
+        // las pantallas que consultan a la vez comparten una sola lectura
+        Optional<Long> version = proyectoRepository.findVersionPlano(tenantId, proyectoId);
+        if (version.isEmpty()) {
+            return buscarTerrenosDisponibles(tenantId, proyectoId);
+        }
+        return singleFlight.obtener("terrenos-disponibles", tenantId, proyectoId, version.get(),
+                TTL_DISPONIBLES, () -> buscarTerrenosDisponibles(tenantId, proyectoId));
+    }
+
+    private List<TerrenoResponse> buscarTerrenosDisponibles(Long tenantId, Long proyectoId) {
+        return List.copyOf(terrenoMapper.listadoToResponseList(
+                terrenoRepository.findListadoDisponiblesPorProyecto(tenantId, proyectoId)));
     }
 
     /**
@@ -146,12 +202,20 @@ public class TerrenoService {
             terreno.setPrecioFinal(calcularPrecioFinal(terreno));
         }
 
+        // Geometría por nivel de detalle para el plano interactivo
+        terreno.setGeometriaLod(nivelesDetalle.generar(terreno.getCoordenadasPlano()));
+        planoVersionService.registrarCambioLote(terreno);
+
         // Guardar terreno
         Terreno terrenoGuardado = terrenoRepository.save(terreno);
 
         // Actualizar contadores del proyecto
         actualizarContadoresProyecto(proyecto);
 
+        if (terrenoGuardado.getCoordenadasPlano() != null) {
+            eventPublisher.publishEvent(new CoordenadasLotesModificadasEvent(tenantId, terrenoGuardado.getProyectoId()));
+        }
+
         log.info("Terreno creado con id: {}", terrenoGuardado.getId());
         return terrenoMapper.toResponse(terrenoGuardado);
     }
@@ -186,8 +250,17 @@ public class TerrenoService {
             terreno.setPrecioFinal(calcularPrecioFinal(terreno));
         }
 
+        if (request.getCoordenadasPlano() != null) {
+            terreno.setGeometriaLod(nivelesDetalle.generar(terreno.getCoordenadasPlano()));
+        }
+
         // Guardar cambios
+        planoVersionService.registrarCambioLote(terreno);
         Terreno terrenoActualizado = terrenoRepository.save(terreno);
+
+        if (request.getCoordenadasPlano() != null) {
+            eventPublisher.publishEvent(new CoordenadasLotesModificadasEvent(tenantId, terreno.getProyectoId()));
+        }
         log.info("Terreno {} actualizado exitosamente", id);
 
         return terrenoMapper.toResponse(terrenoActualizado);
@@ -216,7 +289,9 @@ public class TerrenoService {
 
         // Soft delete
         terreno.setDeleted(true);
+        planoVersionService.registrarCambioLote(terreno);
         terrenoRepository.save(terreno);
+        eventPublisher.publishEvent(new CoordenadasLotesModificadasEvent(tenantId, terreno.getProyectoId()));
 
         // Actualizar contadores del proyecto
         Proyecto proyecto = proyectoRepository.findById(terreno.getProyectoId()).orElse(null);
@@ -244,7 +319,12 @@ public class TerrenoService {
         validarTransicionEstado(estadoAnterior, nuevoEstado);
 
         terreno.setEstado(nuevoEstado);
+        long planoVersion = planoVersionService.registrarCambioLote(terreno);
         Terreno terrenoActualizado = terrenoRepository.save(terreno);
+        if (estadoAnterior != nuevoEstado) {
+            eventPublisher.publishEvent(new EstadoLoteCambiadoEvent(tenantId, terreno.getProyectoId(), terreno.getId(),
+                    terreno.getNumeroLote(), estadoAnterior, nuevoEstado, planoVersion));
+        }
 
         // Actualizar contadores del proyecto
         Proyecto proyecto = proyectoRepository.findById(terreno.getProyectoId()).orElse(null);
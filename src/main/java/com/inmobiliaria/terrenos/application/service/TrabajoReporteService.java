@@ -0,0 +1,413 @@
+package com.inmobiliaria.terrenos.application.service;
+
+import com.inmobiliaria.terrenos.application.dto.reporte.ProyectoEstadisticasResponse;
+import com.inmobiliaria.terrenos.application.dto.reporte.SolicitudReporteRequest;
+import com.inmobiliaria.terrenos.application.dto.reporte.TrabajoReporteResponse;
+import com.inmobiliaria.terrenos.domain.enums.EstadoTrabajoReporte;
+import com.inmobiliaria.terrenos.domain.enums.FormatoExportacion;
+import com.inmobiliaria.terrenos.domain.enums.TipoExportacion;
+import com.inmobiliaria.terrenos.domain.enums.TipoTrabajoReporte;
+import com.inmobiliaria.terrenos.infrastructure.importacion.EscritorTabla;
+import com.inmobiliaria.terrenos.infrastructure.reportes.ResultadosReportes;
+import com.inmobiliaria.terrenos.infrastructure.security.SecurityUtils;
+import com.inmobiliaria.terrenos.infrastructure.tenant.TenantContext;
+import com.inmobiliaria.terrenos.shared.exception.BusinessException;
+import com.inmobiliaria.terrenos.shared.exception.ResourceNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servicio de reportes en segundo plano: estadísticas por proyecto y exportaciones completas.
+ *
+ * La solicitud responde de inmediato con el id del trabajo; el reporte se genera en un pool
+ * acotado de hilos (cada hilo ocupa una conexión a la BD) y el resultado se guarda como archivo
+ * en disco ({@link ResultadosReportes}) hasta que vence. El cliente consulta el estado o se
+ * suscribe por SSE y descarga el archivo al completarse.
+ *
+ * - Cada empresa tiene un máximo de trabajos en cola o en proceso: una empresa no puede
+ *   ocupar todos los hilos ni llenar la cola
+ * - Una solicitud idéntica a un trabajo en curso, o completado dentro de la ventana de
+ *   duplicados, devuelve ese trabajo en lugar de generar otro (p. ej. al refrescar la página)
+ *
+ * Los trabajos se registran en memoria, igual que las tareas de análisis de planos: el estado
+ * solo se consulta en la instancia que recibió la solicitud y se pierde al reiniciar.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Service
+@Slf4j
+public class TrabajoReporteService implements DisposableBean {
+
+    private static final long TIMEOUT_SSE_MS = 30 * 60 * 1000L;
+
+    private final ExportacionService exportacionService;
+    private final ReporteService reporteService;
+    private final ResultadosReportes resultadosReportes;
+    private final Executor executor;
+    private final int maxPorTenant;
+    private final Duration ventanaDuplicados;
+    private final Duration ttl;
+
+    private final Map<String, Trabajo> trabajos = new ConcurrentHashMap<>();
+    private final Map<Llave, Trabajo> porSolicitud = new ConcurrentHashMap<>();
+
+    /**
+     * Solicitud normalizada: dos solicitudes con la misma llave producen el mismo archivo
+     */
+    private record Llave(Long tenantId, TipoTrabajoReporte tipo, TipoExportacion tipoExportacion,
+                         FormatoExportacion formato, LocalDate desde, LocalDate hasta, Long proyectoId) {
+    }
+
+    /**
+     * Estado de un trabajo; lo modifica solo el hilo que lo ejecuta
+     */
+    private static final class Trabajo {
+        private final String id = UUID.randomUUID().toString();
+        private final Llave llave;
+        private final String[] autoridades;
+        private final LocalDateTime creadoAt = LocalDateTime.now();
+        private final List<SseEmitter> suscriptores = new CopyOnWriteArrayList<>();
+        private volatile EstadoTrabajoReporte estado = EstadoTrabajoReporte.EN_COLA;
+        private volatile LocalDateTime iniciadoAt;
+        private volatile LocalDateTime terminadoAt;
+        private volatile Path archivo;
+        private volatile String nombreArchivo;
+        private volatile Long filas;
+        private volatile Long tamanioBytes;
+        private volatile String error;
+
+        private Trabajo(Llave llave, String[] autoridades) {
+            this.llave = llave;
+            this.autoridades = autoridades;
+        }
+    }
+
+    /**
+     * Archivo de un trabajo completado
+     */
+    public record ArchivoReporte(Path archivo, String nombre, FormatoExportacion formato) {
+    }
+
+    @Autowired
+    public TrabajoReporteService(ExportacionService exportacionService, ReporteService reporteService,
+                                 ResultadosReportes resultadosReportes,
+                                 @Value("${app.reportes.trabajos.hilos:4}") int hilos,
+                                 @Value("${app.reportes.trabajos.cola:50}") int cola,
+                                 @Value("${app.reportes.trabajos.max-por-tenant:2}") int maxPorTenant,
+                                 @Value("${app.reportes.trabajos.ventana-duplicados:5m}") Duration ventanaDuplicados,
+                                 @Value("${app.reportes.trabajos.ttl:24h}") Duration ttl) {
+        this(exportacionService, reporteService, resultadosReportes,
+                new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(cola),
+                        Thread.ofPlatform().name("reportes-", 0).factory()),
+                maxPorTenant, ventanaDuplicados, ttl);
+    }
+
+    TrabajoReporteService(ExportacionService exportacionService, ReporteService reporteService,
+                          ResultadosReportes resultadosReportes, Executor executor, int maxPorTenant,
+                          Duration ventanaDuplicados, Duration ttl) {
+        this.exportacionService = exportacionService;
+        this.reporteService = reporteService;
+        this.resultadosReportes = resultadosReportes;
+        this.executor = executor;
+        this.maxPorTenant = maxPorTenant;
+        this.ventanaDuplicados = ventanaDuplicados;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Encola un reporte, o devuelve el trabajo de una solicitud idéntica reciente
+     *
+     * @throws BusinessException 429 si la empresa ya tiene el máximo de trabajos pendientes,
+     *                           503 si la cola está llena
+     */
+    public TrabajoReporteResponse solicitar(SolicitudReporteRequest solicitud) {
+        Long tenantId = getTenantId();
+        Llave llave = normalizar(tenantId, solicitud);
+
+        // Serializa la revisión de duplicados y de cupo con el alta del trabajo
+        synchronized (this) {
+            Trabajo existente = porSolicitud.get(llave);
+            if (existente != null && reutilizable(existente)) {
+                log.info("[Reporte {}] Solicitud duplicada del tenant {}, se reutiliza", existente.id, tenantId);
+                return respuesta(existente, true);
+            }
+
+            long pendientes = trabajos.values().stream()
+                    .filter(t -> t.llave.tenantId().equals(tenantId) && !t.estado.terminado())
+                    .count();
+            if (pendientes >= maxPorTenant) {
+                throw new BusinessException("Ya hay " + pendientes + " reportes en proceso; espera a que terminen",
+                        HttpStatus.TOO_MANY_REQUESTS);
+            }
+
+            Trabajo trabajo = new Trabajo(llave, solicitud.autoridades());
+            trabajos.put(trabajo.id, trabajo);
+            porSolicitud.put(llave, trabajo);
+            try {
+                executor.execute(() -> ejecutar(trabajo));
+            } catch (RejectedExecutionException e) {
+                trabajos.remove(trabajo.id);
+                porSolicitud.remove(llave, trabajo);
+                throw new BusinessException("Hay demasiados reportes en cola; intenta en unos minutos",
+                        HttpStatus.SERVICE_UNAVAILABLE);
+            }
+            log.info("[Reporte {}] Encolado {} del tenant {}", trabajo.id, llave, tenantId);
+            return respuesta(trabajo, false);
+        }
+    }
+
+    public TrabajoReporteResponse obtener(String id) {
+        return respuesta(buscar(id), false);
+    }
+
+    /**
+     * Trabajos de la empresa, del más reciente al más antiguo
+     */
+    public List<TrabajoReporteResponse> listar() {
+        Long tenantId = getTenantId();
+        return trabajos.values().stream()
+                .filter(t -> t.llave.tenantId().equals(tenantId) && visible(t))
+                .sorted(Comparator.comparing((Trabajo t) -> t.creadoAt).reversed())
+                .map(t -> respuesta(t, false))
+                .toList();
+    }
+
+    public ArchivoReporte obtenerArchivo(String id) {
+        Trabajo trabajo = buscar(id);
+        if (trabajo.estado != EstadoTrabajoReporte.COMPLETADO || !Files.isReadable(trabajo.archivo)) {
+            throw new BusinessException("El reporte no está listo para descargar: " + trabajo.estado,
+                    HttpStatus.CONFLICT);
+        }
+        return new ArchivoReporte(trabajo.archivo, trabajo.nombreArchivo, trabajo.llave.formato());
+    }
+
+    /**
+     * Canal SSE del trabajo: envía el estado actual y un evento "estado" al terminar
+     */
+    public SseEmitter suscribir(String id) {
+        Trabajo trabajo = buscar(id);
+        SseEmitter emitter = new SseEmitter(TIMEOUT_SSE_MS);
+        trabajo.suscriptores.add(emitter);
+        emitter.onCompletion(() -> trabajo.suscriptores.remove(emitter));
+        emitter.onTimeout(() -> trabajo.suscriptores.remove(emitter));
+        // Si ya terminó (o termina justo ahora) se cierra aquí; notificar tolera el doble envío
+        enviar(emitter, trabajo, trabajo.estado.terminado());
+        return emitter;
+    }
+
+    /**
+     * Elimina los trabajos vencidos con sus archivos, y los archivos huérfanos de reinicios.
+     * Lo invoca TrabajosReporteScheduler.
+     *
+     * @return trabajos eliminados
+     */
+    public int eliminarVencidos() {
+        LocalDateTime ahora = LocalDateTime.now();
+        int eliminados = 0;
+        for (Trabajo trabajo : trabajos.values()) {
+            if (trabajo.estado.terminado() && !trabajo.terminadoAt.plus(ttl).isAfter(ahora)) {
+                trabajos.remove(trabajo.id);
+                porSolicitud.remove(trabajo.llave, trabajo);
+                if (trabajo.archivo != null) {
+                    resultadosReportes.eliminar(trabajo.archivo);
+                }
+                eliminados++;
+            }
+        }
+        resultadosReportes.eliminarVencidos(ttl);
+        return eliminados;
+    }
+
+    @Override
+    public void destroy() {
+        if (executor instanceof ExecutorService servicio) {
+            servicio.shutdown();
+        }
+    }
+
+    // ==================== Ejecución ====================
+
+    private void ejecutar(Trabajo trabajo) {
+        Llave llave = trabajo.llave;
+        trabajo.iniciadoAt = LocalDateTime.now();
+        trabajo.estado = EstadoTrabajoReporte.EN_PROCESO;
+        notificar(trabajo);
+
+        TenantContext.setTenantId(llave.tenantId());
+        try {
+            Path archivo = resultadosReportes.nuevo(llave.tenantId(), trabajo.id, llave.formato().getExtension());
+            trabajo.archivo = archivo;
+            if (llave.tipo() == TipoTrabajoReporte.EXPORTACION) {
+                trabajo.filas = exportacionService.exportar(llave.tipoExportacion(), llave.formato(), llave.desde(),
+                        llave.hasta(), llave.proyectoId(), (nombre, formato) -> {
+                            trabajo.nombreArchivo = nombre;
+                            return Files.newOutputStream(archivo);
+                        });
+            } else {
+                trabajo.nombreArchivo = llave.tipo().getDescripcion() + "-" + LocalDate.now() + "."
+                        + llave.formato().getExtension();
+                trabajo.filas = escribirEstadisticas(archivo, llave.formato());
+            }
+            trabajo.tamanioBytes = Files.size(archivo);
+            // terminadoAt antes que el estado: quien ve COMPLETADO o ERROR cuenta con la fecha
+            trabajo.terminadoAt = LocalDateTime.now();
+            trabajo.estado = EstadoTrabajoReporte.COMPLETADO;
+            log.info("[Reporte {}] Completado: {} filas, {} bytes", trabajo.id, trabajo.filas, trabajo.tamanioBytes);
+        } catch (BusinessException e) {
+            fallar(trabajo, e.getMessage());
+        } catch (Exception e) {
+            log.error("[Reporte {}] Error al generar el reporte: ", trabajo.id, e);
+            fallar(trabajo, "Error interno al generar el reporte");
+        } finally {
+            TenantContext.clear();
+            notificar(trabajo);
+        }
+    }
+
+    private long escribirEstadisticas(Path archivo, FormatoExportacion formato) throws Exception {
+        List<ProyectoEstadisticasResponse> estadisticas = reporteService.obtenerEstadisticasPorProyecto();
+        try (OutputStream salida = Files.newOutputStream(archivo);
+             EscritorTabla escritor = ExportacionService.abrirEscritor(formato, salida, "estadisticas")) {
+            escritor.escribirFila(List.of("ID", "Proyecto", "Lotes", "Disponibles", "Apartados", "Vendidos",
+                    "% ocupación", "% disponibilidad", "Ventas", "Monto vendido", "Ticket promedio"));
+            for (ProyectoEstadisticasResponse e : estadisticas) {
+                escritor.escribirFila(List.of(e.getProyectoId(), e.getProyectoNombre(), e.getTotalTerrenos(),
+                        e.getTerrenosDisponibles(), e.getTerrenosApartados(), e.getTerrenosVendidos(),
+                        e.getPorcentajeOcupacion(), e.getPorcentajeDisponibilidad(), e.getNumeroVentas(),
+                        e.getMontoTotalVentas(), e.getTicketPromedio()));
+            }
+        }
+        return estadisticas.size();
+    }
+
+    private void fallar(Trabajo trabajo, String mensaje) {
+        trabajo.error = mensaje;
+        trabajo.terminadoAt = LocalDateTime.now();
+        trabajo.estado = EstadoTrabajoReporte.ERROR;
+        // Un reintento no debe devolver el trabajo fallido
+        porSolicitud.remove(trabajo.llave, trabajo);
+        if (trabajo.archivo != null) {
+            resultadosReportes.eliminar(trabajo.archivo);
+        }
+        log.warn("[Reporte {}] Terminó con error: {}", trabajo.id, mensaje);
+    }
+
+    private void notificar(Trabajo trabajo) {
+        boolean terminado = trabajo.estado.terminado();
+        for (SseEmitter emitter : trabajo.suscriptores) {
+            enviar(emitter, trabajo, terminado);
+        }
+    }
+
+    private void enviar(SseEmitter emitter, Trabajo trabajo, boolean cerrar) {
+        try {
+            emitter.send(SseEmitter.event().name("estado").data(respuesta(trabajo, false)));
+            if (cerrar) {
+                trabajo.suscriptores.remove(emitter);
+                emitter.complete();
+            }
+        } catch (Exception e) {
+            trabajo.suscriptores.remove(emitter);
+            emitter.completeWithError(e);
+        }
+    }
+
+    // ==================== Auxiliares ====================
+
+    private Llave normalizar(Long tenantId, SolicitudReporteRequest solicitud) {
+        FormatoExportacion formato = solicitud.getFormato() != null ? solicitud.getFormato() : FormatoExportacion.CSV;
+        if (solicitud.getTipo() == TipoTrabajoReporte.ESTADISTICAS_PROYECTOS) {
+            return new Llave(tenantId, solicitud.getTipo(), null, formato, null, null, null);
+        }
+        if (solicitud.getTipoExportacion() == null) {
+            throw new BusinessException("Indica los datos a exportar (tipoExportacion)", HttpStatus.BAD_REQUEST);
+        }
+        exportacionService.validar(solicitud.getTipoExportacion(), solicitud.getDesde(), solicitud.getHasta(),
+                solicitud.getProyectoId());
+        return new Llave(tenantId, solicitud.getTipo(), solicitud.getTipoExportacion(), formato,
+                solicitud.getDesde(), solicitud.getHasta(), solicitud.getProyectoId());
+    }
+
+    /**
+     * Un trabajo en curso siempre se reutiliza; uno completado, solo dentro de la ventana
+     */
+    private boolean reutilizable(Trabajo trabajo) {
+        return switch (trabajo.estado) {
+            case EN_COLA, EN_PROCESO -> true;
+            case COMPLETADO -> trabajo.terminadoAt.plus(ventanaDuplicados).isAfter(LocalDateTime.now())
+                    && Files.isReadable(trabajo.archivo);
+            case ERROR -> false;
+        };
+    }
+
+    /**
+     * Trabajo de la empresa actual; el de otra empresa no se encuentra
+     */
+    private Trabajo buscar(String id) {
+        Trabajo trabajo = id != null ? trabajos.get(id) : null;
+        if (trabajo == null || !trabajo.llave.tenantId().equals(getTenantId()) || !visible(trabajo)) {
+            throw new ResourceNotFoundException("Reporte no encontrado o vencido: " + id);
+        }
+        return trabajo;
+    }
+
+    /**
+     * Un trabajo solo lo ve quien podría solicitarlo: p. ej. una exportación de auditoría no la
+     * ve un usuario con permiso de reportes que no es administrador
+     */
+    private static boolean visible(Trabajo trabajo) {
+        return SecurityUtils.hasAnyAuthority(trabajo.autoridades);
+    }
+
+    private TrabajoReporteResponse respuesta(Trabajo trabajo, boolean reutilizado) {
+        EstadoTrabajoReporte estado = trabajo.estado;
+        return TrabajoReporteResponse.builder()
+                .id(trabajo.id)
+                .tipo(trabajo.llave.tipo())
+                .tipoExportacion(trabajo.llave.tipoExportacion())
+                .estado(estado)
+                .reutilizado(reutilizado)
+                .creadoAt(trabajo.creadoAt)
+                .iniciadoAt(trabajo.iniciadoAt)
+                .terminadoAt(trabajo.terminadoAt)
+                .venceAt(trabajo.terminadoAt != null ? trabajo.terminadoAt.plus(ttl) : null)
+                .nombreArchivo(estado == EstadoTrabajoReporte.COMPLETADO ? trabajo.nombreArchivo : null)
+                .filas(trabajo.filas)
+                .tamanioBytes(trabajo.tamanioBytes)
+                .error(trabajo.error)
+                .build();
+    }
+
+    private Long getTenantId() {
+        Long tenantId = TenantContext.getTenantId();
+        if (tenantId == null) {
+            throw new BusinessException("No se encontró tenant_id en el contexto", HttpStatus.UNAUTHORIZED);
+        }
+        return tenantId;
+    }
+}
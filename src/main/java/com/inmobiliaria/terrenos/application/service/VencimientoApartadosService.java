@@ -0,0 +1,58 @@
+package com.inmobiliaria.terrenos.application.service;
+
+import com.inmobiliaria.terrenos.application.event.EstadoLoteCambiadoEvent;
+import com.inmobiliaria.terrenos.domain.enums.EstadoTerreno;
+import com.inmobiliaria.terrenos.infrastructure.persistence.VencimientoApartadosRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+/**
+ * Servicio de vencimiento automático de apartados.
+ *
+ * Un apartado ACTIVO cuya fecha de vencimiento ya pasó queda VENCIDO y su lote vuelve a
+ * DISPONIBLE. Se procesa por bloques (ver VencimientoApartadosRepository); cada bloque es
+ * una transacción, así un volumen grande no mantiene bloqueos largos y lo ya vencido
+ * queda confirmado aunque una ejecución se interrumpa.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class VencimientoApartadosService {
+
+    private static final String USUARIO_SISTEMA = "SYSTEM";
+
+    private final VencimientoApartadosRepository vencimientoApartadosRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Vence un bloque de apartados de todas las empresas
+     *
+     * @return apartados vencidos en el bloque; menos que tamanio indica que no quedan pendientes
+     */
+    @Transactional
+    public int vencerBloque(int tamanio) {
+        VencimientoApartadosRepository.Bloque bloque =
+                vencimientoApartadosRepository.vencerBloque(LocalDate.now(), tamanio, USUARIO_SISTEMA);
+
+        // Las pantallas de disponibilidad reciben los lotes liberados tras el commit
+        for (VencimientoApartadosRepository.LoteLiberado lote : bloque.lotes()) {
+            eventPublisher.publishEvent(new EstadoLoteCambiadoEvent(lote.tenantId(), lote.proyectoId(),
+                    lote.terrenoId(), lote.numeroLote(), EstadoTerreno.APARTADO, EstadoTerreno.DISPONIBLE,
+                    lote.planoVersion()));
+        }
+
+        if (bloque.apartados() > 0) {
+            log.debug("Bloque de vencimiento: {} apartados vencidos, {} lotes liberados, {} empresas",
+                    bloque.apartados(), bloque.lotes().size(), bloque.auditorias());
+        }
+        return bloque.apartados();
+    }
+}
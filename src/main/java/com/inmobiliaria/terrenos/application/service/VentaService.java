@@ -2,6 +2,7 @@ package com.inmobiliaria.terrenos.application.service;
 
 import com.inmobiliaria.terrenos.application.dto.venta.CreateVentaRequest;
 import com.inmobiliaria.terrenos.application.dto.venta.VentaResponse;
+import com.inmobiliaria.terrenos.application.event.EstadoLoteCambiadoEvent;
 import com.inmobiliaria.terrenos.domain.entity.Apartado;
 import com.inmobiliaria.terrenos.domain.entity.Proyecto;
 import com.inmobiliaria.terrenos.domain.entity.Terreno;
@@ -20,6 +21,7 @@ import com.inmobiliaria.terrenos.shared.exception.BusinessException;
 import com.inmobiliaria.terrenos.shared.exception.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -43,6 +45,10 @@ public class VentaService {
     private final ApartadoRepository apartadoRepository;
     private final ProyectoRepository proyectoRepository;
     private final VentaMapper ventaMapper;
+    private final PlanoVersionService planoVersionService;
+    private final EmbudoVentasService embudoVentasService;
+    private final TendenciaVentasService tendenciaVentasService;
+    private final ApplicationEventPublisher eventPublisher;
 
     private Long getTenantId() {
         Long tenantId = TenantContext.getTenantId();
@@ -56,14 +62,14 @@ public class VentaService {
     public List<VentaResponse> listarVentas() {
         Long tenantId = getTenantId();
         log.debug("Listando ventas para tenant: {}", tenantId);
-        return ventaMapper.toResponseList(ventaRepository.findByTenantIdAndDeletedFalse(tenantId));
+        return ventaMapper.listadoToResponseList(ventaRepository.findListado(tenantId));
     }
 
     @Transactional(readOnly = true)
     public List<VentaResponse> listarVentasPorEstado(EstadoVenta estado) {
         Long tenantId = getTenantId();
         log.debug("Listando ventas con estado {} para tenant: {}", estado, tenantId);
-        return ventaMapper.toResponseList(ventaRepository.findByTenantIdAndEstadoAndDeletedFalse(tenantId, estado));
+        return ventaMapper.listadoToResponseList(ventaRepository.findListadoPorEstado(tenantId, estado));
     }
 
     @Transactional(readOnly = true)
@@ -97,12 +103,13 @@ public class VentaService {
         venta.setEstado(EstadoVenta.PENDIENTE);
 
         // Obtener usuario actual desde el contexto de seguridad
-        Long usuarioId = SecurityUtils.getCurrentUserId().orElse(null);
+        Long usuarioId = SecurityUtils.getCurrentUserId().orElseGet(() -> embudoVentasService.resolverAgente(tenantId));
         venta.setUsuarioId(usuarioId);
 
         // Si viene de un apartado, marcar el apartado como convertido
+        Apartado apartado = null;
         if (request.getApartadoId() != null) {
-            Apartado apartado = apartadoRepository.findByIdAndTenantIdAndDeletedFalse(request.getApartadoId(), tenantId)
+            apartado = apartadoRepository.findByIdAndTenantIdAndDeletedFalse(request.getApartadoId(), tenantId)
                     .orElseThrow(() -> new ResourceNotFoundException("Apartado no encontrado con id: " + request.getApartadoId()));
 
             if (apartado.getEstado() != EstadoApartado.ACTIVO) {
@@ -114,13 +121,19 @@ public class VentaService {
         }
 
         // Cambiar estado del terreno a VENDIDO
+        EstadoTerreno estadoAnterior = terreno.getEstado();
         terreno.setEstado(EstadoTerreno.VENDIDO);
+        long planoVersion = planoVersionService.registrarCambioLote(terreno);
         terrenoRepository.save(terreno);
+        eventPublisher.publishEvent(new EstadoLoteCambiadoEvent(tenantId, terreno.getProyectoId(), terreno.getId(),
+                terreno.getNumeroLote(), estadoAnterior, EstadoTerreno.VENDIDO, planoVersion));
 
         // Actualizar contadores del proyecto
         actualizarContadoresProyecto(terreno.getProyectoId());
 
         Venta ventaGuardada = ventaRepository.save(venta);
+        embudoVentasService.registrarVenta(ventaGuardada, terreno.getProyectoId(), apartado);
+        tendenciaVentasService.registrarVenta(ventaGuardada, terreno.getProyectoId());
         log.info("Venta creada con id: {}", ventaGuardada.getId());
 
         return ventaMapper.toResponse(ventaGuardada);
@@ -134,8 +147,11 @@ public class VentaService {
         Venta venta = ventaRepository.findByIdAndTenantIdAndDeletedFalse(id, tenantId)
                 .orElseThrow(() -> new ResourceNotFoundException("Venta no encontrada con id: " + id));
 
+        EstadoVenta estadoAnterior = venta.getEstado();
         venta.setEstado(nuevoEstado);
         Venta ventaActualizada = ventaRepository.save(venta);
+        embudoVentasService.registrarCambioEstadoVenta(ventaActualizada, estadoAnterior);
+        tendenciaVentasService.registrarCambioEstadoVenta(ventaActualizada, estadoAnterior);
 
         log.info("Estado de venta {} cambiado a {}", id, nuevoEstado);
         return ventaMapper.toResponse(ventaActualizada);
@@ -0,0 +1,62 @@
+package com.inmobiliaria.terrenos.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuración del cliente HTTP hacia el CV Engine
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.cv-engine")
+@Getter
+@Setter
+public class CvEngineProperties {
+
+    private String url = "http://localhost:8000";
+
+    // Pool de conexiones
+    private int maxConexiones = 20;
+    private Duration connectTimeout = Duration.ofSeconds(10);
+    private Duration readTimeout = Duration.ofMinutes(3);   // OCR puede tardar
+    private Duration esperaConexion = Duration.ofSeconds(10);
+
+    // Bulkhead: llamadas simultáneas al motor
+    private int maxConcurrentesPorTenant = 2;
+    private int maxConcurrentes = 8;
+    private Duration esperaBulkhead = Duration.ofSeconds(30);
+
+    // Circuit breaker
+    private int umbralFallos = 5;
+    private Duration tiempoCircuitoAbierto = Duration.ofSeconds(30);
+
+    // Análisis por teselas de planos muy grandes
+    private Teselas teselas = new Teselas();
+
+    // Post-proceso geométrico de los lotes detectados
+    private Geometria geometria = new Geometria();
+
+    @Getter
+    @Setter
+    public static class Teselas {
+        private int umbralPx = 8000;         // lado mayor a partir del cual se tesela (el motor reduce arriba de esto)
+        private int tamanioPx = 4000;
+        private int solapamientoPx = 400;    // debe cubrir el lote más grande para que quede completo en alguna tesela
+        private int margenBordePx = 3;       // contornos a esta distancia de un borde interno se consideran recortados
+        private Duration esperaCupo = Duration.ofMinutes(10);
+    }
+
+    @Getter
+    @Setter
+    public static class Geometria {
+        private double toleranciaPx = 1.5;          // Douglas-Peucker
+        private double umbralSolapamiento = 0.05;   // fracción del lote menor cubierta por el otro
+        private double umbralDuplicado = 0.8;       // IoU a partir del cual dos contornos son el mismo lote
+    }
+}
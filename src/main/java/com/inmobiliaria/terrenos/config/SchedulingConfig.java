@@ -0,0 +1,20 @@
+package com.inmobiliaria.terrenos.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita las tareas programadas (@Scheduled) del paquete infrastructure.scheduler
+ *
+ * Se desactiva con app.scheduling.enabled=false (perfil test: los consolidadores usan SQL
+ * exclusivo de PostgreSQL y las pruebas de integración corren sobre H2).
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(prefix = "app.scheduling", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
@@ -95,6 +95,10 @@ public class Cliente {
     @Column(columnDefinition = "jsonb")
     private String preferencias;
 
+    // Cliente que absorbió a este al fusionar duplicados
+    @Column(name = "fusionado_en_id")
+    private Long fusionadoEnId;
+
     // Auditoría
     @Column(name = "deleted", nullable = false)
     @Builder.Default
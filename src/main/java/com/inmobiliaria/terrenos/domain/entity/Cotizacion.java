@@ -64,6 +64,13 @@ public class Cotizacion {
     @Column(columnDefinition = "TEXT")
     private String observaciones;
 
+    // Avance en el embudo de ventas: primer apartado y primera venta atribuidos a la cotización
+    @Column(name = "apartada_at")
+    private LocalDateTime apartadaAt;
+
+    @Column(name = "vendida_at")
+    private LocalDateTime vendidaAt;
+
     @Column(name = "deleted", nullable = false)
     @Builder.Default
     private Boolean deleted = false;
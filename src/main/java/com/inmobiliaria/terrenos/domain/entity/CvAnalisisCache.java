@@ -0,0 +1,64 @@
+package com.inmobiliaria.terrenos.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad JPA para la caché persistente de análisis del CV Engine.
+ * Un registro por (tenant, hash de contenido, versión del motor).
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Entity
+@Table(name = "cv_analisis_cache")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CvAnalisisCache {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "tenant_id", nullable = false)
+    private Long tenantId;
+
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+
+    @Column(name = "engine_version", nullable = false, length = 50)
+    private String engineVersion;
+
+    // Resultado serializado del motor (JSONB)
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false, columnDefinition = "jsonb")
+    private String resultado;
+
+    @Column(name = "total_lotes")
+    private Integer totalLotes;
+
+    @Column(name = "tiempo_procesamiento_ms")
+    private Double tiempoProcesamientoMs;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer hits = 0;
+
+    @Column(name = "ultimo_hit")
+    private LocalDateTime ultimoHit;
+
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,106 @@
+package com.inmobiliaria.terrenos.domain.entity;
+
+import com.inmobiliaria.terrenos.domain.enums.TipoDescuento;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Entidad JPA para Descuentos.
+ *
+ * Sin proyecto aplica a todos los proyectos de la empresa. Si indica terrenos o fases
+ * (listas JSONB de ids) solo aplica a esos lotes. Con código solo se aplica cuando el
+ * cliente lo presenta.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Entity
+@Table(name = "descuentos")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Descuento {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "tenant_id", nullable = false)
+    private Long tenantId;
+
+    @Column(name = "proyecto_id")
+    private Long proyectoId;
+
+    @Column(nullable = false)
+    private String nombre;
+
+    @Column(columnDefinition = "TEXT")
+    private String descripcion;
+
+    @Column(length = 50)
+    private String codigo;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TipoDescuento tipo;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal valor;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "aplica_a_terrenos", columnDefinition = "jsonb")
+    private List<Long> aplicaATerrenos;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "aplica_a_fases", columnDefinition = "jsonb")
+    private List<Long> aplicaAFases;
+
+    @Column(name = "fecha_inicio", nullable = false)
+    private LocalDate fechaInicio;
+
+    @Column(name = "fecha_fin", nullable = false)
+    private LocalDate fechaFin;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Boolean activo = true;
+
+    @Column(name = "usos_maximos")
+    private Integer usosMaximos;
+
+    @Column(name = "usos_actuales")
+    @Builder.Default
+    private Integer usosActuales = 0;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "created_by")
+    private String createdBy;
+
+    @Column(name = "updated_by")
+    private String updatedBy;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,69 @@
+package com.inmobiliaria.terrenos.domain.entity;
+
+import com.inmobiliaria.terrenos.domain.enums.MetricaEmbudo;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Entidad JPA para los movimientos del embudo de ventas pendientes de consolidar.
+ * Cada uno suma (o resta) cantidad a una métrica del acumulado diario de un proyecto y agente;
+ * se escriben en la transacción de la operación que los origina y los consolida
+ * EmbudoVentasScheduler.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Entity
+@Table(name = "embudo_movimientos")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MovimientoEmbudo {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "tenant_id", nullable = false)
+    private Long tenantId;
+
+    @Column(nullable = false)
+    private LocalDate fecha;
+
+    @Column(name = "proyecto_id", nullable = false)
+    private Long proyectoId;
+
+    // 0 = sin agente
+    @Column(name = "usuario_id", nullable = false)
+    @Builder.Default
+    private Long usuarioId = 0L;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 40)
+    private MetricaEmbudo metrica;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer cantidad = 1;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    @Builder.Default
+    private BigDecimal monto = BigDecimal.ZERO;
+
+    // Solo en las métricas TIEMPO_*
+    private Integer dias;
+
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
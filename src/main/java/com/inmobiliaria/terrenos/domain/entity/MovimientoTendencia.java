@@ -0,0 +1,65 @@
+package com.inmobiliaria.terrenos.domain.entity;
+
+import com.inmobiliaria.terrenos.domain.enums.MetricaTendencia;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Entidad JPA para los movimientos de las tendencias de ventas pendientes de consolidar.
+ * Cada uno suma (o resta) a una métrica de los acumulados del día, semana y mes de un
+ * proyecto; los consolida TendenciaVentasScheduler.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Entity
+@Table(name = "tendencia_movimientos")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MovimientoTendencia {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "tenant_id", nullable = false)
+    private Long tenantId;
+
+    @Column(nullable = false)
+    private LocalDate fecha;
+
+    @Column(name = "proyecto_id", nullable = false)
+    private Long proyectoId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private MetricaTendencia metrica;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer cantidad = 1;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    @Builder.Default
+    private BigDecimal monto = BigDecimal.ZERO;
+
+    // Solo en VENTAS
+    @Column(nullable = false, precision = 15, scale = 2)
+    @Builder.Default
+    private BigDecimal comision = BigDecimal.ZERO;
+
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -76,6 +76,15 @@ public class Proyecto {
     @Column(columnDefinition = "TEXT")
     private String observaciones;
 
+    // Versión del plano interactivo: solo se modifica con UPDATE atómico (ver PlanoVersionService)
+    @Column(name = "plano_version", insertable = false, updatable = false,
+            columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long planoVersion;
+
+    @Column(name = "plano_version_estructura", insertable = false, updatable = false,
+            columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long planoVersionEstructura;
+
     @Column(name = "deleted", nullable = false)
     @Builder.Default
     private Boolean deleted = false;
@@ -0,0 +1,114 @@
+package com.inmobiliaria.terrenos.domain.entity;
+
+import com.inmobiliaria.terrenos.domain.enums.EstadoReglaPrecio;
+import com.inmobiliaria.terrenos.domain.enums.TipoReglaPrecio;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Entidad JPA para Reglas de reajuste de precio.
+ * Una regla reajusta el precio de todos los lotes disponibles o reservados de su alcance.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Entity
+@Table(name = "reglas_precio")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReglaPrecio {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "tenant_id", nullable = false)
+    private Long tenantId;
+
+    @Column(name = "proyecto_id", nullable = false)
+    private Long proyectoId;
+
+    @Column(nullable = false, length = 150)
+    private String nombre;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TipoReglaPrecio tipo;
+
+    @Column(nullable = false, precision = 15, scale = 4)
+    private BigDecimal valor;
+
+    // Alcance
+    @Column(name = "fase_id")
+    private Long faseId;
+
+    @Column(length = 50)
+    private String manzana;
+
+    @Column(name = "area_min", precision = 10, scale = 2)
+    private BigDecimal areaMin;
+
+    @Column(name = "area_max", precision = 10, scale = 2)
+    private BigDecimal areaMax;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb")
+    private String caracteristicas;
+
+    @Column(columnDefinition = "TEXT")
+    private String motivo;
+
+    // Ejecución
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private EstadoReglaPrecio estado;
+
+    @Column(name = "fecha_programada")
+    private LocalDateTime fechaProgramada;
+
+    @Column(name = "fecha_aplicacion")
+    private LocalDateTime fechaAplicacion;
+
+    @Column(name = "lotes_afectados")
+    private Integer lotesAfectados;
+
+    @Column(name = "total_anterior", precision = 18, scale = 2)
+    private BigDecimal totalAnterior;
+
+    @Column(name = "total_nuevo", precision = 18, scale = 2)
+    private BigDecimal totalNuevo;
+
+    @Column(columnDefinition = "TEXT")
+    private String error;
+
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "created_by")
+    private String createdBy;
+
+    @Column(name = "updated_by")
+    private String updatedBy;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
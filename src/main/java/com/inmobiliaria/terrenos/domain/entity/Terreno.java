@@ -69,6 +69,11 @@ public class Terreno {
     @Column(columnDefinition = "jsonb")
     private String poligono;
 
+    // Geometría simplificada y codificada por nivel de detalle (ver NivelesDetalleGeometria)
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "geometria_lod", columnDefinition = "jsonb")
+    private String geometriaLod;
+
     // Precio
     @Column(name = "precio_base", nullable = false, precision = 15, scale = 2)
     private BigDecimal precioBase;
@@ -98,6 +103,11 @@ public class Terreno {
     @Column(columnDefinition = "jsonb")
     private String caracteristicas;
 
+    // Versión del plano del proyecto en la que cambió este terreno
+    @Column(name = "plano_version", nullable = false)
+    @Builder.Default
+    private Long planoVersion = 0L;
+
     @Column(name = "deleted", nullable = false)
     @Builder.Default
     private Boolean deleted = false;
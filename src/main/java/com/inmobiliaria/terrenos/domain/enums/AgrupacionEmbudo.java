@@ -0,0 +1,24 @@
+package com.inmobiliaria.terrenos.domain.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Desglose del reporte del embudo de ventas: totales del periodo, por proyecto, por agente
+ * (usuario que registró la operación) o por proyecto y agente.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Getter
+@RequiredArgsConstructor
+public enum AgrupacionEmbudo {
+
+    TOTAL(false, false),
+    PROYECTO(true, false),
+    USUARIO(false, true),
+    PROYECTO_USUARIO(true, true);
+
+    private final boolean porProyecto;
+    private final boolean porUsuario;
+}
@@ -0,0 +1,23 @@
+package com.inmobiliaria.terrenos.domain.enums;
+
+/**
+ * Enum para el estado de revisión de una sugerencia de clientes duplicados
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+public enum EstadoDuplicadoCliente {
+    PENDIENTE("Pendiente - Espera revisión"),
+    FUSIONADO("Fusionado - Los clientes se unieron en uno solo"),
+    DESCARTADO("Descartado - Son clientes distintos");
+
+    private final String descripcion;
+
+    EstadoDuplicadoCliente(String descripcion) {
+        this.descripcion = descripcion;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+}
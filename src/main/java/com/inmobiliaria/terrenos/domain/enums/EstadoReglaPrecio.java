@@ -0,0 +1,24 @@
+package com.inmobiliaria.terrenos.domain.enums;
+
+/**
+ * Enum para el estado de ejecución de una regla de precio
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+public enum EstadoReglaPrecio {
+    PROGRAMADA("Programada - Se aplicará en la fecha indicada"),
+    APLICADA("Aplicada - Los precios ya se reajustaron"),
+    CANCELADA("Cancelada - No se aplicará"),
+    FALLIDA("Fallida - Ocurrió un error al aplicarla");
+
+    private final String descripcion;
+
+    EstadoReglaPrecio(String descripcion) {
+        this.descripcion = descripcion;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+}
@@ -0,0 +1,28 @@
+package com.inmobiliaria.terrenos.domain.enums;
+
+/**
+ * Enum para el estado de un trabajo de reporte
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+public enum EstadoTrabajoReporte {
+    EN_COLA("Esperando un hilo libre"),
+    EN_PROCESO("Generando el archivo"),
+    COMPLETADO("Archivo listo para descargar"),
+    ERROR("Terminó con error");
+
+    private final String descripcion;
+
+    EstadoTrabajoReporte(String descripcion) {
+        this.descripcion = descripcion;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    public boolean terminado() {
+        return this == COMPLETADO || this == ERROR;
+    }
+}
@@ -0,0 +1,28 @@
+package com.inmobiliaria.terrenos.domain.enums;
+
+/**
+ * Enum para los formatos de archivo de las exportaciones
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+public enum FormatoExportacion {
+    CSV("csv", "text/csv; charset=UTF-8"),
+    XLSX("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
+    private final String extension;
+    private final String contentType;
+
+    FormatoExportacion(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+}
@@ -0,0 +1,66 @@
+package com.inmobiliaria.terrenos.domain.enums;
+
+import lombok.Getter;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Enum para el tamaño de periodo de las tendencias de ventas. Cada periodo se identifica por
+ * su primer día, igual que date_trunc de PostgreSQL (las semanas empiezan en lunes).
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Getter
+public enum GranularidadTendencia {
+    DIA("day", ChronoUnit.DAYS, 30),
+    SEMANA("week", ChronoUnit.WEEKS, 12),
+    MES("month", ChronoUnit.MONTHS, 12);
+
+    /** Campo de date_trunc */
+    private final String campoSql;
+    private final ChronoUnit unidad;
+    /** Periodos que se muestran si no se indica fecha inicial */
+    private final int periodosPorDefecto;
+
+    GranularidadTendencia(String campoSql, ChronoUnit unidad, int periodosPorDefecto) {
+        this.campoSql = campoSql;
+        this.unidad = unidad;
+        this.periodosPorDefecto = periodosPorDefecto;
+    }
+
+    /**
+     * Primer día del periodo que contiene la fecha
+     */
+    public LocalDate inicio(LocalDate fecha) {
+        return switch (this) {
+            case DIA -> fecha;
+            case SEMANA -> fecha.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MES -> fecha.withDayOfMonth(1);
+        };
+    }
+
+    /**
+     * Primer día del periodo n periodos después (o antes, con n negativo)
+     */
+    public LocalDate sumar(LocalDate periodo, long n) {
+        return periodo.plus(n, unidad);
+    }
+
+    /**
+     * Último día del periodo
+     */
+    public LocalDate fin(LocalDate periodo) {
+        return sumar(periodo, 1).minusDays(1);
+    }
+
+    /**
+     * Periodos de desde a hasta, ambos incluidos (primeros días de periodo)
+     */
+    public long periodos(LocalDate desde, LocalDate hasta) {
+        return unidad.between(desde, hasta) + 1;
+    }
+}
@@ -0,0 +1,41 @@
+package com.inmobiliaria.terrenos.domain.enums;
+
+/**
+ * Enum para las métricas del embudo de ventas (cotización → apartado → venta).
+ * Las métricas de conteo son columnas de embudo_ventas_diario; las TIEMPO_* van al
+ * histograma de días entre etapas (embudo_tiempos_diario).
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+public enum MetricaEmbudo {
+    COTIZACIONES("Cotizaciones creadas"),
+    COTIZACIONES_APARTADAS("Cotizaciones que terminaron en apartado"),
+    COTIZACIONES_VENDIDAS("Cotizaciones que terminaron en venta"),
+    APARTADOS("Apartados creados"),
+    APARTADOS_VENDIDOS("Apartados convertidos en venta"),
+    APARTADOS_VENCIDOS("Apartados vencidos"),
+    APARTADOS_CANCELADOS("Apartados cancelados"),
+    VENTAS("Ventas registradas"),
+    VENTAS_CANCELADAS("Ventas canceladas o anuladas"),
+    TIEMPO_COTIZACION_APARTADO("Días de cotización a apartado"),
+    TIEMPO_APARTADO_VENTA("Días de apartado a venta"),
+    TIEMPO_COTIZACION_VENTA("Días de cotización a venta");
+
+    private final String descripcion;
+
+    MetricaEmbudo(String descripcion) {
+        this.descripcion = descripcion;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    /**
+     * true si la métrica es un tiempo entre etapas (histograma) y no un conteo
+     */
+    public boolean isTiempo() {
+        return name().startsWith("TIEMPO_");
+    }
+}
@@ -0,0 +1,24 @@
+package com.inmobiliaria.terrenos.domain.enums;
+
+/**
+ * Enum para las métricas de las tendencias de ventas. Cada una es un conteo y un monto
+ * del acumulado por periodo (tendencia_ventas).
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+public enum MetricaTendencia {
+    VENTAS("Ventas netas de cancelaciones"),
+    PAGOS("Pagos aplicados"),
+    APARTADOS("Apartados nuevos");
+
+    private final String descripcion;
+
+    MetricaTendencia(String descripcion) {
+        this.descripcion = descripcion;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+}
@@ -0,0 +1,22 @@
+package com.inmobiliaria.terrenos.domain.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Modo de análisis de un plano con el CV Engine.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ModoAnalisisPlano {
+
+    AUTO("Automático", "Se analiza por teselas solo si el plano supera el umbral de resolución"),
+    COMPLETO("Completo", "El plano se envía completo al motor (el motor lo reduce si es muy grande)"),
+    TESELAS("Por teselas", "El plano se divide en teselas solapadas que se analizan en paralelo");
+
+    private final String nombre;
+    private final String descripcion;
+}
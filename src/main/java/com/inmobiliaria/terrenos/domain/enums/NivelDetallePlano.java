@@ -0,0 +1,36 @@
+package com.inmobiliaria.terrenos.domain.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Nivel de detalle de la geometría de los lotes en el plano interactivo.
+ *
+ * Cada nivel corresponde a un rango de zoom del visor; a menor zoom menos vértices
+ * hacen falta para dibujar el lote. El orden de declaración es el índice del nivel.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Getter
+@RequiredArgsConstructor
+public enum NivelDetallePlano {
+
+    BAJO("Bajo", "Vista general del proyecto", 4.0),
+    MEDIO("Medio", "Vista de manzana", 1.5),
+    ALTO("Alto", "Vista de lote (solo se eliminan vértices colineales)", 0.5);
+
+    private final String nombre;
+    private final String descripcion;
+
+    /** Tolerancia de simplificación Douglas-Peucker en píxeles del plano */
+    private final double toleranciaPx;
+
+    /**
+     * Nivel para un zoom del visor (0 = más lejano). Los valores fuera de rango se acotan.
+     */
+    public static NivelDetallePlano desdeZoom(int zoom) {
+        NivelDetallePlano[] niveles = values();
+        return niveles[Math.max(0, Math.min(zoom, niveles.length - 1))];
+    }
+}
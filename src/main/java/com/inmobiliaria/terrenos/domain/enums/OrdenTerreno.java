@@ -0,0 +1,25 @@
+package com.inmobiliaria.terrenos.domain.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Criterio de orden de la búsqueda de terrenos.
+ *
+ * Cada criterio es una columna no nula de terrenos con un índice (tenant_id, columna, id);
+ * el id desempata y completa la llave de paginación.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Getter
+@RequiredArgsConstructor
+public enum OrdenTerreno {
+
+    NUMERO_LOTE("numero_lote"),
+    AREA("area"),
+    PRECIO("precio_final"),
+    FECHA_CREACION("created_at");
+
+    private final String columna;
+}
@@ -31,6 +31,12 @@ public enum TipoAccionAudit {
     // Configuración
     CHANGE_SETTINGS("Cambio de configuración"),
 
+    // Procesos automáticos
+    RESERVATIONS_EXPIRED("Vencimiento automático de apartados"),
+
+    // Clientes
+    CLIENTS_MERGED("Fusión de clientes duplicados"),
+
     // Otros
     OTHER("Otra acción");
 
@@ -0,0 +1,21 @@
+package com.inmobiliaria.terrenos.domain.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Tipo de descuento sobre el precio de un lote.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Getter
+@RequiredArgsConstructor
+public enum TipoDescuento {
+
+    PORCENTAJE("Porcentaje", "Porcentaje del precio del lote"),
+    MONTO_FIJO("Monto Fijo", "Monto fijo descontado del precio del lote");
+
+    private final String nombre;
+    private final String descripcion;
+}
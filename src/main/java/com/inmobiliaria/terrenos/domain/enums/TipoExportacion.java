@@ -0,0 +1,35 @@
+package com.inmobiliaria.terrenos.domain.enums;
+
+/**
+ * Enum para los datos que se pueden exportar a CSV o XLSX. La descripción es el nombre
+ * del archivo y de la hoja; las autoridades son las que permiten exportarlos, tanto en la
+ * descarga directa como en un trabajo de reporte en segundo plano.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+public enum TipoExportacion {
+    VENTAS("ventas", "VENTA_VER", "REPORTE_VER", "ADMIN"),
+    PAGOS("pagos", "PLAN_PAGO_VER", "REPORTE_VER", "ADMIN"),
+    PLANES_PAGO("planes-pago", "PLAN_PAGO_VER", "REPORTE_VER", "ADMIN"),
+    AMORTIZACIONES("amortizaciones", "PLAN_PAGO_VER", "REPORTE_VER", "ADMIN"),
+    CLIENTES("clientes", "CLIENTE_VER", "ADMIN"),
+    AUDITORIA_CRITICA("auditoria-critica", "ADMIN"),
+    AUDITORIA_SIMPLE("auditoria-simple", "ADMIN");
+
+    private final String descripcion;
+    private final String[] autoridades;
+
+    TipoExportacion(String descripcion, String... autoridades) {
+        this.descripcion = descripcion;
+        this.autoridades = autoridades;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    public String[] getAutoridades() {
+        return autoridades.clone();
+    }
+}
@@ -0,0 +1,23 @@
+package com.inmobiliaria.terrenos.domain.enums;
+
+/**
+ * Enum para el tipo de reajuste de una regla de precio
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+public enum TipoReglaPrecio {
+    PORCENTAJE("Porcentaje sobre precio base y ajuste (ej. 8 = +8%)"),
+    AJUSTE_FIJO("Monto sumado al precio base (negativo para reducir)"),
+    MULTIPLICADOR("Reemplaza el multiplicador de precio");
+
+    private final String descripcion;
+
+    TipoReglaPrecio(String descripcion) {
+        this.descripcion = descripcion;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+}
@@ -0,0 +1,22 @@
+package com.inmobiliaria.terrenos.domain.enums;
+
+/**
+ * Enum para los reportes que se generan en segundo plano
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+public enum TipoTrabajoReporte {
+    ESTADISTICAS_PROYECTOS("estadisticas-proyectos"),
+    EXPORTACION("exportacion");
+
+    private final String descripcion;
+
+    TipoTrabajoReporte(String descripcion) {
+        this.descripcion = descripcion;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -49,35 +50,9 @@ public interface ApartadoRepository extends JpaRepository<Apartado, Long> {
     List<Apartado> findApartadosVencidos(@Param("tenantId") Long tenantId, @Param("fecha") LocalDate fecha);
 
     /**
-     * Busca apartados por cliente
+     * Busca apartados de varios clientes (los encontrados por ClienteBusquedaRepository)
      */
-    @Query("SELECT a FROM Apartado a, Cliente c WHERE a.clienteId = c.id AND a.tenantId = :tenantId " +
-           "AND (LOWER(c.nombre) LIKE LOWER(CONCAT('%', :nombre, '%')) OR LOWER(c.apellido) LIKE LOWER(CONCAT('%', :nombre, '%'))) " +
-           "AND a.deleted = false " +
-           "ORDER BY a.createdAt DESC")
-    List<Apartado> findByClienteNombre(@Param("tenantId") Long tenantId, @Param("nombre") String nombre);
+    List<Apartado> findByTenantIdAndClienteIdInAndDeletedFalseOrderByCreatedAtDesc(Long tenantId, Collection<Long> clienteIds);
 
     long countByTenantIdAndEstadoAndDeletedFalse(Long tenantId, EstadoApartado estado);
-
-    /**
-     * Cuenta apartados por cliente
-     */
-    @Query("SELECT COUNT(a) FROM Apartado a WHERE a.clienteId = :clienteId AND a.deleted = false")
-    Long countByClienteId(@Param("clienteId") Long clienteId);
-
-    /**
-     * Cuenta apartados vigentes de un cliente
-     */
-    @Query("SELECT COUNT(a) FROM Apartado a WHERE a.clienteId = :clienteId " +
-           "AND a.estado = com.inmobiliaria.terrenos.domain.enums.EstadoApartado.ACTIVO " +
-           "AND a.deleted = false")
-    Long countByClienteIdAndEstadoVigente(@Param("clienteId") Long clienteId);
-
-    /**
-     * Busca apartados por cliente ordenados por fecha
-     */
-    @Query("SELECT a FROM Apartado a WHERE a.clienteId = :clienteId " +
-           "AND a.deleted = false " +
-           "ORDER BY a.createdAt DESC")
-    List<Apartado> findByClienteIdOrderByCreatedAtDesc(@Param("clienteId") Long clienteId);
 }
@@ -2,6 +2,7 @@ package com.inmobiliaria.terrenos.domain.repository;
 
 import com.inmobiliaria.terrenos.domain.entity.Archivo;
 import com.inmobiliaria.terrenos.domain.enums.TipoArchivo;
+import com.inmobiliaria.terrenos.domain.repository.proyeccion.ArchivoListado;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -103,4 +104,18 @@ public interface ArchivoRepository extends JpaRepository<Archivo, Long> {
            "AND a.deleted = false " +
            "ORDER BY a.createdAt DESC")
     List<Archivo> findGaleriaProyecto(@Param("tenantId") Long tenantId, @Param("proyectoId") Long proyectoId);
+
+    /**
+     * Listado de archivos con filtros opcionales (proyección con proyecto y terreno en una consulta)
+     */
+    @Query(ArchivoListado.SELECT + ArchivoListado.FROM + "WHERE a.tenantId = :tenantId " +
+           "AND (:proyectoId IS NULL OR a.proyectoId = :proyectoId) " +
+           "AND (:terrenoId IS NULL OR a.terrenoId = :terrenoId) " +
+           "AND (:tipo IS NULL OR a.tipo = :tipo) " +
+           "AND a.deleted = false " +
+           "ORDER BY a.version DESC, a.createdAt DESC")
+    List<ArchivoListado> findListado(@Param("tenantId") Long tenantId,
+                                     @Param("proyectoId") Long proyectoId,
+                                     @Param("terrenoId") Long terrenoId,
+                                     @Param("tipo") TipoArchivo tipo);
 }
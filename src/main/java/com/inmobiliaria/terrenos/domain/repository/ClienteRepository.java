@@ -2,11 +2,15 @@ package com.inmobiliaria.terrenos.domain.repository;
 
 import com.inmobiliaria.terrenos.domain.entity.Cliente;
 import com.inmobiliaria.terrenos.domain.enums.EstadoCliente;
+import com.inmobiliaria.terrenos.domain.repository.proyeccion.ClienteListado;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,6 +33,16 @@ public interface ClienteRepository extends JpaRepository<Cliente, Long> {
      */
     Optional<Cliente> findByIdAndTenantIdAndDeletedFalse(Long id, Long tenantId);
 
+    boolean existsByIdAndTenantIdAndDeletedFalse(Long id, Long tenantId);
+
+    /**
+     * Busca un cliente activo y lo bloquea hasta el fin de la transacción (fusión de clientes).
+     * Si otra transacción lo eliminó mientras se esperaba el bloqueo, no lo encuentra.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Cliente c WHERE c.id = :id AND c.tenantId = :tenantId AND c.deleted = false")
+    Optional<Cliente> findByIdParaFusionar(@Param("id") Long id, @Param("tenantId") Long tenantId);
+
     /**
      * Busca clientes por email
      */
@@ -44,15 +58,6 @@ public interface ClienteRepository extends JpaRepository<Cliente, Long> {
      */
     List<Cliente> findByTenantIdAndEstadoClienteAndDeletedFalse(Long tenantId, EstadoCliente estadoCliente);
 
-    /**
-     * Busca clientes por nombre (búsqueda parcial)
-     */
-    @Query("SELECT c FROM Cliente c WHERE c.tenantId = :tenantId " +
-           "AND c.deleted = false " +
-           "AND (LOWER(c.nombre) LIKE LOWER(CONCAT('%', :nombre, '%')) " +
-           "OR LOWER(c.apellido) LIKE LOWER(CONCAT('%', :nombre, '%')))")
-    List<Cliente> buscarPorNombre(@Param("tenantId") Long tenantId, @Param("nombre") String nombre);
-
     /**
      * Busca clientes por RFC
      */
@@ -127,4 +132,32 @@ public interface ClienteRepository extends JpaRepository<Cliente, Long> {
            "AND c.estadoCliente = :estado " +
            "AND c.deleted = false")
     Long contarPorEstado(@Param("tenantId") Long tenantId, @Param("estado") EstadoCliente estado);
+
+    /**
+     * Proyección ligera (id, email, rfc, deleted) de los clientes con email o RFC, incluidos los
+     * eliminados: el email sigue siendo único para ellos (uk_clientes_tenant_email).
+     * Usada por la importación masiva para deduplicar sin cargar entidades completas.
+     */
+    @Query("SELECT c.id, c.email, c.rfc, c.deleted FROM Cliente c WHERE c.tenantId = :tenantId " +
+           "AND (c.email IS NOT NULL OR c.rfc IS NOT NULL)")
+    List<Object[]> findIdEmailYRfc(@Param("tenantId") Long tenantId);
+
+    // ==================== Listados (proyección sin notas ni preferencias) ====================
+
+    @Query(ClienteListado.SELECT + "FROM Cliente c WHERE c.tenantId = :tenantId AND c.deleted = false")
+    List<ClienteListado> findListado(@Param("tenantId") Long tenantId);
+
+    @Query(ClienteListado.SELECT + "FROM Cliente c WHERE c.tenantId = :tenantId AND c.estadoCliente = :estado " +
+           "AND c.deleted = false")
+    List<ClienteListado> findListadoPorEstado(@Param("tenantId") Long tenantId, @Param("estado") EstadoCliente estado);
+
+    @Query(ClienteListado.SELECT + "FROM Cliente c WHERE c.tenantId = :tenantId " +
+           "AND c.estadoCliente != 'INACTIVO' AND c.deleted = false ORDER BY c.createdAt DESC")
+    List<ClienteListado> findListadoActivos(@Param("tenantId") Long tenantId);
+
+    /**
+     * Clientes con los ids dados (resultado de ClienteBusquedaRepository), sin orden
+     */
+    @Query(ClienteListado.SELECT + "FROM Cliente c WHERE c.tenantId = :tenantId AND c.id IN :ids AND c.deleted = false")
+    List<ClienteListado> findListadoPorIds(@Param("tenantId") Long tenantId, @Param("ids") Collection<Long> ids);
 }
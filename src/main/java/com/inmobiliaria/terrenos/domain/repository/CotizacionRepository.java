@@ -1,12 +1,14 @@
 package com.inmobiliaria.terrenos.domain.repository;
 
 import com.inmobiliaria.terrenos.domain.entity.Cotizacion;
+import com.inmobiliaria.terrenos.domain.repository.proyeccion.CotizacionListado;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,6 +27,16 @@ public interface CotizacionRepository extends JpaRepository<Cotizacion, Long> {
 
     List<Cotizacion> findByTenantIdAndTerrenoIdAndDeletedFalse(Long tenantId, Long terrenoId);
 
+    /**
+     * Última cotización del lote (y del cliente, si se conoce); origen de un apartado o venta
+     * registrado sin referencia a la cotización
+     */
+    Optional<Cotizacion> findFirstByTenantIdAndTerrenoIdAndDeletedFalseOrderByCreatedAtDescIdDesc(
+            Long tenantId, Long terrenoId);
+
+    Optional<Cotizacion> findFirstByTenantIdAndTerrenoIdAndClienteIdAndDeletedFalseOrderByCreatedAtDescIdDesc(
+            Long tenantId, Long terrenoId, Long clienteId);
+
     /**
      * Busca cotizaciones vigentes
      */
@@ -35,13 +47,9 @@ public interface CotizacionRepository extends JpaRepository<Cotizacion, Long> {
     List<Cotizacion> findCotizacionesVigentes(@Param("tenantId") Long tenantId, @Param("fecha") LocalDate fecha);
 
     /**
-     * Busca cotizaciones por cliente
+     * Busca cotizaciones de varios clientes (los encontrados por ClienteBusquedaRepository)
      */
-    @Query("SELECT c FROM Cotizacion c, Cliente cl WHERE c.clienteId = cl.id AND c.tenantId = :tenantId " +
-           "AND (LOWER(cl.nombre) LIKE LOWER(CONCAT('%', :nombre, '%')) OR LOWER(cl.apellido) LIKE LOWER(CONCAT('%', :nombre, '%'))) " +
-           "AND c.deleted = false " +
-           "ORDER BY c.createdAt DESC")
-    List<Cotizacion> findByClienteNombre(@Param("tenantId") Long tenantId, @Param("nombre") String nombre);
+    List<Cotizacion> findByTenantIdAndClienteIdInAndDeletedFalseOrderByCreatedAtDesc(Long tenantId, Collection<Long> clienteIds);
 
     /**
      * Busca cotizaciones por rango de fechas
@@ -56,25 +64,12 @@ public interface CotizacionRepository extends JpaRepository<Cotizacion, Long> {
 
     long countByTenantIdAndDeletedFalse(Long tenantId);
 
-    /**
-     * Cuenta cotizaciones por cliente
-     */
-    @Query("SELECT COUNT(c) FROM Cotizacion c WHERE c.clienteId = :clienteId AND c.deleted = false")
-    Long countByClienteId(@Param("clienteId") Long clienteId);
+    // ==================== Listados (proyección con terreno y proyecto en una consulta) ====================
 
-    /**
-     * Cuenta cotizaciones vigentes de un cliente
-     */
-    @Query("SELECT COUNT(c) FROM Cotizacion c WHERE c.clienteId = :clienteId " +
-           "AND c.fechaVigencia > :fecha " +
-           "AND c.deleted = false")
-    Long countByClienteIdAndFechaVigenciaAfter(@Param("clienteId") Long clienteId, @Param("fecha") LocalDate fecha);
+    @Query(CotizacionListado.SELECT + CotizacionListado.FROM + "WHERE c.tenantId = :tenantId AND c.deleted = false")
+    List<CotizacionListado> findListado(@Param("tenantId") Long tenantId);
 
-    /**
-     * Busca cotizaciones por cliente ordenadas por fecha
-     */
-    @Query("SELECT c FROM Cotizacion c WHERE c.clienteId = :clienteId " +
-           "AND c.deleted = false " +
-           "ORDER BY c.createdAt DESC")
-    List<Cotizacion> findByClienteIdOrderByCreatedAtDesc(@Param("clienteId") Long clienteId);
+    @Query(CotizacionListado.SELECT + CotizacionListado.FROM + "WHERE c.tenantId = :tenantId " +
+           "AND c.fechaVigencia >= :fecha AND c.deleted = false ORDER BY c.createdAt DESC")
+    List<CotizacionListado> findListadoVigentes(@Param("tenantId") Long tenantId, @Param("fecha") LocalDate fecha);
 }
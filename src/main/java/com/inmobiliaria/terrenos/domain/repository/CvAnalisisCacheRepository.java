@@ -0,0 +1,36 @@
+package com.inmobiliaria.terrenos.domain.repository;
+
+import com.inmobiliaria.terrenos.domain.entity.CvAnalisisCache;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Repositorio JPA para la caché de análisis del CV Engine
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Repository
+public interface CvAnalisisCacheRepository extends JpaRepository<CvAnalisisCache, Long> {
+
+    /**
+     * Busca un resultado cacheado por hash de contenido y versión del motor
+     */
+    Optional<CvAnalisisCache> findByTenantIdAndContentHashAndEngineVersion(
+            Long tenantId, String contentHash, String engineVersion);
+
+    /**
+     * Registra un acierto de caché sin cargar el resultado completo
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE CvAnalisisCache c SET c.hits = c.hits + 1, c.ultimoHit = :fecha WHERE c.id = :id")
+    int registrarHit(@Param("id") Long id, @Param("fecha") LocalDateTime fecha);
+}
@@ -0,0 +1,56 @@
+package com.inmobiliaria.terrenos.domain.repository;
+
+import com.inmobiliaria.terrenos.domain.entity.Descuento;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositorio JPA para la entidad Descuento
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Repository
+public interface DescuentoRepository extends JpaRepository<Descuento, Long> {
+
+    Optional<Descuento> findByIdAndTenantId(Long id, Long tenantId);
+
+    List<Descuento> findByTenantIdOrderByFechaInicioDesc(Long tenantId);
+
+    List<Descuento> findByTenantIdAndProyectoIdOrderByFechaInicioDesc(Long tenantId, Long proyectoId);
+
+    /**
+     * Descuentos activos que no han terminado: vigentes o por comenzar (motor de precios)
+     */
+    @Query("SELECT d FROM Descuento d WHERE d.tenantId = :tenantId AND d.activo = true " +
+           "AND d.fechaFin >= :fecha")
+    List<Descuento> findActivosNoVencidos(@Param("tenantId") Long tenantId, @Param("fecha") LocalDate fecha);
+
+    /**
+     * Existe otro descuento activo con el mismo código (sin distinguir mayúsculas)
+     */
+    @Query("SELECT CASE WHEN COUNT(d) > 0 THEN true ELSE false END FROM Descuento d " +
+           "WHERE d.tenantId = :tenantId AND d.activo = true AND UPPER(d.codigo) = UPPER(:codigo) " +
+           "AND (:excluirId IS NULL OR d.id <> :excluirId)")
+    boolean existsCodigoActivo(@Param("tenantId") Long tenantId, @Param("codigo") String codigo,
+                               @Param("excluirId") Long excluirId);
+
+    /**
+     * Consume un uso del descuento si le quedan usos y sigue activo.
+     * El UPDATE condicional es atómico: dos cotizaciones concurrentes no pueden tomar el último uso.
+     *
+     * @return 1 si se consumió el uso, 0 si ya no hay usos disponibles
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Descuento d SET d.usosActuales = COALESCE(d.usosActuales, 0) + 1 " +
+           "WHERE d.id = :id AND d.tenantId = :tenantId AND d.activo = true " +
+           "AND (d.usosMaximos IS NULL OR COALESCE(d.usosActuales, 0) < d.usosMaximos)")
+    int consumirUso(@Param("tenantId") Long tenantId, @Param("id") Long id);
+}
@@ -0,0 +1,16 @@
+package com.inmobiliaria.terrenos.domain.repository;
+
+import com.inmobiliaria.terrenos.domain.entity.MovimientoEmbudo;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repositorio JPA para los movimientos del embudo de ventas.
+ * La consolidación y las consultas están en EmbudoVentasRepository (SQL por conjuntos).
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Repository
+public interface MovimientoEmbudoRepository extends JpaRepository<MovimientoEmbudo, Long> {
+}
@@ -0,0 +1,16 @@
+package com.inmobiliaria.terrenos.domain.repository;
+
+import com.inmobiliaria.terrenos.domain.entity.MovimientoTendencia;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repositorio JPA para los movimientos de las tendencias de ventas.
+ * La consolidación y las consultas están en TendenciaVentasRepository (SQL por conjuntos).
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Repository
+public interface MovimientoTendenciaRepository extends JpaRepository<MovimientoTendencia, Long> {
+}
@@ -3,6 +3,7 @@ package com.inmobiliaria.terrenos.domain.repository;
 import com.inmobiliaria.terrenos.domain.entity.Proyecto;
 import com.inmobiliaria.terrenos.domain.enums.EstadoProyecto;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -72,6 +73,11 @@ public interface ProyectoRepository extends JpaRepository<Proyecto, Long> {
      */
     boolean existsByTenantIdAndNombreIgnoreCaseAndDeletedFalse(Long tenantId, String nombre);
 
+    /**
+     * Verifica si existe un proyecto por ID y tenant
+     */
+    boolean existsByIdAndTenantIdAndDeletedFalse(Long id, Long tenantId);
+
     /**
      * Verifica si existe un proyecto con el mismo nombre excluyendo un ID
      */
@@ -83,4 +89,67 @@ public interface ProyectoRepository extends JpaRepository<Proyecto, Long> {
     boolean existsByNombreExcludingId(@Param("tenantId") Long tenantId,
                                       @Param("nombre") String nombre,
                                       @Param("excludeId") Long excludeId);
+
+    /**
+     * Recalcula los contadores de terrenos del proyecto en una sola sentencia
+     * (una agregación sobre terrenos en lugar de cuatro COUNT independientes)
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE proyectos p SET " +
+                   "total_terrenos = s.total, " +
+                   "terrenos_disponibles = s.disponibles, " +
+                   "terrenos_apartados = s.apartados, " +
+                   "terrenos_vendidos = s.vendidos, " +
+                   "updated_at = CURRENT_TIMESTAMP " +
+                   "FROM (SELECT COUNT(*) AS total, " +
+                   "             COUNT(*) FILTER (WHERE t.estado = 'DISPONIBLE') AS disponibles, " +
+                   "             COUNT(*) FILTER (WHERE t.estado = 'APARTADO') AS apartados, " +
+                   "             COUNT(*) FILTER (WHERE t.estado = 'VENDIDO') AS vendidos " +
+                   "      FROM terrenos t " +
+                   "      WHERE t.tenant_id = :tenantId AND t.proyecto_id = :proyectoId AND t.deleted = false) s " +
+                   "WHERE p.id = :proyectoId AND p.tenant_id = :tenantId",
+           nativeQuery = true)
+    int recalcularContadores(@Param("tenantId") Long tenantId, @Param("proyectoId") Long proyectoId);
+
+    /**
+     * Aumenta la versión del plano interactivo (cambio de lotes).
+     * El UPDATE bloquea la fila hasta el commit, así dos cambios concurrentes obtienen versiones distintas.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Proyecto p SET p.planoVersion = p.planoVersion + 1 " +
+           "WHERE p.id = :proyectoId AND p.tenantId = :tenantId")
+    int incrementarVersionPlano(@Param("tenantId") Long tenantId, @Param("proyectoId") Long proyectoId);
+
+    /**
+     * Aumenta la versión del plano y la marca como cambio de estructura (fases, plano, datos del proyecto)
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Proyecto p SET p.planoVersion = p.planoVersion + 1, " +
+           "p.planoVersionEstructura = p.planoVersion + 1 " +
+           "WHERE p.id = :proyectoId AND p.tenantId = :tenantId")
+    int incrementarVersionPlanoEstructura(@Param("tenantId") Long tenantId, @Param("proyectoId") Long proyectoId);
+
+    /**
+     * Versión actual del plano de un proyecto
+     */
+    @Query("SELECT p.planoVersion FROM Proyecto p " +
+           "WHERE p.id = :proyectoId AND p.tenantId = :tenantId AND p.deleted = false")
+    Optional<Long> findVersionPlano(@Param("tenantId") Long tenantId, @Param("proyectoId") Long proyectoId);
+
+    /**
+     * Última versión del plano con cambios de estructura
+     */
+    @Query("SELECT p.planoVersionEstructura FROM Proyecto p " +
+           "WHERE p.id = :proyectoId AND p.tenantId = :tenantId AND p.deleted = false")
+    Optional<Long> findVersionPlanoEstructura(@Param("tenantId") Long tenantId, @Param("proyectoId") Long proyectoId);
+
+    /**
+     * Versión de los datos de los proyectos de un tenant: suma las versiones de plano y los
+     * proyectos creados y eliminados. Solo crece, así sirve para saber si el dashboard cambió.
+     */
+    @Query(value = "SELECT COALESCE(SUM(p.plano_version), 0) + COUNT(*) " +
+                   "       + COUNT(*) FILTER (WHERE p.deleted = true) " +
+                   "FROM proyectos p WHERE p.tenant_id = :tenantId",
+           nativeQuery = true)
+    long findVersionDatosTenant(@Param("tenantId") Long tenantId);
 }
@@ -0,0 +1,44 @@
+package com.inmobiliaria.terrenos.domain.repository;
+
+import com.inmobiliaria.terrenos.domain.entity.ReglaPrecio;
+import com.inmobiliaria.terrenos.domain.enums.EstadoReglaPrecio;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositorio JPA para la entidad ReglaPrecio
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Repository
+public interface ReglaPrecioRepository extends JpaRepository<ReglaPrecio, Long> {
+
+    Optional<ReglaPrecio> findByIdAndTenantId(Long id, Long tenantId);
+
+    List<ReglaPrecio> findByTenantIdAndProyectoIdOrderByCreatedAtDesc(Long tenantId, Long proyectoId);
+
+    /**
+     * Ids de las reglas programadas cuya fecha ya pasó, de todas las empresas (scheduler)
+     */
+    @Query("SELECT r.id FROM ReglaPrecio r WHERE r.estado = :estado AND r.fechaProgramada <= :ahora " +
+           "ORDER BY r.fechaProgramada ASC")
+    List<Long> findIdsProgramadasVencidas(@Param("estado") EstadoReglaPrecio estado,
+                                          @Param("ahora") LocalDateTime ahora);
+
+    /**
+     * Bloquea la regla hasta el fin de la transacción: si dos instancias intentan aplicarla,
+     * la segunda espera y la encuentra ya aplicada
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM ReglaPrecio r WHERE r.id = :id")
+    Optional<ReglaPrecio> findByIdParaAplicar(@Param("id") Long id);
+}
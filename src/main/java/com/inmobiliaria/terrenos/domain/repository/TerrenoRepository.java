@@ -2,12 +2,14 @@ package com.inmobiliaria.terrenos.domain.repository;
 
 import com.inmobiliaria.terrenos.domain.entity.Terreno;
 import com.inmobiliaria.terrenos.domain.enums.EstadoTerreno;
+import com.inmobiliaria.terrenos.domain.repository.proyeccion.TerrenoListado;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -130,6 +132,49 @@ public interface TerrenoRepository extends JpaRepository<Terreno, Long> {
                                           @Param("numeroLote") String numeroLote,
                                           @Param("excludeId") Long excludeId);
 
+    /**
+     * Proyección ligera (id, numeroLote) de los terrenos de un proyecto.
+     * Usada por la ingesta masiva para deduplicar sin cargar entidades completas.
+     */
+    @Query("SELECT t.id, t.numeroLote FROM Terreno t " +
+           "WHERE t.tenantId = :tenantId AND t.proyectoId = :proyectoId AND t.deleted = false")
+    List<Object[]> findIdYNumeroLoteByProyecto(@Param("tenantId") Long tenantId,
+                                               @Param("proyectoId") Long proyectoId);
+
+    /**
+     * Proyección ligera (id, coordenadasPlano) de los terrenos con coordenadas de un proyecto.
+     * Usada para construir el índice espacial del plano.
+     */
+    @Query("SELECT t.id, t.coordenadasPlano FROM Terreno t " +
+           "WHERE t.tenantId = :tenantId AND t.proyectoId = :proyectoId " +
+           "AND t.coordenadasPlano IS NOT NULL AND t.deleted = false")
+    List<Object[]> findIdYCoordenadasByProyecto(@Param("tenantId") Long tenantId,
+                                                @Param("proyectoId") Long proyectoId);
+
+    /**
+     * Busca terrenos de un proyecto por sus IDs
+     */
+    List<Terreno> findByTenantIdAndProyectoIdAndIdInAndDeletedFalseOrderByNumeroLoteAsc(
+            Long tenantId, Long proyectoId, Collection<Long> ids);
+
+    /**
+     * Terrenos de un proyecto que cambiaron después de una versión del plano
+     */
+    List<Terreno> findByTenantIdAndProyectoIdAndPlanoVersionGreaterThanAndDeletedFalseOrderByNumeroLoteAsc(
+            Long tenantId, Long proyectoId, Long planoVersion);
+
+    /**
+     * IDs de los terrenos eliminados después de una versión del plano.
+     * Consulta nativa: la restricción de soft delete de la entidad los ocultaría.
+     */
+    @Query(value = "SELECT t.id FROM terrenos t " +
+                   "WHERE t.tenant_id = :tenantId AND t.proyecto_id = :proyectoId " +
+                   "AND t.deleted = true AND t.plano_version > :planoVersion",
+           nativeQuery = true)
+    List<Long> findIdsEliminadosDesdeVersion(@Param("tenantId") Long tenantId,
+                                             @Param("proyectoId") Long proyectoId,
+                                             @Param("planoVersion") Long planoVersion);
+
     /**
      * Obtiene estadísticas de terrenos por proyecto
      */
@@ -141,4 +186,23 @@ public interface TerrenoRepository extends JpaRepository<Terreno, Long> {
            "FROM Terreno t " +
            "WHERE t.tenantId = :tenantId AND t.proyectoId = :proyectoId AND t.deleted = false")
     Object[] getEstadisticasPorProyecto(@Param("tenantId") Long tenantId, @Param("proyectoId") Long proyectoId);
+
+    // ==================== Listados (proyección sin JSONB, fuera del contexto de persistencia) ====================
+
+    @Query(TerrenoListado.SELECT + "FROM Terreno t WHERE t.tenantId = :tenantId AND t.deleted = false")
+    List<TerrenoListado> findListado(@Param("tenantId") Long tenantId);
+
+    @Query(TerrenoListado.SELECT + "FROM Terreno t WHERE t.tenantId = :tenantId AND t.proyectoId = :proyectoId " +
+           "AND t.deleted = false ORDER BY t.numeroLote ASC")
+    List<TerrenoListado> findListadoPorProyecto(@Param("tenantId") Long tenantId, @Param("proyectoId") Long proyectoId);
+
+    @Query(TerrenoListado.SELECT + "FROM Terreno t WHERE t.tenantId = :tenantId AND t.estado = :estado " +
+           "AND t.deleted = false")
+    List<TerrenoListado> findListadoPorEstado(@Param("tenantId") Long tenantId, @Param("estado") EstadoTerreno estado);
+
+    @Query(TerrenoListado.SELECT + "FROM Terreno t WHERE t.tenantId = :tenantId AND t.proyectoId = :proyectoId " +
+           "AND t.estado = com.inmobiliaria.terrenos.domain.enums.EstadoTerreno.DISPONIBLE " +
+           "AND t.deleted = false ORDER BY t.numeroLote ASC")
+    List<TerrenoListado> findListadoDisponiblesPorProyecto(@Param("tenantId") Long tenantId,
+                                                           @Param("proyectoId") Long proyectoId);
 }
@@ -2,6 +2,7 @@ package com.inmobiliaria.terrenos.domain.repository;
 
 import com.inmobiliaria.terrenos.domain.entity.Venta;
 import com.inmobiliaria.terrenos.domain.enums.EstadoVenta;
+import com.inmobiliaria.terrenos.domain.repository.proyeccion.VentaListado;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -77,17 +78,12 @@ public interface VentaRepository extends JpaRepository<Venta, Long> {
 
     long countByTenantIdAndDeletedFalse(Long tenantId);
 
-    /**
-     * Cuenta ventas por cliente
-     */
-    @Query("SELECT COUNT(v) FROM Venta v WHERE v.clienteId = :clienteId AND v.deleted = false")
-    Long countByClienteId(@Param("clienteId") Long clienteId);
+    // ==================== Listados (proyección con terreno, proyecto y vendedor en una consulta) ====================
 
-    /**
-     * Busca ventas por cliente ordenadas por fecha
-     */
-    @Query("SELECT v FROM Venta v WHERE v.clienteId = :clienteId " +
-           "AND v.deleted = false " +
-           "ORDER BY v.createdAt DESC")
-    List<Venta> findByClienteIdOrderByCreatedAtDesc(@Param("clienteId") Long clienteId);
+    @Query(VentaListado.SELECT + VentaListado.FROM + "WHERE v.tenantId = :tenantId AND v.deleted = false")
+    List<VentaListado> findListado(@Param("tenantId") Long tenantId);
+
+    @Query(VentaListado.SELECT + VentaListado.FROM + "WHERE v.tenantId = :tenantId AND v.estado = :estado " +
+           "AND v.deleted = false")
+    List<VentaListado> findListadoPorEstado(@Param("tenantId") Long tenantId, @Param("estado") EstadoVenta estado);
 }
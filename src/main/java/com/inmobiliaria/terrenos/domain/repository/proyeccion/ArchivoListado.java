@@ -0,0 +1,41 @@
+package com.inmobiliaria.terrenos.domain.repository.proyeccion;
+
+import com.inmobiliaria.terrenos.domain.enums.TipoArchivo;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fila del listado de archivos con el proyecto y terreno resueltos en la misma consulta
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+public record ArchivoListado(
+        Long id,
+        Long tenantId,
+        Long proyectoId,
+        String proyectoNombre,
+        Long terrenoId,
+        String terrenoNumeroLote,
+        Long ventaId,
+        TipoArchivo tipo,
+        String nombreOriginal,
+        String nombreAlmacenado,
+        String extension,
+        String mimeType,
+        Long tamanioBytes,
+        Integer version,
+        String descripcion,
+        String tags,
+        Boolean esActivo,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) {
+
+    /** Expresión de constructor JPQL sobre el alias a de Archivo (ver FROM) */
+    public static final String SELECT = "SELECT new com.inmobiliaria.terrenos.domain.repository.proyeccion.ArchivoListado(" +
+            "a.id, a.tenantId, a.proyectoId, p.nombre, a.terrenoId, t.numeroLote, a.ventaId, a.tipo, a.nombreOriginal, " +
+            "a.nombreAlmacenado, a.extension, a.mimeType, a.tamanioBytes, a.version, a.descripcion, a.tags, " +
+            "a.esActivo, a.createdAt, a.updatedAt) ";
+
+    public static final String FROM = "FROM Archivo a LEFT JOIN a.proyecto p LEFT JOIN a.terreno t ";
+}
@@ -0,0 +1,43 @@
+package com.inmobiliaria.terrenos.domain.repository.proyeccion;
+
+import com.inmobiliaria.terrenos.domain.enums.EstadoCliente;
+import com.inmobiliaria.terrenos.domain.enums.OrigenCliente;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Fila del listado de clientes: columnas de ClienteResponse sin notas ni preferencias
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+public record ClienteListado(
+        Long id,
+        String nombre,
+        String apellido,
+        String email,
+        String telefono,
+        String telefonoSecundario,
+        String direccion,
+        String ciudad,
+        String estado,
+        String codigoPostal,
+        String pais,
+        String rfc,
+        String curp,
+        LocalDate fechaNacimiento,
+        OrigenCliente origen,
+        EstadoCliente estadoCliente,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) {
+
+    /** Expresión de constructor JPQL sobre el alias c de Cliente */
+    public static final String SELECT = "SELECT new com.inmobiliaria.terrenos.domain.repository.proyeccion.ClienteListado(" +
+            "c.id, c.nombre, c.apellido, c.email, c.telefono, c.telefonoSecundario, c.direccion, c.ciudad, c.estado, " +
+            "c.codigoPostal, c.pais, c.rfc, c.curp, c.fechaNacimiento, c.origen, c.estadoCliente, c.createdAt, c.updatedAt) ";
+
+    public String nombreCompleto() {
+        return nombre + " " + apellido;
+    }
+}
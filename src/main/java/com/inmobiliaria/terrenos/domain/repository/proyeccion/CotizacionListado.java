@@ -0,0 +1,36 @@
+package com.inmobiliaria.terrenos.domain.repository.proyeccion;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Fila del listado de cotizaciones con los datos del terreno y proyecto resueltos
+ * en la misma consulta (sin observaciones)
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+public record CotizacionListado(
+        Long id,
+        Long tenantId,
+        Long terrenoId,
+        String terrenoNumeroLote,
+        String terrenoManzana,
+        Long proyectoId,
+        String proyectoNombre,
+        BigDecimal precioBase,
+        BigDecimal descuento,
+        BigDecimal porcentajeDescuento,
+        BigDecimal precioFinal,
+        LocalDate fechaVigencia,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) {
+
+    /** Expresión de constructor JPQL sobre el alias c de Cotizacion (ver FROM) */
+    public static final String SELECT = "SELECT new com.inmobiliaria.terrenos.domain.repository.proyeccion.CotizacionListado(" +
+            "c.id, c.tenantId, c.terrenoId, t.numeroLote, t.manzana, t.proyectoId, p.nombre, c.precioBase, " +
+            "c.descuento, c.porcentajeDescuento, c.precioFinal, c.fechaVigencia, c.createdAt, c.updatedAt) ";
+
+    public static final String FROM = "FROM Cotizacion c LEFT JOIN c.terreno t LEFT JOIN t.proyecto p ";
+}
@@ -0,0 +1,36 @@
+package com.inmobiliaria.terrenos.domain.repository.proyeccion;
+
+import com.inmobiliaria.terrenos.domain.enums.EstadoTerreno;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Fila del listado de terrenos: columnas de TerrenoResponse sin las JSONB ni observaciones
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+public record TerrenoListado(
+        Long id,
+        Long tenantId,
+        Long proyectoId,
+        Long faseId,
+        String numeroLote,
+        String manzana,
+        BigDecimal area,
+        BigDecimal frente,
+        BigDecimal fondo,
+        BigDecimal precioBase,
+        BigDecimal precioAjuste,
+        BigDecimal precioMultiplicador,
+        BigDecimal precioFinal,
+        EstadoTerreno estado,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) {
+
+    /** Expresión de constructor JPQL sobre el alias t de Terreno */
+    public static final String SELECT = "SELECT new com.inmobiliaria.terrenos.domain.repository.proyeccion.TerrenoListado(" +
+            "t.id, t.tenantId, t.proyectoId, t.faseId, t.numeroLote, t.manzana, t.area, t.frente, t.fondo, " +
+            "t.precioBase, t.precioAjuste, t.precioMultiplicador, t.precioFinal, t.estado, t.createdAt, t.updatedAt) ";
+}
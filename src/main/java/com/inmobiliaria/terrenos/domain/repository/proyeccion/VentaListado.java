@@ -0,0 +1,54 @@
+package com.inmobiliaria.terrenos.domain.repository.proyeccion;
+
+import com.inmobiliaria.terrenos.domain.enums.EstadoVenta;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Fila del listado de ventas con los datos del terreno, proyecto y vendedor resueltos
+ * en la misma consulta (sin observaciones)
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+public record VentaListado(
+        Long id,
+        Long tenantId,
+        Long terrenoId,
+        String terrenoNumeroLote,
+        String terrenoManzana,
+        Long proyectoId,
+        String proyectoNombre,
+        Long apartadoId,
+        Long usuarioId,
+        String usuarioNombre,
+        String usuarioApellido,
+        String compradorNombre,
+        String compradorEmail,
+        String compradorTelefono,
+        String compradorDireccion,
+        String compradorRfc,
+        String compradorCurp,
+        LocalDate fechaVenta,
+        BigDecimal precioTotal,
+        BigDecimal montoApartadoAcreditado,
+        BigDecimal montoFinal,
+        BigDecimal porcentajeComision,
+        BigDecimal montoComision,
+        String formaPago,
+        EstadoVenta estado,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) {
+
+    /** Expresión de constructor JPQL sobre el alias v de Venta (ver FROM) */
+    public static final String SELECT = "SELECT new com.inmobiliaria.terrenos.domain.repository.proyeccion.VentaListado(" +
+            "v.id, v.tenantId, v.terrenoId, t.numeroLote, t.manzana, t.proyectoId, p.nombre, v.apartadoId, " +
+            "v.usuarioId, u.nombre, u.apellido, v.compradorNombre, v.compradorEmail, v.compradorTelefono, " +
+            "v.compradorDireccion, v.compradorRfc, v.compradorCurp, v.fechaVenta, v.precioTotal, " +
+            "v.montoApartadoAcreditado, v.montoFinal, v.porcentajeComision, v.montoComision, v.formaPago, " +
+            "v.estado, v.createdAt, v.updatedAt) ";
+
+    public static final String FROM = "FROM Venta v LEFT JOIN v.terreno t LEFT JOIN t.proyecto p LEFT JOIN v.usuario u ";
+}
@@ -0,0 +1,530 @@
+package com.inmobiliaria.terrenos.infrastructure.busqueda;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+/**
+ * Detección de clientes duplicados por bloques.
+ *
+ * Comparar todos contra todos es O(n²). Aquí cada cliente recibe hasta cinco llaves de bloque
+ * y solo se comparan los clientes que comparten alguna:
+ * - T: últimos 10 dígitos de cada teléfono
+ * - E: parte local del email en minúsculas, sin puntos ni sufijo "+etiqueta"
+ * - F: código fonético del primer nombre y de los apellidos (b/v, c/s/z, ll/y, h muda...)
+ * - R: los 10 primeros caracteres del RFC (sin homoclave)
+ * Un bloque con más de maxBloque clientes (un teléfono de relleno, "María García") no se
+ * compara: son coincidencias sin valor y romperían el costo lineal.
+ *
+ * Los bloques se comparan en paralelo. Un par que comparte varias llaves se evalúa solo en el
+ * bloque de su primera llave común, así no se repite ni hace falta un conjunto global de pares.
+ * El puntaje es la similitud Jaro-Winkler de los nombres escalada por la mejor coincidencia de
+ * contacto (teléfono, email o RFC): compartir solo el nombre no alcanza el umbral, ni tampoco
+ * compartir el teléfono con nombres distintos (familiares). Un teléfono o email de un bloque
+ * omitido no cuenta como coincidencia.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+public final class DetectorDuplicados {
+
+    /** Puntaje de dos nombres idénticos sin ningún dato de contacto en común */
+    static final double BASE_NOMBRE = 0.6;
+
+    /** Similitud de nombres desde la que se reporta NOMBRE entre las coincidencias */
+    static final double NOMBRE_COINCIDENTE = 0.9;
+
+    /** Coincidencia de contacto de dos emails con parte local parecida (typos) */
+    static final double EMAIL_PARECIDO = 0.6;
+
+    private static final int DIGITOS_TELEFONO = 10;
+    private static final int DIGITOS_TELEFONO_LOCAL = 7;
+    private static final int LONGITUD_RFC = 10;
+    private static final int LONGITUD_FONETICA = 6;
+
+    private DetectorDuplicados() {
+    }
+
+    /**
+     * Datos de un cliente que se comparan
+     */
+    public record Ficha(long id, String nombre, String apellido, String email, String telefono,
+                        String telefonoSecundario, String rfc) {
+    }
+
+    /**
+     * Par probablemente duplicado; clienteId es siempre el menor
+     *
+     * @param coincidencias NOMBRE, TELEFONO, EMAIL y/o RFC separados por coma
+     */
+    public record Par(long clienteId, long duplicadoId, double puntaje, String coincidencias) {
+    }
+
+    /**
+     * @param bloques         bloques de 2 o más clientes comparados
+     * @param bloquesOmitidos bloques que excedieron maxBloque
+     * @param comparaciones   pares evaluados
+     */
+    public record Resultado(List<Par> pares, int bloques, int bloquesOmitidos, long comparaciones) {
+    }
+
+    /**
+     * Campos de una ficha en la forma en que se comparan: nombre y apellido en minúsculas sin
+     * acentos, teléfonos con sus últimos 10 dígitos, email en minúsculas y RFC sin homoclave
+     */
+    private record Campos(String nombre, String apellido, String telefono, String telefonoSecundario,
+                          String email, String emailLocal, String rfc) {
+    }
+
+    /**
+     * Ficha con los campos en la forma en que se comparan y sus llaves de bloque (ids ordenados)
+     */
+    private record Documento(long id, String nombre, String telefono, String telefonoSecundario, String email,
+                             String emailLocal, String rfc, int[] llaves) {
+    }
+
+    /**
+     * Busca los pares con puntaje mayor o igual al umbral
+     *
+     * @param umbral     puntaje mínimo entre 0 y 1
+     * @param maxBloque  tamaño máximo de un bloque que se compara
+     */
+    public static Resultado detectar(List<Ficha> fichas, double umbral, int maxBloque) {
+        // Cada ficha se normaliza una sola vez; sus llaves se guardan como ids consecutivos
+        List<Campos> campos = fichas.parallelStream().map(DetectorDuplicados::campos).toList();
+        Map<String, Integer> idsLlave = new HashMap<>();
+        List<Documento> documentos = new ArrayList<>(fichas.size());
+        List<int[]> llavesPorDocumento = new ArrayList<>(fichas.size());
+        for (Campos campo : campos) {
+            String[] llaves = llaves(campo);
+            int[] ids = new int[llaves.length];
+            for (int i = 0; i < llaves.length; i++) {
+                ids[i] = idsLlave.computeIfAbsent(llaves[i], llave -> idsLlave.size());
+            }
+            llavesPorDocumento.add(ids);
+        }
+
+        int[] tamanios = new int[idsLlave.size()];
+        for (int[] ids : llavesPorDocumento) {
+            for (int id : ids) {
+                tamanios[id]++;
+            }
+        }
+
+        // Solo cuentan las llaves de bloques comparables: si la primera llave común de un par
+        // fuera la de un bloque omitido, el par no se evaluaría en ningún otro
+        Predicate<String> identifica = llave -> tamanios[idsLlave.get(llave)] <= maxBloque;
+        for (int i = 0; i < fichas.size(); i++) {
+            int[] comparables = Arrays.stream(llavesPorDocumento.get(i))
+                    .filter(id -> tamanios[id] >= 2 && tamanios[id] <= maxBloque)
+                    .distinct().sorted().toArray();
+            documentos.add(documento(fichas.get(i).id(), campos.get(i), comparables, identifica));
+        }
+
+        // Miembros de cada bloque comparable, contiguos en un solo arreglo
+        int[] inicio = new int[tamanios.length + 1];
+        for (int id = 0; id < tamanios.length; id++) {
+            boolean comparable = tamanios[id] >= 2 && tamanios[id] <= maxBloque;
+            inicio[id + 1] = inicio[id] + (comparable ? tamanios[id] : 0);
+        }
+        int[] miembros = new int[inicio[tamanios.length]];
+        int[] llenado = Arrays.copyOf(inicio, tamanios.length);
+        for (int i = 0; i < documentos.size(); i++) {
+            for (int id : documentos.get(i).llaves()) {
+                miembros[llenado[id]++] = i;
+            }
+        }
+
+        int bloques = 0;
+        int omitidos = 0;
+        for (int tamanio : tamanios) {
+            if (tamanio > maxBloque) {
+                omitidos++;
+            } else if (tamanio >= 2) {
+                bloques++;
+            }
+        }
+
+        LongAdder comparaciones = new LongAdder();
+        List<Par> pares = IntStream.range(0, tamanios.length).parallel()
+                .filter(id -> inicio[id + 1] - inicio[id] >= 2)
+                .mapToObj(id -> compararBloque(id, miembros, inicio[id], inicio[id + 1], documentos, umbral,
+                        comparaciones))
+                .flatMap(List::stream)
+                .toList();
+
+        return new Resultado(pares, bloques, omitidos, comparaciones.sum());
+    }
+
+    private static List<Par> compararBloque(int llave, int[] miembros, int desde, int hasta,
+                                            List<Documento> documentos, double umbral, LongAdder comparaciones) {
+        List<Par> pares = new ArrayList<>();
+        long evaluados = 0;
+        for (int i = desde; i < hasta; i++) {
+            Documento a = documentos.get(miembros[i]);
+            for (int j = i + 1; j < hasta; j++) {
+                Documento b = documentos.get(miembros[j]);
+                if (primeraLlaveComun(a.llaves(), b.llaves()) != llave) {
+                    continue;
+                }
+                evaluados++;
+                Par par = puntuar(a, b, umbral);
+                if (par != null) {
+                    pares.add(par);
+                }
+            }
+        }
+        comparaciones.add(evaluados);
+        return pares;
+    }
+
+    /**
+     * @return nulo si el par no alcanza el umbral
+     */
+    private static Par puntuar(Documento a, Documento b, double umbral) {
+        double telefono = 0;
+        for (String ta : new String[]{a.telefono(), a.telefonoSecundario()}) {
+            for (String tb : new String[]{b.telefono(), b.telefonoSecundario()}) {
+                telefono = Math.max(telefono, similitudTelefono(ta, tb));
+            }
+        }
+
+        double rfc = a.rfc() != null && a.rfc().equals(b.rfc()) ? 0.95 : 0;
+
+        double email = 0;
+        if (a.email() != null && a.email().equals(b.email())) {
+            email = 1;
+        } else if (a.emailLocal() != null && a.emailLocal().equals(b.emailLocal())) {
+            email = 0.85;
+        } else if (a.emailLocal() != null && b.emailLocal() != null
+                && maximo(Math.max(Math.max(telefono, rfc), EMAIL_PARECIDO)) >= umbral
+                && jaroWinkler(a.emailLocal(), b.emailLocal()) >= NOMBRE_COINCIDENTE) {
+            email = EMAIL_PARECIDO;
+        }
+
+        // La mayoría de los pares de un bloque no comparte contacto: se descartan sin comparar nombres
+        double contacto = Math.max(Math.max(telefono, email), rfc);
+        if (maximo(contacto) < umbral) {
+            return null;
+        }
+
+        double nombre = jaroWinkler(a.nombre(), b.nombre());
+        double puntaje = nombre * maximo(contacto);
+        if (puntaje < umbral) {
+            return null;
+        }
+
+        StringJoiner coincidencias = new StringJoiner(",");
+        if (nombre >= NOMBRE_COINCIDENTE) {
+            coincidencias.add("NOMBRE");
+        }
+        if (telefono > 0) {
+            coincidencias.add("TELEFONO");
+        }
+        if (email > 0) {
+            coincidencias.add("EMAIL");
+        }
+        if (rfc > 0) {
+            coincidencias.add("RFC");
+        }
+
+        long menor = Math.min(a.id(), b.id());
+        long mayor = Math.max(a.id(), b.id());
+        return new Par(menor, mayor, Math.round(puntaje * 10_000) / 10_000.0, coincidencias.toString());
+    }
+
+    /**
+     * Puntaje de un par con nombres idénticos y esa coincidencia de contacto
+     */
+    private static double maximo(double contacto) {
+        return BASE_NOMBRE + (1 - BASE_NOMBRE) * contacto;
+    }
+
+    /**
+     * 1 si coinciden los últimos 10 dígitos, 0.7 si solo el número local (7 dígitos)
+     */
+    static double similitudTelefono(String a, String b) {
+        if (a == null || b == null) {
+            return 0;
+        }
+        if (a.equals(b)) {
+            return 1;
+        }
+        if (a.length() >= DIGITOS_TELEFONO_LOCAL && b.length() >= DIGITOS_TELEFONO_LOCAL
+                && a.endsWith(b.substring(b.length() - DIGITOS_TELEFONO_LOCAL))) {
+            return 0.7;
+        }
+        return 0;
+    }
+
+    private static int primeraLlaveComun(int[] a, int[] b) {
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                return a[i];
+            }
+            if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param identifica false para las llaves de bloques omitidos: ese teléfono o email lo
+     *                   comparten demasiados clientes para tomarlo como coincidencia
+     */
+    private static Documento documento(long id, Campos campos, int[] llaves, Predicate<String> identifica) {
+        return new Documento(id,
+                campos.nombre() + " " + campos.apellido(),
+                siIdentifica(campos.telefono(), "T", identifica),
+                siIdentifica(campos.telefonoSecundario(), "T", identifica),
+                campos.email(),
+                siIdentifica(campos.emailLocal(), "E", identifica),
+                campos.rfc(),
+                llaves);
+    }
+
+    private static Campos campos(Ficha ficha) {
+        String email = ficha.email() == null || ficha.email().isBlank()
+                ? null : ficha.email().trim().toLowerCase(Locale.ROOT);
+        return new Campos(normalizar(ficha.nombre()), normalizar(ficha.apellido()),
+                telefono(ficha.telefono()), telefono(ficha.telefonoSecundario()),
+                email, emailLocal(email), rfc(ficha.rfc()));
+    }
+
+    private static String siIdentifica(String valor, String tipo, Predicate<String> identifica) {
+        return valor != null && identifica.test(tipo + valor) ? valor : null;
+    }
+
+    /**
+     * Llaves de bloque de un cliente, con el prefijo de su tipo
+     */
+    static String[] llaves(Ficha ficha) {
+        return llaves(campos(ficha));
+    }
+
+    private static String[] llaves(Campos campos) {
+        List<String> llaves = new ArrayList<>(5);
+        if (campos.telefono() != null) {
+            llaves.add("T" + campos.telefono());
+        }
+        if (campos.telefonoSecundario() != null && !campos.telefonoSecundario().equals(campos.telefono())) {
+            llaves.add("T" + campos.telefonoSecundario());
+        }
+        if (campos.emailLocal() != null) {
+            llaves.add("E" + campos.emailLocal());
+        }
+        String nombre = codigoFonetico(palabra(campos.nombre(), 0));
+        String apellido = codigoFonetico(palabra(campos.apellido(), 0));
+        if (!nombre.isEmpty() && !apellido.isEmpty()) {
+            // Con el segundo apellido los nombres comunes forman bloques mucho más chicos
+            String segundo = codigoFonetico(palabra(campos.apellido(), 1));
+            llaves.add("F" + nombre + "|" + apellido + (segundo.isEmpty() ? "" : "|" + segundo));
+        }
+        if (campos.rfc() != null) {
+            llaves.add("R" + campos.rfc());
+        }
+        return llaves.toArray(String[]::new);
+    }
+
+    /**
+     * Minúsculas, sin acentos y con espacios simples, como ClienteBusquedaRepository.Termino
+     * pero sin expresiones regulares: se aplica a cada cliente del tenant
+     */
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String descompuesto = Normalizer.normalize(texto, Normalizer.Form.NFD);
+        StringBuilder normalizado = new StringBuilder(descompuesto.length());
+        boolean espacio = false;
+        for (int i = 0; i < descompuesto.length(); i++) {
+            char c = descompuesto.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                espacio = !normalizado.isEmpty();
+                continue;
+            }
+            if (espacio) {
+                normalizado.append(' ');
+                espacio = false;
+            }
+            normalizado.append(Character.toLowerCase(c));
+        }
+        return normalizado.toString();
+    }
+
+    /**
+     * Últimos 10 dígitos; nulo si tiene menos de 7 (no identifica a nadie)
+     */
+    static String telefono(String telefono) {
+        if (telefono == null) {
+            return null;
+        }
+        StringBuilder digitos = new StringBuilder(telefono.length());
+        for (int i = 0; i < telefono.length(); i++) {
+            char c = telefono.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digitos.append(c);
+            }
+        }
+        if (digitos.length() < DIGITOS_TELEFONO_LOCAL) {
+            return null;
+        }
+        return digitos.substring(Math.max(0, digitos.length() - DIGITOS_TELEFONO));
+    }
+
+    /**
+     * Parte local del email (ya en minúsculas) sin puntos ni "+etiqueta"; nulo si es muy corta
+     */
+    static String emailLocal(String email) {
+        if (email == null) {
+            return null;
+        }
+        int arroba = email.indexOf('@');
+        if (arroba <= 0) {
+            return null;
+        }
+        String local = email.substring(0, arroba);
+        int etiqueta = local.indexOf('+');
+        if (etiqueta >= 0) {
+            local = local.substring(0, etiqueta);
+        }
+        local = local.replace(".", "");
+        return local.length() >= 3 ? local : null;
+    }
+
+    private static String rfc(String rfc) {
+        if (rfc == null) {
+            return null;
+        }
+        StringBuilder alfanumerico = new StringBuilder(LONGITUD_RFC);
+        for (int i = 0; i < rfc.length() && alfanumerico.length() < LONGITUD_RFC; i++) {
+            char c = Character.toUpperCase(rfc.charAt(i));
+            if ((c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '&' || c == 'Ñ') {
+                alfanumerico.append(c);
+            }
+        }
+        return alfanumerico.length() == LONGITUD_RFC ? alfanumerico.toString() : null;
+    }
+
+    /**
+     * Palabra en la posición indicada de un texto normalizado; vacía si no existe
+     */
+    private static String palabra(String texto, int posicion) {
+        String[] palabras = texto.split(" ");
+        return posicion < palabras.length ? palabras[posicion] : "";
+    }
+
+    /**
+     * Código fonético en español de una palabra sin acentos: las consonantes que suenan igual
+     * comparten letra (b/v/w, c/k/q, c/s/z ante e-i, g/j ante e-i, ll/y), la h y las vocales se
+     * omiten y las repetidas se cuentan una vez. "Hernández" y "Ernandes" dan RNDS.
+     */
+    static String codigoFonetico(String palabra) {
+        StringBuilder codigo = new StringBuilder(LONGITUD_FONETICA);
+        String texto = palabra.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < texto.length() && codigo.length() < LONGITUD_FONETICA; i++) {
+            char letra = texto.charAt(i);
+            char siguiente = i + 1 < texto.length() ? texto.charAt(i + 1) : ' ';
+            char sonido = switch (letra) {
+                case 'b', 'v', 'w' -> 'B';
+                case 'c' -> {
+                    if (siguiente == 'h') {
+                        i++;
+                        yield 'C';
+                    }
+                    yield siguiente == 'e' || siguiente == 'i' ? 'S' : 'K';
+                }
+                case 'k', 'q' -> 'K';
+                case 's', 'z' -> 'S';
+                case 'g' -> siguiente == 'e' || siguiente == 'i' ? 'J' : 'G';
+                case 'j' -> 'J';
+                case 'l' -> {
+                    if (siguiente == 'l') {
+                        i++;
+                        yield 'Y';
+                    }
+                    yield 'L';
+                }
+                case 'y' -> 'Y';
+                case 'd', 'f', 'm', 'n', 'p', 'r', 't', 'x' -> Character.toUpperCase(letra);
+                default -> ' '; // vocales, h y otros caracteres
+            };
+            if (sonido != ' ' && (codigo.isEmpty() || codigo.charAt(codigo.length() - 1) != sonido)) {
+                codigo.append(sonido);
+            }
+        }
+        return codigo.toString();
+    }
+
+    /**
+     * Similitud Jaro-Winkler entre 0 y 1
+     */
+    static double jaroWinkler(String a, String b) {
+        if (Objects.equals(a, b)) {
+            return 1;
+        }
+        if (a == null || b == null || a.isEmpty() || b.isEmpty()) {
+            return 0;
+        }
+        int ventana = Math.max(0, Math.max(a.length(), b.length()) / 2 - 1);
+        boolean[] usadosA = new boolean[a.length()];
+        boolean[] usadosB = new boolean[b.length()];
+
+        int coincidencias = 0;
+        for (int i = 0; i < a.length(); i++) {
+            int desde = Math.max(0, i - ventana);
+            int hasta = Math.min(b.length() - 1, i + ventana);
+            for (int j = desde; j <= hasta; j++) {
+                if (!usadosB[j] && a.charAt(i) == b.charAt(j)) {
+                    usadosA[i] = true;
+                    usadosB[j] = true;
+                    coincidencias++;
+                    break;
+                }
+            }
+        }
+        if (coincidencias == 0) {
+            return 0;
+        }
+
+        int transposiciones = 0;
+        int k = 0;
+        for (int i = 0; i < a.length(); i++) {
+            if (usadosA[i]) {
+                while (!usadosB[k]) {
+                    k++;
+                }
+                if (a.charAt(i) != b.charAt(k)) {
+                    transposiciones++;
+                }
+                k++;
+            }
+        }
+
+        double m = coincidencias;
+        double jaro = (m / a.length() + m / b.length() + (m - transposiciones / 2.0) / m) / 3;
+
+        int prefijo = 0;
+        while (prefijo < Math.min(4, Math.min(a.length(), b.length())) && a.charAt(prefijo) == b.charAt(prefijo)) {
+            prefijo++;
+        }
+        return jaro + prefijo * 0.1 * (1 - jaro);
+    }
+}
@@ -0,0 +1,465 @@
+package com.inmobiliaria.terrenos.infrastructure.busqueda;
+
+import com.inmobiliaria.terrenos.application.dto.cliente.ClienteSugerenciaResponse;
+import com.inmobiliaria.terrenos.domain.enums.EstadoCliente;
+import com.inmobiliaria.terrenos.infrastructure.persistence.ClienteBusquedaRepository;
+import com.inmobiliaria.terrenos.infrastructure.persistence.ClienteBusquedaRepository.Termino;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice de búsqueda en memoria de los clientes de una empresa.
+ *
+ * Cada cliente ocupa una posición (slot) y cada trigrama de su nombre sin acentos, email,
+ * dígitos del teléfono y RFC apunta a la lista ordenada de slots que lo contienen. El texto de
+ * cada campo se indexa con un espacio inicial, así " jo" encuentra las palabras que empiezan
+ * con "jo" (búsquedas de 2 caracteres).
+ *
+ * Una búsqueda intersecta las listas de los trigramas del texto empezando por la más corta y
+ * verifica los candidatos contra los campos, con el mismo orden de relevancia que
+ * ClienteBusquedaRepository:
+ * - 0: el nombre empieza con el texto
+ * - 1: una palabra del nombre, el email, el teléfono o el RFC empiezan con el texto
+ * - 2: lo contienen
+ * - 3: aproximada, comparten al menos UMBRAL_APROXIMADO de los trigramas del texto
+ * Dentro del rango se prefieren los nombres que el texto cubre más (en la base de datos se
+ * desempata con word_similarity; aquí es una aproximación).
+ *
+ * Las altas agregan un slot al final, de modo que las listas siguen ordenadas; las bajas y
+ * ediciones dejan el slot anterior vacío. Cuando hay muchos vacíos el índice se reporta
+ * fragmentado y la caché lo reconstruye. Es seguro entre hilos: las búsquedas comparten un
+ * candado de lectura y los cambios toman el de escritura.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+public final class IndiceClientes {
+
+    static final double UMBRAL_APROXIMADO = 0.6;
+
+    /** Si las listas a recorrer para las aproximadas suman más, el texto es demasiado común y se omiten */
+    static final int MAX_CANDIDATOS_APROXIMADOS = 50_000;
+
+    private static final int BYTES_POR_TRIGRAMA = 64;
+    private static final int BYTES_POR_CLIENTE = 400;
+
+    private static final Comparator<Resultado> RELEVANCIA = Comparator.comparingInt(Resultado::rango)
+            .thenComparing(Comparator.comparingDouble(Resultado::similitud).reversed())
+            .thenComparingLong(resultado -> resultado.documento().ficha().id());
+
+    private final ReentrantReadWriteLock candado = new ReentrantReadWriteLock();
+    private final List<Documento> documentos = new ArrayList<>();
+    private final Map<Long, Integer> slotPorCliente = new HashMap<>();
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private int vacios;
+
+    /**
+     * Campos de un cliente que se indexan y se devuelven en las sugerencias
+     */
+    public record Ficha(long id, String nombre, String apellido, String email, String telefono, String rfc,
+                        EstadoCliente estadoCliente) {
+    }
+
+    /**
+     * Ficha con los campos en la forma en que se comparan
+     */
+    private record Documento(Ficha ficha, String nombre, String email, String telefono, String rfc) {
+
+        static Documento of(Ficha ficha) {
+            return new Documento(ficha,
+                    Termino.of(ficha.nombre() + " " + ficha.apellido()).texto(),
+                    ficha.email() != null ? ficha.email().toLowerCase(Locale.ROOT) : "",
+                    ficha.telefono() != null ? ficha.telefono().replaceAll("[^0-9]", "") : "",
+                    ficha.rfc() != null ? ficha.rfc().toUpperCase(Locale.ROOT) : "");
+        }
+
+        /**
+         * Caracteres de los campos (Latin-1, un byte cada uno) más los objetos y encabezados
+         */
+        long bytes() {
+            return BYTES_POR_CLIENTE + ficha.nombre().length() + ficha.apellido().length()
+                    + (ficha.email() != null ? 2L * ficha.email().length() : 0)
+                    + (ficha.telefono() != null ? ficha.telefono().length() : 0)
+                    + 2L * rfc.length() + nombre.length() + telefono.length();
+        }
+    }
+
+    private record Resultado(Documento documento, int rango, double similitud) {
+    }
+
+    /**
+     * Lista de slots creciente; al terminar la construcción se recorta a su tamaño
+     */
+    static final class Postings {
+
+        private int[] slots = new int[4];
+        private int size;
+
+        void agregar(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size + (size >> 1) + 1);
+            }
+            slots[size++] = slot;
+        }
+
+        boolean contiene(int slot) {
+            return Arrays.binarySearch(slots, 0, size, slot) >= 0;
+        }
+
+        void compactar() {
+            if (slots.length > size) {
+                slots = Arrays.copyOf(slots, size);
+            }
+        }
+
+        int size() {
+            return size;
+        }
+    }
+
+    private IndiceClientes() {
+    }
+
+    public static IndiceClientes of(Collection<Ficha> fichas) {
+        IndiceClientes indice = new IndiceClientes();
+        fichas.forEach(indice::indexar);
+        indice.postings.values().forEach(Postings::compactar);
+        return indice;
+    }
+
+    /**
+     * Agrega el cliente o reemplaza su versión anterior
+     */
+    public void guardar(Ficha ficha) {
+        candado.writeLock().lock();
+        try {
+            vaciar(ficha.id());
+            indexar(ficha);
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    public void quitar(long clienteId) {
+        candado.writeLock().lock();
+        try {
+            vaciar(clienteId);
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Clientes que coinciden con el texto, del más al menos relevante
+     */
+    public List<ClienteSugerenciaResponse> buscar(String texto, int limite) {
+        Termino termino = Termino.of(texto);
+        if (!termino.buscable()) {
+            return List.of();
+        }
+        int maximo = Math.clamp(limite, 1, ClienteBusquedaRepository.LIMITE_MAXIMO);
+
+        candado.readLock().lock();
+        try {
+            PriorityQueue<Resultado> mejores = new PriorityQueue<>(RELEVANCIA.reversed());
+            Set<Integer> vistos = new HashSet<>();
+
+            for (int slot : interseccion(trigramasConsulta(termino.texto()))) {
+                evaluar(slot, termino, mejores, vistos, maximo);
+            }
+            boolean digitosAparte = termino.digitos().length() >= ClienteBusquedaRepository.LONGITUD_SUBCADENA
+                    && !termino.digitos().equals(termino.texto());
+            if (digitosAparte) {
+                for (int slot : interseccion(trigramasConsulta(termino.digitos()))) {
+                    evaluar(slot, termino, mejores, vistos, maximo);
+                }
+            }
+            if (termino.texto().length() >= ClienteBusquedaRepository.LONGITUD_APROXIMADA) {
+                agregarAproximados(termino, mejores, vistos, maximo);
+            }
+
+            List<Resultado> ordenados = new ArrayList<>(mejores);
+            ordenados.sort(RELEVANCIA);
+            return ordenados.stream().map(IndiceClientes::toResponse).toList();
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * Clientes indexados (sin contar los slots vacíos)
+     */
+    public int size() {
+        candado.readLock().lock();
+        try {
+            return documentos.size() - vacios;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * Más de una cuarta parte de los slots (y al menos 1,000) quedaron vacíos por ediciones y bajas
+     */
+    public boolean fragmentado() {
+        candado.readLock().lock();
+        try {
+            return vacios > Math.max(1_000, documentos.size() / 4);
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * Memoria aproximada del índice: listas, tabla de trigramas y campos de los clientes
+     */
+    public long bytesEstimados() {
+        candado.readLock().lock();
+        try {
+            long bytes = 0;
+            for (Postings lista : postings.values()) {
+                bytes += BYTES_POR_TRIGRAMA + 4L * lista.slots.length;
+            }
+            for (Documento documento : documentos) {
+                bytes += documento != null ? documento.bytes() : 8;
+            }
+            return bytes;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    private void indexar(Ficha ficha) {
+        Documento documento = Documento.of(ficha);
+        int slot = documentos.size();
+        documentos.add(documento);
+        slotPorCliente.put(ficha.id(), slot);
+
+        for (long trigrama : trigramasDocumento(documento)) {
+            postings.computeIfAbsent(trigrama, t -> new Postings()).agregar(slot);
+        }
+    }
+
+    /**
+     * Deja vacío el slot del cliente; sus entradas en las listas se ignoran al buscar
+     */
+    private void vaciar(long clienteId) {
+        Integer slot = slotPorCliente.remove(clienteId);
+        if (slot != null) {
+            documentos.set(slot, null);
+            vacios++;
+        }
+    }
+
+    private void evaluar(int slot, Termino termino, PriorityQueue<Resultado> mejores, Set<Integer> vistos, int maximo) {
+        Documento documento = documentos.get(slot);
+        if (documento == null || vistos.contains(slot)) {
+            return;
+        }
+        // Los que no coinciden aún pueden entrar como aproximados
+        int rango = rango(documento, termino);
+        if (rango >= 0) {
+            vistos.add(slot);
+            ofrecer(mejores, new Resultado(documento, rango, cobertura(documento, termino)), maximo);
+        }
+    }
+
+    /**
+     * Candidatos que comparten al menos UMBRAL_APROXIMADO de los trigramas del texto.
+     *
+     * Un cliente con k de n trigramas aparece en al menos una de las n - k + 1 listas más
+     * cortas, así que basta recorrer esas y contar en las demás por búsqueda binaria.
+     */
+    private void agregarAproximados(Termino termino, PriorityQueue<Resultado> mejores, Set<Integer> vistos, int maximo) {
+        long[] trigramas = trigramasConsulta(termino.texto());
+        int n = trigramas.length;
+        if (n < 2) {
+            return;
+        }
+        int requeridos = (int) Math.ceil(UMBRAL_APROXIMADO * n);
+        Postings[] listas = new Postings[n];
+        for (int i = 0; i < n; i++) {
+            listas[i] = postings.getOrDefault(trigramas[i], new Postings());
+        }
+        Arrays.sort(listas, Comparator.comparingInt(Postings::size));
+
+        int cortas = n - requeridos + 1;
+        long total = 0;
+        for (int i = 0; i < cortas; i++) {
+            total += listas[i].size();
+        }
+        if (total > MAX_CANDIDATOS_APROXIMADOS) {
+            return;
+        }
+
+        for (int i = 0; i < cortas; i++) {
+            for (int j = 0; j < listas[i].size; j++) {
+                int slot = listas[i].slots[j];
+                if (documentos.get(slot) == null || vistos.contains(slot)) {
+                    continue;
+                }
+                int coincidencias = 0;
+                for (Postings lista : listas) {
+                    if (lista.contiene(slot)) {
+                        coincidencias++;
+                    }
+                }
+                if (coincidencias >= requeridos) {
+                    vistos.add(slot);
+                    ofrecer(mejores, new Resultado(documentos.get(slot), 3, (double) coincidencias / n), maximo);
+                }
+            }
+        }
+    }
+
+    /**
+     * Slots presentes en todas las listas, recorriendo la más corta
+     */
+    private int[] interseccion(long[] trigramas) {
+        Postings[] listas = new Postings[trigramas.length];
+        for (int i = 0; i < trigramas.length; i++) {
+            listas[i] = postings.get(trigramas[i]);
+            if (listas[i] == null) {
+                return new int[0];
+            }
+        }
+        Arrays.sort(listas, Comparator.comparingInt(Postings::size));
+
+        int[] resultado = new int[listas[0].size];
+        int size = 0;
+        candidatos:
+        for (int j = 0; j < listas[0].size; j++) {
+            int slot = listas[0].slots[j];
+            for (int i = 1; i < listas.length; i++) {
+                if (!listas[i].contiene(slot)) {
+                    continue candidatos;
+                }
+            }
+            resultado[size++] = slot;
+        }
+        return Arrays.copyOf(resultado, size);
+    }
+
+    /**
+     * Mismo orden de relevancia que ClienteBusquedaRepository; -1 si el candidato no coincide
+     */
+    static int rango(String nombre, String email, String telefono, String rfc, Termino termino) {
+        String texto = termino.texto();
+        boolean porTelefono = termino.digitos().length() >= ClienteBusquedaRepository.LONGITUD_SUBCADENA;
+        boolean porRfc = termino.alfanumerico().length() >= ClienteBusquedaRepository.LONGITUD_SUBCADENA
+                && !texto.contains(" ");
+
+        if (nombre.startsWith(texto)) {
+            return 0;
+        }
+        if (nombre.contains(" " + texto) || email.startsWith(texto)
+                || (porTelefono && telefono.startsWith(termino.digitos()))
+                || (porRfc && rfc.startsWith(termino.alfanumerico()))) {
+            return 1;
+        }
+        if (texto.length() >= ClienteBusquedaRepository.LONGITUD_SUBCADENA
+                && (nombre.contains(texto) || email.contains(texto)
+                || (porTelefono && telefono.contains(termino.digitos())))) {
+            return 2;
+        }
+        return -1;
+    }
+
+    private static int rango(Documento documento, Termino termino) {
+        return rango(documento.nombre(), documento.email(), documento.telefono(), documento.rfc(), termino);
+    }
+
+    private static double cobertura(Documento documento, Termino termino) {
+        return Math.min(1.0, (double) termino.texto().length() / Math.max(1, documento.nombre().length()));
+    }
+
+    private static void ofrecer(PriorityQueue<Resultado> mejores, Resultado resultado, int maximo) {
+        mejores.add(resultado);
+        if (mejores.size() > maximo) {
+            mejores.poll();
+        }
+    }
+
+    /**
+     * Trigramas distintos de los campos del cliente, cada campo con un espacio inicial
+     */
+    static long[] trigramasDocumento(String... campos) {
+        long[] trigramas = new long[16];
+        int size = 0;
+        for (String campo : campos) {
+            if (campo.isEmpty()) {
+                continue;
+            }
+            String texto = " " + campo;
+            for (int i = 0; i + 3 <= texto.length(); i++) {
+                if (size == trigramas.length) {
+                    trigramas = Arrays.copyOf(trigramas, size * 2);
+                }
+                trigramas[size++] = trigrama(texto, i);
+            }
+        }
+        return distintos(trigramas, size);
+    }
+
+    private static long[] trigramasDocumento(Documento documento) {
+        return trigramasDocumento(documento.nombre(), documento.email(), documento.telefono(),
+                documento.rfc().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Trigramas distintos del texto buscado; con 2 caracteres, el de inicio de palabra
+     */
+    static long[] trigramasConsulta(String texto) {
+        if (texto.length() < ClienteBusquedaRepository.LONGITUD_SUBCADENA) {
+            return new long[]{trigrama(" " + texto, 0)};
+        }
+        long[] trigramas = new long[texto.length() - 2];
+        for (int i = 0; i < trigramas.length; i++) {
+            trigramas[i] = trigrama(texto, i);
+        }
+        return distintos(trigramas, trigramas.length);
+    }
+
+    private static long trigrama(String texto, int inicio) {
+        return ((long) texto.charAt(inicio) << 32) | ((long) texto.charAt(inicio + 1) << 16) | texto.charAt(inicio + 2);
+    }
+
+    private static long[] distintos(long[] valores, int size) {
+        long[] ordenados = Arrays.copyOf(valores, size);
+        Arrays.sort(ordenados);
+        int unicos = 0;
+        for (int i = 0; i < ordenados.length; i++) {
+            if (i == 0 || ordenados[i] != ordenados[i - 1]) {
+                ordenados[unicos++] = ordenados[i];
+            }
+        }
+        return Arrays.copyOf(ordenados, unicos);
+    }
+
+    private static ClienteSugerenciaResponse toResponse(Resultado resultado) {
+        Ficha ficha = resultado.documento().ficha();
+        return ClienteSugerenciaResponse.builder()
+                .id(ficha.id())
+                .nombre(ficha.nombre())
+                .apellido(ficha.apellido())
+                .nombreCompleto(ficha.nombre() + " " + ficha.apellido())
+                .email(ficha.email())
+                .telefono(ficha.telefono())
+                .rfc(ficha.rfc())
+                .estadoCliente(ficha.estadoCliente())
+                .rango(resultado.rango())
+                .similitud(resultado.similitud())
+                .build();
+    }
+}
@@ -0,0 +1,229 @@
+package com.inmobiliaria.terrenos.infrastructure.busqueda;
+
+import com.inmobiliaria.terrenos.application.event.ClienteModificadoEvent;
+import com.inmobiliaria.terrenos.application.event.ClientesImportadosEvent;
+import com.inmobiliaria.terrenos.domain.repository.ClienteRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Caché opcional de índices de búsqueda de clientes por empresa (app.clientes.busqueda.indice).
+ *
+ * A diferencia de las otras cachés, la consulta nunca espera la construcción: si el índice
+ * del tenant no está listo se inicia en segundo plano y el autocompletado responde con SQL
+ * (ClienteBusquedaRepository). Las siguientes teclas ya se responden desde memoria.
+ *
+ * - Los cambios de ClienteService llegan tras el commit ({@link ClienteModificadoEvent}) y se
+ *   aplican al índice; si llegan mientras se construye, esa construcción se descarta.
+ * - Una importación masiva ({@link ClientesImportadosEvent}) descarta el índice del tenant.
+ * - El TTL cubre cambios de otra instancia o hechos directamente en SQL.
+ * - Un índice sin búsquedas durante el tiempo de inactividad se descarta.
+ * - La memoria de todos los índices se limita a max-memoria: se descartan los menos usados, y
+ *   una empresa cuyo índice solo no cabe se atiende con SQL hasta que venza el TTL.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IndiceClientesCache {
+
+    private final ClienteRepository clienteRepository;
+
+    private final Map<Long, Entrada> indices = new ConcurrentHashMap<>();
+    private final ExecutorService virtualThreads =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("clientes-indice-", 0).factory());
+
+    @Value("${app.clientes.busqueda.indice.habilitado:false}")
+    private boolean habilitado;
+
+    @Value("${app.clientes.busqueda.indice.ttl:30m}")
+    private Duration ttl;
+
+    @Value("${app.clientes.busqueda.indice.inactividad:20m}")
+    private Duration inactividad;
+
+    @Value("${app.clientes.busqueda.indice.max-memoria:256MB}")
+    private DataSize maxMemoria;
+
+    /**
+     * indice queda en null si el índice de la empresa no cabe en la memoria permitida
+     */
+    private static final class Entrada {
+
+        private final CompletableFuture<IndiceClientes> indice = new CompletableFuture<>();
+        private final long creadoNanos = System.nanoTime();
+        private volatile long ultimoUsoNanos = creadoNanos;
+        private volatile long bytes;
+    }
+
+    /**
+     * Índice del tenant si ya está construido. Si no, inicia la construcción y devuelve vacío
+     * para que la búsqueda se haga en la base de datos.
+     */
+    public Optional<IndiceClientes> obtenerSiListo(Long tenantId) {
+        if (!habilitado) {
+            return Optional.empty();
+        }
+        Entrada entrada = indices.get(tenantId);
+        if (entrada != null && System.nanoTime() - entrada.creadoNanos > ttl.toNanos()) {
+            indices.remove(tenantId, entrada);
+            entrada = null;
+        }
+        if (entrada == null) {
+            iniciarConstruccion(tenantId);
+            return Optional.empty();
+        }
+
+        entrada.ultimoUsoNanos = System.nanoTime();
+        if (!entrada.indice.isDone() || entrada.indice.isCompletedExceptionally()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(entrada.indice.join());
+    }
+
+    /**
+     * Descarta el índice del tenant; la siguiente búsqueda lo reconstruye.
+     */
+    public void invalidar(Long tenantId) {
+        if (indices.remove(tenantId) != null) {
+            log.debug("Índice de clientes del tenant {} invalidado", tenantId);
+        }
+    }
+
+    /**
+     * Aplica el alta, edición o baja al índice del tenant, si está en memoria.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarCliente(ClienteModificadoEvent evento) {
+        Entrada entrada = indices.get(evento.tenantId());
+        if (entrada == null) {
+            return;
+        }
+        if (!entrada.indice.isDone()) {
+            // La construcción en curso pudo leer la versión anterior del cliente
+            indices.remove(evento.tenantId(), entrada);
+            return;
+        }
+        IndiceClientes indice = entrada.indice.getNow(null);
+        if (indice == null) {
+            return;
+        }
+
+        if (evento.eliminado()) {
+            indice.quitar(evento.clienteId());
+        } else {
+            indice.guardar(new IndiceClientes.Ficha(evento.clienteId(), evento.nombre(), evento.apellido(),
+                    evento.email(), evento.telefono(), evento.rfc(), evento.estadoCliente()));
+        }
+        if (indice.fragmentado()) {
+            indices.remove(evento.tenantId(), entrada);
+        }
+    }
+
+    /**
+     * Tras una importación masiva es más barato reconstruir el índice que aplicar cada alta.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alImportarClientes(ClientesImportadosEvent evento) {
+        invalidar(evento.tenantId());
+    }
+
+    /**
+     * Descarta los índices sin búsquedas recientes y los que hacen exceder la memoria permitida.
+     * Lo invoca IndiceClientesScheduler.
+     */
+    public void descartarInactivos() {
+        long ahora = System.nanoTime();
+        indices.forEach((tenantId, entrada) -> {
+            if (ahora - entrada.ultimoUsoNanos > inactividad.toNanos() && indices.remove(tenantId, entrada)) {
+                log.debug("Índice de clientes del tenant {} descartado por inactividad", tenantId);
+                return;
+            }
+            // Las altas y ediciones hacen crecer el índice después de construido
+            IndiceClientes indice = entrada.indice.isDone() && !entrada.indice.isCompletedExceptionally()
+                    ? entrada.indice.join() : null;
+            if (indice != null) {
+                entrada.bytes = indice.bytesEstimados();
+            }
+        });
+        liberarMemoria();
+    }
+
+    private void iniciarConstruccion(Long tenantId) {
+        Entrada propia = new Entrada();
+        if (indices.putIfAbsent(tenantId, propia) != null) {
+            return;
+        }
+        virtualThreads.execute(() -> {
+            try {
+                IndiceClientes indice = construir(tenantId);
+                long bytes = indice.bytesEstimados();
+                if (bytes > maxMemoria.toBytes()) {
+                    log.warn("Índice de clientes del tenant {} ({} MB) excede la memoria permitida; se usa SQL",
+                            tenantId, bytes >> 20);
+                    propia.indice.complete(null);
+                    return;
+                }
+                propia.bytes = bytes;
+                propia.indice.complete(indice);
+                liberarMemoria();
+            } catch (RuntimeException e) {
+                log.error("Error construyendo el índice de clientes del tenant {}", tenantId, e);
+                indices.remove(tenantId, propia);
+                propia.indice.completeExceptionally(e);
+            }
+        });
+    }
+
+    private IndiceClientes construir(Long tenantId) {
+        long inicio = System.nanoTime();
+        List<IndiceClientes.Ficha> fichas = clienteRepository.findListado(tenantId).stream()
+                .map(c -> new IndiceClientes.Ficha(c.id(), c.nombre(), c.apellido(), c.email(), c.telefono(), c.rfc(),
+                        c.estadoCliente()))
+                .toList();
+        IndiceClientes indice = IndiceClientes.of(fichas);
+
+        log.debug("Índice de clientes del tenant {} construido: {} clientes en {} ms",
+                tenantId, indice.size(), (System.nanoTime() - inicio) / 1_000_000);
+        return indice;
+    }
+
+    /**
+     * Si los índices construidos suman más de max-memoria se descartan los de uso más antiguo.
+     */
+    private void liberarMemoria() {
+        long total = indices.values().stream().mapToLong(e -> e.bytes).sum();
+        if (total <= maxMemoria.toBytes()) {
+            return;
+        }
+        List<Map.Entry<Long, Entrada>> porUso = indices.entrySet().stream()
+                .filter(e -> e.getValue().bytes > 0)
+                .sorted(Comparator.comparingLong(e -> e.getValue().ultimoUsoNanos))
+                .toList();
+        for (Map.Entry<Long, Entrada> e : porUso) {
+            if (total <= maxMemoria.toBytes()) {
+                break;
+            }
+            if (indices.remove(e.getKey(), e.getValue())) {
+                total -= e.getValue().bytes;
+                log.debug("Índice de clientes del tenant {} descartado por memoria", e.getKey());
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.inmobiliaria.terrenos.infrastructure.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Agrupación de consultas idénticas (single-flight) con micro-caché del resultado.
+ *
+ * Las peticiones concurrentes con la misma llave (endpoint, tenant, parámetros) y la misma
+ * versión de datos comparten un solo cálculo: la primera lo ejecuta y las demás esperan su
+ * resultado. El resultado se reutiliza durante el TTL indicado mientras la versión no cambie;
+ * una versión mayor reemplaza la entrada, así cada llave guarda un solo resultado.
+ *
+ * Si el cálculo falla, todas las peticiones que esperaban reciben la misma excepción y no se
+ * guarda nada. Los resultados se comparten entre peticiones: no deben modificarse.
+ *
+ * El cálculo se ejecuta en su propia transacción de solo lectura. {@link #obtener} debe llamarse
+ * fuera de una transacción: así solo quien calcula ocupa una conexión del pool y las peticiones
+ * que esperan su resultado no retienen ninguna.
+ *
+ * Métricas: cache.single-flight{endpoint, resultado=hit|miss|coalesced}.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Component
+@Slf4j
+public class SingleFlightCache {
+
+    private final MeterRegistry meterRegistry;
+    private final TransactionOperations transaccionLectura;
+    private final int maxEntradas;
+
+    private final Map<Llave, Entrada> entradas = new ConcurrentHashMap<>();
+
+    private record Llave(String endpoint, Long tenantId, Object parametros) {
+    }
+
+    private static final class Entrada {
+        final long version;
+        final long creadoNanos;
+        final CompletableFuture<Object> valor = new CompletableFuture<>();
+        volatile long completadoNanos;
+
+        Entrada(long version, long creadoNanos) {
+            this.version = version;
+            this.creadoNanos = creadoNanos;
+        }
+
+        boolean vigente(long ahoraNanos, long ttlNanos) {
+            return !valor.isDone() || ahoraNanos - completadoNanos <= ttlNanos;
+        }
+    }
+
+    @Autowired
+    public SingleFlightCache(MeterRegistry meterRegistry, PlatformTransactionManager transactionManager,
+                             @Value("${app.cache.single-flight.max-entradas:5000}") int maxEntradas) {
+        this(meterRegistry, soloLectura(transactionManager), maxEntradas);
+    }
+
+    /**
+     * Sin transacciones: el cálculo se ejecuta tal cual (cálculos en memoria y pruebas)
+     */
+    public SingleFlightCache(MeterRegistry meterRegistry, int maxEntradas) {
+        this(meterRegistry, TransactionOperations.withoutTransaction(), maxEntradas);
+    }
+
+    private SingleFlightCache(MeterRegistry meterRegistry, TransactionOperations transaccionLectura,
+                              int maxEntradas) {
+        this.meterRegistry = meterRegistry;
+        this.transaccionLectura = transaccionLectura;
+        this.maxEntradas = maxEntradas;
+    }
+
+    private static TransactionTemplate soloLectura(PlatformTransactionManager transactionManager) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
+
+    /**
+     * Devuelve el resultado compartido para la llave, calculándolo si no hay uno vigente.
+     *
+     * @param endpoint   nombre de la consulta (también etiqueta de las métricas)
+     * @param tenantId   tenant de la petición
+     * @param parametros parámetros de la consulta; deben implementar equals/hashCode (record, List, valor)
+     * @param version    versión de los datos; un resultado de una versión anterior no se reutiliza
+     * @param ttl        tiempo que se reutiliza un resultado ya calculado
+     * @param calculo    consulta a compartir; se ejecuta en una transacción de solo lectura
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T obtener(String endpoint, Long tenantId, Object parametros, long version, Duration ttl,
+                         Supplier<T> calculo) {
+        Llave llave = new Llave(endpoint, tenantId, parametros);
+        long ttlNanos = ttl.toNanos();
+        while (true) {
+            long ahora = System.nanoTime();
+            Entrada actual = entradas.get(llave);
+            if (actual != null && actual.version >= version && actual.vigente(ahora, ttlNanos)) {
+                contar(endpoint, actual.valor.isDone() ? "hit" : "coalesced");
+                return (T) esperar(actual.valor);
+            }
+
+            Entrada propia = new Entrada(version, ahora);
+            boolean registrada = actual == null
+                    ? entradas.putIfAbsent(llave, propia) == null
+                    : entradas.replace(llave, actual, propia);
+            if (!registrada) {
+                continue;
+            }
+            contar(endpoint, "miss");
+            liberarEspacio();
+
+            T resultado;
+            try {
+                resultado = transaccionLectura.execute(estado -> calculo.get());
+            } catch (RuntimeException | Error e) {
+                entradas.remove(llave, propia);
+                propia.valor.completeExceptionally(e);
+                throw e;
+            }
+            propia.completadoNanos = System.nanoTime();
+            propia.valor.complete(resultado);
+            return resultado;
+        }
+    }
+
+    public int size() {
+        return entradas.size();
+    }
+
+    private void contar(String endpoint, String resultado) {
+        Counter.builder("cache.single-flight")
+                .description("Consultas atendidas por la caché single-flight")
+                .tag("endpoint", endpoint)
+                .tag("resultado", resultado)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Al superar el máximo descarta las entradas terminadas más antiguas
+     */
+    private void liberarEspacio() {
+        int excedente = entradas.size() - maxEntradas;
+        if (excedente <= 0) {
+            return;
+        }
+        entradas.entrySet().stream()
+                .filter(e -> e.getValue().valor.isDone())
+                .sorted(Comparator.comparingLong(e -> e.getValue().creadoNanos))
+                .limit(excedente)
+                .toList()
+                .forEach(e -> entradas.remove(e.getKey(), e.getValue()));
+        log.debug("Caché single-flight: {} entradas tras liberar espacio", entradas.size());
+    }
+
+    private static Object esperar(CompletableFuture<Object> futuro) {
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.inmobiliaria.terrenos.infrastructure.cv;
+
+import com.inmobiliaria.terrenos.application.dto.plano.CvEngineResponse;
+import com.inmobiliaria.terrenos.application.dto.plano.CvEngineResponse.CvLote;
+import com.inmobiliaria.terrenos.config.CvEngineProperties;
+import com.inmobiliaria.terrenos.infrastructure.cv.FusionLotesTeselas.ResultadoTesela;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileSystemUtils;
+
+import java.awt.Dimension;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Análisis de planos muy grandes dividiéndolos en teselas solapadas.
+ *
+ * El motor reduce toda imagen mayor a MAX_IMAGE_DIMENSION, con lo que los lotes pequeños
+ * y sus números se pierden. Teselando se conserva la resolución original, las teselas se
+ * analizan en paralelo (respetando el bulkhead del tenant) y los contornos que cruzan
+ * bordes se fusionan del lado de Java.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CvAnalisisTeselado {
+
+    private static final String DIRECTORIO_TESELAS = "teselas";
+
+    private final CvEngineClient cvEngineClient;
+    private final PlanoTeselador teselador;
+    private final CvEngineProperties properties;
+
+    /**
+     * Indica si el plano supera el umbral de resolución a partir del cual conviene teselar.
+     */
+    public boolean requiereTeselas(Path imagen) {
+        return teselador.leerDimensiones(imagen)
+                .map(d -> Math.max(d.width, d.height) > properties.getTeselas().getUmbralPx())
+                .orElse(false);
+    }
+
+    /**
+     * Variante del análisis usada como llave de caché: cambiar la geometría de las teselas o
+     * el margen con que se fusionan los lotes de los bordes cambia el resultado.
+     */
+    public String variante() {
+        CvEngineProperties.Teselas config = properties.getTeselas();
+        return "teselas-" + config.getTamanioPx() + "-" + config.getSolapamientoPx() + "-" + config.getMargenBordePx();
+    }
+
+    /**
+     * Analiza el plano por teselas.
+     *
+     * @param directorioBase directorio raíz de uploads (compartido con el motor)
+     * @param relativePath   ruta del plano relativa a uploads
+     * @param progreso       recibe (teselas terminadas, total de teselas)
+     */
+    public CvEngineResponse analizar(Long tenantId, Path directorioBase, String relativePath,
+                                     BiConsumer<Integer, Integer> progreso) {
+        long inicio = System.nanoTime();
+        CvEngineProperties.Teselas config = properties.getTeselas();
+        Path imagen = directorioBase.resolve(relativePath);
+
+        Dimension dimensiones = teselador.leerDimensiones(imagen)
+                .orElseThrow(() -> CvEngineException.archivoRechazado(
+                        "el análisis por teselas solo admite imágenes PNG o JPG"));
+
+        String directorioRelativo = directorioPadre(relativePath) + DIRECTORIO_TESELAS + "/" + UUID.randomUUID();
+        Path directorio = directorioBase.resolve(directorioRelativo);
+
+        // Ejecutor propio del análisis: al fallar una tesela se interrumpen las demás y se espera
+        // a que terminen antes de borrar las imágenes que el motor podría estar leyendo
+        ExecutorService ejecutor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("cv-tesela-", 0).factory());
+        List<Future<ResultadoTesela>> futuros = new ArrayList<>();
+        try {
+            List<TeselaPlano> teselas = teselador.generar(imagen, directorio, directorioRelativo,
+                    config.getTamanioPx(), config.getSolapamientoPx());
+
+            CompletionService<ResultadoTesela> completadas = new ExecutorCompletionService<>(ejecutor);
+            for (TeselaPlano tesela : teselas) {
+                futuros.add(completadas.submit(() -> new ResultadoTesela(tesela,
+                        cvEngineClient.extraerLotes(tenantId, tesela.rutaRelativa(), config.getEsperaCupo()))));
+            }
+
+            List<ResultadoTesela> resultados = esperarTodas(completadas, futuros, progreso);
+            List<CvLote> lotes = FusionLotesTeselas.fusionar(resultados,
+                    dimensiones.width, dimensiones.height, config.getMargenBordePx());
+
+            CvEngineResponse respuesta = new CvEngineResponse();
+            respuesta.setArchivo_procesado(relativePath);
+            respuesta.setLotes(lotes);
+            respuesta.setTotal_lotes_detectados(lotes.size());
+            respuesta.setTiempo_procesamiento_ms((System.nanoTime() - inicio) / 1_000_000.0);
+
+            log.info("[Tenant {}] Plano {} analizado en {} teselas: {} lotes tras fusionar",
+                    tenantId, relativePath, teselas.size(), lotes.size());
+            return respuesta;
+
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudieron generar las teselas de " + relativePath, e);
+        } finally {
+            if (detener(ejecutor, futuros)) {
+                eliminarTeselas(directorio);
+            } else {
+                log.warn("[Tenant {}] Teselas de {} aún en análisis; se conservan en {}",
+                        tenantId, relativePath, directorio);
+            }
+        }
+    }
+
+    /**
+     * Espera las teselas en el orden en que terminan. Ante la primera falla se deja de esperar
+     * y se propaga el error original (archivo rechazado, motor caído, cupo agotado); el
+     * llamador cancela las demás.
+     */
+    private static List<ResultadoTesela> esperarTodas(CompletionService<ResultadoTesela> completadas,
+                                                      List<Future<ResultadoTesela>> futuros,
+                                                      BiConsumer<Integer, Integer> progreso) {
+        try {
+            for (int terminadas = 1; terminadas <= futuros.size(); terminadas++) {
+                completadas.take().get();
+                progreso.accept(terminadas, futuros.size());
+            }
+            List<ResultadoTesela> resultados = new ArrayList<>(futuros.size());
+            for (Future<ResultadoTesela> futuro : futuros) {
+                resultados.add(futuro.get());
+            }
+            return resultados;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Falló el análisis de una tesela", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw CvEngineException.noDisponible("El análisis fue interrumpido");
+        }
+    }
+
+    /**
+     * Cancela con interrupción las teselas pendientes (en hilos virtuales la interrupción
+     * aborta la espera del bulkhead y la lectura del socket) y espera a que terminen, como
+     * máximo el timeout de lectura del motor. Devuelve false si alguna sigue en curso.
+     */
+    private boolean detener(ExecutorService ejecutor, List<Future<ResultadoTesela>> futuros) {
+        futuros.forEach(f -> f.cancel(true));
+        ejecutor.shutdownNow();
+        try {
+            return ejecutor.awaitTermination(properties.getReadTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static String directorioPadre(String relativePath) {
+        int separador = relativePath.lastIndexOf('/');
+        return separador >= 0 ? relativePath.substring(0, separador + 1) : "";
+    }
+
+    private static void eliminarTeselas(Path directorio) {
+        try {
+            FileSystemUtils.deleteRecursively(directorio);
+        } catch (IOException e) {
+            log.warn("No se pudieron eliminar las teselas temporales {}: {}", directorio, e.getMessage());
+        }
+    }
+}
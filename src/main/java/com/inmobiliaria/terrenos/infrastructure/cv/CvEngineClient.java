@@ -0,0 +1,269 @@
+package com.inmobiliaria.terrenos.infrastructure.cv;
+
+import com.inmobiliaria.terrenos.application.dto.plano.CvEngineResponse;
+import com.inmobiliaria.terrenos.config.CvEngineProperties;
+import com.inmobiliaria.terrenos.infrastructure.resilience.CircuitBreaker;
+import com.inmobiliaria.terrenos.infrastructure.resilience.TenantBulkhead;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cliente dedicado del CV Engine.
+ *
+ * - Pool de conexiones HTTP (Apache HttpClient 5) con timeouts explícitos
+ * - Bulkhead por tenant: un tenant no puede acaparar el motor
+ * - Circuit breaker: mientras el motor está caído se falla de inmediato
+ * - Ejecución en hilos virtuales: esperar al motor (1-3 min) no consume hilos de plataforma
+ * - Métricas: llamadas en curso, latencia por resultado, rechazos y estado del pool
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Component
+@Slf4j
+public class CvEngineClient implements DisposableBean {
+
+    private static final String EXTRACT_LOTS_PATH = "/api/cv/extract-lots";
+    private static final String MENSAJE_NO_DISPONIBLE =
+            "El servicio de análisis no está disponible. Verifique que el contenedor cv-engine esté activo.";
+
+    private final CvEngineProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final CloseableHttpClient httpClient;
+    private final RestClient restClient;
+    private final TenantBulkhead bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final ExecutorService virtualThreads =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("cv-engine-", 0).factory());
+    private final AtomicInteger enCurso = new AtomicInteger();
+
+    public CvEngineClient(CvEngineProperties properties,
+                          RestClient.Builder restClientBuilder,
+                          MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(properties.getMaxConexiones())
+                .setMaxConnPerRoute(properties.getMaxConexiones())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(properties.getConnectTimeout()))
+                        .setSocketTimeout(Timeout.of(properties.getReadTimeout()))
+                        .build())
+                .build();
+
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(properties.getEsperaConexion()))
+                        .setResponseTimeout(Timeout.of(properties.getReadTimeout()))
+                        .build())
+                .evictIdleConnections(TimeValue.ofSeconds(30))
+                .build();
+
+        this.restClient = restClientBuilder
+                .baseUrl(properties.getUrl())
+                .requestFactory(new HttpComponentsClientHttpRequestFactory(httpClient))
+                .build();
+
+        this.bulkhead = new TenantBulkhead(properties.getMaxConcurrentesPorTenant(), properties.getMaxConcurrentes());
+        this.circuitBreaker = new CircuitBreaker("cv-engine", properties.getUmbralFallos(),
+                properties.getTiempoCircuitoAbierto());
+
+        Gauge.builder("cv.engine.inflight", enCurso, AtomicInteger::get)
+                .description("Llamadas al CV Engine en curso")
+                .register(meterRegistry);
+        Gauge.builder("cv.engine.circuit.open", circuitBreaker, cb -> cb.estaAbierto() ? 1 : 0)
+                .description("1 si el circuito hacia el CV Engine está abierto")
+                .register(meterRegistry);
+        Gauge.builder("cv.engine.pool.leased", connectionManager, cm -> cm.getTotalStats().getLeased())
+                .description("Conexiones HTTP en uso hacia el CV Engine")
+                .register(meterRegistry);
+        Gauge.builder("cv.engine.pool.pending", connectionManager, cm -> cm.getTotalStats().getPending())
+                .description("Peticiones esperando una conexión del pool")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Analiza un plano ya almacenado en el volumen compartido (bloqueante).
+     *
+     * @param relativePath ruta relativa dentro de UPLOAD_DIR del motor
+     * @throws CvEngineException si el archivo es rechazado, el motor no está disponible
+     *                           o el tenant excedió su cupo de análisis simultáneos
+     */
+    public CvEngineResponse extraerLotes(Long tenantId, String relativePath) {
+        MultiValueMap<String, Object> form = new LinkedMultiValueMap<>();
+        form.add("file_path", relativePath);
+        return ejecutar(tenantId, EXTRACT_LOTS_PATH, form);
+    }
+
+    /**
+     * Variante bloqueante con espera de cupo explícita (teselas de un mismo plano). Si el hilo
+     * se interrumpe, la llamada se aborta sin contar como fallo del motor.
+     */
+    public CvEngineResponse extraerLotes(Long tenantId, String relativePath, Duration esperaCupo) {
+        MultiValueMap<String, Object> form = new LinkedMultiValueMap<>();
+        form.add("file_path", relativePath);
+        return ejecutar(tenantId, EXTRACT_LOTS_PATH, form, esperaCupo);
+    }
+
+    /**
+     * Variante asíncrona: la llamada se ejecuta en un hilo virtual dedicado.
+     */
+    public CompletableFuture<CvEngineResponse> extraerLotesAsync(Long tenantId, String relativePath) {
+        return extraerLotesAsync(tenantId, relativePath, properties.getEsperaBulkhead());
+    }
+
+    /**
+     * Variante asíncrona con espera de cupo explícita. Las teselas de un mismo plano se envían
+     * juntas y deben formarse en el bulkhead en lugar de rechazarse a los pocos segundos.
+     */
+    public CompletableFuture<CvEngineResponse> extraerLotesAsync(Long tenantId, String relativePath, Duration esperaCupo) {
+        MultiValueMap<String, Object> form = new LinkedMultiValueMap<>();
+        form.add("file_path", relativePath);
+        return CompletableFuture.supplyAsync(() -> ejecutar(tenantId, EXTRACT_LOTS_PATH, form, esperaCupo), virtualThreads);
+    }
+
+    public CircuitBreaker.Estado getEstadoCircuito() {
+        return circuitBreaker.getEstado();
+    }
+
+    /**
+     * Aplica circuit breaker y bulkhead alrededor de la llamada HTTP.
+     */
+    CvEngineResponse ejecutar(Long tenantId, String path, MultiValueMap<String, Object> form) {
+        return ejecutar(tenantId, path, form, properties.getEsperaBulkhead());
+    }
+
+    CvEngineResponse ejecutar(Long tenantId, String path, MultiValueMap<String, Object> form, Duration esperaCupo) {
+        if (circuitBreaker.estaAbierto()) {
+            contarRechazo("circuito_abierto");
+            throw CvEngineException.noDisponible(MENSAJE_NO_DISPONIBLE);
+        }
+
+        boolean adquirido;
+        try {
+            adquirido = bulkhead.adquirir(tenantId, esperaCupo);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw CvEngineException.noDisponible("El análisis fue interrumpido");
+        }
+        if (!adquirido) {
+            contarRechazo("bulkhead");
+            log.warn("[Tenant {}] Cupo de análisis simultáneos agotado", tenantId);
+            throw CvEngineException.saturado();
+        }
+
+        try {
+            if (!circuitBreaker.permitirLlamada()) {
+                contarRechazo("circuito_abierto");
+                throw CvEngineException.noDisponible(MENSAJE_NO_DISPONIBLE);
+            }
+            return invocar(path, form);
+        } finally {
+            bulkhead.liberar(tenantId);
+        }
+    }
+
+    private CvEngineResponse invocar(String path, MultiValueMap<String, Object> form) {
+        enCurso.incrementAndGet();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String resultado = "exito";
+        try {
+            CvEngineResponse respuesta = restClient.post()
+                    .uri(path)
+                    .contentType(MediaType.MULTIPART_FORM_DATA)
+                    .body(form)
+                    .retrieve()
+                    .body(CvEngineResponse.class);
+            circuitBreaker.registrarExito();
+            return respuesta;
+
+        } catch (HttpClientErrorException e) {
+            // 4xx: el motor respondió, el problema es el archivo (no cuenta como fallo del motor)
+            circuitBreaker.registrarExito();
+            resultado = "rechazado";
+            log.error("CV Engine rechazó el archivo: {}", e.getResponseBodyAsString());
+            throw CvEngineException.archivoRechazado(e.getResponseBodyAsString().replace("\"", "'"));
+
+        } catch (HttpServerErrorException | ResourceAccessException e) {
+            if (Thread.currentThread().isInterrupted()) {
+                resultado = "cancelado";
+                throw cancelada();
+            }
+            // 5xx, timeout o contenedor caído
+            circuitBreaker.registrarFallo();
+            resultado = "error";
+            log.error("CV Engine no disponible: {}", e.getMessage());
+            throw CvEngineException.noDisponible(MENSAJE_NO_DISPONIBLE);
+
+        } catch (RuntimeException e) {
+            if (Thread.currentThread().isInterrupted()) {
+                resultado = "cancelado";
+                throw cancelada();
+            }
+            circuitBreaker.registrarFallo();
+            resultado = "error";
+            throw e;
+
+        } finally {
+            enCurso.decrementAndGet();
+            sample.stop(Timer.builder("cv.engine.latency")
+                    .description("Latencia de las llamadas al CV Engine")
+                    .tag("resultado", resultado)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Llamada cancelada por quien la pidió (en un hilo virtual la interrupción cierra el
+     * socket): no dice nada de la salud del motor, no cuenta como fallo del circuito
+     */
+    private CvEngineException cancelada() {
+        circuitBreaker.registrarCancelacion();
+        return CvEngineException.noDisponible("El análisis fue interrumpido");
+    }
+
+    private void contarRechazo(String motivo) {
+        Counter.builder("cv.engine.rejected")
+                .description("Llamadas al CV Engine rechazadas sin invocar al motor")
+                .tag("motivo", motivo)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        virtualThreads.shutdown();
+        httpClient.close();
+    }
+}
@@ -0,0 +1,35 @@
+package com.inmobiliaria.terrenos.infrastructure.cv;
+
+import com.inmobiliaria.terrenos.shared.exception.BusinessException;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Error al invocar el CV Engine.
+ * El código distingue un rechazo del archivo de una indisponibilidad del motor.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+public class CvEngineException extends BusinessException {
+
+    public static final String ARCHIVO_RECHAZADO = "CV_ENGINE_ARCHIVO_RECHAZADO";
+    public static final String NO_DISPONIBLE = "CV_ENGINE_NO_DISPONIBLE";
+    public static final String SATURADO = "CV_ENGINE_SATURADO";
+
+    public CvEngineException(String message, String code, HttpStatus status) {
+        super(message, code, status);
+    }
+
+    public static CvEngineException archivoRechazado(String detalle) {
+        return new CvEngineException("CV Engine rechazó el archivo: " + detalle, ARCHIVO_RECHAZADO, HttpStatus.BAD_REQUEST);
+    }
+
+    public static CvEngineException noDisponible(String detalle) {
+        return new CvEngineException(detalle, NO_DISPONIBLE, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    public static CvEngineException saturado() {
+        return new CvEngineException("Hay demasiados análisis en curso para este tenant. Intente más tarde.",
+                SATURADO, HttpStatus.TOO_MANY_REQUESTS);
+    }
+}
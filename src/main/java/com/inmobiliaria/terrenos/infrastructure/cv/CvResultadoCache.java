@@ -0,0 +1,178 @@
+package com.inmobiliaria.terrenos.infrastructure.cv;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inmobiliaria.terrenos.application.dto.plano.CvEngineResponse;
+import com.inmobiliaria.terrenos.domain.entity.CvAnalisisCache;
+import com.inmobiliaria.terrenos.domain.repository.CvAnalisisCacheRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Caché persistente de resultados del CV Engine indexada por contenido.
+ *
+ * La llave es (tenant, SHA-256 del archivo, versión del motor): re-analizar el mismo
+ * plano devuelve el resultado guardado sin volver a ejecutar OpenCV + Tesseract.
+ * Las peticiones idénticas en curso se agrupan en una sola llamada al motor.
+ * Una variante (ej. análisis por teselas) se guarda como versión distinta del mismo contenido.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CvResultadoCache {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final CvAnalisisCacheRepository cacheRepository;
+    private final ObjectMapper objectMapper;
+
+    /** Análisis en curso por llave: los seguidores esperan el resultado del líder */
+    private final Map<String, CompletableFuture<CvEngineResponse>> enCurso = new ConcurrentHashMap<>();
+
+    @Value("${app.cv-engine.version:1}")
+    private String engineVersion;
+
+    /**
+     * Calcula el SHA-256 del archivo leyendo por bloques (no carga el plano completo en heap).
+     */
+    public String calcularHash(Path archivo) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible en la JVM", e);
+        }
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(archivo)) {
+            int leidos;
+            while ((leidos = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, leidos);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Busca un resultado previamente guardado para el hash y la versión actual del motor.
+     */
+    public Optional<CvEngineResponse> buscar(Long tenantId, String contentHash) {
+        return buscar(tenantId, contentHash, null);
+    }
+
+    /**
+     * Busca un resultado guardado para una variante del análisis (null = análisis completo).
+     */
+    public Optional<CvEngineResponse> buscar(Long tenantId, String contentHash, String variante) {
+        return cacheRepository.findByTenantIdAndContentHashAndEngineVersion(tenantId, contentHash, versionClave(variante))
+                .flatMap(entrada -> {
+                    CvEngineResponse respuesta = deserializar(entrada);
+                    if (respuesta != null) {
+                        cacheRepository.registrarHit(entrada.getId(), LocalDateTime.now());
+                    }
+                    return Optional.ofNullable(respuesta);
+                });
+    }
+
+    /**
+     * Ejecuta el análisis una sola vez por llave: si ya hay una llamada en curso para el mismo
+     * contenido, espera su resultado en lugar de invocar de nuevo al motor.
+     * El resultado válido se persiste en la caché.
+     *
+     * @param motor llamada real al CV Engine (solo la ejecuta el líder)
+     */
+    public CvEngineResponse obtenerOCalcular(Long tenantId, String contentHash, Supplier<CvEngineResponse> motor) {
+        return obtenerOCalcular(tenantId, contentHash, null, motor);
+    }
+
+    public CvEngineResponse obtenerOCalcular(Long tenantId, String contentHash, String variante,
+                                             Supplier<CvEngineResponse> motor) {
+        String version = versionClave(variante);
+        String llave = tenantId + ":" + contentHash + ":" + version;
+        CompletableFuture<CvEngineResponse> propio = new CompletableFuture<>();
+        CompletableFuture<CvEngineResponse> existente = enCurso.putIfAbsent(llave, propio);
+
+        if (existente != null) {
+            log.info("Análisis en curso para hash {}: esperando resultado compartido", contentHash);
+            try {
+                return existente.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                throw e;
+            }
+        }
+
+        try {
+            // Otro nodo/hilo pudo haberlo terminado entre la búsqueda y el registro
+            CvEngineResponse resultado = buscar(tenantId, contentHash, variante).orElseGet(() -> {
+                CvEngineResponse calculado = motor.get();
+                guardar(tenantId, contentHash, version, calculado);
+                return calculado;
+            });
+            propio.complete(resultado);
+            return resultado;
+        } catch (RuntimeException e) {
+            propio.completeExceptionally(e);
+            throw e;
+        } finally {
+            enCurso.remove(llave, propio);
+        }
+    }
+
+    private String versionClave(String variante) {
+        return variante == null ? engineVersion : engineVersion + "/" + variante;
+    }
+
+    private void guardar(Long tenantId, String contentHash, String version, CvEngineResponse resultado) {
+        if (resultado == null || resultado.getLotes() == null) {
+            return;
+        }
+        try {
+            cacheRepository.save(CvAnalisisCache.builder()
+                    .tenantId(tenantId)
+                    .contentHash(contentHash)
+                    .engineVersion(version)
+                    .resultado(objectMapper.writeValueAsString(resultado))
+                    .totalLotes(resultado.getTotal_lotes_detectados())
+                    .tiempoProcesamientoMs(resultado.getTiempo_procesamiento_ms())
+                    .build());
+            log.debug("Resultado del CV Engine cacheado para hash {}", contentHash);
+        } catch (DataIntegrityViolationException e) {
+            // Otro nodo guardó el mismo resultado primero: es equivalente
+            log.debug("Resultado para hash {} ya estaba cacheado", contentHash);
+        } catch (JsonProcessingException e) {
+            log.warn("No se pudo serializar el resultado para la caché: {}", e.getMessage());
+        }
+    }
+
+    private CvEngineResponse deserializar(CvAnalisisCache entrada) {
+        try {
+            return objectMapper.readValue(entrada.getResultado(), CvEngineResponse.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Entrada de caché {} corrupta, se ignorará: {}", entrada.getId(), e.getMessage());
+            return null;
+        }
+    }
+}
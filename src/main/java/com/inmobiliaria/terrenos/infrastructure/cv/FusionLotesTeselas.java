@@ -0,0 +1,313 @@
+package com.inmobiliaria.terrenos.infrastructure.cv;
+
+import com.inmobiliaria.terrenos.application.dto.plano.CvEngineResponse;
+import com.inmobiliaria.terrenos.application.dto.plano.CvEngineResponse.CvLote;
+import com.inmobiliaria.terrenos.infrastructure.geometry.PackedRTree;
+
+import java.awt.Polygon;
+import java.awt.geom.Area;
+import java.awt.geom.PathIterator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fusiona los lotes detectados en cada tesela en un único resultado para el plano completo.
+ *
+ * 1. Traslada polígonos y centros a coordenadas del plano.
+ * 2. Marca como recortado todo contorno que toca un borde interno de su tesela.
+ * 3. Supresión de duplicados con un R-tree sobre las cajas envolventes: se conservan primero
+ *    los contornos completos y de mayor confianza; los que se solapan con uno conservado
+ *    (mismo lote visto en dos teselas, o fragmento recortado del mismo lote) se descartan.
+ * 4. Un lote más grande que el solapamiento no queda completo en ninguna tesela: sus
+ *    fragmentos recortados de teselas distintas que comparten la franja solapada se unen
+ *    (unión de polígonos con java.awt.geom.Area) en un solo lote.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+public final class FusionLotesTeselas {
+
+    /** IoU mínimo de cajas para considerar que dos contornos son el mismo lote */
+    static final double IOU_DUPLICADO = 0.5;
+
+    /** Fracción de un fragmento recortado que debe caer dentro de un lote conservado */
+    static final double COBERTURA_FRAGMENTO = 0.6;
+
+    /**
+     * Fracción del fragmento menor que debe compartir con otro para unirlos; lotes vecinos
+     * distintos solo se tocan en el lindero
+     */
+    static final double SOLAPAMIENTO_FRAGMENTOS = 0.2;
+
+    public record ResultadoTesela(TeselaPlano tesela, CvEngineResponse respuesta) {
+    }
+
+    private record Candidato(CvLote lote, TeselaPlano tesela, double minX, double minY, double maxX, double maxY,
+                             boolean recortado) {
+        double area() {
+            return (maxX - minX) * (maxY - minY);
+        }
+    }
+
+    private FusionLotesTeselas() {
+    }
+
+    public static List<CvLote> fusionar(List<ResultadoTesela> resultados, int anchoPlano, int altoPlano, int margenBorde) {
+        List<Candidato> candidatos = new ArrayList<>();
+        for (ResultadoTesela resultado : resultados) {
+            if (resultado.respuesta() == null || resultado.respuesta().getLotes() == null) {
+                continue;
+            }
+            for (CvLote lote : resultado.respuesta().getLotes()) {
+                Candidato candidato = trasladar(lote, resultado.tesela(), anchoPlano, altoPlano, margenBorde);
+                if (candidato != null) {
+                    candidatos.add(candidato);
+                }
+            }
+        }
+        if (candidatos.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        PackedRTree.Builder builder = PackedRTree.builder(candidatos.size());
+        for (Candidato c : candidatos) {
+            builder.add(c.minX(), c.minY(), c.maxX(), c.maxY());
+        }
+        PackedRTree arbol = builder.build();
+
+        // Prioridad: completos antes que recortados, luego mayor confianza OCR, luego mayor tamaño
+        Integer[] orden = new Integer[candidatos.size()];
+        for (int i = 0; i < orden.length; i++) {
+            orden[i] = i;
+        }
+        Arrays.sort(orden, Comparator
+                .comparing((Integer i) -> candidatos.get(i).recortado())
+                .thenComparing(i -> -candidatos.get(i).lote().getConfianza_ocr())
+                .thenComparing(i -> -candidatos.get(i).area()));
+
+        boolean[] resuelto = new boolean[candidatos.size()];
+        List<Candidato> conservados = new ArrayList<>();
+        for (int i : orden) {
+            if (resuelto[i]) {
+                continue;
+            }
+            resuelto[i] = true;
+            Candidato conservado = candidatos.get(i).recortado()
+                    ? unirFragmentos(candidatos.get(i), candidatos, arbol, resuelto)
+                    : candidatos.get(i);
+            conservados.add(conservado);
+
+            arbol.search(conservado.minX(), conservado.minY(), conservado.maxX(), conservado.maxY(), j -> {
+                if (!resuelto[j] && esDuplicado(conservado, candidatos.get(j))) {
+                    resuelto[j] = true;
+                }
+            });
+        }
+
+        // Orden de lectura estable: de arriba hacia abajo, de izquierda a derecha
+        conservados.sort(Comparator.comparingDouble(Candidato::minY).thenComparingDouble(Candidato::minX));
+        List<CvLote> lotes = new ArrayList<>(conservados.size());
+        for (Candidato c : conservados) {
+            lotes.add(c.lote());
+        }
+        return lotes;
+    }
+
+    private static boolean esDuplicado(Candidato conservado, Candidato otro) {
+        double interseccion = areaInterseccion(conservado, otro);
+        if (interseccion <= 0) {
+            return false;
+        }
+        double union = conservado.area() + otro.area() - interseccion;
+        if (union > 0 && interseccion / union >= IOU_DUPLICADO) {
+            return true;
+        }
+        return otro.recortado() && otro.area() > 0 && interseccion / otro.area() >= COBERTURA_FRAGMENTO;
+    }
+
+    /**
+     * Une al fragmento los demás fragmentos recortados de otras teselas que comparten con él la
+     * franja solapada. Se repite con la caja ampliada porque un lote puede cruzar varias
+     * costuras (dos columnas y dos filas en una esquina).
+     */
+    private static Candidato unirFragmentos(Candidato fragmento, List<Candidato> candidatos, PackedRTree arbol,
+                                            boolean[] resuelto) {
+        List<Candidato> unidos = new ArrayList<>();
+        unidos.add(fragmento);
+        boolean crecio = true;
+        while (crecio) {
+            crecio = false;
+            List<Integer> nuevos = new ArrayList<>();
+            Candidato actual = fragmento;
+            arbol.search(actual.minX(), actual.minY(), actual.maxX(), actual.maxY(), j -> {
+                Candidato otro = candidatos.get(j);
+                if (!resuelto[j] && otro.recortado() && esFragmentoDelMismoLote(unidos, otro)) {
+                    nuevos.add(j);
+                }
+            });
+            for (int j : nuevos) {
+                resuelto[j] = true;
+                unidos.add(candidatos.get(j));
+                crecio = true;
+            }
+            if (crecio) {
+                fragmento = unir(unidos);
+            }
+        }
+        return fragmento;
+    }
+
+    private static boolean esFragmentoDelMismoLote(List<Candidato> unidos, Candidato otro) {
+        for (Candidato fragmento : unidos) {
+            if (fragmento.tesela().equals(otro.tesela())) {
+                continue;
+            }
+            double menor = Math.min(fragmento.area(), otro.area());
+            if (menor > 0 && areaInterseccion(fragmento, otro) / menor >= SOLAPAMIENTO_FRAGMENTOS) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Unión de los polígonos. El primero (mayor prioridad) aporta número y confianza; si la
+     * unión queda en varias piezas se conserva la de mayor área.
+     */
+    private static Candidato unir(List<Candidato> fragmentos) {
+        Area union = new Area();
+        for (Candidato fragmento : fragmentos) {
+            Polygon poligono = new Polygon();
+            fragmento.lote().getPoligono().forEach(p -> poligono.addPoint(p.get("x"), p.get("y")));
+            union.add(new Area(poligono));
+        }
+        List<Map<String, Integer>> contorno = contornoMayor(union);
+
+        Candidato principal = fragmentos.get(0);
+        CvLote lote = new CvLote();
+        lote.setId_temporal(principal.lote().getId_temporal());
+        lote.setNumero_lote_detectado(fragmentos.stream()
+                .map(f -> f.lote().getNumero_lote_detectado())
+                .filter(n -> n != null && !n.isBlank())
+                .findFirst().orElse(null));
+        lote.setArea_detectada(principal.lote().getArea_detectada());
+        lote.setConfianza_ocr(principal.lote().getConfianza_ocr());
+        lote.setPoligono(contorno);
+
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (Map<String, Integer> punto : contorno) {
+            minX = Math.min(minX, punto.get("x"));
+            minY = Math.min(minY, punto.get("y"));
+            maxX = Math.max(maxX, punto.get("x"));
+            maxY = Math.max(maxY, punto.get("y"));
+        }
+        Map<String, Integer> centro = new LinkedHashMap<>(2);
+        centro.put("x", (int) Math.round((minX + maxX) / 2));
+        centro.put("y", (int) Math.round((minY + maxY) / 2));
+        lote.setCoordenadas_centro(centro);
+
+        boolean recortado = fragmentos.stream().allMatch(Candidato::recortado);
+        return new Candidato(lote, principal.tesela(), minX, minY, maxX, maxY, recortado);
+    }
+
+    private static List<Map<String, Integer>> contornoMayor(Area area) {
+        List<Map<String, Integer>> mayor = List.of();
+        double areaMayor = -1;
+        List<Map<String, Integer>> actual = new ArrayList<>();
+        double[] coordenadas = new double[6];
+        for (PathIterator it = area.getPathIterator(null); !it.isDone(); it.next()) {
+            int segmento = it.currentSegment(coordenadas);
+            if (segmento == PathIterator.SEG_MOVETO) {
+                actual = new ArrayList<>();
+            }
+            if (segmento == PathIterator.SEG_MOVETO || segmento == PathIterator.SEG_LINETO) {
+                Map<String, Integer> punto = new LinkedHashMap<>(2);
+                punto.put("x", (int) Math.round(coordenadas[0]));
+                punto.put("y", (int) Math.round(coordenadas[1]));
+                actual.add(punto);
+            } else if (segmento == PathIterator.SEG_CLOSE) {
+                double superficie = Math.abs(superficie(actual));
+                if (superficie > areaMayor) {
+                    areaMayor = superficie;
+                    mayor = actual;
+                }
+            }
+        }
+        return new ArrayList<>(mayor);
+    }
+
+    /**
+     * Fórmula del área de Gauss (con signo según el sentido de recorrido)
+     */
+    private static double superficie(List<Map<String, Integer>> poligono) {
+        double doble = 0;
+        for (int i = 0; i < poligono.size(); i++) {
+            Map<String, Integer> a = poligono.get(i);
+            Map<String, Integer> b = poligono.get((i + 1) % poligono.size());
+            doble += (double) a.get("x") * b.get("y") - (double) b.get("x") * a.get("y");
+        }
+        return doble / 2;
+    }
+
+    private static double areaInterseccion(Candidato a, Candidato b) {
+        double ancho = Math.min(a.maxX(), b.maxX()) - Math.max(a.minX(), b.minX());
+        double alto = Math.min(a.maxY(), b.maxY()) - Math.max(a.minY(), b.minY());
+        return ancho > 0 && alto > 0 ? ancho * alto : 0;
+    }
+
+    private static Candidato trasladar(CvLote original, TeselaPlano tesela, int anchoPlano, int altoPlano, int margen) {
+        if (original.getPoligono() == null || original.getPoligono().isEmpty()) {
+            return null;
+        }
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+
+        List<Map<String, Integer>> poligono = new ArrayList<>(original.getPoligono().size());
+        for (Map<String, Integer> punto : original.getPoligono()) {
+            Map<String, Integer> trasladado = desplazar(punto, tesela);
+            poligono.add(trasladado);
+            minX = Math.min(minX, trasladado.get("x"));
+            minY = Math.min(minY, trasladado.get("y"));
+            maxX = Math.max(maxX, trasladado.get("x"));
+            maxY = Math.max(maxY, trasladado.get("y"));
+        }
+
+        // Solo los bordes compartidos con otra tesela recortan; los del plano son reales
+        boolean recortado = (tesela.x() > 0 && minX - tesela.x() <= margen)
+                || (tesela.y() > 0 && minY - tesela.y() <= margen)
+                || (tesela.x() + tesela.ancho() < anchoPlano && tesela.x() + tesela.ancho() - 1 - maxX <= margen)
+                || (tesela.y() + tesela.alto() < altoPlano && tesela.y() + tesela.alto() - 1 - maxY <= margen);
+
+        CvLote lote = new CvLote();
+        lote.setId_temporal(original.getId_temporal());
+        lote.setNumero_lote_detectado(original.getNumero_lote_detectado());
+        lote.setArea_detectada(original.getArea_detectada());
+        lote.setConfianza_ocr(original.getConfianza_ocr());
+        lote.setPoligono(poligono);
+        lote.setCoordenadas_centro(original.getCoordenadas_centro() != null
+                ? desplazar(original.getCoordenadas_centro(), tesela) : null);
+
+        return new Candidato(lote, tesela, minX, minY, maxX, maxY, recortado);
+    }
+
+    private static Map<String, Integer> desplazar(Map<String, Integer> punto, TeselaPlano tesela) {
+        Map<String, Integer> resultado = new LinkedHashMap<>(2);
+        resultado.put("x", valor(punto, "x") + tesela.x());
+        resultado.put("y", valor(punto, "y") + tesela.y());
+        return resultado;
+    }
+
+    private static int valor(Map<String, Integer> punto, String eje) {
+        Integer v = punto.get(eje);
+        return v != null ? v : 0;
+    }
+}
@@ -0,0 +1,231 @@
+package com.inmobiliaria.terrenos.infrastructure.cv;
+
+import com.inmobiliaria.terrenos.application.dto.plano.CvEngineResponse;
+import com.inmobiliaria.terrenos.application.dto.plano.CvEngineResponse.ConflictoLote;
+import com.inmobiliaria.terrenos.application.dto.plano.CvEngineResponse.CvLote;
+import com.inmobiliaria.terrenos.config.CvEngineProperties;
+import com.inmobiliaria.terrenos.infrastructure.geometry.PackedRTree;
+import com.inmobiliaria.terrenos.infrastructure.geometry.Poligono;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Etapa geométrica de la ingesta: se ejecuta sobre el resultado del CV Engine antes de
+ * mostrar la vista previa.
+ *
+ * - Convierte cada polígono a arreglos primitivos y lo simplifica (Douglas-Peucker)
+ * - Calcula área y centroide del polígono simplificado
+ * - Detecta solapes y duplicados con un R-tree (solo se comparan pares cuyas cajas se tocan)
+ * - Detecta números de lote repetidos
+ *
+ * Con muchos lotes las etapas por lote y por par se reparten entre los núcleos.
+ * No modifica la respuesta recibida (puede estar compartida por la caché).
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GeometriaLotesProcessor {
+
+    public static final String SOLAPAMIENTO = "SOLAPAMIENTO";
+    public static final String DUPLICADO = "DUPLICADO";
+    public static final String NUMERO_REPETIDO = "NUMERO_REPETIDO";
+
+    /** Por debajo de este número de lotes el paralelismo no compensa */
+    private static final int UMBRAL_PARALELO = 256;
+
+    private static final String SIN_NUMERO = "N/D";
+
+    private final CvEngineProperties properties;
+
+    public CvEngineResponse procesar(CvEngineResponse original) {
+        if (original == null || original.getLotes() == null) {
+            return original;
+        }
+        long inicio = System.nanoTime();
+        CvEngineProperties.Geometria config = properties.getGeometria();
+        List<CvLote> lotes = original.getLotes();
+        int n = lotes.size();
+        boolean paralelo = n >= UMBRAL_PARALELO;
+
+        // 1. Parseo + simplificación (independiente por lote)
+        Poligono[] poligonos = new Poligono[n];
+        rango(n, paralelo).forEach(i -> {
+            Poligono p = aPoligono(lotes.get(i).getPoligono());
+            poligonos[i] = p != null ? p.simplificar(config.getToleranciaPx()) : null;
+        });
+        double[] areas = new double[n];
+        rango(n, paralelo).forEach(i -> areas[i] = poligonos[i] != null ? poligonos[i].area() : 0);
+
+        // 2. Índice espacial sobre los polígonos válidos
+        int[] validos = IntStream.range(0, n).filter(i -> poligonos[i] != null && areas[i] > 0).toArray();
+        PackedRTree.Builder builder = PackedRTree.builder(validos.length);
+        for (int i : validos) {
+            builder.add(poligonos[i].minX(), poligonos[i].minY(), poligonos[i].maxX(), poligonos[i].maxY());
+        }
+        PackedRTree arbol = builder.build();
+
+        // 3. Pares candidatos: cada par (a, b) se evalúa una sola vez desde a < b
+        List<ConflictoLote> conflictos = new ArrayList<>(rango(validos.length, paralelo)
+                .mapToObj(k -> {
+                    int a = validos[k];
+                    Poligono pa = poligonos[a];
+                    List<ConflictoLote> propios = new ArrayList<>(0);
+                    arbol.search(pa.minX(), pa.minY(), pa.maxX(), pa.maxY(), m -> {
+                        int b = validos[m];
+                        if (b <= a) {
+                            return;
+                        }
+                        ConflictoLote conflicto = evaluarPar(lotes.get(a), pa, areas[a],
+                                lotes.get(b), poligonos[b], areas[b], config);
+                        if (conflicto != null) {
+                            propios.add(conflicto);
+                        }
+                    });
+                    return propios;
+                })
+                .flatMap(List::stream)
+                .toList());
+
+        // 4. Números de lote repetidos
+        conflictos.addAll(numerosRepetidos(lotes));
+
+        Set<String> enConflicto = new HashSet<>();
+        for (ConflictoLote c : conflictos) {
+            enConflicto.add(c.getLote_a());
+            enConflicto.add(c.getLote_b());
+        }
+
+        List<CvLote> procesados = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            procesados.add(copiar(lotes.get(i), poligonos[i], areas[i], enConflicto));
+        }
+
+        CvEngineResponse resultado = new CvEngineResponse();
+        resultado.setArchivo_procesado(original.getArchivo_procesado());
+        resultado.setTotal_lotes_detectados(original.getTotal_lotes_detectados());
+        resultado.setTiempo_procesamiento_ms(original.getTiempo_procesamiento_ms());
+        resultado.setLotes(procesados);
+        resultado.setConflictos(conflictos);
+
+        log.debug("Geometría de {} lotes procesada en {} ms: {} conflictos",
+                n, (System.nanoTime() - inicio) / 1_000_000, conflictos.size());
+        return resultado;
+    }
+
+    private static ConflictoLote evaluarPar(CvLote loteA, Poligono a, double areaA,
+                                            CvLote loteB, Poligono b, double areaB,
+                                            CvEngineProperties.Geometria config) {
+        double interseccion = a.areaInterseccion(b);
+        if (interseccion <= 0) {
+            return null;
+        }
+        double proporcion = interseccion / Math.min(areaA, areaB);
+        double iou = interseccion / (areaA + areaB - interseccion);
+
+        String tipo;
+        if (iou >= config.getUmbralDuplicado()) {
+            tipo = DUPLICADO;
+        } else if (proporcion >= config.getUmbralSolapamiento()) {
+            tipo = SOLAPAMIENTO;
+        } else {
+            // Lotes vecinos comparten la línea divisoria: un roce mínimo no es conflicto
+            return null;
+        }
+        return conflicto(tipo, loteA, loteB, interseccion, Math.min(1, proporcion));
+    }
+
+    private static List<ConflictoLote> numerosRepetidos(List<CvLote> lotes) {
+        Map<String, CvLote> primeros = new HashMap<>(lotes.size() * 2);
+        List<ConflictoLote> repetidos = new ArrayList<>();
+        for (CvLote lote : lotes) {
+            String numero = lote.getNumero_lote_detectado();
+            if (numero == null || numero.isBlank() || SIN_NUMERO.equalsIgnoreCase(numero)) {
+                continue;
+            }
+            CvLote primero = primeros.putIfAbsent(numero.trim().toUpperCase(Locale.ROOT), lote);
+            if (primero != null) {
+                repetidos.add(conflicto(NUMERO_REPETIDO, primero, lote, 0, 0));
+            }
+        }
+        return repetidos;
+    }
+
+    private static ConflictoLote conflicto(String tipo, CvLote a, CvLote b, double area, double proporcion) {
+        ConflictoLote conflicto = new ConflictoLote();
+        conflicto.setTipo(tipo);
+        conflicto.setLote_a(a.getId_temporal());
+        conflicto.setLote_b(b.getId_temporal());
+        conflicto.setArea_solapada(Math.round(area * 100) / 100.0);
+        conflicto.setProporcion(Math.round(proporcion * 1000) / 1000.0);
+        return conflicto;
+    }
+
+    private static CvLote copiar(CvLote original, Poligono poligono, double area, Set<String> enConflicto) {
+        CvLote lote = new CvLote();
+        lote.setId_temporal(original.getId_temporal());
+        lote.setNumero_lote_detectado(original.getNumero_lote_detectado());
+        lote.setArea_detectada(original.getArea_detectada());
+        lote.setConfianza_ocr(original.getConfianza_ocr());
+        lote.setCon_conflicto(enConflicto.contains(original.getId_temporal()));
+
+        if (poligono == null) {
+            lote.setPoligono(original.getPoligono());
+            lote.setCoordenadas_centro(original.getCoordenadas_centro());
+            return lote;
+        }
+        List<Map<String, Integer>> puntos = new ArrayList<>(poligono.vertices());
+        for (int i = 0; i < poligono.vertices(); i++) {
+            puntos.add(punto(poligono.x(i), poligono.y(i)));
+        }
+        double[] centroide = poligono.centroide();
+        lote.setPoligono(puntos);
+        lote.setCoordenadas_centro(punto(centroide[0], centroide[1]));
+        lote.setArea_poligono(Math.round(area * 100) / 100.0);
+        return lote;
+    }
+
+    private static Poligono aPoligono(List<Map<String, Integer>> puntos) {
+        if (puntos == null || puntos.size() < 3) {
+            return null;
+        }
+        double[] xs = new double[puntos.size()];
+        double[] ys = new double[puntos.size()];
+        for (int i = 0; i < puntos.size(); i++) {
+            Map<String, Integer> p = puntos.get(i);
+            Integer x = p.get("x");
+            Integer y = p.get("y");
+            if (x == null || y == null) {
+                return null;
+            }
+            xs[i] = x;
+            ys[i] = y;
+        }
+        return Poligono.of(xs, ys);
+    }
+
+    private static Map<String, Integer> punto(double x, double y) {
+        Map<String, Integer> punto = new LinkedHashMap<>(2);
+        punto.put("x", (int) Math.round(x));
+        punto.put("y", (int) Math.round(y));
+        return punto;
+    }
+
+    private static IntStream rango(int n, boolean paralelo) {
+        IntStream rango = IntStream.range(0, n);
+        return paralelo ? rango.parallel() : rango;
+    }
+}
@@ -0,0 +1,139 @@
+package com.inmobiliaria.terrenos.infrastructure.cv;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Dimension;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Divide un plano de alta resolución en teselas solapadas.
+ *
+ * Cada tesela se decodifica con una región de lectura (ImageReadParam.setSourceRegion),
+ * de modo que en memoria solo vive una tesela a la vez y no el plano completo.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Component
+@Slf4j
+public class PlanoTeselador {
+
+    private static final String FORMATO_TESELA = "png";
+
+    /**
+     * Lee las dimensiones de la imagen desde su cabecera, sin decodificar los píxeles.
+     *
+     * @return vacío si el formato no es una imagen legible (ej. PDF)
+     */
+    public Optional<Dimension> leerDimensiones(Path imagen) {
+        try (ImageInputStream entrada = ImageIO.createImageInputStream(imagen.toFile())) {
+            ImageReader reader = obtenerReader(entrada);
+            if (reader == null) {
+                return Optional.empty();
+            }
+            try {
+                reader.setInput(entrada, true, true);
+                return Optional.of(new Dimension(reader.getWidth(0), reader.getHeight(0)));
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            log.warn("No se pudieron leer las dimensiones de {}: {}", imagen, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Genera las teselas del plano en el directorio indicado.
+     *
+     * @param directorio         directorio destino (se crea si no existe)
+     * @param directorioRelativo el mismo directorio relativo a UPLOAD_DIR, para el motor
+     * @param tamanio            lado de cada tesela en píxeles
+     * @param solapamiento       píxeles compartidos entre teselas vecinas
+     */
+    public List<TeselaPlano> generar(Path imagen, Path directorio, String directorioRelativo,
+                                     int tamanio, int solapamiento) throws IOException {
+        if (solapamiento < 0 || solapamiento >= tamanio) {
+            throw new IllegalArgumentException("El solapamiento debe ser menor al tamaño de la tesela");
+        }
+        Files.createDirectories(directorio);
+
+        try (ImageInputStream entrada = ImageIO.createImageInputStream(imagen.toFile())) {
+            ImageReader reader = obtenerReader(entrada);
+            if (reader == null) {
+                throw new IOException("Formato de imagen no soportado: " + imagen.getFileName());
+            }
+            try {
+                // Sin seekForwardOnly: cada tesela vuelve a posicionarse en el archivo
+                reader.setInput(entrada, false, true);
+                int ancho = reader.getWidth(0);
+                int alto = reader.getHeight(0);
+
+                List<Integer> origenesX = origenes(ancho, tamanio, tamanio - solapamiento);
+                List<Integer> origenesY = origenes(alto, tamanio, tamanio - solapamiento);
+                List<TeselaPlano> teselas = new ArrayList<>(origenesX.size() * origenesY.size());
+
+                for (int fila = 0; fila < origenesY.size(); fila++) {
+                    for (int columna = 0; columna < origenesX.size(); columna++) {
+                        int x = origenesX.get(columna);
+                        int y = origenesY.get(fila);
+                        int w = Math.min(tamanio, ancho - x);
+                        int h = Math.min(tamanio, alto - y);
+
+                        ImageReadParam param = reader.getDefaultReadParam();
+                        param.setSourceRegion(new Rectangle(x, y, w, h));
+                        BufferedImage region = reader.read(0, param);
+
+                        String nombre = "tesela_" + fila + "_" + columna + "." + FORMATO_TESELA;
+                        ImageIO.write(region, FORMATO_TESELA, directorio.resolve(nombre).toFile());
+                        region.flush();
+
+                        teselas.add(new TeselaPlano(fila, columna, x, y, w, h, directorioRelativo + "/" + nombre));
+                    }
+                }
+
+                log.info("Plano {} ({}x{}) dividido en {} teselas de {}px (solapamiento {}px)",
+                        imagen.getFileName(), ancho, alto, teselas.size(), tamanio, solapamiento);
+                return teselas;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Origenes de las teselas sobre un eje: paso fijo y la última alineada al borde,
+     * así todas las teselas tienen el tamaño completo y el solapamiento nunca es menor al pedido.
+     */
+    static List<Integer> origenes(int total, int tamanio, int paso) {
+        List<Integer> origenes = new ArrayList<>();
+        origenes.add(0);
+        int origen = 0;
+        while (origen + tamanio < total) {
+            origen = Math.min(origen + paso, total - tamanio);
+            origenes.add(origen);
+        }
+        return origenes;
+    }
+
+    private static ImageReader obtenerReader(ImageInputStream entrada) {
+        if (entrada == null) {
+            return null;
+        }
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(entrada);
+        return readers.hasNext() ? readers.next() : null;
+    }
+}
@@ -0,0 +1,14 @@
+package com.inmobiliaria.terrenos.infrastructure.cv;
+
+/**
+ * Región rectangular de un plano enviada al CV Engine como imagen independiente.
+ *
+ * @param x            origen de la tesela en coordenadas del plano completo
+ * @param y            origen de la tesela en coordenadas del plano completo
+ * @param rutaRelativa ruta de la imagen de la tesela dentro de UPLOAD_DIR
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+public record TeselaPlano(int fila, int columna, int x, int y, int ancho, int alto, String rutaRelativa) {
+}
@@ -0,0 +1,106 @@
+package com.inmobiliaria.terrenos.infrastructure.geometry;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Base64;
+
+/**
+ * Codificación compacta de polígonos para enviar al visor del plano.
+ *
+ * Formato (base64url sin relleno):
+ * <pre>
+ *   varint(n) · zigzag(dx0) zigzag(dy0) · zigzag(dx1) zigzag(dy1) ...
+ * </pre>
+ * Las coordenadas se cuantizan a píxeles enteros y cada vértice se guarda como diferencia
+ * con el anterior (el primero respecto a 0,0). Entre vértices vecinos las diferencias son
+ * pequeñas, por lo que casi todas ocupan uno o dos bytes. Los vértices consecutivos que
+ * quedan repetidos tras redondear se descartan.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+public final class CodificadorGeometria {
+
+    public static final String FORMATO = "delta-zigzag-varint-base64url";
+
+    private CodificadorGeometria() {
+    }
+
+    public static String codificar(Poligono poligono) {
+        int n = poligono.vertices();
+        int[] xs = new int[n];
+        int[] ys = new int[n];
+        int total = 0;
+        for (int i = 0; i < n; i++) {
+            int x = (int) Math.round(poligono.x(i));
+            int y = (int) Math.round(poligono.y(i));
+            if (total > 0 && xs[total - 1] == x && ys[total - 1] == y) {
+                continue;
+            }
+            xs[total] = x;
+            ys[total++] = y;
+        }
+        if (total > 1 && xs[0] == xs[total - 1] && ys[0] == ys[total - 1]) {
+            total--;
+        }
+
+        ByteArrayOutputStream salida = new ByteArrayOutputStream(2 + total * 3);
+        escribirVarint(salida, total);
+        int previoX = 0;
+        int previoY = 0;
+        for (int i = 0; i < total; i++) {
+            escribirVarint(salida, zigzag(xs[i] - previoX));
+            escribirVarint(salida, zigzag(ys[i] - previoY));
+            previoX = xs[i];
+            previoY = ys[i];
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(salida.toByteArray());
+    }
+
+    public static Poligono decodificar(String codificado) {
+        byte[] datos = Base64.getUrlDecoder().decode(codificado);
+        int[] pos = {0};
+        int n = leerVarint(datos, pos);
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        int x = 0;
+        int y = 0;
+        for (int i = 0; i < n; i++) {
+            x += deszigzag(leerVarint(datos, pos));
+            y += deszigzag(leerVarint(datos, pos));
+            xs[i] = x;
+            ys[i] = y;
+        }
+        return Poligono.of(xs, ys);
+    }
+
+    private static int zigzag(int valor) {
+        return (valor << 1) ^ (valor >> 31);
+    }
+
+    private static int deszigzag(int valor) {
+        return (valor >>> 1) ^ -(valor & 1);
+    }
+
+    private static void escribirVarint(ByteArrayOutputStream salida, int valor) {
+        while ((valor & ~0x7F) != 0) {
+            salida.write((valor & 0x7F) | 0x80);
+            valor >>>= 7;
+        }
+        salida.write(valor);
+    }
+
+    private static int leerVarint(byte[] datos, int[] pos) {
+        int resultado = 0;
+        for (int desplazamiento = 0; desplazamiento < 35; desplazamiento += 7) {
+            if (pos[0] >= datos.length) {
+                throw new IllegalArgumentException("Geometría codificada truncada en el byte " + pos[0]);
+            }
+            byte b = datos[pos[0]++];
+            resultado |= (b & 0x7F) << desplazamiento;
+            if ((b & 0x80) == 0) {
+                return resultado;
+            }
+        }
+        throw new IllegalArgumentException("Varint inválido en la geometría codificada");
+    }
+}
@@ -0,0 +1,116 @@
+package com.inmobiliaria.terrenos.infrastructure.geometry;
+
+import java.util.Arrays;
+import java.util.OptionalLong;
+
+/**
+ * Índice espacial inmutable de los lotes de un proyecto.
+ *
+ * Guarda un R-tree empaquetado sobre las cajas envolventes y, en paralelo, el id del
+ * terreno y su polígono. Las consultas filtran primero por caja (R-tree) y después
+ * aplican la prueba geométrica exacta solo a los candidatos.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+public final class IndiceLotes {
+
+    private static final IndiceLotes VACIO = new IndiceLotes(new long[0], new Poligono[0]);
+
+    private final long[] terrenoIds;
+    private final Poligono[] poligonos;
+    private final PackedRTree arbol;
+
+    private IndiceLotes(long[] terrenoIds, Poligono[] poligonos) {
+        this.terrenoIds = terrenoIds;
+        this.poligonos = poligonos;
+        PackedRTree.Builder builder = PackedRTree.builder(poligonos.length);
+        for (Poligono p : poligonos) {
+            builder.add(p.minX(), p.minY(), p.maxX(), p.maxY());
+        }
+        this.arbol = builder.build();
+    }
+
+    /**
+     * Construye el índice; {@code terrenoIds[i]} corresponde a {@code poligonos[i]}.
+     */
+    public static IndiceLotes of(long[] terrenoIds, Poligono[] poligonos) {
+        if (terrenoIds.length != poligonos.length) {
+            throw new IllegalArgumentException("terrenoIds y poligonos deben tener la misma longitud");
+        }
+        if (terrenoIds.length == 0) {
+            return VACIO;
+        }
+        return new IndiceLotes(Arrays.copyOf(terrenoIds, terrenoIds.length),
+                Arrays.copyOf(poligonos, poligonos.length));
+    }
+
+    public static IndiceLotes vacio() {
+        return VACIO;
+    }
+
+    public int size() {
+        return terrenoIds.length;
+    }
+
+    /**
+     * Caja envolvente de todos los lotes {minX, minY, maxX, maxY}, o null si no hay lotes.
+     */
+    public double[] limites() {
+        return arbol.bounds();
+    }
+
+    /**
+     * Lote que contiene el punto. Si varios lo contienen (lotes solapados o anidados)
+     * gana el de menor área, que es el que el usuario ve por encima.
+     */
+    public OptionalLong loteEn(double x, double y) {
+        int mejor = -1;
+        double mejorArea = Double.POSITIVE_INFINITY;
+        for (int i : arbol.searchPoint(x, y)) {
+            if (poligonos[i].contiene(x, y)) {
+                double area = poligonos[i].area();
+                if (area < mejorArea) {
+                    mejorArea = area;
+                    mejor = i;
+                }
+            }
+        }
+        return mejor < 0 ? OptionalLong.empty() : OptionalLong.of(terrenoIds[mejor]);
+    }
+
+    /**
+     * Ids de los lotes cuyo polígono intersecta la ventana (bordes incluidos).
+     */
+    public long[] lotesEnVentana(double minX, double minY, double maxX, double maxY) {
+        Poligono ventana = Poligono.of(new double[]{minX, maxX, maxX, minX}, new double[]{minY, minY, maxY, maxY});
+        int[] candidatos = arbol.search(minX, minY, maxX, maxY);
+        long[] resultado = new long[candidatos.length];
+        int total = 0;
+        for (int i : candidatos) {
+            if (intersecta(poligonos[i], ventana, minX, minY, maxX, maxY)) {
+                resultado[total++] = terrenoIds[i];
+            }
+        }
+        return Arrays.copyOf(resultado, total);
+    }
+
+    private static boolean intersecta(Poligono p, Poligono ventana,
+                                      double minX, double minY, double maxX, double maxY) {
+        // Caja del lote completamente dentro de la ventana: caso más común al hacer zoom out
+        if (p.minX() >= minX && p.maxX() <= maxX && p.minY() >= minY && p.maxY() <= maxY) {
+            return true;
+        }
+        // Algún vértice dentro de la ventana o la ventana dentro del lote
+        for (int i = 0; i < p.vertices(); i++) {
+            if (p.x(i) >= minX && p.x(i) <= maxX && p.y(i) >= minY && p.y(i) <= maxY) {
+                return true;
+            }
+        }
+        if (p.contiene(minX, minY)) {
+            return true;
+        }
+        // Cruce de lados sin vértices contenidos (la ventana es convexa: el recorte es exacto)
+        return p.areaInterseccion(ventana) > 0;
+    }
+}
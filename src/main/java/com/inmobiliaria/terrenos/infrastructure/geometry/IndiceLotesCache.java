@@ -0,0 +1,148 @@
+package com.inmobiliaria.terrenos.infrastructure.geometry;
+
+import com.inmobiliaria.terrenos.application.event.CoordenadasLotesModificadasEvent;
+import com.inmobiliaria.terrenos.domain.repository.TerrenoRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caché en memoria del índice espacial de lotes por proyecto.
+ *
+ * El índice se construye la primera vez que se consulta un proyecto y se reutiliza hasta
+ * que cambian las coordenadas de sus lotes ({@link CoordenadasLotesModificadasEvent}).
+ * Las construcciones concurrentes del mismo proyecto se agrupan en una sola lectura de BD.
+ * El TTL cubre cambios hechos por otra instancia de la aplicación.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IndiceLotesCache {
+
+    private final TerrenoRepository terrenoRepository;
+    private final NivelesDetalleGeometria nivelesDetalle;
+
+    private final Map<Llave, Entrada> indices = new ConcurrentHashMap<>();
+
+    @Value("${app.plano.indice.ttl:30m}")
+    private Duration ttl;
+
+    @Value("${app.plano.indice.max-proyectos:500}")
+    private int maxProyectos;
+
+    private record Llave(Long tenantId, Long proyectoId) {
+    }
+
+    private record Entrada(CompletableFuture<IndiceLotes> indice, long creadoNanos) {
+    }
+
+    /**
+     * Devuelve el índice del proyecto, construyéndolo si no está en caché o expiró.
+     */
+    public IndiceLotes obtener(Long tenantId, Long proyectoId) {
+        Llave llave = new Llave(tenantId, proyectoId);
+        while (true) {
+            Entrada entrada = indices.get(llave);
+            if (entrada != null && System.nanoTime() - entrada.creadoNanos() > ttl.toNanos()) {
+                indices.remove(llave, entrada);
+                continue;
+            }
+            if (entrada != null) {
+                return esperar(entrada.indice());
+            }
+
+            Entrada propia = new Entrada(new CompletableFuture<>(), System.nanoTime());
+            if (indices.putIfAbsent(llave, propia) != null) {
+                continue;
+            }
+            liberarEspacio();
+            try {
+                propia.indice().complete(construir(tenantId, proyectoId));
+            } catch (RuntimeException e) {
+                indices.remove(llave, propia);
+                propia.indice().completeExceptionally(e);
+                throw e;
+            }
+            return propia.indice().join();
+        }
+    }
+
+    /**
+     * Descarta el índice del proyecto; la siguiente consulta lo reconstruye.
+     */
+    public void invalidar(Long tenantId, Long proyectoId) {
+        if (indices.remove(new Llave(tenantId, proyectoId)) != null) {
+            log.debug("Índice espacial del proyecto {} invalidado", proyectoId);
+        }
+    }
+
+    /**
+     * Se ejecuta después del commit para que la reconstrucción lea las coordenadas nuevas.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarCoordenadas(CoordenadasLotesModificadasEvent evento) {
+        invalidar(evento.tenantId(), evento.proyectoId());
+    }
+
+    private IndiceLotes construir(Long tenantId, Long proyectoId) {
+        long inicio = System.nanoTime();
+        List<Object[]> filas = terrenoRepository.findIdYCoordenadasByProyecto(tenantId, proyectoId);
+
+        long[] ids = new long[filas.size()];
+        List<Poligono> poligonos = new ArrayList<>(filas.size());
+        for (Object[] fila : filas) {
+            Poligono poligono = nivelesDetalle.parsear((String) fila[1]);
+            if (poligono != null) {
+                ids[poligonos.size()] = (Long) fila[0];
+                poligonos.add(poligono);
+            }
+        }
+        long[] idsValidos = Arrays.copyOf(ids, poligonos.size());
+        IndiceLotes indice = IndiceLotes.of(idsValidos, poligonos.toArray(new Poligono[0]));
+
+        log.debug("Índice espacial del proyecto {} construido: {} lotes en {} ms",
+                proyectoId, indice.size(), (System.nanoTime() - inicio) / 1_000_000);
+        return indice;
+    }
+
+    /**
+     * Si se supera el máximo de proyectos en memoria se descartan los índices más antiguos.
+     */
+    private void liberarEspacio() {
+        int excedente = indices.size() - maxProyectos;
+        if (excedente <= 0) {
+            return;
+        }
+        indices.entrySet().stream()
+                .sorted(Comparator.comparingLong(e -> e.getValue().creadoNanos()))
+                .limit(excedente)
+                .toList()
+                .forEach(e -> indices.remove(e.getKey(), e.getValue()));
+    }
+
+    private static IndiceLotes esperar(CompletableFuture<IndiceLotes> futuro) {
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+}
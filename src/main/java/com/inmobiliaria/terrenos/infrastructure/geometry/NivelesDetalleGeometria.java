@@ -0,0 +1,159 @@
+package com.inmobiliaria.terrenos.infrastructure.geometry;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inmobiliaria.terrenos.application.dto.plano.CoordenadasPlano;
+import com.inmobiliaria.terrenos.domain.enums.NivelDetallePlano;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lectura de las coordenadas guardadas de un lote y generación de su geometría por nivel de detalle.
+ *
+ * Las coordenadas llegan en dos formas: el objeto {@link CoordenadasPlano} (alta/edición manual)
+ * o el arreglo de puntos {@code [{x, y}, ...]} que envía el validador de la ingesta.
+ *
+ * La geometría por niveles se guarda en la columna geometria_lod como un arreglo JSON con una
+ * cadena por {@link NivelDetallePlano} (en orden de declaración), codificada con
+ * {@link CodificadorGeometria}. Se calcula al escribir las coordenadas, no al leer el plano.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NivelesDetalleGeometria {
+
+    private static final int SEGMENTOS_CIRCULO = 24;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Lee las coordenadas guardadas en cualquiera de sus dos formas, o null si no son válidas.
+     */
+    public CoordenadasPlano leerCoordenadas(String json) {
+        if (json == null || json.isBlank()) {
+            return null;
+        }
+        try {
+            JsonNode nodo = objectMapper.readTree(json);
+            if (nodo.isArray()) {
+                List<CoordenadasPlano.Punto> puntos = new ArrayList<>(nodo.size());
+                for (JsonNode punto : nodo) {
+                    puntos.add(new CoordenadasPlano.Punto(
+                            punto.hasNonNull("x") ? punto.get("x").asDouble() : null,
+                            punto.hasNonNull("y") ? punto.get("y").asDouble() : null));
+                }
+                return new CoordenadasPlano("poligono", puntos);
+            }
+            return objectMapper.treeToValue(nodo, CoordenadasPlano.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Coordenadas con formato inválido: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Polígono de las coordenadas guardadas, o null si no describen un área.
+     */
+    public Poligono parsear(String json) {
+        return aPoligono(leerCoordenadas(json));
+    }
+
+    /**
+     * Genera el JSON de geometria_lod para las coordenadas, o null si no hay polígono.
+     */
+    public String generar(String coordenadasJson) {
+        Poligono poligono = parsear(coordenadasJson);
+        if (poligono == null) {
+            return null;
+        }
+        NivelDetallePlano[] niveles = NivelDetallePlano.values();
+        String[] codificados = new String[niveles.length];
+        for (int i = 0; i < niveles.length; i++) {
+            codificados[i] = codificar(poligono, niveles[i]);
+        }
+        try {
+            return objectMapper.writeValueAsString(codificados);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la geometría por niveles", e);
+        }
+    }
+
+    /**
+     * Extrae la geometría de un nivel del JSON de geometria_lod (null si falta o es inválido).
+     */
+    public String nivel(String geometriaLod, NivelDetallePlano nivel) {
+        if (geometriaLod == null || geometriaLod.isBlank()) {
+            return null;
+        }
+        try {
+            String[] codificados = objectMapper.readValue(geometriaLod, String[].class);
+            return nivel.ordinal() < codificados.length ? codificados[nivel.ordinal()] : null;
+        } catch (JsonProcessingException e) {
+            log.warn("geometria_lod inválida, se recalculará: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    public static String codificar(Poligono poligono, NivelDetallePlano nivel) {
+        return CodificadorGeometria.codificar(poligono.simplificar(nivel.getToleranciaPx()));
+    }
+
+    /**
+     * Convierte las coordenadas a polígono según su tipo:
+     * - rectangulo: dos esquinas opuestas (o sus cuatro vértices)
+     * - circulo: centro y un punto del borde, aproximado con un polígono regular
+     * - poligono: tres o más vértices
+     */
+    public static Poligono aPoligono(CoordenadasPlano coordenadas) {
+        if (coordenadas == null || coordenadas.getPuntos() == null) {
+            return null;
+        }
+        List<CoordenadasPlano.Punto> puntos = coordenadas.getPuntos();
+        for (CoordenadasPlano.Punto punto : puntos) {
+            if (punto == null || punto.getX() == null || punto.getY() == null) {
+                return null;
+            }
+        }
+        String tipo = coordenadas.getTipo() != null ? coordenadas.getTipo().toLowerCase() : "poligono";
+
+        if ("rectangulo".equals(tipo) && puntos.size() == 2) {
+            double x0 = Math.min(puntos.get(0).getX(), puntos.get(1).getX());
+            double x1 = Math.max(puntos.get(0).getX(), puntos.get(1).getX());
+            double y0 = Math.min(puntos.get(0).getY(), puntos.get(1).getY());
+            double y1 = Math.max(puntos.get(0).getY(), puntos.get(1).getY());
+            return Poligono.of(new double[]{x0, x1, x1, x0}, new double[]{y0, y0, y1, y1});
+        }
+        if ("circulo".equals(tipo) && puntos.size() == 2) {
+            double cx = puntos.get(0).getX();
+            double cy = puntos.get(0).getY();
+            double radio = Math.hypot(puntos.get(1).getX() - cx, puntos.get(1).getY() - cy);
+            double[] xs = new double[SEGMENTOS_CIRCULO];
+            double[] ys = new double[SEGMENTOS_CIRCULO];
+            for (int i = 0; i < SEGMENTOS_CIRCULO; i++) {
+                double angulo = 2 * Math.PI * i / SEGMENTOS_CIRCULO;
+                xs[i] = cx + radio * Math.cos(angulo);
+                ys[i] = cy + radio * Math.sin(angulo);
+            }
+            return Poligono.of(xs, ys);
+        }
+        if (puntos.size() < 3) {
+            return null;
+        }
+        double[] xs = new double[puntos.size()];
+        double[] ys = new double[puntos.size()];
+        for (int i = 0; i < puntos.size(); i++) {
+            xs[i] = puntos.get(i).getX();
+            ys[i] = puntos.get(i).getY();
+        }
+        Poligono poligono = Poligono.of(xs, ys);
+        return poligono.vertices() >= 3 ? poligono : null;
+    }
+}
@@ -0,0 +1,309 @@
+package com.inmobiliaria.terrenos.infrastructure.geometry;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * R-tree estático empaquetado (ordenado por curva de Hilbert) sobre cajas envolventes.
+ *
+ * Se construye una sola vez a partir de N cajas y después solo admite consultas, lo que
+ * permite guardarlo en arreglos primitivos contiguos (sin objetos por nodo). Las consultas
+ * devuelven el índice de inserción de cada caja que intersecta el rectángulo buscado.
+ *
+ * Uso:
+ * <pre>
+ *   PackedRTree.Builder builder = PackedRTree.builder(n);
+ *   builder.add(minX, minY, maxX, maxY);   // índice 0, 1, 2...
+ *   PackedRTree arbol = builder.build();
+ *   arbol.search(x0, y0, x1, y1, indice -> ...);
+ * </pre>
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+public final class PackedRTree {
+
+    public static final int DEFAULT_NODE_SIZE = 16;
+
+    private final int numItems;
+    private final int nodeSize;
+    private final int[] levelBounds;  // fin (exclusivo, en nodos) de cada nivel; el último es la raíz
+    private final double[] boxes;     // 4 valores por nodo: minX, minY, maxX, maxY
+    private final int[] indices;      // hoja: índice del ítem; interno: primer hijo
+
+    private PackedRTree(int numItems, int nodeSize, int[] levelBounds, double[] boxes, int[] indices) {
+        this.numItems = numItems;
+        this.nodeSize = nodeSize;
+        this.levelBounds = levelBounds;
+        this.boxes = boxes;
+        this.indices = indices;
+    }
+
+    public static Builder builder(int numItems) {
+        return new Builder(numItems, DEFAULT_NODE_SIZE);
+    }
+
+    public static Builder builder(int numItems, int nodeSize) {
+        return new Builder(numItems, nodeSize);
+    }
+
+    public int size() {
+        return numItems;
+    }
+
+    /**
+     * Caja envolvente de todos los ítems: {minX, minY, maxX, maxY}, o null si está vacío.
+     */
+    public double[] bounds() {
+        if (numItems == 0) {
+            return null;
+        }
+        int raiz = (boxes.length / 4 - 1) * 4;
+        return Arrays.copyOfRange(boxes, raiz, raiz + 4);
+    }
+
+    /**
+     * Visita los ítems cuya caja intersecta el rectángulo (bordes incluidos).
+     */
+    public void search(double minX, double minY, double maxX, double maxY, IntConsumer visitor) {
+        if (numItems == 0) {
+            return;
+        }
+        int[] pila = new int[16];
+        int tope = 0;
+        int nodo = boxes.length / 4 - 1;
+
+        while (true) {
+            int fin = Math.min(nodo + nodeSize, upperBound(nodo));
+            for (int pos = nodo; pos < fin; pos++) {
+                int b = pos * 4;
+                if (maxX < boxes[b] || maxY < boxes[b + 1] || minX > boxes[b + 2] || minY > boxes[b + 3]) {
+                    continue;
+                }
+                if (nodo < numItems) {
+                    visitor.accept(indices[pos]);
+                } else {
+                    if (tope == pila.length) {
+                        pila = Arrays.copyOf(pila, tope * 2);
+                    }
+                    pila[tope++] = indices[pos];
+                }
+            }
+            if (tope == 0) {
+                return;
+            }
+            nodo = pila[--tope];
+        }
+    }
+
+    /**
+     * Devuelve los índices de los ítems que intersectan el rectángulo.
+     */
+    public int[] search(double minX, double minY, double maxX, double maxY) {
+        IntBuffer resultado = new IntBuffer();
+        search(minX, minY, maxX, maxY, resultado::add);
+        return resultado.toArray();
+    }
+
+    /**
+     * Devuelve los índices de los ítems cuya caja contiene el punto.
+     */
+    public int[] searchPoint(double x, double y) {
+        return search(x, y, x, y);
+    }
+
+    private int upperBound(int nodo) {
+        // Primer límite de nivel estrictamente mayor que el nodo (pocos niveles: búsqueda lineal)
+        for (int bound : levelBounds) {
+            if (bound > nodo) {
+                return bound;
+            }
+        }
+        return levelBounds[levelBounds.length - 1];
+    }
+
+    /**
+     * Acumula cajas y construye el árbol empaquetado.
+     */
+    public static final class Builder {
+
+        private static final int HILBERT_MAX = (1 << 16) - 1;
+
+        private final int numItems;
+        private final int nodeSize;
+        private final double[] items;
+        private int agregados;
+        private double minX = Double.POSITIVE_INFINITY;
+        private double minY = Double.POSITIVE_INFINITY;
+        private double maxX = Double.NEGATIVE_INFINITY;
+        private double maxY = Double.NEGATIVE_INFINITY;
+
+        private Builder(int numItems, int nodeSize) {
+            if (numItems < 0) {
+                throw new IllegalArgumentException("numItems no puede ser negativo");
+            }
+            this.numItems = numItems;
+            this.nodeSize = Math.max(2, Math.min(nodeSize, 65535));
+            this.items = new double[numItems * 4];
+        }
+
+        /**
+         * Agrega una caja; su índice es el orden de inserción.
+         */
+        public Builder add(double minX, double minY, double maxX, double maxY) {
+            if (agregados == numItems) {
+                throw new IllegalStateException("Se agregaron más ítems de los declarados (" + numItems + ")");
+            }
+            int b = agregados * 4;
+            items[b] = minX;
+            items[b + 1] = minY;
+            items[b + 2] = maxX;
+            items[b + 3] = maxY;
+            agregados++;
+            this.minX = Math.min(this.minX, minX);
+            this.minY = Math.min(this.minY, minY);
+            this.maxX = Math.max(this.maxX, maxX);
+            this.maxY = Math.max(this.maxY, maxY);
+            return this;
+        }
+
+        public PackedRTree build() {
+            if (agregados != numItems) {
+                throw new IllegalStateException("Se declararon " + numItems + " ítems pero se agregaron " + agregados);
+            }
+            if (numItems == 0) {
+                return new PackedRTree(0, nodeSize, new int[]{0}, new double[0], new int[0]);
+            }
+
+            // Límites de cada nivel (en número de nodos acumulados)
+            IntBuffer niveles = new IntBuffer();
+            int n = numItems;
+            int totalNodos = n;
+            niveles.add(totalNodos);
+            do {
+                n = (n + nodeSize - 1) / nodeSize;
+                totalNodos += n;
+                niveles.add(totalNodos);
+            } while (n != 1);
+
+            double[] boxes = new double[totalNodos * 4];
+            int[] indices = new int[totalNodos];
+
+            // Ordenar hojas por valor de Hilbert del centro: llave = hilbert << 32 | índice
+            double ancho = maxX - minX;
+            double alto = maxY - minY;
+            long[] orden = new long[numItems];
+            for (int i = 0; i < numItems; i++) {
+                int b = i * 4;
+                int hx = ancho > 0 ? (int) Math.floor(HILBERT_MAX * ((items[b] + items[b + 2]) / 2 - minX) / ancho) : 0;
+                int hy = alto > 0 ? (int) Math.floor(HILBERT_MAX * ((items[b + 1] + items[b + 3]) / 2 - minY) / alto) : 0;
+                orden[i] = (hilbert(hx, hy) << 32) | i;
+            }
+            Arrays.sort(orden);
+            for (int pos = 0; pos < numItems; pos++) {
+                int item = (int) orden[pos];
+                System.arraycopy(items, item * 4, boxes, pos * 4, 4);
+                indices[pos] = item;
+            }
+
+            // Generar nodos padre nivel por nivel
+            int[] levelBounds = niveles.toArray();
+            int pos = 0;
+            int escritura = numItems;
+            for (int nivel = 0; nivel < levelBounds.length - 1; nivel++) {
+                int fin = levelBounds[nivel];
+                while (pos < fin) {
+                    int primerHijo = pos;
+                    double nMinX = Double.POSITIVE_INFINITY;
+                    double nMinY = Double.POSITIVE_INFINITY;
+                    double nMaxX = Double.NEGATIVE_INFINITY;
+                    double nMaxY = Double.NEGATIVE_INFINITY;
+                    for (int j = 0; j < nodeSize && pos < fin; j++, pos++) {
+                        int b = pos * 4;
+                        nMinX = Math.min(nMinX, boxes[b]);
+                        nMinY = Math.min(nMinY, boxes[b + 1]);
+                        nMaxX = Math.max(nMaxX, boxes[b + 2]);
+                        nMaxY = Math.max(nMaxY, boxes[b + 3]);
+                    }
+                    int w = escritura * 4;
+                    boxes[w] = nMinX;
+                    boxes[w + 1] = nMinY;
+                    boxes[w + 2] = nMaxX;
+                    boxes[w + 3] = nMaxY;
+                    indices[escritura++] = primerHijo;
+                }
+            }
+
+            return new PackedRTree(numItems, nodeSize, levelBounds, boxes, indices);
+        }
+
+        /**
+         * Índice en la curva de Hilbert de (x, y) en una rejilla de 2^16 x 2^16.
+         * Algoritmo de "Fast Hilbert curve generation" (R. Rawlinson), sin ramas.
+         */
+        static long hilbert(int x, int y) {
+            int a = x ^ y;
+            int b = 0xFFFF ^ a;
+            int c = 0xFFFF ^ (x | y);
+            int d = x & (y ^ 0xFFFF);
+
+            int A = a | (b >> 1);
+            int B = (a >> 1) ^ a;
+            int C = ((c >> 1) ^ (b & (d >> 1))) ^ c;
+            int D = ((a & (c >> 1)) ^ (d >> 1)) ^ d;
+
+            a = A; b = B; c = C; d = D;
+            A = (a & (a >> 2)) ^ (b & (b >> 2));
+            B = (a & (b >> 2)) ^ (b & ((a ^ b) >> 2));
+            C ^= (a & (c >> 2)) ^ (b & (d >> 2));
+            D ^= (b & (c >> 2)) ^ ((a ^ b) & (d >> 2));
+
+            a = A; b = B; c = C; d = D;
+            A = (a & (a >> 4)) ^ (b & (b >> 4));
+            B = (a & (b >> 4)) ^ (b & ((a ^ b) >> 4));
+            C ^= (a & (c >> 4)) ^ (b & (d >> 4));
+            D ^= (b & (c >> 4)) ^ ((a ^ b) & (d >> 4));
+
+            a = A; b = B; c = C; d = D;
+            C ^= (a & (c >> 8)) ^ (b & (d >> 8));
+            D ^= (b & (c >> 8)) ^ ((a ^ b) & (d >> 8));
+
+            a = C ^ (C >> 1);
+            b = D ^ (D >> 1);
+
+            int i0 = x ^ y;
+            int i1 = b | (0xFFFF ^ (i0 | a));
+
+            i0 = (i0 | (i0 << 8)) & 0x00FF00FF;
+            i0 = (i0 | (i0 << 4)) & 0x0F0F0F0F;
+            i0 = (i0 | (i0 << 2)) & 0x33333333;
+            i0 = (i0 | (i0 << 1)) & 0x55555555;
+
+            i1 = (i1 | (i1 << 8)) & 0x00FF00FF;
+            i1 = (i1 | (i1 << 4)) & 0x0F0F0F0F;
+            i1 = (i1 | (i1 << 2)) & 0x33333333;
+            i1 = (i1 | (i1 << 1)) & 0x55555555;
+
+            return ((i1 << 1) | i0) & 0xFFFFFFFFL;
+        }
+    }
+
+    /**
+     * Arreglo de enteros creciente (evita boxing en las consultas).
+     */
+    static final class IntBuffer {
+        private int[] datos = new int[8];
+        private int tamanio;
+
+        void add(int valor) {
+            if (tamanio == datos.length) {
+                datos = Arrays.copyOf(datos, tamanio * 2);
+            }
+            datos[tamanio++] = valor;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(datos, tamanio);
+        }
+    }
+}
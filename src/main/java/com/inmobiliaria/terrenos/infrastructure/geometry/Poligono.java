@@ -0,0 +1,401 @@
+package com.inmobiliaria.terrenos.infrastructure.geometry;
+
+import java.util.Arrays;
+
+/**
+ * Polígono simple inmutable sobre arreglos primitivos (sin objetos por vértice).
+ *
+ * El anillo se guarda sin repetir el primer vértice al final. Las coordenadas son
+ * píxeles del plano, por lo que el eje Y crece hacia abajo; las operaciones no dependen
+ * de la orientación del anillo.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+public final class Poligono {
+
+    private final double[] xs;
+    private final double[] ys;
+    private final double minX;
+    private final double minY;
+    private final double maxX;
+    private final double maxY;
+
+    private Poligono(double[] xs, double[] ys) {
+        this.xs = xs;
+        this.ys = ys;
+        double x0 = Double.POSITIVE_INFINITY;
+        double y0 = Double.POSITIVE_INFINITY;
+        double x1 = Double.NEGATIVE_INFINITY;
+        double y1 = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < xs.length; i++) {
+            x0 = Math.min(x0, xs[i]);
+            y0 = Math.min(y0, ys[i]);
+            x1 = Math.max(x1, xs[i]);
+            y1 = Math.max(y1, ys[i]);
+        }
+        this.minX = x0;
+        this.minY = y0;
+        this.maxX = x1;
+        this.maxY = y1;
+    }
+
+    /**
+     * Crea el polígono copiando los arreglos. Si el último vértice repite al primero se descarta.
+     */
+    public static Poligono of(double[] xs, double[] ys) {
+        if (xs.length != ys.length) {
+            throw new IllegalArgumentException("xs e ys deben tener la misma longitud");
+        }
+        int n = xs.length;
+        if (n > 1 && xs[0] == xs[n - 1] && ys[0] == ys[n - 1]) {
+            n--;
+        }
+        return new Poligono(Arrays.copyOf(xs, n), Arrays.copyOf(ys, n));
+    }
+
+    public int vertices() {
+        return xs.length;
+    }
+
+    public double x(int i) {
+        return xs[i];
+    }
+
+    public double y(int i) {
+        return ys[i];
+    }
+
+    public double minX() {
+        return minX;
+    }
+
+    public double minY() {
+        return minY;
+    }
+
+    public double maxX() {
+        return maxX;
+    }
+
+    public double maxY() {
+        return maxY;
+    }
+
+    /**
+     * Área con la fórmula del área de Gauss (shoelace), siempre positiva.
+     */
+    public double area() {
+        return Math.abs(areaConSigno(xs, ys, xs.length));
+    }
+
+    /**
+     * Centroide del área {x, y}. Para polígonos degenerados (área 0) devuelve el promedio de vértices.
+     */
+    public double[] centroide() {
+        int n = xs.length;
+        double a = areaConSigno(xs, ys, n);
+        if (n < 3 || Math.abs(a) < 1e-9) {
+            double sx = 0;
+            double sy = 0;
+            for (int i = 0; i < n; i++) {
+                sx += xs[i];
+                sy += ys[i];
+            }
+            return n == 0 ? new double[]{0, 0} : new double[]{sx / n, sy / n};
+        }
+        double cx = 0;
+        double cy = 0;
+        for (int i = 0, j = n - 1; i < n; j = i++) {
+            double cruz = xs[j] * ys[i] - xs[i] * ys[j];
+            cx += (xs[j] + xs[i]) * cruz;
+            cy += (ys[j] + ys[i]) * cruz;
+        }
+        return new double[]{cx / (6 * a), cy / (6 * a)};
+    }
+
+    /**
+     * Simplificación Douglas-Peucker del anillo cerrado.
+     *
+     * El anillo se parte en dos cadenas entre el vértice 0 y el vértice más lejano a él, y cada
+     * cadena se simplifica de forma iterativa (sin recursión). Nunca devuelve menos de 3 vértices.
+     *
+     * @param tolerancia distancia máxima (en píxeles) entre el contorno original y el simplificado
+     */
+    public Poligono simplificar(double tolerancia) {
+        int n = xs.length;
+        if (n <= 3 || tolerancia <= 0) {
+            return this;
+        }
+
+        int lejano = 0;
+        double maxDist = -1;
+        for (int i = 1; i < n; i++) {
+            double d = distancia2(xs[0], ys[0], xs[i], ys[i]);
+            if (d > maxDist) {
+                maxDist = d;
+                lejano = i;
+            }
+        }
+
+        // Índice n representa de nuevo al vértice 0 (cierre del anillo)
+        boolean[] conservar = new boolean[n + 1];
+        double tol2 = tolerancia * tolerancia;
+        douglasPeucker(0, lejano, tol2, conservar);
+        douglasPeucker(lejano, n, tol2, conservar);
+
+        int total = 0;
+        for (int i = 0; i < n; i++) {
+            if (conservar[i]) {
+                total++;
+            }
+        }
+        if (total < 3 || total == n) {
+            return this;
+        }
+        double[] sx = new double[total];
+        double[] sy = new double[total];
+        for (int i = 0, k = 0; i < n; i++) {
+            if (conservar[i]) {
+                sx[k] = xs[i];
+                sy[k++] = ys[i];
+            }
+        }
+        return new Poligono(sx, sy);
+    }
+
+    private void douglasPeucker(int desde, int hasta, double tol2, boolean[] conservar) {
+        int n = xs.length;
+        conservar[desde] = true;
+        conservar[hasta] = true;
+        int[] pila = new int[32];
+        int tope = 0;
+        pila[tope++] = desde;
+        pila[tope++] = hasta;
+
+        while (tope > 0) {
+            int b = pila[--tope];
+            int a = pila[--tope];
+            double ax = xs[a % n];
+            double ay = ys[a % n];
+            double bx = xs[b % n];
+            double by = ys[b % n];
+
+            int indice = -1;
+            double maxDist = tol2;
+            for (int i = a + 1; i < b; i++) {
+                double d = distanciaSegmento2(xs[i], ys[i], ax, ay, bx, by);
+                if (d > maxDist) {
+                    maxDist = d;
+                    indice = i;
+                }
+            }
+            if (indice >= 0) {
+                conservar[indice] = true;
+                if (tope + 4 > pila.length) {
+                    pila = Arrays.copyOf(pila, pila.length * 2);
+                }
+                pila[tope++] = a;
+                pila[tope++] = indice;
+                pila[tope++] = indice;
+                pila[tope++] = b;
+            }
+        }
+    }
+
+    /**
+     * Indica si el punto está dentro del polígono (regla par-impar por cruce de rayos).
+     * Los puntos exactamente sobre el borde se consideran dentro.
+     */
+    public boolean contiene(double px, double py) {
+        if (px < minX || px > maxX || py < minY || py > maxY) {
+            return false;
+        }
+        int n = xs.length;
+        boolean dentro = false;
+        for (int i = 0, j = n - 1; i < n; j = i++) {
+            if (distanciaSegmento2(px, py, xs[j], ys[j], xs[i], ys[i]) == 0) {
+                return true;
+            }
+            if ((ys[i] > py) != (ys[j] > py)
+                    && px < (xs[j] - xs[i]) * (py - ys[i]) / (ys[j] - ys[i]) + xs[i]) {
+                dentro = !dentro;
+            }
+        }
+        return dentro;
+    }
+
+    public boolean esConvexo() {
+        int n = xs.length;
+        if (n < 4) {
+            return n == 3;
+        }
+        int signo = 0;
+        for (int i = 0; i < n; i++) {
+            int j = (i + 1) % n;
+            int k = (i + 2) % n;
+            double cruz = (xs[j] - xs[i]) * (ys[k] - ys[j]) - (ys[j] - ys[i]) * (xs[k] - xs[j]);
+            if (cruz != 0) {
+                int s = cruz > 0 ? 1 : -1;
+                if (signo != 0 && s != signo) {
+                    return false;
+                }
+                signo = s;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Envolvente convexa (cadena monótona de Andrew), orientada con área positiva.
+     */
+    public Poligono envolventeConvexa() {
+        int n = xs.length;
+        if (n < 3) {
+            return this;
+        }
+        Integer[] orden = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            orden[i] = i;
+        }
+        Arrays.sort(orden, (a, b) -> xs[a] != xs[b] ? Double.compare(xs[a], xs[b]) : Double.compare(ys[a], ys[b]));
+
+        int[] envolvente = new int[2 * n];
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            while (k >= 2 && cruz(envolvente[k - 2], envolvente[k - 1], orden[i]) <= 0) {
+                k--;
+            }
+            envolvente[k++] = orden[i];
+        }
+        for (int i = n - 2, inferior = k + 1; i >= 0; i--) {
+            while (k >= inferior && cruz(envolvente[k - 2], envolvente[k - 1], orden[i]) <= 0) {
+                k--;
+            }
+            envolvente[k++] = orden[i];
+        }
+        k--; // el último repite al primero
+
+        double[] hx = new double[k];
+        double[] hy = new double[k];
+        for (int i = 0; i < k; i++) {
+            hx[i] = xs[envolvente[i]];
+            hy[i] = ys[envolvente[i]];
+        }
+        return new Poligono(hx, hy);
+    }
+
+    /**
+     * Área de la intersección con otro polígono (recorte de Sutherland-Hodgman).
+     *
+     * Es exacta si al menos uno de los dos es convexo; si ninguno lo es, se recorta
+     * contra la envolvente convexa del otro (cota superior, suficiente para detectar solapes).
+     */
+    public double areaInterseccion(Poligono otro) {
+        if (maxX <= otro.minX || otro.maxX <= minX || maxY <= otro.minY || otro.maxY <= minY) {
+            return 0;
+        }
+        if (otro.esConvexo()) {
+            return recortar(this, otro.orientadoPositivo());
+        }
+        if (esConvexo()) {
+            return recortar(otro, orientadoPositivo());
+        }
+        return recortar(this, otro.envolventeConvexa());
+    }
+
+    private Poligono orientadoPositivo() {
+        if (areaConSigno(xs, ys, xs.length) >= 0) {
+            return this;
+        }
+        int n = xs.length;
+        double[] rx = new double[n];
+        double[] ry = new double[n];
+        for (int i = 0; i < n; i++) {
+            rx[i] = xs[n - 1 - i];
+            ry[i] = ys[n - 1 - i];
+        }
+        return new Poligono(rx, ry);
+    }
+
+    /**
+     * Recorta el sujeto contra un polígono convexo orientado con área positiva y devuelve el área.
+     */
+    private static double recortar(Poligono sujeto, Poligono recorte) {
+        int capacidad = sujeto.vertices() + recorte.vertices() * 2 + 4;
+        double[] px = Arrays.copyOf(sujeto.xs, capacidad);
+        double[] py = Arrays.copyOf(sujeto.ys, capacidad);
+        int n = sujeto.vertices();
+        double[] qx = new double[capacidad];
+        double[] qy = new double[capacidad];
+
+        int m = recorte.vertices();
+        for (int e = 0; e < m && n > 0; e++) {
+            double ax = recorte.xs[e];
+            double ay = recorte.ys[e];
+            double bx = recorte.xs[(e + 1) % m];
+            double by = recorte.ys[(e + 1) % m];
+
+            if (qx.length < n * 2 + 2) {
+                qx = new double[n * 2 + 2];
+                qy = new double[n * 2 + 2];
+            }
+            int k = 0;
+            for (int i = 0; i < n; i++) {
+                double cx = px[i];
+                double cy = py[i];
+                double dx = px[(i + 1) % n];
+                double dy = py[(i + 1) % n];
+                double ladoC = (bx - ax) * (cy - ay) - (by - ay) * (cx - ax);
+                double ladoD = (bx - ax) * (dy - ay) - (by - ay) * (dx - ax);
+
+                if (ladoC >= 0) {
+                    qx[k] = cx;
+                    qy[k++] = cy;
+                }
+                if ((ladoC >= 0) != (ladoD >= 0)) {
+                    double t = ladoC / (ladoC - ladoD);
+                    qx[k] = cx + t * (dx - cx);
+                    qy[k++] = cy + t * (dy - cy);
+                }
+            }
+            double[] tx = px;
+            double[] ty = py;
+            px = qx;
+            py = qy;
+            qx = tx;
+            qy = ty;
+            n = k;
+        }
+        return n < 3 ? 0 : Math.abs(areaConSigno(px, py, n));
+    }
+
+    private double cruz(int o, int a, int b) {
+        return (xs[a] - xs[o]) * (ys[b] - ys[o]) - (ys[a] - ys[o]) * (xs[b] - xs[o]);
+    }
+
+    private static double areaConSigno(double[] xs, double[] ys, int n) {
+        double suma = 0;
+        for (int i = 0, j = n - 1; i < n; j = i++) {
+            suma += xs[j] * ys[i] - xs[i] * ys[j];
+        }
+        return suma / 2;
+    }
+
+    private static double distancia2(double ax, double ay, double bx, double by) {
+        double dx = bx - ax;
+        double dy = by - ay;
+        return dx * dx + dy * dy;
+    }
+
+    private static double distanciaSegmento2(double px, double py, double ax, double ay, double bx, double by) {
+        double dx = bx - ax;
+        double dy = by - ay;
+        double largo2 = dx * dx + dy * dy;
+        if (largo2 == 0) {
+            return distancia2(px, py, ax, ay);
+        }
+        double t = Math.max(0, Math.min(1, ((px - ax) * dx + (py - ay) * dy) / largo2));
+        return distancia2(px, py, ax + t * dx, ay + t * dy);
+    }
+}
@@ -0,0 +1,82 @@
+package com.inmobiliaria.terrenos.infrastructure.importacion;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Escritor CSV en streaming (RFC 4180), complemento de {@link LectorCsv}.
+ *
+ * - Entrecomilla solo los campos con delimitador, comillas o saltos de línea
+ * - Escribe el BOM de UTF-8 para que Excel muestre bien los acentos; LectorCsv lo ignora,
+ *   así que el archivo puede corregirse y volver a importarse
+ * - Números sin notación científica, fechas ISO y fechas con hora como yyyy-MM-dd HH:mm:ss
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+public class EscritorCsv implements EscritorTabla {
+
+    private static final char BOM = '\uFEFF';
+    private static final DateTimeFormatter FECHA_HORA = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final BufferedWriter writer;
+    private final char delimitador;
+
+    public EscritorCsv(Writer destino, char delimitador) throws IOException {
+        this.writer = destino instanceof BufferedWriter buffered ? buffered : new BufferedWriter(destino);
+        this.delimitador = delimitador;
+        writer.write(BOM);
+    }
+
+    @Override
+    public void escribirFila(List<?> celdas) throws IOException {
+        for (int i = 0; i < celdas.size(); i++) {
+            if (i > 0) {
+                writer.write(delimitador);
+            }
+            escribirCampo(texto(celdas.get(i)));
+        }
+        writer.write("\r\n");
+    }
+
+    private void escribirCampo(String valor) throws IOException {
+        if (valor == null || valor.isEmpty()) {
+            return;
+        }
+        boolean comillas = false;
+        for (int i = 0; i < valor.length() && !comillas; i++) {
+            char c = valor.charAt(i);
+            comillas = c == delimitador || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!comillas) {
+            writer.write(valor);
+            return;
+        }
+        writer.write('"');
+        writer.write(valor.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static String texto(Object valor) {
+        if (valor == null || valor instanceof String) {
+            return (String) valor;
+        }
+        if (valor instanceof BigDecimal numero) {
+            return numero.toPlainString();
+        }
+        if (valor instanceof LocalDateTime fechaHora) {
+            return fechaHora.format(FECHA_HORA);
+        }
+        return valor.toString();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
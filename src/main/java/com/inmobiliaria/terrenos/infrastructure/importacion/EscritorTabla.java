@@ -0,0 +1,23 @@
+package com.inmobiliaria.terrenos.infrastructure.importacion;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Escritura secuencial de un archivo tabular (CSV o XLSX) fila por fila, complemento de
+ * {@link LectorTabla}.
+ *
+ * Las implementaciones escriben cada fila al destino en cuanto la reciben: exportar 1,000 o
+ * 1,000,000 de filas usa la misma memoria.
+ *
+ * Las celdas pueden ser String, Number, Boolean, LocalDate o LocalDateTime (null = vacía);
+ * cada formato las representa a su manera (en XLSX los números y fechas quedan como tales).
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+public interface EscritorTabla extends Closeable {
+
+    void escribirFila(List<?> celdas) throws IOException;
+}
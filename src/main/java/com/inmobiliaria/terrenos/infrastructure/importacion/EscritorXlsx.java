@@ -0,0 +1,317 @@
+package com.inmobiliaria.terrenos.infrastructure.importacion;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Escritor XLSX en streaming, sin dependencias externas; complemento de {@link LectorXlsx}.
+ *
+ * Cada fila se escribe como XML directamente en la entrada ZIP de la hoja, así que en memoria
+ * solo está la fila actual (y el búfer de compresión). Los textos van en línea (inlineStr) en
+ * lugar de en la tabla de textos compartidos, que obligaría a tener todos los textos en
+ * memoria hasta el final. Las partes que describen el libro (workbook.xml, estilos, tipos de
+ * contenido) se escriben al cerrar, cuando ya se sabe cuántas hojas hubo: el orden de las
+ * entradas en el ZIP no importa.
+ *
+ * - La primera fila es el encabezado: va en negritas, queda fija al desplazarse y se repite
+ *   en cada hoja nueva
+ * - Al llegar al máximo de filas de Excel (1,048,576) continúa en otra hoja
+ * - Números y fechas se guardan como tales (se pueden sumar y filtrar en Excel)
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+public class EscritorXlsx implements EscritorTabla {
+
+    static final int MAX_FILAS_HOJA = 1_048_576;
+    private static final int MAX_CARACTERES_CELDA = 32_767;
+    private static final int MAX_NOMBRE_HOJA = 31;
+
+    // Fecha 0 de Excel (sistema 1900, con el 29/02/1900 inexistente ya descontado)
+    private static final LocalDate EPOCA = LocalDate.of(1899, 12, 30);
+    private static final double SEGUNDOS_DIA = 86_400d;
+
+    // Índices de cellXfs en styles.xml
+    private static final int ESTILO_ENCABEZADO = 1;
+    private static final int ESTILO_FECHA = 2;
+    private static final int ESTILO_FECHA_HORA = 3;
+
+    private static final String NS_HOJA = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+    private static final String NS_RELACIONES = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+    private static final String NS_PAQUETE = "http://schemas.openxmlformats.org/package/2006/relationships";
+
+    private final ZipOutputStream zip;
+    private final Writer xml;
+    private final String nombreHoja;
+    private final int maxFilasHoja;
+
+    private List<String> encabezado;
+    private int hojas;
+    private int filaHoja;
+    private boolean hojaAbierta;
+
+    public EscritorXlsx(OutputStream destino, String nombreHoja) {
+        this(destino, nombreHoja, MAX_FILAS_HOJA);
+    }
+
+    EscritorXlsx(OutputStream destino, String nombreHoja, int maxFilasHoja) {
+        this.zip = new ZipOutputStream(destino, StandardCharsets.UTF_8);
+        this.xml = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8));
+        this.nombreHoja = nombreValido(nombreHoja);
+        this.maxFilasHoja = maxFilasHoja;
+    }
+
+    @Override
+    public void escribirFila(List<?> celdas) throws IOException {
+        boolean esEncabezado = encabezado == null;
+        if (esEncabezado) {
+            encabezado = new ArrayList<>(celdas.size());
+            for (Object celda : celdas) {
+                encabezado.add(celda != null ? celda.toString() : null);
+            }
+        }
+        if (!hojaAbierta || filaHoja >= maxFilasHoja) {
+            if (hojaAbierta) {
+                cerrarHoja();
+            }
+            abrirHoja();
+            if (!esEncabezado) {
+                escribirFilaXml(encabezado, true);
+            }
+        }
+        escribirFilaXml(celdas, esEncabezado);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (!hojaAbierta) {
+                abrirHoja();
+            }
+            cerrarHoja();
+            escribirEntrada("xl/workbook.xml", libro());
+            escribirEntrada("xl/_rels/workbook.xml.rels", relacionesLibro());
+            escribirEntrada("xl/styles.xml", ESTILOS);
+            escribirEntrada("[Content_Types].xml", tiposContenido());
+            escribirEntrada("_rels/.rels", RELACIONES_PAQUETE);
+        } finally {
+            zip.close();
+        }
+    }
+
+    // ==================== Hojas ====================
+
+    private void abrirHoja() throws IOException {
+        hojas++;
+        filaHoja = 0;
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet" + hojas + ".xml"));
+        xml.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>");
+        xml.write("<worksheet xmlns=\"" + NS_HOJA + "\" xmlns:r=\"" + NS_RELACIONES + "\">");
+        // Encabezado fijo
+        xml.write("<sheetViews><sheetView workbookViewId=\"0\">" +
+                "<pane ySplit=\"1\" topLeftCell=\"A2\" activePane=\"bottomLeft\" state=\"frozen\"/>" +
+                "</sheetView></sheetViews>");
+        xml.write("<sheetData>");
+        hojaAbierta = true;
+    }
+
+    private void cerrarHoja() throws IOException {
+        xml.write("</sheetData></worksheet>");
+        xml.flush();
+        zip.closeEntry();
+        hojaAbierta = false;
+    }
+
+    private void escribirFilaXml(List<?> celdas, boolean esEncabezado) throws IOException {
+        filaHoja++;
+        xml.write("<row r=\"");
+        xml.write(Integer.toString(filaHoja));
+        xml.write("\">");
+        for (int i = 0; i < celdas.size(); i++) {
+            Object valor = celdas.get(i);
+            if (valor != null) {
+                escribirCelda(columna(i) + filaHoja, valor, esEncabezado);
+            }
+        }
+        xml.write("</row>");
+    }
+
+    private void escribirCelda(String referencia, Object valor, boolean esEncabezado) throws IOException {
+        xml.write("<c r=\"");
+        xml.write(referencia);
+        xml.write('"');
+        if (esEncabezado) {
+            xml.write(" s=\"" + ESTILO_ENCABEZADO + "\"");
+        }
+        if (valor instanceof BigDecimal numero) {
+            valorNumerico(numero.toPlainString());
+        } else if (valor instanceof Double || valor instanceof Float) {
+            double numero = ((Number) valor).doubleValue();
+            if (Double.isFinite(numero)) {
+                valorNumerico(valor.toString());
+            } else {
+                texto(valor.toString());
+            }
+        } else if (valor instanceof Number numero) {
+            valorNumerico(numero.toString());
+        } else if (valor instanceof Boolean booleano) {
+            xml.write(" t=\"b\">");
+            xml.write(booleano ? "<v>1</v>" : "<v>0</v>");
+        } else if (valor instanceof LocalDate fecha) {
+            xml.write(" s=\"" + ESTILO_FECHA + "\">");
+            xml.write("<v>" + ChronoUnit.DAYS.between(EPOCA, fecha) + "</v>");
+        } else if (valor instanceof LocalDateTime fechaHora) {
+            double serie = ChronoUnit.DAYS.between(EPOCA, fechaHora.toLocalDate())
+                    + fechaHora.toLocalTime().toSecondOfDay() / SEGUNDOS_DIA;
+            xml.write(" s=\"" + ESTILO_FECHA_HORA + "\">");
+            xml.write("<v>" + serie + "</v>");
+        } else {
+            texto(valor.toString());
+        }
+        xml.write("</c>");
+    }
+
+    private void valorNumerico(String numero) throws IOException {
+        xml.write("><v>");
+        xml.write(numero);
+        xml.write("</v>");
+    }
+
+    private void texto(String texto) throws IOException {
+        xml.write(" t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+        escaparXml(texto.length() > MAX_CARACTERES_CELDA ? texto.substring(0, MAX_CARACTERES_CELDA) : texto);
+        xml.write("</t></is>");
+    }
+
+    /**
+     * Escapa los caracteres especiales de XML y omite los que XML 1.0 no admite (controles)
+     */
+    private void escaparXml(String texto) throws IOException {
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            switch (c) {
+                case '&' -> xml.write("&amp;");
+                case '<' -> xml.write("&lt;");
+                case '>' -> xml.write("&gt;");
+                case '"' -> xml.write("&quot;");
+                default -> {
+                    if (c >= 0x20 && c != 0xFFFE && c != 0xFFFF || c == '\t' || c == '\n' || c == '\r') {
+                        xml.write(c);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Letra de la columna: 0 -> A, 25 -> Z, 26 -> AA
+     */
+    static String columna(int indice) {
+        StringBuilder letras = new StringBuilder();
+        for (int n = indice + 1; n > 0; n = (n - 1) / 26) {
+            letras.insert(0, (char) ('A' + (n - 1) % 26));
+        }
+        return letras.toString();
+    }
+
+    // ==================== Partes del libro ====================
+
+    private void escribirEntrada(String ruta, String contenido) throws IOException {
+        zip.putNextEntry(new ZipEntry(ruta));
+        xml.write(contenido);
+        xml.flush();
+        zip.closeEntry();
+    }
+
+    private String libro() {
+        StringBuilder libro = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>")
+                .append("<workbook xmlns=\"").append(NS_HOJA).append("\" xmlns:r=\"").append(NS_RELACIONES)
+                .append("\"><sheets>");
+        for (int i = 1; i <= hojas; i++) {
+            String nombre = i == 1 ? nombreHoja : nombreHoja(i);
+            libro.append("<sheet name=\"").append(nombre).append("\" sheetId=\"").append(i)
+                    .append("\" r:id=\"rId").append(i).append("\"/>");
+        }
+        return libro.append("</sheets></workbook>").toString();
+    }
+
+    private String relacionesLibro() {
+        StringBuilder relaciones = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>")
+                .append("<Relationships xmlns=\"").append(NS_PAQUETE).append("\">");
+        for (int i = 1; i <= hojas; i++) {
+            relaciones.append("<Relationship Id=\"rId").append(i)
+                    .append("\" Type=\"").append(NS_RELACIONES).append("/worksheet\" Target=\"worksheets/sheet")
+                    .append(i).append(".xml\"/>");
+        }
+        relaciones.append("<Relationship Id=\"rId").append(hojas + 1)
+                .append("\" Type=\"").append(NS_RELACIONES).append("/styles\" Target=\"styles.xml\"/>");
+        return relaciones.append("</Relationships>").toString();
+    }
+
+    private String tiposContenido() {
+        StringBuilder tipos = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>")
+                .append("<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">")
+                .append("<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>")
+                .append("<Default Extension=\"xml\" ContentType=\"application/xml\"/>")
+                .append("<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>")
+                .append("<Override PartName=\"/xl/styles.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml\"/>");
+        for (int i = 1; i <= hojas; i++) {
+            tipos.append("<Override PartName=\"/xl/worksheets/sheet").append(i)
+                    .append(".xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>");
+        }
+        return tipos.append("</Types>").toString();
+    }
+
+    private String nombreHoja(int numero) {
+        String sufijo = " (" + numero + ")";
+        return nombreHoja.substring(0, Math.min(nombreHoja.length(), MAX_NOMBRE_HOJA - sufijo.length())) + sufijo;
+    }
+
+    /**
+     * Excel no admite : \ / ? * [ ] en el nombre de la hoja ni más de 31 caracteres
+     */
+    private static String nombreValido(String nombre) {
+        String limpio = nombre == null ? "" : nombre.replaceAll("[:\\\\/?*\\[\\]&<>\"]", " ").trim();
+        if (limpio.isEmpty()) {
+            limpio = "Hoja";
+        }
+        return limpio.length() > MAX_NOMBRE_HOJA ? limpio.substring(0, MAX_NOMBRE_HOJA) : limpio;
+    }
+
+    private static final String RELACIONES_PAQUETE = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>" +
+            "<Relationships xmlns=\"" + NS_PAQUETE + "\">" +
+            "<Relationship Id=\"rId1\" Type=\"" + NS_RELACIONES + "/officeDocument\" Target=\"xl/workbook.xml\"/>" +
+            "</Relationships>";
+
+    // 0 normal, 1 encabezado (negritas), 2 fecha, 3 fecha y hora
+    private static final String ESTILOS = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>" +
+            "<styleSheet xmlns=\"" + NS_HOJA + "\">" +
+            "<numFmts count=\"2\"><numFmt numFmtId=\"164\" formatCode=\"yyyy-mm-dd\"/>" +
+            "<numFmt numFmtId=\"165\" formatCode=\"yyyy-mm-dd hh:mm:ss\"/></numFmts>" +
+            "<fonts count=\"2\"><font><sz val=\"11\"/><name val=\"Calibri\"/></font>" +
+            "<font><b/><sz val=\"11\"/><name val=\"Calibri\"/></font></fonts>" +
+            "<fills count=\"2\"><fill><patternFill patternType=\"none\"/></fill>" +
+            "<fill><patternFill patternType=\"gray125\"/></fill></fills>" +
+            "<borders count=\"1\"><border><left/><right/><top/><bottom/><diagonal/></border></borders>" +
+            "<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\"/></cellStyleXfs>" +
+            "<cellXfs count=\"4\">" +
+            "<xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\"/>" +
+            "<xf numFmtId=\"0\" fontId=\"1\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyFont=\"1\"/>" +
+            "<xf numFmtId=\"164\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyNumberFormat=\"1\"/>" +
+            "<xf numFmtId=\"165\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyNumberFormat=\"1\"/>" +
+            "</cellXfs>" +
+            "<cellStyles count=\"1\"><cellStyle name=\"Normal\" xfId=\"0\" builtinId=\"0\"/></cellStyles>" +
+            "</styleSheet>";
+}
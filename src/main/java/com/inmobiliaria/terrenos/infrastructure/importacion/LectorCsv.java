@@ -0,0 +1,161 @@
+package com.inmobiliaria.terrenos.infrastructure.importacion;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector CSV en streaming (RFC 4180).
+ *
+ * - Campos entre comillas dobles, con comillas escapadas ("") y saltos de línea dentro del campo
+ * - Delimitador detectado en la primera línea: coma, punto y coma (Excel en español) o tabulador
+ * - Ignora el BOM de UTF-8 que agrega Excel al exportar
+ *
+ * El número de fila reportado es la línea del archivo donde empieza el registro.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+public class LectorCsv implements LectorTabla {
+
+    private static final int MUESTRA_DELIMITADOR = 8192;
+    // Evita cargar el resto del archivo en un campo si falta cerrar una comilla
+    private static final int MAX_CARACTERES_CAMPO = 10_000;
+
+    private final BufferedReader reader;
+    private final char delimitador;
+    private long linea = 1;
+    private boolean terminado;
+
+    public LectorCsv(InputStream entrada) throws IOException {
+        this(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+    }
+
+    public LectorCsv(Reader origen) throws IOException {
+        this.reader = origen instanceof BufferedReader buffered ? buffered : new BufferedReader(origen);
+        saltarBom();
+        this.delimitador = detectarDelimitador();
+    }
+
+    public char getDelimitador() {
+        return delimitador;
+    }
+
+    @Override
+    public Fila siguienteFila() throws IOException {
+        if (terminado) {
+            return null;
+        }
+        long numero = linea;
+        List<String> celdas = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean enComillas = false;
+        boolean entrecomillado = false;
+
+        while (true) {
+            int c = reader.read();
+            if (c == -1) {
+                terminado = true;
+                if (celdas.isEmpty() && campo.isEmpty() && !entrecomillado) {
+                    return null;
+                }
+                celdas.add(campo.toString());
+                return new Fila(numero, celdas);
+            }
+
+            if (enComillas) {
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        campo.append('"');
+                    } else {
+                        enComillas = false;
+                        reader.reset();
+                    }
+                } else {
+                    if (c == '\n') {
+                        linea++;
+                    }
+                    agregar(campo, c);
+                }
+            } else if (c == '"' && campo.isEmpty()) {
+                enComillas = true;
+                entrecomillado = true;
+            } else if (c == delimitador) {
+                celdas.add(campo.toString());
+                campo.setLength(0);
+                entrecomillado = false;
+            } else if (c == '\r' || c == '\n') {
+                if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+                linea++;
+                celdas.add(campo.toString());
+                return new Fila(numero, celdas);
+            } else {
+                agregar(campo, c);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void agregar(StringBuilder campo, int c) throws IOException {
+        if (campo.length() >= MAX_CARACTERES_CAMPO) {
+            throw new IOException("Campo de más de " + MAX_CARACTERES_CAMPO + " caracteres en la línea " + linea
+                    + " (¿falta cerrar una comilla?)");
+        }
+        campo.append((char) c);
+    }
+
+    private void saltarBom() throws IOException {
+        reader.mark(1);
+        if (reader.read() != '\uFEFF') {
+            reader.reset();
+        }
+    }
+
+    /**
+     * Elige el delimitador más frecuente fuera de comillas en la primera línea
+     */
+    private char detectarDelimitador() throws IOException {
+        reader.mark(MUESTRA_DELIMITADOR);
+        int comas = 0;
+        int puntoYComa = 0;
+        int tabuladores = 0;
+        boolean enComillas = false;
+        for (int i = 0; i < MUESTRA_DELIMITADOR - 1; i++) {
+            int c = reader.read();
+            if (c == -1 || (!enComillas && (c == '\n' || c == '\r'))) {
+                break;
+            }
+            if (c == '"') {
+                enComillas = !enComillas;
+            } else if (!enComillas) {
+                switch (c) {
+                    case ',' -> comas++;
+                    case ';' -> puntoYComa++;
+                    case '\t' -> tabuladores++;
+                    default -> { }
+                }
+            }
+        }
+        reader.reset();
+
+        if (puntoYComa > comas && puntoYComa >= tabuladores) {
+            return ';';
+        }
+        return tabuladores > comas ? '\t' : ',';
+    }
+}
@@ -0,0 +1,41 @@
+package com.inmobiliaria.terrenos.infrastructure.importacion;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Lectura secuencial de un archivo tabular (CSV o XLSX) fila por fila.
+ *
+ * Las implementaciones no cargan el archivo completo: mantienen en memoria solo la fila
+ * actual, de modo que importar 10,000 o 100,000 filas usa la misma memoria.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+public interface LectorTabla extends Closeable {
+
+    /**
+     * Fila leída con su número en el archivo (base 1), para reportar errores
+     */
+    record Fila(long numero, List<String> celdas) {
+
+        /**
+         * Celda en la posición indicada, o null si la fila es más corta
+         */
+        public String celda(int indice) {
+            return indice >= 0 && indice < celdas.size() ? celdas.get(indice) : null;
+        }
+
+        public boolean vacia() {
+            return celdas.stream().allMatch(celda -> celda == null || celda.isBlank());
+        }
+    }
+
+    /**
+     * Lee la siguiente fila
+     *
+     * @return la fila, o null al terminar el archivo
+     */
+    Fila siguienteFila() throws IOException;
+}
@@ -0,0 +1,346 @@
+package com.inmobiliaria.terrenos.infrastructure.importacion;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Lector XLSX en streaming, sin dependencias externas.
+ *
+ * Un XLSX es un ZIP con XML (Office Open XML). Se lee con StAX la primera hoja del libro,
+ * fila por fila, en lugar de construir el modelo del libro completo en memoria. Solo la
+ * tabla de textos compartidos (sharedStrings.xml) se carga completa, porque las celdas
+ * de texto la referencian por índice; su tamaño depende de los textos distintos, no de
+ * las filas.
+ *
+ * El archivo lo sube el usuario, así que se acota lo que puede ocupar al descomprimirse
+ * (ZIP bomb): cada entrada del ZIP se lee contando los bytes y se rechaza si se expande más
+ * de 100 veces su tamaño comprimido; los textos compartidos tienen tope de cantidad y de
+ * caracteres totales, y ninguna celda puede pasar de 32,767 caracteres (el máximo de Excel).
+ *
+ * Las celdas se devuelven como texto: los números con su valor almacenado (ej. 250.5),
+ * sin el formato de la celda. El número de fila es el de la hoja (atributo r).
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+public class LectorXlsx implements LectorTabla {
+
+    private static final String NS_RELACIONES = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+    private static final String HOJA_POR_DEFECTO = "xl/worksheets/sheet1.xml";
+    private static final int MAX_TEXTOS_COMPARTIDOS = 1_000_000;
+    private static final long MAX_CARACTERES_COMPARTIDOS = 20_000_000;
+    private static final int MAX_CARACTERES_CELDA = 32_767;
+    private static final int MAX_COLUMNAS = 200;
+    // Expansión máxima de una entrada (como el mínimo de 0.01 de POI); el primer MB no se revisa
+    private static final int MAX_RATIO_COMPRESION = 100;
+    private static final long BYTES_SIN_REVISAR_RATIO = 1024 * 1024;
+
+    private static final XMLInputFactory XML_FACTORY = crearFactory();
+
+    private final ZipFile zip;
+    private final long maxCaracteresCompartidos;
+    private final List<String> textosCompartidos;
+    private final InputStream entradaHoja;
+    private final XMLStreamReader hoja;
+    private long ultimaFila;
+
+    public LectorXlsx(Path archivo) throws IOException {
+        this(archivo, MAX_CARACTERES_COMPARTIDOS);
+    }
+
+    LectorXlsx(Path archivo, long maxCaracteresCompartidos) throws IOException {
+        this.zip = new ZipFile(archivo.toFile());
+        this.maxCaracteresCompartidos = maxCaracteresCompartidos;
+        try {
+            this.textosCompartidos = leerTextosCompartidos();
+            ZipEntry entradaZip = zip.getEntry(rutaPrimeraHoja());
+            if (entradaZip == null) {
+                throw new IOException("El libro no contiene hojas");
+            }
+            this.entradaHoja = abrir(entradaZip);
+            this.hoja = XML_FACTORY.createXMLStreamReader(entradaHoja);
+        } catch (IOException | XMLStreamException | RuntimeException e) {
+            zip.close();
+            throw e instanceof IOException io ? io : errorDeLectura("Archivo XLSX inválido", e);
+        }
+    }
+
+    @Override
+    public Fila siguienteFila() throws IOException {
+        try {
+            while (hoja.hasNext()) {
+                if (hoja.next() == XMLStreamConstants.START_ELEMENT && "row".equals(hoja.getLocalName())) {
+                    String r = hoja.getAttributeValue(null, "r");
+                    ultimaFila = r != null ? Long.parseLong(r) : ultimaFila + 1;
+                    return new Fila(ultimaFila, leerCeldas());
+                }
+            }
+            return null;
+        } catch (XMLStreamException | NumberFormatException e) {
+            throw errorDeLectura("Hoja XLSX inválida cerca de la fila " + (ultimaFila + 1), e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            hoja.close();
+        } catch (XMLStreamException e) {
+            // Se cierra el ZIP de todas formas
+        } finally {
+            entradaHoja.close();
+            zip.close();
+        }
+    }
+
+    /**
+     * Lee las celdas hasta el cierre de &lt;row&gt;. Las celdas vacías no aparecen en el XML:
+     * la posición se toma de la referencia (B3 -> columna 1) y los huecos quedan en null.
+     */
+    private List<String> leerCeldas() throws XMLStreamException, IOException {
+        List<String> celdas = new ArrayList<>();
+        while (hoja.hasNext()) {
+            int evento = hoja.next();
+            if (evento == XMLStreamConstants.END_ELEMENT && "row".equals(hoja.getLocalName())) {
+                return celdas;
+            }
+            if (evento == XMLStreamConstants.START_ELEMENT && "c".equals(hoja.getLocalName())) {
+                String referencia = hoja.getAttributeValue(null, "r");
+                int columna = referencia != null ? indiceColumna(referencia) : celdas.size();
+                if (columna >= MAX_COLUMNAS) {
+                    throw new IOException("La hoja tiene más de " + MAX_COLUMNAS + " columnas");
+                }
+                String valor = leerValorCelda(hoja.getAttributeValue(null, "t"));
+                while (celdas.size() < columna) {
+                    celdas.add(null);
+                }
+                celdas.add(valor);
+            }
+        }
+        return celdas;
+    }
+
+    /**
+     * Valor de la celda según su tipo: s (texto compartido), inlineStr, b (booleano), str, n o e
+     */
+    private String leerValorCelda(String tipo) throws XMLStreamException, IOException {
+        StringBuilder valor = new StringBuilder();
+        while (hoja.hasNext()) {
+            int evento = hoja.next();
+            if (evento == XMLStreamConstants.END_ELEMENT && "c".equals(hoja.getLocalName())) {
+                break;
+            }
+            if (evento == XMLStreamConstants.START_ELEMENT
+                    && ("v".equals(hoja.getLocalName()) || "t".equals(hoja.getLocalName()))) {
+                valor.append(hoja.getElementText());
+                if (valor.length() > MAX_CARACTERES_CELDA) {
+                    throw new IOException("Una celda de la fila " + ultimaFila + " supera los "
+                            + MAX_CARACTERES_CELDA + " caracteres");
+                }
+            }
+        }
+        if (valor.isEmpty()) {
+            return null;
+        }
+        return switch (tipo == null ? "n" : tipo) {
+            case "s" -> textoCompartido(valor.toString());
+            case "b" -> "1".equals(valor.toString()) ? "true" : "false";
+            default -> valor.toString();
+        };
+    }
+
+    private String textoCompartido(String indice) throws IOException {
+        try {
+            return textosCompartidos.get(Integer.parseInt(indice.trim()));
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            throw new IOException("Referencia a texto compartido inválida: " + indice);
+        }
+    }
+
+    /**
+     * Columna base 0 de una referencia de celda: A1 -> 0, Z7 -> 25, AB12 -> 27
+     */
+    static int indiceColumna(String referencia) {
+        int columna = 0;
+        for (int i = 0; i < referencia.length() && Character.isLetter(referencia.charAt(i)); i++) {
+            columna = columna * 26 + (Character.toUpperCase(referencia.charAt(i)) - 'A' + 1);
+        }
+        return columna - 1;
+    }
+
+    /**
+     * Cada &lt;si&gt; es un texto; con formato enriquecido viene partido en varias &lt;r&gt;&lt;t&gt;.
+     * Las guías fonéticas (&lt;rPh&gt;) no forman parte del texto.
+     */
+    private List<String> leerTextosCompartidos() throws IOException, XMLStreamException {
+        ZipEntry entrada = zip.getEntry("xl/sharedStrings.xml");
+        List<String> textos = new ArrayList<>();
+        if (entrada == null) {
+            return textos;
+        }
+        try (InputStream in = abrir(entrada)) {
+            XMLStreamReader xml = XML_FACTORY.createXMLStreamReader(in);
+            StringBuilder texto = null;
+            boolean enFonetica = false;
+            long caracteres = 0;
+            while (xml.hasNext()) {
+                int evento = xml.next();
+                if (evento == XMLStreamConstants.START_ELEMENT) {
+                    switch (xml.getLocalName()) {
+                        case "si" -> texto = new StringBuilder();
+                        case "rPh" -> enFonetica = true;
+                        case "t" -> {
+                            String contenido = xml.getElementText();
+                            if (texto != null && !enFonetica) {
+                                texto.append(contenido);
+                                if (texto.length() > MAX_CARACTERES_CELDA) {
+                                    throw new IOException("Un texto del libro supera los "
+                                            + MAX_CARACTERES_CELDA + " caracteres");
+                                }
+                            }
+                        }
+                        default -> { }
+                    }
+                } else if (evento == XMLStreamConstants.END_ELEMENT) {
+                    if ("rPh".equals(xml.getLocalName())) {
+                        enFonetica = false;
+                    } else if ("si".equals(xml.getLocalName()) && texto != null) {
+                        caracteres += texto.length();
+                        if (textos.size() >= MAX_TEXTOS_COMPARTIDOS || caracteres > maxCaracteresCompartidos) {
+                            throw new IOException("El libro tiene demasiados textos distintos");
+                        }
+                        textos.add(texto.toString());
+                        texto = null;
+                    }
+                }
+            }
+            xml.close();
+        }
+        return textos;
+    }
+
+    /**
+     * Ruta de la primera hoja según workbook.xml y sus relaciones; sheet1.xml si no se puede resolver
+     */
+    private String rutaPrimeraHoja() throws IOException, XMLStreamException {
+        String idRelacion = primerAtributo("xl/workbook.xml", "sheet", NS_RELACIONES, "id", null, null);
+        if (idRelacion == null) {
+            return HOJA_POR_DEFECTO;
+        }
+        String destino = primerAtributo("xl/_rels/workbook.xml.rels", "Relationship", null, "Target", "Id", idRelacion);
+        if (destino == null) {
+            return HOJA_POR_DEFECTO;
+        }
+        return destino.startsWith("/") ? destino.substring(1) : "xl/" + destino;
+    }
+
+    /**
+     * Atributo del primer elemento con el nombre dado (y, si se indica, con filtro = valorFiltro)
+     */
+    private String primerAtributo(String ruta, String elemento, String namespace, String atributo,
+                                  String filtro, String valorFiltro) throws IOException, XMLStreamException {
+        ZipEntry entrada = zip.getEntry(ruta);
+        if (entrada == null) {
+            return null;
+        }
+        try (InputStream in = abrir(entrada)) {
+            XMLStreamReader xml = XML_FACTORY.createXMLStreamReader(in);
+            try {
+                while (xml.hasNext()) {
+                    if (xml.next() == XMLStreamConstants.START_ELEMENT && elemento.equals(xml.getLocalName())
+                            && (filtro == null || valorFiltro.equals(xml.getAttributeValue(null, filtro)))) {
+                        return xml.getAttributeValue(namespace, atributo);
+                    }
+                }
+                return null;
+            } finally {
+                xml.close();
+            }
+        }
+    }
+
+    /**
+     * StAX envuelve los errores del stream en XMLStreamException: se devuelve el IOException
+     * original (ej. el límite de expansión) para que el usuario vea el motivo real
+     */
+    private static IOException errorDeLectura(String mensaje, Exception e) {
+        Throwable causa = e instanceof XMLStreamException xml && xml.getNestedException() != null
+                ? xml.getNestedException() : e.getCause();
+        return causa instanceof IOException io ? io : new IOException(mensaje, e);
+    }
+
+    private InputStream abrir(ZipEntry entrada) throws IOException {
+        return new EntradaAcotada(zip.getInputStream(entrada), entrada.getName(), entrada.getCompressedSize());
+    }
+
+    /**
+     * Cuenta los bytes descomprimidos de una entrada y corta la lectura si la expansión pasa
+     * de MAX_RATIO_COMPRESION. El tamaño comprimido es el del directorio central, el mismo que
+     * acota lo que ZipFile lee del archivo; el tamaño descomprimido declarado no se usa porque
+     * puede ser falso.
+     */
+    private static final class EntradaAcotada extends FilterInputStream {
+
+        private final String nombre;
+        private final long maxBytes;
+        private long leidos;
+
+        EntradaAcotada(InputStream in, String nombre, long tamanioComprimido) {
+            super(in);
+            this.nombre = nombre;
+            this.maxBytes = Math.max(BYTES_SIN_REVISAR_RATIO, Math.max(tamanioComprimido, 0) * MAX_RATIO_COMPRESION);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                contar(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                contar(n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long saltados = super.skip(n);
+            contar(saltados);
+            return saltados;
+        }
+
+        private void contar(long bytes) throws IOException {
+            leidos += bytes;
+            if (leidos > maxBytes) {
+                throw new IOException("La entrada " + nombre + " del archivo se expande demasiado al descomprimirse");
+            }
+        }
+    }
+
+    /**
+     * Sin DTD ni entidades externas (XXE): el archivo viene del usuario
+     */
+    private static XMLInputFactory crearFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+}
@@ -0,0 +1,121 @@
+package com.inmobiliaria.terrenos.infrastructure.importacion;
+
+import com.inmobiliaria.terrenos.config.FileStorageProperties;
+import com.inmobiliaria.terrenos.shared.exception.BusinessException;
+import com.inmobiliaria.terrenos.shared.exception.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Reportes de errores de las importaciones masivas, descargables después de importar.
+ *
+ * Cada reporte es un CSV en el directorio de almacenamiento (file.storage.upload-dir), bajo
+ * reportes-importacion/tenant_{id}: se escribe fila por fila mientras se importa, así que su
+ * tamaño no ocupa memoria, y lo puede descargar cualquier instancia que comparta el directorio.
+ * Se eliminan al cumplir app.importacion.reportes.ttl.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReportesImportacion {
+
+    private static final String DIRECTORIO = "reportes-importacion";
+    private static final Pattern ID_VALIDO = Pattern.compile("^[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}$");
+
+    private final FileStorageProperties fileStorageProperties;
+
+    @Value("${app.importacion.reportes.ttl:24h}")
+    private Duration ttl;
+
+    /**
+     * Archivo de un reporte nuevo; el id es el que se usa para descargarlo
+     */
+    public record Reporte(String id, Path archivo) {
+    }
+
+    /**
+     * Reserva el archivo de un reporte nuevo del tenant
+     */
+    public Reporte nuevo(Long tenantId) {
+        String id = UUID.randomUUID().toString();
+        Path directorio = directorioTenant(tenantId);
+        try {
+            Files.createDirectories(directorio);
+        } catch (IOException e) {
+            throw new BusinessException("No se pudo crear el directorio de reportes", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+        return new Reporte(id, directorio.resolve(id + ".csv"));
+    }
+
+    /**
+     * Archivo del reporte; solo se encuentra con el tenant que lo generó
+     */
+    public Path obtener(Long tenantId, String id) {
+        if (id == null || !ID_VALIDO.matcher(id).matches()) {
+            throw new ResourceNotFoundException("Reporte de importación no encontrado: " + id);
+        }
+        Path archivo = directorioTenant(tenantId).resolve(id + ".csv");
+        if (!Files.isReadable(archivo)) {
+            throw new ResourceNotFoundException("Reporte de importación no encontrado o vencido: " + id);
+        }
+        return archivo;
+    }
+
+    /**
+     * Elimina los reportes de todos los tenants con más antigüedad que el TTL.
+     * Lo invoca ReportesImportacionScheduler.
+     *
+     * @return reportes eliminados
+     */
+    public int eliminarVencidos() {
+        Path raiz = raiz();
+        if (!Files.isDirectory(raiz)) {
+            return 0;
+        }
+        Instant limite = Instant.now().minus(ttl);
+        int eliminados = 0;
+        try (Stream<Path> archivos = Files.walk(raiz, 2)) {
+            for (Path archivo : archivos.filter(Files::isRegularFile).toList()) {
+                if (eliminarSiVencido(archivo, limite)) {
+                    eliminados++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("No se pudieron revisar los reportes de importación: {}", e.getMessage());
+        }
+        return eliminados;
+    }
+
+    private static boolean eliminarSiVencido(Path archivo, Instant limite) {
+        try {
+            return Files.getLastModifiedTime(archivo).toInstant().isBefore(limite) && Files.deleteIfExists(archivo);
+        } catch (IOException e) {
+            log.warn("No se pudo eliminar el reporte de importación {}: {}", archivo, e.getMessage());
+            return false;
+        }
+    }
+
+    private Path directorioTenant(Long tenantId) {
+        return raiz().resolve("tenant_" + tenantId);
+    }
+
+    private Path raiz() {
+        return Paths.get(fileStorageProperties.getUploadDir()).toAbsolutePath().normalize().resolve(DIRECTORIO);
+    }
+}
@@ -0,0 +1,167 @@
+package com.inmobiliaria.terrenos.infrastructure.persistence;
+
+import com.inmobiliaria.terrenos.domain.enums.EstadoCliente;
+import com.inmobiliaria.terrenos.domain.enums.OrigenCliente;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Escritura masiva de clientes con JDBC batch.
+ *
+ * Como en TerrenoBatchWriter, Cliente usa ids IDENTITY y Hibernate no agrupa sus INSERT:
+ * las importaciones de listas de prospectos escriben directo con JdbcTemplate.batchUpdate
+ * dentro de la transacción vigente.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Repository
+@RequiredArgsConstructor
+public class ClienteBatchWriter {
+
+    public static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO clientes (tenant_id, nombre, apellido, email, telefono, telefono_secundario, direccion, " +
+            "ciudad, estado, codigo_postal, pais, rfc, curp, fecha_nacimiento, origen, estado_cliente, notas, " +
+            "deleted, created_at, updated_at, created_by, updated_by) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, CAST(? AS origen_cliente), CAST(? AS estado_cliente), ?, " +
+            "false, ?, ?, ?, ?)";
+
+    // Los campos opcionales vacíos en el archivo conservan el valor actual del cliente, y un
+    // COMPRADOR (estado que asigna una venta) no regresa a prospecto por una lista de marketing
+    private static final String UPDATE_SQL =
+            "UPDATE clientes SET nombre = ?, apellido = ?, email = COALESCE(?, email), telefono = ?, " +
+            "telefono_secundario = COALESCE(?, telefono_secundario), direccion = COALESCE(?, direccion), " +
+            "ciudad = COALESCE(?, ciudad), estado = COALESCE(?, estado), codigo_postal = COALESCE(?, codigo_postal), " +
+            "pais = COALESCE(?, pais), rfc = COALESCE(?, rfc), curp = COALESCE(?, curp), " +
+            "fecha_nacimiento = COALESCE(?, fecha_nacimiento), origen = COALESCE(CAST(? AS origen_cliente), origen), " +
+            "estado_cliente = CASE WHEN estado_cliente = 'COMPRADOR' THEN estado_cliente " +
+            "ELSE COALESCE(CAST(? AS estado_cliente), estado_cliente) END, notas = COALESCE(?, notas), " +
+            "updated_at = ?, updated_by = ? " +
+            "WHERE id = ? AND tenant_id = ? AND deleted = false";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Cliente leído de un archivo. id es null para los nuevos; los campos null no se modifican
+     * al actualizar.
+     */
+    public record ClienteImportado(Long id, String nombre, String apellido, String email, String telefono,
+                                   String telefonoSecundario, String direccion, String ciudad, String estado,
+                                   String codigoPostal, String pais, String rfc, String curp,
+                                   LocalDate fechaNacimiento, OrigenCliente origen, EstadoCliente estadoCliente,
+                                   String notas) {
+
+        public ClienteImportado conId(Long id) {
+            return new ClienteImportado(id, nombre, apellido, email, telefono, telefonoSecundario, direccion, ciudad,
+                    estado, codigoPostal, pais, rfc, curp, fechaNacimiento, origen, estadoCliente, notas);
+        }
+    }
+
+    /**
+     * Inserta los clientes en lotes de {@link #BATCH_SIZE} filas.
+     * Sin país se usa México y sin estado PROSPECTO, como en el alta individual.
+     *
+     * @return filas insertadas
+     */
+    public int insertar(Long tenantId, String usuario, Collection<ClienteImportado> clientes) {
+        if (clientes.isEmpty()) {
+            return 0;
+        }
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        int[][] resultado = jdbcTemplate.batchUpdate(INSERT_SQL, clientes, BATCH_SIZE, (ps, cliente) -> {
+            ps.setLong(1, tenantId);
+            ps.setString(2, cliente.nombre());
+            ps.setString(3, cliente.apellido());
+            ps.setString(4, cliente.email());
+            ps.setString(5, cliente.telefono());
+            ps.setString(6, cliente.telefonoSecundario());
+            ps.setString(7, cliente.direccion());
+            ps.setString(8, cliente.ciudad());
+            ps.setString(9, cliente.estado());
+            ps.setString(10, cliente.codigoPostal());
+            ps.setString(11, cliente.pais() != null ? cliente.pais() : "México");
+            ps.setString(12, cliente.rfc());
+            ps.setString(13, cliente.curp());
+            setFecha(ps, 14, cliente.fechaNacimiento());
+            ps.setString(15, cliente.origen() != null ? cliente.origen().name() : null);
+            ps.setString(16, (cliente.estadoCliente() != null ? cliente.estadoCliente() : EstadoCliente.PROSPECTO).name());
+            ps.setString(17, cliente.notas());
+            ps.setTimestamp(18, ahora);
+            ps.setTimestamp(19, ahora);
+            ps.setString(20, usuario);
+            ps.setString(21, usuario);
+        });
+        return contarFilas(resultado, clientes.size());
+    }
+
+    /**
+     * Actualiza clientes existentes (id no nulo) en lotes de {@link #BATCH_SIZE} filas.
+     *
+     * @return filas actualizadas
+     */
+    public int actualizar(Long tenantId, String usuario, Collection<ClienteImportado> clientes) {
+        if (clientes.isEmpty()) {
+            return 0;
+        }
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        int[][] resultado = jdbcTemplate.batchUpdate(UPDATE_SQL, clientes, BATCH_SIZE, (ps, cliente) -> {
+            ps.setString(1, cliente.nombre());
+            ps.setString(2, cliente.apellido());
+            ps.setString(3, cliente.email());
+            ps.setString(4, cliente.telefono());
+            ps.setString(5, cliente.telefonoSecundario());
+            ps.setString(6, cliente.direccion());
+            ps.setString(7, cliente.ciudad());
+            ps.setString(8, cliente.estado());
+            ps.setString(9, cliente.codigoPostal());
+            ps.setString(10, cliente.pais());
+            ps.setString(11, cliente.rfc());
+            ps.setString(12, cliente.curp());
+            setFecha(ps, 13, cliente.fechaNacimiento());
+            ps.setString(14, cliente.origen() != null ? cliente.origen().name() : null);
+            ps.setString(15, cliente.estadoCliente() != null ? cliente.estadoCliente().name() : null);
+            ps.setString(16, cliente.notas());
+            ps.setTimestamp(17, ahora);
+            ps.setString(18, usuario);
+            ps.setLong(19, cliente.id());
+            ps.setLong(20, tenantId);
+        });
+        return contarFilas(resultado, clientes.size());
+    }
+
+    private static void setFecha(PreparedStatement ps, int indice, LocalDate fecha) throws SQLException {
+        if (fecha != null) {
+            ps.setDate(indice, Date.valueOf(fecha));
+        } else {
+            ps.setNull(indice, Types.DATE);
+        }
+    }
+
+    /**
+     * Con INSERT reescritos el driver puede reportar SUCCESS_NO_INFO (-2) por fila;
+     * en ese caso se asume el total enviado.
+     */
+    private static int contarFilas(int[][] resultado, int enviados) {
+        int total = 0;
+        for (int[] lote : resultado) {
+            if (Arrays.stream(lote).anyMatch(filas -> filas < 0)) {
+                return enviados;
+            }
+            total += Arrays.stream(lote).sum();
+        }
+        return total;
+    }
+}
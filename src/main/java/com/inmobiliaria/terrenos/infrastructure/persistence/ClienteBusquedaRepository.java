@@ -0,0 +1,198 @@
+package com.inmobiliaria.terrenos.infrastructure.persistence;
+
+import com.inmobiliaria.terrenos.application.dto.cliente.ClienteSugerenciaResponse;
+import com.inmobiliaria.terrenos.domain.enums.EstadoCliente;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.text.Normalizer;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Búsqueda y autocompletado de clientes por nombre, email, teléfono y RFC.
+ *
+ * Las condiciones usan las mismas expresiones que los índices de V17: trigramas GIN sobre el
+ * nombre completo sin acentos, el email y los dígitos del teléfono, y árboles con collation "C"
+ * para los prefijos. El texto buscado se normaliza aquí igual que normalizar_busqueda() en la
+ * base (minúsculas, sin acentos).
+ *
+ * El costo está acotado aunque el texto sea muy común ("jua" coincide con miles de clientes):
+ * - los prefijos del nombre salen en orden del índice (como rango) y se cortan en el límite
+ * - las subcadenas se toman hasta MAX_CANDIDATOS filas, y solo esas se ordenan por relevancia
+ * A medida que el usuario escribe, el texto se vuelve selectivo y el orden es exacto.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Repository
+@RequiredArgsConstructor
+public class ClienteBusquedaRepository {
+
+    public static final int LIMITE_MAXIMO = 50;
+
+    /** Con menos caracteres no se busca */
+    public static final int LONGITUD_MINIMA = 2;
+
+    /** Desde esta longitud hay trigramas completos y se buscan subcadenas */
+    public static final int LONGITUD_SUBCADENA = 3;
+
+    /** Desde esta longitud se aceptan coincidencias aproximadas (errores de dedo) */
+    public static final int LONGITUD_APROXIMADA = 4;
+
+    static final int MAX_CANDIDATOS = 500;
+
+    static final String NOMBRE = "normalizar_busqueda(c.nombre || ' ' || c.apellido)";
+    static final String NOMBRE_ORDENADO = NOMBRE + " COLLATE \"C\"";
+    static final String EMAIL = "lower(c.email)";
+    static final String TELEFONO = "regexp_replace(c.telefono, '[^0-9]', '', 'g')";
+    static final String RFC = "upper(c.rfc) COLLATE \"C\"";
+
+    private static final String FILTRO_BASE = "c.tenant_id = :tenantId AND c.deleted = false";
+
+    private static final RowMapper<ClienteSugerenciaResponse> ROW_MAPPER = (rs, rowNum) -> ClienteSugerenciaResponse.builder()
+            .id(rs.getLong("id"))
+            .nombre(rs.getString("nombre"))
+            .apellido(rs.getString("apellido"))
+            .nombreCompleto(rs.getString("nombre") + " " + rs.getString("apellido"))
+            .email(rs.getString("email"))
+            .telefono(rs.getString("telefono"))
+            .rfc(rs.getString("rfc"))
+            .estadoCliente(EstadoCliente.valueOf(rs.getString("estado_cliente")))
+            .rango(rs.getInt("rango"))
+            .similitud(rs.getDouble("similitud"))
+            .build();
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Texto buscado en las formas que comparan las columnas
+     *
+     * @param texto        minúsculas, sin acentos y con espacios simples
+     * @param digitos      solo los dígitos, para el teléfono
+     * @param alfanumerico letras y dígitos en mayúsculas, para el RFC
+     */
+    public record Termino(String texto, String digitos, String alfanumerico) {
+
+        public static Termino of(String entrada) {
+            String sinAcentos = Normalizer.normalize(entrada == null ? "" : entrada, Normalizer.Form.NFD)
+                    .replaceAll("\\p{M}", "");
+            String texto = sinAcentos.toLowerCase(Locale.ROOT).trim().replaceAll("\\s+", " ");
+            return new Termino(texto,
+                    texto.replaceAll("[^0-9]", ""),
+                    texto.replaceAll("[^a-z0-9&]", "").toUpperCase(Locale.ROOT));
+        }
+
+        public boolean buscable() {
+            return texto.length() >= LONGITUD_MINIMA;
+        }
+    }
+
+    record Consulta(String sql, MapSqlParameterSource parametros) {
+    }
+
+    /**
+     * Clientes del tenant que coinciden con el texto, del más al menos relevante
+     */
+    public List<ClienteSugerenciaResponse> buscar(Long tenantId, String texto, int limite) {
+        Termino termino = Termino.of(texto);
+        if (!termino.buscable()) {
+            return List.of();
+        }
+        Consulta consulta = construirConsulta(tenantId, termino, limite);
+        return jdbcTemplate.query(consulta.sql(), consulta.parametros(), ROW_MAPPER);
+    }
+
+    /**
+     * Ids de los clientes que coinciden, en orden de relevancia
+     */
+    public List<Long> buscarIds(Long tenantId, String texto, int limite) {
+        return buscar(tenantId, texto, limite).stream()
+                .map(ClienteSugerenciaResponse::getId)
+                .toList();
+    }
+
+    Consulta construirConsulta(Long tenantId, Termino termino, int limite) {
+        MapSqlParameterSource parametros = new MapSqlParameterSource()
+                .addValue("tenantId", tenantId)
+                .addValue("texto", termino.texto())
+                .addValue("prefijo", escaparLike(termino.texto()) + "%")
+                .addValue("desde", termino.texto())
+                .addValue("hasta", siguientePrefijo(termino.texto()))
+                .addValue("limite", Math.clamp(limite, 1, LIMITE_MAXIMO));
+
+        boolean subcadena = termino.texto().length() >= LONGITUD_SUBCADENA;
+        boolean telefono = termino.digitos().length() >= LONGITUD_SUBCADENA;
+        // El RFC se busca por prefijo y solo con texto de una palabra
+        boolean rfc = termino.alfanumerico().length() >= LONGITUD_SUBCADENA && !termino.texto().contains(" ");
+
+        StringBuilder candidatos = new StringBuilder("WITH candidatos AS (" +
+                "(SELECT c.id FROM clientes c WHERE " + FILTRO_BASE + " AND " + NOMBRE_ORDENADO + " >= :desde " +
+                "AND " + NOMBRE_ORDENADO + " < :hasta " +
+                "ORDER BY " + NOMBRE_ORDENADO + " LIMIT :limite)");
+
+        StringBuilder prefijoOtros = new StringBuilder(NOMBRE + " LIKE :prefijoPalabra OR " + EMAIL + " LIKE :prefijo");
+        StringBuilder contiene = new StringBuilder(NOMBRE + " LIKE :contiene OR " + EMAIL + " LIKE :contiene");
+        parametros.addValue("prefijoPalabra", "% " + escaparLike(termino.texto()) + "%");
+        parametros.addValue("contiene", "%" + escaparLike(termino.texto()) + "%");
+
+        if (telefono) {
+            prefijoOtros.append(" OR ").append(TELEFONO).append(" LIKE :prefijoDigitos");
+            contiene.append(" OR ").append(TELEFONO).append(" LIKE :contieneDigitos");
+            parametros.addValue("prefijoDigitos", termino.digitos() + "%");
+            parametros.addValue("contieneDigitos", "%" + termino.digitos() + "%");
+        }
+        if (rfc) {
+            prefijoOtros.append(" OR (").append(RFC).append(" >= :rfcDesde AND ").append(RFC).append(" < :rfcHasta)");
+            parametros.addValue("rfcDesde", termino.alfanumerico());
+            parametros.addValue("rfcHasta", siguientePrefijo(termino.alfanumerico()));
+        }
+
+        if (subcadena) {
+            StringBuilder coincide = new StringBuilder(contiene);
+            if (rfc) {
+                coincide.append(" OR (").append(RFC).append(" >= :rfcDesde AND ").append(RFC).append(" < :rfcHasta)");
+            }
+            if (termino.texto().length() >= LONGITUD_APROXIMADA) {
+                coincide.append(" OR :texto <% ").append(NOMBRE);
+            }
+            candidatos.append(" UNION (SELECT c.id FROM clientes c WHERE ").append(FILTRO_BASE)
+                    .append(" AND (").append(coincide).append(") LIMIT :maxCandidatos)");
+            parametros.addValue("maxCandidatos", MAX_CANDIDATOS);
+        }
+        candidatos.append(") ");
+
+        String sql = candidatos +
+                "SELECT c.id, c.nombre, c.apellido, c.email, c.telefono, c.rfc, " +
+                "CAST(c.estado_cliente AS text) AS estado_cliente, " +
+                "CASE WHEN " + NOMBRE + " LIKE :prefijo THEN 0 " +
+                "WHEN " + prefijoOtros + " THEN 1 " +
+                "WHEN " + contiene + " THEN 2 ELSE 3 END AS rango, " +
+                "word_similarity(:texto, " + NOMBRE + ") AS similitud " +
+                "FROM candidatos k JOIN clientes c ON c.id = k.id " +
+                "ORDER BY rango, similitud DESC, c.id LIMIT :limite";
+        return new Consulta(sql, parametros);
+    }
+
+    /**
+     * Primer texto mayor que todos los que empiezan con el prefijo (en collation "C").
+     *
+     * Los prefijos que deben usar un índice B-tree se expresan como rango: con la sentencia
+     * preparada, PostgreSQL puede planear LIKE :prefijo sin conocer el valor y entonces no lo
+     * convierte en un rango del índice.
+     */
+    static String siguientePrefijo(String prefijo) {
+        int ultimo = prefijo.length() - 1;
+        return prefijo.substring(0, ultimo) + (char) (prefijo.charAt(ultimo) + 1);
+    }
+
+    /**
+     * Escapa los comodines de LIKE (el carácter de escape por omisión es \)
+     */
+    static String escaparLike(String texto) {
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
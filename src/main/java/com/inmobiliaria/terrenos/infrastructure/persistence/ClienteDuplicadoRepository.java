@@ -0,0 +1,192 @@
+package com.inmobiliaria.terrenos.infrastructure.persistence;
+
+import com.inmobiliaria.terrenos.application.dto.cliente.DuplicadoClienteResponse;
+import com.inmobiliaria.terrenos.domain.enums.EstadoDuplicadoCliente;
+import com.inmobiliaria.terrenos.infrastructure.busqueda.DetectorDuplicados;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Acceso con JDBC a los clientes duplicados: lectura masiva de los clientes de un tenant para
+ * la detección, escritura de las sugerencias por lotes y reasignación de las transacciones de
+ * un cliente fusionado con una sentencia por tabla.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Repository
+@RequiredArgsConstructor
+public class ClienteDuplicadoRepository {
+
+    public static final int BATCH_SIZE = 500;
+
+    /** Filas por viaje al leer los clientes; requiere transacción para que PostgreSQL use cursor */
+    static final int FETCH_SIZE = 5_000;
+
+    static final String SELECT_FICHAS =
+            "SELECT id, nombre, apellido, email, telefono, telefono_secundario, rfc FROM clientes " +
+            "WHERE tenant_id = ? AND deleted = false";
+
+    // Un par ya descartado o fusionado conserva su estado aunque se vuelva a detectar
+    static final String UPSERT_SUGERENCIA =
+            "INSERT INTO duplicados_cliente (tenant_id, cliente_id, duplicado_id, puntaje, coincidencias, estado, detectado_at) " +
+            "VALUES (?, ?, ?, ?, ?, 'PENDIENTE', ?) " +
+            "ON CONFLICT (tenant_id, cliente_id, duplicado_id) DO UPDATE SET " +
+            "puntaje = EXCLUDED.puntaje, coincidencias = EXCLUDED.coincidencias, detectado_at = EXCLUDED.detectado_at " +
+            "WHERE duplicados_cliente.estado = 'PENDIENTE'";
+
+    static final String DELETE_OBSOLETAS =
+            "DELETE FROM duplicados_cliente WHERE tenant_id = ? AND estado = 'PENDIENTE' AND detectado_at < ?";
+
+    static final String SELECT_PENDIENTES =
+            "SELECT d.id, d.cliente_id, d.duplicado_id, d.puntaje, d.coincidencias, d.estado, d.detectado_at, " +
+            "c.nombre AS c_nombre, c.apellido AS c_apellido, c.email AS c_email, c.telefono AS c_telefono, c.rfc AS c_rfc, " +
+            "x.nombre AS x_nombre, x.apellido AS x_apellido, x.email AS x_email, x.telefono AS x_telefono, x.rfc AS x_rfc " +
+            "FROM duplicados_cliente d " +
+            "JOIN clientes c ON c.id = d.cliente_id AND c.deleted = false " +
+            "JOIN clientes x ON x.id = d.duplicado_id AND x.deleted = false " +
+            "WHERE d.tenant_id = ? AND d.estado = 'PENDIENTE' " +
+            "ORDER BY d.puntaje DESC, d.id LIMIT ?";
+
+    static final String UPDATE_DESCARTAR =
+            "UPDATE duplicados_cliente SET estado = 'DESCARTADO', resuelto_at = ?, resuelto_by = ? " +
+            "WHERE id = ? AND tenant_id = ? AND estado = 'PENDIENTE'";
+
+    static final String UPDATE_FUSIONADO =
+            "UPDATE duplicados_cliente SET estado = 'FUSIONADO', resuelto_at = ?, resuelto_by = ? " +
+            "WHERE tenant_id = ? AND cliente_id = ? AND duplicado_id = ? AND estado = 'PENDIENTE'";
+
+    // El cliente fusionado ya no existe: sus otras sugerencias se recalculan contra el conservado
+    static final String DELETE_PENDIENTES_CLIENTE =
+            "DELETE FROM duplicados_cliente WHERE tenant_id = ? AND estado = 'PENDIENTE' " +
+            "AND (cliente_id = ? OR duplicado_id = ?)";
+
+    static final List<String> TABLAS_REASIGNABLES = List.of("cotizaciones", "apartados", "ventas", "planes_pago", "pagos");
+
+    private static final RowMapper<DuplicadoClienteResponse> ROW_MAPPER = (rs, rowNum) -> DuplicadoClienteResponse.builder()
+            .id(rs.getLong("id"))
+            .clienteId(rs.getLong("cliente_id"))
+            .clienteNombreCompleto(rs.getString("c_nombre") + " " + rs.getString("c_apellido"))
+            .clienteEmail(rs.getString("c_email"))
+            .clienteTelefono(rs.getString("c_telefono"))
+            .clienteRfc(rs.getString("c_rfc"))
+            .duplicadoId(rs.getLong("duplicado_id"))
+            .duplicadoNombreCompleto(rs.getString("x_nombre") + " " + rs.getString("x_apellido"))
+            .duplicadoEmail(rs.getString("x_email"))
+            .duplicadoTelefono(rs.getString("x_telefono"))
+            .duplicadoRfc(rs.getString("x_rfc"))
+            .puntaje(rs.getBigDecimal("puntaje"))
+            .coincidencias(Arrays.asList(rs.getString("coincidencias").split(",")))
+            .estado(EstadoDuplicadoCliente.valueOf(rs.getString("estado")))
+            .detectadoAt(rs.getTimestamp("detectado_at").toLocalDateTime())
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Registros del cliente fusionado que pasaron al conservado, por tabla
+     */
+    public record Reasignacion(int cotizaciones, int apartados, int ventas, int planesPago, int pagos) {
+    }
+
+    /**
+     * Clientes activos del tenant con los campos que compara la detección.
+     * Debe ejecutarse dentro de una transacción para leer por bloques de FETCH_SIZE.
+     */
+    public List<DetectorDuplicados.Ficha> fichas(Long tenantId) {
+        List<DetectorDuplicados.Ficha> fichas = new ArrayList<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SELECT_FICHAS);
+            ps.setFetchSize(FETCH_SIZE);
+            ps.setLong(1, tenantId);
+            return ps;
+        }, rs -> {
+            fichas.add(new DetectorDuplicados.Ficha(rs.getLong("id"), rs.getString("nombre"), rs.getString("apellido"),
+                    rs.getString("email"), rs.getString("telefono"), rs.getString("telefono_secundario"),
+                    rs.getString("rfc")));
+        });
+        return fichas;
+    }
+
+    /**
+     * Registra o actualiza las sugerencias pendientes en lotes de {@link #BATCH_SIZE} filas
+     *
+     * @param detectado momento de la detección; las pendientes anteriores no detectadas de nuevo
+     *                  se eliminan con {@link #eliminarObsoletas}
+     */
+    public void guardarSugerencias(Long tenantId, Collection<DetectorDuplicados.Par> pares, LocalDateTime detectado) {
+        if (pares.isEmpty()) {
+            return;
+        }
+        Timestamp momento = Timestamp.valueOf(detectado);
+        jdbcTemplate.batchUpdate(UPSERT_SUGERENCIA, pares, BATCH_SIZE, (ps, par) -> {
+            ps.setLong(1, tenantId);
+            ps.setLong(2, par.clienteId());
+            ps.setLong(3, par.duplicadoId());
+            ps.setDouble(4, par.puntaje());
+            ps.setString(5, par.coincidencias());
+            ps.setTimestamp(6, momento);
+        });
+    }
+
+    /**
+     * Elimina las sugerencias pendientes que la detección más reciente ya no encontró
+     * (se corrigió un teléfono, se eliminó un cliente...)
+     */
+    public int eliminarObsoletas(Long tenantId, LocalDateTime detectado) {
+        return jdbcTemplate.update(DELETE_OBSOLETAS, tenantId, Timestamp.valueOf(detectado));
+    }
+
+    /**
+     * Sugerencias pendientes del tenant de la más a la menos probable
+     */
+    public List<DuplicadoClienteResponse> pendientes(Long tenantId, int limite) {
+        return jdbcTemplate.query(SELECT_PENDIENTES, ROW_MAPPER, tenantId, limite);
+    }
+
+    /**
+     * @return false si la sugerencia no existe, es de otro tenant o ya se resolvió
+     */
+    public boolean descartar(Long tenantId, Long sugerenciaId, String usuario, LocalDateTime ahora) {
+        return jdbcTemplate.update(UPDATE_DESCARTAR, Timestamp.valueOf(ahora), usuario, sugerenciaId, tenantId) > 0;
+    }
+
+    /**
+     * Pasa las cotizaciones, apartados, ventas, planes de pago y pagos de un cliente a otro
+     */
+    public Reasignacion reasignar(Long tenantId, Long desdeClienteId, Long haciaClienteId, String usuario,
+                                  LocalDateTime ahora) {
+        Timestamp momento = Timestamp.valueOf(ahora);
+        int[] filas = new int[TABLAS_REASIGNABLES.size()];
+        for (int i = 0; i < filas.length; i++) {
+            filas[i] = jdbcTemplate.update(sqlReasignar(TABLAS_REASIGNABLES.get(i)),
+                    haciaClienteId, momento, usuario, tenantId, desdeClienteId);
+        }
+        return new Reasignacion(filas[0], filas[1], filas[2], filas[3], filas[4]);
+    }
+
+    /**
+     * Marca como fusionada la sugerencia del par (si existía) y elimina las demás pendientes
+     * del cliente fusionado
+     */
+    public void registrarFusion(Long tenantId, Long clienteId, Long duplicadoId, String usuario, LocalDateTime ahora) {
+        jdbcTemplate.update(UPDATE_FUSIONADO, Timestamp.valueOf(ahora), usuario, tenantId,
+                Math.min(clienteId, duplicadoId), Math.max(clienteId, duplicadoId));
+        jdbcTemplate.update(DELETE_PENDIENTES_CLIENTE, tenantId, duplicadoId, duplicadoId);
+    }
+
+    static String sqlReasignar(String tabla) {
+        return "UPDATE " + tabla + " SET cliente_id = ?, updated_at = ?, updated_by = ? " +
+                "WHERE tenant_id = ? AND cliente_id = ?";
+    }
+}
@@ -0,0 +1,312 @@
+package com.inmobiliaria.terrenos.infrastructure.persistence;
+
+import com.inmobiliaria.terrenos.application.dto.apartado.ApartadoResponse;
+import com.inmobiliaria.terrenos.application.dto.cliente.PaginaHistorialResponse;
+import com.inmobiliaria.terrenos.application.dto.cotizacion.CotizacionResponse;
+import com.inmobiliaria.terrenos.application.dto.venta.VentaResponse;
+import com.inmobiliaria.terrenos.domain.enums.EstadoApartado;
+import com.inmobiliaria.terrenos.domain.enums.EstadoVenta;
+import com.inmobiliaria.terrenos.shared.exception.BusinessException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Vista 360 del cliente con JDBC.
+ *
+ * - resumen: conteos, montos, vigentes y última actividad de cotizaciones, apartados y ventas
+ *   en una sola consulta de agregados.
+ * - cotizaciones, apartados y ventas: páginas del historial de la más reciente a la más
+ *   antigua, paginadas por llave (created_at, id) como TerrenoBusquedaRepository.
+ *
+ * Todas las consultas filtran por tenant, cliente y deleted y usan los índices parciales
+ * (tenant_id, cliente_id, created_at DESC, id DESC) de V18: el costo depende del tamaño de la
+ * página y no de cuántas transacciones tenga el cliente.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Repository
+@RequiredArgsConstructor
+public class ClienteHistorialRepository {
+
+    private static final String FILTRO_CLIENTE = "tenant_id = :tenantId AND cliente_id = :clienteId AND deleted = false";
+
+    static final String SQL_RESUMEN =
+            "SELECT co.total AS cotizaciones, co.monto AS monto_cotizaciones, co.vigentes AS cotizaciones_vigentes, " +
+            "co.ultima AS ultima_cotizacion, " +
+            "ap.total AS apartados, ap.monto AS monto_apartados, ap.activos AS apartados_activos, " +
+            "ap.ultima AS ultimo_apartado, " +
+            "ve.total AS ventas, ve.monto AS monto_ventas, ve.ultima AS ultima_venta " +
+            "FROM (SELECT COUNT(*) AS total, COALESCE(SUM(precio_final), 0) AS monto, " +
+            "COUNT(CASE WHEN fecha_vigencia > :hoy THEN 1 END) AS vigentes, MAX(created_at) AS ultima " +
+            "FROM cotizaciones WHERE " + FILTRO_CLIENTE + ") co " +
+            "CROSS JOIN (SELECT COUNT(*) AS total, COALESCE(SUM(monto_apartado), 0) AS monto, " +
+            "COUNT(CASE WHEN estado = 'ACTIVO' THEN 1 END) AS activos, MAX(created_at) AS ultima " +
+            "FROM apartados WHERE " + FILTRO_CLIENTE + ") ap " +
+            "CROSS JOIN (SELECT COUNT(*) AS total, COALESCE(SUM(monto_final), 0) AS monto, MAX(created_at) AS ultima " +
+            "FROM ventas WHERE " + FILTRO_CLIENTE + ") ve";
+
+    static final String SELECT_COTIZACIONES =
+            "SELECT c.id, c.tenant_id, c.terreno_id, t.numero_lote, t.manzana, t.proyecto_id, " +
+            "p.nombre AS proyecto_nombre, c.precio_base, c.descuento, c.porcentaje_descuento, c.precio_final, " +
+            "c.fecha_vigencia, c.observaciones, c.created_at, c.updated_at " +
+            "FROM cotizaciones c " +
+            "LEFT JOIN terrenos t ON t.id = c.terreno_id " +
+            "LEFT JOIN proyectos p ON p.id = t.proyecto_id ";
+
+    static final String SELECT_APARTADOS =
+            "SELECT a.id, a.tenant_id, a.terreno_id, t.numero_lote, t.manzana, t.proyecto_id, " +
+            "p.nombre AS proyecto_nombre, a.cotizacion_id, a.monto_apartado, a.precio_total, a.fecha_apartado, " +
+            "a.duracion_dias, a.fecha_vencimiento, CAST(a.estado AS varchar) AS estado, a.observaciones, " +
+            "a.created_at, a.updated_at " +
+            "FROM apartados a " +
+            "LEFT JOIN terrenos t ON t.id = a.terreno_id " +
+            "LEFT JOIN proyectos p ON p.id = t.proyecto_id ";
+
+    static final String SELECT_VENTAS =
+            "SELECT v.id, v.tenant_id, v.terreno_id, t.numero_lote, t.manzana, t.proyecto_id, " +
+            "p.nombre AS proyecto_nombre, v.apartado_id, v.usuario_id, u.nombre AS usuario_nombre, " +
+            "u.apellido AS usuario_apellido, v.comprador_nombre, v.comprador_email, v.comprador_telefono, " +
+            "v.comprador_direccion, v.comprador_rfc, v.comprador_curp, v.fecha_venta, v.precio_total, " +
+            "v.monto_apartado_acreditado, v.monto_final, v.porcentaje_comision, v.monto_comision, v.forma_pago, " +
+            "CAST(v.estado AS varchar) AS estado, v.observaciones, v.created_at, v.updated_at " +
+            "FROM ventas v " +
+            "LEFT JOIN terrenos t ON t.id = v.terreno_id " +
+            "LEFT JOIN proyectos p ON p.id = t.proyecto_id " +
+            "LEFT JOIN usuarios u ON u.id = v.usuario_id ";
+
+    private static final RowMapper<CotizacionResponse> COTIZACION_MAPPER = (rs, rowNum) -> CotizacionResponse.builder()
+            .id(rs.getLong("id"))
+            .tenantId(rs.getLong("tenant_id"))
+            .terrenoId(rs.getLong("terreno_id"))
+            .terrenoNumeroLote(rs.getString("numero_lote"))
+            .terrenoManzana(rs.getString("manzana"))
+            .proyectoId(rs.getObject("proyecto_id", Long.class))
+            .proyectoNombre(rs.getString("proyecto_nombre"))
+            .precioBase(rs.getBigDecimal("precio_base"))
+            .descuento(rs.getBigDecimal("descuento"))
+            .porcentajeDescuento(rs.getBigDecimal("porcentaje_descuento"))
+            .precioFinal(rs.getBigDecimal("precio_final"))
+            .fechaVigencia(toLocalDate(rs.getDate("fecha_vigencia")))
+            .observaciones(rs.getString("observaciones"))
+            .createdAt(toLocalDateTime(rs.getTimestamp("created_at")))
+            .updatedAt(toLocalDateTime(rs.getTimestamp("updated_at")))
+            .build();
+
+    private static final RowMapper<ApartadoResponse> APARTADO_MAPPER = (rs, rowNum) -> ApartadoResponse.builder()
+            .id(rs.getLong("id"))
+            .tenantId(rs.getLong("tenant_id"))
+            .terrenoId(rs.getLong("terreno_id"))
+            .terrenoNumeroLote(rs.getString("numero_lote"))
+            .terrenoManzana(rs.getString("manzana"))
+            .proyectoId(rs.getObject("proyecto_id", Long.class))
+            .proyectoNombre(rs.getString("proyecto_nombre"))
+            .cotizacionId(rs.getObject("cotizacion_id", Long.class))
+            .montoApartado(rs.getBigDecimal("monto_apartado"))
+            .precioTotal(rs.getBigDecimal("precio_total"))
+            .fechaApartado(toLocalDate(rs.getDate("fecha_apartado")))
+            .duracionDias(rs.getObject("duracion_dias", Integer.class))
+            .fechaVencimiento(toLocalDate(rs.getDate("fecha_vencimiento")))
+            .estado(EstadoApartado.valueOf(rs.getString("estado")))
+            .observaciones(rs.getString("observaciones"))
+            .createdAt(toLocalDateTime(rs.getTimestamp("created_at")))
+            .updatedAt(toLocalDateTime(rs.getTimestamp("updated_at")))
+            .build();
+
+    private static final RowMapper<VentaResponse> VENTA_MAPPER = (rs, rowNum) -> VentaResponse.builder()
+            .id(rs.getLong("id"))
+            .tenantId(rs.getLong("tenant_id"))
+            .terrenoId(rs.getLong("terreno_id"))
+            .terrenoNumeroLote(rs.getString("numero_lote"))
+            .terrenoManzana(rs.getString("manzana"))
+            .proyectoId(rs.getObject("proyecto_id", Long.class))
+            .proyectoNombre(rs.getString("proyecto_nombre"))
+            .apartadoId(rs.getObject("apartado_id", Long.class))
+            .usuarioId(rs.getObject("usuario_id", Long.class))
+            .usuarioNombre(rs.getString("usuario_nombre") != null
+                    ? rs.getString("usuario_nombre") + " " + rs.getString("usuario_apellido") : null)
+            .compradorNombre(rs.getString("comprador_nombre"))
+            .compradorEmail(rs.getString("comprador_email"))
+            .compradorTelefono(rs.getString("comprador_telefono"))
+            .compradorDireccion(rs.getString("comprador_direccion"))
+            .compradorRfc(rs.getString("comprador_rfc"))
+            .compradorCurp(rs.getString("comprador_curp"))
+            .fechaVenta(toLocalDate(rs.getDate("fecha_venta")))
+            .precioTotal(rs.getBigDecimal("precio_total"))
+            .montoApartadoAcreditado(rs.getBigDecimal("monto_apartado_acreditado"))
+            .montoFinal(rs.getBigDecimal("monto_final"))
+            .porcentajeComision(rs.getBigDecimal("porcentaje_comision"))
+            .montoComision(rs.getBigDecimal("monto_comision"))
+            .formaPago(rs.getString("forma_pago"))
+            .estado(EstadoVenta.valueOf(rs.getString("estado")))
+            .observaciones(rs.getString("observaciones"))
+            .createdAt(toLocalDateTime(rs.getTimestamp("created_at")))
+            .updatedAt(toLocalDateTime(rs.getTimestamp("updated_at")))
+            .build();
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Agregados del cliente. Los montos suman todas las transacciones no eliminadas, sin
+     * importar su estado.
+     */
+    public record Resumen(long totalCotizaciones,
+                          BigDecimal montoTotalCotizaciones,
+                          long cotizacionesVigentes,
+                          LocalDateTime ultimaCotizacion,
+                          long totalApartados,
+                          BigDecimal montoTotalApartados,
+                          long apartadosActivos,
+                          LocalDateTime ultimoApartado,
+                          long totalVentas,
+                          BigDecimal montoTotalVentas,
+                          LocalDateTime ultimaVenta) {
+
+        /**
+         * Fecha de la cotización, apartado o venta más reciente; null si no tiene ninguna
+         */
+        public LocalDateTime ultimaActividad() {
+            return Stream.of(ultimaCotizacion, ultimoApartado, ultimaVenta)
+                    .filter(Objects::nonNull)
+                    .max(LocalDateTime::compareTo)
+                    .orElse(null);
+        }
+    }
+
+    /**
+     * Posición después de la cual continúa la página siguiente
+     */
+    record Cursor(LocalDateTime creado, long id) {
+    }
+
+    record Consulta(String sql, MapSqlParameterSource parametros) {
+    }
+
+    /**
+     * Resumen del cliente en una consulta. hoy es la fecha para contar cotizaciones vigentes
+     * (fecha de vigencia posterior).
+     */
+    public Resumen resumen(Long tenantId, Long clienteId, LocalDate hoy) {
+        MapSqlParameterSource parametros = new MapSqlParameterSource()
+                .addValue("tenantId", tenantId)
+                .addValue("clienteId", clienteId)
+                .addValue("hoy", Date.valueOf(hoy));
+
+        return jdbcTemplate.queryForObject(SQL_RESUMEN, parametros, (rs, rowNum) -> new Resumen(
+                rs.getLong("cotizaciones"),
+                rs.getBigDecimal("monto_cotizaciones"),
+                rs.getLong("cotizaciones_vigentes"),
+                toLocalDateTime(rs.getTimestamp("ultima_cotizacion")),
+                rs.getLong("apartados"),
+                rs.getBigDecimal("monto_apartados"),
+                rs.getLong("apartados_activos"),
+                toLocalDateTime(rs.getTimestamp("ultimo_apartado")),
+                rs.getLong("ventas"),
+                rs.getBigDecimal("monto_ventas"),
+                toLocalDateTime(rs.getTimestamp("ultima_venta"))));
+    }
+
+    public PaginaHistorialResponse<CotizacionResponse> cotizaciones(Long tenantId, Long clienteId, String cursor,
+                                                                   int limite) {
+        return pagina(SELECT_COTIZACIONES, "c", COTIZACION_MAPPER, CotizacionResponse::getCreatedAt,
+                CotizacionResponse::getId, tenantId, clienteId, cursor, limite);
+    }
+
+    public PaginaHistorialResponse<ApartadoResponse> apartados(Long tenantId, Long clienteId, String cursor,
+                                                               int limite) {
+        return pagina(SELECT_APARTADOS, "a", APARTADO_MAPPER, ApartadoResponse::getCreatedAt,
+                ApartadoResponse::getId, tenantId, clienteId, cursor, limite);
+    }
+
+    public PaginaHistorialResponse<VentaResponse> ventas(Long tenantId, Long clienteId, String cursor, int limite) {
+        return pagina(SELECT_VENTAS, "v", VENTA_MAPPER, VentaResponse::getCreatedAt,
+                VentaResponse::getId, tenantId, clienteId, cursor, limite);
+    }
+
+    private <T> PaginaHistorialResponse<T> pagina(String select, String alias, RowMapper<T> rowMapper,
+                                                  Function<T, LocalDateTime> creado, Function<T, Long> id,
+                                                  Long tenantId, Long clienteId, String cursor, int limite) {
+        Consulta consulta = construirConsulta(select, alias, tenantId, clienteId, cursor, limite);
+        List<T> filas = jdbcTemplate.query(consulta.sql(), consulta.parametros(), rowMapper);
+
+        // Se pide una fila de más para saber si hay página siguiente
+        boolean hayMas = filas.size() > limite;
+        List<T> elementos = hayMas ? filas.subList(0, limite) : filas;
+        String siguienteCursor = hayMas
+                ? codificarCursor(creado.apply(elementos.getLast()), id.apply(elementos.getLast()))
+                : null;
+
+        return PaginaHistorialResponse.<T>builder()
+                .elementos(List.copyOf(elementos))
+                .siguienteCursor(siguienteCursor)
+                .hayMas(hayMas)
+                .build();
+    }
+
+    static Consulta construirConsulta(String select, String alias, Long tenantId, Long clienteId, String cursor,
+                                      int limite) {
+        StringBuilder sql = new StringBuilder(select)
+                .append("WHERE ").append(alias).append(".tenant_id = :tenantId AND ")
+                .append(alias).append(".cliente_id = :clienteId AND ").append(alias).append(".deleted = false");
+        MapSqlParameterSource parametros = new MapSqlParameterSource()
+                .addValue("tenantId", tenantId)
+                .addValue("clienteId", clienteId)
+                .addValue("limite", limite + 1);
+
+        if (cursor != null && !cursor.isBlank()) {
+            Cursor posicion = decodificarCursor(cursor);
+            sql.append(" AND (").append(alias).append(".created_at, ").append(alias).append(".id) < (:creado, :id)");
+            parametros.addValue("creado", Timestamp.valueOf(posicion.creado()));
+            parametros.addValue("id", posicion.id());
+        }
+
+        sql.append(" ORDER BY ").append(alias).append(".created_at DESC, ").append(alias).append(".id DESC LIMIT :limite");
+        return new Consulta(sql.toString(), parametros);
+    }
+
+    /**
+     * Cursor opaco: fecha de creación e id de la última fila, en base64url
+     */
+    static String codificarCursor(LocalDateTime creado, long id) {
+        String texto = creado + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Cursor decodificarCursor(String cursor) {
+        try {
+            String texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] partes = texto.split("\\|");
+            if (partes.length != 2) {
+                throw new BusinessException("Cursor inválido", HttpStatus.BAD_REQUEST);
+            }
+            return new Cursor(LocalDateTime.parse(partes[0]), Long.parseLong(partes[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BusinessException("Cursor inválido", HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return date != null ? date.toLocalDate() : null;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -0,0 +1,350 @@
+package com.inmobiliaria.terrenos.infrastructure.persistence;
+
+import com.inmobiliaria.terrenos.domain.enums.AgrupacionEmbudo;
+import com.inmobiliaria.terrenos.domain.enums.MetricaEmbudo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Acumulados del embudo de ventas con SQL por conjuntos.
+ *
+ * - consolidar: un bloque de embudo_movimientos se borra y se suma a embudo_ventas_diario y
+ *   embudo_tiempos_diario en una sola sentencia (INSERT ... ON CONFLICT DO UPDATE). Los
+ *   movimientos se toman con FOR UPDATE SKIP LOCKED, así varias instancias consolidan
+ *   bloques distintos sin esperarse.
+ * - consultar / consultarTiempos: leen los acumulados del periodo más los movimientos aún
+ *   pendientes, así el reporte es exacto sin esperar a la consolidación. El costo depende de
+ *   los días, proyectos y agentes del periodo, no de cuántas cotizaciones, apartados y ventas
+ *   tenga la empresa.
+ * - reconstruir: vuelve a generar los movimientos de una empresa desde cotizaciones,
+ *   apartados y ventas (datos previos al embudo o corrección de diferencias).
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Repository
+@RequiredArgsConstructor
+public class EmbudoVentasRepository {
+
+    static final List<MetricaEmbudo> CONTEOS = Arrays.stream(MetricaEmbudo.values())
+            .filter(metrica -> !metrica.isTiempo())
+            .toList();
+
+    static final List<MetricaEmbudo> TIEMPOS = Arrays.stream(MetricaEmbudo.values())
+            .filter(MetricaEmbudo::isTiempo)
+            .toList();
+
+    static final String SQL_CONSOLIDAR = "WITH lote AS (" +
+            "DELETE FROM embudo_movimientos WHERE id IN (" +
+            "SELECT id FROM embudo_movimientos ORDER BY id LIMIT :limite FOR UPDATE SKIP LOCKED) " +
+            "RETURNING tenant_id, fecha, proyecto_id, usuario_id, metrica, cantidad, monto, dias), " +
+            // El ORDER BY fija el orden de bloqueo de los acumulados entre instancias concurrentes
+            "diario AS (" +
+            "INSERT INTO embudo_ventas_diario (tenant_id, fecha, proyecto_id, usuario_id, " + columnas() +
+            ", monto_ventas) " +
+            "SELECT tenant_id, fecha, proyecto_id, usuario_id, " + sumasPorMetrica() + ", SUM(monto) " +
+            "FROM lote WHERE metrica IN (" + literales(CONTEOS) + ") " +
+            "GROUP BY tenant_id, fecha, proyecto_id, usuario_id " +
+            "ORDER BY tenant_id, fecha, proyecto_id, usuario_id " +
+            "ON CONFLICT (tenant_id, fecha, proyecto_id, usuario_id) DO UPDATE SET " +
+            CONTEOS.stream().map(EmbudoVentasRepository::columna)
+                    .map(c -> c + " = embudo_ventas_diario." + c + " + EXCLUDED." + c)
+                    .collect(Collectors.joining(", ")) +
+            ", monto_ventas = embudo_ventas_diario.monto_ventas + EXCLUDED.monto_ventas " +
+            "RETURNING 1), " +
+            "tiempos AS (" +
+            "INSERT INTO embudo_tiempos_diario (tenant_id, fecha, proyecto_id, usuario_id, transicion, dias, cantidad) " +
+            "SELECT tenant_id, fecha, proyecto_id, usuario_id, metrica, dias, SUM(cantidad) " +
+            "FROM lote WHERE metrica IN (" + literales(TIEMPOS) + ") AND dias IS NOT NULL " +
+            "GROUP BY tenant_id, fecha, proyecto_id, usuario_id, metrica, dias " +
+            "ORDER BY tenant_id, fecha, proyecto_id, usuario_id, metrica, dias " +
+            "ON CONFLICT (tenant_id, fecha, proyecto_id, usuario_id, transicion, dias) DO UPDATE SET " +
+            "cantidad = embudo_tiempos_diario.cantidad + EXCLUDED.cantidad " +
+            "RETURNING 1) " +
+            "SELECT (SELECT COUNT(*) FROM lote) AS movimientos, (SELECT COUNT(*) FROM diario) AS filas_diario, " +
+            "(SELECT COUNT(*) FROM tiempos) AS filas_tiempos";
+
+    // Las operaciones que escriben movimientos esperan a que termine la reconstrucción (y esta a
+    // que terminen las que están en curso): ningún movimiento queda contado dos veces ni perdido
+    static final String SQL_BLOQUEAR_MOVIMIENTOS = "LOCK TABLE embudo_movimientos IN EXCLUSIVE MODE";
+
+    static final List<String> SQL_LIMPIAR = List.of(
+            "DELETE FROM embudo_movimientos WHERE tenant_id = :tenantId",
+            "DELETE FROM embudo_ventas_diario WHERE tenant_id = :tenantId",
+            "DELETE FROM embudo_tiempos_diario WHERE tenant_id = :tenantId");
+
+    // Solo se enlazan las conversiones con referencia explícita a la cotización
+    static final String SQL_MARCAR_APARTADAS =
+            "UPDATE cotizaciones c SET apartada_at = x.primero FROM (" +
+            "SELECT a.cotizacion_id, MIN(a.created_at) AS primero FROM apartados a " +
+            "WHERE a.tenant_id = :tenantId AND a.cotizacion_id IS NOT NULL GROUP BY a.cotizacion_id) x " +
+            "WHERE c.id = x.cotizacion_id AND c.tenant_id = :tenantId AND c.apartada_at IS NULL";
+
+    static final String SQL_MARCAR_VENDIDAS =
+            "UPDATE cotizaciones c SET vendida_at = x.primero FROM (" +
+            "SELECT COALESCE(v.cotizacion_id, a.cotizacion_id) AS cotizacion_id, MIN(v.created_at) AS primero " +
+            "FROM ventas v LEFT JOIN apartados a ON a.id = v.apartado_id " +
+            "WHERE v.tenant_id = :tenantId AND COALESCE(v.cotizacion_id, a.cotizacion_id) IS NOT NULL " +
+            "GROUP BY COALESCE(v.cotizacion_id, a.cotizacion_id)) x " +
+            "WHERE c.id = x.cotizacion_id AND c.tenant_id = :tenantId AND c.vendida_at IS NULL";
+
+    // fecha_apartado y fecha_venta son TIMESTAMP: la resta de fechas da días enteros
+    private static final String DIAS_APARTADO_VENTA =
+            "GREATEST(CAST(v.fecha_venta AS DATE) - CAST(a.fecha_apartado AS DATE), 0)";
+
+    // Mismas reglas de atribución que EmbudoVentasService: conversiones en la fecha y agente de
+    // la etapa de origen, tiempos en la fecha de la etapa posterior. Incluye los registros
+    // eliminados, como los movimientos que se escribieron cuando ocurrieron.
+    static final String SQL_GENERAR_MOVIMIENTOS =
+            "INSERT INTO embudo_movimientos (tenant_id, fecha, proyecto_id, usuario_id, metrica, cantidad, monto, " +
+            "dias, created_at) " +
+            "SELECT tenant_id, fecha, proyecto_id, usuario_id, metrica, cantidad, monto, dias, :ahora FROM (" +
+            cotizaciones("COTIZACIONES", "TRUE") +
+            " UNION ALL " + cotizaciones("COTIZACIONES_APARTADAS", "c.apartada_at IS NOT NULL") +
+            " UNION ALL " + cotizaciones("COTIZACIONES_VENDIDAS", "c.vendida_at IS NOT NULL") +
+            " UNION ALL " +
+            "SELECT a.tenant_id, CAST(a.fecha_apartado AS DATE) AS fecha, t.proyecto_id, " +
+            "COALESCE(a.usuario_id, 0) AS usuario_id, " +
+            "'APARTADOS' AS metrica, COUNT(*) AS cantidad, 0 AS monto, CAST(NULL AS INTEGER) AS dias " +
+            "FROM apartados a JOIN terrenos t ON t.id = a.terreno_id WHERE a.tenant_id = :tenantId " +
+            "GROUP BY a.tenant_id, CAST(a.fecha_apartado AS DATE), t.proyecto_id, COALESCE(a.usuario_id, 0)" +
+            " UNION ALL " +
+            "SELECT a.tenant_id, CAST(a.fecha_apartado AS DATE), t.proyecto_id, COALESCE(a.usuario_id, 0), " +
+            "CASE CAST(a.estado AS VARCHAR) WHEN 'COMPLETADO' THEN 'APARTADOS_VENDIDOS' " +
+            "WHEN 'VENCIDO' THEN 'APARTADOS_VENCIDOS' ELSE 'APARTADOS_CANCELADOS' END, COUNT(*), 0, NULL " +
+            "FROM apartados a JOIN terrenos t ON t.id = a.terreno_id " +
+            "WHERE a.tenant_id = :tenantId AND CAST(a.estado AS VARCHAR) IN ('COMPLETADO', 'VENCIDO', 'CANCELADO') " +
+            "GROUP BY a.tenant_id, CAST(a.fecha_apartado AS DATE), t.proyecto_id, COALESCE(a.usuario_id, 0), " +
+            "CAST(a.estado AS VARCHAR)" +
+            " UNION ALL " +
+            "SELECT v.tenant_id, CAST(v.fecha_venta AS DATE), t.proyecto_id, COALESCE(v.usuario_id, 0), 'VENTAS', " +
+            "COUNT(*), SUM(v.monto_final), NULL " +
+            "FROM ventas v JOIN terrenos t ON t.id = v.terreno_id WHERE v.tenant_id = :tenantId " +
+            "GROUP BY v.tenant_id, CAST(v.fecha_venta AS DATE), t.proyecto_id, COALESCE(v.usuario_id, 0)" +
+            " UNION ALL " +
+            "SELECT v.tenant_id, CAST(v.fecha_venta AS DATE), t.proyecto_id, COALESCE(v.usuario_id, 0), " +
+            "'VENTAS_CANCELADAS', " +
+            "COUNT(*), -SUM(v.monto_final), NULL " +
+            "FROM ventas v JOIN terrenos t ON t.id = v.terreno_id " +
+            "WHERE v.tenant_id = :tenantId AND CAST(v.estado AS VARCHAR) IN ('CANCELADA', 'ANULADA') " +
+            "GROUP BY v.tenant_id, CAST(v.fecha_venta AS DATE), t.proyecto_id, COALESCE(v.usuario_id, 0)" +
+            " UNION ALL " + tiempoCotizacion("TIEMPO_COTIZACION_APARTADO", "c.apartada_at") +
+            " UNION ALL " + tiempoCotizacion("TIEMPO_COTIZACION_VENTA", "c.vendida_at") +
+            " UNION ALL " +
+            "SELECT v.tenant_id, CAST(v.fecha_venta AS DATE), t.proyecto_id, COALESCE(a.usuario_id, 0), " +
+            "'TIEMPO_APARTADO_VENTA', COUNT(*), 0, " + DIAS_APARTADO_VENTA + " " +
+            "FROM ventas v JOIN apartados a ON a.id = v.apartado_id JOIN terrenos t ON t.id = a.terreno_id " +
+            "WHERE v.tenant_id = :tenantId " +
+            "GROUP BY v.tenant_id, CAST(v.fecha_venta AS DATE), t.proyecto_id, COALESCE(a.usuario_id, 0), " +
+            DIAS_APARTADO_VENTA +
+            ") m";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Conteos y monto neto de un grupo (proyectoId / usuarioId son 0 cuando no se agrupa por ellos)
+     */
+    public record FilaEmbudo(long proyectoId, long usuarioId, Map<MetricaEmbudo, Long> conteos,
+                             BigDecimal montoVentas) {
+    }
+
+    /**
+     * Barra del histograma de días entre etapas de un grupo
+     */
+    public record FilaTiempo(long proyectoId, long usuarioId, MetricaEmbudo transicion, int dias, long cantidad) {
+    }
+
+    public record Consolidacion(int movimientos, int filasDiario, int filasTiempos) {
+    }
+
+    record Consulta(String sql, MapSqlParameterSource parametros) {
+    }
+
+    /**
+     * Consolida un bloque de hasta limite movimientos de todas las empresas.
+     * Debe ejecutarse dentro de una transacción: los bloqueos se liberan al commit.
+     */
+    public Consolidacion consolidar(int limite) {
+        return jdbcTemplate.queryForObject(SQL_CONSOLIDAR, new MapSqlParameterSource("limite", limite),
+                (rs, rowNum) -> new Consolidacion(rs.getInt("movimientos"), rs.getInt("filas_diario"),
+                        rs.getInt("filas_tiempos")));
+    }
+
+    /**
+     * Conteos del embudo del periodo [desde, hasta] por grupo
+     */
+    public List<FilaEmbudo> consultar(Long tenantId, LocalDate desde, LocalDate hasta, Long proyectoId,
+                                      Long usuarioId, AgrupacionEmbudo agrupacion) {
+        Consulta consulta = construirConsulta(tenantId, desde, hasta, proyectoId, usuarioId, agrupacion);
+        return jdbcTemplate.query(consulta.sql(), consulta.parametros(), (rs, rowNum) -> {
+            Map<MetricaEmbudo, Long> conteos = new EnumMap<>(MetricaEmbudo.class);
+            for (MetricaEmbudo metrica : CONTEOS) {
+                conteos.put(metrica, rs.getLong(columna(metrica)));
+            }
+            BigDecimal monto = rs.getBigDecimal("monto_ventas");
+            return new FilaEmbudo(rs.getLong("proyecto_id"), rs.getLong("usuario_id"), conteos,
+                    monto != null ? monto : BigDecimal.ZERO);
+        });
+    }
+
+    /**
+     * Histogramas de días entre etapas del periodo [desde, hasta] por grupo
+     */
+    public List<FilaTiempo> consultarTiempos(Long tenantId, LocalDate desde, LocalDate hasta, Long proyectoId,
+                                             Long usuarioId, AgrupacionEmbudo agrupacion) {
+        Consulta consulta = construirConsultaTiempos(tenantId, desde, hasta, proyectoId, usuarioId, agrupacion);
+        return jdbcTemplate.query(consulta.sql(), consulta.parametros(), (rs, rowNum) -> new FilaTiempo(
+                rs.getLong("proyecto_id"), rs.getLong("usuario_id"), MetricaEmbudo.valueOf(rs.getString("transicion")),
+                rs.getInt("dias"), rs.getLong("cantidad")));
+    }
+
+    /**
+     * Borra los acumulados y movimientos de la empresa y vuelve a generar sus movimientos
+     * desde cotizaciones, apartados y ventas (la consolidación los suma después). Bloquea la
+     * escritura de movimientos de todas las empresas hasta el commit.
+     *
+     * @return movimientos generados (ya agregados por día, proyecto y agente)
+     */
+    public int reconstruir(Long tenantId) {
+        MapSqlParameterSource parametros = new MapSqlParameterSource()
+                .addValue("tenantId", tenantId)
+                .addValue("ahora", Timestamp.valueOf(LocalDateTime.now()));
+
+        jdbcTemplate.getJdbcOperations().execute(SQL_BLOQUEAR_MOVIMIENTOS);
+        for (String sql : SQL_LIMPIAR) {
+            jdbcTemplate.update(sql, parametros);
+        }
+        jdbcTemplate.update(SQL_MARCAR_APARTADAS, parametros);
+        jdbcTemplate.update(SQL_MARCAR_VENDIDAS, parametros);
+        return jdbcTemplate.update(SQL_GENERAR_MOVIMIENTOS, parametros);
+    }
+
+    static Consulta construirConsulta(Long tenantId, LocalDate desde, LocalDate hasta, Long proyectoId,
+                                      Long usuarioId, AgrupacionEmbudo agrupacion) {
+        MapSqlParameterSource parametros = parametros(tenantId, desde, hasta, proyectoId, usuarioId);
+        String filtro = filtro(proyectoId, usuarioId);
+
+        String sql = "SELECT " + grupos(agrupacion) + ", " +
+                CONTEOS.stream().map(EmbudoVentasRepository::columna)
+                        .map(c -> "COALESCE(SUM(" + c + "), 0) AS " + c)
+                        .collect(Collectors.joining(", ")) +
+                ", COALESCE(SUM(monto_ventas), 0) AS monto_ventas FROM (" +
+                "SELECT proyecto_id, usuario_id, " + columnas() + ", monto_ventas FROM embudo_ventas_diario " +
+                "WHERE " + filtro +
+                " UNION ALL " +
+                "SELECT proyecto_id, usuario_id, " +
+                CONTEOS.stream()
+                        .map(m -> "CASE WHEN metrica = '" + m.name() + "' THEN cantidad ELSE 0 END AS " + columna(m))
+                        .collect(Collectors.joining(", ")) +
+                ", monto AS monto_ventas FROM embudo_movimientos " +
+                "WHERE " + filtro + " AND metrica IN (" + literales(CONTEOS) + ")" +
+                ") e" + agrupar(agrupacion, "");
+        return new Consulta(sql, parametros);
+    }
+
+    static Consulta construirConsultaTiempos(Long tenantId, LocalDate desde, LocalDate hasta, Long proyectoId,
+                                             Long usuarioId, AgrupacionEmbudo agrupacion) {
+        MapSqlParameterSource parametros = parametros(tenantId, desde, hasta, proyectoId, usuarioId);
+        String filtro = filtro(proyectoId, usuarioId);
+
+        String sql = "SELECT " + grupos(agrupacion) + ", transicion, dias, SUM(cantidad) AS cantidad FROM (" +
+                "SELECT proyecto_id, usuario_id, transicion, dias, cantidad FROM embudo_tiempos_diario " +
+                "WHERE " + filtro +
+                " UNION ALL " +
+                "SELECT proyecto_id, usuario_id, metrica AS transicion, dias, cantidad FROM embudo_movimientos " +
+                "WHERE " + filtro + " AND metrica IN (" + literales(TIEMPOS) + ") AND dias IS NOT NULL" +
+                ") t" + agrupar(agrupacion, "transicion, dias");
+        return new Consulta(sql, parametros);
+    }
+
+    private static MapSqlParameterSource parametros(Long tenantId, LocalDate desde, LocalDate hasta,
+                                                    Long proyectoId, Long usuarioId) {
+        MapSqlParameterSource parametros = new MapSqlParameterSource()
+                .addValue("tenantId", tenantId)
+                .addValue("desde", Date.valueOf(desde))
+                .addValue("hasta", Date.valueOf(hasta));
+        if (proyectoId != null) {
+            parametros.addValue("proyectoId", proyectoId);
+        }
+        if (usuarioId != null) {
+            parametros.addValue("usuarioId", usuarioId);
+        }
+        return parametros;
+    }
+
+    private static String filtro(Long proyectoId, Long usuarioId) {
+        return "tenant_id = :tenantId AND fecha BETWEEN :desde AND :hasta" +
+                (proyectoId != null ? " AND proyecto_id = :proyectoId" : "") +
+                (usuarioId != null ? " AND usuario_id = :usuarioId" : "");
+    }
+
+    private static String grupos(AgrupacionEmbudo agrupacion) {
+        return (agrupacion.isPorProyecto() ? "proyecto_id" : "0 AS proyecto_id") + ", " +
+                (agrupacion.isPorUsuario() ? "usuario_id" : "0 AS usuario_id");
+    }
+
+    private static String agrupar(AgrupacionEmbudo agrupacion, String columnasExtra) {
+        StringBuilder columnas = new StringBuilder();
+        if (agrupacion.isPorProyecto()) {
+            columnas.append("proyecto_id");
+        }
+        if (agrupacion.isPorUsuario()) {
+            columnas.append(columnas.isEmpty() ? "" : ", ").append("usuario_id");
+        }
+        if (!columnasExtra.isEmpty()) {
+            columnas.append(columnas.isEmpty() ? "" : ", ").append(columnasExtra);
+        }
+        return columnas.isEmpty() ? "" : " GROUP BY " + columnas;
+    }
+
+    private static String cotizaciones(String metrica, String condicion) {
+        return "SELECT c.tenant_id, CAST(c.created_at AS DATE) AS fecha, t.proyecto_id, " +
+                "COALESCE(c.usuario_id, 0) AS usuario_id, '" + metrica + "' AS metrica, COUNT(*) AS cantidad, " +
+                "0 AS monto, CAST(NULL AS INTEGER) AS dias " +
+                "FROM cotizaciones c JOIN terrenos t ON t.id = c.terreno_id " +
+                "WHERE c.tenant_id = :tenantId AND " + condicion + " " +
+                "GROUP BY c.tenant_id, CAST(c.created_at AS DATE), t.proyecto_id, COALESCE(c.usuario_id, 0)";
+    }
+
+    private static String tiempoCotizacion(String metrica, String fechaEtapa) {
+        String dias = "GREATEST(CAST(" + fechaEtapa + " AS DATE) - CAST(c.created_at AS DATE), 0)";
+        return "SELECT c.tenant_id, CAST(" + fechaEtapa + " AS DATE), t.proyecto_id, COALESCE(c.usuario_id, 0), " +
+                "'" + metrica + "', COUNT(*), 0, " + dias + " " +
+                "FROM cotizaciones c JOIN terrenos t ON t.id = c.terreno_id " +
+                "WHERE c.tenant_id = :tenantId AND " + fechaEtapa + " IS NOT NULL " +
+                "GROUP BY c.tenant_id, CAST(" + fechaEtapa + " AS DATE), t.proyecto_id, COALESCE(c.usuario_id, 0), " +
+                dias;
+    }
+
+    private static String sumasPorMetrica() {
+        return CONTEOS.stream()
+                .map(m -> "SUM(CASE WHEN metrica = '" + m.name() + "' THEN cantidad ELSE 0 END)")
+                .collect(Collectors.joining(", "));
+    }
+
+    private static String columnas() {
+        return CONTEOS.stream().map(EmbudoVentasRepository::columna).collect(Collectors.joining(", "));
+    }
+
+    private static String literales(List<MetricaEmbudo> metricas) {
+        return metricas.stream().map(m -> "'" + m.name() + "'").collect(Collectors.joining(", "));
+    }
+
+    static String columna(MetricaEmbudo metrica) {
+        return metrica.name().toLowerCase(Locale.ROOT);
+    }
+}
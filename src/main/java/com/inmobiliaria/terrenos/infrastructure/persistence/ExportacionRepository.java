@@ -0,0 +1,229 @@
+package com.inmobiliaria.terrenos.infrastructure.persistence;
+
+import com.inmobiliaria.terrenos.domain.enums.TipoExportacion;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lectura con JDBC de los datos que se exportan a CSV o XLSX.
+ *
+ * Las filas se recorren con un cursor y se entregan una por una al consumidor, sin cargar
+ * entidades ni listas: la memoria no depende de cuántas filas tenga la exportación.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Repository
+@RequiredArgsConstructor
+public class ExportacionRepository {
+
+    /** Filas por viaje; requiere transacción para que PostgreSQL use cursor en lugar de leer todo */
+    static final int FETCH_SIZE = 2_000;
+
+    private static final String DESDE_VENTA =
+            "JOIN terrenos t ON t.id = v.terreno_id JOIN proyectos pr ON pr.id = t.proyecto_id ";
+
+    /**
+     * Columnas, consulta y filtros de un tipo de exportación.
+     *
+     * @param select          consulta con el filtro de tenant (primer parámetro) ya incluido
+     * @param alias           alias de la tabla principal, para ordenar por su id
+     * @param columnaFecha    columna que filtra el periodo
+     * @param fechaConHora    si la columna de fecha es TIMESTAMP
+     * @param columnaProyecto columna que filtra por proyecto; null si el tipo no se puede filtrar
+     */
+    record Definicion(List<String> encabezados, String select, String alias, String columnaFecha,
+                      boolean fechaConHora, String columnaProyecto) {
+    }
+
+    /**
+     * Consulta con sus parámetros posicionales
+     */
+    public record Consulta(String sql, List<Object> parametros) {
+    }
+
+    /**
+     * Recibe cada fila de la exportación
+     */
+    @FunctionalInterface
+    public interface ConsumidorFila {
+        void aceptar(List<Object> fila) throws IOException;
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public static List<String> encabezados(TipoExportacion tipo) {
+        return definicion(tipo).encabezados();
+    }
+
+    public static boolean admiteProyecto(TipoExportacion tipo) {
+        return definicion(tipo).columnaProyecto() != null;
+    }
+
+    /**
+     * Recorre las filas del tipo en el periodo (y proyecto, si se indica), ordenadas por id.
+     * Debe ejecutarse dentro de una transacción para leer por bloques de FETCH_SIZE.
+     *
+     * @return número de filas entregadas
+     * @throws IOException si el consumidor falla al escribir; la lectura se detiene
+     */
+    public long recorrer(TipoExportacion tipo, Long tenantId, LocalDate desde, LocalDate hasta, Long proyectoId,
+                         ConsumidorFila consumidor) throws IOException {
+        Consulta consulta = construirConsulta(tipo, tenantId, desde, hasta, proyectoId);
+        long[] filas = {0};
+        try {
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(consulta.sql());
+                ps.setFetchSize(FETCH_SIZE);
+                for (int i = 0; i < consulta.parametros().size(); i++) {
+                    ps.setObject(i + 1, consulta.parametros().get(i));
+                }
+                return ps;
+            }, rs -> {
+                try {
+                    consumidor.aceptar(fila(rs));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                filas[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return filas[0];
+    }
+
+    static Consulta construirConsulta(TipoExportacion tipo, Long tenantId, LocalDate desde, LocalDate hasta,
+                                      Long proyectoId) {
+        Definicion definicion = definicion(tipo);
+        StringBuilder sql = new StringBuilder(definicion.select());
+        List<Object> parametros = new ArrayList<>();
+        parametros.add(tenantId);
+
+        // Rango semiabierto: el día "hasta" completo aunque la columna tenga hora
+        if (desde != null) {
+            sql.append(" AND ").append(definicion.columnaFecha()).append(" >= ?");
+            parametros.add(limite(desde, definicion.fechaConHora()));
+        }
+        if (hasta != null) {
+            sql.append(" AND ").append(definicion.columnaFecha()).append(" < ?");
+            parametros.add(limite(hasta.plusDays(1), definicion.fechaConHora()));
+        }
+        if (proyectoId != null && definicion.columnaProyecto() != null) {
+            sql.append(" AND ").append(definicion.columnaProyecto()).append(" = ?");
+            parametros.add(proyectoId);
+        }
+        sql.append(" ORDER BY ").append(definicion.alias()).append(".id");
+        return new Consulta(sql.toString(), parametros);
+    }
+
+    private static Object limite(LocalDate fecha, boolean conHora) {
+        return conHora ? Timestamp.valueOf(fecha.atStartOfDay()) : Date.valueOf(fecha);
+    }
+
+    private static List<Object> fila(ResultSet rs) throws SQLException {
+        int columnas = rs.getMetaData().getColumnCount();
+        List<Object> fila = new ArrayList<>(columnas);
+        for (int i = 1; i <= columnas; i++) {
+            Object valor = rs.getObject(i);
+            if (valor instanceof Date fecha) {
+                valor = fecha.toLocalDate();
+            } else if (valor instanceof Timestamp fechaHora) {
+                valor = fechaHora.toLocalDateTime();
+            }
+            fila.add(valor);
+        }
+        return fila;
+    }
+
+    static Definicion definicion(TipoExportacion tipo) {
+        return switch (tipo) {
+            case VENTAS -> new Definicion(
+                    List.of("ID", "Folio", "Fecha de venta", "Proyecto", "Lote", "Comprador", "Email", "Teléfono",
+                            "RFC", "Precio total", "Apartado acreditado", "Monto final", "% comisión", "Comisión",
+                            "Estado", "Forma de pago", "Fecha de escrituración"),
+                    "SELECT v.id, v.folio, v.fecha_venta, pr.nombre, t.numero_lote, v.comprador_nombre, " +
+                    "v.comprador_email, v.comprador_telefono, v.comprador_rfc, v.precio_total, " +
+                    "v.monto_apartado_acreditado, v.monto_final, v.porcentaje_comision, v.monto_comision, " +
+                    "CAST(v.estado AS VARCHAR), v.forma_pago, v.fecha_escrituracion " +
+                    "FROM ventas v " + DESDE_VENTA +
+                    "WHERE v.tenant_id = ? AND v.deleted = false",
+                    "v", "v.fecha_venta", true, "t.proyecto_id");
+            case PAGOS -> new Definicion(
+                    List.of("ID", "Folio de venta", "Proyecto", "Lote", "Cliente", "Cuota", "Fecha de pago",
+                            "Monto pagado", "A capital", "A interés", "A mora", "Método de pago", "Referencia",
+                            "Estado"),
+                    "SELECT pg.id, v.folio, pr.nombre, t.numero_lote, c.nombre || ' ' || c.apellido, a.numero_cuota, " +
+                    "pg.fecha_pago, pg.monto_pagado, pg.monto_a_capital, pg.monto_a_interes, pg.monto_a_mora, " +
+                    "CAST(pg.metodo_pago AS VARCHAR), pg.referencia_pago, CAST(pg.estado AS VARCHAR) " +
+                    "FROM pagos pg " +
+                    "JOIN planes_pago pp ON pp.id = pg.plan_pago_id " +
+                    "JOIN ventas v ON v.id = pp.venta_id " + DESDE_VENTA +
+                    "LEFT JOIN clientes c ON c.id = pg.cliente_id " +
+                    "LEFT JOIN amortizaciones a ON a.id = pg.amortizacion_id " +
+                    "WHERE pg.tenant_id = ? AND pg.deleted = false",
+                    "pg", "pg.fecha_pago", false, "t.proyecto_id");
+            case PLANES_PAGO -> new Definicion(
+                    List.of("ID", "Folio de venta", "Proyecto", "Lote", "Cliente", "Tipo de plan", "Frecuencia",
+                            "Monto total", "Enganche", "Monto financiado", "Tasa anual %", "Número de pagos",
+                            "Plazo (meses)", "Fecha de inicio", "Primer pago", "Último pago"),
+                    "SELECT pp.id, v.folio, pr.nombre, t.numero_lote, c.nombre || ' ' || c.apellido, " +
+                    "CAST(pp.tipo_plan AS VARCHAR), CAST(pp.frecuencia_pago AS VARCHAR), pp.monto_total, " +
+                    "pp.enganche, pp.monto_financiado, pp.tasa_interes_anual, pp.numero_pagos, pp.plazo_meses, " +
+                    "pp.fecha_inicio, pp.fecha_primer_pago, pp.fecha_ultimo_pago " +
+                    "FROM planes_pago pp " +
+                    "JOIN ventas v ON v.id = pp.venta_id " + DESDE_VENTA +
+                    "LEFT JOIN clientes c ON c.id = pp.cliente_id " +
+                    "WHERE pp.tenant_id = ? AND pp.deleted = false",
+                    "pp", "pp.fecha_inicio", false, "t.proyecto_id");
+            case AMORTIZACIONES -> new Definicion(
+                    List.of("ID", "Folio de venta", "Proyecto", "Lote", "Cuota", "Vencimiento", "Capital", "Interés",
+                            "Monto de la cuota", "Pagado", "Pendiente", "Mora", "Días de atraso", "Fecha de pago",
+                            "Estado", "Saldo restante"),
+                    "SELECT a.id, v.folio, pr.nombre, t.numero_lote, a.numero_cuota, a.fecha_vencimiento, a.capital, " +
+                    "a.interes, a.monto_cuota, a.monto_pagado, a.monto_pendiente, a.mora_acumulada, a.dias_atraso, " +
+                    "a.fecha_pago, CAST(a.estado AS VARCHAR), a.saldo_restante " +
+                    "FROM amortizaciones a " +
+                    "JOIN planes_pago pp ON pp.id = a.plan_pago_id " +
+                    "JOIN ventas v ON v.id = pp.venta_id " + DESDE_VENTA +
+                    "WHERE a.tenant_id = ? AND a.deleted = false",
+                    "a", "a.fecha_vencimiento", false, "t.proyecto_id");
+            case CLIENTES -> new Definicion(
+                    List.of("ID", "Nombre", "Apellido", "Email", "Teléfono", "Teléfono secundario", "Dirección",
+                            "Ciudad", "Estado", "Código postal", "RFC", "CURP", "Origen", "Estado del cliente",
+                            "Fecha de alta"),
+                    "SELECT c.id, c.nombre, c.apellido, c.email, c.telefono, c.telefono_secundario, c.direccion, " +
+                    "c.ciudad, c.estado, c.codigo_postal, c.rfc, c.curp, CAST(c.origen AS VARCHAR), " +
+                    "CAST(c.estado_cliente AS VARCHAR), c.created_at " +
+                    "FROM clientes c " +
+                    "WHERE c.tenant_id = ? AND c.deleted = false",
+                    "c", "c.created_at", true, null);
+            case AUDITORIA_CRITICA -> new Definicion(
+                    List.of("ID", "Fecha", "Usuario", "Tabla", "Registro", "Campo", "Valor anterior", "Valor nuevo",
+                            "Operación", "Motivo", "IP"),
+                    "SELECT l.id, l.fecha, l.usuario_email, l.tabla, l.registro_id, l.campo, l.valor_anterior, " +
+                    "l.valor_nuevo, l.operacion, l.motivo, l.ip_address " +
+                    "FROM audit_log_critica l " +
+                    "WHERE l.tenant_id = ?",
+                    "l", "l.fecha", true, null);
+            case AUDITORIA_SIMPLE -> new Definicion(
+                    List.of("ID", "Fecha", "Usuario", "Acción", "Descripción", "IP", "Navegador"),
+                    "SELECT l.id, l.fecha, l.usuario_email, l.accion, l.descripcion, l.ip_address, l.user_agent " +
+                    "FROM audit_log_simple l " +
+                    "WHERE l.tenant_id = ?",
+                    "l", "l.fecha", true, null);
+        };
+    }
+}
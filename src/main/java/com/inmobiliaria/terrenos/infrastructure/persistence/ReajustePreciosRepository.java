@@ -0,0 +1,219 @@
+package com.inmobiliaria.terrenos.infrastructure.persistence;
+
+import com.inmobiliaria.terrenos.application.dto.precio.SimulacionReajusteResponse;
+import com.inmobiliaria.terrenos.domain.entity.ReglaPrecio;
+import com.inmobiliaria.terrenos.domain.enums.TipoOperacionAudit;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Reajuste masivo de precios de terrenos con SQL por conjuntos.
+ *
+ * Una regla se aplica con una sola sentencia: el UPDATE recalcula precio_final en SQL con la
+ * misma fórmula que TerrenoService ((base + ajuste) × multiplicador) y, en la misma sentencia,
+ * un INSERT ... SELECT escribe en audit_log_critica el precio anterior y el nuevo de cada lote
+ * modificado. No se cargan entidades ni se hace una ida a la base por lote.
+ *
+ * Solo se reajustan lotes DISPONIBLE: los apartados y vendidos conservan el precio pactado, y
+ * los NO_DISPONIBLE no están a la venta.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReajustePreciosRepository {
+
+    private static final int ESCALA_FACTOR = 6;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Nuevos valores de las columnas de precio como expresiones SQL sobre la fila actual (t)
+     */
+    record Expresiones(String precioBase, String precioAjuste, String precioMultiplicador) {
+
+        String precioFinal() {
+            return "ROUND((" + precioBase + " + " + precioAjuste + ") * " + precioMultiplicador + ", 2)";
+        }
+    }
+
+    public record Impacto(int lotes, BigDecimal totalAnterior, BigDecimal totalNuevo, BigDecimal precioMinimo,
+                          BigDecimal precioMaximo, int lotesPrecioInvalido) {
+    }
+
+    public record Aplicacion(int lotes, int auditados, BigDecimal totalAnterior, BigDecimal totalNuevo) {
+    }
+
+    /**
+     * Impacto agregado de la regla sin modificar nada
+     */
+    public Impacto simular(ReglaPrecio regla) {
+        MapSqlParameterSource parametros = new MapSqlParameterSource();
+        Expresiones expresiones = expresiones(regla, parametros);
+        String sql = "SELECT COUNT(*) AS lotes, " +
+                "COALESCE(SUM(s.precio_anterior), 0) AS total_anterior, " +
+                "COALESCE(SUM(s.precio_nuevo), 0) AS total_nuevo, " +
+                "MIN(s.precio_nuevo) AS precio_minimo, MAX(s.precio_nuevo) AS precio_maximo, " +
+                "COUNT(*) FILTER (WHERE s.precio_base_nuevo <= 0) AS lotes_precio_invalido " +
+                "FROM (SELECT t.precio_final AS precio_anterior, " + expresiones.precioFinal() + " AS precio_nuevo, " +
+                expresiones.precioBase() + " AS precio_base_nuevo " +
+                "FROM terrenos t WHERE " + filtro(regla, parametros) + ") s";
+
+        return jdbcTemplate.queryForObject(sql, parametros, (rs, rowNum) -> new Impacto(
+                rs.getInt("lotes"),
+                rs.getBigDecimal("total_anterior"),
+                rs.getBigDecimal("total_nuevo"),
+                rs.getBigDecimal("precio_minimo"),
+                rs.getBigDecimal("precio_maximo"),
+                rs.getInt("lotes_precio_invalido")));
+    }
+
+    /**
+     * Precio anterior y nuevo de los primeros lotes del alcance
+     */
+    public List<SimulacionReajusteResponse.LoteReajustado> muestra(ReglaPrecio regla, int limite) {
+        MapSqlParameterSource parametros = new MapSqlParameterSource();
+        Expresiones expresiones = expresiones(regla, parametros);
+        String sql = "SELECT t.id, t.numero_lote, t.manzana, t.precio_final AS precio_anterior, " +
+                expresiones.precioFinal() + " AS precio_nuevo " +
+                "FROM terrenos t WHERE " + filtro(regla, parametros) +
+                " ORDER BY t.numero_lote, t.id LIMIT :limite";
+        parametros.addValue("limite", limite);
+
+        return jdbcTemplate.query(sql, parametros, (rs, rowNum) -> SimulacionReajusteResponse.LoteReajustado.builder()
+                .terrenoId(rs.getLong("id"))
+                .numeroLote(rs.getString("numero_lote"))
+                .manzana(rs.getString("manzana"))
+                .precioAnterior(rs.getBigDecimal("precio_anterior"))
+                .precioNuevo(rs.getBigDecimal("precio_nuevo"))
+                .build());
+    }
+
+    /**
+     * Aplica la regla y audita los cambios de precio en una sola sentencia.
+     *
+     * @param planoVersion versión del plano del proyecto en la que se registra el cambio
+     */
+    public Aplicacion aplicar(ReglaPrecio regla, long planoVersion, String usuario) {
+        MapSqlParameterSource parametros = new MapSqlParameterSource();
+        String sql = construirAplicacion(regla, parametros);
+        parametros.addValue("planoVersion", planoVersion);
+        parametros.addValue("usuario", usuario);
+        parametros.addValue("ahora", Timestamp.valueOf(LocalDateTime.now()));
+        parametros.addValue("operacion", TipoOperacionAudit.PRICE_CHANGE.name());
+        parametros.addValue("motivo", motivoAuditoria(regla));
+
+        return jdbcTemplate.queryForObject(sql, parametros, (rs, rowNum) -> new Aplicacion(
+                rs.getInt("lotes"),
+                rs.getInt("auditados"),
+                rs.getBigDecimal("total_anterior"),
+                rs.getBigDecimal("total_nuevo")));
+    }
+
+    /**
+     * Los CTE que modifican datos se ejecutan aunque el SELECT final solo los cuente. Las
+     * expresiones del SET leen los valores previos de la fila, por eso precio_final se calcula
+     * con las mismas expresiones y no con las columnas recién asignadas.
+     */
+    String construirAplicacion(ReglaPrecio regla, MapSqlParameterSource parametros) {
+        Expresiones expresiones = expresiones(regla, parametros);
+        return "WITH objetivo AS (" +
+                "SELECT t.id, t.precio_final AS precio_anterior FROM terrenos t WHERE " + filtro(regla, parametros) +
+                " FOR UPDATE), " +
+                "actualizados AS (" +
+                "UPDATE terrenos t SET precio_base = " + expresiones.precioBase() +
+                ", precio_ajuste = " + expresiones.precioAjuste() +
+                ", precio_multiplicador = " + expresiones.precioMultiplicador() +
+                ", precio_final = " + expresiones.precioFinal() +
+                ", plano_version = :planoVersion, updated_at = :ahora, updated_by = :usuario " +
+                "FROM objetivo o WHERE t.id = o.id " +
+                "RETURNING t.id, o.precio_anterior, t.precio_final), " +
+                "auditoria AS (" +
+                "INSERT INTO audit_log_critica (tenant_id, usuario_email, tabla, registro_id, campo, valor_anterior, " +
+                "valor_nuevo, operacion, motivo, fecha) " +
+                "SELECT :tenantId, :usuario, 'terrenos', a.id, 'precio_final', CAST(a.precio_anterior AS text), " +
+                "CAST(a.precio_final AS text), :operacion, :motivo, :ahora " +
+                "FROM actualizados a WHERE a.precio_anterior IS DISTINCT FROM a.precio_final " +
+                "RETURNING 1) " +
+                "SELECT (SELECT COUNT(*) FROM actualizados) AS lotes, " +
+                "(SELECT COUNT(*) FROM auditoria) AS auditados, " +
+                "(SELECT COALESCE(SUM(precio_anterior), 0) FROM actualizados) AS total_anterior, " +
+                "(SELECT COALESCE(SUM(precio_final), 0) FROM actualizados) AS total_nuevo";
+    }
+
+    /**
+     * Condición de alcance de la regla sobre terrenos t
+     */
+    String filtro(ReglaPrecio regla, MapSqlParameterSource parametros) {
+        StringBuilder sql = new StringBuilder("t.tenant_id = :tenantId AND t.proyecto_id = :proyectoId " +
+                "AND t.deleted = false " +
+                "AND t.estado = 'DISPONIBLE'");
+        parametros.addValue("tenantId", regla.getTenantId());
+        parametros.addValue("proyectoId", regla.getProyectoId());
+
+        if (regla.getFaseId() != null) {
+            sql.append(" AND t.fase_id = :faseId");
+            parametros.addValue("faseId", regla.getFaseId());
+        }
+        if (regla.getManzana() != null) {
+            sql.append(" AND t.manzana = :manzana");
+            parametros.addValue("manzana", regla.getManzana());
+        }
+        if (regla.getAreaMin() != null) {
+            sql.append(" AND t.area >= :areaMin");
+            parametros.addValue("areaMin", regla.getAreaMin());
+        }
+        if (regla.getAreaMax() != null) {
+            sql.append(" AND t.area <= :areaMax");
+            parametros.addValue("areaMax", regla.getAreaMax());
+        }
+        if (regla.getCaracteristicas() != null) {
+            sql.append(" AND t.caracteristicas @> CAST(:caracteristicas AS jsonb)");
+            parametros.addValue("caracteristicas", regla.getCaracteristicas());
+        }
+        return sql.toString();
+    }
+
+    /**
+     * - PORCENTAJE: base y ajuste por (1 + valor/100), así el precio final cambia en ese porcentaje
+     * - AJUSTE_FIJO: valor sumado al precio base
+     * - MULTIPLICADOR: valor como nuevo multiplicador
+     */
+    static Expresiones expresiones(ReglaPrecio regla, MapSqlParameterSource parametros) {
+        String base = "t.precio_base";
+        String ajuste = "COALESCE(t.precio_ajuste, 0)";
+        String multiplicador = "COALESCE(t.precio_multiplicador, 1)";
+
+        return switch (regla.getTipo()) {
+            case PORCENTAJE -> {
+                BigDecimal factor = BigDecimal.ONE.add(regla.getValor().divide(BigDecimal.valueOf(100), MathContext.DECIMAL64))
+                        .setScale(ESCALA_FACTOR, RoundingMode.HALF_UP);
+                parametros.addValue("factor", factor);
+                yield new Expresiones("ROUND(" + base + " * :factor, 2)", "ROUND(" + ajuste + " * :factor, 2)", multiplicador);
+            }
+            case AJUSTE_FIJO -> {
+                parametros.addValue("valor", regla.getValor());
+                yield new Expresiones("(" + base + " + :valor)", ajuste, multiplicador);
+            }
+            case MULTIPLICADOR -> {
+                parametros.addValue("valor", regla.getValor());
+                yield new Expresiones(base, ajuste, "CAST(:valor AS numeric(5, 2))");
+            }
+        };
+    }
+
+    private static String motivoAuditoria(ReglaPrecio regla) {
+        String motivo = "Regla de precio #" + regla.getId() + " (" + regla.getNombre() + ")";
+        return regla.getMotivo() != null ? motivo + ": " + regla.getMotivo() : motivo;
+    }
+}
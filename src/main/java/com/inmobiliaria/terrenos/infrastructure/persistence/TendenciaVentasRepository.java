@@ -0,0 +1,221 @@
+package com.inmobiliaria.terrenos.infrastructure.persistence;
+
+import com.inmobiliaria.terrenos.domain.enums.GranularidadTendencia;
+import com.inmobiliaria.terrenos.domain.enums.MetricaTendencia;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Acumulados de tendencias de ventas (ventas, comisiones, pagos y apartados por día, semana y
+ * mes de cada proyecto) con SQL por conjuntos.
+ *
+ * - consolidar: un bloque de tendencia_movimientos se borra y se suma a tendencia_ventas en las
+ *   tres granularidades en una sola sentencia (INSERT ... ON CONFLICT DO UPDATE), con FOR
+ *   UPDATE SKIP LOCKED como el embudo de ventas.
+ * - consultar: lee los periodos pedidos de la granularidad (rango de la llave primaria) más
+ *   los movimientos aún pendientes de esas fechas.
+ * - reconstruir: vuelve a generar los movimientos de una empresa desde ventas, pagos y
+ *   apartados.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Repository
+@RequiredArgsConstructor
+public class TendenciaVentasRepository {
+
+    static final List<MetricaTendencia> METRICAS = Arrays.asList(MetricaTendencia.values());
+
+    static final String SQL_CONSOLIDAR = "WITH lote AS (" +
+            "DELETE FROM tendencia_movimientos WHERE id IN (" +
+            "SELECT id FROM tendencia_movimientos ORDER BY id LIMIT :limite FOR UPDATE SKIP LOCKED) " +
+            "RETURNING tenant_id, fecha, proyecto_id, metrica, cantidad, monto, comision), " +
+            // Cada movimiento suma a su día, su semana y su mes; el ORDER BY fija el orden de
+            // bloqueo de los acumulados entre instancias concurrentes
+            "acumulados AS (" +
+            "INSERT INTO tendencia_ventas (tenant_id, granularidad, periodo, proyecto_id, " + columnas() + ") " +
+            "SELECT l.tenant_id, g.granularidad, " + periodo("g.campo", "l.fecha") + ", l.proyecto_id, " +
+            METRICAS.stream()
+                    .map(m -> "SUM(CASE WHEN l.metrica = '" + m.name() + "' THEN l.cantidad ELSE 0 END), " +
+                            "SUM(CASE WHEN l.metrica = '" + m.name() + "' THEN l.monto ELSE 0 END)")
+                    .collect(Collectors.joining(", ")) +
+            ", SUM(l.comision) " +
+            "FROM lote l CROSS JOIN (VALUES " + granularidades() + ") AS g(granularidad, campo) " +
+            "GROUP BY l.tenant_id, g.granularidad, " + periodo("g.campo", "l.fecha") + ", l.proyecto_id " +
+            "ORDER BY 1, 2, 3, 4 " +
+            "ON CONFLICT (tenant_id, granularidad, periodo, proyecto_id) DO UPDATE SET " +
+            Arrays.stream(columnas().split(", "))
+                    .map(c -> c + " = tendencia_ventas." + c + " + EXCLUDED." + c)
+                    .collect(Collectors.joining(", ")) + " " +
+            "RETURNING 1) " +
+            "SELECT (SELECT COUNT(*) FROM lote) AS movimientos, (SELECT COUNT(*) FROM acumulados) AS filas";
+
+    static final String SQL_BLOQUEAR_MOVIMIENTOS = "LOCK TABLE tendencia_movimientos IN EXCLUSIVE MODE";
+
+    static final List<String> SQL_LIMPIAR = List.of(
+            "DELETE FROM tendencia_movimientos WHERE tenant_id = :tenantId",
+            "DELETE FROM tendencia_ventas WHERE tenant_id = :tenantId");
+
+    // Mismas reglas que TendenciaVentasService: las ventas canceladas o anuladas (y las
+    // eliminadas, que siempre lo están) no cuentan; los apartados cuentan al crearse aunque
+    // después se cancelen o venzan. fecha_venta y fecha_apartado son TIMESTAMP: se agrupan por día
+    static final String SQL_GENERAR_MOVIMIENTOS =
+            "INSERT INTO tendencia_movimientos (tenant_id, fecha, proyecto_id, metrica, cantidad, monto, comision, " +
+            "created_at) " +
+            "SELECT tenant_id, fecha, proyecto_id, metrica, cantidad, monto, comision, :ahora FROM (" +
+            "SELECT v.tenant_id, CAST(v.fecha_venta AS DATE) AS fecha, t.proyecto_id, 'VENTAS' AS metrica, " +
+            "COUNT(*) AS cantidad, " +
+            "SUM(v.monto_final) AS monto, SUM(COALESCE(v.monto_comision, 0)) AS comision " +
+            "FROM ventas v JOIN terrenos t ON t.id = v.terreno_id " +
+            "WHERE v.tenant_id = :tenantId AND v.deleted = false " +
+            "AND CAST(v.estado AS VARCHAR) NOT IN ('CANCELADA', 'ANULADA') " +
+            "GROUP BY v.tenant_id, CAST(v.fecha_venta AS DATE), t.proyecto_id" +
+            " UNION ALL " +
+            "SELECT p.tenant_id, p.fecha_pago, t.proyecto_id, 'PAGOS', COUNT(*), SUM(p.monto_pagado), 0 " +
+            "FROM pagos p JOIN planes_pago pp ON pp.id = p.plan_pago_id JOIN ventas v ON v.id = pp.venta_id " +
+            "JOIN terrenos t ON t.id = v.terreno_id " +
+            "WHERE p.tenant_id = :tenantId AND p.deleted = false AND CAST(p.estado AS VARCHAR) = 'APLICADO' " +
+            "GROUP BY p.tenant_id, p.fecha_pago, t.proyecto_id" +
+            " UNION ALL " +
+            "SELECT a.tenant_id, CAST(a.fecha_apartado AS DATE), t.proyecto_id, 'APARTADOS', COUNT(*), " +
+            "SUM(a.monto_apartado), 0 " +
+            "FROM apartados a JOIN terrenos t ON t.id = a.terreno_id WHERE a.tenant_id = :tenantId " +
+            "GROUP BY a.tenant_id, CAST(a.fecha_apartado AS DATE), t.proyecto_id" +
+            ") m";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Valores de un periodo (proyectoId es 0 cuando no se desglosa por proyecto)
+     */
+    public record FilaTendencia(LocalDate periodo, long proyectoId, Map<MetricaTendencia, Long> cantidades,
+                                Map<MetricaTendencia, BigDecimal> montos, BigDecimal comisiones) {
+    }
+
+    public record Consolidacion(int movimientos, int filas) {
+    }
+
+    record Consulta(String sql, MapSqlParameterSource parametros) {
+    }
+
+    /**
+     * Consolida un bloque de hasta limite movimientos de todas las empresas.
+     * Debe ejecutarse dentro de una transacción: los bloqueos se liberan al commit.
+     */
+    public Consolidacion consolidar(int limite) {
+        return jdbcTemplate.queryForObject(SQL_CONSOLIDAR, new MapSqlParameterSource("limite", limite),
+                (rs, rowNum) -> new Consolidacion(rs.getInt("movimientos"), rs.getInt("filas")));
+    }
+
+    /**
+     * Periodos de desde a hasta (primeros días de periodo, ambos incluidos) en orden
+     */
+    public List<FilaTendencia> consultar(Long tenantId, GranularidadTendencia granularidad, LocalDate desde,
+                                         LocalDate hasta, Long proyectoId, boolean porProyecto) {
+        Consulta consulta = construirConsulta(tenantId, granularidad, desde, hasta, proyectoId, porProyecto);
+        return jdbcTemplate.query(consulta.sql(), consulta.parametros(), (rs, rowNum) -> {
+            Map<MetricaTendencia, Long> cantidades = new EnumMap<>(MetricaTendencia.class);
+            Map<MetricaTendencia, BigDecimal> montos = new EnumMap<>(MetricaTendencia.class);
+            for (MetricaTendencia metrica : METRICAS) {
+                cantidades.put(metrica, rs.getLong(columna(metrica)));
+                BigDecimal monto = rs.getBigDecimal(columnaMonto(metrica));
+                montos.put(metrica, monto != null ? monto : BigDecimal.ZERO);
+            }
+            BigDecimal comisiones = rs.getBigDecimal("comisiones");
+            return new FilaTendencia(rs.getDate("periodo").toLocalDate(), rs.getLong("proyecto_id"), cantidades,
+                    montos, comisiones != null ? comisiones : BigDecimal.ZERO);
+        });
+    }
+
+    /**
+     * Borra los acumulados y movimientos de la empresa y vuelve a generar sus movimientos
+     * desde ventas, pagos y apartados. Bloquea la escritura de movimientos de todas las
+     * empresas hasta el commit.
+     *
+     * @return movimientos generados (ya agregados por día y proyecto)
+     */
+    public int reconstruir(Long tenantId) {
+        MapSqlParameterSource parametros = new MapSqlParameterSource()
+                .addValue("tenantId", tenantId)
+                .addValue("ahora", Timestamp.valueOf(LocalDateTime.now()));
+
+        jdbcTemplate.getJdbcOperations().execute(SQL_BLOQUEAR_MOVIMIENTOS);
+        for (String sql : SQL_LIMPIAR) {
+            jdbcTemplate.update(sql, parametros);
+        }
+        return jdbcTemplate.update(SQL_GENERAR_MOVIMIENTOS, parametros);
+    }
+
+    static Consulta construirConsulta(Long tenantId, GranularidadTendencia granularidad, LocalDate desde,
+                                      LocalDate hasta, Long proyectoId, boolean porProyecto) {
+        MapSqlParameterSource parametros = new MapSqlParameterSource()
+                .addValue("tenantId", tenantId)
+                .addValue("granularidad", granularidad.name())
+                .addValue("desde", Date.valueOf(desde))
+                .addValue("hasta", Date.valueOf(hasta))
+                .addValue("fin", Date.valueOf(granularidad.fin(hasta)));
+        String filtroProyecto = "";
+        if (proyectoId != null) {
+            parametros.addValue("proyectoId", proyectoId);
+            filtroProyecto = " AND proyecto_id = :proyectoId";
+        }
+        String grupo = porProyecto ? "periodo, proyecto_id" : "periodo";
+
+        String sql = "SELECT periodo, " + (porProyecto ? "proyecto_id" : "0 AS proyecto_id") + ", " +
+                Arrays.stream(columnas().split(", "))
+                        .map(c -> "COALESCE(SUM(" + c + "), 0) AS " + c)
+                        .collect(Collectors.joining(", ")) +
+                " FROM (" +
+                "SELECT periodo, proyecto_id, " + columnas() + " FROM tendencia_ventas " +
+                "WHERE tenant_id = :tenantId AND granularidad = :granularidad " +
+                "AND periodo BETWEEN :desde AND :hasta" + filtroProyecto +
+                " UNION ALL " +
+                "SELECT " + periodo("'" + granularidad.getCampoSql() + "'", "fecha") + " AS periodo, proyecto_id, " +
+                METRICAS.stream()
+                        .map(m -> "CASE WHEN metrica = '" + m.name() + "' THEN cantidad ELSE 0 END AS " + columna(m) +
+                                ", CASE WHEN metrica = '" + m.name() + "' THEN monto ELSE 0 END AS " + columnaMonto(m))
+                        .collect(Collectors.joining(", ")) +
+                ", comision AS comisiones FROM tendencia_movimientos " +
+                "WHERE tenant_id = :tenantId AND fecha BETWEEN :desde AND :fin" + filtroProyecto +
+                ") t GROUP BY " + grupo + " ORDER BY " + grupo;
+        return new Consulta(sql, parametros);
+    }
+
+    private static String periodo(String campo, String fecha) {
+        return "CAST(date_trunc(" + campo + ", CAST(" + fecha + " AS TIMESTAMP)) AS DATE)";
+    }
+
+    private static String granularidades() {
+        return Arrays.stream(GranularidadTendencia.values())
+                .map(g -> "('" + g.name() + "', '" + g.getCampoSql() + "')")
+                .collect(Collectors.joining(", "));
+    }
+
+    private static String columnas() {
+        return METRICAS.stream()
+                .map(m -> columna(m) + ", " + columnaMonto(m))
+                .collect(Collectors.joining(", ")) + ", comisiones";
+    }
+
+    static String columna(MetricaTendencia metrica) {
+        return metrica.name().toLowerCase(Locale.ROOT);
+    }
+
+    static String columnaMonto(MetricaTendencia metrica) {
+        return "monto_" + columna(metrica);
+    }
+}
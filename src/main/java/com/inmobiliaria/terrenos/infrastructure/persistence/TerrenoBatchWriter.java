@@ -0,0 +1,177 @@
+package com.inmobiliaria.terrenos.infrastructure.persistence;
+
+import com.inmobiliaria.terrenos.domain.enums.EstadoTerreno;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Escritura masiva de terrenos con JDBC batch.
+ *
+ * Terreno usa ids IDENTITY, por lo que Hibernate no puede agrupar sus INSERT
+ * (necesita el id de cada fila). Para ingestas de miles de lotes se escribe
+ * directo con JdbcTemplate.batchUpdate dentro de la transacción vigente; con
+ * reWriteBatchedInserts=true el driver de PostgreSQL envía INSERT multi-fila.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Repository
+@RequiredArgsConstructor
+public class TerrenoBatchWriter {
+
+    public static final int BATCH_SIZE = 500;
+
+    // estado se omite: aplica el DEFAULT 'DISPONIBLE' de la columna
+    private static final String INSERT_SQL =
+            "INSERT INTO terrenos (tenant_id, proyecto_id, numero_lote, area, coordenadas_plano, geometria_lod, " +
+            "precio_base, precio_ajuste, precio_multiplicador, precio_final, deleted, plano_version, " +
+            "created_at, updated_at, created_by, updated_by) " +
+            "VALUES (?, ?, ?, ?, CAST(? AS jsonb), CAST(? AS jsonb), 0, 0, 1, 0, false, ?, ?, ?, ?, ?)";
+
+    // Lotes importados de CSV/XLSX: sin coordenadas, con precios y datos del lote
+    private static final String INSERT_IMPORTADO_SQL =
+            "INSERT INTO terrenos (tenant_id, proyecto_id, fase_id, numero_lote, manzana, area, frente, fondo, " +
+            "precio_base, precio_ajuste, precio_multiplicador, precio_final, caracteristicas, observaciones, estado, " +
+            "deleted, plano_version, created_at, updated_at, created_by, updated_by) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, CAST(? AS jsonb), ?, CAST(? AS estado_terreno), " +
+            "false, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_COORDENADAS_SQL =
+            "UPDATE terrenos SET coordenadas_plano = CAST(? AS jsonb), geometria_lod = CAST(? AS jsonb), " +
+            "plano_version = ?, updated_at = ?, updated_by = ? " +
+            "WHERE id = ? AND tenant_id = ? AND deleted = false";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record LoteNuevo(String numeroLote, BigDecimal area, String coordenadasJson, String geometriaLodJson) {
+    }
+
+    public record LoteImportado(String numeroLote, String manzana, Long faseId, BigDecimal area, BigDecimal frente,
+                                BigDecimal fondo, BigDecimal precioBase, BigDecimal precioAjuste,
+                                BigDecimal precioMultiplicador, BigDecimal precioFinal, String caracteristicasJson,
+                                String observaciones, EstadoTerreno estado) {
+    }
+
+    public record CoordenadasLote(Long terrenoId, String coordenadasJson, String geometriaLodJson) {
+    }
+
+    /**
+     * Inserta los lotes en lotes de {@link #BATCH_SIZE} filas.
+     *
+     * @param planoVersion versión del plano del proyecto en la que se registra el cambio
+     * @return filas insertadas
+     */
+    public int insertar(Long tenantId, Long proyectoId, String usuario, long planoVersion, Collection<LoteNuevo> lotes) {
+        if (lotes.isEmpty()) {
+            return 0;
+        }
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        int[][] resultado = jdbcTemplate.batchUpdate(INSERT_SQL, lotes, BATCH_SIZE, (ps, lote) -> {
+            ps.setLong(1, tenantId);
+            ps.setLong(2, proyectoId);
+            ps.setString(3, lote.numeroLote());
+            ps.setBigDecimal(4, lote.area());
+            setJsonONull(ps, 5, lote.coordenadasJson());
+            setJsonONull(ps, 6, lote.geometriaLodJson());
+            ps.setLong(7, planoVersion);
+            ps.setTimestamp(8, ahora);
+            ps.setTimestamp(9, ahora);
+            ps.setString(10, usuario);
+            ps.setString(11, usuario);
+        });
+        return contarFilas(resultado, lotes.size());
+    }
+
+    /**
+     * Inserta lotes importados de un archivo en lotes de {@link #BATCH_SIZE} filas.
+     *
+     * @param planoVersion versión del plano del proyecto en la que se registra el cambio
+     * @return filas insertadas
+     */
+    public int insertarImportados(Long tenantId, Long proyectoId, String usuario, long planoVersion,
+                                  Collection<LoteImportado> lotes) {
+        if (lotes.isEmpty()) {
+            return 0;
+        }
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        int[][] resultado = jdbcTemplate.batchUpdate(INSERT_IMPORTADO_SQL, lotes, BATCH_SIZE, (ps, lote) -> {
+            ps.setLong(1, tenantId);
+            ps.setLong(2, proyectoId);
+            ps.setObject(3, lote.faseId(), Types.BIGINT);
+            ps.setString(4, lote.numeroLote());
+            ps.setString(5, lote.manzana());
+            ps.setBigDecimal(6, lote.area());
+            ps.setBigDecimal(7, lote.frente());
+            ps.setBigDecimal(8, lote.fondo());
+            ps.setBigDecimal(9, lote.precioBase());
+            ps.setBigDecimal(10, lote.precioAjuste());
+            ps.setBigDecimal(11, lote.precioMultiplicador());
+            ps.setBigDecimal(12, lote.precioFinal());
+            setJsonONull(ps, 13, lote.caracteristicasJson());
+            ps.setString(14, lote.observaciones());
+            ps.setString(15, lote.estado().name());
+            ps.setLong(16, planoVersion);
+            ps.setTimestamp(17, ahora);
+            ps.setTimestamp(18, ahora);
+            ps.setString(19, usuario);
+            ps.setString(20, usuario);
+        });
+        return contarFilas(resultado, lotes.size());
+    }
+
+    /**
+     * Reemplaza las coordenadas en el plano de lotes existentes.
+     *
+     * @param planoVersion versión del plano del proyecto en la que se registra el cambio
+     * @return filas actualizadas
+     */
+    public int actualizarCoordenadas(Long tenantId, String usuario, long planoVersion, Collection<CoordenadasLote> lotes) {
+        if (lotes.isEmpty()) {
+            return 0;
+        }
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        int[][] resultado = jdbcTemplate.batchUpdate(UPDATE_COORDENADAS_SQL, lotes, BATCH_SIZE, (ps, lote) -> {
+            ps.setString(1, lote.coordenadasJson());
+            setJsonONull(ps, 2, lote.geometriaLodJson());
+            ps.setLong(3, planoVersion);
+            ps.setTimestamp(4, ahora);
+            ps.setString(5, usuario);
+            ps.setLong(6, lote.terrenoId());
+            ps.setLong(7, tenantId);
+        });
+        return contarFilas(resultado, lotes.size());
+    }
+
+    private static void setJsonONull(PreparedStatement ps, int indice, String json) throws SQLException {
+        if (json != null) {
+            ps.setString(indice, json);
+        } else {
+            ps.setNull(indice, Types.VARCHAR);
+        }
+    }
+
+    /**
+     * Con INSERT reescritos el driver puede reportar SUCCESS_NO_INFO (-2) por fila;
+     * en ese caso se asume el total enviado.
+     */
+    private static int contarFilas(int[][] resultado, int enviados) {
+        int total = 0;
+        for (int[] lote : resultado) {
+            if (Arrays.stream(lote).anyMatch(filas -> filas < 0)) {
+                return enviados;
+            }
+            total += Arrays.stream(lote).sum();
+        }
+        return total;
+    }
+}
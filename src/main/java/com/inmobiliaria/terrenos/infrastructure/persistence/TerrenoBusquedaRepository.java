@@ -0,0 +1,229 @@
+package com.inmobiliaria.terrenos.infrastructure.persistence;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inmobiliaria.terrenos.application.dto.terreno.BusquedaTerrenosRequest;
+import com.inmobiliaria.terrenos.application.dto.terreno.PaginaTerrenosResponse;
+import com.inmobiliaria.terrenos.application.dto.terreno.TerrenoResponse;
+import com.inmobiliaria.terrenos.domain.enums.EstadoTerreno;
+import com.inmobiliaria.terrenos.domain.enums.OrdenTerreno;
+import com.inmobiliaria.terrenos.shared.exception.BusinessException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Búsqueda paginada de terrenos con JDBC.
+ *
+ * Selecciona solo las columnas de TerrenoResponse (sin coordenadas, polígono ni geometría) y
+ * pagina por llave: la página siguiente continúa después de (valor de orden, id) de la última
+ * fila, con una condición que usa los índices (tenant_id, columna, id) de V14. El costo de una
+ * página no depende de cuántas haya antes, a diferencia de OFFSET.
+ *
+ * El filtro de características usa el operador @> de JSONB, resuelto por el índice GIN de la
+ * columna.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Repository
+@RequiredArgsConstructor
+public class TerrenoBusquedaRepository {
+
+    private static final String SELECT_SQL =
+            "SELECT t.id, t.tenant_id, t.proyecto_id, p.nombre AS proyecto_nombre, t.fase_id, " +
+            "f.nombre AS fase_nombre, t.numero_lote, t.manzana, t.area, t.frente, t.fondo, t.precio_base, " +
+            "t.precio_ajuste, t.precio_multiplicador, t.precio_final, CAST(t.caracteristicas AS text) AS caracteristicas, " +
+            "t.observaciones, CAST(t.estado AS text) AS estado, t.created_at, t.updated_at " +
+            "FROM terrenos t " +
+            "JOIN proyectos p ON p.id = t.proyecto_id " +
+            "LEFT JOIN fases f ON f.id = t.fase_id " +
+            "WHERE t.tenant_id = ? AND t.deleted = false";
+
+    private static final RowMapper<TerrenoResponse> ROW_MAPPER = (rs, rowNum) -> TerrenoResponse.builder()
+            .id(rs.getLong("id"))
+            .tenantId(rs.getLong("tenant_id"))
+            .proyectoId(rs.getLong("proyecto_id"))
+            .proyectoNombre(rs.getString("proyecto_nombre"))
+            .faseId(rs.getObject("fase_id", Long.class))
+            .faseNombre(rs.getString("fase_nombre"))
+            .numeroLote(rs.getString("numero_lote"))
+            .manzana(rs.getString("manzana"))
+            .area(rs.getBigDecimal("area"))
+            .frente(rs.getBigDecimal("frente"))
+            .fondo(rs.getBigDecimal("fondo"))
+            .precioBase(rs.getBigDecimal("precio_base"))
+            .precioAjuste(rs.getBigDecimal("precio_ajuste"))
+            .precioMultiplicador(rs.getBigDecimal("precio_multiplicador"))
+            .precioFinal(rs.getBigDecimal("precio_final"))
+            .caracteristicas(rs.getString("caracteristicas"))
+            .observaciones(rs.getString("observaciones"))
+            .estado(EstadoTerreno.valueOf(rs.getString("estado")))
+            .createdAt(toLocalDateTime(rs.getTimestamp("created_at")))
+            .updatedAt(toLocalDateTime(rs.getTimestamp("updated_at")))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Posición después de la cual continúa la página siguiente
+     */
+    record Cursor(Object valor, long id) {
+    }
+
+    record Consulta(String sql, List<Object> parametros) {
+    }
+
+    /**
+     * Busca una página de terrenos del tenant
+     */
+    public PaginaTerrenosResponse buscar(Long tenantId, BusquedaTerrenosRequest filtros) {
+        int limite = filtros.getLimite();
+        Consulta consulta = construirConsulta(tenantId, filtros);
+        List<TerrenoResponse> filas = jdbcTemplate.query(consulta.sql(), ROW_MAPPER, consulta.parametros().toArray());
+
+        // Se pide una fila de más para saber si hay página siguiente
+        boolean hayMas = filas.size() > limite;
+        List<TerrenoResponse> pagina = hayMas ? filas.subList(0, limite) : filas;
+        String siguienteCursor = hayMas
+                ? codificarCursor(filtros.getOrden(), filtros.getDireccion(), pagina.getLast())
+                : null;
+
+        return PaginaTerrenosResponse.builder()
+                .terrenos(List.copyOf(pagina))
+                .siguienteCursor(siguienteCursor)
+                .hayMas(hayMas)
+                .build();
+    }
+
+    Consulta construirConsulta(Long tenantId, BusquedaTerrenosRequest filtros) {
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        List<Object> parametros = new ArrayList<>();
+        parametros.add(tenantId);
+
+        if (filtros.getProyectoId() != null) {
+            sql.append(" AND t.proyecto_id = ?");
+            parametros.add(filtros.getProyectoId());
+        }
+        if (filtros.getFaseId() != null) {
+            sql.append(" AND t.fase_id = ?");
+            parametros.add(filtros.getFaseId());
+        }
+        if (filtros.getManzana() != null && !filtros.getManzana().isBlank()) {
+            sql.append(" AND t.manzana = ?");
+            parametros.add(filtros.getManzana().trim());
+        }
+        agregarRango(sql, parametros, "t.area", filtros.getAreaMin(), filtros.getAreaMax());
+        agregarRango(sql, parametros, "t.precio_final", filtros.getPrecioMin(), filtros.getPrecioMax());
+        if (filtros.getEstado() != null && !filtros.getEstado().isEmpty()) {
+            sql.append(" AND t.estado IN (");
+            for (int i = 0; i < filtros.getEstado().size(); i++) {
+                sql.append(i == 0 ? "" : ", ").append("CAST(? AS estado_terreno)");
+                parametros.add(filtros.getEstado().get(i).name());
+            }
+            sql.append(")");
+        }
+        if (filtros.getCaracteristicas() != null && !filtros.getCaracteristicas().isBlank()) {
+            sql.append(" AND t.caracteristicas @> CAST(? AS jsonb)");
+            parametros.add(normalizarCaracteristicas(objectMapper, filtros.getCaracteristicas()));
+        }
+
+        OrdenTerreno orden = filtros.getOrden();
+        boolean descendente = filtros.getDireccion() == Sort.Direction.DESC;
+        String columna = "t." + orden.getColumna();
+        if (filtros.getCursor() != null && !filtros.getCursor().isBlank()) {
+            Cursor cursor = decodificarCursor(filtros.getCursor(), orden, filtros.getDireccion());
+            sql.append(" AND (").append(columna).append(", t.id) ").append(descendente ? "<" : ">").append(" (?, ?)");
+            parametros.add(cursor.valor());
+            parametros.add(cursor.id());
+        }
+
+        String sentido = descendente ? " DESC" : " ASC";
+        sql.append(" ORDER BY ").append(columna).append(sentido).append(", t.id").append(sentido);
+        sql.append(" LIMIT ?");
+        parametros.add(filtros.getLimite() + 1);
+        return new Consulta(sql.toString(), parametros);
+    }
+
+    private static void agregarRango(StringBuilder sql, List<Object> parametros, String columna,
+                                     BigDecimal minimo, BigDecimal maximo) {
+        if (minimo != null) {
+            sql.append(" AND ").append(columna).append(" >= ?");
+            parametros.add(minimo);
+        }
+        if (maximo != null) {
+            sql.append(" AND ").append(columna).append(" <= ?");
+            parametros.add(maximo);
+        }
+    }
+
+    /**
+     * Valida que el filtro de características sea un objeto JSON y lo reescribe compacto para el
+     * operador @> sobre terrenos.caracteristicas (también lo usan las reglas de reajuste de precios)
+     */
+    public static String normalizarCaracteristicas(ObjectMapper objectMapper, String caracteristicas) {
+        try {
+            JsonNode nodo = objectMapper.readTree(caracteristicas);
+            if (nodo == null || !nodo.isObject()) {
+                throw new BusinessException("El filtro de características debe ser un objeto JSON", HttpStatus.BAD_REQUEST);
+            }
+            return objectMapper.writeValueAsString(nodo);
+        } catch (JsonProcessingException e) {
+            throw new BusinessException("El filtro de características no es un JSON válido", HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Cursor opaco: orden, dirección, id y valor de orden de la última fila, en base64url
+     */
+    static String codificarCursor(OrdenTerreno orden, Sort.Direction direccion, TerrenoResponse ultimo) {
+        Object valor = switch (orden) {
+            case NUMERO_LOTE -> ultimo.getNumeroLote();
+            case AREA -> ultimo.getArea().toPlainString();
+            case PRECIO -> ultimo.getPrecioFinal().toPlainString();
+            case FECHA_CREACION -> ultimo.getCreatedAt().toString();
+        };
+        String texto = orden.name() + ":" + direccion.name() + ":" + ultimo.getId() + ":" + valor;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Cursor decodificarCursor(String cursor, OrdenTerreno orden, Sort.Direction direccion) {
+        try {
+            String texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            // El valor va al final: un número de lote puede contener ':'
+            String[] partes = texto.split(":", 4);
+            if (partes.length != 4
+                    || OrdenTerreno.valueOf(partes[0]) != orden
+                    || Sort.Direction.valueOf(partes[1]) != direccion) {
+                throw new BusinessException("El cursor no corresponde al orden de la búsqueda", HttpStatus.BAD_REQUEST);
+            }
+            long id = Long.parseLong(partes[2]);
+            Object valor = switch (orden) {
+                case NUMERO_LOTE -> partes[3];
+                case AREA, PRECIO -> new BigDecimal(partes[3]);
+                case FECHA_CREACION -> Timestamp.valueOf(LocalDateTime.parse(partes[3]));
+            };
+            return new Cursor(valor, id);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BusinessException("Cursor inválido", HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
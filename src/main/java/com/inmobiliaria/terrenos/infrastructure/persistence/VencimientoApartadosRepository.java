@@ -0,0 +1,130 @@
+package com.inmobiliaria.terrenos.infrastructure.persistence;
+
+import com.inmobiliaria.terrenos.domain.enums.TipoAccionAudit;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Vencimiento de apartados por bloques con SQL por conjuntos.
+ *
+ * Cada bloque es una sola sentencia:
+ * - toma hasta N apartados ACTIVO vencidos de todas las empresas con FOR UPDATE SKIP LOCKED,
+ *   así varias instancias procesan bloques distintos sin esperarse
+ * - los marca VENCIDO y libera sus lotes solo si siguen APARTADO (UPDATE condicional)
+ * - ajusta los contadores de proyectos y fases por diferencia y sube una vez la versión
+ *   del plano de cada proyecto afectado
+ * - escribe un registro de auditoría por empresa y bloque con los ids afectados
+ * - registra los apartados vencidos en el embudo de ventas (ver EmbudoVentasService)
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Repository
+@RequiredArgsConstructor
+public class VencimientoApartadosRepository {
+
+    private static final String SQL_VENCER = "WITH vencidos AS (" +
+            "SELECT a.id, a.tenant_id, a.terreno_id FROM apartados a " +
+            "WHERE a.estado = 'ACTIVO' AND a.deleted = false AND a.fecha_vencimiento < :fechaCorte " +
+            "ORDER BY a.fecha_vencimiento, a.id LIMIT :limite " +
+            "FOR UPDATE SKIP LOCKED), " +
+            "apartados_vencidos AS (" +
+            "UPDATE apartados a SET estado = 'VENCIDO', updated_at = :ahora, updated_by = :usuario " +
+            "FROM vencidos v WHERE a.id = v.id " +
+            "RETURNING a.id, a.tenant_id, a.terreno_id, a.fecha_apartado, a.usuario_id), " +
+            // Un lote con otro apartado activo y no vencido no se libera
+            "liberables AS (" +
+            "SELECT t.id, t.tenant_id, t.proyecto_id, t.fase_id FROM terrenos t " +
+            "WHERE t.id IN (SELECT v.terreno_id FROM vencidos v) " +
+            "AND t.estado = 'APARTADO' AND t.deleted = false " +
+            "AND NOT EXISTS (SELECT 1 FROM apartados o WHERE o.terreno_id = t.id AND o.estado = 'ACTIVO' " +
+            "AND o.deleted = false AND o.fecha_vencimiento >= :fechaCorte) " +
+            "FOR UPDATE OF t), " +
+            "proyectos_actualizados AS (" +
+            "UPDATE proyectos p SET plano_version = p.plano_version + 1, " +
+            "terrenos_disponibles = COALESCE(p.terrenos_disponibles, 0) + c.lotes, " +
+            "terrenos_apartados = GREATEST(COALESCE(p.terrenos_apartados, 0) - c.lotes, 0), " +
+            "updated_at = :ahora " +
+            "FROM (SELECT proyecto_id, COUNT(*) AS lotes FROM liberables GROUP BY proyecto_id) c " +
+            "WHERE p.id = c.proyecto_id " +
+            "RETURNING p.id, p.plano_version), " +
+            "fases_actualizadas AS (" +
+            "UPDATE fases f SET terrenos_disponibles = COALESCE(f.terrenos_disponibles, 0) + c.lotes, " +
+            "updated_at = :ahora " +
+            "FROM (SELECT fase_id, COUNT(*) AS lotes FROM liberables WHERE fase_id IS NOT NULL GROUP BY fase_id) c " +
+            "WHERE f.id = c.fase_id " +
+            "RETURNING f.id), " +
+            "liberados AS (" +
+            "UPDATE terrenos t SET estado = 'DISPONIBLE', plano_version = pa.plano_version, " +
+            "updated_at = :ahora, updated_by = :usuario " +
+            "FROM liberables l JOIN proyectos_actualizados pa ON pa.id = l.proyecto_id " +
+            "WHERE t.id = l.id " +
+            "RETURNING t.id, t.tenant_id, t.proyecto_id, t.numero_lote, t.plano_version), " +
+            "auditoria AS (" +
+            "INSERT INTO audit_log_simple (tenant_id, usuario_email, accion, descripcion, metadata, fecha) " +
+            "SELECT v.tenant_id, :usuario, :accion, COUNT(*) || ' apartados vencidos', " +
+            "jsonb_build_object('fechaCorte', CAST(:fechaCorteTexto AS text), " +
+            "'apartados', jsonb_agg(v.id ORDER BY v.id), " +
+            "'terrenosLiberados', COALESCE((SELECT jsonb_agg(l.id ORDER BY l.id) FROM liberables l " +
+            "WHERE l.tenant_id = v.tenant_id), CAST('[]' AS jsonb))), " +
+            ":ahora " +
+            "FROM apartados_vencidos v GROUP BY v.tenant_id " +
+            "RETURNING 1), " +
+            // Conversión del embudo de ventas: en la fecha y agente del apartado
+            "embudo AS (" +
+            "INSERT INTO embudo_movimientos (tenant_id, fecha, proyecto_id, usuario_id, metrica, cantidad, monto, created_at) " +
+            "SELECT v.tenant_id, v.fecha_apartado, t.proyecto_id, COALESCE(v.usuario_id, 0), 'APARTADOS_VENCIDOS', " +
+            "COUNT(*), 0, :ahora " +
+            "FROM apartados_vencidos v JOIN terrenos t ON t.id = v.terreno_id " +
+            "GROUP BY v.tenant_id, v.fecha_apartado, t.proyecto_id, COALESCE(v.usuario_id, 0) " +
+            "RETURNING 1) " +
+            "SELECT (SELECT COUNT(*) FROM apartados_vencidos) AS apartados, " +
+            "(SELECT COUNT(*) FROM auditoria) AS auditorias, " +
+            "l.id, l.tenant_id, l.proyecto_id, l.numero_lote, l.plano_version " +
+            "FROM (SELECT 1) uno LEFT JOIN liberados l ON true";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public record LoteLiberado(Long tenantId, Long proyectoId, Long terrenoId, String numeroLote, long planoVersion) {
+    }
+
+    public record Bloque(int apartados, int auditorias, List<LoteLiberado> lotes) {
+    }
+
+    /**
+     * Vence un bloque de apartados cuya fecha de vencimiento es anterior a fechaCorte.
+     * Debe ejecutarse dentro de una transacción: los bloqueos se liberan al commit.
+     */
+    public Bloque vencerBloque(LocalDate fechaCorte, int limite, String usuario) {
+        MapSqlParameterSource parametros = new MapSqlParameterSource()
+                .addValue("fechaCorte", Date.valueOf(fechaCorte))
+                .addValue("fechaCorteTexto", fechaCorte.toString())
+                .addValue("limite", limite)
+                .addValue("ahora", Timestamp.valueOf(LocalDateTime.now()))
+                .addValue("usuario", usuario)
+                .addValue("accion", TipoAccionAudit.RESERVATIONS_EXPIRED.name());
+
+        int[] apartados = {0};
+        int[] auditorias = {0};
+        List<LoteLiberado> lotes = new ArrayList<>();
+        jdbcTemplate.query(SQL_VENCER, parametros, rs -> {
+            apartados[0] = rs.getInt("apartados");
+            auditorias[0] = rs.getInt("auditorias");
+            long terrenoId = rs.getLong("id");
+            if (!rs.wasNull()) {
+                lotes.add(new LoteLiberado(rs.getLong("tenant_id"), rs.getLong("proyecto_id"), terrenoId,
+                        rs.getString("numero_lote"), rs.getLong("plano_version")));
+            }
+        });
+        return new Bloque(apartados[0], auditorias[0], lotes);
+    }
+}
@@ -0,0 +1,133 @@
+package com.inmobiliaria.terrenos.infrastructure.precio;
+
+import com.inmobiliaria.terrenos.application.event.DescuentosModificadosEvent;
+import com.inmobiliaria.terrenos.domain.entity.Descuento;
+import com.inmobiliaria.terrenos.domain.repository.DescuentoRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caché en memoria del índice de descuentos por empresa.
+ *
+ * El índice se construye la primera vez que se cotiza un lote del tenant y se reutiliza
+ * hasta que cambian sus descuentos ({@link DescuentosModificadosEvent}). Las construcciones
+ * concurrentes del mismo tenant se agrupan en una sola lectura de BD. El consumo de usos al
+ * cotizar también publica el evento; el TTL cubre cambios hechos por otra instancia y el
+ * cambio de día.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DescuentosCache {
+
+    private final DescuentoRepository descuentoRepository;
+
+    private final Map<Long, Entrada> indices = new ConcurrentHashMap<>();
+
+    @Value("${app.precios.descuentos.ttl:5m}")
+    private Duration ttl;
+
+    @Value("${app.precios.descuentos.max-tenants:1000}")
+    private int maxTenants;
+
+    private record Entrada(CompletableFuture<IndiceDescuentos> indice, long creadoNanos) {
+    }
+
+    /**
+     * Devuelve el índice del tenant, construyéndolo si no está en caché o expiró.
+     */
+    public IndiceDescuentos obtener(Long tenantId) {
+        while (true) {
+            Entrada entrada = indices.get(tenantId);
+            if (entrada != null && System.nanoTime() - entrada.creadoNanos() > ttl.toNanos()) {
+                indices.remove(tenantId, entrada);
+                continue;
+            }
+            if (entrada != null) {
+                return esperar(entrada.indice());
+            }
+
+            Entrada propia = new Entrada(new CompletableFuture<>(), System.nanoTime());
+            if (indices.putIfAbsent(tenantId, propia) != null) {
+                continue;
+            }
+            liberarEspacio();
+            try {
+                propia.indice().complete(construir(tenantId));
+            } catch (RuntimeException e) {
+                indices.remove(tenantId, propia);
+                propia.indice().completeExceptionally(e);
+                throw e;
+            }
+            return propia.indice().join();
+        }
+    }
+
+    /**
+     * Descarta el índice del tenant; la siguiente cotización lo reconstruye.
+     */
+    public void invalidar(Long tenantId) {
+        if (indices.remove(tenantId) != null) {
+            log.debug("Índice de descuentos del tenant {} invalidado", tenantId);
+        }
+    }
+
+    /**
+     * Se ejecuta después del commit para que la reconstrucción lea los descuentos nuevos.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarDescuentos(DescuentosModificadosEvent evento) {
+        invalidar(evento.tenantId());
+    }
+
+    private IndiceDescuentos construir(Long tenantId) {
+        long inicio = System.nanoTime();
+        List<Descuento> descuentos = descuentoRepository.findActivosNoVencidos(tenantId, LocalDate.now());
+        IndiceDescuentos indice = IndiceDescuentos.of(descuentos);
+
+        log.debug("Índice de descuentos del tenant {} construido: {} descuentos en {} ms",
+                tenantId, indice.size(), (System.nanoTime() - inicio) / 1_000_000);
+        return indice;
+    }
+
+    /**
+     * Si se supera el máximo de tenants en memoria se descartan los índices más antiguos.
+     */
+    private void liberarEspacio() {
+        int excedente = indices.size() - maxTenants;
+        if (excedente <= 0) {
+            return;
+        }
+        indices.entrySet().stream()
+                .sorted(Comparator.comparingLong(e -> e.getValue().creadoNanos()))
+                .limit(excedente)
+                .toList()
+                .forEach(e -> indices.remove(e.getKey(), e.getValue()));
+    }
+
+    private static IndiceDescuentos esperar(CompletableFuture<IndiceDescuentos> futuro) {
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+}
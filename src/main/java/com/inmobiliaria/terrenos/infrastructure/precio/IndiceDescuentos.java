@@ -0,0 +1,196 @@
+package com.inmobiliaria.terrenos.infrastructure.precio;
+
+import com.inmobiliaria.terrenos.domain.entity.Descuento;
+import com.inmobiliaria.terrenos.domain.enums.TipoDescuento;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Índice en memoria de los descuentos de una empresa.
+ *
+ * Cada descuento se registra según su alcance: general (sin proyecto), por proyecto, o por
+ * cada fase y cada lote que enumera. Evaluar un lote son cuatro búsquedas en tablas hash y
+ * un recorrido de los pocos descuentos candidatos, sin consultas a la base de datos.
+ *
+ * Reglas de aplicación:
+ * - Vigente en la fecha (fecha_inicio y fecha_fin inclusive) y con usos disponibles
+ * - Si enumera terrenos o fases, aplica a esos lotes (a cualquiera de las dos listas)
+ * - Los descuentos con código solo aplican si el cliente presenta ese código
+ * - Los descuentos no se acumulan: se aplica el de mayor monto (a igual monto, el más antiguo)
+ *
+ * Es inmutable: se reemplaza completo cuando cambian los descuentos (ver DescuentosCache).
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+public final class IndiceDescuentos {
+
+    private static final Regla[] VACIO = new Regla[0];
+    private static final BigDecimal CIEN = BigDecimal.valueOf(100);
+
+    private final Regla[] generales;
+    private final Map<Long, Regla[]> porProyecto;
+    private final Map<Long, Regla[]> porFase;
+    private final Map<Long, Regla[]> porTerreno;
+    private final int size;
+
+    /**
+     * Copia compacta de un descuento: el índice no retiene entidades JPA
+     */
+    record Regla(long id, Long proyectoId, String nombre, String codigo, TipoDescuento tipo, BigDecimal valor,
+                 LocalDate fechaInicio, LocalDate fechaFin, Integer usosMaximos, int usosActuales) {
+
+        boolean aplica(Long proyectoLote, LocalDate fecha, String codigoCliente) {
+            return (proyectoId == null || proyectoId.equals(proyectoLote))
+                    && !fecha.isBefore(fechaInicio) && !fecha.isAfter(fechaFin)
+                    && (usosMaximos == null || usosActuales < usosMaximos)
+                    && (codigo == null || codigo.equals(codigoCliente));
+        }
+
+        BigDecimal monto(BigDecimal precio) {
+            BigDecimal monto = tipo == TipoDescuento.PORCENTAJE
+                    ? precio.multiply(valor).divide(CIEN, 2, RoundingMode.HALF_UP)
+                    : valor;
+            return monto.min(precio);
+        }
+    }
+
+    /**
+     * Descuento elegido para un lote y el precio resultante
+     */
+    public record DescuentoAplicado(long descuentoId, String nombre, String codigo, TipoDescuento tipo,
+                                    BigDecimal monto, BigDecimal porcentaje, BigDecimal precioFinal) {
+    }
+
+    private IndiceDescuentos(Regla[] generales, Map<Long, Regla[]> porProyecto, Map<Long, Regla[]> porFase,
+                             Map<Long, Regla[]> porTerreno, int size) {
+        this.generales = generales;
+        this.porProyecto = porProyecto;
+        this.porFase = porFase;
+        this.porTerreno = porTerreno;
+        this.size = size;
+    }
+
+    public static IndiceDescuentos of(List<Descuento> descuentos) {
+        List<Regla> generales = new ArrayList<>();
+        Map<Long, List<Regla>> porProyecto = new HashMap<>();
+        Map<Long, List<Regla>> porFase = new HashMap<>();
+        Map<Long, List<Regla>> porTerreno = new HashMap<>();
+
+        for (Descuento d : descuentos) {
+            Regla regla = new Regla(d.getId(), d.getProyectoId(), d.getNombre(), normalizarCodigo(d.getCodigo()),
+                    d.getTipo(), d.getValor(), d.getFechaInicio(), d.getFechaFin(), d.getUsosMaximos(),
+                    d.getUsosActuales() != null ? d.getUsosActuales() : 0);
+            boolean porTerrenos = d.getAplicaATerrenos() != null && !d.getAplicaATerrenos().isEmpty();
+            boolean porFases = d.getAplicaAFases() != null && !d.getAplicaAFases().isEmpty();
+
+            if (porTerrenos) {
+                d.getAplicaATerrenos().forEach(id -> porTerreno.computeIfAbsent(id, k -> new ArrayList<>()).add(regla));
+            }
+            if (porFases) {
+                d.getAplicaAFases().forEach(id -> porFase.computeIfAbsent(id, k -> new ArrayList<>()).add(regla));
+            }
+            if (!porTerrenos && !porFases) {
+                if (d.getProyectoId() == null) {
+                    generales.add(regla);
+                } else {
+                    porProyecto.computeIfAbsent(d.getProyectoId(), k -> new ArrayList<>()).add(regla);
+                }
+            }
+        }
+        return new IndiceDescuentos(generales.toArray(VACIO), compactar(porProyecto), compactar(porFase),
+                compactar(porTerreno), descuentos.size());
+    }
+
+    /**
+     * Mejor descuento para el lote en la fecha indicada, o null si no aplica ninguno
+     *
+     * @param codigo código presentado por el cliente (puede ser null)
+     */
+    public DescuentoAplicado mejorDescuento(Long proyectoId, Long faseId, Long terrenoId, BigDecimal precio,
+                                            LocalDate fecha, String codigo) {
+        if (precio == null || precio.signum() <= 0) {
+            return null;
+        }
+        String codigoCliente = normalizarCodigo(codigo);
+
+        Regla mejor = null;
+        BigDecimal mejorMonto = null;
+        for (Regla[] candidatas : candidatas(proyectoId, faseId, terrenoId)) {
+            for (Regla regla : candidatas) {
+                if (!regla.aplica(proyectoId, fecha, codigoCliente)) {
+                    continue;
+                }
+                BigDecimal monto = regla.monto(precio);
+                int comparacion = mejorMonto == null ? 1 : monto.compareTo(mejorMonto);
+                if (comparacion > 0 || (comparacion == 0 && regla.id() < mejor.id())) {
+                    mejor = regla;
+                    mejorMonto = monto;
+                }
+            }
+        }
+        if (mejor == null || mejorMonto.signum() == 0) {
+            return null;
+        }
+        BigDecimal porcentaje = mejorMonto.multiply(CIEN).divide(precio, 2, RoundingMode.HALF_UP);
+        return new DescuentoAplicado(mejor.id(), mejor.nombre(), mejor.codigo(), mejor.tipo(), mejorMonto,
+                porcentaje, precio.subtract(mejorMonto));
+    }
+
+    /**
+     * Indica si algún descuento con ese código aplica al lote en la fecha, aunque otro
+     * descuento automático resulte mayor
+     */
+    public boolean aplicaCodigo(Long proyectoId, Long faseId, Long terrenoId, LocalDate fecha, String codigo) {
+        String codigoCliente = normalizarCodigo(codigo);
+        if (codigoCliente == null) {
+            return false;
+        }
+        for (Regla[] candidatas : candidatas(proyectoId, faseId, terrenoId)) {
+            for (Regla regla : candidatas) {
+                if (codigoCliente.equals(regla.codigo()) && regla.aplica(proyectoId, fecha, codigoCliente)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Número de descuentos indexados
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Los códigos se comparan sin espacios ni distinción de mayúsculas
+     */
+    static String normalizarCodigo(String codigo) {
+        if (codigo == null || codigo.isBlank()) {
+            return null;
+        }
+        return codigo.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private Regla[][] candidatas(Long proyectoId, Long faseId, Long terrenoId) {
+        return new Regla[][]{
+                generales,
+                porProyecto.getOrDefault(proyectoId, VACIO),
+                faseId != null ? porFase.getOrDefault(faseId, VACIO) : VACIO,
+                porTerreno.getOrDefault(terrenoId, VACIO)};
+    }
+
+    private static Map<Long, Regla[]> compactar(Map<Long, List<Regla>> listas) {
+        Map<Long, Regla[]> compacto = new HashMap<>(Math.max(16, listas.size() * 4 / 3 + 1));
+        listas.forEach((id, reglas) -> compacto.put(id, reglas.toArray(VACIO)));
+        return compacto;
+    }
+}
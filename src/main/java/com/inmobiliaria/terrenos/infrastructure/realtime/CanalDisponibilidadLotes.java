@@ -0,0 +1,235 @@
+package com.inmobiliaria.terrenos.infrastructure.realtime;
+
+import com.inmobiliaria.terrenos.application.dto.plano.CambioEstadoLoteResponse;
+import com.inmobiliaria.terrenos.application.dto.plano.TerrenoVisualizacionResponse;
+import com.inmobiliaria.terrenos.application.event.EstadoLoteCambiadoEvent;
+import com.inmobiliaria.terrenos.shared.exception.BusinessException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Canal SSE de disponibilidad de lotes por proyecto para las pantallas de la sala de ventas.
+ *
+ * Los cambios de estado ({@link EstadoLoteCambiadoEvent}) llegan después del commit y se reparten
+ * a las conexiones del proyecto. Cada conexión acumula los cambios durante una ventana corta y
+ * los envía en un solo evento "lotes", con el último estado de cada lote; los envíos corren en
+ * hilos virtuales y una conexión inactiva no ocupa ningún hilo.
+ *
+ * Un cliente que no lee (buffer desbordado o envío bloqueado demasiado tiempo) se desaloja: se
+ * cierra su conexión y al reconectarse recibe la versión actual del plano en el evento
+ * "conectado", con la que puede pedir lo que le falte a plano-interactivo?since=.
+ *
+ * Los eventos solo llegan a las conexiones de la instancia donde ocurrió el cambio; con varias
+ * instancias, el cliente debe complementar con la consulta por versión al reconectarse.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Component
+@Slf4j
+public class CanalDisponibilidadLotes implements DisposableBean {
+
+    static final String EVENTO_CONECTADO = "conectado";
+
+    private final Duration ventana;
+    private final Duration timeout;
+    private final Duration maxEnvioBloqueado;
+    private final int capacidadBuffer;
+    private final int maxConexiones;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Llave, Set<SuscriptorDisponibilidad>> suscriptores = new ConcurrentHashMap<>();
+    private final AtomicInteger conectados = new AtomicInteger();
+    private final ExecutorService virtualThreads =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("plano-sse-", 0).factory());
+    private final ScheduledExecutorService temporizador =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("plano-sse-timer").daemon().factory());
+
+    private record Llave(Long tenantId, Long proyectoId) {
+    }
+
+    public CanalDisponibilidadLotes(@Value("${app.plano.disponibilidad.ventana:150ms}") Duration ventana,
+                                    @Value("${app.plano.disponibilidad.timeout:30m}") Duration timeout,
+                                    @Value("${app.plano.disponibilidad.heartbeat:25s}") Duration heartbeat,
+                                    @Value("${app.plano.disponibilidad.max-envio-bloqueado:20s}") Duration maxEnvioBloqueado,
+                                    @Value("${app.plano.disponibilidad.capacidad-buffer:256}") int capacidadBuffer,
+                                    @Value("${app.plano.disponibilidad.max-conexiones:10000}") int maxConexiones,
+                                    MeterRegistry meterRegistry) {
+        this.ventana = ventana;
+        this.timeout = timeout;
+        this.maxEnvioBloqueado = maxEnvioBloqueado;
+        this.capacidadBuffer = capacidadBuffer;
+        this.maxConexiones = maxConexiones;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("plano.disponibilidad.conexiones", conectados, AtomicInteger::get)
+                .description("Conexiones SSE abiertas al canal de disponibilidad de lotes")
+                .register(meterRegistry);
+
+        // Latido: mantiene viva la conexión a través de proxies y detecta clientes atascados
+        temporizador.scheduleAtFixedRate(this::latido, heartbeat.toMillis(), heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Abre una conexión al canal del proyecto. El primer evento ("conectado") trae la versión
+     * actual del plano.
+     */
+    public SseEmitter suscribir(Long tenantId, Long proyectoId, long versionPlano) {
+        if (conectados.incrementAndGet() > maxConexiones) {
+            conectados.decrementAndGet();
+            throw new BusinessException("El canal de disponibilidad alcanzó el máximo de conexiones, intente más tarde",
+                    HttpStatus.SERVICE_UNAVAILABLE);
+        }
+
+        Llave llave = new Llave(tenantId, proyectoId);
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        SuscriptorDisponibilidad suscriptor = new SuscriptorDisponibilidad(emitter, capacidadBuffer);
+        suscriptores.computeIfAbsent(llave, k -> ConcurrentHashMap.newKeySet()).add(suscriptor);
+
+        emitter.onCompletion(() -> quitar(llave, suscriptor));
+        emitter.onTimeout(() -> quitar(llave, suscriptor));
+        emitter.onError(e -> quitar(llave, suscriptor));
+
+        try {
+            emitter.send(SseEmitter.event()
+                    .id(Long.toString(versionPlano))
+                    .name(EVENTO_CONECTADO)
+                    .data(Map.of("version", versionPlano)));
+        } catch (IOException e) {
+            quitar(llave, suscriptor);
+            emitter.completeWithError(e);
+        }
+        log.debug("Pantalla suscrita a la disponibilidad del proyecto {} (tenant {}), {} conexiones",
+                proyectoId, tenantId, conectados.get());
+        return emitter;
+    }
+
+    /**
+     * Se ejecuta después del commit: las pantallas nunca ven un estado que luego se revierte.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alCambiarEstado(EstadoLoteCambiadoEvent evento) {
+        Llave llave = new Llave(evento.tenantId(), evento.proyectoId());
+        Set<SuscriptorDisponibilidad> delProyecto = suscriptores.get(llave);
+        if (delProyecto == null || delProyecto.isEmpty()) {
+            return;
+        }
+
+        CambioEstadoLoteResponse cambio = CambioEstadoLoteResponse.builder()
+                .terrenoId(evento.terrenoId())
+                .numeroLote(evento.numeroLote())
+                .estado(evento.estadoNuevo())
+                .colorHex(TerrenoVisualizacionResponse.getColorByEstado(evento.estadoNuevo()))
+                .version(evento.planoVersion())
+                .build();
+
+        for (SuscriptorDisponibilidad suscriptor : delProyecto) {
+            if (!suscriptor.encolar(cambio)) {
+                desalojar(llave, suscriptor, "buffer");
+            } else if (suscriptor.programar()) {
+                temporizador.schedule(() -> despachar(llave, suscriptor), ventana.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    public int conexiones() {
+        return conectados.get();
+    }
+
+    private void despachar(Llave llave, SuscriptorDisponibilidad suscriptor) {
+        virtualThreads.execute(() -> {
+            try {
+                if (suscriptor.enviar() && suscriptor.programar()) {
+                    temporizador.schedule(() -> despachar(llave, suscriptor), ventana.toMillis(), TimeUnit.MILLISECONDS);
+                }
+            } catch (Exception e) {
+                // Cliente desconectado: el contenedor también invocará onError/onCompletion
+                log.debug("Conexión de disponibilidad del proyecto {} cerrada: {}", llave.proyectoId(), e.getMessage());
+                quitar(llave, suscriptor);
+                suscriptor.cerrar();
+            }
+        });
+    }
+
+    private void latido() {
+        try {
+            long ahora = System.nanoTime();
+            suscriptores.forEach((llave, delProyecto) -> {
+                for (SuscriptorDisponibilidad suscriptor : delProyecto) {
+                    if (suscriptor.atascado(ahora, maxEnvioBloqueado.toNanos())) {
+                        desalojar(llave, suscriptor, "bloqueado");
+                        continue;
+                    }
+                    suscriptor.encolarPing();
+                    if (suscriptor.programar()) {
+                        despachar(llave, suscriptor);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            // Una excepción cancelaría las siguientes ejecuciones programadas
+            log.warn("Error en el latido del canal de disponibilidad: {}", e.getMessage());
+        }
+    }
+
+    private void desalojar(Llave llave, SuscriptorDisponibilidad suscriptor, String motivo) {
+        if (!quitar(llave, suscriptor)) {
+            return;
+        }
+        suscriptor.cerrar();
+        Counter.builder("plano.disponibilidad.desalojos")
+                .description("Conexiones cerradas por no consumir los eventos a tiempo")
+                .tag("motivo", motivo)
+                .register(meterRegistry)
+                .increment();
+        log.info("Conexión de disponibilidad del proyecto {} desalojada ({})", llave.proyectoId(), motivo);
+        // complete() espera a que termine el envío bloqueado; no debe retener al publicador
+        virtualThreads.execute(() -> suscriptor.emitter().complete());
+    }
+
+    /**
+     * Quita la conexión del registro; devuelve false si ya no estaba
+     */
+    private boolean quitar(Llave llave, SuscriptorDisponibilidad suscriptor) {
+        AtomicBoolean quitado = new AtomicBoolean();
+        suscriptores.computeIfPresent(llave, (k, delProyecto) -> {
+            quitado.set(delProyecto.remove(suscriptor));
+            return delProyecto.isEmpty() ? null : delProyecto;
+        });
+        if (quitado.get()) {
+            conectados.decrementAndGet();
+        }
+        return quitado.get();
+    }
+
+    @Override
+    public void destroy() {
+        temporizador.shutdownNow();
+        suscriptores.forEach((llave, delProyecto) -> delProyecto.forEach(suscriptor -> {
+            suscriptor.cerrar();
+            suscriptor.emitter().complete();
+        }));
+        suscriptores.clear();
+        virtualThreads.shutdown();
+    }
+}
@@ -0,0 +1,138 @@
+package com.inmobiliaria.terrenos.infrastructure.realtime;
+
+import com.inmobiliaria.terrenos.application.dto.plano.CambioEstadoLoteResponse;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Conexión SSE de una pantalla suscrita a la disponibilidad de un proyecto.
+ *
+ * Los cambios se acumulan en un buffer acotado que guarda solo el último estado de cada lote:
+ * una ráfaga de cambios sobre el mismo lote se envía como uno. Mientras no hay cambios la
+ * conexión no ocupa ningún hilo; al haberlos se programa un único envío a la vez, de modo que
+ * un cliente lento nunca tiene dos hilos escribiendo y su buffer crece hasta desbordarse, lo
+ * que lo marca para desalojo.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+final class SuscriptorDisponibilidad {
+
+    static final String EVENTO_LOTES = "lotes";
+
+    private final SseEmitter emitter;
+    private final int capacidad;
+
+    // Protegidos por this
+    private Map<Long, CambioEstadoLoteResponse> pendientes;
+    private boolean pingPendiente;
+    private boolean programado;
+    private boolean cerrado;
+
+    private volatile long enviandoDesdeNanos;
+
+    SuscriptorDisponibilidad(SseEmitter emitter, int capacidad) {
+        this.emitter = emitter;
+        this.capacidad = capacidad;
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    /**
+     * Agrega un cambio reemplazando el pendiente del mismo lote.
+     *
+     * @return false si el buffer superó su capacidad (el cliente no está leyendo)
+     */
+    synchronized boolean encolar(CambioEstadoLoteResponse cambio) {
+        if (cerrado) {
+            return true;
+        }
+        if (pendientes == null) {
+            pendientes = new LinkedHashMap<>();
+        }
+        pendientes.put(cambio.getTerrenoId(), cambio);
+        return pendientes.size() <= capacidad;
+    }
+
+    synchronized void encolarPing() {
+        pingPendiente = true;
+    }
+
+    /**
+     * Marca el envío como programado; devuelve false si ya había uno en curso o programado.
+     */
+    synchronized boolean programar() {
+        if (programado || cerrado) {
+            return false;
+        }
+        programado = true;
+        return true;
+    }
+
+    /**
+     * Envía lo acumulado (bloquea mientras el cliente no lee).
+     *
+     * @return true si llegaron cambios durante el envío y hay que programar otro
+     */
+    boolean enviar() throws IOException {
+        List<CambioEstadoLoteResponse> cambios;
+        boolean ping;
+        synchronized (this) {
+            cambios = pendientes == null || pendientes.isEmpty() ? List.of() : new ArrayList<>(pendientes.values());
+            pendientes = null;
+            ping = pingPendiente;
+            pingPendiente = false;
+        }
+
+        enviandoDesdeNanos = System.nanoTime();
+        try {
+            if (!cambios.isEmpty()) {
+                long version = 0;
+                for (CambioEstadoLoteResponse cambio : cambios) {
+                    version = Math.max(version, cambio.getVersion() != null ? cambio.getVersion() : 0);
+                }
+                emitter.send(SseEmitter.event()
+                        .id(Long.toString(version))
+                        .name(EVENTO_LOTES)
+                        .data(cambios, MediaType.APPLICATION_JSON));
+            } else if (ping) {
+                emitter.send(SseEmitter.event().comment("ping"));
+            }
+        } finally {
+            enviandoDesdeNanos = 0;
+        }
+
+        synchronized (this) {
+            programado = false;
+            return !cerrado && ((pendientes != null && !pendientes.isEmpty()) || pingPendiente);
+        }
+    }
+
+    /**
+     * Indica si un envío lleva más del tiempo permitido bloqueado
+     */
+    boolean atascado(long ahoraNanos, long maxNanos) {
+        long desde = enviandoDesdeNanos;
+        return desde != 0 && ahoraNanos - desde > maxNanos;
+    }
+
+    /**
+     * Descarta lo pendiente; después de cerrar no se aceptan ni programan envíos
+     */
+    synchronized void cerrar() {
+        cerrado = true;
+        pendientes = null;
+    }
+
+    synchronized int pendientes() {
+        return pendientes == null ? 0 : pendientes.size();
+    }
+}
@@ -0,0 +1,85 @@
+package com.inmobiliaria.terrenos.infrastructure.reportes;
+
+import com.inmobiliaria.terrenos.config.FileStorageProperties;
+import com.inmobiliaria.terrenos.shared.exception.BusinessException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+/**
+ * Archivos de resultado de los trabajos de reporte, en el directorio de almacenamiento
+ * (file.storage.upload-dir) bajo reportes/tenant_{id}, con el id del trabajo como nombre.
+ *
+ * Además de los que elimina el servicio al vencer cada trabajo, la limpieza por antigüedad
+ * recoge los archivos que quedaron de trabajos de un reinicio anterior.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ResultadosReportes {
+
+    private static final String DIRECTORIO = "reportes";
+
+    private final FileStorageProperties fileStorageProperties;
+
+    /**
+     * Ruta del archivo de un trabajo nuevo del tenant (crea el directorio si no existe)
+     */
+    public Path nuevo(Long tenantId, String trabajoId, String extension) {
+        Path directorio = raiz().resolve("tenant_" + tenantId);
+        try {
+            Files.createDirectories(directorio);
+        } catch (IOException e) {
+            throw new BusinessException("No se pudo crear el directorio de reportes", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+        return directorio.resolve(trabajoId + "." + extension);
+    }
+
+    public void eliminar(Path archivo) {
+        try {
+            Files.deleteIfExists(archivo);
+        } catch (IOException e) {
+            log.warn("No se pudo eliminar el reporte {}: {}", archivo, e.getMessage());
+        }
+    }
+
+    /**
+     * Elimina los archivos de todos los tenants modificados hace más de {@code ttl}
+     *
+     * @return archivos eliminados
+     */
+    public int eliminarVencidos(Duration ttl) {
+        Path raiz = raiz();
+        if (!Files.isDirectory(raiz)) {
+            return 0;
+        }
+        Instant limite = Instant.now().minus(ttl);
+        int eliminados = 0;
+        try (Stream<Path> archivos = Files.walk(raiz, 2)) {
+            for (Path archivo : archivos.filter(Files::isRegularFile).toList()) {
+                if (Files.getLastModifiedTime(archivo).toInstant().isBefore(limite) && Files.deleteIfExists(archivo)) {
+                    eliminados++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("No se pudieron revisar los reportes: {}", e.getMessage());
+        }
+        return eliminados;
+    }
+
+    private Path raiz() {
+        return Paths.get(fileStorageProperties.getUploadDir()).toAbsolutePath().normalize().resolve(DIRECTORIO);
+    }
+}
@@ -0,0 +1,120 @@
+package com.inmobiliaria.terrenos.infrastructure.resilience;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Circuit breaker mínimo para dependencias remotas (CV Engine).
+ *
+ * CERRADO: las llamadas pasan y se cuentan los fallos consecutivos.
+ * ABIERTO: tras {@code umbralFallos} fallos se rechaza de inmediato durante {@code tiempoAbierto}.
+ * SEMI_ABIERTO: se deja pasar una sola llamada de prueba; su resultado cierra o reabre el circuito.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum Estado { CERRADO, ABIERTO, SEMI_ABIERTO }
+
+    private final String nombre;
+    private final int umbralFallos;
+    private final Duration tiempoAbierto;
+    private final Clock clock;
+
+    private Estado estado = Estado.CERRADO;
+    private int fallosConsecutivos;
+    private Instant abiertoDesde;
+    private boolean pruebaEnCurso;
+
+    public CircuitBreaker(String nombre, int umbralFallos, Duration tiempoAbierto) {
+        this(nombre, umbralFallos, tiempoAbierto, Clock.systemUTC());
+    }
+
+    public CircuitBreaker(String nombre, int umbralFallos, Duration tiempoAbierto, Clock clock) {
+        if (umbralFallos < 1) {
+            throw new IllegalArgumentException("umbralFallos debe ser >= 1");
+        }
+        this.nombre = nombre;
+        this.umbralFallos = umbralFallos;
+        this.tiempoAbierto = tiempoAbierto;
+        this.clock = clock;
+    }
+
+    /**
+     * Indica si la llamada puede realizarse. Si devuelve true, el llamador DEBE
+     * reportar el resultado con {@link #registrarExito()} o {@link #registrarFallo()}.
+     */
+    public synchronized boolean permitirLlamada() {
+        return switch (estado) {
+            case CERRADO -> true;
+            case ABIERTO -> {
+                if (clock.instant().isBefore(abiertoDesde.plus(tiempoAbierto))) {
+                    yield false;
+                }
+                estado = Estado.SEMI_ABIERTO;
+                pruebaEnCurso = true;
+                log.info("Circuito '{}' en SEMI_ABIERTO: se permite una llamada de prueba", nombre);
+                yield true;
+            }
+            case SEMI_ABIERTO -> {
+                if (pruebaEnCurso) {
+                    yield false;
+                }
+                pruebaEnCurso = true;
+                yield true;
+            }
+        };
+    }
+
+    public synchronized void registrarExito() {
+        if (estado != Estado.CERRADO) {
+            log.info("Circuito '{}' CERRADO nuevamente", nombre);
+        }
+        estado = Estado.CERRADO;
+        fallosConsecutivos = 0;
+        pruebaEnCurso = false;
+    }
+
+    public synchronized void registrarFallo() {
+        pruebaEnCurso = false;
+        if (estado == Estado.SEMI_ABIERTO) {
+            abrir();
+            return;
+        }
+        fallosConsecutivos++;
+        if (estado == Estado.CERRADO && fallosConsecutivos >= umbralFallos) {
+            abrir();
+        }
+    }
+
+    /**
+     * La llamada se canceló antes de terminar: no dice nada del estado de la dependencia, así
+     * que no cuenta como éxito ni como fallo; solo libera la llamada de prueba si era esta.
+     */
+    public synchronized void registrarCancelacion() {
+        pruebaEnCurso = false;
+    }
+
+    /**
+     * Consulta sin efectos: true si actualmente se rechazarían llamadas nuevas.
+     */
+    public synchronized boolean estaAbierto() {
+        return estado == Estado.ABIERTO && clock.instant().isBefore(abiertoDesde.plus(tiempoAbierto));
+    }
+
+    public synchronized Estado getEstado() {
+        return estado;
+    }
+
+    private void abrir() {
+        estado = Estado.ABIERTO;
+        abiertoDesde = clock.instant();
+        log.warn("Circuito '{}' ABIERTO tras {} fallos consecutivos; reintento en {}",
+                nombre, fallosConsecutivos, tiempoAbierto);
+    }
+}
@@ -0,0 +1,64 @@
+package com.inmobiliaria.terrenos.infrastructure.resilience;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulkhead de concurrencia por tenant con un tope global.
+ * Evita que un tenant con muchos planos en cola acapare todas las llamadas a una dependencia.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+public class TenantBulkhead {
+
+    private final int maxPorTenant;
+    private final int maxGlobal;
+    private final Semaphore global;
+    private final Map<Long, Semaphore> porTenant = new ConcurrentHashMap<>();
+
+    public TenantBulkhead(int maxPorTenant, int maxGlobal) {
+        if (maxPorTenant < 1 || maxGlobal < 1) {
+            throw new IllegalArgumentException("Los límites del bulkhead deben ser >= 1");
+        }
+        this.maxPorTenant = maxPorTenant;
+        this.maxGlobal = maxGlobal;
+        this.global = new Semaphore(maxGlobal, true);
+    }
+
+    /**
+     * Intenta reservar un cupo para el tenant esperando como máximo {@code espera}.
+     *
+     * @return true si se obtuvo el cupo (debe liberarse con {@link #liberar(Long)})
+     */
+    public boolean adquirir(Long tenantId, Duration espera) throws InterruptedException {
+        long limite = System.nanoTime() + espera.toNanos();
+        Semaphore semaforoTenant = porTenant.computeIfAbsent(tenantId, id -> new Semaphore(maxPorTenant, true));
+
+        if (!semaforoTenant.tryAcquire(espera.toNanos(), TimeUnit.NANOSECONDS)) {
+            return false;
+        }
+        long restante = Math.max(0, limite - System.nanoTime());
+        if (!global.tryAcquire(restante, TimeUnit.NANOSECONDS)) {
+            semaforoTenant.release();
+            return false;
+        }
+        return true;
+    }
+
+    public void liberar(Long tenantId) {
+        global.release();
+        Semaphore semaforoTenant = porTenant.get(tenantId);
+        if (semaforoTenant != null) {
+            semaforoTenant.release();
+        }
+    }
+
+    /** Llamadas en curso en todos los tenants */
+    public int enUso() {
+        return maxGlobal - global.availablePermits();
+    }
+}
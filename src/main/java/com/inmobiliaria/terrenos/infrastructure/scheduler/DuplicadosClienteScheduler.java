@@ -0,0 +1,62 @@
+package com.inmobiliaria.terrenos.infrastructure.scheduler;
+
+import com.inmobiliaria.terrenos.application.service.ClienteDuplicadoService;
+import com.inmobiliaria.terrenos.domain.entity.Tenant;
+import com.inmobiliaria.terrenos.domain.repository.TenantRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduler que detecta clientes duplicados de cada empresa activa y deja las sugerencias
+ * para revisión
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DuplicadosClienteScheduler {
+
+    private final ClienteDuplicadoService clienteDuplicadoService;
+    private final TenantRepository tenantRepository;
+
+    @Value("${app.clientes.duplicados.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${app.clientes.duplicados.umbral:0.8}")
+    private double umbral;
+
+    @Value("${app.clientes.duplicados.max-bloque:1000}")
+    private int maxBloque;
+
+    /**
+     * Corre cada noche a las 3:30 AM (app.clientes.duplicados.cron). Cada empresa se procesa
+     * en su propia transacción: una que falla no detiene a las demás. Es idempotente, así que
+     * una ejecución repetida en otra instancia solo vuelve a escribir las mismas sugerencias.
+     */
+    @Scheduled(cron = "${app.clientes.duplicados.cron:0 30 3 * * *}")
+    public void detectarDuplicados() {
+        if (!habilitado) {
+            return;
+        }
+
+        for (Tenant tenant : tenantRepository.findByActivo(true)) {
+            long inicio = System.nanoTime();
+            try {
+                ClienteDuplicadoService.ResultadoDeteccion resultado =
+                        clienteDuplicadoService.detectar(tenant.getId(), umbral, maxBloque);
+                log.info("Duplicados de clientes tenant {}: {} clientes, {} bloques ({} omitidos), {} comparaciones, " +
+                                "{} sugerencias, {} obsoletas eliminadas en {} ms",
+                        tenant.getId(), resultado.clientes(), resultado.bloques(), resultado.bloquesOmitidos(),
+                        resultado.comparaciones(), resultado.sugerencias(), resultado.obsoletas(),
+                        (System.nanoTime() - inicio) / 1_000_000);
+            } catch (Exception e) {
+                log.error("Error al detectar clientes duplicados del tenant {}: {}", tenant.getId(), e.getMessage(), e);
+            }
+        }
+    }
+}
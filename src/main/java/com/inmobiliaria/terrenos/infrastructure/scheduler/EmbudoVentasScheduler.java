@@ -0,0 +1,57 @@
+package com.inmobiliaria.terrenos.infrastructure.scheduler;
+
+import com.inmobiliaria.terrenos.application.service.EmbudoVentasService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Scheduler que consolida los movimientos del embudo de ventas en los acumulados diarios
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EmbudoVentasScheduler {
+
+    private final EmbudoVentasService embudoVentasService;
+
+    @Value("${app.embudo.consolidacion.tamanio-lote:5000}")
+    private int tamanioLote;
+
+    @Value("${app.embudo.consolidacion.max-duracion:1m}")
+    private Duration maxDuracion;
+
+    /**
+     * Procesa bloques hasta que no quedan movimientos o se cumple max-duracion. Los reportes
+     * incluyen los movimientos pendientes, así que el intervalo solo determina cuántos se
+     * leen además de los acumulados.
+     */
+    @Scheduled(fixedDelayString = "${app.embudo.consolidacion.intervalo-ms:30000}")
+    public void consolidar() {
+        long inicio = System.nanoTime();
+        int total = 0;
+        int consolidados;
+        try {
+            do {
+                consolidados = embudoVentasService.consolidarBloque(tamanioLote);
+                total += consolidados;
+            } while (consolidados == tamanioLote && System.nanoTime() - inicio < maxDuracion.toNanos());
+        } catch (Exception e) {
+            log.error("Error al consolidar el embudo de ventas ({} movimientos ya consolidados): {}",
+                    total, e.getMessage(), e);
+            return;
+        }
+
+        if (total > 0) {
+            log.debug("Embudo de ventas: {} movimientos consolidados en {} ms",
+                    total, (System.nanoTime() - inicio) / 1_000_000);
+        }
+    }
+}
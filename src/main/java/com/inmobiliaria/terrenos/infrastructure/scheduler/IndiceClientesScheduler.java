@@ -0,0 +1,27 @@
+package com.inmobiliaria.terrenos.infrastructure.scheduler;
+
+import com.inmobiliaria.terrenos.infrastructure.busqueda.IndiceClientesCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduler que descarta los índices de búsqueda de clientes sin uso reciente
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Component
+@RequiredArgsConstructor
+public class IndiceClientesScheduler {
+
+    private final IndiceClientesCache indiceClientesCache;
+
+    /**
+     * Revisa los índices cada minuto (app.clientes.busqueda.indice.revision-ms)
+     */
+    @Scheduled(fixedDelayString = "${app.clientes.busqueda.indice.revision-ms:60000}")
+    public void descartarInactivos() {
+        indiceClientesCache.descartarInactivos();
+    }
+}
@@ -0,0 +1,45 @@
+package com.inmobiliaria.terrenos.infrastructure.scheduler;
+
+import com.inmobiliaria.terrenos.application.service.ReajustePreciosService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Scheduler que aplica las reglas de precio programadas cuya fecha ya llegó
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReajustePreciosScheduler {
+
+    private final ReajustePreciosService reajustePreciosService;
+
+    /**
+     * Revisa las reglas vencidas cada minuto (app.precios.reajuste.intervalo-ms).
+     * Cada regla se aplica en su propia transacción: una que falla no detiene a las demás.
+     */
+    @Scheduled(fixedDelayString = "${app.precios.reajuste.intervalo-ms:60000}")
+    public void aplicarReglasProgramadas() {
+        List<Long> vencidas = reajustePreciosService.buscarProgramadasVencidas();
+        if (vencidas.isEmpty()) {
+            return;
+        }
+        log.info("Aplicando {} reglas de precio programadas", vencidas.size());
+
+        for (Long reglaId : vencidas) {
+            try {
+                reajustePreciosService.aplicarProgramada(reglaId);
+            } catch (Exception e) {
+                log.error("Error al aplicar la regla de precio {}: {}", reglaId, e.getMessage(), e);
+                reajustePreciosService.marcarFallida(reglaId, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.inmobiliaria.terrenos.infrastructure.scheduler;
+
+import com.inmobiliaria.terrenos.infrastructure.importacion.ReportesImportacion;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduler que elimina los reportes de errores de importación vencidos
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReportesImportacionScheduler {
+
+    private final ReportesImportacion reportesImportacion;
+
+    /**
+     * Revisa los reportes cada hora (app.importacion.reportes.revision-ms)
+     */
+    @Scheduled(fixedDelayString = "${app.importacion.reportes.revision-ms:3600000}")
+    public void eliminarVencidos() {
+        int eliminados = reportesImportacion.eliminarVencidos();
+        if (eliminados > 0) {
+            log.info("Reportes de importación vencidos eliminados: {}", eliminados);
+        }
+    }
+}
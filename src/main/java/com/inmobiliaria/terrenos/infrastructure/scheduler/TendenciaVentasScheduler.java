@@ -0,0 +1,57 @@
+package com.inmobiliaria.terrenos.infrastructure.scheduler;
+
+import com.inmobiliaria.terrenos.application.service.TendenciaVentasService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Scheduler que consolida los movimientos de las tendencias de ventas en los acumulados por
+ * día, semana y mes
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TendenciaVentasScheduler {
+
+    private final TendenciaVentasService tendenciaVentasService;
+
+    @Value("${app.tendencias.consolidacion.tamanio-lote:5000}")
+    private int tamanioLote;
+
+    @Value("${app.tendencias.consolidacion.max-duracion:1m}")
+    private Duration maxDuracion;
+
+    /**
+     * Procesa bloques hasta que no quedan movimientos o se cumple max-duracion. Las
+     * tendencias también suman los movimientos pendientes, las gráficas no esperan a este proceso.
+     */
+    @Scheduled(fixedDelayString = "${app.tendencias.consolidacion.intervalo-ms:30000}")
+    public void consolidar() {
+        long inicio = System.nanoTime();
+        int total = 0;
+        int consolidados;
+        try {
+            do {
+                consolidados = tendenciaVentasService.consolidarBloque(tamanioLote);
+                total += consolidados;
+            } while (consolidados == tamanioLote && System.nanoTime() - inicio < maxDuracion.toNanos());
+        } catch (Exception e) {
+            log.error("Error al consolidar las tendencias de ventas ({} movimientos ya consolidados): {}",
+                    total, e.getMessage(), e);
+            return;
+        }
+
+        if (total > 0) {
+            log.debug("Tendencias de ventas: {} movimientos consolidados en {} ms",
+                    total, (System.nanoTime() - inicio) / 1_000_000);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.inmobiliaria.terrenos.infrastructure.scheduler;
+
+import com.inmobiliaria.terrenos.application.service.TrabajoReporteService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduler que elimina los trabajos de reporte vencidos y sus archivos
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TrabajosReporteScheduler {
+
+    private final TrabajoReporteService trabajoReporteService;
+
+    /**
+     * Revisa los trabajos cada 10 minutos (app.reportes.trabajos.revision-ms)
+     */
+    @Scheduled(fixedDelayString = "${app.reportes.trabajos.revision-ms:600000}")
+    public void eliminarVencidos() {
+        int eliminados = trabajoReporteService.eliminarVencidos();
+        if (eliminados > 0) {
+            log.info("Trabajos de reporte vencidos eliminados: {}", eliminados);
+        }
+    }
+}
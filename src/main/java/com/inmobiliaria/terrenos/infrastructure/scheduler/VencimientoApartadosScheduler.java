@@ -0,0 +1,55 @@
+package com.inmobiliaria.terrenos.infrastructure.scheduler;
+
+import com.inmobiliaria.terrenos.application.service.VencimientoApartadosService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Scheduler que vence los apartados cuyo plazo expiró y libera sus lotes
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class VencimientoApartadosScheduler {
+
+    private final VencimientoApartadosService vencimientoApartadosService;
+
+    @Value("${app.apartados.vencimiento.tamanio-lote:1000}")
+    private int tamanioLote;
+
+    @Value("${app.apartados.vencimiento.max-duracion:2m}")
+    private Duration maxDuracion;
+
+    /**
+     * Procesa bloques hasta que no quedan vencidos o se cumple max-duracion. Puede correr en
+     * varias instancias a la vez: cada bloque toma apartados que ninguna otra tiene bloqueados.
+     */
+    @Scheduled(fixedDelayString = "${app.apartados.vencimiento.intervalo-ms:300000}")
+    public void vencerApartados() {
+        long inicio = System.nanoTime();
+        int total = 0;
+        int vencidos;
+        try {
+            do {
+                vencidos = vencimientoApartadosService.vencerBloque(tamanioLote);
+                total += vencidos;
+            } while (vencidos == tamanioLote && System.nanoTime() - inicio < maxDuracion.toNanos());
+        } catch (Exception e) {
+            log.error("Error durante el vencimiento de apartados ({} ya vencidos): {}", total, e.getMessage(), e);
+            return;
+        }
+
+        if (total > 0) {
+            log.info("Vencimiento de apartados: {} apartados vencidos en {} ms",
+                    total, (System.nanoTime() - inicio) / 1_000_000);
+        }
+    }
+}
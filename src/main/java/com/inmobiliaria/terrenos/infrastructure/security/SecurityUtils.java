@@ -4,6 +4,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.util.Arrays;
 import java.util.Optional;
 
 /**
@@ -50,6 +51,22 @@ public class SecurityUtils {
         return Optional.empty();
     }
 
+    /**
+     * Verifica si el usuario autenticado tiene la autoridad (rol o permiso) indicada
+     */
+    public static boolean hasAuthority(String autoridad) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getAuthorities().stream()
+                .anyMatch(a -> autoridad.equals(a.getAuthority()));
+    }
+
+    /**
+     * Verifica si el usuario autenticado tiene alguna de las autoridades indicadas
+     */
+    public static boolean hasAnyAuthority(String... autoridades) {
+        return Arrays.stream(autoridades).anyMatch(SecurityUtils::hasAuthority);
+    }
+
     /**
      * Verifica si hay un usuario autenticado
      */
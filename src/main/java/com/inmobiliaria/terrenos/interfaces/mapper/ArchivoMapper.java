@@ -2,6 +2,7 @@ package com.inmobiliaria.terrenos.interfaces.mapper;
 
 import com.inmobiliaria.terrenos.application.dto.archivo.ArchivoResponse;
 import com.inmobiliaria.terrenos.domain.entity.Archivo;
+import com.inmobiliaria.terrenos.domain.repository.proyeccion.ArchivoListado;
 import org.mapstruct.*;
 
 import java.util.List;
@@ -25,4 +26,9 @@ public interface ArchivoMapper {
     ArchivoResponse toResponse(Archivo archivo);
 
     List<ArchivoResponse> toResponseList(List<Archivo> archivos);
+
+    @Mapping(target = "urlDescarga", expression = "java(\"/api/v1/archivos/\" + listado.id() + \"/download\")")
+    ArchivoResponse toResponse(ArchivoListado listado);
+
+    List<ArchivoResponse> listadoToResponseList(List<ArchivoListado> listado);
 }
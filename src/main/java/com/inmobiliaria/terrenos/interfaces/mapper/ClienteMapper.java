@@ -4,6 +4,7 @@ import com.inmobiliaria.terrenos.application.dto.cliente.ClienteResponse;
 import com.inmobiliaria.terrenos.application.dto.cliente.CreateClienteRequest;
 import com.inmobiliaria.terrenos.application.dto.cliente.UpdateClienteRequest;
 import com.inmobiliaria.terrenos.domain.entity.Cliente;
+import com.inmobiliaria.terrenos.domain.repository.proyeccion.ClienteListado;
 import org.mapstruct.*;
 
 import java.util.List;
@@ -49,6 +50,16 @@ public interface ClienteMapper {
      */
     List<ClienteResponse> toResponseList(List<Cliente> clientes);
 
+    /**
+     * Convierte una fila del listado a ClienteResponse (sin notas ni preferencias)
+     */
+    @Mapping(target = "nombreCompleto", expression = "java(listado.nombreCompleto())")
+    @Mapping(target = "origenDescripcion", expression = "java(listado.origen() != null ? listado.origen().getDescripcion() : null)")
+    @Mapping(target = "estadoClienteDescripcion", expression = "java(listado.estadoCliente() != null ? listado.estadoCliente().getDescripcion() : null)")
+    ClienteResponse toResponse(ClienteListado listado);
+
+    List<ClienteResponse> listadoToResponseList(List<ClienteListado> listado);
+
     /**
      * Actualiza una entidad Cliente existente con datos de UpdateClienteRequest
      * Solo actualiza los campos no nulos del request
@@ -3,6 +3,7 @@ package com.inmobiliaria.terrenos.interfaces.mapper;
 import com.inmobiliaria.terrenos.application.dto.cotizacion.CotizacionResponse;
 import com.inmobiliaria.terrenos.application.dto.cotizacion.CreateCotizacionRequest;
 import com.inmobiliaria.terrenos.domain.entity.Cotizacion;
+import com.inmobiliaria.terrenos.domain.repository.proyeccion.CotizacionListado;
 import org.mapstruct.*;
 
 import java.util.List;
@@ -35,4 +36,8 @@ public interface CotizacionMapper {
     CotizacionResponse toResponse(Cotizacion cotizacion);
 
     List<CotizacionResponse> toResponseList(List<Cotizacion> cotizaciones);
+
+    CotizacionResponse toResponse(CotizacionListado listado);
+
+    List<CotizacionResponse> listadoToResponseList(List<CotizacionListado> listado);
 }
@@ -0,0 +1,64 @@
+package com.inmobiliaria.terrenos.interfaces.mapper;
+
+import com.inmobiliaria.terrenos.application.dto.descuento.DescuentoRequest;
+import com.inmobiliaria.terrenos.application.dto.descuento.DescuentoResponse;
+import com.inmobiliaria.terrenos.domain.entity.Descuento;
+import org.mapstruct.BeanMapping;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.NullValuePropertyMappingStrategy;
+import org.mapstruct.ReportingPolicy;
+
+import java.util.List;
+
+/**
+ * Mapper de MapStruct para la entidad Descuento
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Mapper(
+        componentModel = "spring",
+        nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE,
+        unmappedTargetPolicy = ReportingPolicy.IGNORE
+)
+public interface DescuentoMapper {
+
+    /**
+     * Convierte DescuentoRequest a entidad Descuento
+     */
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "tenantId", ignore = true)
+    @Mapping(target = "activo", ignore = true)
+    @Mapping(target = "usosActuales", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "createdBy", ignore = true)
+    @Mapping(target = "updatedBy", ignore = true)
+    Descuento toEntity(DescuentoRequest request);
+
+    /**
+     * Convierte entidad Descuento a DescuentoResponse
+     */
+    DescuentoResponse toResponse(Descuento descuento);
+
+    /**
+     * Convierte lista de entidades a lista de respuestas
+     */
+    List<DescuentoResponse> toResponseList(List<Descuento> descuentos);
+
+    /**
+     * Reemplaza la configuración del descuento (PUT): los campos nulos del request quedan en null
+     */
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.SET_TO_NULL)
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "tenantId", ignore = true)
+    @Mapping(target = "activo", ignore = true)
+    @Mapping(target = "usosActuales", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "createdBy", ignore = true)
+    @Mapping(target = "updatedBy", ignore = true)
+    void updateEntityFromRequest(DescuentoRequest request, @MappingTarget Descuento descuento);
+}
@@ -0,0 +1,52 @@
+package com.inmobiliaria.terrenos.interfaces.mapper;
+
+import com.inmobiliaria.terrenos.application.dto.precio.ReglaPrecioRequest;
+import com.inmobiliaria.terrenos.application.dto.precio.ReglaPrecioResponse;
+import com.inmobiliaria.terrenos.domain.entity.ReglaPrecio;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.NullValuePropertyMappingStrategy;
+import org.mapstruct.ReportingPolicy;
+
+import java.util.List;
+
+/**
+ * Mapper de MapStruct para la entidad ReglaPrecio
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@Mapper(
+        componentModel = "spring",
+        nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE,
+        unmappedTargetPolicy = ReportingPolicy.IGNORE
+)
+public interface ReglaPrecioMapper {
+
+    /**
+     * Convierte ReglaPrecioRequest a entidad ReglaPrecio (sin estado ni resultados)
+     */
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "tenantId", ignore = true)
+    @Mapping(target = "estado", ignore = true)
+    @Mapping(target = "fechaAplicacion", ignore = true)
+    @Mapping(target = "lotesAfectados", ignore = true)
+    @Mapping(target = "totalAnterior", ignore = true)
+    @Mapping(target = "totalNuevo", ignore = true)
+    @Mapping(target = "error", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "createdBy", ignore = true)
+    @Mapping(target = "updatedBy", ignore = true)
+    ReglaPrecio toEntity(ReglaPrecioRequest request);
+
+    /**
+     * Convierte entidad ReglaPrecio a ReglaPrecioResponse
+     */
+    ReglaPrecioResponse toResponse(ReglaPrecio regla);
+
+    /**
+     * Convierte lista de entidades a lista de respuestas
+     */
+    List<ReglaPrecioResponse> toResponseList(List<ReglaPrecio> reglas);
+}
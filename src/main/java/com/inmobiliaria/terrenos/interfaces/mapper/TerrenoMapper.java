@@ -7,6 +7,7 @@ import com.inmobiliaria.terrenos.application.dto.terreno.CreateTerrenoRequest;
 import com.inmobiliaria.terrenos.application.dto.terreno.TerrenoResponse;
 import com.inmobiliaria.terrenos.application.dto.terreno.UpdateTerrenoRequest;
 import com.inmobiliaria.terrenos.domain.entity.Terreno;
+import com.inmobiliaria.terrenos.domain.repository.proyeccion.TerrenoListado;
 import org.mapstruct.*;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -52,6 +53,13 @@ public abstract class TerrenoMapper {
      */
     public abstract List<TerrenoResponse> toResponseList(List<Terreno> terrenos);
 
+    /**
+     * Convierte una fila del listado a TerrenoResponse (sin características ni observaciones)
+     */
+    public abstract TerrenoResponse toResponse(TerrenoListado listado);
+
+    public abstract List<TerrenoResponse> listadoToResponseList(List<TerrenoListado> listado);
+
     /**
      * Actualiza una entidad Terreno existente con datos de UpdateTerrenoRequest
      * Solo actualiza los campos no nulos del request
@@ -3,6 +3,7 @@ package com.inmobiliaria.terrenos.interfaces.mapper;
 import com.inmobiliaria.terrenos.application.dto.venta.CreateVentaRequest;
 import com.inmobiliaria.terrenos.application.dto.venta.VentaResponse;
 import com.inmobiliaria.terrenos.domain.entity.Venta;
+import com.inmobiliaria.terrenos.domain.repository.proyeccion.VentaListado;
 import org.mapstruct.*;
 
 import java.util.List;
@@ -41,4 +42,9 @@ public interface VentaMapper {
     VentaResponse toResponse(Venta venta);
 
     List<VentaResponse> toResponseList(List<Venta> ventas);
+
+    @Mapping(target = "usuarioNombre", expression = "java(listado.usuarioNombre() != null ? listado.usuarioNombre() + \" \" + listado.usuarioApellido() : null)")
+    VentaResponse toResponse(VentaListado listado);
+
+    List<VentaResponse> listadoToResponseList(List<VentaListado> listado);
 }
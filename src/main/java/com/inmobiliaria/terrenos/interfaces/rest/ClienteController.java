@@ -1,9 +1,20 @@
 package com.inmobiliaria.terrenos.interfaces.rest;
 
+import com.inmobiliaria.terrenos.application.dto.apartado.ApartadoResponse;
 import com.inmobiliaria.terrenos.application.dto.cliente.ClienteHistorialResponse;
 import com.inmobiliaria.terrenos.application.dto.cliente.ClienteResponse;
+import com.inmobiliaria.terrenos.application.dto.cliente.ClienteSugerenciaResponse;
 import com.inmobiliaria.terrenos.application.dto.cliente.CreateClienteRequest;
+import com.inmobiliaria.terrenos.application.dto.cliente.DuplicadoClienteResponse;
+import com.inmobiliaria.terrenos.application.dto.cliente.FusionClientesRequest;
+import com.inmobiliaria.terrenos.application.dto.cliente.FusionClientesResponse;
+import com.inmobiliaria.terrenos.application.dto.cliente.PaginaHistorialResponse;
+import com.inmobiliaria.terrenos.application.dto.cliente.ResultadoImportacionClientesResponse;
 import com.inmobiliaria.terrenos.application.dto.cliente.UpdateClienteRequest;
+import com.inmobiliaria.terrenos.application.dto.cotizacion.CotizacionResponse;
+import com.inmobiliaria.terrenos.application.dto.venta.VentaResponse;
+import com.inmobiliaria.terrenos.application.service.ClienteDuplicadoService;
+import com.inmobiliaria.terrenos.application.service.ClienteImportacionService;
 import com.inmobiliaria.terrenos.application.service.ClienteService;
 import com.inmobiliaria.terrenos.domain.enums.EstadoCliente;
 import io.swagger.v3.oas.annotations.Operation;
@@ -18,11 +29,17 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 /**
@@ -40,6 +57,8 @@ import java.util.List;
 public class ClienteController {
 
     private final ClienteService clienteService;
+    private final ClienteDuplicadoService clienteDuplicadoService;
+    private final ClienteImportacionService clienteImportacionService;
 
     /**
      * Lista clientes con filtros opcionales
@@ -66,7 +85,7 @@ public class ClienteController {
             @Parameter(description = "Filtrar por estado del cliente")
             @RequestParam(required = false) EstadoCliente estado,
 
-            @Parameter(description = "Buscar por nombre (búsqueda parcial)")
+            @Parameter(description = "Buscar por nombre, email, teléfono o RFC (búsqueda parcial, sin acentos)")
             @RequestParam(required = false) String nombre,
 
             @Parameter(description = "Solo clientes activos (no inactivos)")
@@ -89,6 +108,41 @@ public class ClienteController {
         return ResponseEntity.ok(clientes);
     }
 
+    /**
+     * Autocompletado de clientes
+     */
+    @GetMapping("/buscar")
+    @PreAuthorize("hasAnyAuthority('CLIENTE_VER', 'ADMIN')")
+    @Operation(
+            summary = "Autocompletar clientes",
+            description = "Busca clientes por nombre, email, teléfono o RFC sin distinguir mayúsculas ni acentos. " +
+                    "Primero los que empiezan con el texto, luego los que lo contienen y al final las " +
+                    "coincidencias aproximadas. Textos de menos de 2 caracteres no devuelven resultados."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Clientes ordenados por relevancia",
+                    content = @Content(
+                            mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = ClienteSugerenciaResponse.class))
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Límite fuera de rango"),
+            @ApiResponse(responseCode = "401", description = "No autenticado"),
+            @ApiResponse(responseCode = "403", description = "Sin permisos")
+    })
+    public ResponseEntity<List<ClienteSugerenciaResponse>> autocompletarClientes(
+            @Parameter(description = "Texto escrito por el usuario", required = true)
+            @RequestParam String q,
+
+            @Parameter(description = "Número de resultados (1 a 50, por omisión 10)")
+            @RequestParam(required = false) Integer limite
+    ) {
+        log.debug("GET /api/v1/clientes/buscar - q: {}, limite: {}", q, limite);
+        return ResponseEntity.ok(clienteService.autocompletarClientes(q, limite));
+    }
+
     /**
      * Obtiene un cliente por ID
      */
@@ -127,7 +181,8 @@ public class ClienteController {
     @PreAuthorize("hasAnyAuthority('CLIENTE_VER', 'ADMIN')")
     @Operation(
             summary = "Obtener historial del cliente",
-            description = "Obtiene el historial completo de transacciones del cliente (cotizaciones, apartados, ventas)"
+            description = "Obtiene las estadísticas de todas las transacciones del cliente y la primera página de " +
+                    "cotizaciones, apartados y ventas; las siguientes se piden con los cursores de la respuesta"
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -151,6 +206,96 @@ public class ClienteController {
         return ResponseEntity.ok(historial);
     }
 
+    /**
+     * Página de cotizaciones del cliente
+     */
+    @GetMapping("/{id}/cotizaciones")
+    @PreAuthorize("hasAnyAuthority('CLIENTE_VER', 'ADMIN')")
+    @Operation(
+            summary = "Listar cotizaciones del cliente",
+            description = "Cotizaciones del cliente de la más reciente a la más antigua. Para la página siguiente se envía el siguienteCursor de la respuesta anterior."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página obtenida exitosamente"),
+            @ApiResponse(responseCode = "400", description = "Cursor o límite inválido"),
+            @ApiResponse(responseCode = "404", description = "Cliente no encontrado"),
+            @ApiResponse(responseCode = "401", description = "No autenticado"),
+            @ApiResponse(responseCode = "403", description = "Sin permisos")
+    })
+    public ResponseEntity<PaginaHistorialResponse<CotizacionResponse>> listarCotizacionesCliente(
+            @Parameter(description = "ID del cliente", required = true)
+            @PathVariable Long id,
+
+            @Parameter(description = "Cursor de la página anterior")
+            @RequestParam(required = false) String cursor,
+
+            @Parameter(description = "Número de resultados (1 a 100, por omisión 20)")
+            @RequestParam(required = false) Integer limite
+    ) {
+        log.debug("GET /api/v1/clientes/{}/cotizaciones - limite: {}", id, limite);
+        return ResponseEntity.ok(clienteService.listarCotizacionesCliente(id, cursor, limite));
+    }
+
+    /**
+     * Página de apartados del cliente
+     */
+    @GetMapping("/{id}/apartados")
+    @PreAuthorize("hasAnyAuthority('CLIENTE_VER', 'ADMIN')")
+    @Operation(
+            summary = "Listar apartados del cliente",
+            description = "Apartados del cliente del más reciente al más antiguo. Para la página siguiente se envía el siguienteCursor de la respuesta anterior."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página obtenida exitosamente"),
+            @ApiResponse(responseCode = "400", description = "Cursor o límite inválido"),
+            @ApiResponse(responseCode = "404", description = "Cliente no encontrado"),
+            @ApiResponse(responseCode = "401", description = "No autenticado"),
+            @ApiResponse(responseCode = "403", description = "Sin permisos")
+    })
+    public ResponseEntity<PaginaHistorialResponse<ApartadoResponse>> listarApartadosCliente(
+            @Parameter(description = "ID del cliente", required = true)
+            @PathVariable Long id,
+
+            @Parameter(description = "Cursor de la página anterior")
+            @RequestParam(required = false) String cursor,
+
+            @Parameter(description = "Número de resultados (1 a 100, por omisión 20)")
+            @RequestParam(required = false) Integer limite
+    ) {
+        log.debug("GET /api/v1/clientes/{}/apartados - limite: {}", id, limite);
+        return ResponseEntity.ok(clienteService.listarApartadosCliente(id, cursor, limite));
+    }
+
+    /**
+     * Página de ventas del cliente
+     */
+    @GetMapping("/{id}/ventas")
+    @PreAuthorize("hasAnyAuthority('CLIENTE_VER', 'ADMIN')")
+    @Operation(
+            summary = "Listar ventas del cliente",
+            description = "Ventas del cliente de la más reciente a la más antigua. Para la página siguiente se envía el siguienteCursor de la respuesta anterior."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página obtenida exitosamente"),
+            @ApiResponse(responseCode = "400", description = "Cursor o límite inválido"),
+            @ApiResponse(responseCode = "404", description = "Cliente no encontrado"),
+            @ApiResponse(responseCode = "401", description = "No autenticado"),
+            @ApiResponse(responseCode = "403", description = "Sin permisos")
+    })
+    public ResponseEntity<PaginaHistorialResponse<VentaResponse>> listarVentasCliente(
+            @Parameter(description = "ID del cliente", required = true)
+            @PathVariable Long id,
+
+            @Parameter(description = "Cursor de la página anterior")
+            @RequestParam(required = false) String cursor,
+
+            @Parameter(description = "Número de resultados (1 a 100, por omisión 20)")
+            @RequestParam(required = false) Integer limite
+    ) {
+        log.debug("GET /api/v1/clientes/{}/ventas - limite: {}", id, limite);
+        return ResponseEntity.ok(clienteService.listarVentasCliente(id, cursor, limite));
+    }
+
     /**
      * Crea un nuevo cliente
      */
@@ -182,6 +327,77 @@ public class ClienteController {
         return ResponseEntity.status(HttpStatus.CREATED).body(cliente);
     }
 
+    /**
+     * Importa clientes desde CSV o XLSX
+     */
+    @PostMapping(value = "/importar", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasAnyAuthority('CLIENTE_CREAR', 'ADMIN')")
+    @Operation(
+            summary = "Importar clientes",
+            description = "Importa clientes desde un archivo CSV (coma, punto y coma o tabulador) o XLSX (primera hoja). " +
+                    "La primera fila es el encabezado; columnas obligatorias: nombre, apellido, telefono. " +
+                    "Opcionales: email, telefono_secundario, direccion, ciudad, estado, codigo_postal, pais, rfc, curp, " +
+                    "fecha_nacimiento (AAAA-MM-DD o DD/MM/AAAA), origen, estado_cliente (PROSPECTO, INTERESADO o " +
+                    "INACTIVO), notas. Una fila con el email o RFC de un cliente existente se reporta como duplicada, " +
+                    "o lo actualiza con actualizarExistentes=true. Las filas con errores se omiten y se reportan; " +
+                    "el reporte completo se descarga con reporteErroresId. Con soloValidar=true no se escribe nada"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Resultado de la importación con los errores por fila",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ResultadoImportacionClientesResponse.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Archivo vacío, con formato no soportado o sin columnas obligatorias"),
+            @ApiResponse(responseCode = "401", description = "No autenticado"),
+            @ApiResponse(responseCode = "403", description = "Sin permisos")
+    })
+    public ResponseEntity<ResultadoImportacionClientesResponse> importarClientes(
+            @Parameter(description = "Archivo CSV o XLSX", required = true)
+            @RequestParam("file") MultipartFile file,
+
+            @Parameter(description = "Solo validar el archivo, sin escribir")
+            @RequestParam(required = false, defaultValue = "false") boolean soloValidar,
+
+            @Parameter(description = "Actualizar los clientes existentes con el mismo email o RFC")
+            @RequestParam(required = false, defaultValue = "false") boolean actualizarExistentes
+    ) {
+        log.info("POST /api/v1/clientes/importar - archivo: {}, soloValidar: {}, actualizarExistentes: {}",
+                file.getOriginalFilename(), soloValidar, actualizarExistentes);
+        return ResponseEntity.ok(clienteImportacionService.importar(file, soloValidar, actualizarExistentes));
+    }
+
+    /**
+     * Descarga el reporte de errores de una importación
+     */
+    @GetMapping("/importar/reportes/{reporteId}")
+    @PreAuthorize("hasAnyAuthority('CLIENTE_CREAR', 'ADMIN')")
+    @Operation(
+            summary = "Descargar reporte de errores de importación",
+            description = "CSV con las filas rechazadas del archivo original, su número de fila y los errores. " +
+                    "Puede corregirse y volver a importarse. Los reportes vencen a las 24 horas"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reporte descargado"),
+            @ApiResponse(responseCode = "404", description = "Reporte no encontrado o vencido"),
+            @ApiResponse(responseCode = "401", description = "No autenticado"),
+            @ApiResponse(responseCode = "403", description = "Sin permisos")
+    })
+    public ResponseEntity<Resource> descargarReporteImportacion(
+            @Parameter(description = "ID del reporte (reporteErroresId)", required = true)
+            @PathVariable String reporteId
+    ) {
+        log.info("GET /api/v1/clientes/importar/reportes/{}", reporteId);
+        Resource reporte = new FileSystemResource(clienteImportacionService.obtenerReporteErrores(reporteId));
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"errores-importacion-clientes.csv\"")
+                .body(reporte);
+    }
+
     /**
      * Actualiza un cliente existente
      */
@@ -240,4 +456,91 @@ public class ClienteController {
         clienteService.eliminarCliente(id);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Sugerencias de clientes duplicados pendientes de revisión
+     */
+    @GetMapping("/duplicados")
+    @PreAuthorize("hasAnyAuthority('CLIENTE_VER', 'ADMIN')")
+    @Operation(
+            summary = "Listar clientes duplicados",
+            description = "Pares de clientes probablemente duplicados que encontró la detección nocturna, del más al menos probable"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Sugerencias obtenidas exitosamente",
+                    content = @Content(
+                            mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = DuplicadoClienteResponse.class))
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Límite inválido"),
+            @ApiResponse(responseCode = "401", description = "No autenticado"),
+            @ApiResponse(responseCode = "403", description = "Sin permisos")
+    })
+    public ResponseEntity<List<DuplicadoClienteResponse>> listarDuplicados(
+            @Parameter(description = "Número de sugerencias (1 a 200, por omisión 50)")
+            @RequestParam(required = false) Integer limite
+    ) {
+        log.debug("GET /api/v1/clientes/duplicados - limite: {}", limite);
+        return ResponseEntity.ok(clienteDuplicadoService.listarSugerencias(limite));
+    }
+
+    /**
+     * Descarta una sugerencia de duplicado (son clientes distintos)
+     */
+    @PostMapping("/duplicados/{sugerenciaId}/descartar")
+    @PreAuthorize("hasAnyAuthority('CLIENTE_EDITAR', 'ADMIN')")
+    @Operation(
+            summary = "Descartar duplicado",
+            description = "Marca la sugerencia como falsa coincidencia; la detección no vuelve a sugerir el par"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Sugerencia descartada"),
+            @ApiResponse(responseCode = "404", description = "Sugerencia pendiente no encontrada"),
+            @ApiResponse(responseCode = "401", description = "No autenticado"),
+            @ApiResponse(responseCode = "403", description = "Sin permisos")
+    })
+    public ResponseEntity<Void> descartarDuplicado(
+            @Parameter(description = "ID de la sugerencia", required = true)
+            @PathVariable Long sugerenciaId
+    ) {
+        log.info("POST /api/v1/clientes/duplicados/{}/descartar", sugerenciaId);
+        clienteDuplicadoService.descartarSugerencia(sugerenciaId);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Fusiona un cliente duplicado en este
+     */
+    @PostMapping("/{id}/fusionar")
+    @PreAuthorize("hasAnyAuthority('CLIENTE_ELIMINAR', 'ADMIN')")
+    @Operation(
+            summary = "Fusionar clientes",
+            description = "Pasa las cotizaciones, apartados, ventas, planes de pago y pagos del duplicado a este cliente, " +
+                    "completa los datos que le falten y elimina el duplicado (soft delete)"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Clientes fusionados exitosamente",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = FusionClientesResponse.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Datos inválidos o mismo cliente"),
+            @ApiResponse(responseCode = "404", description = "Cliente no encontrado"),
+            @ApiResponse(responseCode = "401", description = "No autenticado"),
+            @ApiResponse(responseCode = "403", description = "Sin permisos")
+    })
+    public ResponseEntity<FusionClientesResponse> fusionarClientes(
+            @Parameter(description = "ID del cliente que se conserva", required = true)
+            @PathVariable Long id,
+            @Valid @RequestBody FusionClientesRequest request
+    ) {
+        log.info("POST /api/v1/clientes/{}/fusionar - duplicado: {}", id, request.getDuplicadoId());
+        return ResponseEntity.ok(clienteDuplicadoService.fusionar(id, request.getDuplicadoId()));
+    }
 }
@@ -0,0 +1,154 @@
+package com.inmobiliaria.terrenos.interfaces.rest;
+
+import com.inmobiliaria.terrenos.application.dto.descuento.DescuentoRequest;
+import com.inmobiliaria.terrenos.application.dto.descuento.DescuentoResponse;
+import com.inmobiliaria.terrenos.application.dto.descuento.PrecioLoteResponse;
+import com.inmobiliaria.terrenos.application.dto.descuento.PreciosProyectoResponse;
+import com.inmobiliaria.terrenos.application.service.DescuentoService;
+import com.inmobiliaria.terrenos.application.service.PrecioLoteService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Controlador REST para descuentos y cotización de precios de lotes
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@RestController
+@RequestMapping("/api/v1/descuentos")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Descuentos", description = "Descuentos por proyecto, fase o lote y precio con descuento de los lotes")
+@SecurityRequirement(name = "bearerAuth")
+public class DescuentoController {
+
+    private final DescuentoService descuentoService;
+    private final PrecioLoteService precioLoteService;
+
+    @GetMapping
+    @PreAuthorize("hasAnyAuthority('CONFIG_PRECIOS', 'ADMIN')")
+    @Operation(summary = "Listar descuentos", description = "Descuentos de la empresa, opcionalmente de un proyecto")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lista de descuentos obtenida",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = DescuentoResponse.class)))),
+            @ApiResponse(responseCode = "401", description = "No autenticado"),
+            @ApiResponse(responseCode = "403", description = "Sin permisos")
+    })
+    public ResponseEntity<List<DescuentoResponse>> listarDescuentos(@RequestParam(required = false) Long proyectoId) {
+        log.info("GET /api/v1/descuentos - proyectoId: {}", proyectoId);
+        return ResponseEntity.ok(descuentoService.listarDescuentos(proyectoId));
+    }
+
+    @GetMapping("/{id}")
+    @PreAuthorize("hasAnyAuthority('CONFIG_PRECIOS', 'ADMIN')")
+    @Operation(summary = "Obtener descuento por ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Descuento encontrado",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = DescuentoResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Descuento no encontrado")
+    })
+    public ResponseEntity<DescuentoResponse> obtenerDescuento(@PathVariable Long id) {
+        log.info("GET /api/v1/descuentos/{}", id);
+        return ResponseEntity.ok(descuentoService.obtenerDescuento(id));
+    }
+
+    @PostMapping
+    @PreAuthorize("hasAnyAuthority('CONFIG_PRECIOS', 'ADMIN')")
+    @Operation(summary = "Crear descuento")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Descuento creado",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = DescuentoResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Datos inválidos"),
+            @ApiResponse(responseCode = "409", description = "Código duplicado")
+    })
+    public ResponseEntity<DescuentoResponse> crearDescuento(@Valid @RequestBody DescuentoRequest request) {
+        log.info("POST /api/v1/descuentos - Nombre: {}, tipo: {}, valor: {}",
+                request.getNombre(), request.getTipo(), request.getValor());
+        return ResponseEntity.status(HttpStatus.CREATED).body(descuentoService.crearDescuento(request));
+    }
+
+    @PutMapping("/{id}")
+    @PreAuthorize("hasAnyAuthority('CONFIG_PRECIOS', 'ADMIN')")
+    @Operation(summary = "Actualizar descuento")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Descuento actualizado",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = DescuentoResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Descuento no encontrado")
+    })
+    public ResponseEntity<DescuentoResponse> actualizarDescuento(
+            @PathVariable Long id,
+            @Valid @RequestBody DescuentoRequest request) {
+        log.info("PUT /api/v1/descuentos/{}", id);
+        return ResponseEntity.ok(descuentoService.actualizarDescuento(id, request));
+    }
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasAnyAuthority('CONFIG_PRECIOS', 'ADMIN')")
+    @Operation(summary = "Desactivar descuento", description = "El descuento deja de aplicarse; no se borra")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Descuento desactivado"),
+            @ApiResponse(responseCode = "404", description = "Descuento no encontrado")
+    })
+    public ResponseEntity<Void> desactivarDescuento(@PathVariable Long id) {
+        log.info("DELETE /api/v1/descuentos/{}", id);
+        descuentoService.desactivarDescuento(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/precio/terreno/{terrenoId}")
+    @PreAuthorize("hasAnyAuthority('COTIZACION_CREAR', 'COTIZACION_VER', 'CONFIG_PRECIOS', 'ADMIN')")
+    @Operation(summary = "Cotizar precio de un lote",
+            description = "Precio de lista del lote y el mejor descuento vigente hoy (los descuentos no se acumulan)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Precio del lote",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = PrecioLoteResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Terreno no encontrado")
+    })
+    public ResponseEntity<PrecioLoteResponse> cotizarLote(
+            @PathVariable Long terrenoId,
+            @Parameter(description = "Código de descuento presentado por el cliente")
+            @RequestParam(required = false) String codigo) {
+        log.info("GET /api/v1/descuentos/precio/terreno/{} - codigo: {}", terrenoId, codigo);
+        return ResponseEntity.ok(precioLoteService.cotizarLote(terrenoId, codigo));
+    }
+
+    @GetMapping("/precio/proyecto/{proyectoId}")
+    @PreAuthorize("hasAnyAuthority('COTIZACION_CREAR', 'COTIZACION_VER', 'CONFIG_PRECIOS', 'ADMIN')")
+    @Operation(summary = "Cotizar lotes disponibles de un proyecto",
+            description = "Precio con descuento de cada lote disponible del proyecto y los totales")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Precios de los lotes",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = PreciosProyectoResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Proyecto no encontrado")
+    })
+    public ResponseEntity<PreciosProyectoResponse> cotizarProyecto(
+            @PathVariable Long proyectoId,
+            @Parameter(description = "Código de descuento presentado por el cliente")
+            @RequestParam(required = false) String codigo) {
+        log.info("GET /api/v1/descuentos/precio/proyecto/{} - codigo: {}", proyectoId, codigo);
+        return ResponseEntity.ok(precioLoteService.cotizarProyecto(proyectoId, codigo));
+    }
+}
@@ -0,0 +1,180 @@
+package com.inmobiliaria.terrenos.interfaces.rest;
+
+import com.inmobiliaria.terrenos.application.service.ExportacionService;
+import com.inmobiliaria.terrenos.domain.enums.FormatoExportacion;
+import com.inmobiliaria.terrenos.domain.enums.TipoExportacion;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Controlador REST para exportar datos a CSV o XLSX. El archivo se descarga en streaming
+ * mientras se lee de la base de datos. Cada exportación exige las autoridades de su
+ * TipoExportacion, las mismas que un trabajo de reporte con esos datos.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@RestController
+@RequestMapping("/api/v1/exportaciones")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Exportaciones", description = "Exportación de datos a CSV y Excel")
+@SecurityRequirement(name = "bearerAuth")
+public class ExportacionController {
+
+    private final ExportacionService exportacionService;
+
+    @GetMapping("/ventas")
+    @PreAuthorize("hasAnyAuthority(T(com.inmobiliaria.terrenos.domain.enums.TipoExportacion).VENTAS.autoridades)")
+    @Operation(summary = "Exportar ventas", description = "Ventas por fecha de venta, con proyecto, lote y comisión")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Archivo generado"),
+            @ApiResponse(responseCode = "400", description = "Periodo inválido")
+    })
+    public void exportarVentas(
+            @Parameter(description = "CSV o XLSX")
+            @RequestParam(defaultValue = "CSV") FormatoExportacion formato,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(required = false) Long proyectoId,
+            HttpServletResponse response
+    ) throws IOException {
+        exportar(TipoExportacion.VENTAS, formato, desde, hasta, proyectoId, response);
+    }
+
+    @GetMapping("/pagos")
+    @PreAuthorize("hasAnyAuthority(T(com.inmobiliaria.terrenos.domain.enums.TipoExportacion).PAGOS.autoridades)")
+    @Operation(summary = "Exportar pagos", description = "Pagos por fecha de pago, con su distribución a capital, interés y mora")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Archivo generado"),
+            @ApiResponse(responseCode = "400", description = "Periodo inválido")
+    })
+    public void exportarPagos(
+            @Parameter(description = "CSV o XLSX")
+            @RequestParam(defaultValue = "CSV") FormatoExportacion formato,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(required = false) Long proyectoId,
+            HttpServletResponse response
+    ) throws IOException {
+        exportar(TipoExportacion.PAGOS, formato, desde, hasta, proyectoId, response);
+    }
+
+    @GetMapping("/planes-pago")
+    @PreAuthorize("hasAnyAuthority(T(com.inmobiliaria.terrenos.domain.enums.TipoExportacion).PLANES_PAGO.autoridades)")
+    @Operation(summary = "Exportar planes de pago", description = "Planes de pago por fecha de inicio")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Archivo generado"),
+            @ApiResponse(responseCode = "400", description = "Periodo inválido")
+    })
+    public void exportarPlanesPago(
+            @Parameter(description = "CSV o XLSX")
+            @RequestParam(defaultValue = "CSV") FormatoExportacion formato,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(required = false) Long proyectoId,
+            HttpServletResponse response
+    ) throws IOException {
+        exportar(TipoExportacion.PLANES_PAGO, formato, desde, hasta, proyectoId, response);
+    }
+
+    @GetMapping("/amortizaciones")
+    @PreAuthorize("hasAnyAuthority(T(com.inmobiliaria.terrenos.domain.enums.TipoExportacion).AMORTIZACIONES.autoridades)")
+    @Operation(summary = "Exportar amortizaciones", description = "Cuotas por fecha de vencimiento, con lo pagado y la mora")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Archivo generado"),
+            @ApiResponse(responseCode = "400", description = "Periodo inválido")
+    })
+    public void exportarAmortizaciones(
+            @Parameter(description = "CSV o XLSX")
+            @RequestParam(defaultValue = "CSV") FormatoExportacion formato,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(required = false) Long proyectoId,
+            HttpServletResponse response
+    ) throws IOException {
+        exportar(TipoExportacion.AMORTIZACIONES, formato, desde, hasta, proyectoId, response);
+    }
+
+    @GetMapping("/clientes")
+    @PreAuthorize("hasAnyAuthority(T(com.inmobiliaria.terrenos.domain.enums.TipoExportacion).CLIENTES.autoridades)")
+    @Operation(summary = "Exportar clientes", description = "Clientes por fecha de alta")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Archivo generado"),
+            @ApiResponse(responseCode = "400", description = "Periodo inválido")
+    })
+    public void exportarClientes(
+            @Parameter(description = "CSV o XLSX")
+            @RequestParam(defaultValue = "CSV") FormatoExportacion formato,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            HttpServletResponse response
+    ) throws IOException {
+        exportar(TipoExportacion.CLIENTES, formato, desde, hasta, null, response);
+    }
+
+    @GetMapping("/auditoria/critica")
+    @PreAuthorize("hasAnyAuthority(T(com.inmobiliaria.terrenos.domain.enums.TipoExportacion).AUDITORIA_CRITICA.autoridades)")
+    @Operation(summary = "Exportar auditoría crítica", description = "Cambios de datos con su valor anterior y nuevo")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Archivo generado"),
+            @ApiResponse(responseCode = "400", description = "Periodo inválido")
+    })
+    public void exportarAuditoriaCritica(
+            @Parameter(description = "CSV o XLSX")
+            @RequestParam(defaultValue = "CSV") FormatoExportacion formato,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            HttpServletResponse response
+    ) throws IOException {
+        exportar(TipoExportacion.AUDITORIA_CRITICA, formato, desde, hasta, null, response);
+    }
+
+    @GetMapping("/auditoria/simple")
+    @PreAuthorize("hasAnyAuthority(T(com.inmobiliaria.terrenos.domain.enums.TipoExportacion).AUDITORIA_SIMPLE.autoridades)")
+    @Operation(summary = "Exportar auditoría de acciones", description = "Acciones de los usuarios (accesos, consultas)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Archivo generado"),
+            @ApiResponse(responseCode = "400", description = "Periodo inválido")
+    })
+    public void exportarAuditoriaSimple(
+            @Parameter(description = "CSV o XLSX")
+            @RequestParam(defaultValue = "CSV") FormatoExportacion formato,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            HttpServletResponse response
+    ) throws IOException {
+        exportar(TipoExportacion.AUDITORIA_SIMPLE, formato, desde, hasta, null, response);
+    }
+
+    private void exportar(TipoExportacion tipo, FormatoExportacion formato, LocalDate desde, LocalDate hasta,
+                          Long proyectoId, HttpServletResponse response) throws IOException {
+        log.info("GET /api/v1/exportaciones - tipo: {}, formato: {}, desde: {}, hasta: {}, proyectoId: {}",
+                tipo, formato, desde, hasta, proyectoId);
+        exportacionService.exportar(tipo, formato, desde, hasta, proyectoId, (nombreArchivo, f) -> {
+            response.setContentType(f.getContentType());
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                    .filename(nombreArchivo, StandardCharsets.UTF_8).build().toString());
+            return response.getOutputStream();
+        });
+    }
+}
@@ -1,7 +1,9 @@
 package com.inmobiliaria.terrenos.interfaces.rest;
 
 import com.inmobiliaria.terrenos.application.dto.plano.ConfirmarIngestaRequest;
+import com.inmobiliaria.terrenos.application.dto.plano.ResultadoIngestaResponse;
 import com.inmobiliaria.terrenos.application.service.PlanoIngestaService;
+import com.inmobiliaria.terrenos.domain.enums.ModoAnalisisPlano;
 import com.inmobiliaria.terrenos.infrastructure.cv.PlanoStatusStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -37,6 +39,7 @@ public class PlanoIngestaController {
      * Inicia el análisis del plano ya subido al servidor.
      * Recibe el nombre almacenado del archivo (ya existe en /uploads) y
      * retorna un tareaId para que el cliente se suscriba al canal SSE.
+     * Opcional: "modo" = AUTO (por defecto), COMPLETO o TESELAS.
      */
     @PostMapping("/analizar")
     public ResponseEntity<Map<String, String>> analizarPlano(
@@ -48,7 +51,14 @@ public class PlanoIngestaController {
             return ResponseEntity.badRequest().body(Map.of("error", "nombreAlmacenado es requerido"));
         }
 
-        String tareaId = planoIngestaService.iniciarAnalisisPorNombre(proyectoId, nombreAlmacenado);
+        ModoAnalisisPlano modo;
+        try {
+            modo = body.get("modo") != null ? ModoAnalisisPlano.valueOf(body.get("modo").toUpperCase()) : ModoAnalisisPlano.AUTO;
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "modo debe ser AUTO, COMPLETO o TESELAS"));
+        }
+
+        String tareaId = planoIngestaService.iniciarAnalisisPorNombre(proyectoId, nombreAlmacenado, modo);
 
         log.info("Análisis iniciado para proyecto {}. TareaId: {}", proyectoId, tareaId);
 
@@ -89,11 +99,14 @@ public class PlanoIngestaController {
             @RequestBody ConfirmarIngestaRequest request) {
 
         request.setProyectoId(proyectoId);
-        planoIngestaService.confirmarIngesta(request);
+        ResultadoIngestaResponse resultado = planoIngestaService.confirmarIngesta(request);
 
         return ResponseEntity.ok(Map.of(
                 "mensaje", "Lotes ingresados exitosamente con estado DISPONIBLE",
-                "totalLotes", request.getLotes().size()
+                "totalLotes", resultado.getRecibidos(),
+                "insertados", resultado.getInsertados(),
+                "actualizados", resultado.getActualizados(),
+                "omitidos", resultado.getOmitidos()
         ));
     }
 }
@@ -1,6 +1,7 @@
 package com.inmobiliaria.terrenos.interfaces.rest;
 
 import com.inmobiliaria.terrenos.application.dto.plano.PlanoInteractivoResponse;
+import com.inmobiliaria.terrenos.application.dto.plano.TerrenoVisualizacionResponse;
 import com.inmobiliaria.terrenos.application.dto.proyecto.CreateProyectoRequest;
 import com.inmobiliaria.terrenos.application.dto.proyecto.ProyectoResponse;
 import com.inmobiliaria.terrenos.application.dto.proyecto.UpdateProyectoRequest;
@@ -19,10 +20,14 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -255,7 +260,9 @@ public class ProyectoController {
     @Operation(
             summary = "Obtener plano interactivo",
             description = "Obtiene el plano del proyecto con todos los terrenos, sus coordenadas y colores según estado. " +
-                         "Retorna el archivo de plano y la lista de terrenos con sus coordenadas para renderizar un mapa interactivo."
+                         "Retorna el archivo de plano y la lista de terrenos con sus coordenadas para renderizar un mapa interactivo. " +
+                         "La respuesta incluye la versión del plano y un ETag: con If-None-Match retorna 304 si no hubo cambios, " +
+                         "y con since retorna solo los terrenos que cambiaron desde esa versión."
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -266,16 +273,160 @@ public class ProyectoController {
                             schema = @Schema(implementation = PlanoInteractivoResponse.class)
                     )
             ),
+            @ApiResponse(responseCode = "304", description = "El plano no cambió desde la versión del ETag"),
             @ApiResponse(responseCode = "404", description = "Proyecto no encontrado"),
             @ApiResponse(responseCode = "401", description = "No autenticado"),
             @ApiResponse(responseCode = "403", description = "Sin permisos")
     })
     public ResponseEntity<PlanoInteractivoResponse> obtenerPlanoInteractivo(
+            @Parameter(description = "ID del proyecto", required = true)
+            @PathVariable Long id,
+
+            @Parameter(description = "Nivel de zoom del visor (0 = vista general, 2 = máximo detalle). " +
+                                     "Si se indica, cada terreno trae 'geometria' codificada en lugar de 'coordenadas'")
+            @RequestParam(required = false) Integer zoom,
+
+            @Parameter(description = "Versión del plano que ya tiene el cliente. Si se indica, solo se retornan " +
+                                     "los terrenos modificados y eliminados desde esa versión (parcial = true)")
+            @RequestParam(required = false) Long since,
+
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        log.debug("GET /api/v1/proyectos/{}/plano-interactivo - zoom: {}, since: {}", id, zoom, since);
+
+        // Validación barata del ETag antes de construir la respuesta
+        String etag = etagPlano(id, planoService.obtenerVersionPlano(id), zoom, since);
+        if (coincideEtag(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+
+        PlanoInteractivoResponse plano = planoService.obtenerPlanoInteractivo(id, zoom, since);
+        return ResponseEntity.ok()
+                .eTag(etagPlano(id, plano.getVersion(), zoom, since))
+                .cacheControl(CacheControl.noCache())
+                .body(plano);
+    }
+
+    /**
+     * Canal de disponibilidad de lotes en tiempo real
+     */
+    @GetMapping(value = "/{id}/plano-interactivo/disponibilidad", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyAuthority('PROYECTO_VER', 'ADMIN')")
+    @Operation(
+            summary = "Suscribirse a la disponibilidad de lotes",
+            description = "Canal SSE con los cambios de estado de los lotes del proyecto (apartados, ventas, cancelaciones). " +
+                         "El primer evento 'conectado' trae la versión actual del plano; luego cada evento 'lotes' trae " +
+                         "el último estado de los lotes que cambiaron. Si la conexión se cierra, el cliente debe reconectarse " +
+                         "y pedir plano-interactivo?since= con la última versión recibida."
+    )
+    public SseEmitter suscribirDisponibilidad(
             @Parameter(description = "ID del proyecto", required = true)
             @PathVariable Long id
     ) {
-        log.info("GET /api/v1/proyectos/{}/plano-interactivo", id);
-        PlanoInteractivoResponse plano = planoService.obtenerPlanoInteractivo(id);
-        return ResponseEntity.ok(plano);
+        log.info("GET /api/v1/proyectos/{}/plano-interactivo/disponibilidad", id);
+        return planoService.suscribirDisponibilidad(id);
+    }
+
+    /**
+     * Obtiene el lote ubicado en un punto del plano
+     */
+    @GetMapping("/{id}/plano-interactivo/lote")
+    @PreAuthorize("hasAnyAuthority('PROYECTO_VER', 'ADMIN')")
+    @Operation(
+            summary = "Obtener lote en un punto del plano",
+            description = "Resuelve en el servidor qué lote contiene la coordenada (x, y) del plano, usando el índice espacial del proyecto. " +
+                         "Retorna 204 si no hay ningún lote en ese punto."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Lote encontrado",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = TerrenoVisualizacionResponse.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "204", description = "No hay lote en el punto indicado"),
+            @ApiResponse(responseCode = "404", description = "Proyecto no encontrado"),
+            @ApiResponse(responseCode = "401", description = "No autenticado"),
+            @ApiResponse(responseCode = "403", description = "Sin permisos")
+    })
+    public ResponseEntity<TerrenoVisualizacionResponse> obtenerLoteEnPunto(
+            @Parameter(description = "ID del proyecto", required = true)
+            @PathVariable Long id,
+
+            @Parameter(description = "Coordenada X en píxeles del plano", required = true)
+            @RequestParam double x,
+
+            @Parameter(description = "Coordenada Y en píxeles del plano", required = true)
+            @RequestParam double y
+    ) {
+        log.info("GET /api/v1/proyectos/{}/plano-interactivo/lote - x: {}, y: {}", id, x, y);
+        return planoService.obtenerLoteEnPunto(id, x, y)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    /**
+     * Obtiene los lotes visibles en una ventana del plano
+     */
+    @GetMapping("/{id}/plano-interactivo/ventana")
+    @PreAuthorize("hasAnyAuthority('PROYECTO_VER', 'ADMIN')")
+    @Operation(
+            summary = "Obtener lotes en una ventana del plano",
+            description = "Retorna los lotes cuyo polígono intersecta el rectángulo visible (minX, minY)-(maxX, maxY). " +
+                         "Permite cargar planos grandes por partes mientras se desplaza el mapa."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Lotes de la ventana obtenidos exitosamente",
+                    content = @Content(
+                            mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = TerrenoVisualizacionResponse.class))
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Ventana inválida"),
+            @ApiResponse(responseCode = "404", description = "Proyecto no encontrado"),
+            @ApiResponse(responseCode = "401", description = "No autenticado"),
+            @ApiResponse(responseCode = "403", description = "Sin permisos")
+    })
+    public ResponseEntity<List<TerrenoVisualizacionResponse>> obtenerLotesEnVentana(
+            @Parameter(description = "ID del proyecto", required = true)
+            @PathVariable Long id,
+
+            @RequestParam double minX,
+            @RequestParam double minY,
+            @RequestParam double maxX,
+            @RequestParam double maxY
+    ) {
+        log.info("GET /api/v1/proyectos/{}/plano-interactivo/ventana - [{}, {}, {}, {}]", id, minX, minY, maxX, maxY);
+        return ResponseEntity.ok(planoService.obtenerLotesEnVentana(id, minX, minY, maxX, maxY));
+    }
+
+    private static String etagPlano(Long proyectoId, long version, Integer zoom, Long since) {
+        return "W/\"p" + proyectoId + "-v" + version
+                + (zoom != null ? "-z" + zoom : "")
+                + (since != null ? "-s" + since : "") + "\"";
+    }
+
+    /**
+     * Compara If-None-Match con el ETag del plano (comparación débil, admite lista y *)
+     */
+    private static boolean coincideEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        String esperado = etag.substring(2);
+        for (String candidato : ifNoneMatch.split(",")) {
+            String valor = candidato.trim();
+            if (valor.equals("*") || (valor.startsWith("W/") ? valor.substring(2) : valor).equals(esperado)) {
+                return true;
+            }
+        }
+        return false;
     }
 }
@@ -0,0 +1,104 @@
+package com.inmobiliaria.terrenos.interfaces.rest;
+
+import com.inmobiliaria.terrenos.application.dto.precio.ReglaPrecioRequest;
+import com.inmobiliaria.terrenos.application.dto.precio.ReglaPrecioResponse;
+import com.inmobiliaria.terrenos.application.dto.precio.SimulacionReajusteResponse;
+import com.inmobiliaria.terrenos.application.service.ReajustePreciosService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Controlador REST para reajustes masivos de precio de lotes
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@RestController
+@RequestMapping("/api/v1/reglas-precio")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Reglas de precio", description = "Reajustes masivos de precio por proyecto, fase, manzana, área o características")
+@SecurityRequirement(name = "bearerAuth")
+public class ReglaPrecioController {
+
+    private final ReajustePreciosService reajustePreciosService;
+
+    @GetMapping
+    @PreAuthorize("hasAnyAuthority('CONFIG_PRECIOS', 'ADMIN')")
+    @Operation(summary = "Listar reglas de precio", description = "Reglas de un proyecto, las más recientes primero")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lista de reglas obtenida",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = ReglaPrecioResponse.class)))),
+            @ApiResponse(responseCode = "401", description = "No autenticado"),
+            @ApiResponse(responseCode = "403", description = "Sin permisos")
+    })
+    public ResponseEntity<List<ReglaPrecioResponse>> listarReglas(@RequestParam Long proyectoId) {
+        log.info("GET /api/v1/reglas-precio - proyectoId: {}", proyectoId);
+        return ResponseEntity.ok(reajustePreciosService.listarReglas(proyectoId));
+    }
+
+    @PostMapping("/simular")
+    @PreAuthorize("hasAnyAuthority('CONFIG_PRECIOS', 'ADMIN')")
+    @Operation(summary = "Simular regla de precio",
+            description = "Calcula el impacto de la regla (lotes, total anterior y nuevo, variación) y una muestra " +
+                    "de lotes sin modificar precios")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Impacto de la regla",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = SimulacionReajusteResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Datos inválidos"),
+            @ApiResponse(responseCode = "404", description = "Proyecto o fase no encontrados")
+    })
+    public ResponseEntity<SimulacionReajusteResponse> simular(@Valid @RequestBody ReglaPrecioRequest request) {
+        log.info("POST /api/v1/reglas-precio/simular - Proyecto: {}, tipo: {}, valor: {}",
+                request.getProyectoId(), request.getTipo(), request.getValor());
+        return ResponseEntity.ok(reajustePreciosService.simular(request));
+    }
+
+    @PostMapping
+    @PreAuthorize("hasAnyAuthority('CONFIG_PRECIOS', 'ADMIN')")
+    @Operation(summary = "Crear regla de precio",
+            description = "Aplica el reajuste a los lotes disponibles y reservados del alcance, o lo programa si se " +
+                    "indica fechaProgramada. Cada cambio de precio queda en la auditoría crítica")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Regla aplicada o programada",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ReglaPrecioResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Datos inválidos o precios resultantes no positivos"),
+            @ApiResponse(responseCode = "404", description = "Proyecto o fase no encontrados")
+    })
+    public ResponseEntity<ReglaPrecioResponse> crearRegla(@Valid @RequestBody ReglaPrecioRequest request) {
+        log.info("POST /api/v1/reglas-precio - Proyecto: {}, tipo: {}, valor: {}, programada: {}",
+                request.getProyectoId(), request.getTipo(), request.getValor(), request.getFechaProgramada());
+        return ResponseEntity.status(HttpStatus.CREATED).body(reajustePreciosService.crearRegla(request));
+    }
+
+    @PostMapping("/{id}/cancelar")
+    @PreAuthorize("hasAnyAuthority('CONFIG_PRECIOS', 'ADMIN')")
+    @Operation(summary = "Cancelar regla programada")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Regla cancelada"),
+            @ApiResponse(responseCode = "400", description = "La regla no está programada"),
+            @ApiResponse(responseCode = "404", description = "Regla no encontrada")
+    })
+    public ResponseEntity<ReglaPrecioResponse> cancelarRegla(@PathVariable Long id) {
+        log.info("POST /api/v1/reglas-precio/{}/cancelar", id);
+        return ResponseEntity.ok(reajustePreciosService.cancelarRegla(id));
+    }
+}
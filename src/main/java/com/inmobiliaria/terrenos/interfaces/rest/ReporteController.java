@@ -1,8 +1,14 @@
 package com.inmobiliaria.terrenos.interfaces.rest;
 
 import com.inmobiliaria.terrenos.application.dto.reporte.DashboardResponse;
+import com.inmobiliaria.terrenos.application.dto.reporte.EmbudoVentasResponse;
 import com.inmobiliaria.terrenos.application.dto.reporte.ProyectoEstadisticasResponse;
+import com.inmobiliaria.terrenos.application.dto.reporte.TendenciaVentasResponse;
+import com.inmobiliaria.terrenos.application.service.EmbudoVentasService;
 import com.inmobiliaria.terrenos.application.service.ReporteService;
+import com.inmobiliaria.terrenos.application.service.TendenciaVentasService;
+import com.inmobiliaria.terrenos.domain.enums.AgrupacionEmbudo;
+import com.inmobiliaria.terrenos.domain.enums.GranularidadTendencia;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -14,11 +20,14 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Controlador REST para reportes y dashboard
@@ -35,6 +44,8 @@ import java.util.List;
 public class ReporteController {
 
     private final ReporteService reporteService;
+    private final EmbudoVentasService embudoVentasService;
+    private final TendenciaVentasService tendenciaVentasService;
 
     @GetMapping("/dashboard")
     @PreAuthorize("hasAnyAuthority('REPORTE_VER', 'ADMIN')")
@@ -104,4 +115,106 @@ public class ReporteController {
         log.info("GET /api/v1/reportes/proyectos/{}", id);
         return ResponseEntity.ok(reporteService.obtenerEstadisticasProyecto(id));
     }
+
+    @GetMapping("/embudo")
+    @PreAuthorize("hasAnyAuthority('REPORTE_VER', 'ADMIN')")
+    @Operation(
+            summary = "Embudo de ventas",
+            description = "Conversión cotización → apartado → venta y días entre etapas de un periodo " +
+                    "(por defecto los últimos 30 días), por proyecto y/o agente. Se calcula con los " +
+                    "acumulados diarios, sin recorrer cotizaciones, apartados ni ventas"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Embudo obtenido",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = EmbudoVentasResponse.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Periodo inválido")
+    })
+    public ResponseEntity<EmbudoVentasResponse> obtenerEmbudo(
+            @Parameter(description = "Fecha inicial (inclusive)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @Parameter(description = "Fecha final (inclusive); por defecto hoy")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @Parameter(description = "Solo este proyecto")
+            @RequestParam(required = false) Long proyectoId,
+            @Parameter(description = "Solo este agente")
+            @RequestParam(required = false) Long usuarioId,
+            @Parameter(description = "Desglose: TOTAL, PROYECTO, USUARIO o PROYECTO_USUARIO")
+            @RequestParam(defaultValue = "TOTAL") AgrupacionEmbudo agrupacion
+    ) {
+        log.info("GET /api/v1/reportes/embudo - desde: {}, hasta: {}, agrupacion: {}", desde, hasta, agrupacion);
+        return ResponseEntity.ok(embudoVentasService.obtenerEmbudo(desde, hasta, proyectoId, usuarioId, agrupacion));
+    }
+
+    @PostMapping("/embudo/reconstruir")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @Operation(
+            summary = "Reconstruir embudo de ventas",
+            description = "Vuelve a generar el embudo de la empresa desde sus cotizaciones, apartados y ventas " +
+                    "(datos anteriores al embudo). Pausa el registro de operaciones mientras corre"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Embudo reconstruido"),
+            @ApiResponse(responseCode = "403", description = "Sin permisos")
+    })
+    public ResponseEntity<Map<String, Integer>> reconstruirEmbudo() {
+        log.info("POST /api/v1/reportes/embudo/reconstruir");
+        return ResponseEntity.ok(Map.of("movimientos", embudoVentasService.reconstruir()));
+    }
+
+    @GetMapping("/tendencias")
+    @PreAuthorize("hasAnyAuthority('REPORTE_VER', 'ADMIN')")
+    @Operation(
+            summary = "Tendencias de ventas",
+            description = "Ventas, comisiones, cobranza y apartados nuevos por día, semana o mes para gráficas " +
+                    "(por defecto los últimos 12 meses). Se lee de los acumulados por periodo"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Tendencias obtenidas",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = TendenciaVentasResponse.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Periodo inválido")
+    })
+    public ResponseEntity<TendenciaVentasResponse> obtenerTendencias(
+            @Parameter(description = "Tamaño de periodo: DIA, SEMANA o MES")
+            @RequestParam(defaultValue = "MES") GranularidadTendencia granularidad,
+            @Parameter(description = "Fecha dentro del primer periodo")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @Parameter(description = "Fecha dentro del último periodo; por defecto hoy")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @Parameter(description = "Solo este proyecto")
+            @RequestParam(required = false) Long proyectoId,
+            @Parameter(description = "Incluir la serie de cada proyecto")
+            @RequestParam(defaultValue = "false") boolean porProyecto
+    ) {
+        log.info("GET /api/v1/reportes/tendencias - granularidad: {}, desde: {}, hasta: {}", granularidad, desde, hasta);
+        return ResponseEntity.ok(tendenciaVentasService.obtenerTendencias(granularidad, desde, hasta, proyectoId,
+                porProyecto));
+    }
+
+    @PostMapping("/tendencias/reconstruir")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @Operation(
+            summary = "Reconstruir tendencias de ventas",
+            description = "Vuelve a generar las tendencias de la empresa desde sus ventas, pagos y apartados " +
+                    "(datos anteriores a las tendencias). Pausa el registro de operaciones mientras corre"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tendencias reconstruidas"),
+            @ApiResponse(responseCode = "403", description = "Sin permisos")
+    })
+    public ResponseEntity<Map<String, Integer>> reconstruirTendencias() {
+        log.info("POST /api/v1/reportes/tendencias/reconstruir");
+        return ResponseEntity.ok(Map.of("movimientos", tendenciaVentasService.reconstruir()));
+    }
 }
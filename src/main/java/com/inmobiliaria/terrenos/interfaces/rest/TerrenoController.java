@@ -1,8 +1,12 @@
 package com.inmobiliaria.terrenos.interfaces.rest;
 
+import com.inmobiliaria.terrenos.application.dto.terreno.BusquedaTerrenosRequest;
 import com.inmobiliaria.terrenos.application.dto.terreno.CreateTerrenoRequest;
+import com.inmobiliaria.terrenos.application.dto.terreno.PaginaTerrenosResponse;
+import com.inmobiliaria.terrenos.application.dto.terreno.ResultadoImportacionResponse;
 import com.inmobiliaria.terrenos.application.dto.terreno.TerrenoResponse;
 import com.inmobiliaria.terrenos.application.dto.terreno.UpdateTerrenoRequest;
+import com.inmobiliaria.terrenos.application.service.TerrenoImportacionService;
 import com.inmobiliaria.terrenos.application.service.TerrenoService;
 import com.inmobiliaria.terrenos.domain.enums.EstadoTerreno;
 import io.swagger.v3.oas.annotations.Operation;
@@ -18,9 +22,11 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
 
@@ -39,6 +45,7 @@ import java.util.List;
 public class TerrenoController {
 
     private final TerrenoService terrenoService;
+    private final TerrenoImportacionService terrenoImportacionService;
 
     /**
      * Lista todos los terrenos del tenant con filtros opcionales
@@ -88,6 +95,35 @@ public class TerrenoController {
         return ResponseEntity.ok(terrenos);
     }
 
+    /**
+     * Busca terrenos con filtros y paginación por cursor
+     */
+    @GetMapping("/buscar")
+    @PreAuthorize("hasAnyAuthority('TERRENO_VER', 'ADMIN')")
+    @Operation(
+            summary = "Buscar terrenos",
+            description = "Busca terrenos por proyecto, fase, manzana, rango de área y precio, estado y " +
+                    "características (objeto JSON contenido). Devuelve páginas de hasta 200 terrenos; " +
+                    "para la siguiente página se envía el siguienteCursor recibido con los mismos filtros y orden"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Página de terrenos",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = PaginaTerrenosResponse.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Filtros o cursor inválidos"),
+            @ApiResponse(responseCode = "401", description = "No autenticado"),
+            @ApiResponse(responseCode = "403", description = "Sin permisos")
+    })
+    public ResponseEntity<PaginaTerrenosResponse> buscarTerrenos(@Valid @ModelAttribute BusquedaTerrenosRequest filtros) {
+        log.info("GET /api/v1/terrenos/buscar - {}", filtros);
+        return ResponseEntity.ok(terrenoService.buscarTerrenos(filtros));
+    }
+
     /**
      * Obtiene un terreno por ID
      */
@@ -151,6 +187,48 @@ public class TerrenoController {
         return ResponseEntity.status(HttpStatus.CREATED).body(terreno);
     }
 
+    /**
+     * Importa lotes de un proyecto desde CSV o XLSX
+     */
+    @PostMapping(value = "/importar", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasAnyAuthority('TERRENO_CREAR', 'ADMIN')")
+    @Operation(
+            summary = "Importar terrenos",
+            description = "Importa lotes desde un archivo CSV (coma, punto y coma o tabulador) o XLSX (primera hoja). " +
+                    "La primera fila es el encabezado; columnas obligatorias: numero_lote, area, precio_base. " +
+                    "Opcionales: manzana, fase (nombre o número), frente, fondo, precio_ajuste, precio_multiplicador, " +
+                    "precio_final, caracteristicas (objeto JSON), observaciones, estado (solo DISPONIBLE). " +
+                    "Las filas con errores se omiten y se reportan; con soloValidar=true no se inserta nada"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Resultado de la importación con los errores por fila",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ResultadoImportacionResponse.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Archivo vacío, con formato no soportado o sin columnas obligatorias"),
+            @ApiResponse(responseCode = "404", description = "Proyecto no encontrado"),
+            @ApiResponse(responseCode = "401", description = "No autenticado"),
+            @ApiResponse(responseCode = "403", description = "Sin permisos")
+    })
+    public ResponseEntity<ResultadoImportacionResponse> importarTerrenos(
+            @Parameter(description = "Archivo CSV o XLSX", required = true)
+            @RequestParam("file") MultipartFile file,
+
+            @Parameter(description = "ID del proyecto", required = true)
+            @RequestParam Long proyectoId,
+
+            @Parameter(description = "Solo validar el archivo, sin insertar")
+            @RequestParam(required = false, defaultValue = "false") boolean soloValidar
+    ) {
+        log.info("POST /api/v1/terrenos/importar - Proyecto: {}, archivo: {}, soloValidar: {}",
+                proyectoId, file.getOriginalFilename(), soloValidar);
+        return ResponseEntity.ok(terrenoImportacionService.importar(proyectoId, file, soloValidar));
+    }
+
     /**
      * Actualiza un terreno existente
      */
@@ -0,0 +1,120 @@
+package com.inmobiliaria.terrenos.interfaces.rest;
+
+import com.inmobiliaria.terrenos.application.dto.reporte.SolicitudReporteRequest;
+import com.inmobiliaria.terrenos.application.dto.reporte.TrabajoReporteResponse;
+import com.inmobiliaria.terrenos.application.service.TrabajoReporteService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Controlador REST para los reportes en segundo plano.
+ *
+ * Flujo:
+ * 1. POST /                → retorna el trabajo inmediatamente (HTTP 202)
+ * 2. GET  /{id}            → consulta el estado, o GET /{id}/eventos para recibirlo por SSE
+ * 3. GET  /{id}/archivo    → descarga el resultado una vez COMPLETADO
+ *
+ * Solicitar y consultar un trabajo exige las mismas autoridades: las de la exportación directa
+ * de esos datos (TipoExportacion), o REPORTE_VER para las estadísticas. Las consultas solo
+ * encuentran los trabajos que el usuario puede ver.
+ *
+ * @author Kevin
+ * @version 1.0.0
+ */
+@RestController
+@RequestMapping("/api/v1/reportes/trabajos")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Trabajos de reporte", description = "Reportes pesados generados en segundo plano")
+@SecurityRequirement(name = "bearerAuth")
+public class TrabajoReporteController {
+
+    private final TrabajoReporteService trabajoReporteService;
+
+    @PostMapping
+    @PreAuthorize("hasAnyAuthority(#solicitud.autoridades())")
+    @Operation(
+            summary = "Solicitar reporte",
+            description = "Encola las estadísticas por proyecto o una exportación completa. Una solicitud idéntica " +
+                    "a un trabajo en curso o recién completado devuelve ese trabajo (reutilizado = true)"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Trabajo encolado o reutilizado"),
+            @ApiResponse(responseCode = "400", description = "Filtros inválidos"),
+            @ApiResponse(responseCode = "429", description = "La empresa ya tiene el máximo de reportes en proceso"),
+            @ApiResponse(responseCode = "503", description = "Cola de reportes llena")
+    })
+    public ResponseEntity<TrabajoReporteResponse> solicitar(@Valid @RequestBody SolicitudReporteRequest solicitud) {
+        log.info("POST /api/v1/reportes/trabajos - tipo: {}, exportación: {}", solicitud.getTipo(),
+                solicitud.getTipoExportacion());
+        return ResponseEntity.accepted().body(trabajoReporteService.solicitar(solicitud));
+    }
+
+    @GetMapping
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Listar trabajos de reporte", description = "Trabajos de la empresa que aún no vencen")
+    public ResponseEntity<List<TrabajoReporteResponse>> listar() {
+        log.info("GET /api/v1/reportes/trabajos");
+        return ResponseEntity.ok(trabajoReporteService.listar());
+    }
+
+    @GetMapping("/{id}")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Estado de un trabajo de reporte")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Estado obtenido"),
+            @ApiResponse(responseCode = "404", description = "Trabajo no encontrado o vencido")
+    })
+    public ResponseEntity<TrabajoReporteResponse> obtener(
+            @Parameter(description = "ID del trabajo", required = true) @PathVariable String id) {
+        return ResponseEntity.ok(trabajoReporteService.obtener(id));
+    }
+
+    /**
+     * Canal SSE del trabajo: un evento "estado" al suscribirse, al iniciar y al terminar
+     */
+    @GetMapping(value = "/{id}/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Suscribirse al estado de un trabajo de reporte")
+    public SseEmitter suscribir(@PathVariable String id) {
+        log.info("GET /api/v1/reportes/trabajos/{}/eventos", id);
+        return trabajoReporteService.suscribir(id);
+    }
+
+    @GetMapping("/{id}/archivo")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Descargar el resultado de un trabajo de reporte")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Archivo descargado"),
+            @ApiResponse(responseCode = "404", description = "Trabajo no encontrado o vencido"),
+            @ApiResponse(responseCode = "409", description = "El trabajo no ha terminado o terminó con error")
+    })
+    public ResponseEntity<Resource> descargar(@PathVariable String id) {
+        log.info("GET /api/v1/reportes/trabajos/{}/archivo", id);
+        TrabajoReporteService.ArchivoReporte archivo = trabajoReporteService.obtenerArchivo(id);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(archivo.formato().getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(archivo.nombre(), StandardCharsets.UTF_8).build().toString())
+                .body(new FileSystemResource(archivo.archivo()));
+    }
+}
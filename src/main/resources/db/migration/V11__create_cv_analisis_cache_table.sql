@@ -0,0 +1,35 @@
+-- =====================================================
+-- Migración V11: Caché de análisis del CV Engine
+-- Descripción: Resultados de análisis de planos indexados por
+--              hash de contenido y versión del motor
+-- Autor: Kevin
+-- =====================================================
+
+CREATE TABLE IF NOT EXISTS cv_analisis_cache (
+    id BIGSERIAL PRIMARY KEY,
+    tenant_id BIGINT NOT NULL REFERENCES tenants(id) ON DELETE CASCADE,
+
+    -- Llave de la caché
+    content_hash VARCHAR(64) NOT NULL,
+    engine_version VARCHAR(50) NOT NULL,
+
+    -- Resultado serializado (CvEngineResponse)
+    resultado JSONB NOT NULL,
+    total_lotes INTEGER,
+    tiempo_procesamiento_ms DOUBLE PRECISION,
+
+    -- Estadísticas de uso
+    hits INTEGER NOT NULL DEFAULT 0,
+    ultimo_hit TIMESTAMP,
+
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT uk_cv_cache_tenant_hash_version UNIQUE (tenant_id, content_hash, engine_version)
+);
+
+CREATE INDEX idx_cv_cache_tenant_id ON cv_analisis_cache(tenant_id);
+CREATE INDEX idx_cv_cache_created_at ON cv_analisis_cache(created_at);
+
+COMMENT ON TABLE cv_analisis_cache IS 'Resultados del CV Engine reutilizables por hash SHA-256 del archivo';
+COMMENT ON COLUMN cv_analisis_cache.content_hash IS 'SHA-256 (hex) del contenido del plano analizado';
+COMMENT ON COLUMN cv_analisis_cache.engine_version IS 'Versión del CV Engine que produjo el resultado';
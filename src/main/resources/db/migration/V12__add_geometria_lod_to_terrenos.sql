@@ -0,0 +1,11 @@
+-- =====================================================
+-- Migración V12: Geometría por nivel de detalle en terrenos
+-- Descripción: Polígono simplificado y cuantizado por nivel de zoom
+--              del plano interactivo, calculado al guardar las coordenadas
+-- Autor: Kevin
+-- =====================================================
+
+ALTER TABLE terrenos ADD COLUMN IF NOT EXISTS geometria_lod JSONB;
+
+COMMENT ON COLUMN terrenos.geometria_lod IS
+    'Arreglo JSON con una cadena por nivel (BAJO, MEDIO, ALTO): vértices enteros delta + zigzag + varint en base64url';
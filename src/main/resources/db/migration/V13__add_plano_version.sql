@@ -0,0 +1,19 @@
+-- =====================================================
+-- Migración V13: Versión del plano interactivo
+-- Descripción: Contador por proyecto que aumenta con cada cambio de
+--              lotes, fases o plano; cada terreno guarda la versión
+--              de su último cambio para responder solo lo modificado
+-- Autor: Kevin
+-- =====================================================
+
+ALTER TABLE proyectos ADD COLUMN IF NOT EXISTS plano_version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE proyectos ADD COLUMN IF NOT EXISTS plano_version_estructura BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE terrenos ADD COLUMN IF NOT EXISTS plano_version BIGINT NOT NULL DEFAULT 0;
+
+CREATE INDEX IF NOT EXISTS idx_terrenos_proyecto_plano_version ON terrenos(proyecto_id, plano_version);
+
+COMMENT ON COLUMN proyectos.plano_version IS 'Aumenta con cada cambio que afecta al plano interactivo';
+COMMENT ON COLUMN proyectos.plano_version_estructura IS
+    'Última versión con cambios que no se pueden enviar como delta de lotes (fases, plano, datos del proyecto)';
+COMMENT ON COLUMN terrenos.plano_version IS 'Versión del plano en la que cambió el terreno por última vez';
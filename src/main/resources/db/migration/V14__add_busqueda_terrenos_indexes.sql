@@ -0,0 +1,26 @@
+-- =====================================================
+-- Migración V14: Índices para la búsqueda paginada de terrenos
+-- Descripción: Un índice por criterio de orden terminado en id, para
+--              paginar por llave (orden, id) sin recorrer las páginas
+--              anteriores. La búsqueda por características usa el
+--              índice GIN idx_terrenos_caracteristicas (V4).
+-- Autor: Kevin
+-- =====================================================
+
+-- La entidad y las consultas nativas ya filtran por deleted; se asegura la columna
+ALTER TABLE terrenos ADD COLUMN IF NOT EXISTS deleted BOOLEAN NOT NULL DEFAULT FALSE;
+
+CREATE INDEX IF NOT EXISTS idx_terrenos_busqueda_numero
+    ON terrenos(tenant_id, numero_lote, id) WHERE deleted = false;
+CREATE INDEX IF NOT EXISTS idx_terrenos_busqueda_area
+    ON terrenos(tenant_id, area, id) WHERE deleted = false;
+CREATE INDEX IF NOT EXISTS idx_terrenos_busqueda_precio
+    ON terrenos(tenant_id, precio_final, id) WHERE deleted = false;
+CREATE INDEX IF NOT EXISTS idx_terrenos_busqueda_creacion
+    ON terrenos(tenant_id, created_at, id) WHERE deleted = false;
+
+-- Búsquedas dentro de un proyecto (las más comunes en la sala de ventas)
+CREATE INDEX IF NOT EXISTS idx_terrenos_busqueda_proyecto_numero
+    ON terrenos(proyecto_id, numero_lote, id) WHERE deleted = false;
+CREATE INDEX IF NOT EXISTS idx_terrenos_busqueda_proyecto_precio
+    ON terrenos(proyecto_id, precio_final, id) WHERE deleted = false;
@@ -0,0 +1,52 @@
+-- =====================================================
+-- Migración V15: Reglas de reajuste de precios
+-- Descripción: Reajustes masivos de precio por proyecto, fase, manzana,
+--              rango de área o características; se aplican con un solo
+--              UPDATE al momento o en la fecha programada
+-- Autor: Kevin
+-- =====================================================
+
+CREATE TABLE IF NOT EXISTS reglas_precio (
+    id BIGSERIAL PRIMARY KEY,
+    tenant_id BIGINT NOT NULL REFERENCES tenants(id) ON DELETE CASCADE,
+    proyecto_id BIGINT NOT NULL REFERENCES proyectos(id) ON DELETE CASCADE,
+
+    nombre VARCHAR(150) NOT NULL,
+    tipo VARCHAR(20) NOT NULL,              -- PORCENTAJE, AJUSTE_FIJO, MULTIPLICADOR
+    valor NUMERIC(15, 4) NOT NULL,
+
+    -- Alcance (opcional, se combinan con AND)
+    fase_id BIGINT REFERENCES fases(id) ON DELETE CASCADE,
+    manzana VARCHAR(50),
+    area_min NUMERIC(10, 2),
+    area_max NUMERIC(10, 2),
+    caracteristicas JSONB,
+
+    motivo TEXT,
+
+    -- Ejecución
+    estado VARCHAR(20) NOT NULL,            -- PROGRAMADA, APLICADA, CANCELADA, FALLIDA
+    fecha_programada TIMESTAMP,
+    fecha_aplicacion TIMESTAMP,
+    lotes_afectados INTEGER,
+    total_anterior NUMERIC(18, 2),
+    total_nuevo NUMERIC(18, 2),
+    error TEXT,
+
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    created_by VARCHAR(100),
+    updated_by VARCHAR(100),
+
+    CONSTRAINT chk_reglas_precio_tipo CHECK (tipo IN ('PORCENTAJE', 'AJUSTE_FIJO', 'MULTIPLICADOR')),
+    CONSTRAINT chk_reglas_precio_area CHECK (area_min IS NULL OR area_max IS NULL OR area_min <= area_max)
+);
+
+CREATE INDEX idx_reglas_precio_tenant_proyecto ON reglas_precio(tenant_id, proyecto_id, created_at DESC);
+
+-- Búsqueda de reglas vencidas por el scheduler (todas las empresas)
+CREATE INDEX idx_reglas_precio_programadas ON reglas_precio(fecha_programada) WHERE estado = 'PROGRAMADA';
+
+COMMENT ON TABLE reglas_precio IS 'Reajustes masivos de precio de lotes, inmediatos o programados';
+COMMENT ON COLUMN reglas_precio.valor IS
+    'PORCENTAJE: % sobre precio base y ajuste; AJUSTE_FIJO: monto sumado al precio base; MULTIPLICADOR: nuevo multiplicador';
@@ -0,0 +1,14 @@
+-- =====================================================
+-- Migración V16: Vencimiento automático de apartados
+-- Descripción: Índice parcial con los apartados activos por fecha de
+--              vencimiento; el proceso programado toma los vencidos en
+--              bloques sin recorrer el historial de apartados
+-- Autor: Kevin
+-- =====================================================
+
+-- La entidad ya filtra por deleted; se asegura la columna
+ALTER TABLE apartados ADD COLUMN IF NOT EXISTS deleted BOOLEAN NOT NULL DEFAULT FALSE;
+
+CREATE INDEX IF NOT EXISTS idx_apartados_activos_vencimiento
+    ON apartados(fecha_vencimiento, id)
+    WHERE estado = 'ACTIVO' AND deleted = false;
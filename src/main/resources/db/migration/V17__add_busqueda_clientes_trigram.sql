@@ -0,0 +1,47 @@
+-- =====================================================
+-- Migración V17: Búsqueda de clientes con trigramas
+-- Descripción: Índices para la búsqueda y el autocompletado de
+--              clientes por nombre, email, teléfono y RFC, sin
+--              distinguir mayúsculas ni acentos. Reemplazan las
+--              búsquedas LIKE '%x%' sobre LOWER(nombre), que no
+--              podían usar ningún índice.
+-- Autor: Kevin
+-- =====================================================
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS unaccent;
+-- Permite incluir tenant_id (escalar) en los índices GIN de trigramas
+CREATE EXTENSION IF NOT EXISTS btree_gin;
+
+-- unaccent() es STABLE (depende del diccionario configurado) y no puede usarse en un
+-- índice; fijando el diccionario la función es inmutable
+CREATE OR REPLACE FUNCTION normalizar_busqueda(texto TEXT) RETURNS TEXT
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT
+AS $$ SELECT lower(public.unaccent('public.unaccent'::regdictionary, texto)) $$;
+
+COMMENT ON FUNCTION normalizar_busqueda(TEXT) IS 'Texto en minúsculas y sin acentos para búsquedas';
+
+-- Subcadenas y coincidencias aproximadas del nombre completo (LIKE '%x%', <%)
+CREATE INDEX IF NOT EXISTS idx_clientes_busqueda_nombre_trgm
+    ON clientes USING gin (tenant_id, normalizar_busqueda(nombre || ' ' || apellido) gin_trgm_ops)
+    WHERE deleted = false;
+
+-- Prefijo del nombre completo en orden, para el autocompletado (LIKE 'x%' ... ORDER BY)
+CREATE INDEX IF NOT EXISTS idx_clientes_busqueda_nombre_prefijo
+    ON clientes (tenant_id, (normalizar_busqueda(nombre || ' ' || apellido)) COLLATE "C")
+    WHERE deleted = false;
+
+CREATE INDEX IF NOT EXISTS idx_clientes_busqueda_email_trgm
+    ON clientes USING gin (tenant_id, lower(email) gin_trgm_ops)
+    WHERE deleted = false;
+
+-- Solo dígitos: el teléfono se captura con espacios, guiones o paréntesis
+CREATE INDEX IF NOT EXISTS idx_clientes_busqueda_telefono_trgm
+    ON clientes USING gin (tenant_id, regexp_replace(telefono, '[^0-9]', '', 'g') gin_trgm_ops)
+    WHERE deleted = false;
+
+CREATE INDEX IF NOT EXISTS idx_clientes_busqueda_rfc
+    ON clientes (tenant_id, upper(rfc) COLLATE "C")
+    WHERE deleted = false;
+
+COMMENT ON INDEX idx_clientes_busqueda_nombre_trgm IS 'Búsqueda de clientes por subcadena del nombre, sin acentos';
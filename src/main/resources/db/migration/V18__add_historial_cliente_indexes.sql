@@ -0,0 +1,30 @@
+-- =====================================================
+-- Migración V18: Vista 360 del cliente
+-- Descripción: Índices parciales por (tenant, cliente, fecha de creación) en
+--              cotizaciones, apartados y ventas. Resuelven el resumen del
+--              cliente (conteos, montos y última actividad) y cada página del
+--              historial por llave sin leer el resto de las transacciones.
+--              Incluyen las columnas que suma el resumen para permitir
+--              index-only scans.
+-- Autor: Kevin
+-- =====================================================
+
+-- Las entidades ya filtran por deleted y leen porcentaje_descuento; se aseguran las columnas
+ALTER TABLE cotizaciones ADD COLUMN IF NOT EXISTS deleted BOOLEAN NOT NULL DEFAULT FALSE;
+ALTER TABLE cotizaciones ADD COLUMN IF NOT EXISTS porcentaje_descuento DECIMAL(5, 2) DEFAULT 0;
+ALTER TABLE ventas ADD COLUMN IF NOT EXISTS deleted BOOLEAN NOT NULL DEFAULT FALSE;
+
+CREATE INDEX IF NOT EXISTS idx_cotizaciones_cliente_historial
+    ON cotizaciones(tenant_id, cliente_id, created_at DESC, id DESC)
+    INCLUDE (precio_final, fecha_vigencia)
+    WHERE deleted = false;
+
+CREATE INDEX IF NOT EXISTS idx_apartados_cliente_historial
+    ON apartados(tenant_id, cliente_id, created_at DESC, id DESC)
+    INCLUDE (monto_apartado, estado)
+    WHERE deleted = false;
+
+CREATE INDEX IF NOT EXISTS idx_ventas_cliente_historial
+    ON ventas(tenant_id, cliente_id, created_at DESC, id DESC)
+    INCLUDE (monto_final)
+    WHERE deleted = false;
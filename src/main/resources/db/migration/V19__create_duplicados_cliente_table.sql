@@ -0,0 +1,44 @@
+-- =====================================================
+-- Migración V19: Detección de clientes duplicados
+-- Descripción: Sugerencias de fusión que produce el proceso nocturno de
+--              detección (bloques por teléfono, parte local del email,
+--              código fonético del nombre y RFC) y referencia del cliente
+--              fusionado al que lo absorbió.
+-- Autor: Kevin
+-- =====================================================
+
+CREATE TABLE IF NOT EXISTS duplicados_cliente (
+    id BIGSERIAL PRIMARY KEY,
+    tenant_id BIGINT NOT NULL REFERENCES tenants(id) ON DELETE CASCADE,
+
+    -- Par ordenado: cliente_id es siempre el menor
+    cliente_id BIGINT NOT NULL REFERENCES clientes(id) ON DELETE CASCADE,
+    duplicado_id BIGINT NOT NULL REFERENCES clientes(id) ON DELETE CASCADE,
+
+    puntaje NUMERIC(5, 4) NOT NULL,
+    coincidencias VARCHAR(100) NOT NULL, -- NOMBRE, TELEFONO, EMAIL, RFC separados por coma
+    estado VARCHAR(20) NOT NULL DEFAULT 'PENDIENTE', -- PENDIENTE, FUSIONADO, DESCARTADO
+
+    detectado_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    resuelto_at TIMESTAMP,
+    resuelto_by VARCHAR(255),
+
+    CONSTRAINT uk_duplicados_cliente_par UNIQUE (tenant_id, cliente_id, duplicado_id),
+    CONSTRAINT chk_duplicados_cliente_orden CHECK (cliente_id < duplicado_id),
+    CONSTRAINT chk_duplicados_cliente_puntaje CHECK (puntaje BETWEEN 0 AND 1),
+    CONSTRAINT chk_duplicados_cliente_estado CHECK (estado IN ('PENDIENTE', 'FUSIONADO', 'DESCARTADO'))
+);
+
+-- Bandeja de revisión: pendientes del tenant del más al menos probable
+CREATE INDEX IF NOT EXISTS idx_duplicados_cliente_pendientes
+    ON duplicados_cliente(tenant_id, puntaje DESC, id)
+    WHERE estado = 'PENDIENTE';
+
+CREATE INDEX IF NOT EXISTS idx_duplicados_cliente_duplicado ON duplicados_cliente(duplicado_id);
+
+COMMENT ON TABLE duplicados_cliente IS 'Pares de clientes probablemente duplicados pendientes de revisión';
+COMMENT ON COLUMN duplicados_cliente.puntaje IS 'Similitud del par entre 0 y 1 (nombre y datos de contacto)';
+
+-- Cliente que absorbió a este al fusionarlos (el fusionado queda con deleted = true)
+ALTER TABLE clientes ADD COLUMN IF NOT EXISTS fusionado_en_id BIGINT REFERENCES clientes(id) ON DELETE SET NULL;
+COMMENT ON COLUMN clientes.fusionado_en_id IS 'Cliente en el que se fusionó este registro duplicado';
@@ -0,0 +1,71 @@
+-- =====================================================
+-- Migración V20: Embudo de ventas (cotización → apartado → venta)
+-- Descripción: Acumulados diarios por proyecto y agente que se actualizan
+--              de forma incremental. Las operaciones de negocio escriben
+--              movimientos (deltas) en la misma transacción y un proceso
+--              los consolida en los acumulados; los reportes leen los
+--              acumulados más los movimientos pendientes, sin recorrer
+--              cotizaciones, apartados ni ventas.
+-- Autor: Kevin
+-- =====================================================
+
+-- Avance de cada cotización en el embudo (primer apartado y primera venta
+-- que se le atribuyeron); evita contar dos veces la misma conversión
+ALTER TABLE cotizaciones ADD COLUMN IF NOT EXISTS apartada_at TIMESTAMP;
+ALTER TABLE cotizaciones ADD COLUMN IF NOT EXISTS vendida_at TIMESTAMP;
+
+-- Movimientos pendientes de consolidar (cola de deltas)
+CREATE TABLE IF NOT EXISTS embudo_movimientos (
+    id BIGSERIAL PRIMARY KEY,
+    tenant_id BIGINT NOT NULL REFERENCES tenants(id) ON DELETE CASCADE,
+    fecha DATE NOT NULL,
+    proyecto_id BIGINT NOT NULL,
+    usuario_id BIGINT NOT NULL DEFAULT 0, -- 0 = sin agente
+    metrica VARCHAR(40) NOT NULL,
+    cantidad INTEGER NOT NULL DEFAULT 1,
+    monto NUMERIC(15, 2) NOT NULL DEFAULT 0,
+    dias INTEGER,                         -- solo en las métricas TIEMPO_*
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_embudo_movimientos_tenant ON embudo_movimientos(tenant_id, fecha);
+
+-- Acumulado diario por proyecto y agente. Las conversiones (apartadas, vendidas,
+-- vencidas, canceladas) se atribuyen a la fecha y agente de la etapa de origen
+CREATE TABLE IF NOT EXISTS embudo_ventas_diario (
+    tenant_id BIGINT NOT NULL REFERENCES tenants(id) ON DELETE CASCADE,
+    fecha DATE NOT NULL,
+    proyecto_id BIGINT NOT NULL,
+    usuario_id BIGINT NOT NULL DEFAULT 0,
+
+    cotizaciones INTEGER NOT NULL DEFAULT 0,
+    cotizaciones_apartadas INTEGER NOT NULL DEFAULT 0,
+    cotizaciones_vendidas INTEGER NOT NULL DEFAULT 0,
+    apartados INTEGER NOT NULL DEFAULT 0,
+    apartados_vendidos INTEGER NOT NULL DEFAULT 0,
+    apartados_vencidos INTEGER NOT NULL DEFAULT 0,
+    apartados_cancelados INTEGER NOT NULL DEFAULT 0,
+    ventas INTEGER NOT NULL DEFAULT 0,
+    ventas_canceladas INTEGER NOT NULL DEFAULT 0,
+    monto_ventas NUMERIC(15, 2) NOT NULL DEFAULT 0, -- neto de ventas canceladas
+
+    PRIMARY KEY (tenant_id, fecha, proyecto_id, usuario_id)
+);
+
+-- Histograma diario de días entre etapas (la mediana sale de sumar histogramas);
+-- fecha es la de la etapa posterior
+CREATE TABLE IF NOT EXISTS embudo_tiempos_diario (
+    tenant_id BIGINT NOT NULL REFERENCES tenants(id) ON DELETE CASCADE,
+    fecha DATE NOT NULL,
+    proyecto_id BIGINT NOT NULL,
+    usuario_id BIGINT NOT NULL DEFAULT 0,
+    transicion VARCHAR(40) NOT NULL, -- TIEMPO_COTIZACION_APARTADO, TIEMPO_APARTADO_VENTA, TIEMPO_COTIZACION_VENTA
+    dias INTEGER NOT NULL,
+    cantidad INTEGER NOT NULL DEFAULT 0,
+
+    PRIMARY KEY (tenant_id, fecha, proyecto_id, usuario_id, transicion, dias)
+);
+
+COMMENT ON TABLE embudo_movimientos IS 'Deltas del embudo de ventas pendientes de consolidar';
+COMMENT ON TABLE embudo_ventas_diario IS 'Acumulado diario del embudo de ventas por proyecto y agente';
+COMMENT ON TABLE embudo_tiempos_diario IS 'Histograma diario de días entre etapas del embudo';
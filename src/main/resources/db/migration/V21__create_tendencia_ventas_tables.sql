@@ -0,0 +1,45 @@
+-- =====================================================
+-- Migración V21: Tendencias de ventas, cobranza y apartados
+-- Descripción: Acumulados por día, semana y mes de cada proyecto que se
+--              actualizan de forma incremental (mismo esquema que el embudo
+--              de ventas: movimientos en la transacción de la operación y
+--              consolidación por bloques). Una gráfica mensual de 3 años es
+--              una lectura por rango de la llave primaria.
+-- Autor: Kevin
+-- =====================================================
+
+-- Movimientos pendientes de consolidar (cola de deltas)
+CREATE TABLE IF NOT EXISTS tendencia_movimientos (
+    id BIGSERIAL PRIMARY KEY,
+    tenant_id BIGINT NOT NULL REFERENCES tenants(id) ON DELETE CASCADE,
+    fecha DATE NOT NULL,
+    proyecto_id BIGINT NOT NULL,
+    metrica VARCHAR(20) NOT NULL,          -- VENTAS, PAGOS, APARTADOS
+    cantidad INTEGER NOT NULL DEFAULT 1,
+    monto NUMERIC(15, 2) NOT NULL DEFAULT 0,
+    comision NUMERIC(15, 2) NOT NULL DEFAULT 0, -- solo en VENTAS
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_tendencia_movimientos_tenant ON tendencia_movimientos(tenant_id, fecha);
+
+-- Acumulado por periodo y proyecto; periodo es el primer día del día, semana (lunes) o mes
+CREATE TABLE IF NOT EXISTS tendencia_ventas (
+    tenant_id BIGINT NOT NULL REFERENCES tenants(id) ON DELETE CASCADE,
+    granularidad VARCHAR(10) NOT NULL,     -- DIA, SEMANA, MES
+    periodo DATE NOT NULL,
+    proyecto_id BIGINT NOT NULL,
+
+    ventas INTEGER NOT NULL DEFAULT 0,                  -- netas de ventas canceladas
+    monto_ventas NUMERIC(15, 2) NOT NULL DEFAULT 0,
+    comisiones NUMERIC(15, 2) NOT NULL DEFAULT 0,
+    pagos INTEGER NOT NULL DEFAULT 0,
+    monto_pagos NUMERIC(15, 2) NOT NULL DEFAULT 0,
+    apartados INTEGER NOT NULL DEFAULT 0,               -- apartados nuevos
+    monto_apartados NUMERIC(15, 2) NOT NULL DEFAULT 0,
+
+    PRIMARY KEY (tenant_id, granularidad, periodo, proyecto_id)
+);
+
+COMMENT ON TABLE tendencia_movimientos IS 'Deltas de las tendencias de ventas pendientes de consolidar';
+COMMENT ON TABLE tendencia_ventas IS 'Ventas, comisiones, cobranza y apartados por día, semana y mes de cada proyecto';
@@ -0,0 +1,15 @@
+-- =====================================================
+-- Migración V22: Cotización de origen de las ventas
+-- Descripción: La entidad Venta y la reconstrucción del embudo de ventas
+--              (V20) leen ventas.cotizacion_id, que no existía en la tabla.
+--              Es opcional: las ventas sin referencia se atribuyen a la
+--              cotización del apartado o a la más reciente del lote.
+-- Autor: Kevin
+-- =====================================================
+
+ALTER TABLE ventas
+ADD COLUMN IF NOT EXISTS cotizacion_id BIGINT REFERENCES cotizaciones(id) ON DELETE SET NULL;
+
+CREATE INDEX IF NOT EXISTS idx_ventas_cotizacion_id ON ventas(cotizacion_id);
+
+COMMENT ON COLUMN ventas.cotizacion_id IS 'Cotización de origen de la venta (opcional)';
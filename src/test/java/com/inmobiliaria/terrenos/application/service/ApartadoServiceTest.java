@@ -2,6 +2,7 @@ package com.inmobiliaria.terrenos.application.service;
 
 import com.inmobiliaria.terrenos.application.dto.apartado.ApartadoResponse;
 import com.inmobiliaria.terrenos.application.dto.apartado.CreateApartadoRequest;
+import com.inmobiliaria.terrenos.application.event.EstadoLoteCambiadoEvent;
 import com.inmobiliaria.terrenos.domain.entity.Apartado;
 import com.inmobiliaria.terrenos.domain.entity.Proyecto;
 import com.inmobiliaria.terrenos.domain.entity.Terreno;
@@ -21,6 +22,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 
 import java.math.BigDecimal;
@@ -46,6 +48,18 @@ class ApartadoServiceTest {
     @Mock
     private ApartadoMapper apartadoMapper;
 
+    @Mock
+    private PlanoVersionService planoVersionService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private EmbudoVentasService embudoVentasService;
+
+    @Mock
+    private TendenciaVentasService tendenciaVentasService;
+
     @InjectMocks
     private ApartadoService apartadoService;
 
@@ -154,8 +168,11 @@ class ApartadoServiceTest {
         assertNotNull(resultado);
         assertEquals(EstadoTerreno.APARTADO, terreno.getEstado()); // Valida que el terreno cambie a APARTADO
         verify(terrenoRepository, times(1)).save(terreno);
+        verify(eventPublisher).publishEvent(new EstadoLoteCambiadoEvent(tenantId, proyectoId, terrenoId, "Lote 1",
+                EstadoTerreno.DISPONIBLE, EstadoTerreno.APARTADO, 0L));
         verify(apartadoRepository, times(1)).save(apartado);
         verify(proyectoRepository, times(1)).save(proyecto);
+        verify(tendenciaVentasService).registrarApartado(apartado, proyectoId);
     }
 
     @Test
@@ -0,0 +1,185 @@
+package com.inmobiliaria.terrenos.application.service;
+
+import com.inmobiliaria.terrenos.application.dto.cliente.ClienteResponse;
+import com.inmobiliaria.terrenos.application.dto.cliente.FusionClientesResponse;
+import com.inmobiliaria.terrenos.application.event.ClienteModificadoEvent;
+import com.inmobiliaria.terrenos.domain.entity.Cliente;
+import com.inmobiliaria.terrenos.domain.enums.TipoAccionAudit;
+import com.inmobiliaria.terrenos.domain.repository.ClienteRepository;
+import com.inmobiliaria.terrenos.infrastructure.busqueda.DetectorDuplicados;
+import com.inmobiliaria.terrenos.infrastructure.persistence.ClienteDuplicadoRepository;
+import com.inmobiliaria.terrenos.infrastructure.tenant.TenantContext;
+import com.inmobiliaria.terrenos.interfaces.mapper.ClienteMapper;
+import com.inmobiliaria.terrenos.shared.exception.BusinessException;
+import com.inmobiliaria.terrenos.shared.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClienteDuplicadoServiceTest {
+
+    @Mock
+    private ClienteRepository clienteRepository;
+
+    @Mock
+    private ClienteDuplicadoRepository clienteDuplicadoRepository;
+
+    @Mock
+    private ClienteMapper clienteMapper;
+
+    @Mock
+    private AuditService auditService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private ClienteDuplicadoService clienteDuplicadoService;
+
+    private final Long tenantId = 1L;
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setTenantId(tenantId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void detectar_GuardaLosParesYEliminaLasPendientesObsoletas() {
+        when(clienteDuplicadoRepository.fichas(tenantId)).thenReturn(List.of(
+                new DetectorDuplicados.Ficha(5, "Laura", "Méndez", "laura.mendez@mail.com", "5512345678", null, null),
+                new DetectorDuplicados.Ficha(9, "Laura", "Mendez", null, "55-1234-5678", null, null),
+                new DetectorDuplicados.Ficha(12, "Pedro", "Ortiz", null, "3311112222", null, null)));
+        when(clienteDuplicadoRepository.eliminarObsoletas(eq(tenantId), any())).thenReturn(2);
+
+        ClienteDuplicadoService.ResultadoDeteccion resultado = clienteDuplicadoService.detectar(tenantId, 0.8, 1000);
+
+        ArgumentCaptor<Collection<DetectorDuplicados.Par>> pares = ArgumentCaptor.forClass(Collection.class);
+        verify(clienteDuplicadoRepository).guardarSugerencias(eq(tenantId), pares.capture(), any());
+        DetectorDuplicados.Par par = pares.getValue().iterator().next();
+        assertEquals(1, pares.getValue().size());
+        assertEquals(5L, par.clienteId());
+        assertEquals(9L, par.duplicadoId());
+
+        assertEquals(3, resultado.clientes());
+        assertEquals(1, resultado.sugerencias());
+        assertEquals(2, resultado.obsoletas());
+    }
+
+    @Test
+    void fusionar_ReasignaTransaccionesYEliminaElDuplicado() {
+        Cliente cliente = cliente(5L, null, "5512345678");
+        Cliente duplicado = cliente(9L, "laura@mail.com", "5598765432");
+        duplicado.setRfc("MELA800101AB1");
+        when(clienteRepository.findByIdParaFusionar(5L, tenantId)).thenReturn(Optional.of(cliente));
+        when(clienteRepository.findByIdParaFusionar(9L, tenantId)).thenReturn(Optional.of(duplicado));
+        when(clienteDuplicadoRepository.reasignar(eq(tenantId), eq(9L), eq(5L), anyString(), any()))
+                .thenReturn(new ClienteDuplicadoRepository.Reasignacion(3, 1, 1, 1, 6));
+        when(clienteRepository.save(cliente)).thenReturn(cliente);
+        when(clienteMapper.toResponse(cliente)).thenReturn(ClienteResponse.builder().id(5L).build());
+
+        FusionClientesResponse respuesta = clienteDuplicadoService.fusionar(5L, 9L);
+
+        assertTrue(duplicado.getDeleted());
+        assertEquals(5L, duplicado.getFusionadoEnId());
+        // El email pasa al conservado después de liberarse en el duplicado (único por tenant)
+        assertNull(duplicado.getEmail());
+        assertEquals("laura@mail.com", cliente.getEmail());
+        assertEquals("5598765432", cliente.getTelefonoSecundario());
+        assertEquals("MELA800101AB1", cliente.getRfc());
+        InOrder orden = inOrder(clienteRepository);
+        orden.verify(clienteRepository).saveAndFlush(duplicado);
+        orden.verify(clienteRepository).save(cliente);
+
+        verify(clienteDuplicadoRepository).registrarFusion(eq(tenantId), eq(5L), eq(9L), anyString(), any());
+        verify(auditService).registrarAccionSimple(eq(TipoAccionAudit.CLIENTS_MERGED), anyString(), anyMap());
+        verify(eventPublisher).publishEvent(ClienteModificadoEvent.eliminado(tenantId, 9L));
+        verify(eventPublisher).publishEvent(ClienteModificadoEvent.guardado(cliente));
+
+        assertEquals(5L, respuesta.getCliente().getId());
+        assertEquals(3, respuesta.getCotizacionesReasignadas());
+        assertEquals(6, respuesta.getPagosReasignados());
+    }
+
+    @Test
+    void fusionar_MismoCliente_LanzaExcepcion() {
+        assertThrows(BusinessException.class, () -> clienteDuplicadoService.fusionar(5L, 5L));
+
+        verifyNoInteractions(clienteDuplicadoRepository);
+    }
+
+    @Test
+    void fusionar_DuplicadoInexistente_NoReasigna() {
+        when(clienteRepository.findByIdParaFusionar(5L, tenantId))
+                .thenReturn(Optional.of(cliente(5L, null, "5512345678")));
+        when(clienteRepository.findByIdParaFusionar(9L, tenantId)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> clienteDuplicadoService.fusionar(5L, 9L));
+
+        verifyNoInteractions(clienteDuplicadoRepository);
+        verify(clienteRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void fusionar_FusionCruzadaYaAplicada_BloqueaEnOrdenDeIdYNoReasigna() {
+        // fusionar(5, 9) ya se confirmó: el 9 quedó eliminado cuando esta fusión obtiene el bloqueo
+        when(clienteRepository.findByIdParaFusionar(5L, tenantId))
+                .thenReturn(Optional.of(cliente(5L, null, "5512345678")));
+        when(clienteRepository.findByIdParaFusionar(9L, tenantId)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> clienteDuplicadoService.fusionar(9L, 5L));
+
+        InOrder orden = inOrder(clienteRepository);
+        orden.verify(clienteRepository).findByIdParaFusionar(5L, tenantId);
+        orden.verify(clienteRepository).findByIdParaFusionar(9L, tenantId);
+        verifyNoInteractions(clienteDuplicadoRepository);
+        verify(clienteRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void descartarSugerencia_YaResuelta_LanzaNotFound() {
+        when(clienteDuplicadoRepository.descartar(eq(tenantId), eq(40L), anyString(), any())).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> clienteDuplicadoService.descartarSugerencia(40L));
+    }
+
+    @Test
+    void listarSugerencias_LimiteFueraDeRango_LanzaExcepcion() {
+        assertThrows(BusinessException.class, () -> clienteDuplicadoService.listarSugerencias(0));
+        assertThrows(BusinessException.class, () -> clienteDuplicadoService.listarSugerencias(201));
+
+        verifyNoInteractions(clienteDuplicadoRepository);
+    }
+
+    private Cliente cliente(Long id, String email, String telefono) {
+        return Cliente.builder()
+                .id(id)
+                .tenantId(tenantId)
+                .nombre("Laura")
+                .apellido("Méndez")
+                .email(email)
+                .telefono(telefono)
+                .build();
+    }
+}
@@ -0,0 +1,252 @@
+package com.inmobiliaria.terrenos.application.service;
+
+import com.inmobiliaria.terrenos.application.dto.cliente.ResultadoImportacionClientesResponse;
+import com.inmobiliaria.terrenos.application.event.ClientesImportadosEvent;
+import com.inmobiliaria.terrenos.domain.enums.EstadoCliente;
+import com.inmobiliaria.terrenos.domain.enums.OrigenCliente;
+import com.inmobiliaria.terrenos.domain.repository.ClienteRepository;
+import com.inmobiliaria.terrenos.infrastructure.importacion.ReportesImportacion;
+import com.inmobiliaria.terrenos.infrastructure.persistence.ClienteBatchWriter;
+import com.inmobiliaria.terrenos.infrastructure.tenant.TenantContext;
+import com.inmobiliaria.terrenos.shared.exception.BusinessException;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClienteImportacionServiceTest {
+
+    @Mock
+    private ClienteRepository clienteRepository;
+
+    @Mock
+    private ClienteBatchWriter clienteBatchWriter;
+
+    @Mock
+    private ReportesImportacion reportesImportacion;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @InjectMocks
+    private ClienteImportacionService importacionService;
+
+    @TempDir
+    Path directorio;
+
+    private final Long tenantId = 1L;
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setTenantId(tenantId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importar_CsvConErrores_InsertaValidasYEscribeElReporte() throws Exception {
+        when(clienteRepository.findIdEmailYRfc(tenantId)).thenReturn(List.of(
+                new Object[]{10L, "Ana.Ruiz@mail.com", null, false},
+                new Object[]{11L, "baja@mail.com", "BAJA800101AB1", true}));
+        Path archivoReporte = directorio.resolve("reporte.csv");
+        when(reportesImportacion.nuevo(tenantId)).thenReturn(new ReportesImportacion.Reporte("r-1", archivoReporte));
+        when(clienteBatchWriter.insertar(eq(tenantId), anyString(), anyCollection()))
+                .thenAnswer(inv -> ((Collection<?>) inv.getArgument(2)).size());
+        when(clienteBatchWriter.actualizar(eq(tenantId), anyString(), anyCollection())).thenReturn(0);
+
+        String csv = """
+                Nombre;Apellidos;Correo;Teléfono;RFC;Fecha de nacimiento;Origen
+                Luis;Pérez;luis@mail.com;55 1234 5678;pela800101ab1;15/03/1980;redes sociales
+                Ana;Ruiz;ana.ruiz@MAIL.com;5511111111;;;
+                Marta;Díaz;baja@mail.com;5522222222;;;
+                Pedro;Soto;LUIS@mail.com;5533333333;;;
+                Sin;Telefono;sin@mail.com;;XXX;;
+                Rosa;Lima;;5544444444;BAJA800101AB1;;
+                """;
+
+        ResultadoImportacionClientesResponse resultado = importacionService.importar(csv(csv), false, false);
+
+        assertEquals(6, resultado.getFilasLeidas());
+        assertEquals(2, resultado.getValidas());
+        assertEquals(2, resultado.getInsertados());
+        assertEquals(4, resultado.getConErrores());
+        assertEquals(List.of(3L, 4L, 5L, 6L),
+                resultado.getErrores().stream().map(ResultadoImportacionClientesResponse.ErrorFila::getFila).toList());
+        assertTrue(resultado.getErrores().get(0).getMensajes().get(0).contains("Ya existe"));
+        assertTrue(resultado.getErrores().get(1).getMensajes().get(0).contains("eliminado"));
+        assertTrue(resultado.getErrores().get(2).getMensajes().get(0).contains("fila 2"));
+        assertEquals(2, resultado.getErrores().get(3).getMensajes().size());  // sin teléfono y RFC inválido
+        assertEquals("r-1", resultado.getReporteErroresId());
+
+        // El RFC de un cliente eliminado sí puede reutilizarse
+        ArgumentCaptor<Collection<ClienteBatchWriter.ClienteImportado>> clientes = ArgumentCaptor.forClass(Collection.class);
+        verify(clienteBatchWriter).insertar(eq(tenantId), anyString(), clientes.capture());
+        List<ClienteBatchWriter.ClienteImportado> insertados = List.copyOf(clientes.getValue());
+        ClienteBatchWriter.ClienteImportado primero = insertados.get(0);
+        assertEquals("PELA800101AB1", primero.rfc());
+        assertEquals(LocalDate.of(1980, 3, 15), primero.fechaNacimiento());
+        assertEquals(OrigenCliente.REDES_SOCIALES, primero.origen());
+        assertEquals("Rosa", insertados.get(1).nombre());
+
+        List<String> reporte = Files.readAllLines(archivoReporte, StandardCharsets.UTF_8);
+        assertEquals(5, reporte.size());
+        assertTrue(reporte.get(0).endsWith("fila;Nombre;Apellidos;Correo;Teléfono;RFC;Fecha de nacimiento;Origen;errores"));
+        assertTrue(reporte.get(1).startsWith("3;Ana;Ruiz;ana.ruiz@MAIL.com;"));
+
+        verify(eventPublisher).publishEvent(new ClientesImportadosEvent(tenantId, 2, 0));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importar_ActualizarExistentes_ActualizaPorEmailORfc() {
+        when(clienteRepository.findIdEmailYRfc(tenantId)).thenReturn(List.of(
+                new Object[]{10L, "ana@mail.com", null, false},
+                new Object[]{20L, null, "PELA800101AB1", false}));
+        when(reportesImportacion.nuevo(tenantId))
+                .thenReturn(new ReportesImportacion.Reporte("r-2", directorio.resolve("reporte.csv")));
+        when(clienteBatchWriter.insertar(eq(tenantId), anyString(), anyCollection())).thenReturn(0);
+        when(clienteBatchWriter.actualizar(eq(tenantId), anyString(), anyCollection()))
+                .thenAnswer(inv -> ((Collection<?>) inv.getArgument(2)).size());
+
+        String csv = """
+                nombre,apellido,email,telefono,rfc,estado_cliente
+                Ana,Ruiz,ana@mail.com,5511111111,,interesado
+                Luis,Pérez,,5522222222,PELA800101AB1,
+                Ana,Ruiz,ana@mail.com,5511111111,,
+                Otra,Persona,ana@mail.com,5533333333,PELA800101AB1,
+                """;
+
+        ResultadoImportacionClientesResponse resultado = importacionService.importar(csv(csv), false, true);
+
+        assertEquals(2, resultado.getActualizados());
+        assertEquals(0, resultado.getInsertados());
+        assertEquals(2, resultado.getConErrores());
+        assertTrue(resultado.getErrores().get(0).getMensajes().get(0).contains("fila 2"));
+        assertTrue(resultado.getErrores().get(1).getMensajes().get(0).contains("fila 2"));
+
+        ArgumentCaptor<Collection<ClienteBatchWriter.ClienteImportado>> clientes = ArgumentCaptor.forClass(Collection.class);
+        verify(clienteBatchWriter).actualizar(eq(tenantId), anyString(), clientes.capture());
+        List<ClienteBatchWriter.ClienteImportado> actualizados = List.copyOf(clientes.getValue());
+        assertEquals(10L, actualizados.get(0).id());
+        assertEquals(EstadoCliente.INTERESADO, actualizados.get(0).estadoCliente());
+        assertEquals(20L, actualizados.get(1).id());
+    }
+
+    @Test
+    void importar_EmailYRfcDeClientesDistintos_ReportaConflicto() {
+        when(clienteRepository.findIdEmailYRfc(tenantId)).thenReturn(List.of(
+                new Object[]{10L, "ana@mail.com", null, false},
+                new Object[]{20L, null, "PELA800101AB1", false}));
+        when(reportesImportacion.nuevo(tenantId))
+                .thenReturn(new ReportesImportacion.Reporte("r-3", directorio.resolve("reporte.csv")));
+
+        ResultadoImportacionClientesResponse resultado = importacionService.importar(
+                csv("nombre,apellido,email,telefono,rfc\nAna,Ruiz,ana@mail.com,5511111111,PELA800101AB1\n"), false, true);
+
+        assertEquals(1, resultado.getConErrores());
+        assertTrue(resultado.getErrores().get(0).getMensajes().get(0).contains("clientes distintos"));
+    }
+
+    @Test
+    void importar_MilFilas_InsertaPorBloques() {
+        when(clienteRepository.findIdEmailYRfc(tenantId)).thenReturn(List.of());
+        when(clienteBatchWriter.insertar(eq(tenantId), anyString(), anyCollection()))
+                .thenAnswer(inv -> ((Collection<?>) inv.getArgument(2)).size());
+
+        StringBuilder csv = new StringBuilder("nombre,apellido,email,telefono\n");
+        for (int i = 1; i <= 1_200; i++) {
+            csv.append("Cliente,").append(i).append(",cliente").append(i).append("@mail.com,55").append(10_000_000 + i).append('\n');
+        }
+
+        ResultadoImportacionClientesResponse resultado = importacionService.importar(csv(csv.toString()), false, false);
+
+        assertEquals(1_200, resultado.getInsertados());
+        assertEquals(0, resultado.getConErrores());
+        assertNull(resultado.getReporteErroresId());
+        verify(clienteBatchWriter, times(3)).insertar(eq(tenantId), anyString(), anyCollection());
+        verifyNoInteractions(reportesImportacion);
+    }
+
+    @Test
+    void importar_SoloValidar_NoEscribe() {
+        when(clienteRepository.findIdEmailYRfc(tenantId)).thenReturn(List.of());
+
+        ResultadoImportacionClientesResponse resultado = importacionService.importar(
+                csv("nombre,apellido,telefono\nLuis,Pérez,5511111111\n"), true, false);
+
+        assertEquals(1, resultado.getValidas());
+        assertEquals(0, resultado.getInsertados());
+        verifyNoInteractions(clienteBatchWriter);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void importar_ReglasDeCreateClienteRequest_UnErrorPorCampo() {
+        when(clienteRepository.findIdEmailYRfc(tenantId)).thenReturn(List.of());
+        when(reportesImportacion.nuevo(tenantId))
+                .thenReturn(new ReportesImportacion.Reporte("r-2", directorio.resolve("reporte.csv")));
+
+        String csv = """
+                nombre,apellido,email,telefono,curp,fecha_nacimiento
+                Luis,Pérez,luis.mail.com,55-AB,LOOA531113HTCPBN07,
+                Ana,%s,ana@mail.com,5511111111,XYZ,01/01/2999
+                """.formatted("R".repeat(101));
+
+        ResultadoImportacionClientesResponse resultado = importacionService.importar(csv(csv), true, false);
+
+        assertEquals(0, resultado.getValidas());
+        assertEquals(List.of("El email debe ser válido",
+                        "El teléfono solo puede contener números, +, -, espacios y paréntesis"),
+                resultado.getErrores().get(0).getMensajes());
+        // Un error por campo aunque el CURP viole el tamaño y el formato
+        assertEquals(List.of("El apellido no puede exceder 100 caracteres",
+                        "El CURP debe tener 18 caracteres",
+                        "La fecha de nacimiento debe ser en el pasado"),
+                resultado.getErrores().get(1).getMensajes());
+    }
+
+    @Test
+    void importar_SinColumnaObligatoria_LanzaExcepcion() {
+        when(clienteRepository.findIdEmailYRfc(tenantId)).thenReturn(List.of());
+
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> importacionService.importar(csv("nombre,email\nLuis,luis@mail.com\n"), false, false));
+
+        assertTrue(ex.getMessage().contains("apellido"));
+        assertTrue(ex.getMessage().contains("telefono"));
+        verifyNoInteractions(clienteBatchWriter);
+    }
+
+    private MockMultipartFile csv(String contenido) {
+        return new MockMultipartFile("file", "clientes.csv", "text/csv", contenido.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,166 @@
+package com.inmobiliaria.terrenos.application.service;
+
+import com.inmobiliaria.terrenos.application.dto.cotizacion.CotizacionResponse;
+import com.inmobiliaria.terrenos.application.dto.cotizacion.CreateCotizacionRequest;
+import com.inmobiliaria.terrenos.application.dto.descuento.PrecioLoteResponse;
+import com.inmobiliaria.terrenos.application.event.DescuentosModificadosEvent;
+import com.inmobiliaria.terrenos.domain.entity.Cotizacion;
+import com.inmobiliaria.terrenos.domain.entity.Terreno;
+import com.inmobiliaria.terrenos.domain.repository.CotizacionRepository;
+import com.inmobiliaria.terrenos.domain.repository.DescuentoRepository;
+import com.inmobiliaria.terrenos.domain.repository.TerrenoRepository;
+import com.inmobiliaria.terrenos.infrastructure.persistence.ClienteBusquedaRepository;
+import com.inmobiliaria.terrenos.infrastructure.precio.DescuentosCache;
+import com.inmobiliaria.terrenos.infrastructure.tenant.TenantContext;
+import com.inmobiliaria.terrenos.interfaces.mapper.CotizacionMapper;
+import com.inmobiliaria.terrenos.shared.exception.BusinessException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CotizacionServiceTest {
+
+    @Mock
+    private CotizacionRepository cotizacionRepository;
+
+    @Mock
+    private TerrenoRepository terrenoRepository;
+
+    @Mock
+    private CotizacionMapper cotizacionMapper;
+
+    @Mock
+    private PrecioLoteService precioLoteService;
+
+    @Mock
+    private ClienteBusquedaRepository clienteBusquedaRepository;
+
+    @Mock
+    private EmbudoVentasService embudoVentasService;
+
+    @Mock
+    private DescuentoRepository descuentoRepository;
+
+    @Mock
+    private DescuentosCache descuentosCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private CotizacionService cotizacionService;
+
+    private final Long tenantId = 1L;
+    private final Long descuentoId = 70L;
+    private Terreno terreno;
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setTenantId(tenantId);
+        terreno = Terreno.builder().id(10L).tenantId(tenantId).proyectoId(200L).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void crearCotizacion_ConCodigo_ConsumeUnUsoDelDescuentoAplicado() {
+        prepararCotizacion();
+        when(descuentoRepository.consumirUso(tenantId, descuentoId)).thenReturn(1);
+
+        cotizacionService.crearCotizacion(solicitud());
+
+        verify(descuentoRepository).consumirUso(tenantId, descuentoId);
+        verify(eventPublisher).publishEvent(new DescuentosModificadosEvent(tenantId));
+        verify(cotizacionRepository).save(any(Cotizacion.class));
+    }
+
+    @Test
+    void crearCotizacion_UsoSiguienteAlMaximo_Lanza409() {
+        prepararCotizacion();
+        int usosMaximos = 3;
+        // Simula el UPDATE condicional sobre usos_actuales
+        AtomicInteger usosActuales = new AtomicInteger();
+        when(descuentoRepository.consumirUso(tenantId, descuentoId)).thenAnswer(invocacion -> {
+            if (usosActuales.get() >= usosMaximos) {
+                return 0;
+            }
+            usosActuales.incrementAndGet();
+            return 1;
+        });
+
+        for (int i = 0; i < usosMaximos; i++) {
+            cotizacionService.crearCotizacion(solicitud());
+        }
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> cotizacionService.crearCotizacion(solicitud()));
+
+        assertEquals(HttpStatus.CONFLICT, ex.getStatus());
+        assertEquals(usosMaximos, usosActuales.get());
+        verify(cotizacionRepository, times(usosMaximos)).save(any(Cotizacion.class));
+        verify(descuentosCache).invalidar(tenantId);
+    }
+
+    @Test
+    void crearCotizacion_CodigoSinDescuentoAplicado_NoConsumeUsos() {
+        prepararCotizacion(PrecioLoteResponse.builder()
+                .precioLista(new BigDecimal("100000.00"))
+                .montoDescuento(BigDecimal.ZERO)
+                .porcentajeDescuento(BigDecimal.ZERO)
+                .precioFinal(new BigDecimal("100000.00"))
+                .codigoAplicable(true)
+                .build());
+
+        cotizacionService.crearCotizacion(solicitud());
+
+        verifyNoInteractions(descuentoRepository, eventPublisher);
+    }
+
+    private void prepararCotizacion() {
+        prepararCotizacion(PrecioLoteResponse.builder()
+                .precioLista(new BigDecimal("100000.00"))
+                .descuentoId(descuentoId)
+                .montoDescuento(new BigDecimal("10000.00"))
+                .porcentajeDescuento(new BigDecimal("10.00"))
+                .precioFinal(new BigDecimal("90000.00"))
+                .codigoAplicable(true)
+                .build());
+    }
+
+    private void prepararCotizacion(PrecioLoteResponse precio) {
+        when(terrenoRepository.findByIdAndTenantIdAndDeletedFalse(10L, tenantId)).thenReturn(Optional.of(terreno));
+        when(cotizacionMapper.toEntity(any(CreateCotizacionRequest.class))).thenAnswer(i -> new Cotizacion());
+        when(precioLoteService.cotizar(tenantId, terreno, "PROMO10")).thenReturn(precio);
+        lenient().when(cotizacionRepository.save(any(Cotizacion.class))).thenAnswer(i -> i.getArgument(0));
+        lenient().when(cotizacionMapper.toResponse(any(Cotizacion.class))).thenReturn(new CotizacionResponse());
+    }
+
+    private static CreateCotizacionRequest solicitud() {
+        return CreateCotizacionRequest.builder()
+                .terrenoId(10L)
+                .clienteNombre("Ana López")
+                .precioBase(new BigDecimal("100000.00"))
+                .precioFinal(new BigDecimal("100000.00"))
+                .codigoDescuento("PROMO10")
+                .fechaVigencia(LocalDate.now().plusDays(15))
+                .build();
+    }
+}
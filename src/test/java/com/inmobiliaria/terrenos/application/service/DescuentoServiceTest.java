@@ -0,0 +1,147 @@
+package com.inmobiliaria.terrenos.application.service;
+
+import com.inmobiliaria.terrenos.application.dto.descuento.DescuentoRequest;
+import com.inmobiliaria.terrenos.application.event.DescuentosModificadosEvent;
+import com.inmobiliaria.terrenos.domain.entity.Descuento;
+import com.inmobiliaria.terrenos.domain.entity.Fase;
+import com.inmobiliaria.terrenos.domain.entity.Proyecto;
+import com.inmobiliaria.terrenos.domain.enums.TipoDescuento;
+import com.inmobiliaria.terrenos.domain.repository.DescuentoRepository;
+import com.inmobiliaria.terrenos.domain.repository.FaseRepository;
+import com.inmobiliaria.terrenos.domain.repository.ProyectoRepository;
+import com.inmobiliaria.terrenos.domain.repository.TerrenoRepository;
+import com.inmobiliaria.terrenos.infrastructure.tenant.TenantContext;
+import com.inmobiliaria.terrenos.interfaces.mapper.DescuentoMapper;
+import com.inmobiliaria.terrenos.shared.exception.BusinessException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DescuentoServiceTest {
+
+    @Mock
+    private DescuentoRepository descuentoRepository;
+
+    @Mock
+    private ProyectoRepository proyectoRepository;
+
+    @Mock
+    private FaseRepository faseRepository;
+
+    @Mock
+    private TerrenoRepository terrenoRepository;
+
+    @Mock
+    private DescuentoMapper descuentoMapper;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private DescuentoService descuentoService;
+
+    private final Long tenantId = 1L;
+    private final Long proyectoId = 200L;
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setTenantId(tenantId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void crearDescuento_NormalizaCodigoYPublicaEvento() {
+        DescuentoRequest request = request(TipoDescuento.PORCENTAJE, "10");
+        request.setCodigo(" feria26 ");
+        request.setAplicaAFases(List.of(7L, 7L));
+        when(descuentoRepository.existsCodigoActivo(tenantId, "feria26", null)).thenReturn(false);
+        when(proyectoRepository.findByIdAndTenantIdAndDeletedFalse(proyectoId, tenantId))
+                .thenReturn(Optional.of(Proyecto.builder().id(proyectoId).tenantId(tenantId).build()));
+        when(faseRepository.findByTenantIdAndProyectoIdAndDeletedFalse(tenantId, proyectoId))
+                .thenReturn(List.of(Fase.builder().id(7L).proyectoId(proyectoId).build()));
+        when(descuentoMapper.toEntity(request)).thenAnswer(inv -> Descuento.builder()
+                .proyectoId(proyectoId)
+                .codigo(request.getCodigo())
+                .aplicaAFases(request.getAplicaAFases())
+                .build());
+        when(descuentoRepository.save(any(Descuento.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        descuentoService.crearDescuento(request);
+
+        verify(descuentoRepository).save(argThat(d -> "FERIA26".equals(d.getCodigo())
+                && d.getTenantId().equals(tenantId) && d.getAplicaAFases().equals(List.of(7L))));
+        verify(eventPublisher).publishEvent(new DescuentosModificadosEvent(tenantId));
+    }
+
+    @Test
+    void crearDescuento_PorcentajeMayorA100_LanzaExcepcion() {
+        DescuentoRequest request = request(TipoDescuento.PORCENTAJE, "120");
+
+        assertThrows(BusinessException.class, () -> descuentoService.crearDescuento(request));
+        verify(descuentoRepository, never()).save(any());
+    }
+
+    @Test
+    void crearDescuento_TerrenosSinProyecto_LanzaExcepcion() {
+        DescuentoRequest request = request(TipoDescuento.MONTO_FIJO, "15000");
+        request.setProyectoId(null);
+        request.setAplicaATerrenos(List.of(100L));
+
+        assertThrows(BusinessException.class, () -> descuentoService.crearDescuento(request));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void crearDescuento_FaseDeOtroProyecto_LanzaExcepcion() {
+        DescuentoRequest request = request(TipoDescuento.PORCENTAJE, "5");
+        request.setAplicaAFases(List.of(9L));
+        when(proyectoRepository.findByIdAndTenantIdAndDeletedFalse(proyectoId, tenantId))
+                .thenReturn(Optional.of(Proyecto.builder().id(proyectoId).tenantId(tenantId).build()));
+        when(faseRepository.findByTenantIdAndProyectoIdAndDeletedFalse(tenantId, proyectoId))
+                .thenReturn(List.of(Fase.builder().id(7L).proyectoId(proyectoId).build()));
+
+        assertThrows(BusinessException.class, () -> descuentoService.crearDescuento(request));
+    }
+
+    @Test
+    void desactivarDescuento_MarcaInactivoYPublicaEvento() {
+        Descuento descuento = Descuento.builder().id(5L).tenantId(tenantId).build();
+        when(descuentoRepository.findByIdAndTenantId(5L, tenantId)).thenReturn(Optional.of(descuento));
+
+        descuentoService.desactivarDescuento(5L);
+
+        assertFalse(descuento.getActivo());
+        verify(descuentoRepository).save(descuento);
+        verify(eventPublisher).publishEvent(new DescuentosModificadosEvent(tenantId));
+    }
+
+    private DescuentoRequest request(TipoDescuento tipo, String valor) {
+        return DescuentoRequest.builder()
+                .proyectoId(proyectoId)
+                .nombre("Preventa")
+                .tipo(tipo)
+                .valor(new BigDecimal(valor))
+                .fechaInicio(LocalDate.now())
+                .fechaFin(LocalDate.now().plusMonths(1))
+                .build();
+    }
+}
@@ -0,0 +1,242 @@
+package com.inmobiliaria.terrenos.application.service;
+
+import com.inmobiliaria.terrenos.application.dto.reporte.EmbudoVentasResponse;
+import com.inmobiliaria.terrenos.domain.entity.Apartado;
+import com.inmobiliaria.terrenos.domain.entity.Cotizacion;
+import com.inmobiliaria.terrenos.domain.entity.MovimientoEmbudo;
+import com.inmobiliaria.terrenos.domain.entity.Proyecto;
+import com.inmobiliaria.terrenos.domain.entity.Terreno;
+import com.inmobiliaria.terrenos.domain.entity.Venta;
+import com.inmobiliaria.terrenos.domain.enums.AgrupacionEmbudo;
+import com.inmobiliaria.terrenos.domain.enums.EstadoVenta;
+import com.inmobiliaria.terrenos.domain.enums.MetricaEmbudo;
+import com.inmobiliaria.terrenos.domain.repository.CotizacionRepository;
+import com.inmobiliaria.terrenos.domain.repository.MovimientoEmbudoRepository;
+import com.inmobiliaria.terrenos.domain.repository.ProyectoRepository;
+import com.inmobiliaria.terrenos.domain.repository.TerrenoRepository;
+import com.inmobiliaria.terrenos.domain.repository.UsuarioRepository;
+import com.inmobiliaria.terrenos.infrastructure.persistence.EmbudoVentasRepository;
+import com.inmobiliaria.terrenos.infrastructure.tenant.TenantContext;
+import com.inmobiliaria.terrenos.shared.exception.BusinessException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmbudoVentasServiceTest {
+
+    @Mock
+    private MovimientoEmbudoRepository movimientoEmbudoRepository;
+
+    @Mock
+    private EmbudoVentasRepository embudoVentasRepository;
+
+    @Mock
+    private CotizacionRepository cotizacionRepository;
+
+    @Mock
+    private TerrenoRepository terrenoRepository;
+
+    @Mock
+    private ProyectoRepository proyectoRepository;
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @InjectMocks
+    private EmbudoVentasService embudoVentasService;
+
+    @Captor
+    private ArgumentCaptor<List<MovimientoEmbudo>> movimientos;
+
+    private final Long tenantId = 1L;
+    private final LocalDate hoy = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setTenantId(tenantId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void registrarApartado_ConCotizacion_RegistraConversionYTiempo() {
+        Cotizacion cotizacion = cotizacion(5L, 7L, hoy.minusDays(10));
+        when(cotizacionRepository.findByIdAndTenantIdAndDeletedFalse(5L, tenantId)).thenReturn(Optional.of(cotizacion));
+
+        Apartado apartado = Apartado.builder().tenantId(tenantId).terrenoId(50L).cotizacionId(5L)
+                .usuarioId(8L).fechaApartado(hoy).build();
+
+        embudoVentasService.registrarApartado(apartado, 10L);
+
+        verify(movimientoEmbudoRepository).saveAll(movimientos.capture());
+        List<MovimientoEmbudo> guardados = movimientos.getValue();
+        assertEquals(3, guardados.size());
+        assertMovimiento(guardados.get(0), MetricaEmbudo.APARTADOS, hoy, 8L);
+        // La conversión cuenta en la fecha y agente de la cotización
+        assertMovimiento(guardados.get(1), MetricaEmbudo.COTIZACIONES_APARTADAS, hoy.minusDays(10), 7L);
+        assertMovimiento(guardados.get(2), MetricaEmbudo.TIEMPO_COTIZACION_APARTADO, hoy, 7L);
+        assertEquals(10, guardados.get(2).getDias());
+        assertNotNull(cotizacion.getApartadaAt());
+        verify(cotizacionRepository).save(cotizacion);
+    }
+
+    @Test
+    void registrarApartado_CotizacionYaApartada_NoDuplicaConversion() {
+        Cotizacion cotizacion = cotizacion(5L, 7L, hoy.minusDays(10));
+        cotizacion.setApartadaAt(hoy.minusDays(3).atStartOfDay());
+        when(cotizacionRepository.findFirstByTenantIdAndTerrenoIdAndDeletedFalseOrderByCreatedAtDescIdDesc(tenantId, 50L))
+                .thenReturn(Optional.of(cotizacion));
+
+        Apartado apartado = Apartado.builder().tenantId(tenantId).terrenoId(50L).fechaApartado(hoy).build();
+
+        embudoVentasService.registrarApartado(apartado, 10L);
+
+        verify(movimientoEmbudoRepository).saveAll(movimientos.capture());
+        assertEquals(1, movimientos.getValue().size());
+        assertMovimiento(movimientos.getValue().get(0), MetricaEmbudo.APARTADOS, hoy, 0L);
+        verify(cotizacionRepository, never()).save(any());
+    }
+
+    @Test
+    void registrarVenta_DesdeApartado_RegistraConversionesDeApartadoYCotizacion() {
+        Cotizacion cotizacion = cotizacion(5L, 7L, hoy.minusDays(20));
+        when(cotizacionRepository.findByIdAndTenantIdAndDeletedFalse(5L, tenantId)).thenReturn(Optional.of(cotizacion));
+
+        Apartado apartado = Apartado.builder().id(200L).tenantId(tenantId).terrenoId(50L).cotizacionId(5L)
+                .usuarioId(8L).fechaApartado(hoy.minusDays(4)).build();
+        Venta venta = Venta.builder().tenantId(tenantId).terrenoId(50L).apartadoId(200L).usuarioId(9L)
+                .fechaVenta(hoy).montoFinal(new BigDecimal("250000.00")).build();
+
+        embudoVentasService.registrarVenta(venta, 10L, apartado);
+
+        verify(movimientoEmbudoRepository).saveAll(movimientos.capture());
+        List<MovimientoEmbudo> guardados = movimientos.getValue();
+        assertEquals(5, guardados.size());
+        assertMovimiento(guardados.get(0), MetricaEmbudo.VENTAS, hoy, 9L);
+        assertEquals(new BigDecimal("250000.00"), guardados.get(0).getMonto());
+        assertMovimiento(guardados.get(1), MetricaEmbudo.APARTADOS_VENDIDOS, hoy.minusDays(4), 8L);
+        assertMovimiento(guardados.get(2), MetricaEmbudo.TIEMPO_APARTADO_VENTA, hoy, 8L);
+        assertEquals(4, guardados.get(2).getDias());
+        assertMovimiento(guardados.get(3), MetricaEmbudo.COTIZACIONES_VENDIDAS, hoy.minusDays(20), 7L);
+        assertMovimiento(guardados.get(4), MetricaEmbudo.TIEMPO_COTIZACION_VENTA, hoy, 7L);
+        assertEquals(20, guardados.get(4).getDias());
+        assertNotNull(cotizacion.getVendidaAt());
+    }
+
+    @Test
+    void registrarCambioEstadoVenta_Cancelada_RestaMonto() {
+        when(terrenoRepository.findById(50L)).thenReturn(Optional.of(Terreno.builder().id(50L).proyectoId(10L).build()));
+        Venta venta = Venta.builder().tenantId(tenantId).terrenoId(50L).usuarioId(9L).fechaVenta(hoy.minusDays(2))
+                .montoFinal(new BigDecimal("100.00")).estado(EstadoVenta.CANCELADA).build();
+
+        embudoVentasService.registrarCambioEstadoVenta(venta, EstadoVenta.PENDIENTE);
+
+        ArgumentCaptor<MovimientoEmbudo> movimiento = ArgumentCaptor.forClass(MovimientoEmbudo.class);
+        verify(movimientoEmbudoRepository).save(movimiento.capture());
+        assertMovimiento(movimiento.getValue(), MetricaEmbudo.VENTAS_CANCELADAS, hoy.minusDays(2), 9L);
+        assertEquals(1, movimiento.getValue().getCantidad());
+        assertEquals(new BigDecimal("-100.00"), movimiento.getValue().getMonto());
+    }
+
+    @Test
+    void registrarCambioEstadoVenta_SinCambioDeCancelacion_NoRegistra() {
+        Venta venta = Venta.builder().tenantId(tenantId).terrenoId(50L).estado(EstadoVenta.PAGADO).build();
+
+        embudoVentasService.registrarCambioEstadoVenta(venta, EstadoVenta.PENDIENTE);
+
+        verifyNoInteractions(movimientoEmbudoRepository, terrenoRepository);
+    }
+
+    @Test
+    void obtenerEmbudo_PorProyecto_CalculaTasasYMediana() {
+        LocalDate desde = hoy.minusDays(29);
+        when(embudoVentasRepository.consultar(tenantId, desde, hoy, null, null, AgrupacionEmbudo.PROYECTO))
+                .thenReturn(List.of(
+                        fila(10L, Map.of(MetricaEmbudo.COTIZACIONES, 40L, MetricaEmbudo.COTIZACIONES_APARTADAS, 10L,
+                                MetricaEmbudo.COTIZACIONES_VENDIDAS, 4L, MetricaEmbudo.APARTADOS, 12L,
+                                MetricaEmbudo.APARTADOS_VENDIDOS, 6L, MetricaEmbudo.VENTAS, 6L), "600.00"),
+                        fila(20L, Map.of(MetricaEmbudo.COTIZACIONES, 10L, MetricaEmbudo.VENTAS, 2L,
+                                MetricaEmbudo.VENTAS_CANCELADAS, 1L), "100.00")));
+        when(embudoVentasRepository.consultarTiempos(tenantId, desde, hoy, null, null, AgrupacionEmbudo.PROYECTO))
+                .thenReturn(List.of(
+                        new EmbudoVentasRepository.FilaTiempo(10L, 0L, MetricaEmbudo.TIEMPO_APARTADO_VENTA, 2, 3),
+                        new EmbudoVentasRepository.FilaTiempo(10L, 0L, MetricaEmbudo.TIEMPO_APARTADO_VENTA, 5, 1),
+                        new EmbudoVentasRepository.FilaTiempo(20L, 0L, MetricaEmbudo.TIEMPO_APARTADO_VENTA, 30, 1)));
+        when(proyectoRepository.findAllById(List.of(10L, 20L))).thenReturn(List.of(
+                Proyecto.builder().id(10L).nombre("Las Lomas").build(),
+                Proyecto.builder().id(20L).nombre("El Mirador").build()));
+
+        EmbudoVentasResponse embudo = embudoVentasService.obtenerEmbudo(null, null, null, null, AgrupacionEmbudo.PROYECTO);
+
+        assertEquals(desde, embudo.getDesde());
+        EmbudoVentasResponse.Etapas totales = embudo.getTotales();
+        assertEquals(50L, totales.getCotizaciones());
+        assertEquals(8L, totales.getVentas());
+        assertEquals(new BigDecimal("700.00"), totales.getMontoVentas());
+        assertEquals(new BigDecimal("20.00"), totales.getTasaCotizacionApartado());
+        assertEquals(new BigDecimal("8.00"), totales.getTasaCotizacionVenta());
+        assertEquals(new BigDecimal("50.00"), totales.getTasaApartadoVenta());
+        assertEquals(new BigDecimal("12.50"), totales.getTasaCancelacionVentas());
+
+        // Histograma sumado: 2, 2, 2, 5, 30 días
+        EmbudoVentasResponse.TiempoEtapa tiempo = totales.getTiempos().get(0);
+        assertEquals(5L, tiempo.getConversiones());
+        assertEquals(2, tiempo.getMedianaDias());
+        assertEquals(30, tiempo.getP90Dias());
+
+        assertEquals(2, embudo.getGrupos().size());
+        assertEquals("Las Lomas", embudo.getGrupos().get(0).getProyectoNombre());
+        assertNull(embudo.getGrupos().get(0).getUsuarioId());
+        assertEquals(5, embudo.getGrupos().get(0).getTiempos().get(0).getP90Dias());
+        verifyNoInteractions(usuarioRepository);
+    }
+
+    @Test
+    void obtenerEmbudo_PeriodoInvertido_LanzaExcepcion() {
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> embudoVentasService.obtenerEmbudo(hoy, hoy.minusDays(1), null, null, AgrupacionEmbudo.TOTAL));
+
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatus());
+        verifyNoInteractions(embudoVentasRepository);
+    }
+
+    private Cotizacion cotizacion(Long id, Long usuarioId, LocalDate creada) {
+        return Cotizacion.builder().id(id).tenantId(tenantId).terrenoId(50L).usuarioId(usuarioId)
+                .createdAt(creada.atTime(10, 0)).build();
+    }
+
+    private static EmbudoVentasRepository.FilaEmbudo fila(long proyectoId, Map<MetricaEmbudo, Long> conteos,
+                                                          String monto) {
+        return new EmbudoVentasRepository.FilaEmbudo(proyectoId, 0L, new EnumMap<>(conteos), new BigDecimal(monto));
+    }
+
+    private static void assertMovimiento(MovimientoEmbudo movimiento, MetricaEmbudo metrica, LocalDate fecha,
+                                         Long usuarioId) {
+        assertEquals(metrica, movimiento.getMetrica());
+        assertEquals(fecha, movimiento.getFecha());
+        assertEquals(usuarioId, movimiento.getUsuarioId());
+        assertEquals(10L, movimiento.getProyectoId());
+    }
+}
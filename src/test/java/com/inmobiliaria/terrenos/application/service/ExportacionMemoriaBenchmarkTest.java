@@ -0,0 +1,124 @@
+package com.inmobiliaria.terrenos.application.service;
+
+import com.inmobiliaria.terrenos.domain.enums.FormatoExportacion;
+import com.inmobiliaria.terrenos.domain.enums.TipoExportacion;
+import com.inmobiliaria.terrenos.infrastructure.persistence.ExportacionRepository;
+import com.inmobiliaria.terrenos.infrastructure.tenant.TenantContext;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Benchmark de memoria de la exportación: 1,000,000 de ventas por ExportacionService hasta el
+ * escritor CSV o XLSX, con el cursor simulado (una lista nueva por fila, como
+ * ExportacionRepository.fila). Mide el heap usado tras GC cada 250,000 filas y verifica que no
+ * crezca con el número de filas.
+ *
+ * Fuera de la corrida normal (etiqueta benchmark). Con el heap del criterio:
+ * mvn test -Pbenchmark -Dtest=ExportacionMemoriaBenchmarkTest -DargLine=-Xmx256m
+ */
+@Tag("benchmark")
+@Slf4j
+class ExportacionMemoriaBenchmarkTest {
+
+    private static final int FILAS = 1_000_000;
+    private static final int MUESTRA_CADA = 250_000;
+    private static final long MAX_CRECIMIENTO_BYTES = 16L * 1024 * 1024;
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @ParameterizedTest
+    @EnumSource(FormatoExportacion.class)
+    void exportar_MillonDeFilas_HeapNoCreceConLasFilas(FormatoExportacion formato) throws IOException {
+        ExportacionRepository repository = mock(ExportacionRepository.class);
+        List<Long> muestras = new ArrayList<>();
+        when(repository.recorrer(eq(TipoExportacion.VENTAS), eq(1L), any(), any(), any(), any())).thenAnswer(invocacion -> {
+            ExportacionRepository.ConsumidorFila consumidor = invocacion.getArgument(5);
+            LocalDateTime base = LocalDateTime.of(2024, 1, 1, 10, 0);
+            for (int i = 1; i <= FILAS; i++) {
+                consumidor.aceptar(venta(i, base));
+                if (i % MUESTRA_CADA == 0) {
+                    muestras.add(heapUsadoTrasGc());
+                }
+            }
+            return (long) FILAS;
+        });
+        TenantContext.setTenantId(1L);
+        ContadorBytes salida = new ContadorBytes();
+
+        long inicio = System.nanoTime();
+        long filas = new ExportacionService(repository)
+                .exportar(TipoExportacion.VENTAS, formato, null, null, null, (nombre, f) -> salida);
+        long ms = (System.nanoTime() - inicio) / 1_000_000;
+
+        log.info("{} {} filas en {} ms; {} bytes; heap máximo {} MB; usado tras GC cada {} filas (MB): {}",
+                formato, filas, ms, salida.bytes, Runtime.getRuntime().maxMemory() >> 20, MUESTRA_CADA,
+                muestras.stream().map(m -> String.format("%.1f", m / 1048576.0)).toList());
+
+        assertEquals(FILAS, filas);
+        assertTrue(muestras.get(muestras.size() - 1) - muestras.get(0) < MAX_CRECIMIENTO_BYTES,
+                "El heap retenido no debe crecer con las filas exportadas");
+    }
+
+    private static List<Object> venta(int i, LocalDateTime base) {
+        List<Object> fila = new ArrayList<>(17);
+        fila.add((long) i);
+        fila.add("V-" + i);
+        fila.add(base.plusMinutes(i));
+        fila.add("Residencial Las Lomas");
+        fila.add("L-" + (i % 5_000));
+        fila.add("Comprador " + i);
+        fila.add("cliente" + i + "@correo.mx");
+        fila.add("55 " + (10_000_000 + i));
+        fila.add("ABCD800101XY" + (i % 10));
+        fila.add(new BigDecimal("450000.00").add(BigDecimal.valueOf(i % 1_000)));
+        fila.add(new BigDecimal("20000.00"));
+        fila.add(new BigDecimal("430000.00"));
+        fila.add(new BigDecimal("3.50"));
+        fila.add(new BigDecimal("15050.00"));
+        fila.add("PAGADA");
+        fila.add("FINANCIADO");
+        fila.add(i % 3 == 0 ? null : LocalDate.of(2024, 6, 1));
+        return fila;
+    }
+
+    private static long heapUsadoTrasGc() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Descarta el archivo; solo cuenta los bytes escritos
+     */
+    private static final class ContadorBytes extends OutputStream {
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.inmobiliaria.terrenos.application.service;
+
+import com.inmobiliaria.terrenos.domain.enums.FormatoExportacion;
+import com.inmobiliaria.terrenos.domain.enums.TipoExportacion;
+import com.inmobiliaria.terrenos.infrastructure.persistence.ExportacionRepository;
+import com.inmobiliaria.terrenos.infrastructure.tenant.TenantContext;
+import com.inmobiliaria.terrenos.shared.exception.BusinessException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExportacionServiceTest {
+
+    @Mock
+    private ExportacionRepository exportacionRepository;
+
+    @InjectMocks
+    private ExportacionService exportacionService;
+
+    private final Long tenantId = 1L;
+    private final List<String> archivosAbiertos = new ArrayList<>();
+    private final ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setTenantId(tenantId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void exportar_Csv_EncabezadoYFilasEnStreaming() throws IOException {
+        LocalDate desde = LocalDate.of(2025, 1, 1);
+        when(exportacionRepository.recorrer(eq(TipoExportacion.VENTAS), eq(tenantId), eq(desde), isNull(), eq(10L), any()))
+                .thenAnswer(invocacion -> {
+                    ExportacionRepository.ConsumidorFila consumidor = invocacion.getArgument(5);
+                    consumidor.aceptar(Arrays.asList(7L, "V-007", LocalDateTime.of(2025, 2, 3, 10, 30), "Las Lomas",
+                            "A-1", "Pérez, Juan", null));
+                    consumidor.aceptar(Arrays.asList(8L, "V-008", null, null, null, null, new BigDecimal("1E+5")));
+                    return 2L;
+                });
+
+        long filas = exportacionService.exportar(TipoExportacion.VENTAS, FormatoExportacion.CSV, desde, null, 10L,
+                this::abrir);
+
+        assertEquals(2L, filas);
+        assertEquals(List.of("ventas-" + LocalDate.now() + ".csv"), archivosAbiertos);
+        String[] lineas = salida.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(3, lineas.length);
+        assertTrue(lineas[0].startsWith("\uFEFFID,Folio,Fecha de venta,Proyecto,Lote,Comprador"));
+        assertEquals("7,V-007,2025-02-03 10:30:00,Las Lomas,A-1,\"Pérez, Juan\",", lineas[1]);
+        assertEquals("8,V-008,,,,,100000", lineas[2]);
+    }
+
+    @Test
+    void exportar_Xlsx_GeneraLibro() throws IOException {
+        when(exportacionRepository.recorrer(eq(TipoExportacion.CLIENTES), eq(tenantId), any(), any(), any(), any()))
+                .thenReturn(0L);
+
+        exportacionService.exportar(TipoExportacion.CLIENTES, FormatoExportacion.XLSX, null, null, null, this::abrir);
+
+        assertEquals(List.of("clientes-" + LocalDate.now() + ".xlsx"), archivosAbiertos);
+        // Firma de ZIP
+        assertArrayEquals(new byte[]{'P', 'K'}, Arrays.copyOf(salida.toByteArray(), 2));
+    }
+
+    @Test
+    void exportar_SinTenant_Lanza401SinAbrirArchivo() {
+        TenantContext.clear();
+
+        BusinessException ex = assertThrows(BusinessException.class, () -> exportacionService.exportar(
+                TipoExportacion.VENTAS, FormatoExportacion.CSV, null, null, null, this::abrir));
+
+        assertEquals(HttpStatus.UNAUTHORIZED, ex.getStatus());
+        assertTrue(archivosAbiertos.isEmpty());
+        verifyNoInteractions(exportacionRepository);
+    }
+
+    @Test
+    void exportar_PeriodoInvertido_LanzaExcepcionSinAbrirArchivo() {
+        BusinessException ex = assertThrows(BusinessException.class, () -> exportacionService.exportar(
+                TipoExportacion.PAGOS, FormatoExportacion.CSV, LocalDate.of(2025, 3, 1), LocalDate.of(2025, 1, 1),
+                null, this::abrir));
+
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatus());
+        assertTrue(archivosAbiertos.isEmpty());
+        verifyNoInteractions(exportacionRepository);
+    }
+
+    @Test
+    void exportar_ProyectoEnTipoSinProyecto_LanzaExcepcion() {
+        BusinessException ex = assertThrows(BusinessException.class, () -> exportacionService.exportar(
+                TipoExportacion.AUDITORIA_SIMPLE, FormatoExportacion.CSV, null, null, 10L, this::abrir));
+
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatus());
+        assertTrue(archivosAbiertos.isEmpty());
+    }
+
+    private ByteArrayOutputStream abrir(String nombreArchivo, FormatoExportacion formato) {
+        archivosAbiertos.add(nombreArchivo);
+        return salida;
+    }
+}
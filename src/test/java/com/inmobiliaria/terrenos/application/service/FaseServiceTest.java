@@ -44,6 +44,9 @@ class FaseServiceTest {
     @Mock
     private FaseMapper faseMapper;
 
+    @Mock
+    private PlanoVersionService planoVersionService;
+
     @InjectMocks
     private FaseService faseService;
 
@@ -188,6 +191,7 @@ class FaseServiceTest {
 
         assertTrue(fase.getDeleted());
         verify(faseRepository, times(1)).save(fase);
+        verify(planoVersionService).registrarCambioEstructura(tenantId, fase.getProyectoId());
     }
 
     @Test
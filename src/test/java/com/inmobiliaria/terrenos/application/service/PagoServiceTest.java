@@ -44,6 +44,8 @@ class PagoServiceTest {
     private TerrenoRepository terrenoRepository;
     @Mock
     private ProyectoRepository proyectoRepository;
+    @Mock
+    private TendenciaVentasService tendenciaVentasService;
 
     @Mock
     private PlanPagoMapper planPagoMapper;
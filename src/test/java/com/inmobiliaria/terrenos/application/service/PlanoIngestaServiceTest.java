@@ -0,0 +1,153 @@
+package com.inmobiliaria.terrenos.application.service;
+
+import com.inmobiliaria.terrenos.application.dto.plano.ConfirmarIngestaRequest;
+import com.inmobiliaria.terrenos.application.dto.plano.ResultadoIngestaResponse;
+import com.inmobiliaria.terrenos.application.event.CoordenadasLotesModificadasEvent;
+import com.inmobiliaria.terrenos.domain.entity.Proyecto;
+import com.inmobiliaria.terrenos.domain.repository.ProyectoRepository;
+import com.inmobiliaria.terrenos.domain.repository.TerrenoRepository;
+import com.inmobiliaria.terrenos.infrastructure.geometry.NivelesDetalleGeometria;
+import com.inmobiliaria.terrenos.infrastructure.persistence.TerrenoBatchWriter;
+import com.inmobiliaria.terrenos.infrastructure.tenant.TenantContext;
+import com.inmobiliaria.terrenos.shared.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PlanoIngestaServiceTest {
+
+    @Mock
+    private TerrenoRepository terrenoRepository;
+
+    @Mock
+    private ProyectoRepository proyectoRepository;
+
+    @Mock
+    private TerrenoBatchWriter terrenoBatchWriter;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private NivelesDetalleGeometria nivelesDetalle;
+
+    @Mock
+    private PlanoVersionService planoVersionService;
+
+    @InjectMocks
+    private PlanoIngestaService planoIngestaService;
+
+    private final Long tenantId = 1L;
+    private final Long proyectoId = 200L;
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setTenantId(tenantId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void confirmarIngesta_LotesNuevosYExistentes_InsertaActualizaYOmite() {
+        when(proyectoRepository.findByIdAndTenantIdAndDeletedFalse(proyectoId, tenantId))
+                .thenReturn(Optional.of(Proyecto.builder().id(proyectoId).tenantId(tenantId).build()));
+        when(terrenoRepository.findIdYNumeroLoteByProyecto(tenantId, proyectoId))
+                .thenReturn(List.<Object[]>of(new Object[]{10L, "Lote 1"}));
+        when(planoVersionService.registrarCambioLotes(tenantId, proyectoId)).thenReturn(7L);
+        when(terrenoBatchWriter.insertar(eq(tenantId), eq(proyectoId), anyString(), anyLong(), anyCollection()))
+                .thenAnswer(inv -> ((Collection<?>) inv.getArgument(4)).size());
+        when(terrenoBatchWriter.actualizarCoordenadas(eq(tenantId), anyString(), anyLong(), anyCollection()))
+                .thenAnswer(inv -> ((Collection<?>) inv.getArgument(3)).size());
+
+        ConfirmarIngestaRequest request = request(
+                lote("LOTE 1", "{\"tipo\":\"poligono\"}"),  // existente (sin distinguir mayúsculas)
+                lote("Lote 2", null),
+                lote("lote 2", null),                      // repetido en la solicitud
+                lote(null, null));                         // sin número: siempre nuevo
+
+        ResultadoIngestaResponse resultado = planoIngestaService.confirmarIngesta(request);
+
+        assertEquals(4, resultado.getRecibidos());
+        assertEquals(2, resultado.getInsertados());
+        assertEquals(1, resultado.getActualizados());
+        assertEquals(1, resultado.getOmitidos());
+
+        ArgumentCaptor<Collection<TerrenoBatchWriter.LoteNuevo>> nuevos = ArgumentCaptor.forClass(Collection.class);
+        verify(terrenoBatchWriter).insertar(eq(tenantId), eq(proyectoId), anyString(), eq(7L), nuevos.capture());
+        assertEquals(List.of("Lote 2", "S/N"),
+                nuevos.getValue().stream().map(TerrenoBatchWriter.LoteNuevo::numeroLote).toList());
+
+        ArgumentCaptor<Collection<TerrenoBatchWriter.CoordenadasLote>> actualizados = ArgumentCaptor.forClass(Collection.class);
+        verify(terrenoBatchWriter).actualizarCoordenadas(eq(tenantId), anyString(), eq(7L), actualizados.capture());
+        assertEquals(10L, actualizados.getValue().iterator().next().terrenoId());
+
+        verify(proyectoRepository, times(1)).recalcularContadores(tenantId, proyectoId);
+        verify(eventPublisher).publishEvent(new CoordenadasLotesModificadasEvent(tenantId, proyectoId));
+    }
+
+    @Test
+    void confirmarIngesta_SinActualizarExistentes_OmiteYNoRecalculaContadores() {
+        when(proyectoRepository.findByIdAndTenantIdAndDeletedFalse(proyectoId, tenantId))
+                .thenReturn(Optional.of(Proyecto.builder().id(proyectoId).tenantId(tenantId).build()));
+        when(terrenoRepository.findIdYNumeroLoteByProyecto(tenantId, proyectoId))
+                .thenReturn(List.<Object[]>of(new Object[]{10L, "Lote 1"}));
+
+        ConfirmarIngestaRequest request = request(lote("Lote 1", "{\"tipo\":\"poligono\"}"));
+        request.setActualizarExistentes(false);
+
+        ResultadoIngestaResponse resultado = planoIngestaService.confirmarIngesta(request);
+
+        assertEquals(0, resultado.getInsertados());
+        assertEquals(0, resultado.getActualizados());
+        assertEquals(1, resultado.getOmitidos());
+        verify(proyectoRepository, never()).recalcularContadores(any(), any());
+        verifyNoInteractions(planoVersionService);
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void confirmarIngesta_ProyectoDeOtroTenant_LanzaExcepcion() {
+        when(proyectoRepository.findByIdAndTenantIdAndDeletedFalse(proyectoId, tenantId))
+                .thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> planoIngestaService.confirmarIngesta(request(lote("Lote 1", null))));
+        verifyNoInteractions(terrenoBatchWriter);
+    }
+
+    private ConfirmarIngestaRequest request(ConfirmarIngestaRequest.LoteIngesta... lotes) {
+        ConfirmarIngestaRequest request = new ConfirmarIngestaRequest();
+        request.setProyectoId(proyectoId);
+        request.setLotes(new ArrayList<>(List.of(lotes)));
+        return request;
+    }
+
+    private static ConfirmarIngestaRequest.LoteIngesta lote(String numero, String coordenadas) {
+        ConfirmarIngestaRequest.LoteIngesta lote = new ConfirmarIngestaRequest.LoteIngesta();
+        lote.setNumeroLote(numero);
+        lote.setArea(new BigDecimal("150.00"));
+        lote.setCoordenadasPlanoJson(coordenadas);
+        return lote;
+    }
+}
@@ -0,0 +1,205 @@
+package com.inmobiliaria.terrenos.application.service;
+
+import com.inmobiliaria.terrenos.application.dto.plano.PlanoInteractivoResponse;
+import com.inmobiliaria.terrenos.domain.entity.Proyecto;
+import com.inmobiliaria.terrenos.domain.entity.Terreno;
+import com.inmobiliaria.terrenos.domain.enums.EstadoTerreno;
+import com.inmobiliaria.terrenos.domain.repository.ArchivoRepository;
+import com.inmobiliaria.terrenos.domain.repository.FaseRepository;
+import com.inmobiliaria.terrenos.domain.repository.ProyectoRepository;
+import com.inmobiliaria.terrenos.domain.repository.TerrenoRepository;
+import com.inmobiliaria.terrenos.infrastructure.cache.SingleFlightCache;
+import com.inmobiliaria.terrenos.infrastructure.geometry.IndiceLotesCache;
+import com.inmobiliaria.terrenos.infrastructure.geometry.NivelesDetalleGeometria;
+import com.inmobiliaria.terrenos.infrastructure.realtime.CanalDisponibilidadLotes;
+import com.inmobiliaria.terrenos.infrastructure.tenant.TenantContext;
+import com.inmobiliaria.terrenos.shared.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PlanoServiceTest {
+
+    @Mock
+    private ProyectoRepository proyectoRepository;
+
+    @Mock
+    private TerrenoRepository terrenoRepository;
+
+    @Mock
+    private ArchivoRepository archivoRepository;
+
+    @Mock
+    private FaseRepository faseRepository;
+
+    @Mock
+    private NivelesDetalleGeometria nivelesDetalle;
+
+    @Mock
+    private IndiceLotesCache indiceLotesCache;
+
+    @Mock
+    private PlanoVersionService planoVersionService;
+
+    @Mock
+    private CanalDisponibilidadLotes canalDisponibilidad;
+
+    @Spy
+    private SingleFlightCache singleFlight = new SingleFlightCache(new SimpleMeterRegistry(), 100);
+
+    @InjectMocks
+    private PlanoService planoService;
+
+    private final Long tenantId = 1L;
+    private final Long proyectoId = 200L;
+    private Proyecto proyecto;
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setTenantId(tenantId);
+
+        proyecto = Proyecto.builder()
+                .id(proyectoId)
+                .tenantId(tenantId)
+                .nombre("Proyecto Residencial")
+                .totalTerrenos(3)
+                .terrenosDisponibles(1)
+                .terrenosApartados(1)
+                .terrenosVendidos(1)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    private Terreno terreno(Long id, EstadoTerreno estado) {
+        return Terreno.builder()
+                .id(id)
+                .tenantId(tenantId)
+                .proyectoId(proyectoId)
+                .numeroLote("Lote " + id)
+                .estado(estado)
+                .build();
+    }
+
+    private void stubPlanoCompleto() {
+        when(proyectoRepository.findByIdAndTenantIdAndDeletedFalse(proyectoId, tenantId))
+                .thenReturn(Optional.of(proyecto));
+        when(terrenoRepository.findByTenantIdAndProyectoIdAndDeletedFalseOrderByNumeroLoteAsc(tenantId, proyectoId))
+                .thenReturn(List.of(
+                        terreno(1L, EstadoTerreno.DISPONIBLE),
+                        terreno(2L, EstadoTerreno.APARTADO),
+                        terreno(3L, EstadoTerreno.VENDIDO)));
+    }
+
+    @Test
+    void obtenerPlanoInteractivo_MismaVersion_SeSirveDesdeCache() {
+        when(planoVersionService.obtenerVersion(tenantId, proyectoId)).thenReturn(5L);
+        stubPlanoCompleto();
+
+        PlanoInteractivoResponse primero = planoService.obtenerPlanoInteractivo(proyectoId, null, null);
+        PlanoInteractivoResponse segundo = planoService.obtenerPlanoInteractivo(proyectoId, null, null);
+
+        assertSame(primero, segundo);
+        assertEquals(5L, primero.getVersion());
+        assertFalse(primero.getParcial());
+        assertEquals(3, primero.getTotalTerrenos());
+        assertEquals(1, primero.getTerrenosDisponibles());
+        assertEquals(1, primero.getTerrenosApartados());
+        assertEquals(1, primero.getTerrenosVendidos());
+        assertEquals(3, primero.getTerrenosSinCoordenadas());
+        verify(terrenoRepository, times(1))
+                .findByTenantIdAndProyectoIdAndDeletedFalseOrderByNumeroLoteAsc(tenantId, proyectoId);
+    }
+
+    @Test
+    void obtenerPlanoInteractivo_NuevaVersion_ReconstruyeElPlano() {
+        when(planoVersionService.obtenerVersion(tenantId, proyectoId)).thenReturn(5L, 6L);
+        stubPlanoCompleto();
+
+        PlanoInteractivoResponse primero = planoService.obtenerPlanoInteractivo(proyectoId, null, null);
+        PlanoInteractivoResponse segundo = planoService.obtenerPlanoInteractivo(proyectoId, null, null);
+
+        assertNotSame(primero, segundo);
+        assertEquals(6L, segundo.getVersion());
+        verify(terrenoRepository, times(2))
+                .findByTenantIdAndProyectoIdAndDeletedFalseOrderByNumeroLoteAsc(tenantId, proyectoId);
+    }
+
+    @Test
+    void obtenerPlanoInteractivo_SinceIgualAVersion_RespuestaParcialVacia() {
+        when(planoVersionService.obtenerVersion(tenantId, proyectoId)).thenReturn(5L);
+        when(planoVersionService.obtenerVersionEstructura(tenantId, proyectoId)).thenReturn(2L);
+
+        PlanoInteractivoResponse plano = planoService.obtenerPlanoInteractivo(proyectoId, null, 5L);
+
+        assertTrue(plano.getParcial());
+        assertEquals(5L, plano.getVersion());
+        assertTrue(plano.getTerrenos().isEmpty());
+        assertTrue(plano.getTerrenosEliminados().isEmpty());
+        verifyNoInteractions(terrenoRepository, faseRepository, archivoRepository);
+    }
+
+    @Test
+    void obtenerPlanoInteractivo_Since_SoloTerrenosModificadosYEliminados() {
+        when(planoVersionService.obtenerVersion(tenantId, proyectoId)).thenReturn(8L);
+        when(planoVersionService.obtenerVersionEstructura(tenantId, proyectoId)).thenReturn(2L);
+        when(proyectoRepository.findByIdAndTenantIdAndDeletedFalse(proyectoId, tenantId))
+                .thenReturn(Optional.of(proyecto));
+        when(terrenoRepository.findByTenantIdAndProyectoIdAndPlanoVersionGreaterThanAndDeletedFalseOrderByNumeroLoteAsc(
+                tenantId, proyectoId, 5L))
+                .thenReturn(List.of(terreno(2L, EstadoTerreno.APARTADO)));
+        when(terrenoRepository.findIdsEliminadosDesdeVersion(tenantId, proyectoId, 5L))
+                .thenReturn(List.of(9L));
+
+        PlanoInteractivoResponse plano = planoService.obtenerPlanoInteractivo(proyectoId, null, 5L);
+
+        assertTrue(plano.getParcial());
+        assertEquals(8L, plano.getVersion());
+        assertEquals(5L, plano.getDesdeVersion());
+        assertEquals(List.of(2L), plano.getTerrenos().stream().map(t -> t.getId()).toList());
+        assertEquals(List.of(9L), plano.getTerrenosEliminados());
+        assertEquals(1, plano.getTerrenosApartados());
+        verify(terrenoRepository, never()).findByTenantIdAndProyectoIdAndDeletedFalseOrderByNumeroLoteAsc(any(), any());
+        verifyNoInteractions(archivoRepository);
+    }
+
+    @Test
+    void obtenerPlanoInteractivo_CambioDeEstructuraDespuesDeSince_DevuelvePlanoCompleto() {
+        when(planoVersionService.obtenerVersion(tenantId, proyectoId)).thenReturn(8L);
+        when(planoVersionService.obtenerVersionEstructura(tenantId, proyectoId)).thenReturn(7L);
+        stubPlanoCompleto();
+
+        PlanoInteractivoResponse plano = planoService.obtenerPlanoInteractivo(proyectoId, null, 5L);
+
+        assertFalse(plano.getParcial());
+        assertEquals(3, plano.getTerrenos().size());
+        verify(terrenoRepository, never()).findIdsEliminadosDesdeVersion(any(), any(), anyLong());
+    }
+
+    @Test
+    void obtenerPlanoInteractivo_ProyectoInexistente_LanzaExcepcion() {
+        when(planoVersionService.obtenerVersion(tenantId, proyectoId))
+                .thenThrow(new ResourceNotFoundException("Proyecto no encontrado con id: " + proyectoId));
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> planoService.obtenerPlanoInteractivo(proyectoId, null, null));
+        verifyNoInteractions(terrenoRepository);
+    }
+}
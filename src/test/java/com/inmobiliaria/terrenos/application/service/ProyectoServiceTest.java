@@ -36,6 +36,9 @@ class ProyectoServiceTest {
     @Mock
     private ProyectoMapper proyectoMapper;
 
+    @Mock
+    private PlanoVersionService planoVersionService;
+
     @InjectMocks
     private ProyectoService proyectoService;
 
@@ -0,0 +1,216 @@
+package com.inmobiliaria.terrenos.application.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inmobiliaria.terrenos.application.dto.precio.ReglaPrecioRequest;
+import com.inmobiliaria.terrenos.application.dto.precio.SimulacionReajusteResponse;
+import com.inmobiliaria.terrenos.domain.entity.Fase;
+import com.inmobiliaria.terrenos.domain.entity.Proyecto;
+import com.inmobiliaria.terrenos.domain.entity.ReglaPrecio;
+import com.inmobiliaria.terrenos.domain.enums.EstadoReglaPrecio;
+import com.inmobiliaria.terrenos.domain.enums.TipoReglaPrecio;
+import com.inmobiliaria.terrenos.domain.repository.FaseRepository;
+import com.inmobiliaria.terrenos.domain.repository.ProyectoRepository;
+import com.inmobiliaria.terrenos.domain.repository.ReglaPrecioRepository;
+import com.inmobiliaria.terrenos.infrastructure.persistence.ReajustePreciosRepository;
+import com.inmobiliaria.terrenos.infrastructure.tenant.TenantContext;
+import com.inmobiliaria.terrenos.interfaces.mapper.ReglaPrecioMapper;
+import com.inmobiliaria.terrenos.shared.exception.BusinessException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReajustePreciosServiceTest {
+
+    @Mock
+    private ReglaPrecioRepository reglaPrecioRepository;
+
+    @Mock
+    private ReajustePreciosRepository reajustePreciosRepository;
+
+    @Mock
+    private ProyectoRepository proyectoRepository;
+
+    @Mock
+    private FaseRepository faseRepository;
+
+    @Mock
+    private PlanoVersionService planoVersionService;
+
+    @Mock
+    private ReglaPrecioMapper reglaPrecioMapper;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private ReajustePreciosService reajustePreciosService;
+
+    private final Long tenantId = 1L;
+    private final Long proyectoId = 200L;
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setTenantId(tenantId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void simular_CalculaVariacionYMuestra() {
+        ReglaPrecioRequest request = request(TipoReglaPrecio.PORCENTAJE, "8");
+        prepararRegla(request);
+        when(reajustePreciosRepository.simular(any())).thenReturn(new ReajustePreciosRepository.Impacto(
+                2, new BigDecimal("1000000.00"), new BigDecimal("1080000.00"),
+                new BigDecimal("486000.00"), new BigDecimal("594000.00"), 0));
+        when(reajustePreciosRepository.muestra(any(), eq(ReajustePreciosService.TAMANIO_MUESTRA))).thenReturn(List.of());
+
+        SimulacionReajusteResponse simulacion = reajustePreciosService.simular(request);
+
+        assertEquals(2, simulacion.getLotes());
+        assertEquals(new BigDecimal("80000.00"), simulacion.getDiferencia());
+        assertEquals(new BigDecimal("8.00"), simulacion.getVariacionPorcentual());
+        verify(reajustePreciosRepository, never()).aplicar(any(), anyLong(), anyString());
+    }
+
+    @Test
+    void crearRegla_SinFecha_AplicaConUnaVersionYGuardaResultado() {
+        ReglaPrecioRequest request = request(TipoReglaPrecio.PORCENTAJE, "8");
+        prepararRegla(request);
+        when(reglaPrecioRepository.save(any(ReglaPrecio.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(reajustePreciosRepository.simular(any())).thenReturn(new ReajustePreciosRepository.Impacto(
+                3, new BigDecimal("1500000.00"), new BigDecimal("1620000.00"), null, null, 0));
+        when(planoVersionService.registrarCambioLotes(tenantId, proyectoId)).thenReturn(12L);
+        when(reajustePreciosRepository.aplicar(any(), eq(12L), anyString())).thenReturn(new ReajustePreciosRepository.Aplicacion(
+                3, 3, new BigDecimal("1500000.00"), new BigDecimal("1620000.00")));
+
+        reajustePreciosService.crearRegla(request);
+
+        verify(reglaPrecioRepository, times(2)).save(argThat(regla ->
+                regla.getEstado() == EstadoReglaPrecio.APLICADA && regla.getTenantId().equals(tenantId)
+                        && Integer.valueOf(3).equals(regla.getLotesAfectados())
+                        && new BigDecimal("1620000.00").equals(regla.getTotalNuevo())));
+        verify(planoVersionService, times(1)).registrarCambioLotes(tenantId, proyectoId);
+        verify(reajustePreciosRepository).aplicar(any(ReglaPrecio.class), eq(12L), anyString());
+    }
+
+    @Test
+    void crearRegla_PrecioBaseNoPositivo_LanzaExcepcionSinAplicar() {
+        ReglaPrecioRequest request = request(TipoReglaPrecio.AJUSTE_FIJO, "-500000");
+        prepararRegla(request);
+        when(reglaPrecioRepository.save(any(ReglaPrecio.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(reajustePreciosRepository.simular(any())).thenReturn(new ReajustePreciosRepository.Impacto(
+                3, new BigDecimal("1500000.00"), BigDecimal.ZERO, null, null, 2));
+
+        assertThrows(BusinessException.class, () -> reajustePreciosService.crearRegla(request));
+
+        verify(reajustePreciosRepository, never()).aplicar(any(), anyLong(), anyString());
+        verifyNoInteractions(planoVersionService);
+    }
+
+    @Test
+    void crearRegla_ConFechaFutura_QuedaProgramada() {
+        ReglaPrecioRequest request = request(TipoReglaPrecio.MULTIPLICADOR, "1.10");
+        request.setFechaProgramada(LocalDateTime.now().plusDays(30));
+        prepararRegla(request);
+        when(reglaPrecioRepository.save(any(ReglaPrecio.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        reajustePreciosService.crearRegla(request);
+
+        verify(reglaPrecioRepository).save(argThat(regla -> regla.getEstado() == EstadoReglaPrecio.PROGRAMADA));
+        verifyNoInteractions(reajustePreciosRepository, planoVersionService);
+    }
+
+    @Test
+    void crearRegla_ConCaracteristicas_GuardaElFiltroCompactoComoEnLaBusqueda() {
+        ReglaPrecioRequest request = request(TipoReglaPrecio.MULTIPLICADOR, "1.10");
+        request.setFechaProgramada(LocalDateTime.now().plusDays(30));
+        request.setCaracteristicas("{ \"esquina\" : true }");
+        prepararRegla(request);
+        when(reglaPrecioRepository.save(any(ReglaPrecio.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        reajustePreciosService.crearRegla(request);
+
+        verify(reglaPrecioRepository).save(argThat(regla -> "{\"esquina\":true}".equals(regla.getCaracteristicas())));
+    }
+
+    @Test
+    void crearRegla_CaracteristicasQueNoSonObjeto_LanzaExcepcion() {
+        ReglaPrecioRequest request = request(TipoReglaPrecio.PORCENTAJE, "5");
+        request.setCaracteristicas("[1, 2]");
+        prepararRegla(request);
+
+        assertThrows(BusinessException.class, () -> reajustePreciosService.crearRegla(request));
+        verify(reglaPrecioRepository, never()).save(any());
+    }
+
+    @Test
+    void crearRegla_MultiplicadorConTresDecimales_LanzaExcepcion() {
+        ReglaPrecioRequest request = request(TipoReglaPrecio.MULTIPLICADOR, "1.125");
+        when(proyectoRepository.findByIdAndTenantIdAndDeletedFalse(proyectoId, tenantId))
+                .thenReturn(Optional.of(Proyecto.builder().id(proyectoId).tenantId(tenantId).build()));
+
+        assertThrows(BusinessException.class, () -> reajustePreciosService.crearRegla(request));
+        verify(reglaPrecioRepository, never()).save(any());
+    }
+
+    @Test
+    void crearRegla_FaseDeOtroProyecto_LanzaExcepcion() {
+        ReglaPrecioRequest request = request(TipoReglaPrecio.PORCENTAJE, "5");
+        request.setFaseId(9L);
+        when(proyectoRepository.findByIdAndTenantIdAndDeletedFalse(proyectoId, tenantId))
+                .thenReturn(Optional.of(Proyecto.builder().id(proyectoId).tenantId(tenantId).build()));
+        when(faseRepository.findByIdAndTenantIdAndDeletedFalse(9L, tenantId))
+                .thenReturn(Optional.of(Fase.builder().id(9L).proyectoId(999L).build()));
+
+        assertThrows(BusinessException.class, () -> reajustePreciosService.crearRegla(request));
+    }
+
+    @Test
+    void aplicarProgramada_ReglaYaAplicada_NoHaceNada() {
+        when(reglaPrecioRepository.findByIdParaAplicar(5L)).thenReturn(Optional.of(
+                ReglaPrecio.builder().id(5L).estado(EstadoReglaPrecio.APLICADA).build()));
+
+        reajustePreciosService.aplicarProgramada(5L);
+
+        verifyNoInteractions(reajustePreciosRepository, planoVersionService);
+    }
+
+    private void prepararRegla(ReglaPrecioRequest request) {
+        when(proyectoRepository.findByIdAndTenantIdAndDeletedFalse(proyectoId, tenantId))
+                .thenReturn(Optional.of(Proyecto.builder().id(proyectoId).tenantId(tenantId).build()));
+        when(reglaPrecioMapper.toEntity(request)).thenAnswer(inv -> ReglaPrecio.builder()
+                .proyectoId(request.getProyectoId())
+                .nombre(request.getNombre())
+                .tipo(request.getTipo())
+                .valor(request.getValor())
+                .fechaProgramada(request.getFechaProgramada())
+                .build());
+    }
+
+    private ReglaPrecioRequest request(TipoReglaPrecio tipo, String valor) {
+        return ReglaPrecioRequest.builder()
+                .proyectoId(proyectoId)
+                .nombre("Reajuste fase 2")
+                .tipo(tipo)
+                .valor(new BigDecimal(valor))
+                .build();
+    }
+}
@@ -0,0 +1,226 @@
+package com.inmobiliaria.terrenos.application.service;
+
+import com.inmobiliaria.terrenos.application.dto.reporte.TendenciaVentasResponse;
+import com.inmobiliaria.terrenos.domain.entity.MovimientoTendencia;
+import com.inmobiliaria.terrenos.domain.entity.Pago;
+import com.inmobiliaria.terrenos.domain.entity.PlanPago;
+import com.inmobiliaria.terrenos.domain.entity.Proyecto;
+import com.inmobiliaria.terrenos.domain.entity.Terreno;
+import com.inmobiliaria.terrenos.domain.entity.Venta;
+import com.inmobiliaria.terrenos.domain.enums.EstadoVenta;
+import com.inmobiliaria.terrenos.domain.enums.GranularidadTendencia;
+import com.inmobiliaria.terrenos.domain.enums.MetricaTendencia;
+import com.inmobiliaria.terrenos.domain.repository.MovimientoTendenciaRepository;
+import com.inmobiliaria.terrenos.domain.repository.ProyectoRepository;
+import com.inmobiliaria.terrenos.domain.repository.TerrenoRepository;
+import com.inmobiliaria.terrenos.domain.repository.VentaRepository;
+import com.inmobiliaria.terrenos.infrastructure.persistence.TendenciaVentasRepository;
+import com.inmobiliaria.terrenos.infrastructure.tenant.TenantContext;
+import com.inmobiliaria.terrenos.shared.exception.BusinessException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TendenciaVentasServiceTest {
+
+    @Mock
+    private MovimientoTendenciaRepository movimientoTendenciaRepository;
+
+    @Mock
+    private TendenciaVentasRepository tendenciaVentasRepository;
+
+    @Mock
+    private VentaRepository ventaRepository;
+
+    @Mock
+    private TerrenoRepository terrenoRepository;
+
+    @Mock
+    private ProyectoRepository proyectoRepository;
+
+    @InjectMocks
+    private TendenciaVentasService tendenciaVentasService;
+
+    private final Long tenantId = 1L;
+    private final LocalDate hoy = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setTenantId(tenantId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void registrarVenta_RegistraMontoYComision() {
+        Venta venta = Venta.builder().tenantId(tenantId).terrenoId(50L).fechaVenta(hoy)
+                .montoFinal(new BigDecimal("250000.00")).montoComision(new BigDecimal("7500.00")).build();
+
+        tendenciaVentasService.registrarVenta(venta, 10L);
+
+        MovimientoTendencia movimiento = capturarMovimiento();
+        assertEquals(MetricaTendencia.VENTAS, movimiento.getMetrica());
+        assertEquals(hoy, movimiento.getFecha());
+        assertEquals(10L, movimiento.getProyectoId());
+        assertEquals(1, movimiento.getCantidad());
+        assertEquals(new BigDecimal("250000.00"), movimiento.getMonto());
+        assertEquals(new BigDecimal("7500.00"), movimiento.getComision());
+    }
+
+    @Test
+    void registrarCambioEstadoVenta_Cancelada_RestaVentaYComision() {
+        when(terrenoRepository.findById(50L)).thenReturn(Optional.of(Terreno.builder().id(50L).proyectoId(10L).build()));
+        Venta venta = Venta.builder().tenantId(tenantId).terrenoId(50L).fechaVenta(hoy.minusDays(40))
+                .montoFinal(new BigDecimal("100.00")).montoComision(new BigDecimal("3.00"))
+                .estado(EstadoVenta.ANULADA).build();
+
+        tendenciaVentasService.registrarCambioEstadoVenta(venta, EstadoVenta.PENDIENTE);
+
+        MovimientoTendencia movimiento = capturarMovimiento();
+        // Se resta en la fecha de la venta, no en la de la cancelación
+        assertEquals(hoy.minusDays(40), movimiento.getFecha());
+        assertEquals(-1, movimiento.getCantidad());
+        assertEquals(new BigDecimal("-100.00"), movimiento.getMonto());
+        assertEquals(new BigDecimal("-3.00"), movimiento.getComision());
+    }
+
+    @Test
+    void registrarCambioEstadoVenta_SinCambioDeCancelacion_NoRegistra() {
+        Venta venta = Venta.builder().tenantId(tenantId).terrenoId(50L).estado(EstadoVenta.PAGADO).build();
+
+        tendenciaVentasService.registrarCambioEstadoVenta(venta, EstadoVenta.PENDIENTE);
+
+        verifyNoInteractions(movimientoTendenciaRepository, terrenoRepository);
+    }
+
+    @Test
+    void registrarPago_UsaProyectoDelLoteVendido() {
+        when(ventaRepository.findById(300L)).thenReturn(Optional.of(Venta.builder().id(300L).terrenoId(50L).build()));
+        when(terrenoRepository.findById(50L)).thenReturn(Optional.of(Terreno.builder().id(50L).proyectoId(10L).build()));
+        Pago pago = Pago.builder().id(1L).tenantId(tenantId).fechaPago(hoy).montoPagado(new BigDecimal("4500.00")).build();
+
+        tendenciaVentasService.registrarPago(pago, PlanPago.builder().id(20L).ventaId(300L).build());
+
+        MovimientoTendencia movimiento = capturarMovimiento();
+        assertEquals(MetricaTendencia.PAGOS, movimiento.getMetrica());
+        assertEquals(10L, movimiento.getProyectoId());
+        assertEquals(new BigDecimal("4500.00"), movimiento.getMonto());
+    }
+
+    @Test
+    void registrarPago_SinVenta_NoRegistra() {
+        when(ventaRepository.findById(300L)).thenReturn(Optional.empty());
+        Pago pago = Pago.builder().id(1L).tenantId(tenantId).fechaPago(hoy).montoPagado(BigDecimal.TEN).build();
+
+        tendenciaVentasService.registrarPago(pago, PlanPago.builder().id(20L).ventaId(300L).build());
+
+        verify(movimientoTendenciaRepository, never()).save(any());
+    }
+
+    @Test
+    void obtenerTendencias_Mensual_AlineaPeriodosYRellenaHuecos() {
+        LocalDate enero = LocalDate.of(2025, 1, 1);
+        LocalDate marzo = LocalDate.of(2025, 3, 1);
+        when(tendenciaVentasRepository.consultar(tenantId, GranularidadTendencia.MES, enero, marzo, null, false))
+                .thenReturn(List.of(
+                        fila(enero, 0L, 2L, "500.00", "15.00", 3L, "90.00"),
+                        fila(marzo, 0L, 1L, "200.00", "6.00", 0L, "0")));
+
+        TendenciaVentasResponse tendencias = tendenciaVentasService.obtenerTendencias(
+                GranularidadTendencia.MES, LocalDate.of(2025, 1, 15), LocalDate.of(2025, 3, 20), null, false);
+
+        assertEquals(enero, tendencias.getDesde());
+        assertEquals(LocalDate.of(2025, 3, 31), tendencias.getHasta());
+        assertEquals(3, tendencias.getPeriodos().size());
+        TendenciaVentasResponse.Periodo febrero = tendencias.getPeriodos().get(1);
+        assertEquals(LocalDate.of(2025, 2, 1), febrero.getPeriodo());
+        assertEquals(0L, febrero.getVentas());
+        assertEquals(BigDecimal.ZERO, febrero.getMontoVentas());
+
+        TendenciaVentasResponse.Periodo totales = tendencias.getTotales();
+        assertNull(totales.getPeriodo());
+        assertEquals(3L, totales.getVentas());
+        assertEquals(new BigDecimal("700.00"), totales.getMontoVentas());
+        assertEquals(new BigDecimal("21.00"), totales.getComisiones());
+        assertEquals(3L, totales.getPagos());
+        assertNull(tendencias.getProyectos());
+        verifyNoInteractions(proyectoRepository);
+    }
+
+    @Test
+    void obtenerTendencias_PorProyecto_SeriesOrdenadasPorMonto() {
+        LocalDate lunes = LocalDate.of(2025, 6, 2);
+        when(tendenciaVentasRepository.consultar(tenantId, GranularidadTendencia.SEMANA, lunes, lunes.plusWeeks(1), null, true))
+                .thenReturn(List.of(
+                        fila(lunes, 10L, 1L, "100.00", "0", 0L, "0"),
+                        fila(lunes, 20L, 2L, "900.00", "0", 0L, "0"),
+                        fila(lunes.plusWeeks(1), 10L, 1L, "150.00", "0", 1L, "10.00")));
+        when(proyectoRepository.findAllById(Set.of(10L, 20L))).thenReturn(List.of(
+                Proyecto.builder().id(10L).nombre("Las Lomas").build(),
+                Proyecto.builder().id(20L).nombre("El Mirador").build()));
+
+        // Miércoles a domingo: las semanas que empiezan los lunes 2 y 9 de junio
+        TendenciaVentasResponse tendencias = tendenciaVentasService.obtenerTendencias(
+                GranularidadTendencia.SEMANA, LocalDate.of(2025, 6, 4), LocalDate.of(2025, 6, 15), null, true);
+
+        assertEquals(2, tendencias.getPeriodos().size());
+        assertEquals(new BigDecimal("1000.00"), tendencias.getPeriodos().get(0).getMontoVentas());
+        assertEquals(2, tendencias.getProyectos().size());
+        TendenciaVentasResponse.SerieProyecto primero = tendencias.getProyectos().get(0);
+        assertEquals("El Mirador", primero.getProyectoNombre());
+        assertEquals(2, primero.getPeriodos().size());
+        assertEquals(0L, primero.getPeriodos().get(1).getVentas());
+        assertEquals(new BigDecimal("250.00"), tendencias.getProyectos().get(1).getTotales().getMontoVentas());
+    }
+
+    @Test
+    void obtenerTendencias_DemasiadosPeriodos_LanzaExcepcion() {
+        BusinessException ex = assertThrows(BusinessException.class, () -> tendenciaVentasService.obtenerTendencias(
+                GranularidadTendencia.DIA, hoy.minusYears(4), hoy, null, false));
+
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatus());
+        verify(tendenciaVentasRepository, never()).consultar(any(), any(), any(), any(), any(), anyBoolean());
+    }
+
+    private MovimientoTendencia capturarMovimiento() {
+        ArgumentCaptor<MovimientoTendencia> movimiento = ArgumentCaptor.forClass(MovimientoTendencia.class);
+        verify(movimientoTendenciaRepository).save(movimiento.capture());
+        assertEquals(tenantId, movimiento.getValue().getTenantId());
+        return movimiento.getValue();
+    }
+
+    private static TendenciaVentasRepository.FilaTendencia fila(LocalDate periodo, long proyectoId, long ventas,
+                                                                String montoVentas, String comisiones, long pagos,
+                                                                String montoPagos) {
+        Map<MetricaTendencia, Long> cantidades = new EnumMap<>(Map.of(
+                MetricaTendencia.VENTAS, ventas, MetricaTendencia.PAGOS, pagos, MetricaTendencia.APARTADOS, 0L));
+        Map<MetricaTendencia, BigDecimal> montos = new EnumMap<>(Map.of(
+                MetricaTendencia.VENTAS, new BigDecimal(montoVentas), MetricaTendencia.PAGOS, new BigDecimal(montoPagos),
+                MetricaTendencia.APARTADOS, BigDecimal.ZERO));
+        return new TendenciaVentasRepository.FilaTendencia(periodo, proyectoId, cantidades, montos,
+                new BigDecimal(comisiones));
+    }
+}
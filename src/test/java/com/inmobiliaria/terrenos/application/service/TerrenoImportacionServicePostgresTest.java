@@ -0,0 +1,130 @@
+package com.inmobiliaria.terrenos.application.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inmobiliaria.terrenos.application.dto.terreno.ResultadoImportacionResponse;
+import com.inmobiliaria.terrenos.domain.entity.Fase;
+import com.inmobiliaria.terrenos.domain.entity.Proyecto;
+import com.inmobiliaria.terrenos.domain.repository.FaseRepository;
+import com.inmobiliaria.terrenos.domain.repository.ProyectoRepository;
+import com.inmobiliaria.terrenos.domain.repository.TerrenoRepository;
+import com.inmobiliaria.terrenos.infrastructure.persistence.TerrenoBatchWriter;
+import com.inmobiliaria.terrenos.infrastructure.tenant.TenantContext;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.mock.web.MockMultipartFile;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Importación de lotes con el TerrenoBatchWriter real contra PostgreSQL y las migraciones
+ * reales: los estados que acepta la validación de filas deben existir en estado_terreno, o un
+ * solo valor inválido revierte el lote completo. Los repositorios JPA se simulan. Se omite si
+ * no hay Docker.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@ExtendWith(MockitoExtension.class)
+class TerrenoImportacionServicePostgresTest {
+
+    @Container
+    static final PostgreSQLContainer POSTGRES = new PostgreSQLContainer("postgres:17-alpine");
+
+    private static JdbcTemplate jdbc;
+    private static Long tenantId;
+    private static Long proyectoId;
+    private static Long faseId;
+
+    @Mock
+    private ProyectoRepository proyectoRepository;
+
+    @Mock
+    private TerrenoRepository terrenoRepository;
+
+    @Mock
+    private FaseRepository faseRepository;
+
+    @Mock
+    private PlanoVersionService planoVersionService;
+
+    private TerrenoImportacionService importacionService;
+
+    @BeforeAll
+    static void migrar() {
+        Flyway.configure().dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .load().migrate();
+        jdbc = new JdbcTemplate(new SingleConnectionDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword(), true));
+
+        tenantId = jdbc.queryForObject("INSERT INTO tenants (nombre, email) " +
+                "VALUES ('Importación', 'importacion@test.mx') RETURNING id", Long.class);
+        proyectoId = jdbc.queryForObject("INSERT INTO proyectos (tenant_id, nombre, direccion) " +
+                "VALUES (?, 'Las Lomas', 'Calle 1') RETURNING id", Long.class, tenantId);
+        faseId = jdbc.queryForObject("INSERT INTO fases (tenant_id, proyecto_id, nombre) " +
+                "VALUES (?, ?, 'Fase Norte') RETURNING id", Long.class, tenantId, proyectoId);
+    }
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setTenantId(tenantId);
+        importacionService = new TerrenoImportacionService(proyectoRepository, terrenoRepository, faseRepository,
+                new TerrenoBatchWriter(jdbc), planoVersionService, new ObjectMapper());
+        when(proyectoRepository.findByIdAndTenantIdAndDeletedFalse(proyectoId, tenantId))
+                .thenReturn(Optional.of(Proyecto.builder().id(proyectoId).tenantId(tenantId).build()));
+        when(terrenoRepository.findIdYNumeroLoteByProyecto(tenantId, proyectoId)).thenReturn(List.of());
+        when(faseRepository.findByTenantIdAndProyectoIdAndDeletedFalse(tenantId, proyectoId))
+                .thenReturn(List.of(Fase.builder().id(faseId).nombre("Fase Norte").build()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void importar_EstadosFueraDelEnum_SonErroresDeFilaYLasDemasSeInsertan() {
+        when(planoVersionService.registrarCambioLotes(tenantId, proyectoId)).thenReturn(4L);
+        String csv = """
+                numero_lote,manzana,fase,area,precio_base,precio_ajuste,caracteristicas,estado
+                L-1,A,Fase Norte,200,450000,10000,"{""esquina"": true}",
+                L-2,A,,180,400000,,,DISPONIBLE
+                L-3,B,,150,300000,,,RESERVADO
+                L-4,B,,150,300000,,,NO_DISPONIBLE
+                """;
+
+        ResultadoImportacionResponse resultado = importacionService.importar(proyectoId,
+                new MockMultipartFile("file", "lotes.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8)), false);
+
+        assertEquals(2, resultado.getInsertados());
+        assertEquals(2, resultado.getConErrores());
+        assertEquals(List.of(4L, 5L),
+                resultado.getErrores().stream().map(ResultadoImportacionResponse.ErrorFila::getFila).toList());
+
+        List<Map<String, Object>> lotes = jdbc.queryForList("SELECT numero_lote, fase_id, precio_final, " +
+                "CAST(estado AS text) AS estado, caracteristicas ->> 'esquina' AS esquina, plano_version, created_by " +
+                "FROM terrenos WHERE proyecto_id = ? ORDER BY numero_lote", proyectoId);
+        assertEquals(List.of("L-1", "L-2"), lotes.stream().map(l -> l.get("numero_lote")).toList());
+        assertEquals(faseId, lotes.get(0).get("fase_id"));
+        assertEquals(new BigDecimal("460000.00"), lotes.get(0).get("precio_final"));
+        assertEquals("true", lotes.get(0).get("esquina"));
+        assertEquals(4L, lotes.get(0).get("plano_version"));
+        assertEquals("SYSTEM", lotes.get(0).get("created_by"));
+        assertTrue(lotes.stream().allMatch(l -> "DISPONIBLE".equals(l.get("estado"))));
+    }
+}
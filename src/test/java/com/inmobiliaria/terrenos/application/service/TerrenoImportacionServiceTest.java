@@ -0,0 +1,180 @@
+package com.inmobiliaria.terrenos.application.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inmobiliaria.terrenos.application.dto.terreno.ResultadoImportacionResponse;
+import com.inmobiliaria.terrenos.domain.entity.Fase;
+import com.inmobiliaria.terrenos.domain.entity.Proyecto;
+import com.inmobiliaria.terrenos.domain.enums.EstadoTerreno;
+import com.inmobiliaria.terrenos.domain.repository.FaseRepository;
+import com.inmobiliaria.terrenos.domain.repository.ProyectoRepository;
+import com.inmobiliaria.terrenos.domain.repository.TerrenoRepository;
+import com.inmobiliaria.terrenos.infrastructure.persistence.TerrenoBatchWriter;
+import com.inmobiliaria.terrenos.infrastructure.tenant.TenantContext;
+import com.inmobiliaria.terrenos.shared.exception.BusinessException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TerrenoImportacionServiceTest {
+
+    @Mock
+    private ProyectoRepository proyectoRepository;
+
+    @Mock
+    private TerrenoRepository terrenoRepository;
+
+    @Mock
+    private FaseRepository faseRepository;
+
+    @Mock
+    private TerrenoBatchWriter terrenoBatchWriter;
+
+    @Mock
+    private PlanoVersionService planoVersionService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private TerrenoImportacionService importacionService;
+
+    private final Long tenantId = 1L;
+    private final Long proyectoId = 200L;
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setTenantId(tenantId);
+        when(proyectoRepository.findByIdAndTenantIdAndDeletedFalse(proyectoId, tenantId))
+                .thenReturn(Optional.of(Proyecto.builder().id(proyectoId).tenantId(tenantId).build()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importar_CsvConErrores_InsertaValidasYReportaFilas() {
+        when(terrenoRepository.findIdYNumeroLoteByProyecto(tenantId, proyectoId))
+                .thenReturn(List.<Object[]>of(new Object[]{10L, "A-1"}));
+        when(faseRepository.findByTenantIdAndProyectoIdAndDeletedFalse(tenantId, proyectoId))
+                .thenReturn(List.of(Fase.builder().id(5L).nombre("Fase Norte").numeroFase(1).build()));
+        when(planoVersionService.registrarCambioLotes(tenantId, proyectoId)).thenReturn(9L);
+        when(terrenoBatchWriter.insertarImportados(eq(tenantId), eq(proyectoId), anyString(), anyLong(), anyCollection()))
+                .thenAnswer(inv -> ((Collection<?>) inv.getArgument(4)).size());
+
+        String csv = """
+                Número de lote;Manzana;Fase;Área;Precio base;Precio ajuste;Características;Estado
+                A-2;A;fase norte;200;450000;10000;"{""esquina"": true}";
+                a-1;A;;180;400000;;;
+                A-3;A;1;abc;400000;;;
+                A-2;B;;150;300000;;;
+
+                A-4;B;;150;;;;vendido
+                A-5;B;;150.255;300000;;;disponible
+                A-6;B;;150;300000;;;reservado
+                """;
+
+        ResultadoImportacionResponse resultado = importacionService.importar(proyectoId, csv(csv), false);
+
+        assertEquals(7, resultado.getFilasLeidas());
+        assertEquals(2, resultado.getValidas());
+        assertEquals(2, resultado.getInsertados());
+        assertEquals(5, resultado.getConErrores());
+        assertEquals(List.of(3L, 4L, 5L, 7L, 9L),
+                resultado.getErrores().stream().map(ResultadoImportacionResponse.ErrorFila::getFila).toList());
+        assertTrue(resultado.getErrores().get(0).getMensajes().get(0).contains("Ya existe"));
+        assertTrue(resultado.getErrores().get(2).getMensajes().get(0).contains("fila 2"));
+        assertEquals(2, resultado.getErrores().get(3).getMensajes().size());  // sin precio y estado inválido
+        // RESERVADO no existe en estado_terreno: error de la fila, no del lote completo
+        assertEquals(List.of("Estado inválido: reservado. Use DISPONIBLE"), resultado.getErrores().get(4).getMensajes());
+
+        ArgumentCaptor<Collection<TerrenoBatchWriter.LoteImportado>> lotes = ArgumentCaptor.forClass(Collection.class);
+        verify(terrenoBatchWriter).insertarImportados(eq(tenantId), eq(proyectoId), anyString(), eq(9L), lotes.capture());
+        List<TerrenoBatchWriter.LoteImportado> insertados = List.copyOf(lotes.getValue());
+        TerrenoBatchWriter.LoteImportado primero = insertados.get(0);
+        assertEquals(5L, primero.faseId());
+        assertEquals(new BigDecimal("460000.00"), primero.precioFinal());
+        assertEquals("{\"esquina\":true}", primero.caracteristicasJson());
+        assertEquals(EstadoTerreno.DISPONIBLE, primero.estado());
+        assertEquals(new BigDecimal("150.26"), insertados.get(1).area());
+        assertEquals(EstadoTerreno.DISPONIBLE, insertados.get(1).estado());
+
+        verify(proyectoRepository, times(1)).recalcularContadores(tenantId, proyectoId);
+    }
+
+    @Test
+    void importar_MilFilas_InsertaPorBloquesConUnaSolaVersion() {
+        when(terrenoRepository.findIdYNumeroLoteByProyecto(tenantId, proyectoId)).thenReturn(List.of());
+        when(planoVersionService.registrarCambioLotes(tenantId, proyectoId)).thenReturn(3L);
+        when(terrenoBatchWriter.insertarImportados(eq(tenantId), eq(proyectoId), anyString(), anyLong(), anyCollection()))
+                .thenAnswer(inv -> ((Collection<?>) inv.getArgument(4)).size());
+
+        StringBuilder csv = new StringBuilder("numero_lote,area,precio_base\n");
+        for (int i = 1; i <= 1_200; i++) {
+            csv.append("L-").append(i).append(",200,350000\n");
+        }
+
+        ResultadoImportacionResponse resultado = importacionService.importar(proyectoId, csv(csv.toString()), false);
+
+        assertEquals(1_200, resultado.getInsertados());
+        assertEquals(0, resultado.getConErrores());
+        verify(terrenoBatchWriter, times(3)).insertarImportados(eq(tenantId), eq(proyectoId), anyString(), eq(3L), anyCollection());
+        verify(planoVersionService, times(1)).registrarCambioLotes(tenantId, proyectoId);
+        verify(proyectoRepository, times(1)).recalcularContadores(tenantId, proyectoId);
+    }
+
+    @Test
+    void importar_SoloValidar_NoInserta() {
+        when(terrenoRepository.findIdYNumeroLoteByProyecto(tenantId, proyectoId)).thenReturn(List.of());
+
+        ResultadoImportacionResponse resultado = importacionService.importar(proyectoId,
+                csv("numero_lote,area,precio_base\nL-1,200,350000\n"), true);
+
+        assertEquals(1, resultado.getValidas());
+        assertEquals(0, resultado.getInsertados());
+        verifyNoInteractions(terrenoBatchWriter, planoVersionService);
+        verify(proyectoRepository, never()).recalcularContadores(any(), any());
+    }
+
+    @Test
+    void importar_SinColumnaObligatoria_LanzaExcepcion() {
+        when(terrenoRepository.findIdYNumeroLoteByProyecto(tenantId, proyectoId)).thenReturn(List.of());
+
+        BusinessException error = assertThrows(BusinessException.class,
+                () -> importacionService.importar(proyectoId, csv("numero_lote,area\nL-1,200\n"), false));
+
+        assertTrue(error.getMessage().contains("precio_base"));
+        verifyNoInteractions(terrenoBatchWriter);
+    }
+
+    @Test
+    void importar_FormatoNoSoportado_LanzaExcepcion() {
+        MockMultipartFile archivo = new MockMultipartFile("file", "lotes.pdf", "application/pdf", new byte[]{1, 2, 3});
+
+        assertThrows(BusinessException.class, () -> importacionService.importar(proyectoId, archivo, false));
+    }
+
+    private static MockMultipartFile csv(String contenido) {
+        return new MockMultipartFile("file", "lotes.csv", "text/csv", contenido.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,5 +1,6 @@
 package com.inmobiliaria.terrenos.application.service;
 
+import com.inmobiliaria.terrenos.application.dto.terreno.BusquedaTerrenosRequest;
 import com.inmobiliaria.terrenos.application.dto.terreno.CreateTerrenoRequest;
 import com.inmobiliaria.terrenos.application.dto.terreno.TerrenoResponse;
 import com.inmobiliaria.terrenos.application.dto.terreno.UpdateTerrenoRequest;
@@ -8,17 +9,24 @@ import com.inmobiliaria.terrenos.domain.entity.Terreno;
 import com.inmobiliaria.terrenos.domain.enums.EstadoTerreno;
 import com.inmobiliaria.terrenos.domain.repository.ProyectoRepository;
 import com.inmobiliaria.terrenos.domain.repository.TerrenoRepository;
+import com.inmobiliaria.terrenos.domain.repository.proyeccion.TerrenoListado;
+import com.inmobiliaria.terrenos.infrastructure.cache.SingleFlightCache;
+import com.inmobiliaria.terrenos.infrastructure.geometry.NivelesDetalleGeometria;
+import com.inmobiliaria.terrenos.infrastructure.persistence.TerrenoBusquedaRepository;
 import com.inmobiliaria.terrenos.infrastructure.tenant.TenantContext;
 import com.inmobiliaria.terrenos.interfaces.mapper.TerrenoMapper;
 import com.inmobiliaria.terrenos.shared.exception.BusinessException;
 import com.inmobiliaria.terrenos.shared.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 
 import java.math.BigDecimal;
@@ -41,6 +49,21 @@ class TerrenoServiceTest {
     @Mock
     private TerrenoMapper terrenoMapper;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private NivelesDetalleGeometria nivelesDetalle;
+
+    @Mock
+    private PlanoVersionService planoVersionService;
+
+    @Spy
+    private SingleFlightCache singleFlight = new SingleFlightCache(new SimpleMeterRegistry(), 100);
+
+    @Mock
+    private TerrenoBusquedaRepository terrenoBusquedaRepository;
+
     @InjectMocks
     private TerrenoService terrenoService;
 
@@ -108,6 +131,34 @@ class TerrenoServiceTest {
         assertThrows(ResourceNotFoundException.class, () -> terrenoService.obtenerTerreno(999L));
     }
 
+    @Test
+    void listarTerrenosDisponibles_MismaVersion_ConsultaUnaVez() {
+        when(proyectoRepository.findVersionPlano(tenantId, proyectoId)).thenReturn(Optional.of(3L));
+        List<TerrenoListado> disponibles = List.of(new TerrenoListado(400L, tenantId, proyectoId, null, "Lote 1", null,
+                new BigDecimal("200"), null, null, new BigDecimal("500000"), BigDecimal.ZERO, BigDecimal.ONE,
+                new BigDecimal("500000"), EstadoTerreno.DISPONIBLE, null, null));
+        when(terrenoRepository.findListadoDisponiblesPorProyecto(tenantId, proyectoId)).thenReturn(disponibles);
+        when(terrenoMapper.listadoToResponseList(disponibles)).thenReturn(List.of(terrenoResponse));
+
+        List<TerrenoResponse> primero = terrenoService.listarTerrenosDisponibles(proyectoId);
+        List<TerrenoResponse> segundo = terrenoService.listarTerrenosDisponibles(proyectoId);
+
+        assertSame(primero, segundo);
+        verify(terrenoRepository, times(1)).findListadoDisponiblesPorProyecto(tenantId, proyectoId);
+    }
+
+    @Test
+    void buscarTerrenos_RangoDePrecioInvertido_LanzaExcepcion() {
+        BusquedaTerrenosRequest filtros = BusquedaTerrenosRequest.builder()
+                .precioMin(new BigDecimal("500000"))
+                .precioMax(new BigDecimal("100000"))
+                .build();
+
+        BusinessException exception = assertThrows(BusinessException.class, () -> terrenoService.buscarTerrenos(filtros));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+        verifyNoInteractions(terrenoBusquedaRepository);
+    }
+
     @Test
     void crearTerreno_NombreDuplicado_LanzaExcepcion() {
         CreateTerrenoRequest request = new CreateTerrenoRequest();
@@ -177,6 +228,7 @@ class TerrenoServiceTest {
                 terrenoService.cambiarEstado(400L, EstadoTerreno.DISPONIBLE));
         assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
         verify(terrenoRepository, never()).save(any());
+        verifyNoInteractions(planoVersionService);
     }
 
     @Test
@@ -195,6 +247,7 @@ class TerrenoServiceTest {
         terrenoService.cambiarEstado(400L, EstadoTerreno.APARTADO);
 
         assertEquals(EstadoTerreno.APARTADO, terreno.getEstado());
+        verify(planoVersionService).registrarCambioLote(terreno);
         verify(terrenoRepository, times(1)).save(terreno);
         verify(proyectoRepository, times(1)).save(proyecto);
     }
@@ -0,0 +1,301 @@
+package com.inmobiliaria.terrenos.application.service;
+
+import com.inmobiliaria.terrenos.application.dto.reporte.ProyectoEstadisticasResponse;
+import com.inmobiliaria.terrenos.application.dto.reporte.SolicitudReporteRequest;
+import com.inmobiliaria.terrenos.application.dto.reporte.TrabajoReporteResponse;
+import com.inmobiliaria.terrenos.config.FileStorageProperties;
+import com.inmobiliaria.terrenos.domain.enums.EstadoTrabajoReporte;
+import com.inmobiliaria.terrenos.domain.enums.FormatoExportacion;
+import com.inmobiliaria.terrenos.domain.enums.TipoExportacion;
+import com.inmobiliaria.terrenos.domain.enums.TipoTrabajoReporte;
+import com.inmobiliaria.terrenos.infrastructure.reportes.ResultadosReportes;
+import com.inmobiliaria.terrenos.infrastructure.tenant.TenantContext;
+import com.inmobiliaria.terrenos.shared.exception.BusinessException;
+import com.inmobiliaria.terrenos.shared.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TrabajoReporteServiceTest {
+
+    @Mock
+    private ExportacionService exportacionService;
+
+    @Mock
+    private ReporteService reporteService;
+
+    @TempDir
+    Path directorio;
+
+    private final Long tenantId = 1L;
+    private final List<Runnable> pendientes = new ArrayList<>();
+    private ResultadosReportes resultadosReportes;
+    private TrabajoReporteService trabajoReporteService;
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setTenantId(tenantId);
+        // Un trabajo solo lo ve quien puede solicitarlo
+        SecurityContextHolder.getContext().setAuthentication(
+                new TestingAuthenticationToken("contador", null, "REPORTE_VER"));
+        FileStorageProperties properties = new FileStorageProperties();
+        properties.setUploadDir(directorio.toString());
+        resultadosReportes = new ResultadosReportes(properties);
+        trabajoReporteService = crearServicio(Duration.ofMinutes(5), Duration.ofHours(24));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void solicitar_Exportacion_SeEncolaYAlTerminarQuedaElArchivo() throws IOException {
+        when(exportacionService.exportar(eq(TipoExportacion.VENTAS), eq(FormatoExportacion.XLSX), any(), any(),
+                eq(10L), any())).thenAnswer(invocacion -> {
+                    ExportacionService.Destino destino = invocacion.getArgument(5);
+                    try (OutputStream salida = destino.abrir("ventas-2025-01-31.xlsx", FormatoExportacion.XLSX)) {
+                        salida.write(new byte[]{'P', 'K', 3, 4});
+                    }
+                    return 120L;
+                });
+
+        SolicitudReporteRequest solicitud = exportacion(TipoExportacion.VENTAS, 10L);
+        solicitud.setFormato(FormatoExportacion.XLSX);
+
+        TrabajoReporteResponse encolado = trabajoReporteService.solicitar(solicitud);
+
+        assertEquals(EstadoTrabajoReporte.EN_COLA, encolado.getEstado());
+        assertFalse(encolado.getReutilizado());
+        assertNull(encolado.getNombreArchivo());
+        assertEquals(1, pendientes.size());
+
+        ejecutarPendientes();
+
+        TrabajoReporteResponse completado = trabajoReporteService.obtener(encolado.getId());
+        assertEquals(EstadoTrabajoReporte.COMPLETADO, completado.getEstado());
+        assertEquals(120L, completado.getFilas());
+        assertEquals(4L, completado.getTamanioBytes());
+        assertEquals("ventas-2025-01-31.xlsx", completado.getNombreArchivo());
+        assertEquals(completado.getTerminadoAt().plusHours(24), completado.getVenceAt());
+        TrabajoReporteService.ArchivoReporte archivo = trabajoReporteService.obtenerArchivo(encolado.getId());
+        assertTrue(archivo.archivo().startsWith(directorio.resolve("reportes").resolve("tenant_1")));
+        assertEquals(FormatoExportacion.XLSX, archivo.formato());
+        verify(exportacionService).validar(TipoExportacion.VENTAS, null, null, 10L);
+    }
+
+    @Test
+    void solicitar_Identica_ReutilizaElTrabajoEnCurso() {
+        TrabajoReporteResponse primero = trabajoReporteService.solicitar(exportacion(TipoExportacion.PAGOS, null));
+        TrabajoReporteResponse segundo = trabajoReporteService.solicitar(exportacion(TipoExportacion.PAGOS, null));
+        TrabajoReporteResponse otroProyecto = trabajoReporteService.solicitar(exportacion(TipoExportacion.PAGOS, 10L));
+
+        assertEquals(primero.getId(), segundo.getId());
+        assertTrue(segundo.getReutilizado());
+        assertNotEquals(primero.getId(), otroProyecto.getId());
+        assertEquals(2, pendientes.size());
+    }
+
+    @Test
+    void solicitar_CompletadoFueraDeLaVentana_GeneraOtroTrabajo() throws IOException {
+        trabajoReporteService = crearServicio(Duration.ZERO, Duration.ofHours(24));
+        when(exportacionService.exportar(any(), any(), any(), any(), any(), any())).thenAnswer(invocacion -> {
+            ExportacionService.Destino destino = invocacion.getArgument(5);
+            destino.abrir("pagos.csv", FormatoExportacion.CSV).close();
+            return 0L;
+        });
+
+        TrabajoReporteResponse primero = trabajoReporteService.solicitar(exportacion(TipoExportacion.PAGOS, null));
+        ejecutarPendientes();
+        TrabajoReporteResponse segundo = trabajoReporteService.solicitar(exportacion(TipoExportacion.PAGOS, null));
+
+        assertNotEquals(primero.getId(), segundo.getId());
+        assertFalse(segundo.getReutilizado());
+    }
+
+    @Test
+    void solicitar_MaximoDeTrabajosDelTenant_Lanza429() {
+        trabajoReporteService.solicitar(exportacion(TipoExportacion.VENTAS, null));
+        trabajoReporteService.solicitar(exportacion(TipoExportacion.PAGOS, null));
+
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> trabajoReporteService.solicitar(exportacion(TipoExportacion.AMORTIZACIONES, null)));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, ex.getStatus());
+        // Otra empresa conserva su cupo
+        TenantContext.setTenantId(2L);
+        assertEquals(EstadoTrabajoReporte.EN_COLA,
+                trabajoReporteService.solicitar(exportacion(TipoExportacion.AMORTIZACIONES, null)).getEstado());
+    }
+
+    @Test
+    void solicitar_ColaLlena_Lanza503SinRegistrarTrabajo() {
+        trabajoReporteService = new TrabajoReporteService(exportacionService, reporteService, resultadosReportes,
+                tarea -> {
+                    throw new RejectedExecutionException("cola llena");
+                }, 2, Duration.ofMinutes(5), Duration.ofHours(24));
+
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> trabajoReporteService.solicitar(exportacion(TipoExportacion.VENTAS, null)));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ex.getStatus());
+        assertTrue(trabajoReporteService.listar().isEmpty());
+    }
+
+    @Test
+    void ejecutar_Error_MarcaErrorYUnReintentoGeneraOtroTrabajo() throws IOException {
+        when(exportacionService.exportar(any(), any(), any(), any(), any(), any()))
+                .thenThrow(new BusinessException("Proyecto no encontrado", HttpStatus.NOT_FOUND));
+
+        TrabajoReporteResponse primero = trabajoReporteService.solicitar(exportacion(TipoExportacion.VENTAS, 99L));
+        ejecutarPendientes();
+
+        TrabajoReporteResponse fallido = trabajoReporteService.obtener(primero.getId());
+        assertEquals(EstadoTrabajoReporte.ERROR, fallido.getEstado());
+        assertEquals("Proyecto no encontrado", fallido.getError());
+        BusinessException ex = assertThrows(BusinessException.class,
+                () -> trabajoReporteService.obtenerArchivo(primero.getId()));
+        assertEquals(HttpStatus.CONFLICT, ex.getStatus());
+        assertNotEquals(primero.getId(), trabajoReporteService.solicitar(exportacion(TipoExportacion.VENTAS, 99L)).getId());
+    }
+
+    @Test
+    void ejecutar_EstadisticasProyectos_EscribeUnaFilaPorProyecto() throws IOException {
+        when(reporteService.obtenerEstadisticasPorProyecto()).thenReturn(List.of(ProyectoEstadisticasResponse.builder()
+                .proyectoId(10L).proyectoNombre("Las Lomas").totalTerrenos(40).terrenosDisponibles(30)
+                .terrenosApartados(4).terrenosVendidos(6).porcentajeOcupacion(new BigDecimal("25.00"))
+                .porcentajeDisponibilidad(new BigDecimal("75.00")).numeroVentas(6L)
+                .montoTotalVentas(new BigDecimal("1500000.00")).ticketPromedio(new BigDecimal("250000.00")).build()));
+
+        TrabajoReporteResponse trabajo = trabajoReporteService.solicitar(SolicitudReporteRequest.builder()
+                .tipo(TipoTrabajoReporte.ESTADISTICAS_PROYECTOS).build());
+        ejecutarPendientes();
+
+        TrabajoReporteService.ArchivoReporte archivo = trabajoReporteService.obtenerArchivo(trabajo.getId());
+        List<String> lineas = Files.readAllLines(archivo.archivo(), StandardCharsets.UTF_8);
+        assertEquals(2, lineas.size());
+        assertEquals("10,Las Lomas,40,30,4,6,25.00,75.00,6,1500000.00,250000.00", lineas.get(1));
+        assertEquals("estadisticas-proyectos-" + LocalDate.now() + ".csv", archivo.nombre());
+        verifyNoInteractions(exportacionService);
+    }
+
+    @Test
+    void obtener_TrabajoDeOtroTenant_NoEncontrado() {
+        TrabajoReporteResponse trabajo = trabajoReporteService.solicitar(exportacion(TipoExportacion.VENTAS, null));
+
+        TenantContext.setTenantId(2L);
+
+        assertThrows(ResourceNotFoundException.class, () -> trabajoReporteService.obtener(trabajo.getId()));
+        assertTrue(trabajoReporteService.listar().isEmpty());
+    }
+
+    @Test
+    void obtener_ExportacionDeAuditoria_SoloLaVeUnAdministrador() {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("admin", null, "ADMIN"));
+        TrabajoReporteResponse trabajo = trabajoReporteService.solicitar(
+                exportacion(TipoExportacion.AUDITORIA_CRITICA, null));
+        assertEquals(trabajo.getId(), trabajoReporteService.obtener(trabajo.getId()).getId());
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new TestingAuthenticationToken("contador", null, "REPORTE_VER"));
+
+        assertThrows(ResourceNotFoundException.class, () -> trabajoReporteService.obtener(trabajo.getId()));
+        assertTrue(trabajoReporteService.listar().isEmpty());
+    }
+
+    @Test
+    void obtener_ExportacionDeClientes_LaVeQuienPuedeExportarClientes() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new TestingAuthenticationToken("vendedor", null, "CLIENTE_VER"));
+        TrabajoReporteResponse trabajo = trabajoReporteService.solicitar(exportacion(TipoExportacion.CLIENTES, null));
+        assertEquals(trabajo.getId(), trabajoReporteService.obtener(trabajo.getId()).getId());
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new TestingAuthenticationToken("contador", null, "REPORTE_VER"));
+
+        assertThrows(ResourceNotFoundException.class, () -> trabajoReporteService.obtener(trabajo.getId()));
+        assertTrue(trabajoReporteService.listar().isEmpty());
+    }
+
+    @Test
+    void autoridades_SonLasDeLaExportacionDirecta() {
+        for (TipoExportacion tipo : TipoExportacion.values()) {
+            assertArrayEquals(tipo.getAutoridades(), exportacion(tipo, null).autoridades());
+        }
+        SolicitudReporteRequest estadisticas = SolicitudReporteRequest.builder()
+                .tipo(TipoTrabajoReporte.ESTADISTICAS_PROYECTOS)
+                .tipoExportacion(TipoExportacion.CLIENTES)
+                .build();
+        assertArrayEquals(new String[]{"REPORTE_VER", "ADMIN"}, estadisticas.autoridades());
+    }
+
+    @Test
+    void eliminarVencidos_BorraTrabajoYArchivo() throws IOException {
+        trabajoReporteService = crearServicio(Duration.ofMinutes(5), Duration.ZERO);
+        when(exportacionService.exportar(any(), any(), any(), any(), any(), any())).thenAnswer(invocacion -> {
+            ExportacionService.Destino destino = invocacion.getArgument(5);
+            destino.abrir("ventas.csv", FormatoExportacion.CSV).close();
+            return 0L;
+        });
+        TrabajoReporteResponse trabajo = trabajoReporteService.solicitar(exportacion(TipoExportacion.VENTAS, null));
+        trabajoReporteService.solicitar(exportacion(TipoExportacion.PAGOS, null));
+        ejecutarPendientes();
+        Path archivo = trabajoReporteService.obtenerArchivo(trabajo.getId()).archivo();
+
+        assertEquals(2, trabajoReporteService.eliminarVencidos());
+
+        assertFalse(Files.exists(archivo));
+        assertThrows(ResourceNotFoundException.class, () -> trabajoReporteService.obtener(trabajo.getId()));
+    }
+
+    private TrabajoReporteService crearServicio(Duration ventanaDuplicados, Duration ttl) {
+        pendientes.clear();
+        return new TrabajoReporteService(exportacionService, reporteService, resultadosReportes, pendientes::add,
+                2, ventanaDuplicados, ttl);
+    }
+
+    /**
+     * Corre los trabajos encolados en este hilo; cada uno limpia el tenant al terminar
+     */
+    private void ejecutarPendientes() {
+        List<Runnable> tareas = new ArrayList<>(pendientes);
+        pendientes.clear();
+        tareas.forEach(Runnable::run);
+        assertNull(TenantContext.getTenantId());
+        TenantContext.setTenantId(tenantId);
+    }
+
+    private static SolicitudReporteRequest exportacion(TipoExportacion tipo, Long proyectoId) {
+        return SolicitudReporteRequest.builder()
+                .tipo(TipoTrabajoReporte.EXPORTACION)
+                .tipoExportacion(tipo)
+                .proyectoId(proyectoId)
+                .build();
+    }
+}
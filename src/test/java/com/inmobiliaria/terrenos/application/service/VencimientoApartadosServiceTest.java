@@ -0,0 +1,60 @@
+package com.inmobiliaria.terrenos.application.service;
+
+import com.inmobiliaria.terrenos.application.event.EstadoLoteCambiadoEvent;
+import com.inmobiliaria.terrenos.domain.enums.EstadoTerreno;
+import com.inmobiliaria.terrenos.infrastructure.persistence.VencimientoApartadosRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VencimientoApartadosServiceTest {
+
+    @Mock
+    private VencimientoApartadosRepository vencimientoApartadosRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private VencimientoApartadosService vencimientoApartadosService;
+
+    @Test
+    void vencerBloque_PublicaUnEventoPorLoteLiberado() {
+        when(vencimientoApartadosRepository.vencerBloque(eq(LocalDate.now()), eq(500), eq("SYSTEM")))
+                .thenReturn(new VencimientoApartadosRepository.Bloque(3, 2, List.of(
+                        new VencimientoApartadosRepository.LoteLiberado(1L, 10L, 100L, "A-1", 41L),
+                        new VencimientoApartadosRepository.LoteLiberado(2L, 20L, 200L, "B-7", 9L))));
+
+        int vencidos = vencimientoApartadosService.vencerBloque(500);
+
+        assertEquals(3, vencidos);
+        ArgumentCaptor<EstadoLoteCambiadoEvent> eventos = ArgumentCaptor.forClass(EstadoLoteCambiadoEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(eventos.capture());
+        EstadoLoteCambiadoEvent primero = eventos.getAllValues().get(0);
+        assertEquals(100L, primero.terrenoId());
+        assertEquals(EstadoTerreno.APARTADO, primero.estadoAnterior());
+        assertEquals(EstadoTerreno.DISPONIBLE, primero.estadoNuevo());
+        assertEquals(41L, primero.planoVersion());
+    }
+
+    @Test
+    void vencerBloque_SinVencidos_NoPublicaEventos() {
+        when(vencimientoApartadosRepository.vencerBloque(any(), anyInt(), anyString()))
+                .thenReturn(new VencimientoApartadosRepository.Bloque(0, 0, List.of()));
+
+        assertEquals(0, vencimientoApartadosService.vencerBloque(1000));
+        verifyNoInteractions(eventPublisher);
+    }
+}
@@ -13,6 +13,7 @@ import com.inmobiliaria.terrenos.domain.repository.ApartadoRepository;
 import com.inmobiliaria.terrenos.domain.repository.ProyectoRepository;
 import com.inmobiliaria.terrenos.domain.repository.TerrenoRepository;
 import com.inmobiliaria.terrenos.domain.repository.VentaRepository;
+import com.inmobiliaria.terrenos.domain.repository.proyeccion.VentaListado;
 import com.inmobiliaria.terrenos.infrastructure.tenant.TenantContext;
 import com.inmobiliaria.terrenos.interfaces.mapper.VentaMapper;
 import com.inmobiliaria.terrenos.shared.exception.BusinessException;
@@ -24,6 +25,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 
 import java.math.BigDecimal;
@@ -52,6 +54,18 @@ class VentaServiceTest {
     @Mock
     private VentaMapper ventaMapper;
 
+    @Mock
+    private PlanoVersionService planoVersionService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private EmbudoVentasService embudoVentasService;
+
+    @Mock
+    private TendenciaVentasService tendenciaVentasService;
+
     @InjectMocks
     private VentaService ventaService;
 
@@ -105,31 +119,39 @@ class VentaServiceTest {
         TenantContext.clear();
     }
 
+    private VentaListado ventaListado(EstadoVenta estado) {
+        return new VentaListado(100L, tenantId, 400L, "Lote 1", "A", 200L, "Proyecto Residencial", null,
+                null, null, null, "Juan Pérez", null, null, null, null, null, null,
+                new BigDecimal("500000"), BigDecimal.ZERO, new BigDecimal("500000"), BigDecimal.ZERO, BigDecimal.ZERO,
+                null, estado, null, null);
+    }
+
     @Test
     void listarVentas_Exitoso() {
-        when(ventaRepository.findByTenantIdAndDeletedFalse(tenantId)).thenReturn(List.of(venta));
-        when(ventaMapper.toResponseList(any())).thenReturn(List.of(ventaResponse));
+        when(ventaRepository.findListado(tenantId)).thenReturn(List.of(ventaListado(EstadoVenta.PENDIENTE)));
+        when(ventaMapper.listadoToResponseList(any())).thenReturn(List.of(ventaResponse));
 
         List<VentaResponse> resultado = ventaService.listarVentas();
 
         assertNotNull(resultado);
         assertEquals(1, resultado.size());
         assertEquals("Juan Pérez", resultado.get(0).getCompradorNombre());
-        verify(ventaRepository, times(1)).findByTenantIdAndDeletedFalse(tenantId);
+        verify(ventaRepository, times(1)).findListado(tenantId);
+        verify(ventaRepository, never()).findByTenantIdAndDeletedFalse(any());
     }
 
     @Test
     void listarVentasPorEstado_Exitoso() {
-        when(ventaRepository.findByTenantIdAndEstadoAndDeletedFalse(tenantId, EstadoVenta.PENDIENTE))
-                .thenReturn(List.of(venta));
-        when(ventaMapper.toResponseList(any())).thenReturn(List.of(ventaResponse));
+        when(ventaRepository.findListadoPorEstado(tenantId, EstadoVenta.PENDIENTE))
+                .thenReturn(List.of(ventaListado(EstadoVenta.PENDIENTE)));
+        when(ventaMapper.listadoToResponseList(any())).thenReturn(List.of(ventaResponse));
 
         List<VentaResponse> resultado = ventaService.listarVentasPorEstado(EstadoVenta.PENDIENTE);
 
         assertNotNull(resultado);
         assertEquals(1, resultado.size());
         verify(ventaRepository, times(1))
-                .findByTenantIdAndEstadoAndDeletedFalse(tenantId, EstadoVenta.PENDIENTE);
+                .findListadoPorEstado(tenantId, EstadoVenta.PENDIENTE);
     }
 
     @Test
@@ -214,6 +236,8 @@ class VentaServiceTest {
         assertEquals(EstadoApartado.COMPLETADO, apartado.getEstado());
         verify(apartadoRepository, times(1)).save(apartado);
         verify(terrenoRepository, times(1)).save(terreno);
+        verify(embudoVentasService).registrarVenta(venta, 10L, apartado);
+        verify(tendenciaVentasService).registrarVenta(venta, 10L);
     }
 
     @Test
@@ -227,6 +251,8 @@ class VentaServiceTest {
         assertNotNull(resultado);
         assertEquals(EstadoVenta.PAGADO, venta.getEstado());
         verify(ventaRepository, times(1)).save(venta);
+        verify(embudoVentasService).registrarCambioEstadoVenta(venta, EstadoVenta.PENDIENTE);
+        verify(tendenciaVentasService).registrarCambioEstadoVenta(venta, EstadoVenta.PENDIENTE);
     }
 
     @Test
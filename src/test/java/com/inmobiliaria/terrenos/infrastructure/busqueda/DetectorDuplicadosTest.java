@@ -0,0 +1,128 @@
+package com.inmobiliaria.terrenos.infrastructure.busqueda;
+
+import com.inmobiliaria.terrenos.infrastructure.busqueda.DetectorDuplicados.Ficha;
+import com.inmobiliaria.terrenos.infrastructure.busqueda.DetectorDuplicados.Par;
+import com.inmobiliaria.terrenos.infrastructure.busqueda.DetectorDuplicados.Resultado;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DetectorDuplicadosTest {
+
+    @Test
+    void detectar_MismoTelefonoYNombreConAcentos_SugierePar() {
+        List<Ficha> fichas = List.of(
+                new Ficha(1, "José", "Hernández", null, "55 1234 5678", null, null),
+                new Ficha(2, "Jose", "Hernandez", "jose.h@mail.com", "+52 (55) 1234-5678", null, null),
+                new Ficha(3, "Ana", "López", null, "33 9876 5432", null, null));
+
+        Resultado resultado = DetectorDuplicados.detectar(fichas, 0.8, 100);
+
+        assertEquals(1, resultado.pares().size());
+        Par par = resultado.pares().get(0);
+        assertEquals(1L, par.clienteId());
+        assertEquals(2L, par.duplicadoId());
+        assertEquals(1.0, par.puntaje());
+        assertEquals("NOMBRE,TELEFONO", par.coincidencias());
+    }
+
+    @Test
+    void detectar_ParQueComparteVariasLlaves_SeEvaluaUnaSolaVez() {
+        List<Ficha> fichas = List.of(
+                new Ficha(10, "María", "Pérez", "maria.perez@mail.com", "5512345678", null, "PEMM800101AB1"),
+                new Ficha(4, "Maria", "Peres", "mariaperez+ventas@otro.com", "5512345678", null, "PEMM800101XY9"));
+
+        Resultado resultado = DetectorDuplicados.detectar(fichas, 0.8, 100);
+
+        // Comparten teléfono, parte local del email, código fonético y RFC
+        assertEquals(4, resultado.bloques());
+        assertEquals(1, resultado.comparaciones());
+        assertEquals(1, resultado.pares().size());
+        assertEquals(4L, resultado.pares().get(0).clienteId());
+        assertEquals("NOMBRE,TELEFONO,EMAIL,RFC", resultado.pares().get(0).coincidencias());
+    }
+
+    @Test
+    void detectar_SoloNombreIgual_NoAlcanzaElUmbral() {
+        List<Ficha> fichas = List.of(
+                new Ficha(1, "Juan", "García", "juan@mail.com", "5511111111", null, null),
+                new Ficha(2, "Juan", "Garcia", "jgarcia@otro.com", "3322222222", null, null));
+
+        Resultado resultado = DetectorDuplicados.detectar(fichas, 0.8, 100);
+
+        assertEquals(1, resultado.comparaciones());
+        assertTrue(resultado.pares().isEmpty());
+    }
+
+    @Test
+    void detectar_FamiliarQueCompartenTelefono_NoSeSugiere() {
+        List<Ficha> fichas = List.of(
+                new Ficha(1, "Roberto", "Sánchez", null, "5512345678", null, null),
+                new Ficha(2, "Lucía", "Sánchez", null, "5512345678", null, null));
+
+        assertTrue(DetectorDuplicados.detectar(fichas, 0.8, 100).pares().isEmpty());
+    }
+
+    @Test
+    void detectar_BloqueMayorAlMaximo_SeOmite() {
+        String[] nombres = {"Ana", "Beto", "Ciro", "Dora", "Eva"};
+        String[] apellidos = {"Ruiz", "Mora", "Soto", "Vega", "Lara"};
+        List<Ficha> fichas = new ArrayList<>();
+        for (int i = 0; i < nombres.length; i++) {
+            // Teléfono de relleno capturado en todos los prospectos
+            fichas.add(new Ficha(i + 1, nombres[i], apellidos[i], null, "0000000000", null, null));
+        }
+
+        Resultado resultado = DetectorDuplicados.detectar(fichas, 0.8, 4);
+
+        assertEquals(1, resultado.bloquesOmitidos());
+        assertEquals(0, resultado.comparaciones());
+        assertTrue(resultado.pares().isEmpty());
+    }
+
+    @Test
+    void detectar_ParEnBloqueOmitido_SeEvaluaEnOtroBloqueComun() {
+        List<Ficha> fichas = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            fichas.add(new Ficha(i, "Otro" + i, "Nombre", null, "0000000000", null, null));
+        }
+        fichas.add(new Ficha(6, "Carmen", "Villa", "carmen.villa@mail.com", "0000000000", null, null));
+        fichas.add(new Ficha(7, "Carmen", "Billa", "carmenvilla@mail.com", "0000000000", null, null));
+
+        Resultado resultado = DetectorDuplicados.detectar(fichas, 0.8, 4);
+
+        assertEquals(1, resultado.pares().size());
+        assertEquals(6L, resultado.pares().get(0).clienteId());
+        assertEquals(7L, resultado.pares().get(0).duplicadoId());
+        // El teléfono de relleno no cuenta como coincidencia
+        assertEquals("NOMBRE,EMAIL", resultado.pares().get(0).coincidencias());
+    }
+
+    @Test
+    void codigoFonetico_VariantesOrtograficas_DanElMismoCodigo() {
+        assertEquals("RNDS", DetectorDuplicados.codigoFonetico("hernandez"));
+        assertEquals(DetectorDuplicados.codigoFonetico("hernandez"), DetectorDuplicados.codigoFonetico("ernandes"));
+        assertEquals(DetectorDuplicados.codigoFonetico("gonzalez"), DetectorDuplicados.codigoFonetico("gonsales"));
+        assertEquals(DetectorDuplicados.codigoFonetico("villa"), DetectorDuplicados.codigoFonetico("biya"));
+        assertEquals(DetectorDuplicados.codigoFonetico("cecilia"), DetectorDuplicados.codigoFonetico("sesilia"));
+        assertNotEquals(DetectorDuplicados.codigoFonetico("gerardo"), DetectorDuplicados.codigoFonetico("guerardo"));
+    }
+
+    @Test
+    void llaves_NormalizaTelefonoYEmail() {
+        String[] llaves = DetectorDuplicados.llaves(
+                new Ficha(1, "Luis", "Ramírez", "Luis.Ramirez+crm@Mail.com", "+52 55 1234 5678", "123", "rami800101"));
+
+        assertArrayEquals(new String[]{"T5512345678", "Eluisramirez", "FLS|RMRS", "RRAMI800101"}, llaves);
+    }
+
+    @Test
+    void jaroWinkler_ValoresConocidos() {
+        assertEquals(1.0, DetectorDuplicados.jaroWinkler("martha", "martha"));
+        assertEquals(0.961, DetectorDuplicados.jaroWinkler("martha", "marhta"), 0.001);
+        assertEquals(0.0, DetectorDuplicados.jaroWinkler("abc", "xyz"));
+    }
+}
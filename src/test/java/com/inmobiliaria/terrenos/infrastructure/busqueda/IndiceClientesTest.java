@@ -0,0 +1,92 @@
+package com.inmobiliaria.terrenos.infrastructure.busqueda;
+
+import com.inmobiliaria.terrenos.application.dto.cliente.ClienteSugerenciaResponse;
+import com.inmobiliaria.terrenos.domain.enums.EstadoCliente;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceClientesTest {
+
+    private final IndiceClientes indice = IndiceClientes.of(List.of(
+            ficha(1L, "José", "Pérez López", "jose.perez@gmail.com", "55 1234 5678", "PELJ800101AB1"),
+            ficha(2L, "María", "Josefa Ruiz", "mruiz@hotmail.com", "(33) 8765-4321", null),
+            ficha(3L, "Juan", "Hernández López", "jhl@outlook.com", "81 5555 0000", "HELJ900202CD2"),
+            ficha(4L, "Joaquín", "Ríos", null, "55 9999 1234", null)));
+
+    @Test
+    void buscar_SinAcentosNiMayusculas_OrdenaPorRango() {
+        List<ClienteSugerenciaResponse> resultados = indice.buscar("JOSE", 10);
+
+        // 1 empieza con "jose"; 2 tiene una palabra que empieza con "jose"
+        assertEquals(List.of(1L, 2L), ids(resultados));
+        assertEquals(0, resultados.get(0).getRango());
+        assertEquals(1, resultados.get(1).getRango());
+        assertEquals("José Pérez López", resultados.get(0).getNombreCompleto());
+    }
+
+    @Test
+    void buscar_DosCaracteres_SoloInicioDePalabra() {
+        // El nombre empieza con "jo" (el más corto primero) y luego "josefa" como segunda palabra
+        assertEquals(List.of(4L, 1L, 2L), ids(indice.buscar("jo", 10)));
+        assertEquals(List.of(1L, 3L), ids(indice.buscar("ló", 10)).stream().sorted().toList());
+        assertTrue(indice.buscar("j", 10).isEmpty());
+    }
+
+    @Test
+    void buscar_TelefonoConFormatoDistinto_YRfcPorPrefijo() {
+        assertEquals(List.of(2L), ids(indice.buscar("876 543", 10)));
+        assertEquals(List.of(1L, 4L), ids(indice.buscar("1234", 10)).stream().sorted().toList());
+        assertEquals(List.of(3L), ids(indice.buscar("helj9", 10)));
+    }
+
+    @Test
+    void buscar_ErrorDeDedo_CoincidenciaAproximada() {
+        List<ClienteSugerenciaResponse> resultados = indice.buscar("hernadez lopez", 10);
+
+        assertEquals(List.of(3L), ids(resultados));
+        assertEquals(3, resultados.get(0).getRango());
+        assertTrue(resultados.get(0).getSimilitud() >= IndiceClientes.UMBRAL_APROXIMADO);
+    }
+
+    @Test
+    void guardarYQuitar_ActualizanElIndice() {
+        indice.guardar(ficha(2L, "Mariana", "Ruiz", "mruiz@hotmail.com", "3387654321", null));
+        indice.guardar(ficha(5L, "Josué", "Vega", null, "5500000000", null));
+        indice.quitar(1L);
+
+        assertEquals(List.of(5L), ids(indice.buscar("josu", 10)));
+        assertTrue(indice.buscar("josefa", 10).isEmpty());
+        assertTrue(indice.buscar("perez", 10).isEmpty());
+        assertEquals(List.of(2L), ids(indice.buscar("mariana", 10)));
+        assertEquals(4, indice.size());
+        assertFalse(indice.fragmentado());
+    }
+
+    @Test
+    void buscar_RespetaElLimite() {
+        List<IndiceClientes.Ficha> fichas = new ArrayList<>();
+        for (long id = 1; id <= 100; id++) {
+            fichas.add(ficha(id, "Ana", "Cliente " + id, null, "55" + id, null));
+        }
+        IndiceClientes grande = IndiceClientes.of(fichas);
+
+        List<ClienteSugerenciaResponse> resultados = grande.buscar("ana cli", 5);
+
+        // Mismo rango y similitud: desempata el id
+        assertEquals(5, resultados.size());
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), ids(resultados));
+    }
+
+    private static IndiceClientes.Ficha ficha(Long id, String nombre, String apellido, String email, String telefono,
+                                              String rfc) {
+        return new IndiceClientes.Ficha(id, nombre, apellido, email, telefono, rfc, EstadoCliente.PROSPECTO);
+    }
+
+    private static List<Long> ids(List<ClienteSugerenciaResponse> resultados) {
+        return resultados.stream().map(ClienteSugerenciaResponse::getId).toList();
+    }
+}
@@ -0,0 +1,158 @@
+package com.inmobiliaria.terrenos.infrastructure.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SingleFlightCacheTest {
+
+    private static final Duration TTL = Duration.ofMinutes(1);
+
+    private SimpleMeterRegistry registry;
+    private SingleFlightCache cache;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        cache = new SingleFlightCache(registry, 100);
+    }
+
+    private double contador(String resultado) {
+        var counter = registry.find("cache.single-flight").tag("resultado", resultado).counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    @Test
+    void obtener_PeticionesSimultaneas_CompartenUnSoloCalculo() throws Exception {
+        AtomicInteger calculos = new AtomicInteger();
+        CountDownLatch enCalculo = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> primera = executor.submit(() -> cache.obtener("plano", 1L, 10L, 1, TTL, () -> {
+                calculos.incrementAndGet();
+                enCalculo.countDown();
+                await(liberar);
+                return "plano";
+            }));
+            assertTrue(enCalculo.await(5, TimeUnit.SECONDS));
+
+            List<Future<String>> esperando = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                esperando.add(executor.submit(() -> cache.obtener("plano", 1L, 10L, 1, TTL, () -> {
+                    calculos.incrementAndGet();
+                    return "otro";
+                })));
+            }
+            // Las peticiones ya se registraron como agrupadas antes de liberar el cálculo
+            while (contador("coalesced") < 8) {
+                Thread.sleep(5);
+            }
+            liberar.countDown();
+
+            assertEquals("plano", primera.get(5, TimeUnit.SECONDS));
+            for (Future<String> futuro : esperando) {
+                assertEquals("plano", futuro.get(5, TimeUnit.SECONDS));
+            }
+        }
+        assertEquals(1, calculos.get());
+        assertEquals(1, contador("miss"));
+    }
+
+    @Test
+    void obtener_MismaVersionDentroDelTtl_ReutilizaResultado() {
+        AtomicInteger calculos = new AtomicInteger();
+
+        Object primero = cache.obtener("plano", 1L, 10L, 3, TTL, () -> new Object[]{calculos.incrementAndGet()});
+        Object segundo = cache.obtener("plano", 1L, 10L, 3, TTL, () -> new Object[]{calculos.incrementAndGet()});
+
+        assertSame(primero, segundo);
+        assertEquals(1, calculos.get());
+        assertEquals(1, contador("hit"));
+    }
+
+    @Test
+    void obtener_VersionMayorOTenantDistinto_Recalcula() {
+        AtomicInteger calculos = new AtomicInteger();
+
+        cache.obtener("plano", 1L, 10L, 3, TTL, calculos::incrementAndGet);
+        int nuevaVersion = cache.obtener("plano", 1L, 10L, 4, TTL, calculos::incrementAndGet);
+        int otroTenant = cache.obtener("plano", 2L, 10L, 4, TTL, calculos::incrementAndGet);
+        int versionVieja = cache.obtener("plano", 1L, 10L, 3, TTL, calculos::incrementAndGet);
+
+        assertEquals(2, nuevaVersion);
+        assertEquals(3, otroTenant);
+        assertEquals(2, versionVieja);  // la entrada de la versión 4 también sirve a quien leyó la 3
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void obtener_TtlVencido_Recalcula() {
+        AtomicInteger calculos = new AtomicInteger();
+
+        cache.obtener("dashboard", 1L, "", 1, Duration.ZERO, calculos::incrementAndGet);
+        busyWait();
+        cache.obtener("dashboard", 1L, "", 1, Duration.ZERO, calculos::incrementAndGet);
+
+        assertEquals(2, calculos.get());
+    }
+
+    @Test
+    void obtener_CalculoFalla_PropagaYNoGuarda() {
+        assertThrows(IllegalStateException.class, () -> cache.obtener("plano", 1L, 10L, 1, TTL, () -> {
+            throw new IllegalStateException("fallo");
+        }));
+
+        assertEquals(0, cache.size());
+        assertEquals("ok", cache.obtener("plano", 1L, 10L, 1, TTL, () -> "ok"));
+    }
+
+    @Test
+    void obtener_ConTransactionManager_CalculaEnTransaccionDeSoloLectura() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        cache = new SingleFlightCache(registry, transactionManager, 100);
+
+        assertEquals("plano", cache.obtener("plano", 1L, 10L, 1, TTL, () -> "plano"));
+        assertEquals("plano", cache.obtener("plano", 1L, 10L, 1, TTL, () -> "otro"));
+
+        // Solo el cálculo abre transacción; el resultado compartido no toca la BD
+        ArgumentCaptor<TransactionDefinition> definicion = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definicion.capture());
+        assertTrue(definicion.getValue().isReadOnly());
+        verify(transactionManager).commit(any());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void busyWait() {
+        long inicio = System.nanoTime();
+        while (System.nanoTime() == inicio) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.inmobiliaria.terrenos.infrastructure.cv;
+
+import com.inmobiliaria.terrenos.config.CvEngineProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Plano de 1000x500 en dos teselas de 600px (200px de solapamiento) con el teselador real y
+ * el motor simulado.
+ */
+@ExtendWith(MockitoExtension.class)
+class CvAnalisisTeseladoTest {
+
+    @Mock
+    private CvEngineClient cvEngineClient;
+
+    @TempDir
+    Path uploads;
+
+    private CvEngineProperties properties;
+    private CvAnalisisTeselado analisis;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        properties = new CvEngineProperties();
+        properties.getTeselas().setTamanioPx(600);
+        properties.getTeselas().setSolapamientoPx(200);
+        properties.setReadTimeout(Duration.ofSeconds(5));
+        analisis = new CvAnalisisTeselado(cvEngineClient, new PlanoTeselador(), properties);
+
+        Files.createDirectories(uploads.resolve("planos"));
+        ImageIO.write(new BufferedImage(1000, 500, BufferedImage.TYPE_INT_RGB), "png",
+                uploads.resolve("planos/plano.png").toFile());
+    }
+
+    @Test
+    void analizar_FallaUnaTesela_InterrumpeLasDemasYBorraLasTeselasAlTerminar() throws Exception {
+        CountDownLatch enCurso = new CountDownLatch(1);
+        AtomicBoolean interrumpida = new AtomicBoolean();
+        AtomicBoolean teselasAlTerminar = new AtomicBoolean();
+
+        when(cvEngineClient.extraerLotes(eq(1L), anyString(), any(Duration.class))).thenAnswer(invocacion -> {
+            String ruta = invocacion.getArgument(1);
+            if (ruta.endsWith("tesela_0_1.png")) {
+                // Tesela lenta: sigue "leyendo" su imagen hasta que la interrumpen
+                enCurso.countDown();
+                try {
+                    new CountDownLatch(1).await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    interrumpida.set(true);
+                }
+                teselasAlTerminar.set(Files.exists(uploads.resolve(ruta)));
+                throw CvEngineException.noDisponible("El análisis fue interrumpido");
+            }
+            enCurso.await(5, TimeUnit.SECONDS);
+            throw CvEngineException.archivoRechazado("imagen ilegible");
+        });
+
+        CvEngineException e = assertThrows(CvEngineException.class,
+                () -> analisis.analizar(1L, uploads, "planos/plano.png", (terminadas, total) -> { }));
+
+        assertEquals(CvEngineException.ARCHIVO_RECHAZADO, e.getCode());
+        assertTrue(interrumpida.get(), "La tesela en curso debe cancelarse con interrupción");
+        assertTrue(teselasAlTerminar.get(), "Las teselas no deben borrarse mientras el motor las lee");
+        try (Stream<Path> restantes = Files.list(uploads.resolve("planos/teselas"))) {
+            assertEquals(0, restantes.count(), "Las teselas se borran al terminar");
+        }
+    }
+
+    @Test
+    void variante_CambiaConLaGeometriaYElMargenDeFusion() {
+        String original = analisis.variante();
+        assertEquals("teselas-600-200-3", original);
+
+        properties.getTeselas().setMargenBordePx(8);
+        String otroMargen = analisis.variante();
+        assertNotEquals(original, otroMargen, "Otro margen fusiona otros lotes: no puede usar la misma caché");
+
+        properties.getTeselas().setSolapamientoPx(100);
+        assertNotEquals(otroMargen, analisis.variante());
+    }
+}
@@ -0,0 +1,218 @@
+package com.inmobiliaria.terrenos.infrastructure.cv;
+
+import com.inmobiliaria.terrenos.application.dto.plano.CvEngineResponse;
+import com.inmobiliaria.terrenos.config.CvEngineProperties;
+import com.inmobiliaria.terrenos.infrastructure.resilience.CircuitBreaker;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del cliente del CV Engine contra un motor simulado local
+ * (respuestas exitosas, lentas, rechazos 4xx y caídas 5xx).
+ */
+class CvEngineClientTest {
+
+    private static final String RESPUESTA_OK = """
+            {"archivo_procesado":"planos/proyecto_1/plano.png","total_lotes_detectados":1,
+             "tiempo_procesamiento_ms":12.5,
+             "lotes":[{"id_temporal":"t1","numero_lote_detectado":"12","area_detectada":"1500.0",
+                       "confianza_ocr":91.0,"poligono":[{"x":0,"y":0},{"x":10,"y":0},{"x":10,"y":10}],
+                       "coordenadas_centro":{"x":5,"y":5}}]}
+            """;
+
+    private enum Modo { OK, LENTO, RECHAZO, CAIDO }
+
+    private HttpServer motorSimulado;
+    private final AtomicInteger peticiones = new AtomicInteger();
+    private volatile Modo modo = Modo.OK;
+    private volatile long demoraMs = 0;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CvEngineProperties properties;
+    private CvEngineClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        motorSimulado = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        motorSimulado.setExecutor(java.util.concurrent.Executors.newCachedThreadPool());
+        motorSimulado.createContext("/api/cv/extract-lots", this::responder);
+        motorSimulado.start();
+
+        properties = new CvEngineProperties();
+        properties.setUrl("http://127.0.0.1:" + motorSimulado.getAddress().getPort());
+        properties.setReadTimeout(Duration.ofMillis(500));
+        properties.setConnectTimeout(Duration.ofSeconds(1));
+        properties.setMaxConcurrentesPorTenant(1);
+        properties.setMaxConcurrentes(4);
+        properties.setEsperaBulkhead(Duration.ofMillis(50));
+        properties.setUmbralFallos(2);
+        properties.setTiempoCircuitoAbierto(Duration.ofMinutes(1));
+
+        meterRegistry = new SimpleMeterRegistry();
+        client = new CvEngineClient(properties, RestClient.builder(), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        client.destroy();
+        motorSimulado.stop(0);
+    }
+
+    @Test
+    void extraerLotes_MotorResponde_DevuelveLotesYRegistraLatencia() {
+        CvEngineResponse respuesta = client.extraerLotes(1L, "planos/proyecto_1/plano.png");
+
+        assertEquals(1, respuesta.getTotal_lotes_detectados());
+        assertEquals("12", respuesta.getLotes().get(0).getNumero_lote_detectado());
+        assertEquals(1, meterRegistry.get("cv.engine.latency").tag("resultado", "exito").timer().count());
+        assertEquals(0.0, meterRegistry.get("cv.engine.inflight").gauge().value());
+    }
+
+    @Test
+    void extraerLotes_ArchivoRechazado_NoAbreCircuito() {
+        modo = Modo.RECHAZO;
+
+        for (int i = 0; i < 3; i++) {
+            CvEngineException e = assertThrows(CvEngineException.class,
+                    () -> client.extraerLotes(1L, "planos/proyecto_1/corrupto.png"));
+            assertEquals(CvEngineException.ARCHIVO_RECHAZADO, e.getCode());
+        }
+        assertEquals(CircuitBreaker.Estado.CERRADO, client.getEstadoCircuito());
+        assertEquals(3, peticiones.get());
+    }
+
+    @Test
+    void extraerLotes_MotorCaido_AbreCircuitoYFallaRapido() {
+        modo = Modo.CAIDO;
+
+        for (int i = 0; i < 2; i++) {
+            CvEngineException e = assertThrows(CvEngineException.class,
+                    () -> client.extraerLotes(1L, "planos/proyecto_1/plano.png"));
+            assertEquals(CvEngineException.NO_DISPONIBLE, e.getCode());
+        }
+        assertEquals(CircuitBreaker.Estado.ABIERTO, client.getEstadoCircuito());
+
+        // Con el circuito abierto ya no se llega al motor
+        assertThrows(CvEngineException.class, () -> client.extraerLotes(1L, "planos/proyecto_1/plano.png"));
+        assertEquals(2, peticiones.get());
+        assertEquals(1.0, meterRegistry.get("cv.engine.rejected").tag("motivo", "circuito_abierto").counter().count());
+    }
+
+    @Test
+    void extraerLotes_MotorLento_TimeoutCuentaComoFallo() {
+        modo = Modo.LENTO;
+        demoraMs = 2_000;
+
+        CvEngineException e = assertThrows(CvEngineException.class,
+                () -> client.extraerLotes(1L, "planos/proyecto_1/plano.png"));
+        assertEquals(CvEngineException.NO_DISPONIBLE, e.getCode());
+        assertEquals(1, meterRegistry.get("cv.engine.latency").tag("resultado", "error").timer().count());
+    }
+
+    @Test
+    void extraerLotes_HiloInterrumpido_AbortaSinContarComoFallo() throws Exception {
+        modo = Modo.LENTO;
+        demoraMs = 2_000;
+
+        // Dos cancelaciones seguidas (antes del timeout de 500 ms): como fallos abrirían el circuito
+        for (int i = 1; i <= 2; i++) {
+            AtomicReference<Throwable> error = new AtomicReference<>();
+            Thread llamada = Thread.ofVirtual().start(() -> {
+                try {
+                    client.extraerLotes(1L, "planos/proyecto_1/teselas/t.png", Duration.ofSeconds(1));
+                } catch (RuntimeException e) {
+                    error.set(e);
+                }
+            });
+            esperarPeticiones(i);
+            llamada.interrupt();
+            llamada.join(2_000);
+
+            assertFalse(llamada.isAlive());
+            CvEngineException e = assertInstanceOf(CvEngineException.class, error.get());
+            assertEquals(CvEngineException.NO_DISPONIBLE, e.getCode());
+        }
+        assertEquals(CircuitBreaker.Estado.CERRADO, client.getEstadoCircuito());
+        assertEquals(2, meterRegistry.get("cv.engine.latency").tag("resultado", "cancelado").timer().count());
+    }
+
+    @Test
+    void extraerLotesAsync_TenantSinCupo_RechazaSinAfectarOtrosTenants() throws Exception {
+        modo = Modo.LENTO;
+        demoraMs = 300;
+
+        CompletableFuture<CvEngineResponse> enCurso = client.extraerLotesAsync(1L, "planos/proyecto_1/a.png");
+        esperarPeticiones(1);
+
+        CvEngineException e = assertThrows(CvEngineException.class,
+                () -> client.extraerLotes(1L, "planos/proyecto_1/b.png"));
+        assertEquals(CvEngineException.SATURADO, e.getCode());
+
+        // Otro tenant conserva su propio cupo
+        CvEngineResponse otroTenant = client.extraerLotesAsync(2L, "planos/proyecto_9/c.png").get(5, TimeUnit.SECONDS);
+        assertNotNull(otroTenant);
+        assertNotNull(enCurso.get(5, TimeUnit.SECONDS));
+        assertEquals(1.0, meterRegistry.get("cv.engine.rejected").tag("motivo", "bulkhead").counter().count());
+    }
+
+    private void responder(HttpExchange exchange) throws IOException {
+        peticiones.incrementAndGet();
+        exchange.getRequestBody().readAllBytes();
+        try {
+            switch (modo) {
+                case LENTO -> {
+                    dormir(demoraMs);
+                    enviar(exchange, 200, RESPUESTA_OK);
+                }
+                case RECHAZO -> enviar(exchange, 400, "{\"detail\":\"No se pudo leer la imagen. Formato invalido.\"}");
+                case CAIDO -> enviar(exchange, 503, "{\"detail\":\"Service Unavailable\"}");
+                default -> enviar(exchange, 200, RESPUESTA_OK);
+            }
+        } catch (IOException ignored) {
+            // El cliente cortó la conexión por timeout
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void enviar(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private void esperarPeticiones(int esperadas) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 5_000;
+        while (peticiones.get() < esperadas && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static void dormir(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
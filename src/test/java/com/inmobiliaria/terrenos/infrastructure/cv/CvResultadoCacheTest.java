@@ -0,0 +1,140 @@
+package com.inmobiliaria.terrenos.infrastructure.cv;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inmobiliaria.terrenos.application.dto.plano.CvEngineResponse;
+import com.inmobiliaria.terrenos.domain.entity.CvAnalisisCache;
+import com.inmobiliaria.terrenos.domain.repository.CvAnalisisCacheRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CvResultadoCacheTest {
+
+    @Mock
+    private CvAnalisisCacheRepository cacheRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private CvResultadoCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CvResultadoCache(cacheRepository, objectMapper);
+        ReflectionTestUtils.setField(cache, "engineVersion", "1");
+    }
+
+    @Test
+    void calcularHash_MismoContenido_MismoHash(@TempDir Path dir) throws Exception {
+        Path a = Files.writeString(dir.resolve("a.png"), "plano");
+        Path b = Files.writeString(dir.resolve("b.png"), "plano");
+        Path c = Files.writeString(dir.resolve("c.png"), "otro plano");
+
+        assertEquals(cache.calcularHash(a), cache.calcularHash(b));
+        assertNotEquals(cache.calcularHash(a), cache.calcularHash(c));
+        assertEquals(64, cache.calcularHash(a).length());
+    }
+
+    @Test
+    void buscar_EntradaExistente_DevuelveResultadoYRegistraHit() throws Exception {
+        CvAnalisisCache entrada = CvAnalisisCache.builder()
+                .id(7L)
+                .resultado(objectMapper.writeValueAsString(respuesta(3)))
+                .build();
+        when(cacheRepository.findByTenantIdAndContentHashAndEngineVersion(1L, "abc", "1"))
+                .thenReturn(Optional.of(entrada));
+
+        Optional<CvEngineResponse> resultado = cache.buscar(1L, "abc");
+
+        assertTrue(resultado.isPresent());
+        assertEquals(3, resultado.get().getTotal_lotes_detectados());
+        verify(cacheRepository).registrarHit(eq(7L), any());
+    }
+
+    @Test
+    void obtenerOCalcular_PeticionesConcurrentes_InvocaMotorUnaVez() throws Exception {
+        when(cacheRepository.findByTenantIdAndContentHashAndEngineVersion(anyLong(), anyString(), anyString()))
+                .thenReturn(Optional.empty());
+
+        AtomicInteger llamadas = new AtomicInteger();
+        CountDownLatch motorIniciado = new CountDownLatch(1);
+        CountDownLatch liberarMotor = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<CvEngineResponse>> futuros = new ArrayList<>();
+            futuros.add(pool.submit(() -> cache.obtenerOCalcular(1L, "abc", () -> {
+                llamadas.incrementAndGet();
+                motorIniciado.countDown();
+                esperar(liberarMotor);
+                return respuesta(5);
+            })));
+            assertTrue(motorIniciado.await(5, TimeUnit.SECONDS));
+
+            for (int i = 0; i < 3; i++) {
+                futuros.add(pool.submit(() -> cache.obtenerOCalcular(1L, "abc", () -> {
+                    llamadas.incrementAndGet();
+                    return respuesta(5);
+                })));
+            }
+            // Dar tiempo a que los seguidores se registren sobre el análisis en curso
+            Thread.sleep(100);
+            liberarMotor.countDown();
+
+            for (Future<CvEngineResponse> futuro : futuros) {
+                assertEquals(5, futuro.get(5, TimeUnit.SECONDS).getTotal_lotes_detectados());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, llamadas.get());
+        verify(cacheRepository, times(1)).save(any(CvAnalisisCache.class));
+    }
+
+    @Test
+    void obtenerOCalcular_MotorFalla_PropagaErrorYNoCachea() {
+        when(cacheRepository.findByTenantIdAndContentHashAndEngineVersion(anyLong(), anyString(), anyString()))
+                .thenReturn(Optional.empty());
+
+        assertThrows(IllegalStateException.class, () -> cache.obtenerOCalcular(1L, "abc", () -> {
+            throw new IllegalStateException("motor caído");
+        }));
+        verify(cacheRepository, never()).save(any());
+    }
+
+    private static CvEngineResponse respuesta(int lotes) {
+        CvEngineResponse respuesta = new CvEngineResponse();
+        respuesta.setTotal_lotes_detectados(lotes);
+        respuesta.setLotes(new ArrayList<>());
+        return respuesta;
+    }
+
+    private static void esperar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
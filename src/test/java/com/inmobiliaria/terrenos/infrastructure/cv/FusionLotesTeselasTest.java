@@ -0,0 +1,122 @@
+package com.inmobiliaria.terrenos.infrastructure.cv;
+
+import com.inmobiliaria.terrenos.application.dto.plano.CvEngineResponse;
+import com.inmobiliaria.terrenos.application.dto.plano.CvEngineResponse.CvLote;
+import com.inmobiliaria.terrenos.infrastructure.cv.FusionLotesTeselas.ResultadoTesela;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Plano de 1000x500 dividido en dos teselas de 600px con 200px de solapamiento:
+ * tesela A cubre x=[0,600), tesela B cubre x=[400,1000).
+ */
+class FusionLotesTeselasTest {
+
+    private static final TeselaPlano TESELA_A = new TeselaPlano(0, 0, 0, 0, 600, 500, "t/a.png");
+    private static final TeselaPlano TESELA_B = new TeselaPlano(0, 1, 400, 0, 600, 500, "t/b.png");
+
+    @Test
+    void fusionar_LoteEnZonaSolapada_SeConservaUnaVez() {
+        // Lote real en x=[450,550]: completo en ambas teselas
+        CvLote enA = lote("12", 80, 450, 100, 550, 200);
+        CvLote enB = lote("12", 95, 50, 100, 150, 200);
+
+        List<CvLote> lotes = FusionLotesTeselas.fusionar(List.of(
+                new ResultadoTesela(TESELA_A, respuesta(enA)),
+                new ResultadoTesela(TESELA_B, respuesta(enB))), 1000, 500, 3);
+
+        assertEquals(1, lotes.size());
+        assertEquals(95, lotes.get(0).getConfianza_ocr());
+        assertEquals(450, lotes.get(0).getPoligono().get(0).get("x"));
+    }
+
+    @Test
+    void fusionar_LoteCortadoPorBorde_ConservaLaVersionCompleta() {
+        // Lote real en x=[520,680]: en A queda recortado en x=599, en B está completo
+        CvLote recortadoEnA = lote("7", 99, 520, 300, 599, 400);
+        CvLote completoEnB = lote("7", 70, 120, 300, 280, 400);
+
+        List<CvLote> lotes = FusionLotesTeselas.fusionar(List.of(
+                new ResultadoTesela(TESELA_A, respuesta(recortadoEnA)),
+                new ResultadoTesela(TESELA_B, respuesta(completoEnB))), 1000, 500, 3);
+
+        assertEquals(1, lotes.size());
+        assertEquals(680, lotes.get(0).getPoligono().get(2).get("x"));
+    }
+
+    @Test
+    void fusionar_LoteMayorQueElSolapamiento_UneLosFragmentos() {
+        // Lote real en x=[300,900]: recortado en x=599 en A y en x=400 en B
+        CvLote fragmentoEnA = lote("31", 90, 300, 100, 599, 200);
+        CvLote fragmentoEnB = lote(null, 60, 0, 100, 500, 200);
+
+        List<CvLote> lotes = FusionLotesTeselas.fusionar(List.of(
+                new ResultadoTesela(TESELA_A, respuesta(fragmentoEnA)),
+                new ResultadoTesela(TESELA_B, respuesta(fragmentoEnB))), 1000, 500, 3);
+
+        assertEquals(1, lotes.size());
+        CvLote unido = lotes.get(0);
+        assertEquals("31", unido.getNumero_lote_detectado());
+        assertEquals(300, unido.getPoligono().stream().mapToInt(p -> p.get("x")).min().orElseThrow());
+        assertEquals(900, unido.getPoligono().stream().mapToInt(p -> p.get("x")).max().orElseThrow());
+        assertEquals(Map.of("x", 600, "y", 150), unido.getCoordenadas_centro());
+    }
+
+    @Test
+    void fusionar_FragmentosDeLotesVecinos_NoSeUnen() {
+        // Dos lotes largos que solo comparten el lindero y=200, ambos cortados por la costura
+        CvLote superiorEnA = lote("40", 90, 300, 100, 599, 200);
+        CvLote inferiorEnB = lote("41", 90, 0, 200, 500, 300);
+
+        List<CvLote> lotes = FusionLotesTeselas.fusionar(List.of(
+                new ResultadoTesela(TESELA_A, respuesta(superiorEnA)),
+                new ResultadoTesela(TESELA_B, respuesta(inferiorEnB))), 1000, 500, 3);
+
+        assertEquals(2, lotes.size());
+    }
+
+    @Test
+    void fusionar_LotesVecinosDistintos_SeConservanAmbos() {
+        CvLote izquierdo = lote("1", 90, 10, 10, 100, 100);
+        CvLote derecho = lote("2", 90, 100, 10, 190, 100);   // en el plano: x=[500,590]
+
+        List<CvLote> lotes = FusionLotesTeselas.fusionar(List.of(
+                new ResultadoTesela(TESELA_A, respuesta(izquierdo)),
+                new ResultadoTesela(TESELA_B, respuesta(derecho))), 1000, 500, 3);
+
+        assertEquals(2, lotes.size());
+        assertEquals("1", lotes.get(0).getNumero_lote_detectado());
+        assertEquals("2", lotes.get(1).getNumero_lote_detectado());
+        assertEquals(500, lotes.get(1).getPoligono().get(0).get("x"));
+    }
+
+    @Test
+    void origenes_UltimaTeselaAlineadaAlBorde() {
+        assertEquals(List.of(0), PlanoTeselador.origenes(500, 600, 400));
+        assertEquals(List.of(0, 400), PlanoTeselador.origenes(1000, 600, 400));
+        assertEquals(List.of(0, 400, 500), PlanoTeselador.origenes(1100, 600, 400));
+    }
+
+    private static CvEngineResponse respuesta(CvLote... lotes) {
+        CvEngineResponse respuesta = new CvEngineResponse();
+        respuesta.setLotes(List.of(lotes));
+        respuesta.setTotal_lotes_detectados(lotes.length);
+        return respuesta;
+    }
+
+    private static CvLote lote(String numero, double confianza, int x0, int y0, int x1, int y1) {
+        CvLote lote = new CvLote();
+        lote.setId_temporal(numero + "-" + x0);
+        lote.setNumero_lote_detectado(numero);
+        lote.setConfianza_ocr(confianza);
+        lote.setPoligono(List.of(
+                Map.of("x", x0, "y", y0), Map.of("x", x1, "y", y0),
+                Map.of("x", x1, "y", y1), Map.of("x", x0, "y", y1)));
+        lote.setCoordenadas_centro(Map.of("x", (x0 + x1) / 2, "y", (y0 + y1) / 2));
+        return lote;
+    }
+}
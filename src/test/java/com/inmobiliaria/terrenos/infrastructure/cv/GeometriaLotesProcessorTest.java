@@ -0,0 +1,115 @@
+package com.inmobiliaria.terrenos.infrastructure.cv;
+
+import com.inmobiliaria.terrenos.application.dto.plano.CvEngineResponse;
+import com.inmobiliaria.terrenos.application.dto.plano.CvEngineResponse.ConflictoLote;
+import com.inmobiliaria.terrenos.application.dto.plano.CvEngineResponse.CvLote;
+import com.inmobiliaria.terrenos.config.CvEngineProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeometriaLotesProcessorTest {
+
+    private final GeometriaLotesProcessor processor = new GeometriaLotesProcessor(new CvEngineProperties());
+
+    @Test
+    void procesar_LotesVecinos_SinConflictos() {
+        CvEngineResponse respuesta = respuesta(
+                lote("a", "1", 0, 0, 100, 100),
+                lote("b", "2", 100, 0, 200, 100),
+                lote("c", "3", 0, 100, 100, 200));
+
+        CvEngineResponse resultado = processor.procesar(respuesta);
+
+        assertTrue(resultado.getConflictos().isEmpty());
+        assertEquals(10_000.0, resultado.getLotes().get(0).getArea_poligono());
+        assertEquals(50, resultado.getLotes().get(0).getCoordenadas_centro().get("x"));
+        assertFalse(resultado.getLotes().get(0).isCon_conflicto());
+    }
+
+    @Test
+    void procesar_SolapeYDuplicado_SeMarcanEnLaVistaPrevia() {
+        CvEngineResponse respuesta = respuesta(
+                lote("a", "1", 0, 0, 100, 100),
+                lote("b", "2", 60, 0, 160, 100),    // cubre 40% de "a"
+                lote("c", "3", 300, 0, 400, 100),
+                lote("d", "4", 301, 1, 400, 100));  // mismo lote que "c"
+
+        CvEngineResponse resultado = processor.procesar(respuesta);
+
+        assertEquals(2, resultado.getConflictos().size());
+        ConflictoLote solape = buscar(resultado, GeometriaLotesProcessor.SOLAPAMIENTO);
+        assertEquals("a", solape.getLote_a());
+        assertEquals("b", solape.getLote_b());
+        assertEquals(4_000, solape.getArea_solapada(), 1e-6);
+        assertEquals(0.4, solape.getProporcion(), 1e-6);
+        assertNotNull(buscar(resultado, GeometriaLotesProcessor.DUPLICADO));
+        assertTrue(resultado.getLotes().stream().allMatch(CvLote::isCon_conflicto));
+    }
+
+    @Test
+    void procesar_NumeroRepetido_SeReporta() {
+        CvEngineResponse resultado = processor.procesar(respuesta(
+                lote("a", "12", 0, 0, 100, 100),
+                lote("b", "12", 500, 0, 600, 100),
+                lote("c", "N/D", 0, 500, 100, 600),
+                lote("d", "N/D", 500, 500, 600, 600)));
+
+        assertEquals(1, resultado.getConflictos().size());
+        assertEquals(GeometriaLotesProcessor.NUMERO_REPETIDO, resultado.getConflictos().get(0).getTipo());
+    }
+
+    @Test
+    void procesar_MuchosLotes_ProcesaEnParaleloSinFalsosPositivos() {
+        List<CvLote> lotes = new ArrayList<>();
+        for (int fila = 0; fila < 40; fila++) {
+            for (int col = 0; col < 40; col++) {
+                lotes.add(lote(fila + "-" + col, fila + "-" + col, col * 50, fila * 50, col * 50 + 50, fila * 50 + 50));
+            }
+        }
+        lotes.add(lote("extra", "extra", 10, 10, 90, 90));
+
+        CvEngineResponse resultado = processor.procesar(respuesta(lotes.toArray(CvLote[]::new)));
+
+        // "extra" cubre completamente a 0-0 y parcialmente a 0-1, 1-0 y 1-1
+        assertEquals(4, resultado.getConflictos().size());
+        assertTrue(resultado.getConflictos().stream()
+                .allMatch(c -> c.getLote_a().equals("extra") || c.getLote_b().equals("extra")));
+    }
+
+    @Test
+    void procesar_NoModificaLaRespuestaOriginal() {
+        CvEngineResponse original = respuesta(lote("a", "1", 0, 0, 100, 100));
+
+        processor.procesar(original);
+
+        assertNull(original.getConflictos());
+        assertNull(original.getLotes().get(0).getArea_poligono());
+    }
+
+    private static ConflictoLote buscar(CvEngineResponse resultado, String tipo) {
+        return resultado.getConflictos().stream().filter(c -> c.getTipo().equals(tipo)).findFirst().orElse(null);
+    }
+
+    private static CvEngineResponse respuesta(CvLote... lotes) {
+        CvEngineResponse respuesta = new CvEngineResponse();
+        respuesta.setLotes(List.of(lotes));
+        respuesta.setTotal_lotes_detectados(lotes.length);
+        return respuesta;
+    }
+
+    private static CvLote lote(String id, String numero, int x0, int y0, int x1, int y1) {
+        CvLote lote = new CvLote();
+        lote.setId_temporal(id);
+        lote.setNumero_lote_detectado(numero);
+        lote.setConfianza_ocr(90);
+        lote.setPoligono(List.of(
+                Map.of("x", x0, "y", y0), Map.of("x", x1, "y", y0),
+                Map.of("x", x1, "y", y1), Map.of("x", x0, "y", y1)));
+        return lote;
+    }
+}
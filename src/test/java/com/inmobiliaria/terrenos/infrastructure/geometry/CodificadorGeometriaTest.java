@@ -0,0 +1,67 @@
+package com.inmobiliaria.terrenos.infrastructure.geometry;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CodificadorGeometriaTest {
+
+    @Test
+    void codificar_Decodificar_RecuperaVerticesCuantizados() {
+        Poligono original = Poligono.of(
+                new double[]{1200.4, 1260.6, 1259.9, 1199.6},
+                new double[]{830.2, 829.8, 910.5, 911.4});
+
+        Poligono decodificado = CodificadorGeometria.decodificar(CodificadorGeometria.codificar(original));
+
+        assertEquals(4, decodificado.vertices());
+        assertEquals(1200, decodificado.x(0));
+        assertEquals(830, decodificado.y(0));
+        assertEquals(1261, decodificado.x(1));
+        assertEquals(1260, decodificado.x(2));
+        assertEquals(911, decodificado.y(3));
+    }
+
+    @Test
+    void codificar_DeltasNegativosYCoordenadasGrandes() {
+        Poligono original = Poligono.of(
+                new double[]{150_000, 10, 75_000},
+                new double[]{0, 120_000, -500});
+
+        Poligono decodificado = CodificadorGeometria.decodificar(CodificadorGeometria.codificar(original));
+
+        assertEquals(150_000, decodificado.x(0));
+        assertEquals(10, decodificado.x(1));
+        assertEquals(120_000, decodificado.y(1));
+        assertEquals(-500, decodificado.y(2));
+    }
+
+    @Test
+    void codificar_VerticesRepetidosTrasRedondear_SeDescartan() {
+        Poligono original = Poligono.of(
+                new double[]{0, 0.2, 10, 10, 0},
+                new double[]{0, 0.1, 0, 10, 10});
+
+        assertEquals(4, CodificadorGeometria.decodificar(CodificadorGeometria.codificar(original)).vertices());
+    }
+
+    @Test
+    void codificar_EsMasCompactoQueElJson() {
+        Poligono lote = Poligono.of(new double[]{3512, 3560, 3560, 3512}, new double[]{2044, 2044, 2090, 2090});
+
+        String codificado = CodificadorGeometria.codificar(lote);
+
+        // 1 byte de conteo + 2 varints de 2 bytes para el primer vértice + 1 byte por delta restante
+        assertTrue(codificado.length() <= 16, codificado);
+        assertTrue(codificado.matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    void decodificar_CadenaTruncada_LanzaExcepcion() {
+        String codificado = CodificadorGeometria.codificar(
+                Poligono.of(new double[]{0, 5000, 5000}, new double[]{0, 0, 5000}));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> CodificadorGeometria.decodificar(codificado.substring(0, 3)));
+    }
+}
@@ -0,0 +1,101 @@
+package com.inmobiliaria.terrenos.infrastructure.geometry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceLotesTest {
+
+    private static Poligono rectangulo(double x0, double y0, double x1, double y1) {
+        return Poligono.of(new double[]{x0, x1, x1, x0}, new double[]{y0, y0, y1, y1});
+    }
+
+    /**
+     * Cuadrícula de lotes de 10x10 separados por calles de 2px; el id es 100 + fila * columnas + columna.
+     */
+    private static IndiceLotes cuadricula(int filas, int columnas) {
+        long[] ids = new long[filas * columnas];
+        Poligono[] poligonos = new Poligono[filas * columnas];
+        for (int f = 0; f < filas; f++) {
+            for (int c = 0; c < columnas; c++) {
+                int i = f * columnas + c;
+                ids[i] = 100 + i;
+                poligonos[i] = rectangulo(c * 12, f * 12, c * 12 + 10, f * 12 + 10);
+            }
+        }
+        return IndiceLotes.of(ids, poligonos);
+    }
+
+    @Test
+    void loteEn_PuntoDentroDeUnLote_DevuelveSuId() {
+        IndiceLotes indice = cuadricula(50, 50);
+
+        assertEquals(OptionalLong.of(100 + 3 * 50 + 7), indice.loteEn(7 * 12 + 5, 3 * 12 + 5));
+    }
+
+    @Test
+    void loteEn_PuntoSobreLaCalle_NoDevuelveLote() {
+        IndiceLotes indice = cuadricula(10, 10);
+
+        assertTrue(indice.loteEn(11, 5).isEmpty());
+        assertTrue(indice.loteEn(-50, -50).isEmpty());
+    }
+
+    @Test
+    void loteEn_CajaContienePeroPoligonoNo_NoDevuelveLote() {
+        // Triángulo: la esquina superior derecha de su caja queda fuera del polígono
+        Poligono triangulo = Poligono.of(new double[]{0, 100, 0}, new double[]{0, 0, 100});
+        IndiceLotes indice = IndiceLotes.of(new long[]{1}, new Poligono[]{triangulo});
+
+        assertTrue(indice.loteEn(90, 90).isEmpty());
+        assertEquals(OptionalLong.of(1), indice.loteEn(10, 10));
+    }
+
+    @Test
+    void loteEn_LotesAnidados_GanaElMasPequeno() {
+        IndiceLotes indice = IndiceLotes.of(new long[]{1, 2},
+                new Poligono[]{rectangulo(0, 0, 100, 100), rectangulo(40, 40, 60, 60)});
+
+        assertEquals(OptionalLong.of(2), indice.loteEn(50, 50));
+        assertEquals(OptionalLong.of(1), indice.loteEn(10, 10));
+    }
+
+    @Test
+    void lotesEnVentana_DevuelveSoloLosLotesVisibles() {
+        IndiceLotes indice = cuadricula(100, 100);
+
+        // Columnas 0-1 y filas 0-1 (la ventana termina sobre la calle entre la fila 1 y la 2)
+        long[] visibles = indice.lotesEnVentana(0, 0, 23, 23);
+        Arrays.sort(visibles);
+
+        assertArrayEquals(new long[]{100, 101, 200, 201}, visibles);
+    }
+
+    @Test
+    void lotesEnVentana_VentanaDentroDeUnLote_LoDevuelve() {
+        IndiceLotes indice = IndiceLotes.of(new long[]{1}, new Poligono[]{rectangulo(0, 0, 1000, 1000)});
+
+        assertArrayEquals(new long[]{1}, indice.lotesEnVentana(400, 400, 500, 500));
+    }
+
+    @Test
+    void lotesEnVentana_VentanaEnLaEsquinaVaciaDeLaCaja_NoDevuelveLote() {
+        Poligono triangulo = Poligono.of(new double[]{0, 100, 0}, new double[]{0, 0, 100});
+        IndiceLotes indice = IndiceLotes.of(new long[]{1}, new Poligono[]{triangulo});
+
+        assertEquals(0, indice.lotesEnVentana(80, 80, 100, 100).length);
+    }
+
+    @Test
+    void vacio_NoDevuelveResultados() {
+        IndiceLotes indice = IndiceLotes.of(new long[0], new Poligono[0]);
+
+        assertEquals(0, indice.size());
+        assertNull(indice.limites());
+        assertTrue(indice.loteEn(0, 0).isEmpty());
+        assertEquals(0, indice.lotesEnVentana(0, 0, 100, 100).length);
+    }
+}
@@ -0,0 +1,127 @@
+package com.inmobiliaria.terrenos.infrastructure.geometry;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inmobiliaria.terrenos.application.dto.plano.CoordenadasPlano;
+import com.inmobiliaria.terrenos.domain.enums.NivelDetallePlano;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark de tamaño de payload y tiempo de serialización del plano interactivo:
+ * coordenadas completas (JSON de puntos) contra la geometría precalculada por nivel.
+ *
+ * Simula un proyecto de 3,000 lotes cuyos contornos tienen 40 vértices con ruido
+ * subpíxel, como los que produce la digitalización del plano. Registra una tabla con
+ * bytes y milisegundos en el log; solo verifica el tamaño (los tiempos dependen de la máquina).
+ *
+ * Fuera de la corrida normal (etiqueta benchmark): mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@Slf4j
+class NivelesDetalleBenchmarkTest {
+
+    private static final int LOTES = 3_000;
+    private static final int VERTICES_POR_LADO = 10;
+    private static final int CALENTAMIENTO = 3;
+    private static final int ITERACIONES = 10;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final NivelesDetalleGeometria nivelesDetalle = new NivelesDetalleGeometria(objectMapper);
+
+    @Test
+    void payloadYSerializacion_PorNivelDeDetalle() throws Exception {
+        List<CoordenadasPlano> completas = generarLotes();
+        List<String> guardadas = new ArrayList<>(LOTES);   // columna coordenadas_plano
+        List<String> lods = new ArrayList<>(LOTES);         // columna geometria_lod
+        for (CoordenadasPlano coordenadas : completas) {
+            String json = objectMapper.writeValueAsString(coordenadas);
+            guardadas.add(json);
+            lods.add(nivelesDetalle.generar(json));
+        }
+
+        // Camino anterior: parsear coordenadas_plano de cada lote y serializar todos los puntos
+        Medicion completo = medir(() -> {
+            List<CoordenadasPlano> respuesta = new ArrayList<>(LOTES);
+            for (String json : guardadas) {
+                respuesta.add(objectMapper.readValue(json, CoordenadasPlano.class));
+            }
+            return objectMapper.writeValueAsBytes(respuesta).length;
+        });
+
+        StringBuilder tabla = new StringBuilder(String.format("%n%-10s %12s %10s %8s%n", "nivel", "bytes", "ms", "ratio"));
+        tabla.append(String.format("%-10s %12d %10.2f %8s%n", "COMPLETO", completo.bytes(), completo.ms(), "1.00"));
+
+        long bytesAnterior = 0;
+        for (NivelDetallePlano nivel : NivelDetallePlano.values()) {
+            // Camino nuevo: extraer la cadena del nivel de geometria_lod y serializarla
+            Medicion medicion = medir(() -> {
+                List<String> respuesta = new ArrayList<>(LOTES);
+                for (String lod : lods) {
+                    respuesta.add(nivelesDetalle.nivel(lod, nivel));
+                }
+                return objectMapper.writeValueAsBytes(respuesta).length;
+            });
+            tabla.append(String.format("%-10s %12d %10.2f %8.2f%n", nivel, medicion.bytes(), medicion.ms(),
+                    (double) medicion.bytes() / completo.bytes()));
+
+            assertTrue(medicion.bytes() >= bytesAnterior, "Un nivel más detallado no puede ocupar menos");
+            assertTrue(medicion.bytes() * 4 < completo.bytes(),
+                    nivel + " debería ocupar menos de la cuarta parte de las coordenadas completas");
+            bytesAnterior = medicion.bytes();
+        }
+        log.info("{}", tabla);
+    }
+
+    private record Medicion(long bytes, double ms) {
+    }
+
+    private interface Operacion {
+        int ejecutar() throws Exception;
+    }
+
+    private static Medicion medir(Operacion operacion) throws Exception {
+        for (int i = 0; i < CALENTAMIENTO; i++) {
+            operacion.ejecutar();
+        }
+        long bytes = 0;
+        long inicio = System.nanoTime();
+        for (int i = 0; i < ITERACIONES; i++) {
+            bytes = operacion.ejecutar();
+        }
+        return new Medicion(bytes, (System.nanoTime() - inicio) / 1e6 / ITERACIONES);
+    }
+
+    /**
+     * Lotes de 20x30 px en cuadrícula, con vértices intermedios y ruido de ±0.3 px.
+     */
+    private static List<CoordenadasPlano> generarLotes() {
+        Random random = new Random(42);
+        int columnas = (int) Math.ceil(Math.sqrt(LOTES));
+        List<CoordenadasPlano> lotes = new ArrayList<>(LOTES);
+        for (int i = 0; i < LOTES; i++) {
+            double x0 = 100 + (i % columnas) * 24.0;
+            double y0 = 100 + (i / columnas) * 34.0;
+            double[][] esquinas = {{x0, y0}, {x0 + 20, y0}, {x0 + 20, y0 + 30}, {x0, y0 + 30}};
+            List<CoordenadasPlano.Punto> puntos = new ArrayList<>(4 * VERTICES_POR_LADO);
+            for (int lado = 0; lado < 4; lado++) {
+                double[] a = esquinas[lado];
+                double[] b = esquinas[(lado + 1) % 4];
+                for (int t = 0; t < VERTICES_POR_LADO; t++) {
+                    double f = (double) t / VERTICES_POR_LADO;
+                    puntos.add(new CoordenadasPlano.Punto(
+                            a[0] + (b[0] - a[0]) * f + (random.nextDouble() - 0.5) * 0.6,
+                            a[1] + (b[1] - a[1]) * f + (random.nextDouble() - 0.5) * 0.6));
+                }
+            }
+            lotes.add(new CoordenadasPlano("poligono", puntos));
+        }
+        return lotes;
+    }
+}
@@ -0,0 +1,114 @@
+package com.inmobiliaria.terrenos.infrastructure.geometry;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inmobiliaria.terrenos.application.dto.plano.CoordenadasPlano;
+import com.inmobiliaria.terrenos.domain.enums.NivelDetallePlano;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NivelesDetalleGeometriaTest {
+
+    private final NivelesDetalleGeometria nivelesDetalle = new NivelesDetalleGeometria(new ObjectMapper());
+
+    @Test
+    void leerCoordenadas_ObjetoCoordenadasPlano() {
+        CoordenadasPlano coordenadas = nivelesDetalle.leerCoordenadas(
+                "{\"tipo\":\"poligono\",\"puntos\":[{\"x\":0,\"y\":0},{\"x\":10,\"y\":0},{\"x\":10,\"y\":10}]}");
+
+        assertEquals("poligono", coordenadas.getTipo());
+        assertEquals(3, coordenadas.getPuntos().size());
+    }
+
+    @Test
+    void leerCoordenadas_ArregloDePuntosDeLaIngesta() {
+        CoordenadasPlano coordenadas = nivelesDetalle.leerCoordenadas(
+                "[{\"x\":0,\"y\":0},{\"x\":10,\"y\":0},{\"x\":10,\"y\":10},{\"x\":0,\"y\":10}]");
+
+        assertEquals("poligono", coordenadas.getTipo());
+        assertEquals(100, NivelesDetalleGeometria.aPoligono(coordenadas).area(), 1e-9);
+    }
+
+    @Test
+    void leerCoordenadas_JsonInvalido_DevuelveNull() {
+        assertNull(nivelesDetalle.leerCoordenadas("{no es json"));
+        assertNull(nivelesDetalle.leerCoordenadas(null));
+    }
+
+    @Test
+    void generar_UnaCadenaPorNivel_MenosVerticesAMenorZoom() {
+        // Contorno de 100x100 con ruido de ±1px cada 2px, como los que entrega el CV Engine
+        StringBuilder json = new StringBuilder("[");
+        int[][] esquinas = {{0, 0}, {100, 0}, {100, 100}, {0, 100}};
+        for (int lado = 0; lado < 4; lado++) {
+            int[] a = esquinas[lado];
+            int[] b = esquinas[(lado + 1) % 4];
+            for (int t = 0; t < 50; t++) {
+                double ruido = (t % 2 == 0) ? 1 : -1;
+                double x = a[0] + (b[0] - a[0]) * t / 50.0 + (a[1] == b[1] ? 0 : ruido);
+                double y = a[1] + (b[1] - a[1]) * t / 50.0 + (a[0] == b[0] ? 0 : ruido);
+                json.append(json.length() > 1 ? "," : "").append("{\"x\":").append(x).append(",\"y\":").append(y).append('}');
+            }
+        }
+        String lod = nivelesDetalle.generar(json.append(']').toString());
+
+        int bajo = CodificadorGeometria.decodificar(nivelesDetalle.nivel(lod, NivelDetallePlano.BAJO)).vertices();
+        int medio = CodificadorGeometria.decodificar(nivelesDetalle.nivel(lod, NivelDetallePlano.MEDIO)).vertices();
+        int alto = CodificadorGeometria.decodificar(nivelesDetalle.nivel(lod, NivelDetallePlano.ALTO)).vertices();
+
+        assertEquals(4, bajo);
+        assertTrue(medio <= alto, medio + " > " + alto);
+        assertTrue(alto <= 200);
+    }
+
+    @Test
+    void generar_SinPoligono_DevuelveNull() {
+        assertNull(nivelesDetalle.generar("[{\"x\":0,\"y\":0},{\"x\":1,\"y\":1}]"));
+        assertNull(nivelesDetalle.generar(null));
+    }
+
+    @Test
+    void nivel_GeometriaLodInvalida_DevuelveNull() {
+        assertNull(nivelesDetalle.nivel("no-json", NivelDetallePlano.BAJO));
+        assertNull(nivelesDetalle.nivel(null, NivelDetallePlano.ALTO));
+    }
+
+    @Test
+    void desdeZoom_AcotaAlRangoDeNiveles() {
+        assertEquals(NivelDetallePlano.BAJO, NivelDetallePlano.desdeZoom(-3));
+        assertEquals(NivelDetallePlano.MEDIO, NivelDetallePlano.desdeZoom(1));
+        assertEquals(NivelDetallePlano.ALTO, NivelDetallePlano.desdeZoom(18));
+    }
+
+    @Test
+    void aPoligono_RectanguloPorDosEsquinas() {
+        Poligono p = NivelesDetalleGeometria.aPoligono(
+                new CoordenadasPlano("rectangulo", List.of(punto(10, 40), punto(30, 20))));
+
+        assertEquals(400, p.area(), 1e-9);
+        assertEquals(10, p.minX());
+        assertEquals(20, p.minY());
+    }
+
+    @Test
+    void aPoligono_CirculoPorCentroYBorde() {
+        Poligono p = NivelesDetalleGeometria.aPoligono(
+                new CoordenadasPlano("circulo", List.of(punto(50, 50), punto(60, 50))));
+
+        assertTrue(p.contiene(55, 55));
+        assertFalse(p.contiene(59, 59));
+        assertEquals(Math.PI * 100, p.area(), 5);
+    }
+
+    @Test
+    void aPoligono_PuntosInsuficientes_DevuelveNull() {
+        assertNull(NivelesDetalleGeometria.aPoligono(new CoordenadasPlano("poligono", List.of(punto(0, 0), punto(1, 1)))));
+        assertNull(NivelesDetalleGeometria.aPoligono(new CoordenadasPlano("poligono", null)));
+    }
+
+    private static CoordenadasPlano.Punto punto(double x, double y) {
+        return new CoordenadasPlano.Punto(x, y);
+    }
+}
@@ -0,0 +1,70 @@
+package com.inmobiliaria.terrenos.infrastructure.geometry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackedRTreeTest {
+
+    @Test
+    void search_CajasAleatorias_CoincideConFuerzaBruta() {
+        Random random = new Random(42);
+        int n = 5_000;
+        double[][] cajas = new double[n][];
+        PackedRTree.Builder builder = PackedRTree.builder(n);
+        for (int i = 0; i < n; i++) {
+            double x = random.nextDouble() * 10_000;
+            double y = random.nextDouble() * 10_000;
+            cajas[i] = new double[]{x, y, x + random.nextDouble() * 200, y + random.nextDouble() * 200};
+            builder.add(cajas[i][0], cajas[i][1], cajas[i][2], cajas[i][3]);
+        }
+        PackedRTree arbol = builder.build();
+
+        for (int q = 0; q < 200; q++) {
+            double x = random.nextDouble() * 10_000;
+            double y = random.nextDouble() * 10_000;
+            double[] consulta = {x, y, x + random.nextDouble() * 800, y + random.nextDouble() * 800};
+
+            int[] esperado = IntStream.range(0, n)
+                    .filter(i -> cajas[i][0] <= consulta[2] && cajas[i][1] <= consulta[3]
+                            && cajas[i][2] >= consulta[0] && cajas[i][3] >= consulta[1])
+                    .toArray();
+            int[] obtenido = arbol.search(consulta[0], consulta[1], consulta[2], consulta[3]);
+            Arrays.sort(obtenido);
+
+            assertArrayEquals(esperado, obtenido);
+        }
+    }
+
+    @Test
+    void searchPoint_PuntoEnBorde_IncluyeLaCaja() {
+        PackedRTree arbol = PackedRTree.builder(2)
+                .add(0, 0, 10, 10)
+                .add(20, 20, 30, 30)
+                .build();
+
+        assertArrayEquals(new int[]{0}, arbol.searchPoint(10, 10));
+        assertArrayEquals(new int[]{1}, arbol.searchPoint(25, 21));
+        assertEquals(0, arbol.searchPoint(15, 15).length);
+        assertArrayEquals(new double[]{0, 0, 30, 30}, arbol.bounds());
+    }
+
+    @Test
+    void build_SinItems_ConsultasVacias() {
+        PackedRTree arbol = PackedRTree.builder(0).build();
+
+        assertEquals(0, arbol.search(0, 0, 100, 100).length);
+        assertNull(arbol.bounds());
+    }
+
+    @Test
+    void build_ItemsFaltantes_LanzaExcepcion() {
+        PackedRTree.Builder builder = PackedRTree.builder(2).add(0, 0, 1, 1);
+
+        assertThrows(IllegalStateException.class, builder::build);
+    }
+}
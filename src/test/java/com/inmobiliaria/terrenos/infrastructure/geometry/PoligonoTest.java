@@ -0,0 +1,105 @@
+package com.inmobiliaria.terrenos.infrastructure.geometry;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PoligonoTest {
+
+    private static Poligono rectangulo(double x0, double y0, double x1, double y1) {
+        return Poligono.of(new double[]{x0, x1, x1, x0}, new double[]{y0, y0, y1, y1});
+    }
+
+    @Test
+    void area_Y_Centroide_Rectangulo() {
+        Poligono p = rectangulo(0, 0, 10, 20);
+
+        assertEquals(200, p.area(), 1e-9);
+        assertArrayEquals(new double[]{5, 10}, p.centroide(), 1e-9);
+    }
+
+    @Test
+    void of_AnilloCerrado_DescartaVerticeRepetido() {
+        Poligono p = Poligono.of(new double[]{0, 10, 10, 0, 0}, new double[]{0, 0, 10, 10, 0});
+
+        assertEquals(4, p.vertices());
+        assertEquals(100, p.area(), 1e-9);
+    }
+
+    @Test
+    void simplificar_PuntosColinealesYRuido_ConservaLasEsquinas() {
+        // Cuadrado de 100 con vértices intermedios sobre los lados y un ruido de 0.5px
+        Poligono p = Poligono.of(
+                new double[]{0, 50, 100, 100.5, 100, 50, 0, 0},
+                new double[]{0, 0, 0, 50, 100, 100, 100, 50});
+
+        Poligono simplificado = p.simplificar(1.0);
+
+        assertEquals(4, simplificado.vertices());
+        assertEquals(10_000, simplificado.area(), 1e-9);
+    }
+
+    @Test
+    void simplificar_ToleranciaMenorAlDetalle_NoPierdeVertices() {
+        Poligono p = Poligono.of(new double[]{0, 50, 100, 100, 0}, new double[]{0, 20, 0, 100, 100});
+
+        assertEquals(5, p.simplificar(1.0).vertices());
+    }
+
+    @Test
+    void areaInterseccion_RectangulosSolapados() {
+        Poligono a = rectangulo(0, 0, 10, 10);
+        Poligono b = rectangulo(5, 5, 15, 15);
+
+        assertEquals(25, a.areaInterseccion(b), 1e-9);
+        assertEquals(25, b.areaInterseccion(a), 1e-9);
+    }
+
+    @Test
+    void areaInterseccion_LotesVecinos_SoloCompartenBorde() {
+        assertEquals(0, rectangulo(0, 0, 10, 10).areaInterseccion(rectangulo(10, 0, 20, 10)), 1e-9);
+    }
+
+    @Test
+    void areaInterseccion_NoConvexo_ContraConvexo_EsExacta() {
+        // "L" de área 75: cuadrado 10x10 sin la esquina superior derecha de 5x5
+        Poligono l = Poligono.of(new double[]{0, 10, 10, 5, 5, 0}, new double[]{0, 0, 5, 5, 10, 10});
+        Poligono esquina = rectangulo(5, 5, 10, 10);
+
+        assertFalse(l.esConvexo());
+        assertEquals(75, l.area(), 1e-9);
+        assertEquals(0, l.areaInterseccion(esquina), 1e-9);
+        assertEquals(25, l.areaInterseccion(rectangulo(0, 0, 5, 5)), 1e-9);
+    }
+
+    @Test
+    void envolventeConvexa_DeUnaL_EsElCuadrado() {
+        Poligono l = Poligono.of(new double[]{0, 10, 10, 5, 5, 0}, new double[]{0, 0, 5, 5, 10, 10});
+
+        Poligono envolvente = l.envolventeConvexa();
+
+        assertTrue(envolvente.esConvexo());
+        assertEquals(87.5, envolvente.area(), 1e-9);
+    }
+
+    @Test
+    void contiene_PoligonoConcavo_RespetaLaMuesca() {
+        // "U": la muesca central (40..60, 0..60) queda fuera
+        Poligono u = Poligono.of(
+                new double[]{0, 40, 40, 60, 60, 100, 100, 0},
+                new double[]{0, 0, 60, 60, 0, 0, 100, 100});
+
+        assertTrue(u.contiene(20, 20));
+        assertTrue(u.contiene(50, 80));
+        assertFalse(u.contiene(50, 30));
+        assertFalse(u.contiene(150, 50));
+    }
+
+    @Test
+    void contiene_PuntoSobreElBorde_SeConsideraDentro() {
+        Poligono p = rectangulo(0, 0, 10, 10);
+
+        assertTrue(p.contiene(10, 5));
+        assertTrue(p.contiene(0, 0));
+    }
+}
@@ -0,0 +1,118 @@
+package com.inmobiliaria.terrenos.infrastructure.importacion;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EscritorXlsxTest {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void escribirFila_SeLeeConLectorXlsx() throws IOException {
+        Path archivo = directorio.resolve("ventas.xlsx");
+        try (OutputStream salida = Files.newOutputStream(archivo);
+             EscritorXlsx escritor = new EscritorXlsx(salida, "ventas")) {
+            escritor.escribirFila(List.of("Folio", "Comprador", "Monto", "Fecha", "Pagado"));
+            escritor.escribirFila(Arrays.asList("V-001", "Pérez & <Hijos> \"SA\"\u0001", new BigDecimal("250000.50"),
+                    LocalDate.of(2025, 1, 1), true));
+            escritor.escribirFila(Arrays.asList("V-002", null, 15L, null, false));
+        }
+
+        List<LectorTabla.Fila> filas = leer(archivo);
+
+        assertEquals(3, filas.size());
+        assertEquals(List.of("Folio", "Comprador", "Monto", "Fecha", "Pagado"), filas.get(0).celdas());
+        // Las fechas quedan como número de serie de Excel con formato de fecha
+        assertEquals(List.of("V-001", "Pérez & <Hijos> \"SA\"", "250000.50", "45658", "true"), filas.get(1).celdas());
+        assertEquals("V-002", filas.get(2).celda(0));
+        assertNull(filas.get(2).celda(1));
+        assertEquals("15", filas.get(2).celda(2));
+        assertEquals("false", filas.get(2).celda(4));
+    }
+
+    @Test
+    void escribirFila_FechaConHora_FraccionDelDia() throws IOException {
+        Path archivo = directorio.resolve("auditoria.xlsx");
+        try (OutputStream salida = Files.newOutputStream(archivo);
+             EscritorXlsx escritor = new EscritorXlsx(salida, "auditoria")) {
+            escritor.escribirFila(List.of("Fecha"));
+            escritor.escribirFila(List.of(LocalDateTime.of(2025, 1, 1, 12, 0)));
+        }
+
+        assertEquals("45658.5", leer(archivo).get(1).celda(0));
+    }
+
+    @Test
+    void escribirFila_ExcedeFilasPorHoja_ContinuaEnOtraHojaConEncabezado() throws IOException {
+        Path archivo = directorio.resolve("pagos.xlsx");
+        try (OutputStream salida = Files.newOutputStream(archivo);
+             EscritorXlsx escritor = new EscritorXlsx(salida, "pagos", 3)) {
+            escritor.escribirFila(List.of("ID"));
+            for (long id = 1; id <= 5; id++) {
+                escritor.escribirFila(List.of(id));
+            }
+        }
+
+        try (ZipFile zip = new ZipFile(archivo.toFile())) {
+            String hoja2 = new String(zip.getInputStream(zip.getEntry("xl/worksheets/sheet2.xml")).readAllBytes(),
+                    StandardCharsets.UTF_8);
+            String libro = new String(zip.getInputStream(zip.getEntry("xl/workbook.xml")).readAllBytes(),
+                    StandardCharsets.UTF_8);
+
+            assertNull(zip.getEntry("xl/worksheets/sheet4.xml"));
+            assertNotNull(zip.getEntry("xl/worksheets/sheet3.xml"));
+            assertTrue(hoja2.contains("<row r=\"1\"><c r=\"A1\" s=\"1\" t=\"inlineStr\"><is><t xml:space=\"preserve\">ID</t>"));
+            assertTrue(hoja2.contains("<row r=\"2\"><c r=\"A2\"><v>3</v></c></row>"));
+            assertTrue(libro.contains("<sheet name=\"pagos (3)\" sheetId=\"3\" r:id=\"rId3\"/>"));
+        }
+        // La primera hoja: encabezado y dos filas
+        assertEquals(3, leer(archivo).size());
+    }
+
+    @Test
+    void close_SinFilas_GeneraLibroValido() throws IOException {
+        Path archivo = directorio.resolve("vacio.xlsx");
+        try (OutputStream salida = Files.newOutputStream(archivo)) {
+            new EscritorXlsx(salida, "clientes").close();
+        }
+
+        assertTrue(leer(archivo).isEmpty());
+    }
+
+    @Test
+    void columna_LetrasDeExcel() {
+        assertEquals("A", EscritorXlsx.columna(0));
+        assertEquals("Z", EscritorXlsx.columna(25));
+        assertEquals("AA", EscritorXlsx.columna(26));
+        assertEquals("AZ", EscritorXlsx.columna(51));
+        assertEquals("XFD", EscritorXlsx.columna(16_383));
+    }
+
+    private static List<LectorTabla.Fila> leer(Path archivo) throws IOException {
+        List<LectorTabla.Fila> filas = new ArrayList<>();
+        try (LectorXlsx lector = new LectorXlsx(archivo)) {
+            LectorTabla.Fila fila;
+            while ((fila = lector.siguienteFila()) != null) {
+                filas.add(fila);
+            }
+        }
+        return filas;
+    }
+}
@@ -0,0 +1,71 @@
+package com.inmobiliaria.terrenos.infrastructure.importacion;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LectorCsvTest {
+
+    @Test
+    void siguienteFila_CamposEntrecomillados_RespetaComillasYSaltosDeLinea() throws IOException {
+        String csv = "lote,observaciones,area\r\n" +
+                "A-1,\"Frente a \"\"parque\"\", esquina\",200.5\r\n" +
+                "A-2,\"dos\nlíneas\",180\r\n" +
+                "A-3,,\n";
+
+        List<LectorTabla.Fila> filas = leer(new LectorCsv(new StringReader(csv)));
+
+        assertEquals(4, filas.size());
+        assertEquals(List.of("A-1", "Frente a \"parque\", esquina", "200.5"), filas.get(1).celdas());
+        assertEquals(List.of("A-2", "dos\nlíneas", "180"), filas.get(2).celdas());
+        // El registro de A-3 empieza en la línea 5 porque el anterior ocupa dos
+        assertEquals(5, filas.get(3).numero());
+        assertEquals(List.of("A-3", "", ""), filas.get(3).celdas());
+    }
+
+    @Test
+    void constructor_DetectaPuntoYComaEIgnoraBom() throws IOException {
+        LectorCsv lector = new LectorCsv(new StringReader("\uFEFFlote;area;precio\nA-1;\"1,5\";100\n"));
+
+        List<LectorTabla.Fila> filas = leer(lector);
+
+        assertEquals(';', lector.getDelimitador());
+        assertEquals("lote", filas.get(0).celda(0));
+        assertEquals("1,5", filas.get(1).celda(1));
+        assertNull(filas.get(1).celda(5));
+    }
+
+    @Test
+    void siguienteFila_UltimaLineaSinSaltoYLineasVacias() throws IOException {
+        List<LectorTabla.Fila> filas = leer(new LectorCsv(new StringReader("a,b\n\n1,2")));
+
+        assertEquals(3, filas.size());
+        assertTrue(filas.get(1).vacia());
+        assertEquals(List.of("1", "2"), filas.get(2).celdas());
+        assertEquals(3, filas.get(2).numero());
+    }
+
+    @Test
+    void siguienteFila_ComillaSinCerrar_LanzaExcepcion() throws IOException {
+        LectorCsv lector = new LectorCsv(new StringReader("a,b\n\"abierta," + "x".repeat(20_000)));
+        lector.siguienteFila();
+
+        assertThrows(IOException.class, lector::siguienteFila);
+    }
+
+    private static List<LectorTabla.Fila> leer(LectorTabla lector) throws IOException {
+        List<LectorTabla.Fila> filas = new ArrayList<>();
+        try (lector) {
+            LectorTabla.Fila fila;
+            while ((fila = lector.siguienteFila()) != null) {
+                filas.add(fila);
+            }
+        }
+        return filas;
+    }
+}
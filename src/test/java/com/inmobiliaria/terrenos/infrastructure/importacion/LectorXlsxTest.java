@@ -0,0 +1,128 @@
+package com.inmobiliaria.terrenos.infrastructure.importacion;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LectorXlsxTest {
+
+    private static final String HOJA_VACIA = "<worksheet><sheetData/></worksheet>";
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void siguienteFila_TextosCompartidosEnLineaYCeldasVacias() throws IOException {
+        String hoja = """
+                <worksheet xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main"><sheetData>
+                <row r="1"><c r="A1" t="s"><v>0</v></c><c r="B1" t="s"><v>1</v></c><c r="C1" t="s"><v>2</v></c></row>
+                <row r="2"><c r="A2" t="inlineStr"><is><t>A-1</t></is></c><c r="C2"><v>250.5</v></c></row>
+                <row r="4"><c r="A4" t="s"><v>3</v></c><c r="B4" t="b"><v>1</v></c><c r="C4" t="str"><f>C2*2</f><v>501</v></c></row>
+                </sheetData></worksheet>""";
+        String textos = """
+                <sst xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main">
+                <si><t>numero_lote</t></si><si><t>esquina</t></si><si><t>area</t></si>
+                <si><r><t>B-</t></r><r><t>7</t></r><rPh><t>ignorar</t></rPh></si>
+                </sst>""";
+        Path archivo = crearXlsx("xl/worksheets/hoja_lotes.xml", hoja, textos);
+
+        List<LectorTabla.Fila> filas = new ArrayList<>();
+        try (LectorXlsx lector = new LectorXlsx(archivo)) {
+            LectorTabla.Fila fila;
+            while ((fila = lector.siguienteFila()) != null) {
+                filas.add(fila);
+            }
+        }
+
+        assertEquals(3, filas.size());
+        assertEquals(List.of("numero_lote", "esquina", "area"), filas.get(0).celdas());
+        assertEquals(Arrays.asList("A-1", null, "250.5"), filas.get(1).celdas());
+        assertEquals(4, filas.get(2).numero());
+        assertEquals(List.of("B-7", "true", "501"), filas.get(2).celdas());
+    }
+
+    @Test
+    void constructor_ArchivoQueNoEsZip_LanzaExcepcion() throws IOException {
+        Path archivo = Files.writeString(directorio.resolve("falso.xlsx"), "numero_lote,area");
+
+        assertThrows(IOException.class, () -> new LectorXlsx(archivo));
+    }
+
+    @Test
+    void constructor_TextosCompartidosQueSeExpandenDemasiado_LanzaExcepcion() throws IOException {
+        // ~6 MB de XML que se comprimen a unos KB (ZIP bomb)
+        String textos = "<sst>" + "<si><t>aaaa</t></si>".repeat(300_000) + "</sst>";
+        Path archivo = crearXlsx("xl/worksheets/sheet1.xml", HOJA_VACIA, textos);
+
+        IOException ex = assertThrows(IOException.class, () -> new LectorXlsx(archivo));
+        assertTrue(ex.getMessage().contains("se expande demasiado"));
+    }
+
+    @Test
+    void constructor_TextosCompartidosSobreElTopeDeCaracteres_LanzaExcepcion() throws IOException {
+        String textos = "<sst><si><t>numero_lote</t></si><si><t>esquina</t></si></sst>";
+        Path archivo = crearXlsx("xl/worksheets/sheet1.xml", HOJA_VACIA, textos);
+
+        IOException ex = assertThrows(IOException.class, () -> new LectorXlsx(archivo, 10));
+        assertTrue(ex.getMessage().contains("demasiados textos"));
+        new LectorXlsx(archivo, 18).close();
+    }
+
+    @Test
+    void siguienteFila_CeldaSobreElMaximoDeExcel_LanzaExcepcion() throws IOException {
+        String hoja = "<worksheet><sheetData><row r=\"1\"><c r=\"A1\" t=\"inlineStr\"><is><t>"
+                + "x".repeat(40_000) + "</t></is></c></row></sheetData></worksheet>";
+        Path archivo = crearXlsx("xl/worksheets/sheet1.xml", hoja, "<sst/>");
+
+        try (LectorXlsx lector = new LectorXlsx(archivo)) {
+            IOException ex = assertThrows(IOException.class, lector::siguienteFila);
+            assertTrue(ex.getMessage().contains("32767"));
+        }
+    }
+
+    @Test
+    void indiceColumna_ConvierteReferencias() {
+        assertEquals(0, LectorXlsx.indiceColumna("A1"));
+        assertEquals(25, LectorXlsx.indiceColumna("Z7"));
+        assertEquals(27, LectorXlsx.indiceColumna("AB12"));
+    }
+
+    /**
+     * XLSX mínimo: libro con una hoja cuya ruta se resuelve por las relaciones del libro
+     */
+    private Path crearXlsx(String rutaHoja, String hoja, String textos) throws IOException {
+        Path archivo = directorio.resolve("lotes.xlsx");
+        try (OutputStream salida = Files.newOutputStream(archivo); ZipOutputStream zip = new ZipOutputStream(salida)) {
+            agregar(zip, "xl/workbook.xml", """
+                    <workbook xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main"
+                              xmlns:r="http://schemas.openxmlformats.org/officeDocument/2006/relationships">
+                    <sheets><sheet name="Lotes" sheetId="1" r:id="rId3"/></sheets></workbook>""");
+            agregar(zip, "xl/_rels/workbook.xml.rels", """
+                    <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">
+                    <Relationship Id="rId1" Type="styles" Target="styles.xml"/>
+                    <Relationship Id="rId3" Type="worksheet" Target="%s"/></Relationships>"""
+                    .formatted(rutaHoja.substring("xl/".length())));
+            agregar(zip, "xl/sharedStrings.xml", textos);
+            agregar(zip, rutaHoja, hoja);
+        }
+        return archivo;
+    }
+
+    private static void agregar(ZipOutputStream zip, String ruta, String contenido) throws IOException {
+        zip.putNextEntry(new ZipEntry(ruta));
+        zip.write(contenido.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+}
@@ -0,0 +1,211 @@
+package com.inmobiliaria.terrenos.infrastructure.persistence;
+
+import com.inmobiliaria.terrenos.application.dto.cliente.ClienteSugerenciaResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark de latencia de la búsqueda de clientes con 1,000,000 de clientes en un tenant.
+ *
+ * Requiere PostgreSQL real (pg_trgm, unaccent, índices GIN): levanta un contenedor con
+ * Testcontainers y se omite si no hay Docker. Las pruebas de integración normales usan H2 y no
+ * pueden ejecutar V17.
+ *
+ * Carga los clientes hasta V16, aplica V17 sobre la tabla llena (como en producción) y mide
+ * textos tomados de clientes reales: prefijos del nombre, apellidos, email, últimos dígitos del
+ * teléfono, textos con errores de dedo y textos de 2 caracteres. Los nombres salen de listas
+ * cortas, así que muchos textos coinciden con miles de clientes (el caso difícil). Compara
+ * contra el LIKE '%x%' anterior y registra una tabla en el log; verifica p99 < 20 ms.
+ *
+ * Fuera de la corrida normal (etiqueta benchmark): mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+@Slf4j
+class BusquedaClientesBenchmarkTest {
+
+    private static final int CLIENTES = 1_000_000;
+    private static final int CALENTAMIENTO = 300;
+    private static final int CONSULTAS = 3_000;
+    private static final int CONSULTAS_LIKE = 20;
+    private static final double P99_MAXIMO_MS = 20.0;
+
+    private static final String[] NOMBRES = {
+            "José", "Juan", "María", "Guadalupe", "Francisco", "Ana", "Luis", "Sofía", "Jesús", "Fernanda",
+            "Miguel", "Valeria", "Alejandro", "Ximena", "Ángel", "Camila", "Rubén", "Mónica", "Raúl", "Adriana",
+            "Héctor", "Verónica", "Óscar", "Lucía", "Andrés", "Beatriz", "Julián", "Inés", "Tomás", "Renata",
+            "Sebastián", "Natalia", "Iván", "Paulina", "Martín", "Regina", "Joaquín", "Daniela", "Ramón", "Itzel"};
+
+    private static final String[] APELLIDOS = {
+            "Hernández", "García", "Martínez", "López", "González", "Pérez", "Rodríguez", "Sánchez", "Ramírez",
+            "Cruz", "Flores", "Gómez", "Morales", "Vázquez", "Reyes", "Jiménez", "Torres", "Díaz", "Gutiérrez",
+            "Ruiz", "Mendoza", "Aguilar", "Ortiz", "Moreno", "Castillo", "Romero", "Álvarez", "Méndez", "Chávez",
+            "Rivera", "Juárez", "Ramos", "Domínguez", "Herrera", "Medina", "Castro", "Vargas", "Guzmán", "Velázquez",
+            "Muñoz", "Rojas", "Contreras", "Salazar", "Luna", "Ortega", "Santiago", "Guerrero", "Estrada", "Bautista",
+            "Cortés", "Soto", "Alvarado", "Espinoza", "Lara", "Ávila", "Ríos", "Cervantes", "Silva", "Delgado", "Vega"};
+
+    @Container
+    static final PostgreSQLContainer POSTGRES = new PostgreSQLContainer("postgres:17-alpine");
+
+    private record Cliente(String nombre, String apellido, String email, String telefono) {
+    }
+
+    private record Percentiles(double p50, double p95, double p99, double max) {
+    }
+
+    @Test
+    void latenciaDeBusqueda_UnMillonDeClientes() {
+        Flyway.configure().dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .target("16").load().migrate();
+
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword(), true);
+        NamedParameterJdbcTemplate jdbc = new NamedParameterJdbcTemplate(dataSource);
+        Long tenantId = cargarClientes(jdbc);
+
+        Flyway.configure().dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .load().migrate();
+        jdbc.getJdbcTemplate().execute("ANALYZE clientes");
+
+        ClienteBusquedaRepository repository = new ClienteBusquedaRepository(jdbc);
+        Random random = new Random(42);
+        List<Cliente> muestra = jdbc.query(
+                "SELECT nombre, apellido, email, telefono FROM clientes WHERE tenant_id = :tenantId " +
+                "ORDER BY md5(CAST(id AS text)) LIMIT 2000",
+                Map.of("tenantId", tenantId),
+                (rs, rowNum) -> new Cliente(rs.getString(1), rs.getString(2), rs.getString(3), rs.getString(4)));
+
+        List<Map.Entry<String, Function<Cliente, String>>> tipos = List.of(
+                Map.entry("prefijo del nombre", c -> prefijo(c.nombre() + " " + c.apellido(), 3 + random.nextInt(8))),
+                Map.entry("apellido", c -> c.apellido().split(" ")[random.nextInt(2)]),
+                Map.entry("email", c -> prefijo(c.email(), 4 + random.nextInt(8))),
+                Map.entry("ultimos digitos tel.", c -> c.telefono().substring(c.telefono().length() - 4 - random.nextInt(4))),
+                Map.entry("error de dedo", c -> transponer(c.nombre() + " " + c.apellido().split(" ")[0], random)),
+                Map.entry("2 caracteres", c -> prefijo(c.nombre(), 2)));
+
+        for (int i = 0; i < CALENTAMIENTO; i++) {
+            Cliente cliente = muestra.get(random.nextInt(muestra.size()));
+            repository.buscar(tenantId, tipos.get(i % tipos.size()).getValue().apply(cliente), 10);
+        }
+
+        List<List<Double>> tiemposPorTipo = new ArrayList<>();
+        tipos.forEach(tipo -> tiemposPorTipo.add(new ArrayList<>()));
+        int sinResultados = 0;
+        for (int i = 0; i < CONSULTAS; i++) {
+            int tipo = i % tipos.size();
+            String texto = tipos.get(tipo).getValue().apply(muestra.get(random.nextInt(muestra.size())));
+            long inicio = System.nanoTime();
+            List<ClienteSugerenciaResponse> resultados = repository.buscar(tenantId, texto, 10);
+            tiemposPorTipo.get(tipo).add((System.nanoTime() - inicio) / 1_000_000.0);
+            if (resultados.isEmpty()) {
+                sinResultados++;
+            }
+        }
+
+        List<Double> tiemposLike = new ArrayList<>();
+        for (int i = 0; i < CONSULTAS_LIKE; i++) {
+            String texto = prefijo(muestra.get(random.nextInt(muestra.size())).apellido(), 5);
+            long inicio = System.nanoTime();
+            jdbc.queryForList("SELECT c.id FROM clientes c WHERE c.tenant_id = :tenantId AND c.deleted = false " +
+                            "AND (LOWER(c.nombre) LIKE LOWER(:texto) OR LOWER(c.apellido) LIKE LOWER(:texto))",
+                    Map.of("tenantId", tenantId, "texto", "%" + texto + "%"), Long.class);
+            tiemposLike.add((System.nanoTime() - inicio) / 1_000_000.0);
+        }
+
+        List<Double> todos = tiemposPorTipo.stream().flatMap(List::stream).toList();
+        Percentiles total = percentiles(todos);
+
+        StringBuilder tabla = new StringBuilder(String.format("%n%-28s %8s %8s %8s %8s %8s%n",
+                "busqueda (1M clientes)", "n", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        for (int i = 0; i < tipos.size(); i++) {
+            agregarFila(tabla, tipos.get(i).getKey(), tiemposPorTipo.get(i));
+        }
+        agregarFila(tabla, "total", todos);
+        agregarFila(tabla, "LIKE '%x%' anterior", tiemposLike);
+        log.info("{}", tabla);
+
+        // Todos los textos salen de clientes existentes (los errores de dedo pueden no encontrarse)
+        assertTrue(sinResultados < CONSULTAS / tipos.size(), "Demasiadas búsquedas sin resultados: " + sinResultados);
+        assertTrue(total.p99() < P99_MAXIMO_MS, "p99 de " + total.p99() + " ms, se esperaba menos de " + P99_MAXIMO_MS);
+    }
+
+    /**
+     * Un tenant con CLIENTES clientes de nombres, apellidos y teléfonos pseudoaleatorios
+     */
+    private Long cargarClientes(NamedParameterJdbcTemplate jdbc) {
+        Long tenantId = jdbc.queryForObject(
+                "INSERT INTO tenants (nombre, email) VALUES ('Benchmark', 'benchmark@clientes.mx') RETURNING id",
+                Map.of(), Long.class);
+
+        // El email se arma con el nombre sin acentos y el número de cliente para que sea único
+        jdbc.update(("INSERT INTO clientes (tenant_id, nombre, apellido, email, telefono, rfc) " +
+                        "SELECT :tenantId, s.nombre, s.apellido1 || ' ' || s.apellido2, " +
+                        "lower(translate(s.nombre || '.' || s.apellido1, 'ÁÉÍÓÚáéíóúñ', 'AEIOUaeioun')) || s.g || '@' || " +
+                        "(ARRAY['gmail.com', 'hotmail.com', 'outlook.com', 'yahoo.com.mx'])[1 + CAST(s.g %% 4 AS int)], " +
+                        "'55 ' || lpad(CAST((s.g * 2654435761) %% 100000000 AS text), 8, '0'), " +
+                        "translate(upper(substr(md5(CAST(s.g AS text)), 1, 4)), '0123456789', 'ABCDEFGHIJ') || " +
+                        "lpad(CAST(s.g %% 1000000 AS text), 6, '0') || 'A1B' " +
+                        "FROM (SELECT g, " +
+                        "(%1$s)[1 + CAST((g * 7919) %% %2$d AS int)] AS nombre, " +
+                        "(%3$s)[1 + CAST((g * 104729) %% %4$d AS int)] AS apellido1, " +
+                        "(%3$s)[1 + CAST((g * 15485863) %% %4$d AS int)] AS apellido2 " +
+                        "FROM generate_series(CAST(1 AS bigint), :clientes) g) s")
+                        .formatted(arreglo(NOMBRES), NOMBRES.length, arreglo(APELLIDOS), APELLIDOS.length),
+                Map.of("tenantId", tenantId, "clientes", CLIENTES));
+        return tenantId;
+    }
+
+    private static void agregarFila(StringBuilder tabla, String nombre, List<Double> tiempos) {
+        Percentiles p = percentiles(tiempos);
+        tabla.append(String.format("%-28s %8d %8.2f %8.2f %8.2f %8.2f%n", nombre, tiempos.size(), p.p50(), p.p95(),
+                p.p99(), p.max()));
+    }
+
+    private static Percentiles percentiles(List<Double> tiempos) {
+        double[] ordenados = tiempos.stream().mapToDouble(Double::doubleValue).sorted().toArray();
+        return new Percentiles(percentil(ordenados, 0.50), percentil(ordenados, 0.95), percentil(ordenados, 0.99),
+                ordenados[ordenados.length - 1]);
+    }
+
+    private static double percentil(double[] ordenados, double p) {
+        return ordenados[Math.min(ordenados.length - 1, (int) Math.ceil(p * ordenados.length) - 1)];
+    }
+
+    private static String prefijo(String texto, int longitud) {
+        return texto.substring(0, Math.min(texto.length(), longitud));
+    }
+
+    /**
+     * Intercambia dos letras contiguas, como al escribir rápido
+     */
+    private static String transponer(String texto, Random random) {
+        char[] letras = texto.toCharArray();
+        int i = 1 + random.nextInt(Math.max(1, Math.min(letras.length, 8) - 2));
+        char letra = letras[i];
+        letras[i] = letras[i + 1];
+        letras[i + 1] = letra;
+        return new String(letras);
+    }
+
+    /**
+     * Literal ARRAY['a', 'b'] de PostgreSQL (los textos no tienen comillas)
+     */
+    private static String arreglo(String[] valores) {
+        return "ARRAY['" + String.join("', '", valores) + "']";
+    }
+}
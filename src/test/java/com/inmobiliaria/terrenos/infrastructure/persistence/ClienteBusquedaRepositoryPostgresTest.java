@@ -0,0 +1,162 @@
+package com.inmobiliaria.terrenos.infrastructure.persistence;
+
+import com.inmobiliaria.terrenos.application.dto.cliente.ClienteSugerenciaResponse;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Búsqueda de clientes contra PostgreSQL con las migraciones reales (V17).
+ *
+ * Carga 5,000 clientes de relleno y unos cuantos con acentos, teléfonos con formato y RFC, uno
+ * eliminado y uno igual en otra empresa. Verifica los resultados y su orden de relevancia sin
+ * distinguir acentos ni mayúsculas, y que el plan de cada tipo de búsqueda use el índice de
+ * expresión de V17 que le corresponde. Se omite si no hay Docker.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ClienteBusquedaRepositoryPostgresTest {
+
+    private static final int RELLENO = 5_000;
+
+    @Container
+    static final PostgreSQLContainer POSTGRES = new PostgreSQLContainer("postgres:17-alpine");
+
+    private static NamedParameterJdbcTemplate jdbc;
+    private static ClienteBusquedaRepository repository;
+    private static Long tenantId;
+    private static Long josePerez;
+    private static Long josefinaGomez;
+    private static Long mariaJose;
+    private static Long joseAjeno;
+
+    @BeforeAll
+    static void cargarDatos() {
+        Flyway.configure().dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .load().migrate();
+        jdbc = new NamedParameterJdbcTemplate(new SingleConnectionDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword(), true));
+        repository = new ClienteBusquedaRepository(jdbc);
+
+        tenantId = insertar("INSERT INTO tenants (nombre, email) VALUES ('Clientes', 'clientes@test.mx') " +
+                "RETURNING id", Map.of());
+        Long otroTenantId = insertar("INSERT INTO tenants (nombre, email) VALUES ('Otra', 'otra@clientes.mx') " +
+                "RETURNING id", Map.of());
+
+        josePerez = cliente(tenantId, "José", "Pérez", "jose.perez@correo.mx", "(55) 1234-5678", "PEGJ800101AB1", false);
+        josefinaGomez = cliente(tenantId, "Josefina", "Gómez", "jgomez@correo.mx", "33 9876 5432", "GOMJ900202XY2",
+                false);
+        mariaJose = cliente(tenantId, "María José", "Núñez", "mjn@correo.mx", "81-5555-0000", null, false);
+        cliente(tenantId, "Joselito", "Ramírez", "joselito@correo.mx", "55 0000 1111", "RAMJ700303ZZ3", true);
+        joseAjeno = cliente(otroTenantId, "José", "Pérez", "jose.perez@correo.mx", "(55) 1234-5678", "PEGJ800101AB1",
+                false);
+
+        // Nombres sin dígitos (el número en letras a-j), teléfonos 99 + 8 dígitos y RFC que no
+        // coinciden con ninguna búsqueda de las pruebas, ni siquiera por similitud
+        jdbc.update("INSERT INTO clientes (tenant_id, nombre, apellido, email, telefono, rfc) " +
+                "SELECT :tenantId, 'Cliente ' || translate(CAST(g AS text), '0123456789', 'abcdefghij'), " +
+                "'Relleno', 'c' || g || '@relleno.mx', " +
+                "'99' || lpad(CAST(g AS text), 8, '0'), 'XAXX' || lpad(CAST(g AS text), 9, '0') " +
+                "FROM generate_series(1, :relleno) g",
+                Map.of("tenantId", tenantId, "relleno", RELLENO));
+        jdbc.getJdbcTemplate().execute("ANALYZE clientes");
+    }
+
+    @Test
+    void buscar_SinDistinguirAcentosNiMayusculas() {
+        assertEquals(List.of(josePerez), repository.buscarIds(tenantId, "JOSE PEREZ", 10));
+        assertEquals(List.of(josePerez), repository.buscarIds(tenantId, "josé pérez", 10));
+        assertEquals(List.of(josePerez), repository.buscarIds(tenantId, "pérez", 10));
+        assertEquals(List.of(mariaJose), repository.buscarIds(tenantId, "NUNEZ", 10));
+        assertEquals(List.of(mariaJose), repository.buscarIds(tenantId, "núñez", 10));
+    }
+
+    @Test
+    void buscar_OrdenaPorPrefijoPalabraYSimilitud() {
+        List<ClienteSugerenciaResponse> resultados = repository.buscar(tenantId, "José", 10);
+
+        // Prefijo del nombre completo (exacto antes que parcial), luego prefijo de otra palabra.
+        // Ni el eliminado ni el de la otra empresa aparecen
+        assertEquals(List.of(josePerez, josefinaGomez, mariaJose),
+                resultados.stream().map(ClienteSugerenciaResponse::getId).toList());
+        assertEquals(List.of(0, 0, 1), resultados.stream().map(ClienteSugerenciaResponse::getRango).toList());
+        assertEquals("María José Núñez", resultados.get(2).getNombreCompleto());
+        assertFalse(repository.buscarIds(tenantId, "José", 10).contains(joseAjeno));
+        assertTrue(repository.buscarIds(tenantId, "joselito", 10).isEmpty());
+    }
+
+    @Test
+    void buscar_TextoCortoYLimite() {
+        assertEquals(List.of(josePerez, josefinaGomez), repository.buscarIds(tenantId, "Jo", 10));
+        assertEquals(5, repository.buscarIds(tenantId, "cliente", 5).size());
+        assertEquals(ClienteBusquedaRepository.LIMITE_MAXIMO, repository.buscarIds(tenantId, "cliente", 500).size());
+    }
+
+    @Test
+    void buscar_PorTelefonoEmailYRfc() {
+        assertEquals(List.of(josePerez), repository.buscarIds(tenantId, "55 1234", 10), "Prefijo de los dígitos");
+        assertEquals(List.of(josePerez), repository.buscarIds(tenantId, "1234-56", 10), "Dígitos intermedios");
+        assertEquals(List.of(josefinaGomez), repository.buscarIds(tenantId, "9876 54", 10));
+        assertEquals(List.of(josePerez), repository.buscarIds(tenantId, "jose.perez@", 10));
+        assertEquals(List.of(josefinaGomez), repository.buscarIds(tenantId, "gomj9", 10));
+        assertEquals(List.of(josePerez), repository.buscarIds(tenantId, "PEGJ800101", 10));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "jo, idx_clientes_busqueda_nombre_prefijo",
+            "nunez, idx_clientes_busqueda_nombre_trgm",
+            "1234-56, idx_clientes_busqueda_telefono_trgm",
+            "gomj9, idx_clientes_busqueda_rfc"
+    })
+    void buscar_UsaElIndiceDeExpresionDeV17(String texto, String indice) {
+        ClienteBusquedaRepository.Consulta consulta = repository.construirConsulta(
+                tenantId, ClienteBusquedaRepository.Termino.of(texto), 10);
+
+        // Con tan pocos clientes el planificador podría preferir leer la tabla completa: se
+        // descarta el recorrido secuencial para comparar solo entre índices
+        List<String> plan;
+        jdbc.getJdbcTemplate().execute("SET enable_seqscan = off");
+        try {
+            plan = jdbc.queryForList("EXPLAIN " + consulta.sql(), consulta.parametros(), String.class);
+        } finally {
+            jdbc.getJdbcTemplate().execute("RESET enable_seqscan");
+        }
+
+        String detalle = String.join("\n", plan);
+        assertTrue(detalle.contains(indice), "Plan sin " + indice + ":\n" + detalle);
+        assertFalse(detalle.contains("Seq Scan"), "Sin recorrido secuencial de clientes:\n" + detalle);
+    }
+
+    private static Long cliente(Long tenant, String nombre, String apellido, String email, String telefono,
+                                String rfc, boolean eliminado) {
+        return jdbc.queryForObject("INSERT INTO clientes (tenant_id, nombre, apellido, email, telefono, rfc, deleted) " +
+                        "VALUES (:tenantId, :nombre, :apellido, :email, :telefono, :rfc, :eliminado) RETURNING id",
+                new MapSqlParameterSource()
+                        .addValue("tenantId", tenant)
+                        .addValue("nombre", nombre)
+                        .addValue("apellido", apellido)
+                        .addValue("email", email)
+                        .addValue("telefono", telefono)
+                        .addValue("rfc", rfc, Types.VARCHAR)
+                        .addValue("eliminado", eliminado),
+                Long.class);
+    }
+
+    private static Long insertar(String sql, Map<String, ?> parametros) {
+        return jdbc.queryForObject(sql, parametros, Long.class);
+    }
+}
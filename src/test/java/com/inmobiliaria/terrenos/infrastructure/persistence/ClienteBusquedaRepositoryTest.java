@@ -0,0 +1,36 @@
+package com.inmobiliaria.terrenos.infrastructure.persistence;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClienteBusquedaRepositoryTest {
+
+    private final ClienteBusquedaRepository repository = new ClienteBusquedaRepository(null);
+
+    @Test
+    void termino_NormalizaAcentosMayusculasYEspacios() {
+        ClienteBusquedaRepository.Termino termino = ClienteBusquedaRepository.Termino.of("  José   PÉREZ Núñez ");
+
+        assertEquals("jose perez nunez", termino.texto());
+        assertEquals("", termino.digitos());
+        assertEquals("JOSEPEREZNUNEZ", termino.alfanumerico());
+    }
+
+    @Test
+    void buscar_TextoDemasiadoCorto_NoConsultaLaBase() {
+        assertTrue(repository.buscar(1L, " á ", 10).isEmpty());
+        assertTrue(repository.buscar(1L, null, 10).isEmpty());
+    }
+
+    @Test
+    void siguientePrefijo_IncrementaElUltimoCaracter() {
+        assertEquals("perf", ClienteBusquedaRepository.siguientePrefijo("pere"));
+        assertEquals("ab!", ClienteBusquedaRepository.siguientePrefijo("ab "));
+    }
+
+    @Test
+    void escaparLike_EscapaComodinesYDiagonal() {
+        assertEquals("50\\% a\\_b \\\\", ClienteBusquedaRepository.escaparLike("50% a_b \\"));
+    }
+}
@@ -0,0 +1,236 @@
+package com.inmobiliaria.terrenos.infrastructure.persistence;
+
+import com.inmobiliaria.terrenos.application.dto.cliente.PaginaHistorialResponse;
+import com.inmobiliaria.terrenos.application.dto.cotizacion.CotizacionResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark de latencia de la vista 360 del cliente (resumen + primera página de cotizaciones,
+ * apartados y ventas) para clientes con cientos de transacciones.
+ *
+ * Requiere PostgreSQL real con las migraciones (índices parciales de V18): levanta un contenedor
+ * con Testcontainers y se omite si no hay Docker.
+ *
+ * Carga 20,000 clientes con pocas transacciones y 50 clientes frecuentes con 600 cotizaciones,
+ * 200 apartados y 100 ventas cada uno. Mide el historial y el recorrido completo de las
+ * cotizaciones por páginas de los clientes frecuentes, y lo compara con la forma anterior
+ * (tres conteos y todas las transacciones del cliente filtradas solo por cliente_id). Registra
+ * una tabla en el log; verifica p99 < 20 ms del historial.
+ *
+ * Etiqueta benchmark: no corre con mvn test, sino con mvn test -Pbenchmark. La corrección de
+ * las consultas la cubre ClienteHistorialRepositoryPostgresTest.
+ */
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+@Slf4j
+class ClienteHistorialBenchmarkTest {
+
+    private static final int CLIENTES = 20_000;
+    private static final int CLIENTES_FRECUENTES = 50;
+    private static final int COTIZACIONES_FRECUENTE = 600;
+    private static final int APARTADOS_FRECUENTE = 200;
+    private static final int VENTAS_FRECUENTE = 100;
+    private static final int TERRENOS = 2_000;
+    private static final int PAGINA = 20;
+    private static final int CALENTAMIENTO = 200;
+    private static final int CONSULTAS = 2_000;
+    private static final int CONSULTAS_ANTERIOR = 200;
+    private static final double P99_MAXIMO_MS = 20.0;
+
+    @Container
+    static final PostgreSQLContainer POSTGRES = new PostgreSQLContainer("postgres:17-alpine");
+
+    private record Percentiles(double p50, double p95, double p99, double max) {
+    }
+
+    @Test
+    void latenciaDelHistorial_ClientesConCientosDeTransacciones() {
+        Flyway.configure().dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .load().migrate();
+
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword(), true);
+        NamedParameterJdbcTemplate jdbc = new NamedParameterJdbcTemplate(dataSource);
+        Long tenantId = cargarDatos(jdbc);
+        jdbc.getJdbcTemplate().execute("VACUUM ANALYZE");
+
+        List<Long> frecuentes = jdbc.queryForList(
+                "SELECT id FROM clientes WHERE tenant_id = :tenantId ORDER BY id LIMIT :frecuentes",
+                Map.of("tenantId", tenantId, "frecuentes", CLIENTES_FRECUENTES), Long.class);
+
+        ClienteHistorialRepository repository = new ClienteHistorialRepository(jdbc);
+        Random random = new Random(42);
+        LocalDate hoy = LocalDate.now();
+
+        for (int i = 0; i < CALENTAMIENTO; i++) {
+            historial(repository, tenantId, frecuentes.get(random.nextInt(frecuentes.size())), hoy);
+        }
+
+        List<Double> tiemposHistorial = new ArrayList<>();
+        for (int i = 0; i < CONSULTAS; i++) {
+            Long clienteId = frecuentes.get(random.nextInt(frecuentes.size()));
+            long inicio = System.nanoTime();
+            ClienteHistorialRepository.Resumen resumen = historial(repository, tenantId, clienteId, hoy);
+            tiemposHistorial.add((System.nanoTime() - inicio) / 1_000_000.0);
+            assertEquals(COTIZACIONES_FRECUENTE, resumen.totalCotizaciones());
+        }
+
+        // Recorrido completo de las cotizaciones de un cliente, página por página
+        List<Double> tiemposPagina = new ArrayList<>();
+        for (Long clienteId : frecuentes.subList(0, 10)) {
+            String cursor = null;
+            int leidas = 0;
+            do {
+                long inicio = System.nanoTime();
+                PaginaHistorialResponse<CotizacionResponse> pagina =
+                        repository.cotizaciones(tenantId, clienteId, cursor, PAGINA);
+                tiemposPagina.add((System.nanoTime() - inicio) / 1_000_000.0);
+                leidas += pagina.getElementos().size();
+                cursor = pagina.getSiguienteCursor();
+            } while (cursor != null);
+            assertEquals(COTIZACIONES_FRECUENTE, leidas);
+        }
+
+        List<Double> tiemposAnterior = new ArrayList<>();
+        for (int i = 0; i < CONSULTAS_ANTERIOR; i++) {
+            Long clienteId = frecuentes.get(random.nextInt(frecuentes.size()));
+            long inicio = System.nanoTime();
+            historialAnterior(jdbc, clienteId);
+            tiemposAnterior.add((System.nanoTime() - inicio) / 1_000_000.0);
+        }
+
+        Percentiles historial = percentiles(tiemposHistorial);
+        StringBuilder tabla = new StringBuilder(String.format("%n%-34s %8s %8s %8s %8s %8s%n",
+                "historial (600/200/100 por cliente)", "n", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        agregarFila(tabla, "resumen + 3 primeras paginas", tiemposHistorial);
+        agregarFila(tabla, "pagina de cotizaciones (cursor)", tiemposPagina);
+        agregarFila(tabla, "anterior (conteos + todo)", tiemposAnterior);
+        log.info("{}", tabla);
+
+        assertTrue(historial.p99() < P99_MAXIMO_MS,
+                "p99 de " + historial.p99() + " ms, se esperaba menos de " + P99_MAXIMO_MS);
+    }
+
+    /**
+     * Lo que hace ClienteService.obtenerHistorialCliente después de leer el cliente
+     */
+    private static ClienteHistorialRepository.Resumen historial(ClienteHistorialRepository repository, Long tenantId,
+                                                               Long clienteId, LocalDate hoy) {
+        ClienteHistorialRepository.Resumen resumen = repository.resumen(tenantId, clienteId, hoy);
+        repository.cotizaciones(tenantId, clienteId, null, PAGINA);
+        repository.apartados(tenantId, clienteId, null, PAGINA);
+        repository.ventas(tenantId, clienteId, null, PAGINA);
+        return resumen;
+    }
+
+    /**
+     * Consultas equivalentes a las de la versión anterior: tres conteos por cliente_id y todas
+     * las transacciones del cliente con su terreno y proyecto
+     */
+    private static void historialAnterior(NamedParameterJdbcTemplate jdbc, Long clienteId) {
+        Map<String, Long> parametros = Map.of("clienteId", clienteId);
+        for (String tabla : List.of("cotizaciones", "apartados", "ventas")) {
+            jdbc.queryForObject("SELECT COUNT(*) FROM " + tabla + " WHERE cliente_id = :clienteId AND deleted = false",
+                    parametros, Long.class);
+            jdbc.queryForList("SELECT x.*, t.numero_lote, t.manzana, p.nombre FROM " + tabla + " x " +
+                    "JOIN terrenos t ON t.id = x.terreno_id JOIN proyectos p ON p.id = t.proyecto_id " +
+                    "WHERE x.cliente_id = :clienteId AND x.deleted = false ORDER BY x.created_at DESC", parametros);
+        }
+    }
+
+    /**
+     * Un tenant con sus terrenos y clientes; los primeros CLIENTES_FRECUENTES clientes tienen
+     * cientos de transacciones y el resto unas cuantas
+     */
+    private Long cargarDatos(NamedParameterJdbcTemplate jdbc) {
+        Long tenantId = jdbc.queryForObject(
+                "INSERT INTO tenants (nombre, email) VALUES ('Benchmark', 'benchmark@historial.mx') RETURNING id",
+                Map.of(), Long.class);
+        Long usuarioId = jdbc.queryForObject(
+                "INSERT INTO usuarios (tenant_id, nombre, apellido, email, password) " +
+                "VALUES (:tenantId, 'Vendedor', 'Benchmark', 'vendedor@historial.mx', 'x') RETURNING id",
+                Map.of("tenantId", tenantId), Long.class);
+        Long proyectoId = jdbc.queryForObject(
+                "INSERT INTO proyectos (tenant_id, nombre, direccion) VALUES (:tenantId, 'Proyecto Benchmark', 'Calle 1') " +
+                "RETURNING id",
+                Map.of("tenantId", tenantId), Long.class);
+
+        jdbc.update("INSERT INTO terrenos (tenant_id, proyecto_id, numero_lote, manzana, area, precio_base, precio_final) " +
+                "SELECT :tenantId, :proyectoId, 'L-' || g, 'M' || (g / 100), 200, 450000, 450000 " +
+                "FROM generate_series(1, :terrenos) g",
+                Map.of("tenantId", tenantId, "proyectoId", proyectoId, "terrenos", TERRENOS));
+        // Los ids de los terrenos son consecutivos en una base nueva
+        Long primerTerreno = jdbc.queryForObject("SELECT MIN(id) FROM terrenos WHERE tenant_id = :tenantId",
+                Map.of("tenantId", tenantId), Long.class);
+
+        Map<String, Object> parametros = Map.of(
+                "tenantId", tenantId,
+                "usuarioId", usuarioId,
+                "primerTerreno", primerTerreno,
+                "terrenos", TERRENOS,
+                "clientes", CLIENTES,
+                "frecuentes", CLIENTES_FRECUENTES,
+                "cotizaciones", COTIZACIONES_FRECUENTE,
+                "apartados", APARTADOS_FRECUENTE,
+                "ventas", VENTAS_FRECUENTE);
+
+        jdbc.update("INSERT INTO clientes (tenant_id, nombre, apellido, telefono) " +
+                "SELECT :tenantId, 'Cliente', 'Benchmark ' || g, '55' || lpad(CAST(g AS text), 8, '0') " +
+                "FROM generate_series(1, :clientes) g", parametros);
+
+        // La n-ésima transacción del cliente: un terreno y una fecha distintos por (cliente, n)
+        String clientes = "FROM (SELECT c.id, c.nombre || ' ' || c.apellido AS nombre, c.telefono, " +
+                "ROW_NUMBER() OVER (ORDER BY c.id) AS orden FROM clientes c WHERE c.tenant_id = :tenantId) c " +
+                "CROSS JOIN LATERAL generate_series(1, CASE WHEN c.orden <= :frecuentes THEN %s ELSE %d END) g " +
+                "CROSS JOIN LATERAL (SELECT :primerTerreno + (c.id * 31 + g) %% :terrenos AS id) t ";
+        jdbc.update(("INSERT INTO cotizaciones (tenant_id, terreno_id, usuario_id, cliente_id, cliente_nombre, " +
+                "precio_base, descuento, precio_final, fecha_vigencia, created_at, updated_at) " +
+                "SELECT :tenantId, t.id, :usuarioId, c.id, c.nombre, 450000, (g %% 5) * 5000, 450000 - (g %% 5) * 5000, " +
+                "CURRENT_DATE + CAST(g %% 60 - 30 AS int), now() - (c.id * 1000 + g) * interval '1 minute', now() " +
+                clientes).formatted(":cotizaciones", 10), parametros);
+        jdbc.update(("INSERT INTO apartados (tenant_id, terreno_id, usuario_id, cliente_id, cliente_nombre, " +
+                "cliente_telefono, monto_apartado, precio_total, fecha_vencimiento, estado, created_at, updated_at) " +
+                "SELECT :tenantId, t.id, :usuarioId, c.id, c.nombre, c.telefono, 20000, 450000, " +
+                "now() + interval '30 days', CAST(CASE WHEN g %% 10 = 0 THEN 'ACTIVO' ELSE 'VENCIDO' END AS estado_apartado), " +
+                "now() - (c.id * 1000 + g) * interval '1 minute', now() " +
+                clientes).formatted(":apartados", 3), parametros);
+        jdbc.update(("INSERT INTO ventas (tenant_id, terreno_id, usuario_id, cliente_id, folio, comprador_nombre, " +
+                "comprador_telefono, precio_total, monto_final, created_at, updated_at) " +
+                "SELECT :tenantId, t.id, :usuarioId, c.id, 'V-' || c.id || '-' || g, c.nombre, c.telefono, 450000, 430000, " +
+                "now() - (c.id * 1000 + g) * interval '1 minute', now() " +
+                clientes).formatted(":ventas", 1), parametros);
+        return tenantId;
+    }
+
+    private static void agregarFila(StringBuilder tabla, String nombre, List<Double> tiempos) {
+        Percentiles p = percentiles(tiempos);
+        tabla.append(String.format("%-34s %8d %8.2f %8.2f %8.2f %8.2f%n", nombre, tiempos.size(), p.p50(), p.p95(),
+                p.p99(), p.max()));
+    }
+
+    private static Percentiles percentiles(List<Double> tiempos) {
+        double[] ordenados = tiempos.stream().mapToDouble(Double::doubleValue).sorted().toArray();
+        return new Percentiles(percentil(ordenados, 0.50), percentil(ordenados, 0.95), percentil(ordenados, 0.99),
+                ordenados[ordenados.length - 1]);
+    }
+
+    private static double percentil(double[] ordenados, double p) {
+        return ordenados[Math.min(ordenados.length - 1, (int) Math.ceil(p * ordenados.length) - 1)];
+    }
+}
@@ -0,0 +1,163 @@
+package com.inmobiliaria.terrenos.infrastructure.persistence;
+
+import com.inmobiliaria.terrenos.application.dto.cliente.PaginaHistorialResponse;
+import com.inmobiliaria.terrenos.application.dto.cotizacion.CotizacionResponse;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Consultas de ClienteHistorialRepository contra PostgreSQL con las migraciones reales: el
+ * resumen de agregados y el recorrido por cursor, con un empate de created_at en el borde de
+ * una página. Pocos registros; se omite si no hay Docker.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ClienteHistorialRepositoryPostgresTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 6, 1, 12, 0);
+    private static final LocalDate HOY = BASE.toLocalDate();
+
+    @Container
+    static final PostgreSQLContainer POSTGRES = new PostgreSQLContainer("postgres:17-alpine");
+
+    private static NamedParameterJdbcTemplate jdbc;
+    private static ClienteHistorialRepository repository;
+    private static Long tenantId;
+    private static Long clienteId;
+
+    @BeforeAll
+    static void cargarDatos() {
+        Flyway.configure().dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .load().migrate();
+        jdbc = new NamedParameterJdbcTemplate(new SingleConnectionDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword(), true));
+        repository = new ClienteHistorialRepository(jdbc);
+
+        tenantId = insertar("INSERT INTO tenants (nombre, email) VALUES ('Historial', 'historial@test.mx') RETURNING id",
+                Map.of());
+        Long usuarioId = insertar("INSERT INTO usuarios (tenant_id, nombre, apellido, email, password) " +
+                "VALUES (:tenantId, 'Vendedor', 'Prueba', 'vendedor@historial.mx', 'x') RETURNING id",
+                Map.of("tenantId", tenantId));
+        Long proyectoId = insertar("INSERT INTO proyectos (tenant_id, nombre, direccion) " +
+                "VALUES (:tenantId, 'Las Lomas', 'Calle 1') RETURNING id", Map.of("tenantId", tenantId));
+        Long terrenoId = insertar("INSERT INTO terrenos (tenant_id, proyecto_id, numero_lote, manzana, area, " +
+                "precio_base, precio_final) VALUES (:tenantId, :proyectoId, 'L-1', 'M1', 200, 450000, 450000) " +
+                "RETURNING id", Map.of("tenantId", tenantId, "proyectoId", proyectoId));
+        clienteId = insertar("INSERT INTO clientes (tenant_id, nombre, apellido) " +
+                "VALUES (:tenantId, 'Laura', 'Méndez') RETURNING id", Map.of("tenantId", tenantId));
+        Long otroCliente = insertar("INSERT INTO clientes (tenant_id, nombre, apellido) " +
+                "VALUES (:tenantId, 'Otro', 'Cliente') RETURNING id", Map.of("tenantId", tenantId));
+
+        MapSqlParameterSource comunes = new MapSqlParameterSource()
+                .addValue("tenantId", tenantId)
+                .addValue("usuarioId", usuarioId)
+                .addValue("terrenoId", terrenoId);
+
+        // Cinco cotizaciones; la segunda y la tercera con el mismo created_at (borde de página con límite 2)
+        int[] minutosAntes = {1, 2, 2, 3, 4};
+        for (int i = 0; i < minutosAntes.length; i++) {
+            cotizacion(comunes, clienteId, BASE.minusMinutes(minutosAntes[i]),
+                    i < 2 ? HOY.plusDays(14) : HOY.minusDays(10), false);
+        }
+        cotizacion(comunes, clienteId, BASE, HOY.plusDays(14), true);
+        cotizacion(comunes, otroCliente, BASE, HOY.plusDays(14), false);
+
+        apartado(comunes, clienteId, "ACTIVO", "20000", BASE.minusDays(1));
+        apartado(comunes, clienteId, "VENCIDO", "15000", BASE.minusDays(20));
+
+        jdbc.update("INSERT INTO ventas (tenant_id, terreno_id, usuario_id, cliente_id, folio, comprador_nombre, " +
+                "precio_total, monto_final, created_at, updated_at) VALUES (:tenantId, :terrenoId, :usuarioId, " +
+                ":clienteId, 'V-1', 'Laura Méndez', 450000, 430000, :creado, :creado)",
+                new MapSqlParameterSource(comunes.getValues())
+                        .addValue("clienteId", clienteId)
+                        .addValue("creado", Timestamp.valueOf(BASE)));
+    }
+
+    @Test
+    void resumen_AgregaSoloLasTransaccionesNoEliminadasDelCliente() {
+        ClienteHistorialRepository.Resumen resumen = repository.resumen(tenantId, clienteId, HOY);
+
+        assertEquals(5, resumen.totalCotizaciones());
+        assertEquals(0, new BigDecimal("500000").compareTo(resumen.montoTotalCotizaciones()));
+        assertEquals(2, resumen.cotizacionesVigentes());
+        assertEquals(BASE.minusMinutes(1), resumen.ultimaCotizacion());
+        assertEquals(2, resumen.totalApartados());
+        assertEquals(0, new BigDecimal("35000").compareTo(resumen.montoTotalApartados()));
+        assertEquals(1, resumen.apartadosActivos());
+        assertEquals(1, resumen.totalVentas());
+        assertEquals(0, new BigDecimal("430000").compareTo(resumen.montoTotalVentas()));
+        assertEquals(BASE, resumen.ultimaActividad());
+    }
+
+    @Test
+    void cotizaciones_RecorridoPorCursor_SinRepetirNiOmitirConEmpateDeFecha() {
+        List<Long> esperado = jdbc.queryForList("SELECT id FROM cotizaciones " +
+                        "WHERE cliente_id = :clienteId AND deleted = false ORDER BY created_at DESC, id DESC",
+                Map.of("clienteId", clienteId), Long.class);
+
+        List<Long> leidos = new ArrayList<>();
+        List<Boolean> hayMas = new ArrayList<>();
+        String cursor = null;
+        do {
+            PaginaHistorialResponse<CotizacionResponse> pagina = repository.cotizaciones(tenantId, clienteId, cursor, 2);
+            pagina.getElementos().forEach(c -> {
+                leidos.add(c.getId());
+                assertEquals("Las Lomas", c.getProyectoNombre());
+            });
+            hayMas.add(pagina.isHayMas());
+            cursor = pagina.getSiguienteCursor();
+        } while (cursor != null);
+
+        assertEquals(5, esperado.size());
+        assertEquals(esperado, leidos);
+        assertEquals(List.of(true, true, false), hayMas);
+    }
+
+    private static void cotizacion(MapSqlParameterSource comunes, Long cliente, LocalDateTime creado,
+                                   LocalDate vigencia, boolean eliminada) {
+        jdbc.update("INSERT INTO cotizaciones (tenant_id, terreno_id, usuario_id, cliente_id, cliente_nombre, " +
+                        "precio_base, descuento, precio_final, fecha_vigencia, deleted, created_at, updated_at) " +
+                        "VALUES (:tenantId, :terrenoId, :usuarioId, :clienteId, 'Laura Méndez', 100000, 0, 100000, " +
+                        ":vigencia, :eliminada, :creado, :creado)",
+                new MapSqlParameterSource(comunes.getValues())
+                        .addValue("clienteId", cliente)
+                        .addValue("vigencia", Date.valueOf(vigencia))
+                        .addValue("eliminada", eliminada)
+                        .addValue("creado", Timestamp.valueOf(creado)));
+    }
+
+    private static void apartado(MapSqlParameterSource comunes, Long cliente, String estado, String monto,
+                                 LocalDateTime creado) {
+        jdbc.update("INSERT INTO apartados (tenant_id, terreno_id, usuario_id, cliente_id, cliente_nombre, " +
+                        "monto_apartado, precio_total, fecha_vencimiento, estado, created_at, updated_at) " +
+                        "VALUES (:tenantId, :terrenoId, :usuarioId, :clienteId, 'Laura Méndez', :monto, 450000, " +
+                        ":vencimiento, CAST(:estado AS estado_apartado), :creado, :creado)",
+                new MapSqlParameterSource(comunes.getValues())
+                        .addValue("clienteId", cliente)
+                        .addValue("monto", new BigDecimal(monto))
+                        .addValue("vencimiento", Timestamp.valueOf(creado.plusDays(30)))
+                        .addValue("estado", estado)
+                        .addValue("creado", Timestamp.valueOf(creado)));
+    }
+
+    private static Long insertar(String sql, Map<String, ?> parametros) {
+        return jdbc.queryForObject(sql, parametros, Long.class);
+    }
+}
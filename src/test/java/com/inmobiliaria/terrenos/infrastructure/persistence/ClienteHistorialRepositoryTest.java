@@ -0,0 +1,65 @@
+package com.inmobiliaria.terrenos.infrastructure.persistence;
+
+import com.inmobiliaria.terrenos.shared.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClienteHistorialRepositoryTest {
+
+    @Test
+    void construirConsulta_PrimeraPagina_FiltraPorTenantYClienteYPideUnaFilaDeMas() {
+        ClienteHistorialRepository.Consulta consulta = ClienteHistorialRepository.construirConsulta(
+                ClienteHistorialRepository.SELECT_COTIZACIONES, "c", 1L, 7L, null, 20);
+
+        assertTrue(consulta.sql().contains("WHERE c.tenant_id = :tenantId AND c.cliente_id = :clienteId AND c.deleted = false"));
+        assertFalse(consulta.sql().contains(":creado"));
+        assertTrue(consulta.sql().endsWith("ORDER BY c.created_at DESC, c.id DESC LIMIT :limite"));
+        assertEquals(1L, consulta.parametros().getValue("tenantId"));
+        assertEquals(7L, consulta.parametros().getValue("clienteId"));
+        assertEquals(21, consulta.parametros().getValue("limite"));
+    }
+
+    @Test
+    void construirConsulta_ConCursor_ContinuaDespuesDeLaUltimaFila() {
+        LocalDateTime creado = LocalDateTime.of(2025, 3, 14, 9, 26, 53, 589_000_000);
+        String cursor = ClienteHistorialRepository.codificarCursor(creado, 42L);
+
+        ClienteHistorialRepository.Consulta consulta = ClienteHistorialRepository.construirConsulta(
+                ClienteHistorialRepository.SELECT_VENTAS, "v", 1L, 7L, cursor, 10);
+
+        assertTrue(consulta.sql().contains("AND (v.created_at, v.id) < (:creado, :id)"));
+        assertEquals(Timestamp.valueOf(creado), consulta.parametros().getValue("creado"));
+        assertEquals(42L, consulta.parametros().getValue("id"));
+    }
+
+    @Test
+    void decodificarCursor_Invalido_LanzaBadRequest() {
+        String sinId = Base64.getUrlEncoder().encodeToString("2025-03-14T09:26".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(BusinessException.class, () -> ClienteHistorialRepository.decodificarCursor("no-es-base64!"));
+        assertThrows(BusinessException.class, () -> ClienteHistorialRepository.decodificarCursor(sinId));
+    }
+
+    @Test
+    void resumen_UltimaActividad_EsLaFechaMasRecienteIgnorandoNulos() {
+        LocalDateTime cotizacion = LocalDateTime.of(2025, 1, 10, 12, 0);
+        LocalDateTime venta = LocalDateTime.of(2025, 2, 1, 8, 30);
+
+        ClienteHistorialRepository.Resumen resumen = new ClienteHistorialRepository.Resumen(
+                3, new BigDecimal("1350000.00"), 1, cotizacion,
+                0, BigDecimal.ZERO, 0, null,
+                1, new BigDecimal("430000.00"), venta);
+        ClienteHistorialRepository.Resumen sinTransacciones = new ClienteHistorialRepository.Resumen(
+                0, BigDecimal.ZERO, 0, null, 0, BigDecimal.ZERO, 0, null, 0, BigDecimal.ZERO, null);
+
+        assertEquals(venta, resumen.ultimaActividad());
+        assertNull(sinTransacciones.ultimaActividad());
+    }
+}
@@ -0,0 +1,299 @@
+package com.inmobiliaria.terrenos.infrastructure.persistence;
+
+import com.inmobiliaria.terrenos.application.dto.reporte.EmbudoVentasResponse;
+import com.inmobiliaria.terrenos.application.service.EmbudoVentasService;
+import com.inmobiliaria.terrenos.domain.enums.AgrupacionEmbudo;
+import com.inmobiliaria.terrenos.domain.enums.MetricaEmbudo;
+import com.inmobiliaria.terrenos.domain.repository.CotizacionRepository;
+import com.inmobiliaria.terrenos.domain.repository.MovimientoEmbudoRepository;
+import com.inmobiliaria.terrenos.domain.repository.ProyectoRepository;
+import com.inmobiliaria.terrenos.domain.repository.TerrenoRepository;
+import com.inmobiliaria.terrenos.domain.repository.UsuarioRepository;
+import com.inmobiliaria.terrenos.infrastructure.tenant.TenantContext;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.math.BigDecimal;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Embudo de ventas contra PostgreSQL con las migraciones reales (V20).
+ *
+ * Datos de enero de 2025 en dos proyectos y dos agentes:
+ * - C1 (L-1) → apartado A1 → venta V1 por el apartado
+ * - C2 (L-2) → apartado A2, vencido
+ * - C3 (L-3) sin conversión; C5 (L-3) es de febrero y queda fuera del periodo
+ * - C4 (L-4, otro proyecto) → venta V2 directa, cancelada
+ * - A3 (L-5) sin cotización, cancelado
+ *
+ * Reconstruye los movimientos desde esas tablas, los consolida por bloques y verifica los
+ * conteos por etapa, los histogramas de días y las tasas de conversión del reporte. Se omite
+ * si no hay Docker.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class EmbudoVentasRepositoryPostgresTest {
+
+    private static final LocalDate DESDE = LocalDate.of(2025, 1, 1);
+    private static final LocalDate HASTA = LocalDate.of(2025, 1, 31);
+
+    @Container
+    static final PostgreSQLContainer POSTGRES = new PostgreSQLContainer("postgres:17-alpine");
+
+    private static NamedParameterJdbcTemplate jdbc;
+    private static TransactionTemplate transaccion;
+    private static EmbudoVentasRepository repository;
+    private static Long tenantId;
+    private static Long agente1;
+    private static Long agente2;
+    private static Long proyecto1;
+    private static Long proyecto2;
+    private static Long cotizacion1;
+    private static Long cotizacion2;
+    private static Long cotizacion3;
+    private static Long cotizacion4;
+
+    @BeforeAll
+    static void cargarDatos() {
+        Flyway.configure().dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .load().migrate();
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword(), true);
+        jdbc = new NamedParameterJdbcTemplate(dataSource);
+        transaccion = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        repository = new EmbudoVentasRepository(jdbc);
+
+        tenantId = insertar("INSERT INTO tenants (nombre, email) VALUES ('Embudo', 'embudo@test.mx') RETURNING id",
+                Map.of());
+        Long otroTenantId = insertar("INSERT INTO tenants (nombre, email) VALUES ('Otra', 'otra@embudo.mx') " +
+                "RETURNING id", Map.of());
+        agente1 = insertar("INSERT INTO usuarios (tenant_id, nombre, apellido, email, password) " +
+                "VALUES (:tenantId, 'Ana', 'Agente', 'ana@embudo.mx', 'x') RETURNING id", Map.of("tenantId", tenantId));
+        agente2 = insertar("INSERT INTO usuarios (tenant_id, nombre, apellido, email, password) " +
+                "VALUES (:tenantId, 'Beto', 'Agente', 'beto@embudo.mx', 'x') RETURNING id", Map.of("tenantId", tenantId));
+        proyecto1 = insertar("INSERT INTO proyectos (tenant_id, nombre, direccion) " +
+                "VALUES (:tenantId, 'Las Lomas', 'Calle 1') RETURNING id", Map.of("tenantId", tenantId));
+        proyecto2 = insertar("INSERT INTO proyectos (tenant_id, nombre, direccion) " +
+                "VALUES (:tenantId, 'El Mirador', 'Calle 2') RETURNING id", Map.of("tenantId", tenantId));
+        Long lote1 = terreno(proyecto1, "L-1");
+        Long lote2 = terreno(proyecto1, "L-2");
+        Long lote3 = terreno(proyecto1, "L-3");
+        Long lote4 = terreno(proyecto2, "L-4");
+        Long lote5 = terreno(proyecto2, "L-5");
+
+        cotizacion1 = cotizacion(lote1, agente1, "2025-01-05 10:00");
+        cotizacion2 = cotizacion(lote2, agente1, "2025-01-06 10:00");
+        cotizacion3 = cotizacion(lote3, agente2, "2025-01-07 10:00");
+        cotizacion4 = cotizacion(lote4, agente2, "2025-01-07 16:00");
+        cotizacion(lote3, agente1, "2025-02-03 10:00");
+
+        Long apartado1 = apartado(lote1, agente1, cotizacion1, "2025-01-08 11:00", "COMPLETADO");
+        apartado(lote2, agente1, cotizacion2, "2025-01-10 09:00", "VENCIDO");
+        apartado(lote5, agente2, null, "2025-01-09 12:00", "CANCELADO");
+
+        venta(lote1, agente1, apartado1, null, "V-1", "2025-01-20 13:00", "450000", "PAGADO");
+        venta(lote4, agente2, null, cotizacion4, "V-2", "2025-01-15 17:00", "300000", "CANCELADA");
+
+        // Movimiento pendiente de otra empresa en el mismo periodo: nunca entra en los conteos
+        jdbc.update("INSERT INTO embudo_movimientos (tenant_id, fecha, proyecto_id, usuario_id, metrica, cantidad) " +
+                "VALUES (:tenantId, DATE '2025-01-10', :proyectoId, 0, 'COTIZACIONES', 5)",
+                Map.of("tenantId", otroTenantId, "proyectoId", proyecto1));
+    }
+
+    @BeforeEach
+    void reconstruir() {
+        int movimientos = transaccion.execute(status -> repository.reconstruir(tenantId));
+        assertTrue(movimientos > 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void reconstruir_MarcaConversionesYConsultaLosMovimientosPendientes() {
+        Map<String, Object> marcas = jdbc.queryForMap("SELECT " +
+                "(SELECT CAST(apartada_at AS text) FROM cotizaciones WHERE id = :c1) AS apartada1, " +
+                "(SELECT CAST(vendida_at AS text) FROM cotizaciones WHERE id = :c1) AS vendida1, " +
+                "(SELECT CAST(vendida_at AS text) FROM cotizaciones WHERE id = :c4) AS vendida4, " +
+                "(SELECT COUNT(*) FROM cotizaciones WHERE id = :c3 AND apartada_at IS NULL AND vendida_at IS NULL) AS sin3",
+                Map.of("c1", cotizacion1, "c3", cotizacion3, "c4", cotizacion4));
+        assertEquals("2025-01-08 11:00:00", marcas.get("apartada1"));
+        assertEquals("2025-01-20 13:00:00", marcas.get("vendida1"), "Venta por el apartado de la cotización");
+        assertEquals("2025-01-15 17:00:00", marcas.get("vendida4"), "Venta con referencia directa");
+        assertEquals(1L, marcas.get("sin3"));
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM embudo_ventas_diario WHERE tenant_id = :tenantId",
+                Map.of("tenantId", tenantId), Integer.class));
+
+        List<EmbudoVentasRepository.FilaEmbudo> filas =
+                repository.consultar(tenantId, DESDE, HASTA, null, null, AgrupacionEmbudo.TOTAL);
+
+        assertEquals(1, filas.size());
+        assertEquals(conteos(4, 2, 2, 3, 1, 1, 1, 2, 1), filas.get(0).conteos());
+        assertEquals(new BigDecimal("450000.00"), filas.get(0).montoVentas(), "Neto de la venta cancelada");
+    }
+
+    @Test
+    void consolidar_PorBloques_ConservaLosConteosPorProyectoYAgente() {
+        int movimientos = 0;
+        for (int bloques = 0; bloques < 100; bloques++) {
+            int consolidados = transaccion.execute(status -> repository.consolidar(3)).movimientos();
+            if (consolidados == 0) {
+                break;
+            }
+            movimientos += consolidados;
+        }
+        assertTrue(movimientos > 0);
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM embudo_movimientos", Map.of(), Integer.class));
+
+        Map<Long, EmbudoVentasRepository.FilaEmbudo> porProyecto = repository
+                .consultar(tenantId, DESDE, HASTA, null, null, AgrupacionEmbudo.PROYECTO).stream()
+                .collect(Collectors.toMap(EmbudoVentasRepository.FilaEmbudo::proyectoId, Function.identity()));
+        assertEquals(2, porProyecto.size());
+        assertEquals(conteos(3, 2, 1, 2, 1, 1, 0, 1, 0), porProyecto.get(proyecto1).conteos());
+        assertEquals(new BigDecimal("450000.00"), porProyecto.get(proyecto1).montoVentas());
+        assertEquals(conteos(1, 0, 1, 1, 0, 0, 1, 1, 1), porProyecto.get(proyecto2).conteos());
+        assertEquals(new BigDecimal("0.00"), porProyecto.get(proyecto2).montoVentas());
+
+        List<EmbudoVentasRepository.FilaEmbudo> agente = repository
+                .consultar(tenantId, DESDE, HASTA, null, agente1, AgrupacionEmbudo.USUARIO);
+        assertEquals(1, agente.size());
+        assertEquals(agente1, agente.get(0).usuarioId());
+        assertEquals(conteos(2, 2, 1, 2, 1, 1, 0, 1, 0), agente.get(0).conteos());
+
+        // Los acumulados y un movimiento aún pendiente se suman en la misma consulta
+        jdbc.update("INSERT INTO embudo_movimientos (tenant_id, fecha, proyecto_id, usuario_id, metrica, cantidad) " +
+                "VALUES (:tenantId, DATE '2025-01-31', :proyectoId, :usuarioId, 'COTIZACIONES', 1)",
+                Map.of("tenantId", tenantId, "proyectoId", proyecto2, "usuarioId", agente2));
+        List<EmbudoVentasRepository.FilaEmbudo> proyecto = repository
+                .consultar(tenantId, DESDE, HASTA, proyecto2, null, AgrupacionEmbudo.TOTAL);
+        assertEquals(2L, proyecto.get(0).conteos().get(MetricaEmbudo.COTIZACIONES));
+    }
+
+    @Test
+    void consultarTiempos_HistogramaDeDiasEntreEtapas() {
+        List<String> histograma = repository
+                .consultarTiempos(tenantId, DESDE, HASTA, null, null, AgrupacionEmbudo.TOTAL).stream()
+                .map(fila -> fila.transicion() + ":" + fila.dias() + ":" + fila.cantidad())
+                .sorted()
+                .toList();
+
+        assertEquals(List.of(
+                "TIEMPO_APARTADO_VENTA:12:1",
+                "TIEMPO_COTIZACION_APARTADO:3:1",
+                "TIEMPO_COTIZACION_APARTADO:4:1",
+                "TIEMPO_COTIZACION_VENTA:15:1",
+                "TIEMPO_COTIZACION_VENTA:8:1"), histograma);
+    }
+
+    @Test
+    void obtenerEmbudo_TasasDeConversionDelPeriodo() {
+        TenantContext.setTenantId(tenantId);
+        EmbudoVentasService servicio = new EmbudoVentasService(mock(MovimientoEmbudoRepository.class), repository,
+                mock(CotizacionRepository.class), mock(TerrenoRepository.class), mock(ProyectoRepository.class),
+                mock(UsuarioRepository.class));
+
+        EmbudoVentasResponse.Etapas totales =
+                servicio.obtenerEmbudo(DESDE, HASTA, null, null, AgrupacionEmbudo.TOTAL).getTotales();
+
+        assertEquals(4L, totales.getCotizaciones());
+        assertEquals(3L, totales.getApartados());
+        assertEquals(2L, totales.getVentas());
+        assertEquals(new BigDecimal("50.00"), totales.getTasaCotizacionApartado());
+        assertEquals(new BigDecimal("33.33"), totales.getTasaApartadoVenta());
+        assertEquals(new BigDecimal("50.00"), totales.getTasaCotizacionVenta());
+        assertEquals(new BigDecimal("50.00"), totales.getTasaCancelacionVentas());
+
+        EmbudoVentasResponse.TiempoEtapa cotizacionApartado = totales.getTiempos().stream()
+                .filter(t -> t.getTransicion() == MetricaEmbudo.TIEMPO_COTIZACION_APARTADO)
+                .findFirst().orElseThrow();
+        assertEquals(2L, cotizacionApartado.getConversiones());
+        assertEquals(3, cotizacionApartado.getMedianaDias());
+        assertEquals(4, cotizacionApartado.getP90Dias());
+        assertEquals(new BigDecimal("3.5"), cotizacionApartado.getPromedioDias());
+    }
+
+    /**
+     * Conteos esperados en el orden de EmbudoVentasRepository.CONTEOS
+     */
+    private static Map<MetricaEmbudo, Long> conteos(long... valores) {
+        Map<MetricaEmbudo, Long> conteos = new EnumMap<>(MetricaEmbudo.class);
+        for (int i = 0; i < valores.length; i++) {
+            conteos.put(EmbudoVentasRepository.CONTEOS.get(i), valores[i]);
+        }
+        return conteos;
+    }
+
+    private static Long terreno(Long proyectoId, String numero) {
+        return insertar("INSERT INTO terrenos (tenant_id, proyecto_id, numero_lote, area, precio_base, precio_final) " +
+                "VALUES (:tenantId, :proyectoId, :numero, 200, 450000, 450000) RETURNING id",
+                Map.of("tenantId", tenantId, "proyectoId", proyectoId, "numero", numero));
+    }
+
+    private static Long cotizacion(Long terrenoId, Long usuarioId, String creada) {
+        return insertar("INSERT INTO cotizaciones (tenant_id, terreno_id, usuario_id, cliente_nombre, precio_base, " +
+                "precio_final, created_at) VALUES (:tenantId, :terrenoId, :usuarioId, 'Cliente', 450000, 450000, " +
+                "CAST(:creada AS timestamp)) RETURNING id",
+                Map.of("tenantId", tenantId, "terrenoId", terrenoId, "usuarioId", usuarioId, "creada", creada));
+    }
+
+    private static Long apartado(Long terrenoId, Long usuarioId, Long cotizacionId, String fecha, String estado) {
+        return jdbc.queryForObject("INSERT INTO apartados (tenant_id, terreno_id, usuario_id, cotizacion_id, " +
+                        "cliente_nombre, cliente_telefono, monto_apartado, precio_total, fecha_apartado, " +
+                        "fecha_vencimiento, estado, created_at) " +
+                        "VALUES (:tenantId, :terrenoId, :usuarioId, :cotizacionId, 'Cliente', '5550000000', 5000, " +
+                        "450000, CAST(:fecha AS timestamp), CAST(:fecha AS timestamp) + INTERVAL '30 days', " +
+                        "CAST(:estado AS estado_apartado), CAST(:fecha AS timestamp)) RETURNING id",
+                new MapSqlParameterSource()
+                        .addValue("tenantId", tenantId)
+                        .addValue("terrenoId", terrenoId)
+                        .addValue("usuarioId", usuarioId)
+                        .addValue("cotizacionId", cotizacionId, Types.BIGINT)
+                        .addValue("fecha", fecha)
+                        .addValue("estado", estado),
+                Long.class);
+    }
+
+    private static void venta(Long terrenoId, Long usuarioId, Long apartadoId, Long cotizacionId, String folio,
+                              String fecha, String monto, String estado) {
+        jdbc.update("INSERT INTO ventas (tenant_id, terreno_id, usuario_id, apartado_id, cotizacion_id, folio, " +
+                        "comprador_nombre, comprador_telefono, precio_total, monto_final, fecha_venta, estado, created_at) " +
+                        "VALUES (:tenantId, :terrenoId, :usuarioId, :apartadoId, :cotizacionId, :folio, 'Cliente', " +
+                        "'5550000000', :monto, :monto, CAST(:fecha AS timestamp), CAST(:estado AS estado_venta), " +
+                        "CAST(:fecha AS timestamp))",
+                new MapSqlParameterSource()
+                        .addValue("tenantId", tenantId)
+                        .addValue("terrenoId", terrenoId)
+                        .addValue("usuarioId", usuarioId)
+                        .addValue("apartadoId", apartadoId, Types.BIGINT)
+                        .addValue("cotizacionId", cotizacionId, Types.BIGINT)
+                        .addValue("folio", folio)
+                        .addValue("fecha", fecha)
+                        .addValue("monto", new BigDecimal(monto))
+                        .addValue("estado", estado));
+    }
+
+    private static Long insertar(String sql, Map<String, ?> parametros) {
+        return jdbc.queryForObject(sql, parametros, Long.class);
+    }
+}
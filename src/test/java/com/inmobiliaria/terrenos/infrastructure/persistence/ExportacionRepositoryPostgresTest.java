@@ -0,0 +1,238 @@
+package com.inmobiliaria.terrenos.infrastructure.persistence;
+
+import com.inmobiliaria.terrenos.domain.enums.TipoExportacion;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exportaciones contra PostgreSQL con las migraciones reales.
+ *
+ * Carga dos empresas con ventas (una eliminada), planes de pago, amortizaciones, pagos,
+ * clientes y bitácoras: la principal con 5,000 ventas, más que FETCH_SIZE, y la otra con 3.
+ * Recorre cada tipo de exportación y verifica que solo salgan filas de la empresa, en orden de
+ * id y con tantas columnas como encabezados; que dentro de una transacción las filas lleguen
+ * por cursor; y los filtros de periodo y proyecto. Se omite si no hay Docker.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ExportacionRepositoryPostgresTest {
+
+    private static final int VENTAS = 5_000;
+
+    @Container
+    static final PostgreSQLContainer POSTGRES = new PostgreSQLContainer("postgres:17-alpine");
+
+    private static JdbcTemplate jdbc;
+    private static TransactionTemplate lectura;
+    private static ExportacionRepository repository;
+    private static Long tenantId;
+    private static Long otroTenantId;
+
+    @BeforeAll
+    static void cargarDatos() {
+        Flyway.configure().dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .load().migrate();
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword(), true);
+        jdbc = new JdbcTemplate(dataSource);
+        // Como ExportacionService: transacción de solo lectura
+        lectura = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        lectura.setReadOnly(true);
+        repository = new ExportacionRepository(jdbc);
+
+        tenantId = cargarEmpresa("Exporta", VENTAS);
+        otroTenantId = cargarEmpresa("Otra", 3);
+        jdbc.execute("ANALYZE");
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "VENTAS, ventas, 5000, 3",
+            "PAGOS, pagos, 10, 3",
+            "PLANES_PAGO, planes_pago, 10, 3",
+            "AMORTIZACIONES, amortizaciones, 30, 9",
+            "CLIENTES, clientes, 2, 2",
+            "AUDITORIA_CRITICA, audit_log_critica, 2, 2",
+            "AUDITORIA_SIMPLE, audit_log_simple, 2, 2"
+    })
+    void recorrer_CadaTipo_SoloFilasDeLaEmpresaEnOrden(TipoExportacion tipo, String tabla, long filas, long otras) {
+        List<Long> ids = new ArrayList<>();
+        long entregadas = lectura.execute(status -> recorrer(tipo, tenantId, null, null, null, fila -> {
+            assertEquals(ExportacionRepository.encabezados(tipo).size(), fila.size(), tipo.name());
+            ids.add(((Number) fila.get(0)).longValue());
+        }));
+
+        assertEquals(filas, entregadas);
+        assertEquals(filas, ids.size());
+        assertEquals(ids.stream().sorted().distinct().toList(), ids, "Ordenadas por id, sin repetidas");
+        assertEquals(filas, jdbc.queryForObject("SELECT COUNT(*) FROM " + tabla + " WHERE tenant_id = ? AND id IN (" +
+                ids.stream().map(String::valueOf).collect(Collectors.joining(", ")) + ")", Long.class, tenantId));
+        assertEquals(otras, (long) lectura.execute(status -> recorrer(tipo, otroTenantId, null, null, null, fila -> {
+        })));
+    }
+
+    @Test
+    void recorrer_EnTransaccion_EntregaLasFilasPorCursor() {
+        List<Integer> cursoresAbiertos = new ArrayList<>();
+        List<Object> primera = new ArrayList<>();
+
+        long filas = lectura.execute(status -> recorrer(TipoExportacion.VENTAS, tenantId, null, null, null, fila -> {
+            if (primera.isEmpty()) {
+                primera.addAll(fila);
+                // La consulta sigue abierta en el servidor: el resto de las filas aún no se ha leído
+                // (el patrón partido para no coincidir con esta misma consulta)
+                cursoresAbiertos.add(jdbc.queryForObject("SELECT COUNT(*) FROM pg_cursors " +
+                        "WHERE statement LIKE ('%FROM ventas v ' || 'JOIN terrenos%')", Integer.class));
+            }
+        }));
+
+        assertEquals(VENTAS, filas);
+        assertEquals(List.of(1), cursoresAbiertos);
+        assertEquals("F-1", primera.get(1));
+        assertEquals(LocalDateTime.of(2025, 1, 1, 23, 30), primera.get(2), "TIMESTAMP como LocalDateTime");
+        assertEquals("Poniente", primera.get(3));
+        assertEquals(new BigDecimal("250000.00"), primera.get(11));
+        assertEquals("PENDIENTE", primera.get(14));
+    }
+
+    @Test
+    void recorrer_PeriodoYProyecto_IncluyeElUltimoDiaCompleto() {
+        // Las ventas del 1 de enero son las g = 1 + 90k, todas impares: proyecto Poniente
+        LocalDate dia = LocalDate.of(2025, 1, 1);
+        long esperadas = jdbc.queryForObject("SELECT COUNT(*) FROM ventas v JOIN terrenos t ON t.id = v.terreno_id " +
+                "JOIN proyectos pr ON pr.id = t.proyecto_id WHERE v.tenant_id = ? AND v.deleted = false " +
+                "AND CAST(v.fecha_venta AS DATE) = DATE '2025-01-01' AND pr.nombre = 'Poniente'", Long.class, tenantId);
+        Long poniente = jdbc.queryForObject("SELECT id FROM proyectos WHERE tenant_id = ? AND nombre = 'Poniente'",
+                Long.class, tenantId);
+
+        // Las ventas son a las 23:30: hasta = desde debe incluirlas
+        long filas = lectura.execute(status -> recorrer(TipoExportacion.VENTAS, tenantId, dia, dia, poniente, fila -> {
+            assertEquals(LocalDate.of(2025, 1, 1), ((LocalDateTime) fila.get(2)).toLocalDate());
+            assertEquals("Poniente", fila.get(3));
+        }));
+        assertTrue(esperadas > 0);
+        assertEquals(esperadas, filas);
+
+        // Las del 2 de enero son pares: todas de Oriente
+        LocalDate siguiente = dia.plusDays(1);
+        assertEquals(0L, lectura.execute(status -> recorrer(TipoExportacion.VENTAS, tenantId, siguiente, siguiente,
+                poniente, fila -> {
+                })));
+        assertTrue(lectura.execute(status -> recorrer(TipoExportacion.VENTAS, tenantId, siguiente, siguiente, null,
+                fila -> {
+                })) > 0);
+
+        // Columna DATE: pagos del 31 de enero al 2 de febrero (ventas del 1 al 3 de enero + 30 días)
+        long pagos = lectura.execute(status -> recorrer(TipoExportacion.PAGOS, tenantId,
+                LocalDate.of(2025, 1, 31), LocalDate.of(2025, 2, 2), null, fila ->
+                        assertInstanceOf(LocalDate.class, fila.get(6))));
+        assertEquals(3, pagos);
+    }
+
+    @Test
+    void recorrer_ConsumidorFalla_DetieneLaLecturaYPropagaElError() {
+        IOException error = new IOException("disco lleno");
+        List<Object> leidas = new ArrayList<>();
+
+        IllegalStateException fallo = assertThrows(IllegalStateException.class, () -> lectura.execute(status ->
+                recorrer(TipoExportacion.VENTAS, tenantId, null, null, null, fila -> {
+                    leidas.add(fila.get(0));
+                    if (leidas.size() == 3) {
+                        throw error;
+                    }
+                })));
+
+        assertSame(error, fallo.getCause(), "La misma IOException del consumidor");
+        assertEquals(3, leidas.size());
+    }
+
+    /**
+     * recorrer para usarse dentro de TransactionTemplate, que no admite excepciones verificadas
+     */
+    private static long recorrer(TipoExportacion tipo, Long tenant, LocalDate desde, LocalDate hasta, Long proyectoId,
+                                 ExportacionRepository.ConsumidorFila consumidor) {
+        try {
+            return repository.recorrer(tipo, tenant, desde, hasta, proyectoId, consumidor);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Empresa con ventas en dos proyectos (más una eliminada), un plan con tres cuotas y un pago
+     * en cada una de las 10 primeras ventas, dos clientes (y uno eliminado) y dos registros en
+     * cada bitácora. La venta g es del día (g - 1) % 90 de 2025, a las 23:30.
+     */
+    private static Long cargarEmpresa(String nombre, int ventas) {
+        Long tenant = jdbc.queryForObject("INSERT INTO tenants (nombre, email) VALUES (?, ?) RETURNING id",
+                Long.class, nombre, nombre.toLowerCase() + "@exporta.mx");
+        Long usuario = jdbc.queryForObject("INSERT INTO usuarios (tenant_id, nombre, apellido, email, password) " +
+                "VALUES (?, 'Ana', 'Agente', ?, 'x') RETURNING id", Long.class, tenant,
+                "ana@" + nombre.toLowerCase() + ".mx");
+        jdbc.update("INSERT INTO proyectos (tenant_id, nombre, direccion) " +
+                "VALUES (?, 'Poniente', 'Calle 1'), (?, 'Oriente', 'Calle 2')", tenant, tenant);
+        jdbc.update("INSERT INTO clientes (tenant_id, nombre, apellido, email, telefono, deleted) " +
+                "VALUES (?, 'Carla', 'Cliente', 'carla@cliente.mx', '5550000001', false), " +
+                "(?, 'Beto', 'Cliente', 'beto@cliente.mx', '5550000002', false), " +
+                "(?, 'Dora', 'Eliminada', 'dora@cliente.mx', '5550000003', true)", tenant, tenant, tenant);
+
+        jdbc.update("INSERT INTO terrenos (tenant_id, proyecto_id, numero_lote, area, precio_base, precio_final) " +
+                "SELECT p.tenant_id, p.id, 'L-' || g, 200, 250000, 250000 FROM generate_series(1, ?) g " +
+                "JOIN proyectos p ON p.tenant_id = ? AND p.nombre = CASE WHEN g % 2 = 1 THEN 'Poniente' ELSE 'Oriente' END " +
+                "ORDER BY g",
+                ventas + 1, tenant);
+        jdbc.update("INSERT INTO ventas (tenant_id, terreno_id, usuario_id, folio, comprador_nombre, comprador_telefono, " +
+                "precio_total, monto_final, fecha_venta, deleted) " +
+                "SELECT t.tenant_id, t.id, ?, 'F-' || g, 'Comprador ' || g, '5551234567', 250000, 250000, " +
+                "TIMESTAMP '2025-01-01 23:30' + ((g - 1) % 90) * INTERVAL '1 day', g > ? " +
+                "FROM (SELECT id, tenant_id, CAST(substring(numero_lote FROM 3) AS INTEGER) AS g FROM terrenos " +
+                "WHERE tenant_id = ?) t ORDER BY g", usuario, ventas, tenant);
+
+        jdbc.update("INSERT INTO planes_pago (tenant_id, venta_id, cliente_id, tipo_plan, monto_total, monto_financiado, " +
+                "numero_pagos, fecha_inicio, fecha_primer_pago) " +
+                "SELECT v.tenant_id, v.id, c.id, 'FINANCIAMIENTO_PROPIO', 250000, 250000, 3, " +
+                "CAST(v.fecha_venta AS DATE), CAST(v.fecha_venta AS DATE) + 30 " +
+                "FROM ventas v JOIN clientes c ON c.tenant_id = v.tenant_id AND c.nombre = 'Carla' " +
+                "WHERE v.tenant_id = ? AND v.deleted = false AND CAST(substring(v.folio FROM 3) AS INTEGER) <= 10",
+                tenant);
+        jdbc.update("INSERT INTO amortizaciones (tenant_id, plan_pago_id, numero_cuota, capital, monto_cuota, " +
+                "monto_pendiente, fecha_vencimiento) " +
+                "SELECT pp.tenant_id, pp.id, k, 83333.33, 83333.33, 83333.33, " +
+                "CAST(pp.fecha_primer_pago + (k - 1) * INTERVAL '1 month' AS DATE) " +
+                "FROM planes_pago pp CROSS JOIN generate_series(1, 3) k WHERE pp.tenant_id = ?", tenant);
+        jdbc.update("INSERT INTO pagos (tenant_id, plan_pago_id, amortizacion_id, cliente_id, fecha_pago, monto_pagado, " +
+                "metodo_pago) " +
+                "SELECT pp.tenant_id, pp.id, a.id, pp.cliente_id, pp.fecha_primer_pago, 83333.33, 'TRANSFERENCIA' " +
+                "FROM planes_pago pp JOIN amortizaciones a ON a.plan_pago_id = pp.id AND a.numero_cuota = 1 " +
+                "WHERE pp.tenant_id = ?", tenant);
+
+        jdbc.update("INSERT INTO audit_log_critica (tenant_id, usuario_id, usuario_email, tabla, registro_id, campo, " +
+                "valor_anterior, valor_nuevo, operacion) " +
+                "VALUES (?, ?, 'ana@exporta.mx', 'ventas', 1, 'monto_final', '250000', '240000', 'UPDATE'), " +
+                "(?, ?, 'ana@exporta.mx', 'ventas', 2, 'estado', 'PENDIENTE', 'CANCELADA', 'UPDATE')",
+                tenant, usuario, tenant, usuario);
+        jdbc.update("INSERT INTO audit_log_simple (tenant_id, usuario_id, accion, descripcion) " +
+                "VALUES (?, ?, 'LOGIN', 'Inicio de sesión'), (?, ?, 'EXPORTAR', 'Exportación de ventas')",
+                tenant, usuario, tenant, usuario);
+        return tenant;
+    }
+}
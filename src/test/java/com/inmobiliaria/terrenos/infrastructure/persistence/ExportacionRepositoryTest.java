@@ -0,0 +1,26 @@
+package com.inmobiliaria.terrenos.infrastructure.persistence;
+
+import com.inmobiliaria.terrenos.domain.enums.TipoExportacion;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExportacionRepositoryTest {
+
+    @Test
+    void definicion_EncabezadosCoincidenConColumnas() {
+        for (TipoExportacion tipo : TipoExportacion.values()) {
+            ExportacionRepository.Definicion definicion = ExportacionRepository.definicion(tipo);
+            String columnas = definicion.select().substring("SELECT ".length(), definicion.select().indexOf(" FROM "));
+            // Ninguna columna de la lista usa comas internas (CAST y || no las llevan)
+            assertEquals(definicion.encabezados().size(), columnas.split(", ").length, tipo.name());
+        }
+    }
+
+    @Test
+    void admiteProyecto_SoloTiposLigadosAUnaVenta() {
+        assertTrue(ExportacionRepository.admiteProyecto(TipoExportacion.AMORTIZACIONES));
+        assertFalse(ExportacionRepository.admiteProyecto(TipoExportacion.CLIENTES));
+        assertFalse(ExportacionRepository.admiteProyecto(TipoExportacion.AUDITORIA_CRITICA));
+    }
+}
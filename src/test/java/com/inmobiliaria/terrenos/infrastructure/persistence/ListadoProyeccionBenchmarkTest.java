@@ -0,0 +1,174 @@
+package com.inmobiliaria.terrenos.infrastructure.persistence;
+
+import com.inmobiliaria.terrenos.application.dto.terreno.TerrenoResponse;
+import com.inmobiliaria.terrenos.domain.entity.Proyecto;
+import com.inmobiliaria.terrenos.domain.entity.Tenant;
+import com.inmobiliaria.terrenos.domain.entity.Terreno;
+import com.inmobiliaria.terrenos.domain.enums.EstadoTerreno;
+import com.inmobiliaria.terrenos.domain.repository.ProyectoRepository;
+import com.inmobiliaria.terrenos.domain.repository.TenantRepository;
+import com.inmobiliaria.terrenos.domain.repository.TerrenoRepository;
+import com.inmobiliaria.terrenos.infrastructure.BaseIntegrationTest;
+import com.inmobiliaria.terrenos.interfaces.mapper.TerrenoMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark de memoria del listado de terrenos: entidades administradas mapeadas con MapStruct
+ * contra la proyección TerrenoListado.
+ *
+ * Carga 10,000 terrenos con coordenadas, características y observaciones (las columnas anchas
+ * que el listado no muestra) y mide los bytes asignados por el hilo y el tiempo de cada forma
+ * de listar. Registra una tabla en el log; solo verifica que la proyección asigne menos (los
+ * valores absolutos dependen de la base y la JVM). Los datos se borran al terminar para no
+ * dejarlos en el contexto H2 compartido.
+ *
+ * Fuera de la corrida normal (etiqueta benchmark): mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@Slf4j
+class ListadoProyeccionBenchmarkTest extends BaseIntegrationTest {
+
+    private static final int TERRENOS = 10_000;
+    private static final int CALENTAMIENTO = 2;
+    private static final int ITERACIONES = 5;
+
+    @Autowired
+    private TenantRepository tenantRepository;
+
+    @Autowired
+    private ProyectoRepository proyectoRepository;
+
+    @Autowired
+    private TerrenoRepository terrenoRepository;
+
+    @Autowired
+    private TerrenoMapper terrenoMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long tenantId;
+
+    private record Medicion(long bytesPorListado, double ms, int filas) {
+    }
+
+    @AfterEach
+    void borrarTerrenos() {
+        if (tenantId == null) {
+            return;
+        }
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM terrenos WHERE tenant_id = ?", tenantId);
+            jdbcTemplate.update("DELETE FROM proyectos WHERE tenant_id = ?", tenantId);
+            jdbcTemplate.update("DELETE FROM tenants WHERE id = ?", tenantId);
+        });
+        tenantId = null;
+    }
+
+    @Test
+    void memoriaDelListado_EntidadesContraProyeccion() {
+        tenantId = cargarTerrenos();
+
+        TransactionTemplate lecturaEscritura = new TransactionTemplate(transactionManager);
+        TransactionTemplate soloLectura = new TransactionTemplate(transactionManager);
+        soloLectura.setReadOnly(true);
+
+        Medicion entidades = medir(lecturaEscritura,
+                () -> terrenoMapper.toResponseList(terrenoRepository.findByTenantIdAndDeletedFalse(tenantId)));
+        Medicion entidadesSoloLectura = medir(soloLectura,
+                () -> terrenoMapper.toResponseList(terrenoRepository.findByTenantIdAndDeletedFalse(tenantId)));
+        Medicion proyeccion = medir(soloLectura,
+                () -> terrenoMapper.listadoToResponseList(terrenoRepository.findListado(tenantId)));
+
+        StringBuilder tabla = new StringBuilder(String.format("%n%-32s %14s %10s %8s%n", "listado (10k)", "bytes", "ms", "ratio"));
+        for (var fila : List.of(
+                Map.entry("entidades (lectura-escritura)", entidades),
+                Map.entry("entidades (solo lectura)", entidadesSoloLectura),
+                Map.entry("proyeccion TerrenoListado", proyeccion))) {
+            tabla.append(String.format("%-32s %14d %10.2f %8.2f%n", fila.getKey(), fila.getValue().bytesPorListado(),
+                    fila.getValue().ms(), (double) fila.getValue().bytesPorListado() / entidades.bytesPorListado()));
+        }
+        log.info("{}", tabla);
+
+        assertEquals(TERRENOS, proyeccion.filas());
+        assertEquals(TERRENOS, entidades.filas());
+        assertTrue(proyeccion.bytesPorListado() < entidadesSoloLectura.bytesPorListado());
+    }
+
+    private Long cargarTerrenos() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        return tx.execute(status -> {
+            Tenant tenant = tenantRepository.save(Tenant.builder()
+                    .nombre("Benchmark Listados")
+                    .email("benchmark" + System.nanoTime() + "@test.com")
+                    .build());
+            Proyecto proyecto = proyectoRepository.save(Proyecto.builder()
+                    .tenantId(tenant.getId())
+                    .nombre("Proyecto Benchmark")
+                    .build());
+
+            String coordenadas = coordenadasDePrueba();
+            List<Terreno> terrenos = new ArrayList<>(TERRENOS);
+            for (int i = 0; i < TERRENOS; i++) {
+                terrenos.add(Terreno.builder()
+                        .tenantId(tenant.getId())
+                        .proyectoId(proyecto.getId())
+                        .numeroLote("L-" + i)
+                        .manzana("M" + (i / 100))
+                        .area(new BigDecimal("200.00"))
+                        .precioBase(new BigDecimal("450000.00"))
+                        .estado(EstadoTerreno.DISPONIBLE)
+                        .coordenadasPlano(coordenadas)
+                        .caracteristicas("{\"esquina\": " + (i % 10 == 0) + ", \"orientacion\": \"norte\", " +
+                                "\"servicios\": [\"agua\", \"luz\", \"drenaje\", \"gas\"]}")
+                        .observaciones("Lote con vista al área verde, acceso por calle principal. ".repeat(4))
+                        .build());
+            }
+            terrenoRepository.saveAll(terrenos);
+            return tenant.getId();
+        });
+    }
+
+    private static String coordenadasDePrueba() {
+        StringBuilder puntos = new StringBuilder("{\"tipo\":\"polygon\",\"puntos\":[");
+        for (int i = 0; i < 40; i++) {
+            puntos.append(i == 0 ? "" : ",").append("{\"x\":").append(1000.25 + i).append(",\"y\":").append(2000.75 + i).append('}');
+        }
+        return puntos.append("]}").toString();
+    }
+
+    private static Medicion medir(TransactionTemplate tx, Supplier<List<TerrenoResponse>> listado) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        int filas = 0;
+        for (int i = 0; i < CALENTAMIENTO; i++) {
+            filas = tx.execute(status -> listado.get()).size();
+        }
+        long bytesInicio = threads.getCurrentThreadAllocatedBytes();
+        long inicio = System.nanoTime();
+        for (int i = 0; i < ITERACIONES; i++) {
+            filas = tx.execute(status -> listado.get()).size();
+        }
+        long ns = System.nanoTime() - inicio;
+        long bytes = threads.getCurrentThreadAllocatedBytes() - bytesInicio;
+        return new Medicion(bytes / ITERACIONES, ns / 1e6 / ITERACIONES, filas);
+    }
+}
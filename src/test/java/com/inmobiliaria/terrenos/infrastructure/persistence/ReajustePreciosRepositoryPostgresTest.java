@@ -0,0 +1,221 @@
+package com.inmobiliaria.terrenos.infrastructure.persistence;
+
+import com.inmobiliaria.terrenos.application.dto.precio.SimulacionReajusteResponse;
+import com.inmobiliaria.terrenos.domain.entity.ReglaPrecio;
+import com.inmobiliaria.terrenos.domain.enums.TipoReglaPrecio;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.math.BigDecimal;
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Simulación, muestra y aplicación de reglas de precio contra PostgreSQL con las migraciones
+ * reales. Cada prueba usa un proyecto nuevo con seis lotes: dos DISPONIBLE en la manzana A,
+ * uno DISPONIBLE de esquina en la B y, fuera del alcance, uno APARTADO, uno NO_DISPONIBLE y uno
+ * eliminado. Se omite si no hay Docker.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ReajustePreciosRepositoryPostgresTest {
+
+    @Container
+    static final PostgreSQLContainer POSTGRES = new PostgreSQLContainer("postgres:17-alpine");
+
+    private static NamedParameterJdbcTemplate jdbc;
+    private static ReajustePreciosRepository repository;
+    private static Long tenantId;
+    private static Long otroTenantId;
+    private static int proyectos;
+
+    private Long proyectoId;
+    private Long lote1;
+    private Long lote2;
+    private Long esquina;
+    private Long apartado;
+
+    @BeforeAll
+    static void migrar() {
+        Flyway.configure().dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .load().migrate();
+        jdbc = new NamedParameterJdbcTemplate(new SingleConnectionDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword(), true));
+        repository = new ReajustePreciosRepository(jdbc);
+
+        tenantId = insertar("INSERT INTO tenants (nombre, email) VALUES ('Reajuste', 'reajuste@test.mx') RETURNING id",
+                Map.of());
+        otroTenantId = insertar("INSERT INTO tenants (nombre, email) VALUES ('Otra', 'otra@test.mx') RETURNING id",
+                Map.of());
+    }
+
+    @BeforeEach
+    void crearProyecto() {
+        proyectos++;
+        proyectoId = insertar("INSERT INTO proyectos (tenant_id, nombre, direccion) " +
+                "VALUES (:tenantId, :nombre, 'Calle 1') RETURNING id",
+                Map.of("tenantId", tenantId, "nombre", "Las Lomas " + proyectos));
+        lote1 = terreno(proyectoId, "L-1", "A", "100000", "0", "1.00", "100000", "DISPONIBLE", false, null);
+        lote2 = terreno(proyectoId, "L-2", "A", "200000", "10000", "1.10", "231000", "DISPONIBLE", false, null);
+        esquina = terreno(proyectoId, "L-3", "B", "150000", "0", "1.00", "150000", "DISPONIBLE", false,
+                "{\"esquina\": true, \"frente\": 12}");
+        apartado = terreno(proyectoId, "L-4", "A", "100000", "0", "1.00", "100000", "APARTADO", false, null);
+        terreno(proyectoId, "L-5", "A", "100000", "0", "1.00", "100000", "NO_DISPONIBLE", false, null);
+        terreno(proyectoId, "L-6", "A", "100000", "0", "1.00", "100000", "DISPONIBLE", true, null);
+
+        // Lote DISPONIBLE de otra empresa: nunca entra en el alcance
+        Long otroProyecto = insertar("INSERT INTO proyectos (tenant_id, nombre, direccion) " +
+                "VALUES (:tenantId, :nombre, 'Calle 2') RETURNING id",
+                Map.of("tenantId", otroTenantId, "nombre", "Ajeno " + proyectos));
+        terreno(otroProyecto, "L-1", "A", "100000", "0", "1.00", "100000", "DISPONIBLE", false, null);
+    }
+
+    @Test
+    void simular_Porcentaje_SoloLotesDisponiblesDelProyecto() {
+        ReajustePreciosRepository.Impacto impacto = repository.simular(regla(TipoReglaPrecio.PORCENTAJE, "10"));
+
+        assertEquals(3, impacto.lotes());
+        assertEquals(new BigDecimal("481000.00"), impacto.totalAnterior());
+        // L-2: (220000.00 + 11000.00) × 1.10
+        assertEquals(new BigDecimal("529100.00"), impacto.totalNuevo());
+        assertEquals(new BigDecimal("110000.00"), impacto.precioMinimo());
+        assertEquals(new BigDecimal("254100.00"), impacto.precioMaximo());
+        assertEquals(0, impacto.lotesPrecioInvalido());
+        assertEquals(new BigDecimal("100000.00"), precioFinal(lote1), "La simulación no modifica precios");
+    }
+
+    @Test
+    void simular_AjusteFijoNegativo_CuentaLotesConPrecioBaseNoPositivo() {
+        ReajustePreciosRepository.Impacto impacto = repository.simular(regla(TipoReglaPrecio.AJUSTE_FIJO, "-120000"));
+
+        assertEquals(3, impacto.lotes());
+        assertEquals(1, impacto.lotesPrecioInvalido());
+    }
+
+    @Test
+    void simular_PorCaracteristicas_FiltraConContencionJsonb() {
+        ReglaPrecio regla = regla(TipoReglaPrecio.PORCENTAJE, "5");
+        regla.setCaracteristicas("{\"esquina\":true}");
+
+        ReajustePreciosRepository.Impacto impacto = repository.simular(regla);
+
+        assertEquals(1, impacto.lotes());
+        assertEquals(new BigDecimal("157500.00"), impacto.totalNuevo());
+    }
+
+    @Test
+    void muestra_ManzanaA_PreciosAnteriorYNuevoPorNumeroDeLote() {
+        ReglaPrecio regla = regla(TipoReglaPrecio.PORCENTAJE, "10");
+        regla.setManzana("A");
+
+        List<SimulacionReajusteResponse.LoteReajustado> muestra = repository.muestra(regla, 10);
+
+        assertEquals(List.of(lote1, lote2), muestra.stream().map(SimulacionReajusteResponse.LoteReajustado::getTerrenoId).toList());
+        assertEquals(new BigDecimal("231000.00"), muestra.get(1).getPrecioAnterior());
+        assertEquals(new BigDecimal("254100.00"), muestra.get(1).getPrecioNuevo());
+        assertEquals(1, repository.muestra(regla, 1).size());
+    }
+
+    @Test
+    void aplicar_Multiplicador_ActualizaPreciosYAuditaCadaCambio() {
+        ReglaPrecio regla = regla(TipoReglaPrecio.MULTIPLICADOR, "1.50");
+        regla.setManzana("A");
+
+        ReajustePreciosRepository.Aplicacion aplicacion = repository.aplicar(regla, 7L, "admin@test.mx");
+
+        assertEquals(2, aplicacion.lotes());
+        assertEquals(2, aplicacion.auditados());
+        assertEquals(new BigDecimal("331000.00"), aplicacion.totalAnterior());
+        assertEquals(new BigDecimal("465000.00"), aplicacion.totalNuevo());
+
+        assertEquals(new BigDecimal("150000.00"), precioFinal(lote1));
+        assertEquals(new BigDecimal("315000.00"), precioFinal(lote2));
+        assertEquals(new BigDecimal("100000.00"), precioFinal(apartado));
+        assertEquals(new BigDecimal("150000.00"), precioFinal(esquina));
+        Map<String, Object> actualizado = jdbc.queryForMap("SELECT precio_multiplicador, plano_version, updated_by " +
+                "FROM terrenos WHERE id = :id", Map.of("id", lote2));
+        assertEquals(new BigDecimal("1.50"), actualizado.get("precio_multiplicador"));
+        assertEquals(7L, actualizado.get("plano_version"));
+        assertEquals("admin@test.mx", actualizado.get("updated_by"));
+
+        List<Map<String, Object>> auditoria = jdbc.queryForList("SELECT registro_id, campo, valor_anterior, valor_nuevo, " +
+                "operacion, motivo, usuario_email, tenant_id FROM audit_log_critica " +
+                "WHERE tabla = 'terrenos' AND registro_id IN (:ids) ORDER BY registro_id",
+                Map.of("ids", List.of(lote1, lote2, esquina, apartado)));
+        assertEquals(2, auditoria.size());
+        assertEquals(lote1, auditoria.get(0).get("registro_id"));
+        assertEquals("precio_final", auditoria.get(0).get("campo"));
+        assertEquals("100000.00", auditoria.get(0).get("valor_anterior"));
+        assertEquals("150000.00", auditoria.get(0).get("valor_nuevo"));
+        assertEquals("PRICE_CHANGE", auditoria.get(0).get("operacion"));
+        assertEquals("Regla de precio #5 (Reajuste)", auditoria.get(0).get("motivo"));
+        assertEquals("admin@test.mx", auditoria.get(0).get("usuario_email"));
+        assertEquals(tenantId, auditoria.get(0).get("tenant_id"));
+        assertEquals("231000.00", auditoria.get(1).get("valor_anterior"));
+        assertEquals("315000.00", auditoria.get(1).get("valor_nuevo"));
+    }
+
+    @Test
+    void aplicar_SinCambioDePrecio_ActualizaSinAuditar() {
+        ReglaPrecio regla = regla(TipoReglaPrecio.MULTIPLICADOR, "1.00");
+        regla.setManzana("B");
+
+        ReajustePreciosRepository.Aplicacion aplicacion = repository.aplicar(regla, 8L, "admin@test.mx");
+
+        assertEquals(1, aplicacion.lotes());
+        assertEquals(0, aplicacion.auditados());
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM audit_log_critica WHERE registro_id = :id",
+                Map.of("id", esquina), Integer.class));
+    }
+
+    private ReglaPrecio regla(TipoReglaPrecio tipo, String valor) {
+        return ReglaPrecio.builder()
+                .id(5L)
+                .tenantId(tenantId)
+                .proyectoId(proyectoId)
+                .nombre("Reajuste")
+                .tipo(tipo)
+                .valor(new BigDecimal(valor))
+                .build();
+    }
+
+    private static BigDecimal precioFinal(Long terrenoId) {
+        return jdbc.queryForObject("SELECT precio_final FROM terrenos WHERE id = :id", Map.of("id", terrenoId),
+                BigDecimal.class);
+    }
+
+    private static Long terreno(Long proyecto, String numero, String manzana, String base, String ajuste, String multiplicador,
+                                String precioFinal, String estado, boolean eliminado, String caracteristicas) {
+        return jdbc.queryForObject("INSERT INTO terrenos (tenant_id, proyecto_id, numero_lote, manzana, area, precio_base, " +
+                        "precio_ajuste, precio_multiplicador, precio_final, estado, deleted, caracteristicas) " +
+                        "SELECT p.tenant_id, p.id, :numero, :manzana, 200, :base, :ajuste, :multiplicador, :precioFinal, " +
+                        "CAST(:estado AS estado_terreno), :eliminado, CAST(:caracteristicas AS jsonb) " +
+                        "FROM proyectos p WHERE p.id = :proyectoId RETURNING id",
+                new MapSqlParameterSource()
+                        .addValue("proyectoId", proyecto)
+                        .addValue("numero", numero)
+                        .addValue("manzana", manzana)
+                        .addValue("base", new BigDecimal(base))
+                        .addValue("ajuste", new BigDecimal(ajuste))
+                        .addValue("multiplicador", new BigDecimal(multiplicador))
+                        .addValue("precioFinal", new BigDecimal(precioFinal))
+                        .addValue("estado", estado)
+                        .addValue("eliminado", eliminado)
+                        .addValue("caracteristicas", caracteristicas, Types.VARCHAR),
+                Long.class);
+    }
+
+    private static Long insertar(String sql, Map<String, ?> parametros) {
+        return jdbc.queryForObject(sql, parametros, Long.class);
+    }
+}
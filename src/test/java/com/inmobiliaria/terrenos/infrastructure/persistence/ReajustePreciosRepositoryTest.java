@@ -0,0 +1,55 @@
+package com.inmobiliaria.terrenos.infrastructure.persistence;
+
+import com.inmobiliaria.terrenos.domain.entity.ReglaPrecio;
+import com.inmobiliaria.terrenos.domain.enums.TipoReglaPrecio;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Expresiones de precio de cada tipo de regla; la ejecución contra PostgreSQL está en
+ * ReajustePreciosRepositoryPostgresTest.
+ */
+class ReajustePreciosRepositoryTest {
+
+    @Test
+    void expresiones_Porcentaje_EscalaBaseYAjuste() {
+        MapSqlParameterSource parametros = new MapSqlParameterSource();
+
+        ReajustePreciosRepository.Expresiones expresiones =
+                ReajustePreciosRepository.expresiones(regla(TipoReglaPrecio.PORCENTAJE, "8"), parametros);
+
+        assertEquals(new BigDecimal("1.080000"), parametros.getValue("factor"));
+        assertEquals("ROUND(t.precio_base * :factor, 2)", expresiones.precioBase());
+        assertEquals("ROUND(COALESCE(t.precio_ajuste, 0) * :factor, 2)", expresiones.precioAjuste());
+        assertEquals("ROUND((ROUND(t.precio_base * :factor, 2) + ROUND(COALESCE(t.precio_ajuste, 0) * :factor, 2)) " +
+                "* COALESCE(t.precio_multiplicador, 1), 2)", expresiones.precioFinal());
+    }
+
+    @Test
+    void expresiones_AjusteFijoYMultiplicador() {
+        ReajustePreciosRepository.Expresiones ajuste = ReajustePreciosRepository.expresiones(
+                regla(TipoReglaPrecio.AJUSTE_FIJO, "-5000"), new MapSqlParameterSource());
+        ReajustePreciosRepository.Expresiones multiplicador = ReajustePreciosRepository.expresiones(
+                regla(TipoReglaPrecio.MULTIPLICADOR, "1.15"), new MapSqlParameterSource());
+
+        assertEquals("(t.precio_base + :valor)", ajuste.precioBase());
+        assertEquals("COALESCE(t.precio_multiplicador, 1)", ajuste.precioMultiplicador());
+        assertEquals("t.precio_base", multiplicador.precioBase());
+        assertEquals("CAST(:valor AS numeric(5, 2))", multiplicador.precioMultiplicador());
+    }
+
+    private static ReglaPrecio regla(TipoReglaPrecio tipo, String valor) {
+        return ReglaPrecio.builder()
+                .id(5L)
+                .tenantId(1L)
+                .proyectoId(200L)
+                .nombre("Reajuste")
+                .tipo(tipo)
+                .valor(new BigDecimal(valor))
+                .build();
+    }
+}
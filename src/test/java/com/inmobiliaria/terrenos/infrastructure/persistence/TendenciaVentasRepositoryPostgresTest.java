@@ -0,0 +1,296 @@
+package com.inmobiliaria.terrenos.infrastructure.persistence;
+
+import com.inmobiliaria.terrenos.application.dto.reporte.TendenciaVentasResponse;
+import com.inmobiliaria.terrenos.application.service.TendenciaVentasService;
+import com.inmobiliaria.terrenos.domain.enums.GranularidadTendencia;
+import com.inmobiliaria.terrenos.domain.enums.MetricaTendencia;
+import com.inmobiliaria.terrenos.domain.repository.MovimientoTendenciaRepository;
+import com.inmobiliaria.terrenos.domain.repository.ProyectoRepository;
+import com.inmobiliaria.terrenos.domain.repository.TerrenoRepository;
+import com.inmobiliaria.terrenos.domain.repository.VentaRepository;
+import com.inmobiliaria.terrenos.infrastructure.tenant.TenantContext;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.math.BigDecimal;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tendencias de ventas contra PostgreSQL con las migraciones reales (V21).
+ *
+ * Datos de diciembre de 2024 a febrero de 2025 en dos proyectos:
+ * - Ventas: V7 el martes 31/12 (semana del lunes 30/12); V1 y V2 el lunes 06/01 a distintas
+ *   horas; V3 el domingo 12/01 en el otro proyecto; V5 el 03/02. V4 (13/01) está cancelada y
+ *   V6 (10/02) eliminada: no cuentan
+ * - Pagos de V1: 20/01 aplicado, 21/01 cancelado (no cuenta) y 05/02 aplicado
+ * - Apartados: 07/01 en el otro proyecto (vencido, cuenta al crearse) y 01/02
+ * - Un movimiento pendiente de otra empresa en enero, que nunca entra en los resultados
+ *
+ * Reconstruye los movimientos desde esas tablas y verifica los acumulados por día, semana y mes,
+ * pendientes y ya consolidados por bloques, por proyecto y con los periodos vacíos del reporte.
+ * Se omite si no hay Docker.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class TendenciaVentasRepositoryPostgresTest {
+
+    private static final LocalDate DESDE = LocalDate.of(2024, 12, 1);
+    private static final LocalDate HASTA = LocalDate.of(2025, 2, 28);
+
+    @Container
+    static final PostgreSQLContainer POSTGRES = new PostgreSQLContainer("postgres:17-alpine");
+
+    private static NamedParameterJdbcTemplate jdbc;
+    private static TransactionTemplate transaccion;
+    private static TendenciaVentasRepository repository;
+    private static Long tenantId;
+    private static Long usuarioId;
+    private static Long proyecto1;
+    private static Long proyecto2;
+
+    @BeforeAll
+    static void cargarDatos() {
+        Flyway.configure().dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .load().migrate();
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword(), true);
+        jdbc = new NamedParameterJdbcTemplate(dataSource);
+        transaccion = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        repository = new TendenciaVentasRepository(jdbc);
+
+        tenantId = insertar("INSERT INTO tenants (nombre, email) VALUES ('Tendencia', 'tendencia@test.mx') " +
+                "RETURNING id", Map.of());
+        Long otroTenantId = insertar("INSERT INTO tenants (nombre, email) VALUES ('Otra', 'otra@tendencia.mx') " +
+                "RETURNING id", Map.of());
+        usuarioId = insertar("INSERT INTO usuarios (tenant_id, nombre, apellido, email, password) " +
+                "VALUES (:tenantId, 'Ana', 'Agente', 'ana@tendencia.mx', 'x') RETURNING id", Map.of("tenantId", tenantId));
+        proyecto1 = insertar("INSERT INTO proyectos (tenant_id, nombre, direccion) " +
+                "VALUES (:tenantId, 'Las Lomas', 'Calle 1') RETURNING id", Map.of("tenantId", tenantId));
+        proyecto2 = insertar("INSERT INTO proyectos (tenant_id, nombre, direccion) " +
+                "VALUES (:tenantId, 'El Mirador', 'Calle 2') RETURNING id", Map.of("tenantId", tenantId));
+
+        Long venta1 = venta(terreno(proyecto1, "L-1"), "V-1", "2025-01-06 10:00", "100000", "3000", "PAGADO", false);
+        venta(terreno(proyecto1, "L-2"), "V-2", "2025-01-06 18:30", "200000", "6000", "PENDIENTE", false);
+        venta(terreno(proyecto2, "L-3"), "V-3", "2025-01-12 12:00", "300000", null, "PAGADO", false);
+        venta(terreno(proyecto1, "L-4"), "V-4", "2025-01-13 09:00", "400000", "12000", "CANCELADA", false);
+        venta(terreno(proyecto2, "L-5"), "V-5", "2025-02-03 11:00", "500000", "10000", "PAGADO", false);
+        venta(terreno(proyecto1, "L-6"), "V-6", "2025-02-10 11:00", "600000", "18000", "PAGADO", true);
+        venta(terreno(proyecto1, "L-7"), "V-7", "2024-12-31 16:00", "50000", null, "PAGADO", false);
+
+        Long planId = insertar("INSERT INTO planes_pago (tenant_id, venta_id, tipo_plan, monto_total, " +
+                "monto_financiado, numero_pagos, fecha_inicio, fecha_primer_pago) " +
+                "VALUES (:tenantId, :ventaId, 'FINANCIAMIENTO_PROPIO', 100000, 100000, 4, DATE '2025-01-06', " +
+                "DATE '2025-01-20') RETURNING id", Map.of("tenantId", tenantId, "ventaId", venta1));
+        pago(planId, "2025-01-20", "25000", "APLICADO");
+        pago(planId, "2025-01-21", "10000", "CANCELADO");
+        pago(planId, "2025-02-05", "30000", "APLICADO");
+
+        apartado(terreno(proyecto2, "L-8"), "2025-01-07 17:00", "5000", "VENCIDO");
+        apartado(terreno(proyecto1, "L-9"), "2025-02-01 10:00", "7000", "ACTIVO");
+
+        jdbc.update("INSERT INTO tendencia_movimientos (tenant_id, fecha, proyecto_id, metrica, cantidad, monto) " +
+                "VALUES (:tenantId, DATE '2025-01-15', :proyectoId, 'VENTAS', 9, 999999)",
+                Map.of("tenantId", otroTenantId, "proyectoId", proyecto1));
+    }
+
+    @BeforeEach
+    void reconstruir() {
+        int movimientos = transaccion.execute(status -> repository.reconstruir(tenantId));
+        // 4 días con ventas, 2 con pagos aplicados y 2 con apartados
+        assertEquals(8, movimientos);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void reconstruir_AgrupaLasVentasDelMismoDiaEnUnMovimiento() {
+        Map<String, Object> movimiento = jdbc.queryForMap("SELECT cantidad, monto, comision FROM tendencia_movimientos " +
+                "WHERE tenant_id = :tenantId AND fecha = DATE '2025-01-06' AND metrica = 'VENTAS'",
+                Map.of("tenantId", tenantId));
+
+        assertEquals(2, ((Number) movimiento.get("cantidad")).intValue());
+        assertEquals(new BigDecimal("300000.00"), movimiento.get("monto"));
+        assertEquals(new BigDecimal("9000.00"), movimiento.get("comision"));
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM tendencia_ventas WHERE tenant_id = :tenantId",
+                Map.of("tenantId", tenantId), Integer.class));
+    }
+
+    @Test
+    void consultar_MovimientosPendientes_PorDiaYSemana() {
+        assertEquals(List.of(
+                "2025-01-06 V2:300000 C9000 P0:0 A0:0",
+                "2025-01-07 V0:0 C0 P0:0 A1:5000",
+                "2025-01-12 V1:300000 C0 P0:0 A0:0"),
+                resumen(repository.consultar(tenantId, GranularidadTendencia.DIA,
+                        LocalDate.of(2025, 1, 6), LocalDate.of(2025, 1, 12), null, false)));
+
+        // Semanas de lunes a domingo: el 31/12 cae en la semana del 30/12 y el 12/01 en la del 06/01
+        assertEquals(List.of(
+                "2024-12-30 V1:50000 C0 P0:0 A0:0",
+                "2025-01-06 V3:600000 C9000 P0:0 A1:5000",
+                "2025-01-20 V0:0 C0 P1:25000 A0:0"),
+                resumen(repository.consultar(tenantId, GranularidadTendencia.SEMANA,
+                        LocalDate.of(2024, 12, 30), LocalDate.of(2025, 1, 20), null, false)));
+    }
+
+    @Test
+    void consolidar_PorBloques_ConservaLosAcumuladosPorMes() {
+        List<String> pendientes = resumen(repository.consultar(tenantId, GranularidadTendencia.MES, DESDE, HASTA,
+                null, false));
+
+        int movimientos = 0;
+        for (int bloques = 0; bloques < 100; bloques++) {
+            int consolidados = transaccion.execute(status -> repository.consolidar(3)).movimientos();
+            if (consolidados == 0) {
+                break;
+            }
+            movimientos += consolidados;
+        }
+        assertEquals(9, movimientos, "Los 8 movimientos de la empresa y el de la otra");
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM tendencia_movimientos", Map.of(), Integer.class));
+
+        List<String> esperados = List.of(
+                "2024-12-01 V1:50000 C0 P0:0 A0:0",
+                "2025-01-01 V3:600000 C9000 P1:25000 A1:5000",
+                "2025-02-01 V1:500000 C10000 P1:30000 A1:7000");
+        assertEquals(esperados, pendientes);
+        assertEquals(esperados, resumen(repository.consultar(tenantId, GranularidadTendencia.MES, DESDE, HASTA,
+                null, false)));
+
+        // Los acumulados y un movimiento aún pendiente se suman en el mismo periodo
+        jdbc.update("INSERT INTO tendencia_movimientos (tenant_id, fecha, proyecto_id, metrica, cantidad, monto, comision) " +
+                "VALUES (:tenantId, DATE '2025-01-31', :proyectoId, 'VENTAS', 1, 1000, 30)",
+                Map.of("tenantId", tenantId, "proyectoId", proyecto1));
+        assertEquals(List.of("2025-01-01 V4:601000 C9030 P1:25000 A1:5000"),
+                resumen(repository.consultar(tenantId, GranularidadTendencia.MES, LocalDate.of(2025, 1, 1),
+                        LocalDate.of(2025, 1, 1), null, false)));
+    }
+
+    @Test
+    void consultar_PorProyecto_SeparaCadaProyectoDelMes() {
+        List<TendenciaVentasRepository.FilaTendencia> filas = repository.consultar(tenantId,
+                GranularidadTendencia.MES, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 1), null, true);
+
+        assertEquals(2, filas.size());
+        Map<Long, String> porProyecto = Map.of(filas.get(0).proyectoId(), resumen(filas.get(0)),
+                filas.get(1).proyectoId(), resumen(filas.get(1)));
+        assertEquals("2025-01-01 V2:300000 C9000 P1:25000 A0:0", porProyecto.get(proyecto1));
+        assertEquals("2025-01-01 V1:300000 C0 P0:0 A1:5000", porProyecto.get(proyecto2));
+
+        assertEquals(List.of("2025-01-01 V1:300000 C0 P0:0 A1:5000"),
+                resumen(repository.consultar(tenantId, GranularidadTendencia.MES, LocalDate.of(2025, 1, 1),
+                        LocalDate.of(2025, 1, 1), proyecto2, false)));
+    }
+
+    @Test
+    void obtenerTendencias_RellenaLasSemanasSinDatos() {
+        TenantContext.setTenantId(tenantId);
+        TendenciaVentasService servicio = new TendenciaVentasService(mock(MovimientoTendenciaRepository.class),
+                repository, mock(VentaRepository.class), mock(TerrenoRepository.class), mock(ProyectoRepository.class));
+
+        TendenciaVentasResponse respuesta = servicio.obtenerTendencias(GranularidadTendencia.SEMANA,
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 22), null, false);
+
+        assertEquals(LocalDate.of(2024, 12, 30), respuesta.getDesde());
+        assertEquals(LocalDate.of(2025, 1, 26), respuesta.getHasta());
+        assertEquals(List.of(LocalDate.of(2024, 12, 30), LocalDate.of(2025, 1, 6), LocalDate.of(2025, 1, 13),
+                        LocalDate.of(2025, 1, 20)),
+                respuesta.getPeriodos().stream().map(TendenciaVentasResponse.Periodo::getPeriodo).toList());
+        assertEquals(List.of(1L, 3L, 0L, 0L),
+                respuesta.getPeriodos().stream().map(TendenciaVentasResponse.Periodo::getVentas).toList());
+        assertEquals(List.of(0L, 0L, 0L, 1L),
+                respuesta.getPeriodos().stream().map(TendenciaVentasResponse.Periodo::getPagos).toList());
+        assertEquals(List.of(0L, 1L, 0L, 0L),
+                respuesta.getPeriodos().stream().map(TendenciaVentasResponse.Periodo::getApartados).toList());
+        assertEquals(4L, respuesta.getTotales().getVentas());
+        assertEquals(0, new BigDecimal("650000").compareTo(respuesta.getTotales().getMontoVentas()));
+        assertEquals(0, new BigDecimal("9000").compareTo(respuesta.getTotales().getComisiones()));
+        assertEquals(0, new BigDecimal("25000").compareTo(respuesta.getTotales().getMontoPagos()));
+    }
+
+    /**
+     * Periodo, ventas:monto, comisiones, pagos:monto y apartados:monto de cada fila, sin ceros decimales
+     */
+    private static List<String> resumen(List<TendenciaVentasRepository.FilaTendencia> filas) {
+        return filas.stream().map(TendenciaVentasRepositoryPostgresTest::resumen).toList();
+    }
+
+    private static String resumen(TendenciaVentasRepository.FilaTendencia fila) {
+        return fila.periodo() +
+                " V" + fila.cantidades().get(MetricaTendencia.VENTAS) + ":" + monto(fila, MetricaTendencia.VENTAS) +
+                " C" + fila.comisiones().stripTrailingZeros().toPlainString() +
+                " P" + fila.cantidades().get(MetricaTendencia.PAGOS) + ":" + monto(fila, MetricaTendencia.PAGOS) +
+                " A" + fila.cantidades().get(MetricaTendencia.APARTADOS) + ":" + monto(fila, MetricaTendencia.APARTADOS);
+    }
+
+    // La escala depende de si la suma vino de los acumulados o de movimientos en cero
+    private static String monto(TendenciaVentasRepository.FilaTendencia fila, MetricaTendencia metrica) {
+        return fila.montos().get(metrica).stripTrailingZeros().toPlainString();
+    }
+
+    private static Long terreno(Long proyectoId, String numero) {
+        return insertar("INSERT INTO terrenos (tenant_id, proyecto_id, numero_lote, area, precio_base, precio_final) " +
+                "VALUES (:tenantId, :proyectoId, :numero, 200, 100000, 100000) RETURNING id",
+                Map.of("tenantId", tenantId, "proyectoId", proyectoId, "numero", numero));
+    }
+
+    private static Long venta(Long terrenoId, String folio, String fecha, String monto, String comision,
+                              String estado, boolean eliminada) {
+        return jdbc.queryForObject("INSERT INTO ventas (tenant_id, terreno_id, usuario_id, folio, comprador_nombre, " +
+                        "comprador_telefono, precio_total, monto_final, monto_comision, fecha_venta, estado, deleted) " +
+                        "VALUES (:tenantId, :terrenoId, :usuarioId, :folio, 'Cliente', '5550000000', :monto, :monto, " +
+                        ":comision, CAST(:fecha AS timestamp), CAST(:estado AS estado_venta), :eliminada) RETURNING id",
+                new MapSqlParameterSource()
+                        .addValue("tenantId", tenantId)
+                        .addValue("terrenoId", terrenoId)
+                        .addValue("usuarioId", usuarioId)
+                        .addValue("folio", folio)
+                        .addValue("monto", new BigDecimal(monto))
+                        .addValue("comision", comision != null ? new BigDecimal(comision) : null, Types.NUMERIC)
+                        .addValue("fecha", fecha)
+                        .addValue("estado", estado)
+                        .addValue("eliminada", eliminada),
+                Long.class);
+    }
+
+    private static void pago(Long planId, String fecha, String monto, String estado) {
+        jdbc.update("INSERT INTO pagos (tenant_id, plan_pago_id, fecha_pago, monto_pagado, metodo_pago, estado) " +
+                "VALUES (:tenantId, :planId, CAST(:fecha AS date), :monto, 'TRANSFERENCIA', " +
+                "CAST(:estado AS estado_pago))",
+                Map.of("tenantId", tenantId, "planId", planId, "fecha", fecha, "monto", new BigDecimal(monto),
+                        "estado", estado));
+    }
+
+    private static void apartado(Long terrenoId, String fecha, String monto, String estado) {
+        jdbc.update("INSERT INTO apartados (tenant_id, terreno_id, usuario_id, cliente_nombre, cliente_telefono, " +
+                "monto_apartado, precio_total, fecha_apartado, fecha_vencimiento, estado) " +
+                "VALUES (:tenantId, :terrenoId, :usuarioId, 'Cliente', '5550000000', :monto, 100000, " +
+                "CAST(:fecha AS timestamp), CAST(:fecha AS timestamp) + INTERVAL '7 days', " +
+                "CAST(:estado AS estado_apartado))",
+                Map.of("tenantId", tenantId, "terrenoId", terrenoId, "usuarioId", usuarioId, "fecha", fecha,
+                        "monto", new BigDecimal(monto), "estado", estado));
+    }
+
+    private static Long insertar(String sql, Map<String, ?> parametros) {
+        return jdbc.queryForObject(sql, parametros, Long.class);
+    }
+}
@@ -0,0 +1,181 @@
+package com.inmobiliaria.terrenos.infrastructure.persistence;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inmobiliaria.terrenos.application.dto.terreno.BusquedaTerrenosRequest;
+import com.inmobiliaria.terrenos.application.dto.terreno.PaginaTerrenosResponse;
+import com.inmobiliaria.terrenos.application.dto.terreno.TerrenoResponse;
+import com.inmobiliaria.terrenos.domain.enums.EstadoTerreno;
+import com.inmobiliaria.terrenos.domain.enums.OrdenTerreno;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Búsqueda de terrenos contra PostgreSQL con las migraciones reales.
+ *
+ * Carga 3,000 lotes en dos proyectos con pocos valores distintos de número de lote, área,
+ * precio y fecha de creación, de modo que cada página corta a la mitad de un grupo de
+ * empatados. Recorre todas las páginas con cada orden y dirección y compara los ids con el
+ * orden completo de la misma consulta sin paginar: ni duplicados ni saltos. Revisa también que
+ * el plan de una página con cursor use el índice de V14 del orden, sin ordenar en memoria.
+ * Se omite si no hay Docker.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class TerrenoBusquedaRepositoryPostgresTest {
+
+    private static final int LOTES = 3_000;
+
+    @Container
+    static final PostgreSQLContainer POSTGRES = new PostgreSQLContainer("postgres:17-alpine");
+
+    private static JdbcTemplate jdbc;
+    private static TerrenoBusquedaRepository repository;
+    private static Long tenantId;
+    private static Long proyectoId;
+
+    @BeforeAll
+    static void cargarDatos() {
+        Flyway.configure().dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .load().migrate();
+        jdbc = new JdbcTemplate(new SingleConnectionDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword(), true));
+        repository = new TerrenoBusquedaRepository(jdbc, new ObjectMapper());
+
+        tenantId = jdbc.queryForObject("INSERT INTO tenants (nombre, email) " +
+                "VALUES ('Búsqueda', 'busqueda@test.mx') RETURNING id", Long.class);
+        Long otroTenantId = jdbc.queryForObject("INSERT INTO tenants (nombre, email) " +
+                "VALUES ('Otra', 'otra@busqueda.mx') RETURNING id", Long.class);
+        jdbc.update("INSERT INTO proyectos (tenant_id, nombre, direccion) " +
+                "VALUES (?, 'Las Lomas', 'Calle 1'), (?, 'El Mirador', 'Calle 2'), (?, 'Ajeno', 'Calle 3')",
+                tenantId, tenantId, otroTenantId);
+        proyectoId = jdbc.queryForObject("SELECT id FROM proyectos WHERE nombre = 'Las Lomas'", Long.class);
+
+        // (g % 500, g % 7) no se repite para g <= 3,000: número de lote y manzana son únicos por
+        // proyecto, pero cada número de lote, área, precio y fecha se repite en muchos lotes.
+        // Uno de cada 50 está eliminado y nunca debe aparecer
+        jdbc.update("INSERT INTO terrenos (tenant_id, proyecto_id, numero_lote, manzana, area, precio_base, " +
+                "precio_final, estado, caracteristicas, deleted, created_at) " +
+                "SELECT p.tenant_id, p.id, 'L-' || (g % 500), 'M' || (g % 7), 150 + (g % 3) * 50, " +
+                "300000 + (g % 5) * 50000, 300000 + (g % 5) * 50000, " +
+                "CAST(CASE WHEN g % 10 = 0 THEN 'APARTADO' ELSE 'DISPONIBLE' END AS estado_terreno), " +
+                "jsonb_build_object('esquina', g % 6 = 0), g % 50 = 0, " +
+                "TIMESTAMP '2025-06-01 12:00:00.123456' + (g % 4) * INTERVAL '1 hour' " +
+                "FROM generate_series(1, ?) g " +
+                "JOIN proyectos p ON p.nombre = CASE WHEN g % 2 = 0 THEN 'Las Lomas' ELSE 'El Mirador' END",
+                LOTES);
+        jdbc.update("INSERT INTO terrenos (tenant_id, proyecto_id, numero_lote, area, precio_base, precio_final, created_at) " +
+                "SELECT p.tenant_id, p.id, 'L-' || g, 200, 400000, 400000, TIMESTAMP '2025-06-01 12:00:00.123456' " +
+                "FROM generate_series(1, 100) g JOIN proyectos p ON p.nombre = 'Ajeno'");
+        jdbc.execute("ANALYZE terrenos");
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "NUMERO_LOTE, ASC", "NUMERO_LOTE, DESC",
+            "AREA, ASC", "AREA, DESC",
+            "PRECIO, ASC", "PRECIO, DESC",
+            "FECHA_CREACION, ASC", "FECHA_CREACION, DESC"
+    })
+    void buscar_RecorreTodasLasPaginasConEmpates_SinDuplicadosNiSaltos(OrdenTerreno orden, Sort.Direction direccion) {
+        BusquedaTerrenosRequest filtros = BusquedaTerrenosRequest.builder()
+                .orden(orden)
+                .direccion(direccion)
+                .limite(50)
+                .build();
+
+        List<Long> recorridos = recorrer(filtros);
+
+        List<Long> esperados = jdbc.queryForList("SELECT id FROM terrenos WHERE tenant_id = ? AND deleted = false " +
+                "ORDER BY " + orden.getColumna() + " " + direccion + ", id " + direccion, Long.class, tenantId);
+        assertEquals(LOTES - LOTES / 50, esperados.size());
+        assertEquals(recorridos.size(), new HashSet<>(recorridos).size(), "Ningún lote se repite entre páginas");
+        assertEquals(esperados, recorridos);
+    }
+
+    @Test
+    void buscar_ConFiltros_PaginaSoloLosLotesQueCumplen() {
+        BusquedaTerrenosRequest filtros = BusquedaTerrenosRequest.builder()
+                .proyectoId(proyectoId)
+                .precioMin(new BigDecimal("350000"))
+                .estado(List.of(EstadoTerreno.DISPONIBLE))
+                .caracteristicas("{\"esquina\": true}")
+                .orden(OrdenTerreno.PRECIO)
+                .direccion(Sort.Direction.DESC)
+                .limite(7)
+                .build();
+
+        List<Long> recorridos = recorrer(filtros);
+
+        List<Long> esperados = jdbc.queryForList("SELECT id FROM terrenos WHERE tenant_id = ? AND deleted = false " +
+                "AND proyecto_id = ? AND precio_final >= 350000 AND estado = 'DISPONIBLE' " +
+                "AND caracteristicas @> '{\"esquina\": true}' ORDER BY precio_final DESC, id DESC",
+                Long.class, tenantId, proyectoId);
+        assertFalse(esperados.isEmpty());
+        assertEquals(esperados, recorridos);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "NUMERO_LOTE, ASC, , idx_terrenos_busqueda_numero",
+            "AREA, DESC, , idx_terrenos_busqueda_area",
+            "PRECIO, ASC, , idx_terrenos_busqueda_precio",
+            "FECHA_CREACION, DESC, , idx_terrenos_busqueda_creacion",
+            "NUMERO_LOTE, DESC, proyecto, idx_terrenos_busqueda_proyecto_numero",
+            "PRECIO, ASC, proyecto, idx_terrenos_busqueda_proyecto_precio"
+    })
+    void buscar_PaginaConCursor_UsaElIndiceDelOrden(OrdenTerreno orden, Sort.Direction direccion, String alcance,
+                                                    String indice) {
+        BusquedaTerrenosRequest filtros = BusquedaTerrenosRequest.builder()
+                .proyectoId(alcance != null ? proyectoId : null)
+                .orden(orden)
+                .direccion(direccion)
+                .limite(50)
+                .build();
+        filtros.setCursor(repository.buscar(tenantId, filtros).getSiguienteCursor());
+        TerrenoBusquedaRepository.Consulta consulta = repository.construirConsulta(tenantId, filtros);
+
+        // Con tan pocos lotes el planificador podría preferir leer la tabla completa: se descarta
+        // el recorrido secuencial para comparar solo entre índices
+        List<String> plan;
+        jdbc.execute("SET enable_seqscan = off");
+        try {
+            plan = jdbc.queryForList("EXPLAIN " + consulta.sql(), String.class, consulta.parametros().toArray());
+        } finally {
+            jdbc.execute("RESET enable_seqscan");
+        }
+
+        String texto = String.join("\n", plan);
+        assertTrue(texto.contains(indice), "Plan sin " + indice + ":\n" + texto);
+        assertFalse(texto.contains("Sort  (cost"), "El índice ya entrega el orden:\n" + texto);
+    }
+
+    private static List<Long> recorrer(BusquedaTerrenosRequest filtros) {
+        List<Long> ids = new ArrayList<>();
+        for (int paginas = 0; paginas <= LOTES; paginas++) {
+            PaginaTerrenosResponse pagina = repository.buscar(tenantId, filtros);
+            assertTrue(pagina.getTerrenos().size() <= filtros.getLimite());
+            pagina.getTerrenos().stream().map(TerrenoResponse::getId).forEach(ids::add);
+            if (!pagina.isHayMas()) {
+                assertNull(pagina.getSiguienteCursor());
+                return ids;
+            }
+            filtros.setCursor(pagina.getSiguienteCursor());
+        }
+        return fail("La paginación no terminó");
+    }
+}
@@ -0,0 +1,91 @@
+package com.inmobiliaria.terrenos.infrastructure.persistence;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inmobiliaria.terrenos.application.dto.terreno.BusquedaTerrenosRequest;
+import com.inmobiliaria.terrenos.application.dto.terreno.TerrenoResponse;
+import com.inmobiliaria.terrenos.domain.enums.EstadoTerreno;
+import com.inmobiliaria.terrenos.domain.enums.OrdenTerreno;
+import com.inmobiliaria.terrenos.shared.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TerrenoBusquedaRepositoryTest {
+
+    private final TerrenoBusquedaRepository repository = new TerrenoBusquedaRepository(null, new ObjectMapper());
+
+    @Test
+    void construirConsulta_ConFiltros_AgregaCondicionesYParametrosEnOrden() {
+        BusquedaTerrenosRequest filtros = BusquedaTerrenosRequest.builder()
+                .proyectoId(200L)
+                .areaMin(new BigDecimal("150"))
+                .precioMax(new BigDecimal("900000"))
+                .estado(List.of(EstadoTerreno.DISPONIBLE, EstadoTerreno.APARTADO))
+                .caracteristicas("{ \"esquina\" : true }")
+                .orden(OrdenTerreno.PRECIO)
+                .direccion(Sort.Direction.DESC)
+                .limite(20)
+                .build();
+
+        TerrenoBusquedaRepository.Consulta consulta = repository.construirConsulta(1L, filtros);
+
+        assertTrue(consulta.sql().contains("t.estado IN (CAST(? AS estado_terreno), CAST(? AS estado_terreno))"));
+        assertTrue(consulta.sql().contains("t.caracteristicas @> CAST(? AS jsonb)"));
+        assertTrue(consulta.sql().endsWith("ORDER BY t.precio_final DESC, t.id DESC LIMIT ?"));
+        assertFalse(consulta.sql().contains("coordenadas_plano"));
+        assertEquals(List.of(1L, 200L, new BigDecimal("150"), new BigDecimal("900000"),
+                "DISPONIBLE", "APARTADO", "{\"esquina\":true}", 21), consulta.parametros());
+    }
+
+    @Test
+    void construirConsulta_ConCursor_ContinuaDespuesDeLaUltimaFila() {
+        TerrenoResponse ultimo = TerrenoResponse.builder()
+                .id(42L)
+                .numeroLote("A:12")
+                .build();
+        String cursor = TerrenoBusquedaRepository.codificarCursor(OrdenTerreno.NUMERO_LOTE, Sort.Direction.ASC, ultimo);
+
+        BusquedaTerrenosRequest filtros = BusquedaTerrenosRequest.builder().cursor(cursor).build();
+        TerrenoBusquedaRepository.Consulta consulta = repository.construirConsulta(1L, filtros);
+
+        assertTrue(consulta.sql().contains("AND (t.numero_lote, t.id) > (?, ?)"));
+        assertEquals(List.of(1L, "A:12", 42L, 51), consulta.parametros());
+    }
+
+    @Test
+    void decodificarCursor_FechaDeCreacion_DevuelveTimestamp() {
+        LocalDateTime creado = LocalDateTime.of(2025, 3, 1, 10, 15, 30, 123_000_000);
+        TerrenoResponse ultimo = TerrenoResponse.builder().id(7L).createdAt(creado).build();
+        String cursor = TerrenoBusquedaRepository.codificarCursor(OrdenTerreno.FECHA_CREACION, Sort.Direction.DESC, ultimo);
+
+        TerrenoBusquedaRepository.Cursor decodificado =
+                TerrenoBusquedaRepository.decodificarCursor(cursor, OrdenTerreno.FECHA_CREACION, Sort.Direction.DESC);
+
+        assertEquals(Timestamp.valueOf(creado), decodificado.valor());
+        assertEquals(7L, decodificado.id());
+    }
+
+    @Test
+    void decodificarCursor_DeOtroOrden_LanzaExcepcion() {
+        TerrenoResponse ultimo = TerrenoResponse.builder().id(7L).area(new BigDecimal("200.50")).build();
+        String cursor = TerrenoBusquedaRepository.codificarCursor(OrdenTerreno.AREA, Sort.Direction.ASC, ultimo);
+
+        assertThrows(BusinessException.class,
+                () -> TerrenoBusquedaRepository.decodificarCursor(cursor, OrdenTerreno.PRECIO, Sort.Direction.ASC));
+        assertThrows(BusinessException.class,
+                () -> TerrenoBusquedaRepository.decodificarCursor("no-es-un-cursor", OrdenTerreno.AREA, Sort.Direction.ASC));
+    }
+
+    @Test
+    void construirConsulta_CaracteristicasQueNoSonObjeto_LanzaExcepcion() {
+        BusquedaTerrenosRequest filtros = BusquedaTerrenosRequest.builder().caracteristicas("[1, 2]").build();
+
+        assertThrows(BusinessException.class, () -> repository.construirConsulta(1L, filtros));
+    }
+}
@@ -0,0 +1,119 @@
+package com.inmobiliaria.terrenos.infrastructure.persistence;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark del vencimiento de apartados: 100,000 apartados vencidos repartidos en 20
+ * proyectos, vencidos por bloques de 1,000 hasta agotarlos, cada bloque en su transacción como
+ * en VencimientoApartadosScheduler.
+ *
+ * Requiere PostgreSQL real con las migraciones (índice parcial de V16): levanta un contenedor
+ * con Testcontainers y se omite si no hay Docker. Registra el tiempo total y la latencia máxima
+ * por bloque; verifica que todos los apartados queden vencidos y que los contadores de los
+ * proyectos cuadren.
+ *
+ * Etiqueta benchmark: no corre con mvn test, sino con mvn test -Pbenchmark. La corrección de
+ * la sentencia la cubre VencimientoApartadosRepositoryPostgresTest.
+ */
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+@Slf4j
+class VencimientoApartadosBenchmarkTest {
+
+    private static final int APARTADOS = 100_000;
+    private static final int PROYECTOS = 20;
+    private static final int BLOQUE = 1_000;
+
+    @Container
+    static final PostgreSQLContainer POSTGRES = new PostgreSQLContainer("postgres:17-alpine");
+
+    @Test
+    void vencer_CienMilApartados_PorBloques() {
+        Flyway.configure().dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .load().migrate();
+
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword(), true);
+        NamedParameterJdbcTemplate jdbc = new NamedParameterJdbcTemplate(dataSource);
+        TransactionTemplate transaccion = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        cargarDatos(jdbc);
+        jdbc.getJdbcTemplate().execute("VACUUM ANALYZE");
+
+        VencimientoApartadosRepository repository = new VencimientoApartadosRepository(jdbc);
+        LocalDate fechaCorte = LocalDate.of(2026, 1, 10);
+        List<Double> bloquesMs = new ArrayList<>();
+        int vencidos = 0;
+        int liberados = 0;
+
+        long inicio = System.nanoTime();
+        while (true) {
+            long inicioBloque = System.nanoTime();
+            VencimientoApartadosRepository.Bloque bloque = transaccion.execute(status ->
+                    repository.vencerBloque(fechaCorte, BLOQUE, "SYSTEM"));
+            if (bloque.apartados() == 0) {
+                break;
+            }
+            bloquesMs.add((System.nanoTime() - inicioBloque) / 1_000_000.0);
+            vencidos += bloque.apartados();
+            liberados += bloque.lotes().size();
+        }
+        long totalMs = (System.nanoTime() - inicio) / 1_000_000;
+
+        log.info("Vencimiento de {} apartados en {} bloques de {}: {} ms en total; bloque promedio {} ms, máximo {} ms",
+                vencidos, bloquesMs.size(), BLOQUE, totalMs,
+                String.format("%.1f", bloquesMs.stream().mapToDouble(Double::doubleValue).average().orElse(0)),
+                String.format("%.1f", bloquesMs.stream().mapToDouble(Double::doubleValue).max().orElse(0)));
+
+        assertEquals(APARTADOS, vencidos);
+        assertEquals(APARTADOS, liberados);
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM apartados WHERE estado = 'ACTIVO'",
+                Map.of(), Integer.class));
+        assertEquals(APARTADOS, jdbc.queryForObject("SELECT SUM(terrenos_disponibles) FROM proyectos",
+                Map.of(), Integer.class));
+        assertEquals(0, jdbc.queryForObject("SELECT SUM(terrenos_apartados) FROM proyectos",
+                Map.of(), Integer.class));
+    }
+
+    private static void cargarDatos(NamedParameterJdbcTemplate jdbc) {
+        Long tenantId = jdbc.queryForObject("INSERT INTO tenants (nombre, email) " +
+                "VALUES ('Benchmark', 'benchmark@test.mx') RETURNING id", Map.of(), Long.class);
+        Long usuarioId = jdbc.queryForObject("INSERT INTO usuarios (tenant_id, nombre, apellido, email, password) " +
+                "VALUES (:tenantId, 'Ana', 'Agente', 'ana@test.mx', 'x') RETURNING id",
+                Map.of("tenantId", tenantId), Long.class);
+        int porProyecto = APARTADOS / PROYECTOS;
+        Map<String, Object> parametros = Map.of("tenantId", tenantId, "usuarioId", usuarioId,
+                "proyectos", PROYECTOS, "porProyecto", porProyecto);
+
+        jdbc.update("INSERT INTO proyectos (tenant_id, nombre, direccion, total_terrenos, terrenos_disponibles, " +
+                "terrenos_apartados) SELECT :tenantId, 'Proyecto ' || g, 'Calle ' || g, :porProyecto, 0, :porProyecto " +
+                "FROM generate_series(1, :proyectos) g", parametros);
+        jdbc.update("INSERT INTO terrenos (tenant_id, proyecto_id, numero_lote, area, precio_base, precio_final, estado) " +
+                "SELECT p.tenant_id, p.id, 'L-' || g, 200, 100000, 100000, 'APARTADO' " +
+                "FROM proyectos p CROSS JOIN generate_series(1, :porProyecto) g WHERE p.tenant_id = :tenantId",
+                parametros);
+        // Vencimientos repartidos en los 60 días anteriores al corte
+        jdbc.update("INSERT INTO apartados (tenant_id, terreno_id, usuario_id, cliente_nombre, cliente_telefono, " +
+                "monto_apartado, precio_total, fecha_apartado, fecha_vencimiento) " +
+                "SELECT t.tenant_id, t.id, :usuarioId, 'Cliente ' || t.id, '5550000000', 5000, 100000, " +
+                "TIMESTAMP '2025-11-01 10:00' + (t.id % 60) * INTERVAL '1 day', " +
+                "TIMESTAMP '2025-11-10 12:00' + (t.id % 60) * INTERVAL '1 day' " +
+                "FROM terrenos t WHERE t.tenant_id = :tenantId", parametros);
+    }
+}
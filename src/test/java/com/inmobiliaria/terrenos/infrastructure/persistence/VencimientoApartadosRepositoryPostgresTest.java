@@ -0,0 +1,259 @@
+package com.inmobiliaria.terrenos.infrastructure.persistence;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.sql.Date;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Vencimiento de apartados contra PostgreSQL con las migraciones reales: estados, liberación
+ * de lotes, contadores de proyectos y fases, versión del plano, auditoría y embudo de ventas, y
+ * dos transacciones concurrentes que no procesan el mismo apartado (FOR UPDATE SKIP LOCKED).
+ * Cada conexión es nueva (DriverManagerDataSource) para que las transacciones sean
+ * independientes. Se omite si no hay Docker.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class VencimientoApartadosRepositoryPostgresTest {
+
+    private static final LocalDate FECHA_CORTE = LocalDate.of(2026, 1, 10);
+
+    @Container
+    static final PostgreSQLContainer POSTGRES = new PostgreSQLContainer("postgres:17-alpine");
+
+    private static NamedParameterJdbcTemplate jdbc;
+    private static TransactionTemplate transaccion;
+    private static VencimientoApartadosRepository repository;
+    private static Long tenantId;
+    private static Long usuarioId;
+    private static int proyectos;
+
+    @BeforeAll
+    static void migrar() {
+        Flyway.configure().dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .load().migrate();
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        jdbc = new NamedParameterJdbcTemplate(dataSource);
+        transaccion = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        repository = new VencimientoApartadosRepository(jdbc);
+
+        tenantId = insertar("INSERT INTO tenants (nombre, email) VALUES ('Vencimientos', 'vencimientos@test.mx') " +
+                "RETURNING id", Map.of());
+        usuarioId = insertar("INSERT INTO usuarios (tenant_id, nombre, apellido, email, password) " +
+                "VALUES (:tenantId, 'Ana', 'Agente', 'ana@test.mx', 'x') RETURNING id", Map.of("tenantId", tenantId));
+    }
+
+    @BeforeEach
+    void cancelarApartadosDePruebasAnteriores() {
+        // El vencimiento recorre todas las empresas: cada prueba parte sin apartados activos
+        jdbc.update("UPDATE apartados SET estado = 'CANCELADO' WHERE estado = 'ACTIVO'", Map.of());
+    }
+
+    @Test
+    void vencerBloque_LiberaLotesAjustaContadoresYAudita() {
+        Long proyectoId = proyecto(4);
+        Long faseId = insertar("INSERT INTO fases (tenant_id, proyecto_id, nombre, terrenos_disponibles) " +
+                "VALUES (:tenantId, :proyectoId, 'Fase Norte', 0) RETURNING id",
+                Map.of("tenantId", tenantId, "proyectoId", proyectoId));
+        Long lote1 = terreno(proyectoId, faseId, "L-1", "APARTADO");
+        Long lote2 = terreno(proyectoId, null, "L-2", "APARTADO");
+        Long conOtroApartado = terreno(proyectoId, null, "L-3", "APARTADO");
+        Long vigente = terreno(proyectoId, null, "L-4", "APARTADO");
+        Long vendido = terreno(proyectoId, null, "L-5", "VENDIDO");
+
+        Long apartado1 = apartado(lote1, "2026-01-05");
+        Long apartado2 = apartado(lote2, "2026-01-06");
+        Long apartado3 = apartado(conOtroApartado, "2026-01-07");
+        Long otroApartado = apartado(conOtroApartado, "2026-02-01");
+        Long apartadoVigente = apartado(vigente, "2026-01-20");
+        Long apartadoVendido = apartado(vendido, "2026-01-08");
+
+        VencimientoApartadosRepository.Bloque bloque = transaccion.execute(status ->
+                repository.vencerBloque(FECHA_CORTE, 100, "SYSTEM"));
+
+        assertEquals(4, bloque.apartados());
+        assertEquals(1, bloque.auditorias());
+        assertEquals(List.of(lote1, lote2), bloque.lotes().stream()
+                .map(VencimientoApartadosRepository.LoteLiberado::terrenoId).sorted().toList());
+        assertTrue(bloque.lotes().stream().allMatch(l -> l.planoVersion() == 1 && l.proyectoId().equals(proyectoId)));
+
+        assertEquals(Map.of(apartado1, "VENCIDO", apartado2, "VENCIDO", apartado3, "VENCIDO",
+                        apartadoVendido, "VENCIDO", otroApartado, "ACTIVO", apartadoVigente, "ACTIVO"),
+                estados("apartados", List.of(apartado1, apartado2, apartado3,
+                        apartadoVendido, otroApartado, apartadoVigente)));
+        assertEquals(Map.of(lote1, "DISPONIBLE", lote2, "DISPONIBLE", conOtroApartado, "APARTADO",
+                        vigente, "APARTADO", vendido, "VENDIDO"),
+                estados("terrenos", List.of(lote1, lote2, conOtroApartado, vigente, vendido)));
+        assertEquals("SYSTEM", jdbc.queryForObject("SELECT updated_by FROM terrenos WHERE id = :id",
+                Map.of("id", lote1), String.class));
+
+        Map<String, Object> contadores = jdbc.queryForMap("SELECT terrenos_disponibles, terrenos_apartados, " +
+                "plano_version FROM proyectos WHERE id = :id", Map.of("id", proyectoId));
+        assertEquals(2, contadores.get("terrenos_disponibles"));
+        assertEquals(2, contadores.get("terrenos_apartados"));
+        assertEquals(1L, contadores.get("plano_version"));
+        assertEquals(1, jdbc.queryForObject("SELECT terrenos_disponibles FROM fases WHERE id = :id",
+                Map.of("id", faseId), Integer.class));
+
+        Map<String, Object> auditoria = jdbc.queryForMap("SELECT usuario_email, descripcion, " +
+                "metadata ->> 'fechaCorte' AS fecha_corte, CAST(metadata -> 'apartados' AS text) AS apartados, " +
+                "CAST(metadata -> 'terrenosLiberados' AS text) AS liberados " +
+                "FROM audit_log_simple WHERE tenant_id = :tenantId AND accion = 'RESERVATIONS_EXPIRED' " +
+                "AND metadata -> 'apartados' @> CAST(:apartado AS jsonb)",
+                Map.of("tenantId", tenantId, "apartado", "[" + apartado1 + "]"));
+        assertEquals("SYSTEM", auditoria.get("usuario_email"));
+        assertEquals("4 apartados vencidos", auditoria.get("descripcion"));
+        assertEquals("2026-01-10", auditoria.get("fecha_corte"));
+        assertEquals(List.of(apartado1, apartado2, apartado3, apartadoVendido).toString(), auditoria.get("apartados"));
+        assertEquals(List.of(lote1, lote2).toString(), auditoria.get("liberados"));
+
+        Map<String, Object> embudo = jdbc.queryForMap("SELECT fecha, usuario_id, cantidad FROM embudo_movimientos " +
+                "WHERE proyecto_id = :proyectoId AND metrica = 'APARTADOS_VENCIDOS'", Map.of("proyectoId", proyectoId));
+        assertEquals(Date.valueOf("2025-12-20"), embudo.get("fecha"));
+        assertEquals(usuarioId, embudo.get("usuario_id"));
+        assertEquals(4, embudo.get("cantidad"));
+
+        VencimientoApartadosRepository.Bloque siguiente = transaccion.execute(status ->
+                repository.vencerBloque(FECHA_CORTE, 100, "SYSTEM"));
+        assertEquals(0, siguiente.apartados());
+        assertEquals(0, siguiente.auditorias());
+        assertTrue(siguiente.lotes().isEmpty());
+    }
+
+    @Test
+    void vencerBloque_Limite_ProcesaLosMasAntiguosPrimero() {
+        Long proyectoId = proyecto(3);
+        Long primero = apartado(terreno(proyectoId, null, "L-1", "APARTADO"), "2026-01-01");
+        Long segundo = apartado(terreno(proyectoId, null, "L-2", "APARTADO"), "2026-01-02");
+        Long tercero = apartado(terreno(proyectoId, null, "L-3", "APARTADO"), "2026-01-03");
+
+        assertEquals(2, transaccion.execute(status -> repository.vencerBloque(FECHA_CORTE, 2, "SYSTEM")).apartados());
+        assertEquals(Map.of(primero, "VENCIDO", segundo, "VENCIDO", tercero, "ACTIVO"),
+                estados("apartados", List.of(primero, segundo, tercero)));
+        assertEquals(1, transaccion.execute(status -> repository.vencerBloque(FECHA_CORTE, 2, "SYSTEM")).apartados());
+        assertEquals(3, jdbc.queryForObject("SELECT terrenos_disponibles FROM proyectos WHERE id = :id",
+                Map.of("id", proyectoId), Integer.class));
+    }
+
+    @Test
+    void vencerBloque_DosTransaccionesConcurrentes_NoProcesanElMismoApartado() {
+        // Los tres apartados más antiguos son del primer proyecto: la segunda transacción los
+        // salta y toma los del segundo sin esperar a que la primera confirme
+        Long proyectoA = proyecto(3);
+        Long proyectoB = proyecto(3);
+        List<Long> apartadosA = List.of(
+                apartado(terreno(proyectoA, null, "L-1", "APARTADO"), "2026-01-01"),
+                apartado(terreno(proyectoA, null, "L-2", "APARTADO"), "2026-01-02"),
+                apartado(terreno(proyectoA, null, "L-3", "APARTADO"), "2026-01-03"));
+        List<Long> apartadosB = List.of(
+                apartado(terreno(proyectoB, null, "L-1", "APARTADO"), "2026-01-04"),
+                apartado(terreno(proyectoB, null, "L-2", "APARTADO"), "2026-01-05"),
+                apartado(terreno(proyectoB, null, "L-3", "APARTADO"), "2026-01-06"));
+
+        Long ultimaAuditoria = jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) FROM audit_log_simple",
+                Map.of(), Long.class);
+
+        ExecutorService otraInstancia = Executors.newSingleThreadExecutor();
+        try {
+            VencimientoApartadosRepository.Bloque[] bloques = new VencimientoApartadosRepository.Bloque[2];
+            transaccion.executeWithoutResult(status -> {
+                bloques[0] = repository.vencerBloque(FECHA_CORTE, 3, "SYSTEM");
+                Future<VencimientoApartadosRepository.Bloque> concurrente = otraInstancia.submit(() ->
+                        transaccion.execute(otro -> repository.vencerBloque(FECHA_CORTE, 10, "SYSTEM")));
+                try {
+                    bloques[1] = concurrente.get(30, TimeUnit.SECONDS);
+                } catch (Exception e) {
+                    throw new IllegalStateException("La segunda transacción no terminó", e);
+                }
+            });
+
+            assertEquals(3, bloques[0].apartados());
+            assertEquals(3, bloques[1].apartados());
+            assertTrue(bloques[0].lotes().stream().allMatch(l -> l.proyectoId().equals(proyectoA)));
+            assertTrue(bloques[1].lotes().stream().allMatch(l -> l.proyectoId().equals(proyectoB)));
+        } finally {
+            otraInstancia.shutdownNow();
+        }
+
+        List<String> arreglos = jdbc.queryForList("SELECT CAST(metadata -> 'apartados' AS text) " +
+                "FROM audit_log_simple WHERE tenant_id = :tenantId AND accion = 'RESERVATIONS_EXPIRED' " +
+                "AND id > :ultimaAuditoria ORDER BY id",
+                Map.of("tenantId", tenantId, "ultimaAuditoria", ultimaAuditoria), String.class);
+        assertEquals(List.of(apartadosA.toString(), apartadosB.toString()), arreglos,
+                "Cada apartado se audita una sola vez, en el bloque que lo procesó");
+        assertEquals(6, jdbc.queryForObject("SELECT COUNT(*) FROM apartados WHERE id IN (:ids) AND estado = 'VENCIDO'",
+                Map.of("ids", List.of(apartadosA.get(0), apartadosA.get(1), apartadosA.get(2),
+                        apartadosB.get(0), apartadosB.get(1), apartadosB.get(2))), Integer.class));
+        for (Long proyectoId : List.of(proyectoA, proyectoB)) {
+            Map<String, Object> contadores = jdbc.queryForMap("SELECT terrenos_disponibles, terrenos_apartados, " +
+                    "plano_version FROM proyectos WHERE id = :id", Map.of("id", proyectoId));
+            assertEquals(3, contadores.get("terrenos_disponibles"));
+            assertEquals(0, contadores.get("terrenos_apartados"));
+            assertEquals(1L, contadores.get("plano_version"));
+        }
+    }
+
+    private static Long proyecto(int apartados) {
+        proyectos++;
+        return insertar("INSERT INTO proyectos (tenant_id, nombre, direccion, total_terrenos, terrenos_disponibles, " +
+                        "terrenos_apartados) VALUES (:tenantId, :nombre, 'Calle 1', :apartados, 0, :apartados) RETURNING id",
+                Map.of("tenantId", tenantId, "nombre", "Vencimientos " + proyectos, "apartados", apartados));
+    }
+
+    private static Long terreno(Long proyectoId, Long faseId, String numero, String estado) {
+        return jdbc.queryForObject("INSERT INTO terrenos (tenant_id, proyecto_id, fase_id, numero_lote, area, " +
+                        "precio_base, precio_final, estado) " +
+                        "VALUES (:tenantId, :proyectoId, :faseId, :numero, 200, 100000, 100000, " +
+                        "CAST(:estado AS estado_terreno)) RETURNING id",
+                new MapSqlParameterSource()
+                        .addValue("tenantId", tenantId)
+                        .addValue("proyectoId", proyectoId)
+                        .addValue("faseId", faseId, Types.BIGINT)
+                        .addValue("numero", numero)
+                        .addValue("estado", estado),
+                Long.class);
+    }
+
+    private static Long apartado(Long terrenoId, String vencimiento) {
+        return insertar("INSERT INTO apartados (tenant_id, terreno_id, usuario_id, cliente_nombre, cliente_telefono, " +
+                        "monto_apartado, precio_total, fecha_apartado, fecha_vencimiento) " +
+                        "VALUES (:tenantId, :terrenoId, :usuarioId, 'Cliente', '5550000000', 5000, 100000, " +
+                        "TIMESTAMP '2025-12-20 10:00', CAST(:vencimiento AS timestamp)) RETURNING id",
+                Map.of("tenantId", tenantId, "terrenoId", terrenoId, "usuarioId", usuarioId,
+                        "vencimiento", vencimiento + " 12:00"));
+    }
+
+    private static Map<Long, String> estados(String tabla, List<Long> ids) {
+        Map<Long, String> estados = new HashMap<>();
+        jdbc.query("SELECT id, CAST(estado AS text) AS estado FROM " + tabla + " WHERE id IN (:ids)",
+                Map.of("ids", ids), rs -> {
+                    estados.put(rs.getLong("id"), rs.getString("estado"));
+                });
+        return estados;
+    }
+
+    private static Long insertar(String sql, Map<String, ?> parametros) {
+        return jdbc.queryForObject(sql, parametros, Long.class);
+    }
+}
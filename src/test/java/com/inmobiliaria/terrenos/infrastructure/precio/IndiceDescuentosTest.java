@@ -0,0 +1,85 @@
+package com.inmobiliaria.terrenos.infrastructure.precio;
+
+import com.inmobiliaria.terrenos.domain.entity.Descuento;
+import com.inmobiliaria.terrenos.domain.enums.TipoDescuento;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceDescuentosTest {
+
+    private static final LocalDate HOY = LocalDate.of(2026, 3, 15);
+    private static final BigDecimal PRECIO = new BigDecimal("500000.00");
+
+    @Test
+    void mejorDescuento_EligeElMayorSinAcumular() {
+        IndiceDescuentos indice = IndiceDescuentos.of(List.of(
+                descuento(1L, null, TipoDescuento.PORCENTAJE, "5").build(),
+                descuento(2L, 10L, TipoDescuento.MONTO_FIJO, "30000").build(),
+                descuento(3L, 10L, TipoDescuento.PORCENTAJE, "8").aplicaAFases(List.of(7L)).build()));
+
+        IndiceDescuentos.DescuentoAplicado enFase = indice.mejorDescuento(10L, 7L, 100L, PRECIO, HOY, null);
+        IndiceDescuentos.DescuentoAplicado otraFase = indice.mejorDescuento(10L, 8L, 101L, PRECIO, HOY, null);
+        IndiceDescuentos.DescuentoAplicado otroProyecto = indice.mejorDescuento(11L, 9L, 102L, PRECIO, HOY, null);
+
+        assertEquals(3L, enFase.descuentoId());
+        assertEquals(new BigDecimal("40000.00"), enFase.monto());
+        assertEquals(new BigDecimal("460000.00"), enFase.precioFinal());
+        assertEquals(new BigDecimal("8.00"), enFase.porcentaje());
+        assertEquals(2L, otraFase.descuentoId());
+        assertEquals(1L, otroProyecto.descuentoId());
+    }
+
+    @Test
+    void mejorDescuento_RespetaVigenciaUsosYLotes() {
+        IndiceDescuentos indice = IndiceDescuentos.of(List.of(
+                descuento(1L, 10L, TipoDescuento.PORCENTAJE, "10").fechaInicio(HOY.plusDays(1)).build(),
+                descuento(2L, 10L, TipoDescuento.PORCENTAJE, "10").usosMaximos(3).usosActuales(3).build(),
+                descuento(3L, 10L, TipoDescuento.PORCENTAJE, "2").aplicaATerrenos(List.of(100L, 105L)).build()));
+
+        assertEquals(3L, indice.mejorDescuento(10L, 7L, 105L, PRECIO, HOY, null).descuentoId());
+        assertNull(indice.mejorDescuento(10L, 7L, 104L, PRECIO, HOY, null));
+        assertEquals(1L, indice.mejorDescuento(10L, 7L, 104L, PRECIO, HOY.plusDays(1), null).descuentoId());
+    }
+
+    @Test
+    void mejorDescuento_CodigoSoloConElCodigoDelCliente() {
+        IndiceDescuentos indice = IndiceDescuentos.of(List.of(
+                descuento(1L, 10L, TipoDescuento.PORCENTAJE, "3").build(),
+                descuento(2L, 10L, TipoDescuento.PORCENTAJE, "12").codigo("FERIA26").build()));
+
+        assertEquals(1L, indice.mejorDescuento(10L, null, 100L, PRECIO, HOY, null).descuentoId());
+        assertEquals(1L, indice.mejorDescuento(10L, null, 100L, PRECIO, HOY, "OTRO").descuentoId());
+        assertEquals(2L, indice.mejorDescuento(10L, null, 100L, PRECIO, HOY, " feria26 ").descuentoId());
+        assertTrue(indice.aplicaCodigo(10L, null, 100L, HOY, "Feria26"));
+        assertFalse(indice.aplicaCodigo(11L, null, 100L, HOY, "FERIA26"));
+    }
+
+    @Test
+    void mejorDescuento_MontoFijoNoSuperaElPrecio() {
+        IndiceDescuentos indice = IndiceDescuentos.of(List.of(
+                descuento(1L, null, TipoDescuento.MONTO_FIJO, "900000").build()));
+
+        IndiceDescuentos.DescuentoAplicado aplicado = indice.mejorDescuento(10L, null, 100L, PRECIO, HOY, null);
+
+        assertEquals(0, aplicado.precioFinal().signum());
+        assertEquals(new BigDecimal("100.00"), aplicado.porcentaje());
+        assertNull(indice.mejorDescuento(10L, null, 100L, null, HOY, null));
+    }
+
+    private static Descuento.DescuentoBuilder descuento(Long id, Long proyectoId, TipoDescuento tipo, String valor) {
+        return Descuento.builder()
+                .id(id)
+                .tenantId(1L)
+                .proyectoId(proyectoId)
+                .nombre("Descuento " + id)
+                .tipo(tipo)
+                .valor(new BigDecimal(valor))
+                .fechaInicio(HOY.minusDays(10))
+                .fechaFin(HOY.plusDays(10));
+    }
+}
@@ -0,0 +1,108 @@
+package com.inmobiliaria.terrenos.infrastructure.realtime;
+
+import com.inmobiliaria.terrenos.application.dto.plano.CambioEstadoLoteResponse;
+import com.inmobiliaria.terrenos.domain.enums.EstadoTerreno;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SuscriptorDisponibilidadTest {
+
+    /**
+     * Emitter que guarda los cambios enviados en lugar de escribirlos en la respuesta
+     */
+    private static class EmitterDePrueba extends SseEmitter {
+        final List<List<?>> lotesEnviados = new ArrayList<>();
+        int pings;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            boolean conDatos = false;
+            for (ResponseBodyEmitter.DataWithMediaType parte : builder.build()) {
+                if (parte.getData() instanceof List<?> cambios) {
+                    lotesEnviados.add(cambios);
+                    conDatos = true;
+                }
+            }
+            if (!conDatos) {
+                pings++;
+            }
+        }
+    }
+
+    private static CambioEstadoLoteResponse cambio(long terrenoId, EstadoTerreno estado, long version) {
+        return CambioEstadoLoteResponse.builder()
+                .terrenoId(terrenoId)
+                .estado(estado)
+                .version(version)
+                .build();
+    }
+
+    @Test
+    void enviar_RafagaSobreElMismoLote_EnviaSoloElUltimoEstado() throws Exception {
+        EmitterDePrueba emitter = new EmitterDePrueba();
+        SuscriptorDisponibilidad suscriptor = new SuscriptorDisponibilidad(emitter, 10);
+
+        suscriptor.encolar(cambio(1, EstadoTerreno.APARTADO, 5));
+        suscriptor.encolar(cambio(2, EstadoTerreno.APARTADO, 6));
+        suscriptor.encolar(cambio(1, EstadoTerreno.DISPONIBLE, 7));
+        assertTrue(suscriptor.programar());
+        assertFalse(suscriptor.enviar());
+
+        assertEquals(1, emitter.lotesEnviados.size());
+        List<?> enviados = emitter.lotesEnviados.get(0);
+        assertEquals(2, enviados.size());
+        assertEquals(EstadoTerreno.DISPONIBLE, ((CambioEstadoLoteResponse) enviados.get(0)).getEstado());
+        assertEquals(0, suscriptor.pendientes());
+    }
+
+    @Test
+    void programar_ConEnvioYaProgramado_NoProgramaOtro() {
+        SuscriptorDisponibilidad suscriptor = new SuscriptorDisponibilidad(new EmitterDePrueba(), 10);
+
+        suscriptor.encolar(cambio(1, EstadoTerreno.APARTADO, 1));
+        assertTrue(suscriptor.programar());
+        suscriptor.encolar(cambio(2, EstadoTerreno.APARTADO, 2));
+
+        assertFalse(suscriptor.programar());
+    }
+
+    @Test
+    void encolar_MasLotesQueLaCapacidad_IndicaDesborde() {
+        SuscriptorDisponibilidad suscriptor = new SuscriptorDisponibilidad(new EmitterDePrueba(), 2);
+
+        assertTrue(suscriptor.encolar(cambio(1, EstadoTerreno.APARTADO, 1)));
+        assertTrue(suscriptor.encolar(cambio(2, EstadoTerreno.APARTADO, 2)));
+        assertTrue(suscriptor.encolar(cambio(2, EstadoTerreno.VENDIDO, 3)));  // mismo lote: no crece
+        assertFalse(suscriptor.encolar(cambio(3, EstadoTerreno.APARTADO, 4)));
+    }
+
+    @Test
+    void enviar_SinCambiosConPing_EnviaComentario() throws Exception {
+        EmitterDePrueba emitter = new EmitterDePrueba();
+        SuscriptorDisponibilidad suscriptor = new SuscriptorDisponibilidad(emitter, 10);
+
+        suscriptor.encolarPing();
+        suscriptor.programar();
+        suscriptor.enviar();
+
+        assertEquals(1, emitter.pings);
+        assertTrue(emitter.lotesEnviados.isEmpty());
+    }
+
+    @Test
+    void cerrar_DescartaPendientesYNoProgramaMas() {
+        SuscriptorDisponibilidad suscriptor = new SuscriptorDisponibilidad(new EmitterDePrueba(), 10);
+        suscriptor.encolar(cambio(1, EstadoTerreno.APARTADO, 1));
+
+        suscriptor.cerrar();
+
+        assertEquals(0, suscriptor.pendientes());
+        assertFalse(suscriptor.programar());
+    }
+}